@@ -87,6 +87,7 @@ public class StatisticsUtil {
     result.setNumBytes(result.getNumBytes() + stats.getNumBytes());
     result.setReadBytes(result.getReadBytes() + stats.getReadBytes());
     result.setNumBlocks(result.getNumBlocks() + stats.getNumBlocks());
+    result.setNumSkippedBlocks(result.getNumSkippedBlocks() + stats.getNumSkippedBlocks());
     result.setNumShuffleOutputs(result.getNumShuffleOutputs() + stats.getNumShuffleOutputs());
   }
 
@@ -143,6 +144,7 @@ public class StatisticsUtil {
       aggregated.setNumBytes(aggregated.getNumBytes() + ts.getNumBytes());
       aggregated.setReadBytes(aggregated.getReadBytes() + ts.getReadBytes());
       aggregated.setNumBlocks(aggregated.getNumBlocks() + ts.getNumBlocks());
+      aggregated.setNumSkippedBlocks(aggregated.getNumSkippedBlocks() + ts.getNumSkippedBlocks());
       aggregated.setNumShuffleOutputs(aggregated.getNumShuffleOutputs() + ts.getNumShuffleOutputs());
     }
 
@@ -42,6 +42,7 @@ public class TableStats implements ProtoObject<TableStatsProto>, Cloneable, Gson
   @Expose private Integer numShuffleOutputs = null; // optional
   @Expose private Long avgRows = null; // optional
   @Expose private Long readBytes = null; //optional
+  @Expose private Integer numSkippedBlocks = null; // optional
   @Expose private List<ColumnStats> columnStatses = null; // repeated
 
   public TableStats() {
@@ -55,6 +56,7 @@ public class TableStats implements ProtoObject<TableStatsProto>, Cloneable, Gson
     numShuffleOutputs = 0;
     avgRows = 0l;
     readBytes = 0l;
+    numSkippedBlocks = 0;
     columnStatses = TUtil.newList();
   }
 
@@ -82,6 +84,11 @@ public class TableStats implements ProtoObject<TableStatsProto>, Cloneable, Gson
     } else {
       this.readBytes = 0l;
     }
+    if (proto.hasNumSkippedBlocks()) {
+      this.numSkippedBlocks = proto.getNumSkippedBlocks();
+    } else {
+      this.numSkippedBlocks = 0;
+    }
 
     this.columnStatses = TUtil.newList();
     for (CatalogProtos.ColumnStatsProto colProto : proto.getColStatList()) {
@@ -140,6 +147,17 @@ public class TableStats implements ProtoObject<TableStatsProto>, Cloneable, Gson
     this.readBytes = readBytes;
   }
 
+  /**
+   * @return The number of blocks, such as row groups or stripes, which a scan skipped by their statistics
+   */
+  public Integer getNumSkippedBlocks() {
+    return numSkippedBlocks;
+  }
+
+  public void setNumSkippedBlocks(int numSkippedBlocks) {
+    this.numSkippedBlocks = numSkippedBlocks;
+  }
+
   public List<ColumnStats> getColumnStats() {
     return this.columnStatses;
   }
@@ -162,6 +180,7 @@ public class TableStats implements ProtoObject<TableStatsProto>, Cloneable, Gson
       eq = eq && TUtil.checkEquals(this.numShuffleOutputs, other.numShuffleOutputs);
       eq = eq && TUtil.checkEquals(this.avgRows, other.avgRows);
       eq = eq && TUtil.checkEquals(this.readBytes, other.readBytes);
+      eq = eq && TUtil.checkEquals(this.numSkippedBlocks, other.numSkippedBlocks);
       eq = eq && TUtil.checkEquals(this.columnStatses, other.columnStatses);
       return eq;
     } else {
@@ -182,6 +201,7 @@ public class TableStats implements ProtoObject<TableStatsProto>, Cloneable, Gson
     stat.numShuffleOutputs = numShuffleOutputs != null ? numShuffleOutputs : null;
     stat.avgRows = avgRows != null ? avgRows : null;
     stat.readBytes = readBytes != null ? readBytes : null;
+    stat.numSkippedBlocks = numSkippedBlocks != null ? numSkippedBlocks : null;
 
     stat.columnStatses = new ArrayList<ColumnStats>(this.columnStatses);
 
@@ -211,6 +231,9 @@ public class TableStats implements ProtoObject<TableStatsProto>, Cloneable, Gson
     if (stat.readBytes != null) {
       readBytes += stat.readBytes;
     }
+    if (stat.numSkippedBlocks != null) {
+      numSkippedBlocks += stat.numSkippedBlocks;
+    }
   }
 
   public void setValues(TableStats stat) {
@@ -224,6 +247,7 @@ public class TableStats implements ProtoObject<TableStatsProto>, Cloneable, Gson
     numShuffleOutputs = stat.numShuffleOutputs != null ? stat.numShuffleOutputs : 0;
     avgRows = stat.avgRows != null ? stat.avgRows : 0;
     readBytes = stat.readBytes != null ? stat.readBytes : 0;
+    numSkippedBlocks = stat.numSkippedBlocks != null ? stat.numSkippedBlocks : 0;
   }
 
   public String toString() {
@@ -255,6 +279,9 @@ public class TableStats implements ProtoObject<TableStatsProto>, Cloneable, Gson
     if (this.readBytes != null) {
       builder.setReadBytes(this.readBytes);
     }
+    if (this.numSkippedBlocks != null) {
+      builder.setNumSkippedBlocks(this.numSkippedBlocks);
+    }
     if (this.columnStatses != null) {
       for (ColumnStats colStat : columnStatses) {
         builder.addColStat(colStat.getProto());
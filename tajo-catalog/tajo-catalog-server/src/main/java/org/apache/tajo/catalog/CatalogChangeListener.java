@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.catalog;
+
+/**
+ * CatalogChangeListener is notified after the definition or the data of tables are changed through
+ * {@link CatalogServer}, e.g., by INSERT, ALTER TABLE or DROP TABLE. It is called while the catalog is locked,
+ * so it should return quickly.
+ */
+public interface CatalogChangeListener {
+
+  /**
+   * @param qualifiedTableName The qualified name of the created, altered, updated or dropped table
+   */
+  void tableChanged(String qualifiedTableName);
+
+  /**
+   * @param databaseName The name of the dropped database, whose tables are dropped together
+   */
+  void databaseDropped(String databaseName);
+}
@@ -57,6 +57,7 @@ import java.net.InetSocketAddress;
 import java.net.URI;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -95,6 +96,8 @@ public class CatalogServer extends AbstractService {
 
   private Collection<FunctionDesc> builtingFuncs;
 
+  private final List<CatalogChangeListener> changeListeners = new CopyOnWriteArrayList<CatalogChangeListener>();
+
   public CatalogServer() throws IOException {
     super(CatalogServer.class.getName());
     this.handler = new CatalogProtocolHandler();
@@ -196,6 +199,34 @@ public class CatalogServer extends AbstractService {
     return this.bindAddress;
   }
 
+  public void addChangeListener(CatalogChangeListener listener) {
+    changeListeners.add(listener);
+  }
+
+  public void removeChangeListener(CatalogChangeListener listener) {
+    changeListeners.remove(listener);
+  }
+
+  private void notifyTableChanged(String qualifiedTableName) {
+    for (CatalogChangeListener listener : changeListeners) {
+      try {
+        listener.tableChanged(qualifiedTableName);
+      } catch (Throwable t) {
+        LOG.warn("Catalog change listener failed: " + t.getMessage(), t);
+      }
+    }
+  }
+
+  private void notifyDatabaseDropped(String databaseName) {
+    for (CatalogChangeListener listener : changeListeners) {
+      try {
+        listener.databaseDropped(databaseName);
+      } catch (Throwable t) {
+        LOG.warn("Catalog change listener failed: " + t.getMessage(), t);
+      }
+    }
+  }
+
   public class CatalogProtocolHandler implements CatalogProtocolService.BlockingInterface {
 
     @Override
@@ -419,6 +450,7 @@ public class CatalogServer extends AbstractService {
 
       try {
         store.updateTableStats(proto);
+        notifyTableChanged(proto.getTableName());
         return OK;
 
       } catch (Throwable t) {
@@ -446,6 +478,10 @@ public class CatalogServer extends AbstractService {
 
       try {
         store.alterTable(proto);
+        notifyTableChanged(proto.getTableName());
+        if (proto.hasNewTableName()) {
+          notifyTableChanged(CatalogUtil.buildFQName(split[0], proto.getNewTableName()));
+        }
         return OK;
 
       } catch (Throwable t) {
@@ -472,6 +508,7 @@ public class CatalogServer extends AbstractService {
       wlock.lock();
       try {
         store.dropDatabase(databaseName);
+        notifyDatabaseDropped(databaseName);
         return OK;
 
       } catch (Throwable t) {
@@ -664,6 +701,7 @@ public class CatalogServer extends AbstractService {
       wlock.lock();
       try {
         store.createTable(request);
+        notifyTableChanged(request.getTableName());
         LOG.info(String.format("relation \"%s\" is added to the catalog (%s)",
             CatalogUtil.getCanonicalTableName(dbName, tbName), bindAddressStr));
         return OK;
@@ -694,6 +732,7 @@ public class CatalogServer extends AbstractService {
       wlock.lock();
       try {
         store.dropTable(dbName, tbName);
+        notifyTableChanged(CatalogUtil.buildFQName(dbName, tbName));
         LOG.info(String.format("relation \"%s\" is deleted from the catalog (%s)",
             CatalogUtil.getCanonicalTableName(dbName, tbName), bindAddressStr));
 
@@ -1033,6 +1072,7 @@ public class CatalogServer extends AbstractService {
       try {
 
         store.addPartitions(databaseName, tableName, request.getPartitionDescList(), request.getIfNotExists());
+        notifyTableChanged(CatalogUtil.buildFQName(databaseName, tableName));
         return OK;
 
       } catch (Throwable t) {
@@ -2704,6 +2704,8 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
   private IndexMethod getIndexMethod(final String typeStr) {
     if (typeStr.equals(IndexMethod.TWO_LEVEL_BIN_TREE.toString())) {
       return IndexMethod.TWO_LEVEL_BIN_TREE;
+    } else if (typeStr.equals(IndexMethod.BLOOM.toString())) {
+      return IndexMethod.BLOOM;
     } else {
       LOG.error("Cannot find a matched type against from '"
           + typeStr + "'");
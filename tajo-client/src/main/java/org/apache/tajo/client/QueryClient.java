@@ -50,6 +50,11 @@ public interface QueryClient extends Closeable {
   
   int getMaxRows();
 
+  /**
+   * @return The number of row batches which are fetched in background by a result set. 0 means no prefetching.
+   */
+  int getFetchPrefetchNum();
+
   @Override
   void close();
 
@@ -108,6 +113,15 @@ public interface QueryClient extends Closeable {
 
   TajoMemoryResultSet fetchNextQueryResult(final QueryId queryId, final int fetchRowNum) throws TajoException;
 
+  /**
+   * Split the result of a query into result streams, which are read directly from workers in parallel instead of
+   * being fetched through TajoMaster. A query having a limit or an empty result has one or no stream.
+   *
+   * @param maxStreamNum The max number of result streams
+   * @return The result streams, which should be closed after they are read
+   */
+  List<ResultStream> getQueryResultStreams(final QueryId queryId, final int maxStreamNum) throws TajoException;
+
   boolean updateQuery(final String sql) throws TajoException;
 
   boolean updateQueryWithJson(final String json) throws TajoException;
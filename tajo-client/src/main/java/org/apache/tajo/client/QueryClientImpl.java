@@ -28,7 +28,6 @@ import org.apache.tajo.TajoIdProtos.SessionIdProto;
 import org.apache.tajo.TajoProtos;
 import org.apache.tajo.auth.UserRoleInfo;
 import org.apache.tajo.catalog.CatalogUtil;
-import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.catalog.TableDesc;
 import org.apache.tajo.client.v2.exception.ClientUnableToConnectException;
 import org.apache.tajo.exception.*;
@@ -45,6 +44,7 @@ import org.apache.tajo.util.ProtoUtil;
 import java.net.ConnectException;
 import java.net.InetSocketAddress;
 import java.sql.ResultSet;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -60,6 +60,9 @@ public class QueryClientImpl implements QueryClient {
   private static final Log LOG = LogFactory.getLog(QueryClientImpl.class);
   private final SessionConnection conn;
   private final int defaultFetchRows;
+  private final int fetchPrefetchNum;
+  // the codec of result rows encoded in columns, or null if rows are encoded separately
+  private final SerializedResultSet.CodecType columnarCodec;
   // maxRows number is limit value of resultSet. The value must be >= 0, and 0 means there is not limit.
   private int maxRows;
 
@@ -67,6 +70,17 @@ public class QueryClientImpl implements QueryClient {
     this.conn = conn;
     this.defaultFetchRows = this.conn.getProperties().getInt(SessionVars.FETCH_ROWNUM.getConfVars().keyname(),
         SessionVars.FETCH_ROWNUM.getConfVars().defaultIntVal);
+    this.fetchPrefetchNum = this.conn.getProperties().getInt(
+        SessionVars.FETCH_PREFETCH_NUM.getConfVars().keyname(),
+        SessionVars.FETCH_PREFETCH_NUM.getConfVars().defaultIntVal);
+    if (this.conn.getProperties().getBool(SessionVars.FETCH_COLUMNAR.getConfVars().keyname(),
+        SessionVars.FETCH_COLUMNAR.getConfVars().defaultBoolVal)) {
+      boolean compress = this.conn.getProperties().getBool(SessionVars.FETCH_COMPRESSION.getConfVars().keyname(),
+          SessionVars.FETCH_COMPRESSION.getConfVars().defaultBoolVal);
+      this.columnarCodec = compress ? SerializedResultSet.CodecType.DEFLATE : SerializedResultSet.CodecType.NO_CODEC;
+    } else {
+      this.columnarCodec = null;
+    }
     this.maxRows = 0;
   }
 
@@ -325,27 +339,52 @@ public class QueryClientImpl implements QueryClient {
   public TajoMemoryResultSet fetchNextQueryResult(final QueryId queryId, final int fetchRowNum) throws TajoException {
 
     final BlockingInterface stub = conn.getTMStub();
-    final GetQueryResultDataRequest request = GetQueryResultDataRequest.newBuilder()
+    final GetQueryResultDataRequest.Builder request = GetQueryResultDataRequest.newBuilder()
         .setSessionId(conn.sessionId)
         .setQueryId(queryId.getProto())
-        .setFetchRowNum(fetchRowNum)
-        .build();
+        .setFetchRowNum(fetchRowNum);
+    if (columnarCodec != null) {
+      request.setColumnarCodec(columnarCodec);
+    }
 
     GetQueryResultDataResponse response;
     try {
-      response = stub.getQueryResultData(null, request);
+      response = stub.getQueryResultData(null, request.build());
+    } catch (ServiceException e) {
+      throw new RuntimeException(e);
+    }
+
+    throwIfError(response.getState());
+
+    // a master which does not support the columnar encoding ignores the codec of the request, and returns rows
+    return TajoClientUtil.createMemoryResultSet(queryId, response.getResultSet(), getClientSideSessionVars());
+  }
+
+  @Override
+  public List<ResultStream> getQueryResultStreams(final QueryId queryId, final int maxStreamNum)
+      throws TajoException {
+
+    final BlockingInterface stub = conn.getTMStub();
+    final GetQueryResultStreamsRequest request = GetQueryResultStreamsRequest.newBuilder()
+        .setSessionId(conn.sessionId)
+        .setQueryId(queryId.getProto())
+        .setMaxStreamNum(maxStreamNum)
+        .build();
+
+    GetQueryResultStreamsResponse response;
+    try {
+      response = stub.getQueryResultStreams(null, request);
     } catch (ServiceException e) {
       throw new RuntimeException(e);
     }
 
     throwIfError(response.getState());
 
-    ClientProtos.SerializedResultSet resultSet = response.getResultSet();
-    return new TajoMemoryResultSet(queryId,
-        new Schema(resultSet.getSchema()),
-        resultSet.getSerializedTuplesList(),
-        resultSet.getSerializedTuplesCount(),
-        getClientSideSessionVars());
+    List<ResultStream> streams = new ArrayList<ResultStream>();
+    for (ResultStreamProto eachStream : response.getStreamsList()) {
+      streams.add(new ResultStream(eachStream, columnarCodec, getClientSideSessionVars()));
+    }
+    return streams;
   }
 
   @Override
@@ -477,6 +516,11 @@ public class QueryClientImpl implements QueryClient {
   	return this.maxRows;
   }
 
+  @Override
+  public int getFetchPrefetchNum() {
+    return fetchPrefetchNum;
+  }
+
   public QueryInfoProto getQueryInfo(final QueryId queryId) throws QueryNotFoundException {
 
     final BlockingInterface stub = conn.getTMStub();
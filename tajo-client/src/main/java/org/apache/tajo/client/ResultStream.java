@@ -0,0 +1,185 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.client;
+
+import com.google.protobuf.ServiceException;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.tajo.QueryId;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.TableDesc;
+import org.apache.tajo.client.v2.exception.ClientUnableToConnectException;
+import org.apache.tajo.exception.TajoException;
+import org.apache.tajo.exception.TajoInternalError;
+import org.apache.tajo.exception.TajoRuntimeException;
+import org.apache.tajo.ipc.QueryMasterClientProtocol;
+import org.apache.tajo.jdbc.TajoMemoryResultSet;
+import org.apache.tajo.rpc.NettyClientBase;
+import org.apache.tajo.rpc.RpcClientManager;
+import org.apache.tajo.util.NetUtils;
+
+import java.io.Closeable;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.tajo.exception.ExceptionUtil.throwIfError;
+import static org.apache.tajo.ipc.ClientProtos.*;
+import static org.apache.tajo.ipc.QueryMasterClientProtocol.QueryMasterClientProtocolService;
+
+/**
+ * ResultStream is a part of the result of a query, which is read directly from a worker. The result streams of a
+ * query do not overlap each other, and they can be read in parallel by different threads or processes. A result
+ * stream has its own connection to the worker, and it should be closed after it is read.
+ *
+ * A result stream is read from the first row regardless of the rows fetched from TajoMaster.
+ */
+public class ResultStream implements Closeable {
+  private static final Log LOG = LogFactory.getLog(ResultStream.class);
+
+  private final ResultStreamProto proto;
+  // the codec of result rows encoded in columns, or null if rows are encoded separately
+  private final SerializedResultSet.CodecType columnarCodec;
+  private final Map<String, String> clientSideSessionVars;
+
+  private NettyClientBase workerClient;
+  // the number of rows read so far
+  private long offset;
+  private boolean finished;
+
+  public ResultStream(ResultStreamProto proto, SerializedResultSet.CodecType columnarCodec,
+                      Map<String, String> clientSideSessionVars) {
+    this.proto = proto;
+    this.columnarCodec = columnarCodec;
+    this.clientSideSessionVars = clientSideSessionVars;
+  }
+
+  public String getId() {
+    return proto.getId();
+  }
+
+  public QueryId getQueryId() {
+    return new QueryId(proto.getQueryId());
+  }
+
+  public Schema getSchema() {
+    return new TableDesc(proto.getTableDesc()).getLogicalSchema();
+  }
+
+  public String getHost() {
+    return proto.getHost();
+  }
+
+  public int getPort() {
+    return proto.getPort();
+  }
+
+  public Map<String, String> getClientSideSessionVars() {
+    return clientSideSessionVars;
+  }
+
+  /**
+   * @return The next batch of rows, or null if all rows are read
+   */
+  public synchronized TajoMemoryResultSet fetchNext(int fetchRowNum) throws TajoException {
+    if (finished) {
+      return null;
+    }
+
+    GetResultStreamDataRequest.Builder request = GetResultStreamDataRequest.newBuilder()
+        .setStream(proto)
+        .setOffset(offset)
+        .setFetchRowNum(fetchRowNum);
+    if (columnarCodec != null) {
+      request.setColumnarCodec(columnarCodec);
+    }
+
+    GetQueryResultDataResponse response;
+    try {
+      QueryMasterClientProtocolService.BlockingInterface stub = getWorkerClient().getStub();
+      response = stub.getResultStreamData(null, request.build());
+    } catch (ServiceException e) {
+      throw new RuntimeException(e);
+    }
+    throwIfError(response.getState());
+
+    SerializedResultSet resultSet = response.getResultSet();
+    int rowNum = resultSet.hasSerializedColumns() ? resultSet.getRowNum() : resultSet.getSerializedTuplesCount();
+    offset += rowNum;
+    if (rowNum < fetchRowNum) {
+      // the worker closes the stream after the last batch, which is not full
+      finished = true;
+      closeWorkerClient();
+    }
+    return TajoClientUtil.createMemoryResultSet(getQueryId(), resultSet, clientSideSessionVars);
+  }
+
+  private NettyClientBase getWorkerClient() {
+    if (workerClient == null) {
+      InetSocketAddress workerAddress = new InetSocketAddress(proto.getHost(), proto.getPort());
+      RpcClientManager manager = RpcClientManager.getInstance();
+      try {
+        workerClient = manager.newClient(
+            workerAddress,
+            QueryMasterClientProtocol.class,
+            false,
+            manager.getRetries(),
+            manager.getTimeoutSeconds(),
+            TimeUnit.SECONDS,
+            false
+        );
+      } catch (NoSuchMethodException | ClassNotFoundException e) {
+        throw new TajoInternalError(e);
+      } catch (ConnectException e) {
+        throw new TajoRuntimeException(
+            new ClientUnableToConnectException(NetUtils.normalizeInetSocketAddress(workerAddress)));
+      }
+    }
+    return workerClient;
+  }
+
+  private void closeWorkerClient() {
+    if (workerClient != null) {
+      workerClient.close();
+      workerClient = null;
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    if (!finished && workerClient != null) {
+      // the worker keeps the stream until all rows are read, so it is closed explicitly
+      try {
+        QueryMasterClientProtocolService.BlockingInterface stub = workerClient.getStub();
+        stub.closeResultStream(null, proto);
+      } catch (Throwable t) {
+        LOG.warn("Failed to close result stream " + getId() + ": " + t.getMessage());
+      }
+    }
+    finished = true;
+    closeWorkerClient();
+  }
+
+  @Override
+  public String toString() {
+    return "result stream " + getId() + " of " + getQueryId() + " (" + proto.getFragmentsCount() + " fragments at "
+        + getHost() + ":" + getPort() + ")";
+  }
+}
@@ -135,6 +135,11 @@ public class TajoClientImpl extends SessionConnection implements TajoClient, Que
     return queryClient.fetchNextQueryResult(queryId, fetchRowNum);
   }
 
+  public List<ResultStream> getQueryResultStreams(final QueryId queryId, final int maxStreamNum)
+      throws TajoException {
+    return queryClient.getQueryResultStreams(queryId, maxStreamNum);
+  }
+
   public boolean updateQuery(final String sql) throws TajoException {
     return queryClient.updateQuery(sql);
   }
@@ -174,6 +179,10 @@ public class TajoClientImpl extends SessionConnection implements TajoClient, Que
   public int getMaxRows() {
 	  return queryClient.getMaxRows();
   }
+
+  public int getFetchPrefetchNum() {
+    return queryClient.getFetchPrefetchNum();
+  }
   
   /*------------------------------------------------------------------------*/
   // CatalogClient wrappers
@@ -30,10 +30,12 @@ import org.apache.tajo.ipc.ClientProtos;
 import org.apache.tajo.jdbc.FetchResultSet;
 import org.apache.tajo.jdbc.TajoMemoryResultSet;
 import org.apache.tajo.rpc.protocolrecords.PrimitiveProtos;
+import org.apache.tajo.storage.ColumnarRowStoreUtil;
 
 import java.io.IOException;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Map;
 
 public class TajoClientUtil {
 
@@ -107,6 +109,25 @@ public class TajoClientUtil {
     }
   }
 
+  /**
+   * Create a result set of a batch of rows, which are encoded in columns or separately.
+   */
+  public static TajoMemoryResultSet createMemoryResultSet(QueryId queryId, ClientProtos.SerializedResultSet resultSet,
+                                                          Map<String, String> clientSideSessionVars) {
+    Schema schema = new Schema(resultSet.getSchema());
+    if (resultSet.hasSerializedColumns()) {
+      return new TajoMemoryResultSet(queryId, schema,
+          ColumnarRowStoreUtil.createDecoder(schema, resultSet.getSerializedColumns().toByteArray(),
+              resultSet.getCodec() == ClientProtos.SerializedResultSet.CodecType.DEFLATE),
+          clientSideSessionVars);
+    }
+    return new TajoMemoryResultSet(queryId,
+        schema,
+        resultSet.getSerializedTuplesList(),
+        resultSet.getSerializedTuplesCount(),
+        clientSideSessionVars);
+  }
+
   public static final ResultSet NULL_RESULT_SET =
       new TajoMemoryResultSet(QueryIdFactory.NULL_QUERY_ID, new Schema(), null, 0, null);
 
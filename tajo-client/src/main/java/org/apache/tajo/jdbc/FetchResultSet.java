@@ -18,6 +18,7 @@
 
 package org.apache.tajo.jdbc;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.tajo.QueryId;
 import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.client.QueryClient;
@@ -25,7 +26,15 @@ import org.apache.tajo.storage.Tuple;
 
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.*;
 
+/**
+ * FetchResultSet fetches the rows of a query result from TajoMaster in batches. If prefetching is enabled, the next
+ * batches are fetched by a background thread while the current batch is read, so that the round trips to TajoMaster
+ * are overlapped with the processing of rows.
+ */
 public class FetchResultSet extends TajoResultSetBase {
   protected QueryClient tajoClient;
   private int fetchRowNum;
@@ -34,12 +43,21 @@ public class FetchResultSet extends TajoResultSetBase {
   // maxRows number is limit value of resultSet. The value must be >= 0, and 0 means there is not limit.
   private int maxRows;
 
+  // the number of batches fetched ahead of the current batch. 0 means that batches are fetched on demand.
+  private final int prefetchNum;
+  private ExecutorService prefetcher;
+  private final Deque<Future<TajoMemoryResultSet>> pendingFetches = new ArrayDeque<Future<TajoMemoryResultSet>>();
+  private long requestedRowNum;
+  // true if the last batch is fetched, and then no more batch is prefetched
+  private boolean lastBatchFetched;
+
   public FetchResultSet(QueryClient tajoClient, Schema schema, QueryId queryId, int fetchRowNum) {
     super(queryId, schema, tajoClient.getClientSideSessionVars());
     this.tajoClient = tajoClient;
     this.maxRows = tajoClient.getMaxRows();
     this.fetchRowNum = fetchRowNum;
     this.totalRow = Integer.MAX_VALUE;
+    this.prefetchNum = tajoClient.getFetchPrefetchNum();
   }
 
   @Override
@@ -59,7 +77,7 @@ public class FetchResultSet extends TajoResultSetBase {
           currentResultSet.close();
           currentResultSet = null;
         }
-        currentResultSet = tajoClient.fetchNextQueryResult(queryId, fetchRowNum);
+        currentResultSet = fetchNextResultSet();
         if (currentResultSet == null) {
           finished = true;
           return null;
@@ -81,12 +99,66 @@ public class FetchResultSet extends TajoResultSetBase {
     }
   }
 
+  private TajoMemoryResultSet fetchNextResultSet() throws Exception {
+    if (prefetchNum <= 0) {
+      return tajoClient.fetchNextQueryResult(queryId, fetchRowNum);
+    }
+
+    if (prefetcher == null) {
+      prefetcher = Executors.newSingleThreadExecutor(
+          new ThreadFactoryBuilder().setNameFormat("FetchResultSet-" + queryId).setDaemon(true).build());
+    }
+    // batches are fetched in order, because a single thread fetches them
+    if (pendingFetches.isEmpty()) {
+      submitFetch();
+    }
+    while (!lastBatchFetched && pendingFetches.size() <= prefetchNum && (maxRows <= 0 || requestedRowNum < maxRows)) {
+      submitFetch();
+    }
+
+    TajoMemoryResultSet resultSet;
+    try {
+      resultSet = pendingFetches.poll().get();
+    } catch (ExecutionException e) {
+      throw new IOException(e.getCause().getMessage(), e.getCause());
+    }
+    // TajoMaster fills a batch until the end of the result
+    if (resultSet == null || resultSet.totalRow < fetchRowNum) {
+      lastBatchFetched = true;
+    }
+    return resultSet;
+  }
+
+  private void submitFetch() {
+    pendingFetches.add(prefetcher.submit(new Callable<TajoMemoryResultSet>() {
+      @Override
+      public TajoMemoryResultSet call() throws Exception {
+        return tajoClient.fetchNextQueryResult(queryId, fetchRowNum);
+      }
+    }));
+    requestedRowNum += fetchRowNum;
+  }
+
   @Override
   public void close() throws SQLException {
     if (currentResultSet != null) {
       currentResultSet.close();
       currentResultSet = null;
     }
+    if (prefetcher != null) {
+      // the query should not be closed while a batch is being fetched
+      for (Future<TajoMemoryResultSet> eachFetch : pendingFetches) {
+        eachFetch.cancel(false);
+      }
+      pendingFetches.clear();
+      prefetcher.shutdown();
+      try {
+        prefetcher.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      prefetcher = null;
+    }
     tajoClient.closeQuery(queryId);
   }
 }
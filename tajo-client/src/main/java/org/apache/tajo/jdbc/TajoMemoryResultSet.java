@@ -21,6 +21,7 @@ package org.apache.tajo.jdbc;
 import com.google.protobuf.ByteString;
 import org.apache.tajo.QueryId;
 import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.storage.ColumnarRowStoreUtil;
 import org.apache.tajo.storage.RowStoreUtil;
 import org.apache.tajo.storage.Tuple;
 
@@ -34,6 +35,8 @@ public class TajoMemoryResultSet extends TajoResultSetBase {
   private List<ByteString> serializedTuples;
   private AtomicBoolean closed = new AtomicBoolean(false);
   private RowStoreUtil.RowStoreDecoder decoder;
+  // rows decoded in columns. If it is set, serializedTuples is not used.
+  private ColumnarRowStoreUtil.ColumnarDecoder columnarDecoder;
 
   public TajoMemoryResultSet(QueryId queryId, Schema schema, List<ByteString> serializedTuples, int maxRowNum,
                              Map<String, String> clientSideSessionVars) {
@@ -43,6 +46,13 @@ public class TajoMemoryResultSet extends TajoResultSetBase {
     this.decoder = RowStoreUtil.createDecoder(schema);
   }
 
+  public TajoMemoryResultSet(QueryId queryId, Schema schema, ColumnarRowStoreUtil.ColumnarDecoder columnarDecoder,
+                             Map<String, String> clientSideSessionVars) {
+    super(queryId, schema, clientSideSessionVars);
+    this.totalRow = columnarDecoder.getRowNum();
+    this.columnarDecoder = columnarDecoder;
+  }
+
   @Override
   protected void init() {
     cur = null;
@@ -58,17 +68,26 @@ public class TajoMemoryResultSet extends TajoResultSetBase {
     cur = null;
     curRow = -1;
     serializedTuples = null;
+    columnarDecoder = null;
   }
 
   @Override
   public void beforeFirst() throws SQLException {
     curRow = 0;
+    if (columnarDecoder != null) {
+      columnarDecoder.reset();
+    }
   }
 
   @Override
   protected Tuple nextTuple() throws IOException {
     if (curRow < totalRow) {
-      cur = decoder.toTuple(serializedTuples.get(curRow).toByteArray());
+      if (columnarDecoder != null) {
+        // the columns are decoded in order, so the rows are always read sequentially
+        cur = columnarDecoder.next();
+      } else {
+        cur = decoder.toTuple(serializedTuples.get(curRow).toByteArray());
+      }
       return cur;
     } else {
       return null;
@@ -76,6 +95,9 @@ public class TajoMemoryResultSet extends TajoResultSetBase {
   }
 
   public boolean hasResult() {
+    if (columnarDecoder != null) {
+      return columnarDecoder.getRowNum() > 0;
+    }
     return serializedTuples.size() > 0;
   }
 }
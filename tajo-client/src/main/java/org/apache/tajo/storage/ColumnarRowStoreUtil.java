@@ -0,0 +1,395 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.IntervalDatum;
+import org.apache.tajo.exception.TajoInternalError;
+import org.apache.tajo.exception.TajoRuntimeException;
+import org.apache.tajo.exception.UnsupportedException;
+import org.apache.tajo.exception.ValueTooLongForTypeCharactersException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * ColumnarRowStoreUtil encodes a batch of rows in columns, which is used to transfer query results to clients.
+ * Compared to {@link RowStoreUtil}, which encodes each row separately, values of the same type are stored together
+ * and so the batch is compressed well.
+ *
+ * A batch consists of the number of rows and a section for each column. A section has its length, the null flags
+ * of the rows, and the values of the non-null rows. The lengths of TEXT and BLOB values are stored before their bytes.
+ * The whole batch can be compressed by deflate, and then it is prefixed by its uncompressed length.
+ *
+ * The same data types as {@link RowStoreUtil} are supported.
+ */
+public class ColumnarRowStoreUtil {
+
+  public static ColumnarEncoder createEncoder(Schema schema) {
+    return new ColumnarEncoder(schema);
+  }
+
+  public static ColumnarDecoder createDecoder(Schema schema, byte [] bytes, boolean compressed) {
+    return new ColumnarDecoder(schema, compressed ? decompress(bytes) : bytes);
+  }
+
+  private static byte [] compress(byte [] bytes) {
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      deflater.setInput(bytes);
+      deflater.finish();
+      ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 4);
+      new DataOutputStream(out).writeInt(bytes.length);
+      byte [] buffer = new byte[8192];
+      while (!deflater.finished()) {
+        out.write(buffer, 0, deflater.deflate(buffer));
+      }
+      return out.toByteArray();
+    } catch (IOException e) {
+      throw new TajoInternalError(e);
+    } finally {
+      deflater.end();
+    }
+  }
+
+  private static byte [] decompress(byte [] bytes) {
+    Inflater inflater = new Inflater();
+    try {
+      byte [] uncompressed = new byte[ByteBuffer.wrap(bytes).getInt()];
+      inflater.setInput(bytes, 4, bytes.length - 4);
+      int length = 0;
+      while (length < uncompressed.length && !inflater.finished()) {
+        length += inflater.inflate(uncompressed, length, uncompressed.length - length);
+      }
+      return uncompressed;
+    } catch (DataFormatException e) {
+      throw new TajoInternalError(e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private static boolean isVariableLength(TajoDataTypes.Type type) {
+    return type == TajoDataTypes.Type.TEXT || type == TajoDataTypes.Type.BLOB;
+  }
+
+  /**
+   * ColumnarEncoder appends rows to the sections of columns. It is not thread-safe.
+   */
+  public static class ColumnarEncoder {
+    private final Schema schema;
+    private final byte [][] nullFlags;
+    private int flagCapacity = 64;
+    private final ByteArrayOutputStream [] valueBuffers;
+    private final DataOutputStream [] values;
+    private final ByteArrayOutputStream [] bytesBuffers;
+    private int rowNum = 0;
+
+    private ColumnarEncoder(Schema schema) {
+      this.schema = schema;
+      nullFlags = new byte[schema.size()][flagCapacity];
+      valueBuffers = new ByteArrayOutputStream[schema.size()];
+      values = new DataOutputStream[schema.size()];
+      bytesBuffers = new ByteArrayOutputStream[schema.size()];
+      for (int i = 0; i < schema.size(); i++) {
+        valueBuffers[i] = new ByteArrayOutputStream();
+        values[i] = new DataOutputStream(valueBuffers[i]);
+        if (isVariableLength(schema.getColumn(i).getDataType().getType())) {
+          bytesBuffers[i] = new ByteArrayOutputStream();
+        }
+      }
+    }
+
+    public int getRowNum() {
+      return rowNum;
+    }
+
+    public void add(Tuple tuple) {
+      if (rowNum / 8 == flagCapacity) {
+        flagCapacity *= 2;
+        for (int i = 0; i < nullFlags.length; i++) {
+          nullFlags[i] = Arrays.copyOf(nullFlags[i], flagCapacity);
+        }
+      }
+
+      try {
+        for (int i = 0; i < schema.size(); i++) {
+          Column col = schema.getColumn(i);
+          if (tuple.isBlankOrNull(i) || col.getDataType().getType() == TajoDataTypes.Type.NULL_TYPE) {
+            nullFlags[i][rowNum / 8] |= 1 << (rowNum % 8);
+            continue;
+          }
+          writeValue(i, col, tuple);
+        }
+      } catch (IOException e) {
+        throw new TajoInternalError(e);
+      }
+      rowNum++;
+    }
+
+    private void writeValue(int i, Column col, Tuple tuple) throws IOException {
+      DataOutputStream out = values[i];
+      switch (col.getDataType().getType()) {
+      case BOOLEAN:
+      case BIT:
+        out.writeByte(tuple.getByte(i));
+        break;
+      case CHAR:
+        int charSize = col.getDataType().getLength();
+        byte [] src = tuple.getBytes(i);
+        if (charSize < src.length) {
+          throw new ValueTooLongForTypeCharactersException(charSize);
+        }
+        out.write(src);
+        out.write(new byte[charSize - src.length]);
+        break;
+      case INT2:
+        out.writeShort(tuple.getInt2(i));
+        break;
+      case INT4:
+      case DATE:
+        out.writeInt(tuple.getInt4(i));
+        break;
+      case INT8:
+      case TIME:
+      case TIMESTAMP:
+        out.writeLong(tuple.getInt8(i));
+        break;
+      case FLOAT4:
+        out.writeFloat(tuple.getFloat4(i));
+        break;
+      case FLOAT8:
+        out.writeDouble(tuple.getFloat8(i));
+        break;
+      case INTERVAL:
+        IntervalDatum interval = (IntervalDatum) tuple.getInterval(i);
+        out.writeInt(interval.getMonths());
+        out.writeLong(interval.getMilliSeconds());
+        break;
+      case TEXT:
+      case BLOB:
+        byte [] bytes = tuple.getBytes(i);
+        out.writeInt(bytes.length);
+        bytesBuffers[i].write(bytes);
+        break;
+      case INET4:
+        out.write(tuple.getBytes(i), 0, 4);
+        break;
+      default:
+        throw new TajoRuntimeException(
+            new UnsupportedException("data type '" + col.getDataType().getType().name() + "'"));
+      }
+    }
+
+    /**
+     * @return The encoded batch of all added rows
+     */
+    public byte [] build(boolean compress) {
+      try {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        int flagLength = (rowNum + 7) / 8;
+        out.writeInt(rowNum);
+        for (int i = 0; i < schema.size(); i++) {
+          int bytesLength = bytesBuffers[i] != null ? bytesBuffers[i].size() : 0;
+          out.writeInt(flagLength + valueBuffers[i].size() + bytesLength);
+          out.write(nullFlags[i], 0, flagLength);
+          valueBuffers[i].writeTo(out);
+          if (bytesBuffers[i] != null) {
+            bytesBuffers[i].writeTo(out);
+          }
+        }
+        out.flush();
+        return compress ? compress(bytes.toByteArray()) : bytes.toByteArray();
+      } catch (IOException e) {
+        throw new TajoInternalError(e);
+      }
+    }
+
+    public Schema getSchema() {
+      return schema;
+    }
+  }
+
+  /**
+   * ColumnarDecoder reads the rows of a batch in order. It is not thread-safe.
+   */
+  public static class ColumnarDecoder {
+    private final Schema schema;
+    private final ByteBuffer bb;
+    private final int rowNum;
+    // the start positions of the null flags, values and bytes of columns
+    private final int [] flagStarts;
+    private final int [] valueStarts;
+    private final int [] bytesStarts;
+    // the current positions of values and bytes of columns
+    private final int [] valuePositions;
+    private final int [] bytesPositions;
+    private int currentRow;
+
+    private ColumnarDecoder(Schema schema, byte [] bytes) {
+      this.schema = schema;
+      this.bb = ByteBuffer.wrap(bytes);
+      this.rowNum = bb.getInt();
+      flagStarts = new int[schema.size()];
+      valueStarts = new int[schema.size()];
+      bytesStarts = new int[schema.size()];
+      valuePositions = new int[schema.size()];
+      bytesPositions = new int[schema.size()];
+
+      int flagLength = (rowNum + 7) / 8;
+      int position = 4;
+      for (int i = 0; i < schema.size(); i++) {
+        int sectionLength = bb.getInt(position);
+        flagStarts[i] = position + 4;
+        valueStarts[i] = flagStarts[i] + flagLength;
+        if (isVariableLength(schema.getColumn(i).getDataType().getType())) {
+          // the lengths of the non-null values precede their bytes
+          int nonNullNum = 0;
+          for (int row = 0; row < rowNum; row++) {
+            if (!isNull(i, row)) {
+              nonNullNum++;
+            }
+          }
+          bytesStarts[i] = valueStarts[i] + nonNullNum * 4;
+        }
+        position = flagStarts[i] + sectionLength;
+      }
+      reset();
+    }
+
+    public int getRowNum() {
+      return rowNum;
+    }
+
+    /**
+     * Rewind to the first row.
+     */
+    public void reset() {
+      currentRow = 0;
+      System.arraycopy(valueStarts, 0, valuePositions, 0, valueStarts.length);
+      System.arraycopy(bytesStarts, 0, bytesPositions, 0, bytesStarts.length);
+    }
+
+    private boolean isNull(int columnId, int row) {
+      return (bb.get(flagStarts[columnId] + row / 8) & (1 << (row % 8))) != 0;
+    }
+
+    /**
+     * @return The next row, or null if there is no more row
+     */
+    public Tuple next() {
+      if (currentRow >= rowNum) {
+        return null;
+      }
+
+      Tuple tuple = new VTuple(schema.size());
+      for (int i = 0; i < schema.size(); i++) {
+        if (isNull(i, currentRow)) {
+          tuple.put(i, DatumFactory.createNullDatum());
+        } else {
+          readValue(i, schema.getColumn(i), tuple);
+        }
+      }
+      currentRow++;
+      return tuple;
+    }
+
+    private void readValue(int i, Column col, Tuple tuple) {
+      TajoDataTypes.DataType type = col.getDataType();
+      int position = valuePositions[i];
+      switch (type.getType()) {
+      case BOOLEAN:
+        tuple.put(i, DatumFactory.createBool(bb.get(position)));
+        valuePositions[i] += 1;
+        break;
+      case BIT:
+        tuple.put(i, DatumFactory.createBit(bb.get(position)));
+        valuePositions[i] += 1;
+        break;
+      case CHAR:
+        tuple.put(i, DatumFactory.createChar(getBytes(position, type.getLength())));
+        valuePositions[i] += type.getLength();
+        break;
+      case INT2:
+        tuple.put(i, DatumFactory.createInt2(bb.getShort(position)));
+        valuePositions[i] += 2;
+        break;
+      case INT4:
+      case DATE:
+        tuple.put(i, DatumFactory.createFromInt4(type, bb.getInt(position)));
+        valuePositions[i] += 4;
+        break;
+      case INT8:
+      case TIME:
+      case TIMESTAMP:
+        tuple.put(i, DatumFactory.createFromInt8(type, bb.getLong(position)));
+        valuePositions[i] += 8;
+        break;
+      case FLOAT4:
+        tuple.put(i, DatumFactory.createFloat4(bb.getFloat(position)));
+        valuePositions[i] += 4;
+        break;
+      case FLOAT8:
+        tuple.put(i, DatumFactory.createFloat8(bb.getDouble(position)));
+        valuePositions[i] += 8;
+        break;
+      case INTERVAL:
+        tuple.put(i, new IntervalDatum(bb.getInt(position), bb.getLong(position + 4)));
+        valuePositions[i] += 12;
+        break;
+      case TEXT:
+      case BLOB:
+        int length = bb.getInt(position);
+        byte [] bytes = getBytes(bytesPositions[i], length);
+        tuple.put(i, type.getType() == TajoDataTypes.Type.TEXT ?
+            DatumFactory.createText(bytes) : DatumFactory.createBlob(bytes));
+        valuePositions[i] += 4;
+        bytesPositions[i] += length;
+        break;
+      case INET4:
+        tuple.put(i, DatumFactory.createInet4(getBytes(position, 4)));
+        valuePositions[i] += 4;
+        break;
+      default:
+        throw new TajoRuntimeException(
+            new UnsupportedException("data type '" + col.getDataType().getType().name() + "'"));
+      }
+    }
+
+    private byte [] getBytes(int position, int length) {
+      byte [] bytes = new byte[length];
+      System.arraycopy(bb.array(), position, bytes, 0, length);
+      return bytes;
+    }
+
+    public Schema getSchema() {
+      return schema;
+    }
+  }
+}
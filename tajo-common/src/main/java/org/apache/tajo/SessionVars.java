@@ -112,6 +112,18 @@ public enum SessionVars implements ConfigKey {
 
   QUERY_EXECUTE_PARALLEL(ConfVars.$QUERY_EXECUTE_PARALLEL_MAX, "Maximum parallel running of execution blocks for a query",
       DEFAULT, Integer.class, Validators.min("1")),
+  PIPELINED_SHUFFLE_ENABLED(ConfVars.$DIST_QUERY_PIPELINED_SHUFFLE_ENABLED,
+      "hash shuffle consumers fetch pages while the producer stage runs (experiment)", DEFAULT,
+      Boolean.class, Validators.bool()),
+  RUNTIME_FILTER_ENABLED(ConfVars.$DIST_QUERY_RUNTIME_FILTER_ENABLED,
+      "scans of a join input are filtered by the join keys of the smaller input (experiment)", DEFAULT,
+      Boolean.class, Validators.bool()),
+  RUNTIME_FILTER_BLOOM_BITS(ConfVars.$DIST_QUERY_RUNTIME_FILTER_BLOOM_BITS,
+      "the number of bits of the bloom filter of a runtime join filter", DEFAULT,
+      Integer.class, Validators.min("64")),
+  DYNAMIC_PARTITION_PRUNING_ENABLED(ConfVars.$DIST_QUERY_DYNAMIC_PARTITION_PRUNING_ENABLED,
+      "partitions of a join input are pruned by the join keys of the other input (experiment)", DEFAULT,
+      Boolean.class, Validators.bool()),
 
   // for physical Executors
   EXTSORT_BUFFER_SIZE(ConfVars.$EXECUTOR_EXTERNAL_SORT_BUFFER_SIZE, "sort buffer size for external sort (mb)", DEFAULT,
@@ -122,17 +134,59 @@ public enum SessionVars implements ConfigKey {
       "limited size for hash inner join (mb)", DEFAULT, Long.class, Validators.min("0")),
   OUTER_HASH_JOIN_SIZE_LIMIT(ConfVars.$EXECUTOR_OUTER_HASH_JOIN_SIZE_THRESHOLD, "limited size for hash outer join (mb)",
       DEFAULT, Long.class, Validators.min("0")),
+  HASH_JOIN_BUFFER_SIZE(ConfVars.$EXECUTOR_HASH_JOIN_BUFFER_SIZE,
+      "memory budget for hash join (mb). If exceeded, both relations are partitioned to local disks", DEFAULT,
+      Long.class, Validators.min("1")),
   HASH_GROUPBY_SIZE_LIMIT(ConfVars.$EXECUTOR_GROUPBY_INMEMORY_HASH_THRESHOLD, "limited size for hash groupby (mb)",
       DEFAULT, Long.class, Validators.min("0")),
+  HASH_GROUPBY_BUFFER_SIZE(ConfVars.$EXECUTOR_GROUPBY_HASH_BUFFER_SIZE,
+      "memory budget for hash groupby (mb). If exceeded, groups are spilled to local disks", DEFAULT, Long.class,
+      Validators.min("1")),
   MAX_OUTPUT_FILE_SIZE(ConfVars.$MAX_OUTPUT_FILE_SIZE, "Maximum per-output file size (mb). 0 means infinite.", DEFAULT,
       Long.class, Validators.min("0")),
   NULL_CHAR(ConfVars.$TEXT_NULL, "null char of text file output", DEFAULT),
   CODEGEN(ConfVars.$CODEGEN, "Runtime code generation enabled (experiment)", DEFAULT),
+  VECTORIZED_EXECUTION_ENABLED(ConfVars.$EXECUTOR_VECTORIZED_ENABLED,
+      "batch-at-a-time execution of scan, selection, projection and hash aggregation enabled (experiment)", DEFAULT),
+  VECTORIZED_BATCH_SIZE(ConfVars.$EXECUTOR_VECTORIZED_BATCH_SIZE, "the maximum number of rows in a batch", DEFAULT,
+      Integer.class, Validators.min("1")),
+  OFFHEAP_ROW_BLOCK_ENABLED(ConfVars.$EXECUTOR_OFFHEAP_ROW_BLOCK_ENABLED,
+      "buffered rows of sort and hash join are kept in off-heap row blocks (experiment)", DEFAULT),
 
   // for index
   INDEX_ENABLED(ConfVars.$INDEX_ENABLED, "index scan enabled", DEFAULT),
   INDEX_SELECTIVITY_THRESHOLD(ConfVars.$INDEX_SELECTIVITY_THRESHOLD, "the selectivity threshold for index scan", DEFAULT),
 
+  // for join ordering
+  JOIN_ORDER_DP_ENABLED(ConfVars.$JOIN_ORDER_DP_ENABLED,
+      "join orders are enumerated by dynamic programming with column statistics (experiment)", DEFAULT,
+      Boolean.class, Validators.bool()),
+  JOIN_ORDER_DP_MAX_RELATIONS(ConfVars.$JOIN_ORDER_DP_MAX_RELATIONS,
+      "the max number of relations whose join orders are enumerated by dynamic programming", DEFAULT,
+      Integer.class, Validators.range("2", "20")),
+
+  // for query result cache
+  QUERY_RESULT_CACHE_ENABLED(ConfVars.$QUERY_RESULT_CACHE_ENABLED,
+      "results of queries are reused until their input tables are changed (experiment)", DEFAULT,
+      Boolean.class, Validators.bool()),
+
+  // for query scheduling
+  QUERY_QUEUE(ConfVars.$QUERY_QUEUE, "the scheduler queue to which queries are submitted", DEFAULT),
+
+  // for speculative execution
+  SPECULATIVE_EXECUTION_ENABLED(ConfVars.$SPECULATIVE_EXECUTION_ENABLED,
+      "backup attempts of straggler tasks are launched on other workers (experiment)", DEFAULT,
+      Boolean.class, Validators.bool()),
+  SPECULATIVE_EXECUTION_MIN_RUNTIME(ConfVars.$SPECULATIVE_EXECUTION_MIN_RUNTIME,
+      "the minimum running time (msec) of a task before a backup attempt is launched", DEFAULT,
+      Integer.class, Validators.min("0")),
+  SPECULATIVE_EXECUTION_SLOWNESS_RATIO(ConfVars.$SPECULATIVE_EXECUTION_SLOWNESS_RATIO,
+      "a task is a straggler if its progress rate is below this ratio of the median rate of the stage", DEFAULT,
+      Float.class, Validators.range("0", "1")),
+  SPECULATIVE_EXECUTION_MAX_FRACTION(ConfVars.$SPECULATIVE_EXECUTION_MAX_FRACTION,
+      "the max fraction of the tasks of a stage for which backup attempts are launched", DEFAULT,
+      Float.class, Validators.range("0", "1")),
+
   // for partition overwrite
   PARTITION_NO_RESULT_OVERWRITE_ENABLED(ConfVars.$PARTITION_NO_RESULT_OVERWRITE_ENABLED,
     "If True, a partitioned table is overwritten even if a sub query leads to no result. "
@@ -147,6 +201,13 @@ public enum SessionVars implements ConfigKey {
       Integer.class, Validators.min("0")),
   BLOCK_ON_RESULT(ConfVars.$RESULT_SET_BLOCK_WAIT, "Whether to block result set on query execution", DEFAULT,
       Boolean.class, Validators.bool()),
+  FETCH_PREFETCH_NUM(ConfVars.$RESULT_SET_FETCH_PREFETCH_NUM,
+      "the number of row batches fetched from Master in background (0 disables prefetching)", DEFAULT,
+      Integer.class, Validators.min("0")),
+  FETCH_COLUMNAR(ConfVars.$RESULT_SET_FETCH_COLUMNAR, "Whether to fetch rows from Master in columns", DEFAULT,
+      Boolean.class, Validators.bool()),
+  FETCH_COMPRESSION(ConfVars.$RESULT_SET_FETCH_COMPRESSION,
+      "Whether to compress the rows fetched from Master in columns", DEFAULT, Boolean.class, Validators.bool()),
 
   //-------------------------------------------------------------------------------
   // Only for Unit Testing
@@ -195,6 +195,17 @@ public class TajoConf extends Configuration {
     RESOURCE_SCHEDULER_CLASS("tajo.resource.scheduler", "org.apache.tajo.master.scheduler.SimpleScheduler",
         Validators.groups(Validators.notNull(), Validators.clazz())),
 
+    // Fair scheduler
+    // comma-separated queue paths, e.g. 'default,etl,adhoc.bi,adhoc.dev'. The parents of the paths are implicit.
+    SCHEDULER_FAIR_QUEUES("tajo.scheduler.fair.queues", "default"),
+    SCHEDULER_FAIR_USER_MAX_RUNNING_QUERIES("tajo.scheduler.fair.user.max-running-queries", 0,
+        Validators.min("0")), // zero means unlimited
+    SCHEDULER_FAIR_PREEMPTION_ENABLED("tajo.scheduler.fair.preemption.enabled", true),
+    SCHEDULER_FAIR_PREEMPTION_DEMAND_TIMEOUT("tajo.scheduler.fair.preemption.demand-timeout-ms", 3000,
+        Validators.min("0")),
+    SCHEDULER_FAIR_PREEMPTION_TIMEOUT("tajo.scheduler.fair.preemption.timeout-ms", 30000,
+        Validators.min("0")),
+
     QUERYMASTER_TASK_SCHEDULER_DELAY("tajo.qm.task-scheduler.delay", 50),  // 50 ms
 
     // Catalog
@@ -203,6 +214,7 @@ public class TajoConf extends Configuration {
     // Query Configuration
     QUERY_SESSION_TIMEOUT("tajo.query.session.timeout-sec", 60, Validators.min("0")),
     QUERY_SESSION_QUERY_CACHE_SIZE("tajo.query.session.query-cache-size-kb", 1024, Validators.min("0")),
+    QUERY_RESULT_CACHE_SIZE("tajo.query.result-cache.size-mb", 1024, Validators.min("0")),
 
     // Shuffle Configuration --------------------------------------------------
     PULLSERVER_PORT("tajo.pullserver.port", 0, Validators.range("0", "65535")),
@@ -214,6 +226,11 @@ public class TajoConf extends Configuration {
     SHUFFLE_FETCHER_CONNECT_TIMEOUT("tajo.shuffle.fetcher.connect.timeout-sec", 10, Validators.min("1")),
     SHUFFLE_FETCHER_READ_TIMEOUT("tajo.shuffle.fetcher.read.timeout-sec", 60, Validators.min("1")),
     SHUFFLE_FETCHER_READ_RETRY_MAX_NUM("tajo.shuffle.fetcher.read.retry.max-num", 2, Validators.min("0")),
+    SHUFFLE_FETCHER_CONNECTION_POOL_ENABLED("tajo.shuffle.fetcher.connection-pool.enabled", true, Validators.bool()),
+    SHUFFLE_FETCHER_MAX_CONNECTIONS_PER_HOST("tajo.shuffle.fetcher.max-connections-per-host", 4,
+        Validators.min("1")),
+    SHUFFLE_FETCHER_MAX_PENDING_FETCHES_PER_HOST("tajo.shuffle.fetcher.max-pending-fetches-per-host", 1024,
+        Validators.min("1")),
     SHUFFLE_HASH_APPENDER_BUFFER_SIZE("tajo.shuffle.hash.appender.buffer.size", 10000),
     SHUFFLE_HASH_APPENDER_PAGE_VOLUME("tajo.shuffle.hash.appender.page.volumn-mb", 30),
     HASH_SHUFFLE_PARENT_DIRS("tajo.hash.shuffle.parent.dirs.count", 10),
@@ -267,6 +284,8 @@ public class TajoConf extends Configuration {
         "org.apache.tajo.engine.planner.global.rewriter.BaseGlobalPlanRewriteRuleProvider"),
     EXECUTOR_EXTERNAL_SORT_THREAD_NUM("tajo.executor.external-sort.thread-num", 1),
     EXECUTOR_EXTERNAL_SORT_FANOUT("tajo.executor.external-sort.fanout-num", 8),
+    // The maximum number of generated eval classes kept in a worker
+    EXECUTOR_CODEGEN_CACHE_SIZE("tajo.executor.codegen.cache.size", 1024),
 
     // Metrics ----------------------------------------------------------------
     METRICS_PROPERTY_FILENAME("tajo.metrics.property.file", "tajo-metrics.properties"),
@@ -326,6 +345,11 @@ public class TajoConf extends Configuration {
 
     $QUERY_EXECUTE_PARALLEL_MAX("tajo.query.execute.parallel.max", 10),
 
+    $DIST_QUERY_PIPELINED_SHUFFLE_ENABLED("tajo.dist-query.shuffle.pipelined", false),
+    $DIST_QUERY_RUNTIME_FILTER_ENABLED("tajo.dist-query.join.runtime-filter.enabled", false),
+    $DIST_QUERY_RUNTIME_FILTER_BLOOM_BITS("tajo.dist-query.join.runtime-filter.bloom-bits", 1048576),
+    $DIST_QUERY_DYNAMIC_PARTITION_PRUNING_ENABLED("tajo.dist-query.join.dynamic-partition-pruning.enabled", false),
+
     // for physical Executors
     $EXECUTOR_EXTERNAL_SORT_BUFFER_SIZE("tajo.executor.external-sort.buffer-mb", 200L),
     $EXECUTOR_HASH_JOIN_SIZE_THRESHOLD("tajo.executor.join.common.in-memory-hash-threshold-bytes",
@@ -334,15 +358,38 @@ public class TajoConf extends Configuration {
         (long)256 * 1048576),
     $EXECUTOR_OUTER_HASH_JOIN_SIZE_THRESHOLD("tajo.executor.join.outer.in-memory-hash-threshold-bytes",
         (long)256 * 1048576),
+    $EXECUTOR_HASH_JOIN_BUFFER_SIZE("tajo.executor.join.hash-buffer-mb", 256L),
     $EXECUTOR_GROUPBY_INMEMORY_HASH_THRESHOLD("tajo.executor.groupby.in-memory-hash-threshold-bytes",
         (long)256 * 1048576),
+    $EXECUTOR_GROUPBY_HASH_BUFFER_SIZE("tajo.executor.groupby.hash-buffer-mb", 256L),
     $MAX_OUTPUT_FILE_SIZE("tajo.query.max-outfile-size-mb", 0), // zero means infinite
     $CODEGEN("tajo.executor.codegen.enabled", false), // Runtime code generation (todo this is broken)
+    $EXECUTOR_VECTORIZED_ENABLED("tajo.executor.vectorized.enabled", false),
+    $EXECUTOR_VECTORIZED_BATCH_SIZE("tajo.executor.vectorized.batch-size", 1024),
+    $EXECUTOR_OFFHEAP_ROW_BLOCK_ENABLED("tajo.executor.offheap-row-block.enabled", false),
 
     // for index
     $INDEX_ENABLED("tajo.query.index.enabled", false),
     $INDEX_SELECTIVITY_THRESHOLD("tajo.query.index.selectivity.threshold", 0.05f),
 
+    // for join ordering
+    $JOIN_ORDER_DP_ENABLED("tajo.query.join-order.dp.enabled", false),
+    $JOIN_ORDER_DP_MAX_RELATIONS("tajo.query.join-order.dp.max-relations", 12, Validators.range("2", "20")),
+
+    // for query result cache
+    $QUERY_RESULT_CACHE_ENABLED("tajo.query.result-cache.enabled", false),
+
+    // for query scheduling
+    $QUERY_QUEUE("tajo.query.queue", "default"),
+
+    // for speculative execution
+    $SPECULATIVE_EXECUTION_ENABLED("tajo.task.speculative-execution.enabled", false),
+    $SPECULATIVE_EXECUTION_MIN_RUNTIME("tajo.task.speculative-execution.min-runtime-ms", 10000, Validators.min("0")),
+    $SPECULATIVE_EXECUTION_SLOWNESS_RATIO("tajo.task.speculative-execution.slowness-ratio", 0.5f,
+        Validators.range("0", "1")),
+    $SPECULATIVE_EXECUTION_MAX_FRACTION("tajo.task.speculative-execution.max-fraction", 0.1f,
+        Validators.range("0", "1")),
+
     // Client -----------------------------------------------------------------
     $CLIENT_SESSION_EXPIRY_TIME("tajo.client.session.expiry-time-sec", 3600), // default time is one hour.
 
@@ -380,6 +427,9 @@ public class TajoConf extends Configuration {
       // ResultSet ---------------------------------------------------------
     $RESULT_SET_FETCH_ROWNUM("tajo.resultset.fetch.rownum", 200),
     $RESULT_SET_BLOCK_WAIT("tajo.resultset.block.wait", true),
+    $RESULT_SET_FETCH_PREFETCH_NUM("tajo.resultset.fetch.prefetch-num", 2),
+    $RESULT_SET_FETCH_COLUMNAR("tajo.resultset.fetch.columnar", true),
+    $RESULT_SET_FETCH_COMPRESSION("tajo.resultset.fetch.compression", false),
     ;
 
     public final String varname;
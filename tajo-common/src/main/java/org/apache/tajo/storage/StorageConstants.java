@@ -38,6 +38,13 @@ public class StorageConstants {
   public static final String COMPRESSION_CODEC = "compression.codec";
   public static final String COMPRESSION_TYPE = "compression.type";
 
+  /**
+   * If it is true, the min/max values and the null counts of columns are written for each output file, and a scan
+   * with a filter skips the files which cannot have any matching row.
+   */
+  public static final String FILE_COLUMN_STATS = "file.column-stats";
+  public static final String DEFAULT_FILE_COLUMN_STATS = "false";
+
   // Text file properties -------------------------------------------------
   @Deprecated
   public static final String CSVFILE_SERDE = "csvfile.serde";
@@ -62,6 +69,13 @@ public class StorageConstants {
   public static final String TEXT_ERROR_TOLERANCE_MAXNUM = "text.error-tolerance.max-num";
   public static final String DEFAULT_TEXT_ERROR_TOLERANCE_MAXNUM = "0";
 
+  /**
+   * If it is true, the default text serde parses projected fields directly into an off-heap row, without creating
+   * Datums. It is used only when all projected columns have types which can be parsed directly.
+   */
+  public static final String TEXT_DIRECT_PARSE = "text.direct-parse";
+  public static final String DEFAULT_TEXT_DIRECT_PARSE = "false";
+
   // Sequence file properties -------------------------------------------------
   @Deprecated
   public static final String SEQUENCEFILE_DELIMITER = "sequencefile.delimiter";
@@ -80,6 +94,12 @@ public class StorageConstants {
 
   public static final String ORC_MAX_MERGE_DISTANCE = "orc.max.merge.distance";
   public static final String DEFAULT_ORC_MAX_MERGE_DISTANCE = "1048576";  // 1MB
+  public static final String ORC_STRIPE_SIZE = "orc.stripe.size";
+  public static final String DEFAULT_ORC_STRIPE_SIZE = "67108864"; // 64MB
+  public static final String ORC_COMPRESSION_BUFFER_SIZE = "orc.compress.size";
+  public static final String DEFAULT_ORC_COMPRESSION_BUFFER_SIZE = "262144"; // 256KB
+  public static final String ORC_ROW_INDEX_STRIDE = "orc.row.index.stride";
+  public static final String DEFAULT_ORC_ROW_INDEX_STRIDE = "10000";
 
   // Parquet file properties -------------------------------------------------
   public static final String PARQUET_DEFAULT_BLOCK_SIZE;
@@ -318,9 +318,9 @@ public class DateTimeUtil {
    * @return
    */
   public static long javaTimeToJulianTime(long javaTimestamp) {
-    double totalSecs = javaTimestamp / 1000.0;
-    return (long)((totalSecs -
-        DateTimeConstants.SECS_DIFFERENCE_BETWEEN_JULIAN_AND_UNIXTIME) * DateTimeConstants.USECS_PER_SEC);
+    // integer arithmetic, because a double loses the precision of milliseconds
+    return javaTimestamp * DateTimeConstants.USECS_PER_MSEC -
+        DateTimeConstants.SECS_DIFFERENCE_BETWEEN_JULIAN_AND_UNIXTIME * DateTimeConstants.USECS_PER_SEC;
   }
 
   /**
@@ -31,18 +31,24 @@ import org.apache.tajo.TajoProtos.QueryState;
 import org.apache.tajo.annotation.NotThreadSafe;
 import org.apache.tajo.catalog.CatalogUtil;
 import org.apache.tajo.catalog.FunctionDesc;
+import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.catalog.TableDesc;
 import org.apache.tajo.catalog.proto.CatalogProtos;
+import org.apache.tajo.common.TajoDataTypes.Type;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.exception.TajoException;
+import org.apache.tajo.exception.TajoInternalError;
 import org.apache.tajo.exception.UnsupportedException;
 import org.apache.tajo.ipc.ClientProtos;
 import org.apache.tajo.ipc.ClientProtos.QueryHistoryProto;
 import org.apache.tajo.ipc.ClientProtos.QueryInfoProto;
 import org.apache.tajo.ipc.ClientProtos.StageHistoryProto;
+import org.apache.tajo.jdbc.StreamResultSet;
+import org.apache.tajo.jdbc.TajoResultSetBase;
 import org.apache.tajo.storage.StorageConstants;
 import org.apache.tajo.storage.StorageUtil;
 import org.apache.tajo.util.CommonTestingUtil;
+import org.apache.tajo.util.KeyValueSet;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -53,6 +59,7 @@ import java.io.InputStream;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.*;
 
 import static org.junit.Assert.*;
 
@@ -771,4 +778,101 @@ public class TestTajoClient {
     assertEquals(1, taskHistories.get(1).getTotalReadRows());
     assertEquals(1, taskHistories.get(1).getTotalWriteRows());
   }
+  private static List<String> readResultStreams(List<ResultStream> streams) throws Exception {
+    final List<String> rows = Collections.synchronizedList(new ArrayList<String>());
+    ExecutorService executor = Executors.newFixedThreadPool(streams.size());
+    try {
+      List<Future<?>> futures = new ArrayList<Future<?>>();
+      for (final ResultStream stream : streams) {
+        // each stream is read in parallel
+        futures.add(executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() throws Exception {
+            ResultSet res = new StreamResultSet(stream, 7);
+            try {
+              while (res.next()) {
+                rows.add(res.getInt(1) + "|" + res.getString(2));
+              }
+            } finally {
+              res.close();
+            }
+            return null;
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    Collections.sort(rows);
+    return rows;
+  }
+
+  @Test
+  public final void testGetQueryResultStreams() throws Exception {
+    String tableName = CatalogUtil.normalizeIdentifier("testGetQueryResultStreams");
+    Schema schema = new Schema();
+    schema.addColumn("id", Type.INT4);
+    schema.addColumn("name", Type.TEXT);
+    String [] data = new String[100];
+    List<String> expected = new ArrayList<String>();
+    for (int i = 0; i < data.length; i++) {
+      data[i] = i + "|name_" + i;
+      expected.add(data[i]);
+    }
+    Collections.sort(expected);
+    TajoTestingCluster.createTable(tableName, schema, new KeyValueSet(), data, 5);
+
+    try {
+      // a simple query reading the table, and a query storing its result in a new table
+      String [] queries = new String[] {
+          "select * from " + tableName,
+          "select id, name from " + tableName + " where id >= 0"
+      };
+      for (String sql : queries) {
+        ResultSet res = client.executeQueryAndGetResult(sql);
+        QueryId queryId = ((TajoResultSetBase) res).getQueryId();
+        List<ResultStream> streams = client.getQueryResultStreams(queryId, 3);
+        assertTrue(streams.size() > 1);
+        assertTrue(streams.size() <= 3);
+        assertEquals(expected, readResultStreams(streams));
+        res.close();
+      }
+
+      // a worker serves only the streams registered by TajoMaster
+      ResultSet res = client.executeQueryAndGetResult(queries[0]);
+      QueryId queryId = ((TajoResultSetBase) res).getQueryId();
+      ResultStream stream = client.getQueryResultStreams(queryId, 3).get(0);
+      ClientProtos.ResultStreamProto forged = ClientProtos.ResultStreamProto.newBuilder()
+          .setId(UUID.randomUUID().toString())
+          .setQueryId(queryId.getProto())
+          .setTableDesc(client.getTableDesc(tableName).getProto())
+          .setMaxRowNum(Integer.MAX_VALUE)
+          .setHost(stream.getHost())
+          .setPort(stream.getPort())
+          .build();
+      ResultStream forgedStream = new ResultStream(forged, null, client.getClientSideSessionVars());
+      try {
+        forgedStream.fetchNext(10);
+        fail("a result stream which is not registered must be rejected");
+      } catch (TajoInternalError e) {
+        assertTrue(e.getMessage(), e.getMessage().contains("is not registered"));
+      } finally {
+        forgedStream.close();
+        stream.close();
+        res.close();
+      }
+
+      // a limited result is not split
+      res = client.executeQueryAndGetResult("select * from " + tableName + " limit 10");
+      List<ResultStream> streams = client.getQueryResultStreams(((TajoResultSetBase) res).getQueryId(), 3);
+      assertEquals(1, streams.size());
+      assertEquals(10, readResultStreams(streams).size());
+      res.close();
+    } finally {
+      client.updateQuery("drop table " + tableName + " purge");
+    }
+  }
 }
@@ -0,0 +1,118 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.codegen;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.plan.expr.*;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TestCompiledEvalCache {
+  private static final Schema SCHEMA1 = new Schema(new Column[] {
+      new Column("t.a", Type.INT4),
+      new Column("t.b", Type.INT4)
+  });
+
+  private static final Schema SCHEMA2 = new Schema(new Column[] {
+      new Column("t.b", Type.INT4),
+      new Column("t.a", Type.INT4)
+  });
+
+  // a + b > 10
+  private static EvalNode createEval(Schema schema, int constant) {
+    return new BinaryEval(EvalType.GTH,
+        new BinaryEval(EvalType.PLUS,
+            new FieldEval(schema.getColumn("a")), new FieldEval(schema.getColumn("b"))),
+        new ConstEval(DatumFactory.createInt4(constant)));
+  }
+
+  private static Tuple tuple(int a, int b) {
+    return new VTuple(new Datum[] {DatumFactory.createInt4(a), DatumFactory.createInt4(b)});
+  }
+
+  @Test
+  public final void testHitAndMiss() {
+    CompiledEvalCache cache = new CompiledEvalCache(16);
+
+    EvalNode compiled1 = cache.compile(SCHEMA1, createEval(SCHEMA1, 10));
+    EvalNode compiled2 = cache.compile(SCHEMA1, createEval(SCHEMA1, 10));
+    assertEquals(1, cache.getMissCounter().getCount());
+    assertEquals(1, cache.getHitCounter().getCount());
+    assertEquals(1, cache.size());
+
+    // the class is shared, but each call gets its own instance
+    assertNotSame(compiled1, compiled2);
+    assertSame(compiled1.getClass(), compiled2.getClass());
+    assertTrue(compiled2 instanceof CompiledEval);
+    assertEquals(createEval(SCHEMA1, 10).getValueType(), compiled2.getValueType());
+    assertTrue(compiled2.eval(tuple(5, 6)).isTrue());
+    assertFalse(compiled2.eval(tuple(5, 5)).isTrue());
+
+    // a different constant and a different column order need their own classes
+    EvalNode compiled3 = cache.compile(SCHEMA1, createEval(SCHEMA1, 20));
+    EvalNode compiled4 = cache.compile(SCHEMA2, createEval(SCHEMA2, 10));
+    assertNotSame(compiled1.getClass(), compiled3.getClass());
+    assertNotSame(compiled1.getClass(), compiled4.getClass());
+    assertEquals(3, cache.getMissCounter().getCount());
+    assertEquals(3, cache.size());
+    assertFalse(compiled3.eval(tuple(5, 6)).isTrue());
+    assertTrue(compiled4.eval(tuple(5, 6)).isTrue());
+  }
+
+  @Test
+  public final void testEviction() {
+    CompiledEvalCache cache = new CompiledEvalCache(2);
+
+    Class<?> first = cache.compile(SCHEMA1, createEval(SCHEMA1, 1)).getClass();
+    cache.compile(SCHEMA1, createEval(SCHEMA1, 2));
+    // touch the first entry so that the second one is the least recently used
+    assertSame(first, cache.compile(SCHEMA1, createEval(SCHEMA1, 1)).getClass());
+    cache.compile(SCHEMA1, createEval(SCHEMA1, 3));
+
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.getEvictionCounter().getCount());
+
+    assertSame(first, cache.compile(SCHEMA1, createEval(SCHEMA1, 1)).getClass());
+    cache.compile(SCHEMA1, createEval(SCHEMA1, 2));
+    assertEquals(2, cache.getHitCounter().getCount());
+    assertEquals(4, cache.getMissCounter().getCount());
+    assertEquals(2, cache.getEvictionCounter().getCount());
+
+    cache.clear();
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public final void testDisabled() {
+    CompiledEvalCache cache = new CompiledEvalCache(0);
+    EvalNode compiled1 = cache.compile(SCHEMA1, createEval(SCHEMA1, 10));
+    EvalNode compiled2 = cache.compile(SCHEMA1, createEval(SCHEMA1, 10));
+    assertNotSame(compiled1.getClass(), compiled2.getClass());
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getHitCounter().getCount());
+    assertTrue(compiled2.eval(tuple(5, 6)).isTrue());
+  }
+}
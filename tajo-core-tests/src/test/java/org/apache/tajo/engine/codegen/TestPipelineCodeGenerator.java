@@ -0,0 +1,231 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.codegen;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.plan.Target;
+import org.apache.tajo.plan.expr.*;
+import org.apache.tajo.plan.util.PlannerUtil;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TestPipelineCodeGenerator {
+  private static final Schema IN_SCHEMA = new Schema(new Column[] {
+      new Column("t.a", Type.INT4),
+      new Column("t.b", Type.INT8),
+      new Column("t.c", Type.FLOAT8),
+      new Column("t.d", Type.TEXT),
+      new Column("t.e", Type.DATE),
+      new Column("t.f", Type.BOOLEAN)
+  });
+
+  // the output of the first stage
+  private static final Schema MID_SCHEMA = new Schema(new Column[] {
+      new Column("s.a", Type.INT4),
+      new Column("s.x", Type.INT8),
+      new Column("s.y", Type.FLOAT8),
+      new Column("s.d", Type.TEXT),
+      new Column("s.e", Type.DATE),
+      new Column("s.f", Type.BOOLEAN)
+  });
+
+  private static FieldEval field(Schema schema, String name) {
+    return new FieldEval(schema.getColumn(name));
+  }
+
+  private static List<Tuple> createTuples(int num) {
+    Random rnd = new Random(-1);
+    List<Tuple> tuples = new ArrayList<Tuple>();
+    for (int i = 0; i < num; i++) {
+      Datum [] values = new Datum[] {
+          DatumFactory.createInt4(rnd.nextInt(20) - 5),
+          DatumFactory.createInt8(rnd.nextInt(20)),
+          DatumFactory.createFloat8(rnd.nextInt(10) / 4.0d),
+          DatumFactory.createText("text" + rnd.nextInt(3)),
+          DatumFactory.createDate(2457000 + rnd.nextInt(10)),
+          DatumFactory.createBool(rnd.nextBoolean())
+      };
+      for (int j = 0; j < values.length; j++) {
+        if (rnd.nextInt(8) == 0) {
+          values[j] = NullDatum.get();
+        }
+      }
+      tuples.add(new VTuple(values));
+    }
+    return tuples;
+  }
+
+  private static List<PipelineStage> createStages() {
+    // scan: select a, b + b as x, c * 2.0 as y, d, e, f where a > 0 and d in ('text0', 'text1') and d like 'text%'
+    EvalNode scanQual = new BinaryEval(EvalType.AND,
+        new BinaryEval(EvalType.GTH, field(IN_SCHEMA, "a"), new ConstEval(DatumFactory.createInt4(0))),
+        new BinaryEval(EvalType.AND,
+            new InEval(field(IN_SCHEMA, "d"), new RowConstantEval(new Datum[] {
+                DatumFactory.createText("text0"), DatumFactory.createText("text1")}), false),
+            new LikePredicateEval(false, field(IN_SCHEMA, "d"), new ConstEval(DatumFactory.createText("text%")))));
+    Target [] scanTargets = new Target[] {
+        new Target(field(IN_SCHEMA, "a")),
+        new Target(new BinaryEval(EvalType.PLUS, field(IN_SCHEMA, "b"), field(IN_SCHEMA, "b")), "x"),
+        new Target(new BinaryEval(EvalType.MULTIPLY, field(IN_SCHEMA, "c"),
+            new ConstEval(DatumFactory.createFloat8(2.0d))), "y"),
+        new Target(field(IN_SCHEMA, "d")),
+        new Target(field(IN_SCHEMA, "e")),
+        new Target(field(IN_SCHEMA, "f"))
+    };
+
+    // selection: where x < 10 or not f
+    EvalNode selectionQual = new BinaryEval(EvalType.OR,
+        new BinaryEval(EvalType.LTH, field(MID_SCHEMA, "x"), new ConstEval(DatumFactory.createInt8(10))),
+        new NotEval(field(MID_SCHEMA, "f")));
+
+    // projection: select x - 1, a * a, d, e, y > 1.0
+    Target [] projectionTargets = new Target[] {
+        new Target(new BinaryEval(EvalType.MINUS, field(MID_SCHEMA, "x"),
+            new ConstEval(DatumFactory.createInt8(1))), "z"),
+        new Target(new BinaryEval(EvalType.MULTIPLY, field(MID_SCHEMA, "a"), field(MID_SCHEMA, "a")), "v"),
+        new Target(field(MID_SCHEMA, "d")),
+        new Target(field(MID_SCHEMA, "e")),
+        new Target(new BinaryEval(EvalType.GTH, field(MID_SCHEMA, "y"),
+            new ConstEval(DatumFactory.createFloat8(1.0d))), "w")
+    };
+
+    List<PipelineStage> stages = new ArrayList<PipelineStage>();
+    stages.add(new PipelineStage(IN_SCHEMA, scanQual, scanTargets));
+    stages.add(new PipelineStage(MID_SCHEMA, selectionQual, PlannerUtil.schemaToTargets(MID_SCHEMA)));
+    stages.add(new PipelineStage(MID_SCHEMA, null, projectionTargets));
+    return stages;
+  }
+
+  /**
+   * Evaluates the stages one by one through EvalNode objects.
+   */
+  private static Tuple evalStages(List<PipelineStage> stages, Tuple in) {
+    Tuple current = in;
+    for (PipelineStage stage : stages) {
+      if (stage.hasQual() && !stage.getQual().eval(current).isTrue()) {
+        return null;
+      }
+      Tuple out = new VTuple(stage.getTargets().length);
+      for (int i = 0; i < stage.getTargets().length; i++) {
+        out.put(i, stage.getTargets()[i].getEvalTree().eval(current));
+      }
+      current = out;
+    }
+    return current;
+  }
+
+  @Test
+  public void testFusedStages() {
+    List<PipelineStage> stages = createStages();
+    CompiledPipeline pipeline = new PipelineCodeGenerator(new TajoClassLoader()).compile(stages);
+
+    for (PipelineStage stage : stages) {
+      if (stage.hasQual()) {
+        stage.getQual().bind(null, stage.getInSchema());
+      }
+      for (Target target : stage.getTargets()) {
+        target.getEvalTree().bind(null, stage.getInSchema());
+      }
+    }
+
+    int matched = 0;
+    Tuple out = new VTuple(stages.get(stages.size() - 1).getTargets().length);
+    for (Tuple tuple : createTuples(1000)) {
+      Tuple expected = evalStages(stages, tuple);
+      assertEquals(tuple.toString(), expected != null, pipeline.process(tuple, out));
+      if (expected != null) {
+        assertEquals(expected, out);
+        matched++;
+      }
+    }
+    assertTrue(matched > 0);
+  }
+
+  @Test
+  public void testSingleStage() {
+    Target [] targets = PlannerUtil.schemaToTargets(IN_SCHEMA);
+    List<PipelineStage> stages = new ArrayList<PipelineStage>();
+    stages.add(new PipelineStage(IN_SCHEMA, null, targets));
+    CompiledPipeline pipeline = new PipelineCodeGenerator(new TajoClassLoader()).compile(stages);
+
+    Tuple out = new VTuple(targets.length);
+    for (Tuple tuple : createTuples(100)) {
+      assertTrue(pipeline.process(tuple, out));
+      assertEquals(tuple, out);
+    }
+  }
+
+  @Test
+  public void testCheckDefinesNoClass() {
+    final List<String> definedClasses = new ArrayList<String>();
+    TajoClassLoader classLoader = new TajoClassLoader() {
+      @Override
+      public Class defineClass(String name, byte[] b) {
+        definedClasses.add(name);
+        return super.defineClass(name, b);
+      }
+    };
+
+    PipelineCodeGenerator generator = new PipelineCodeGenerator(classLoader);
+    List<PipelineStage> stages = createStages();
+    generator.check(stages.subList(0, 1));
+    generator.check(stages.subList(0, 2));
+    generator.check(stages);
+    assertTrue(definedClasses.isEmpty());
+
+    generator.compileClass(stages);
+    assertEquals(1, definedClasses.size());
+  }
+
+  @Test
+  public void testCanonicalKey() {
+    assertEquals(PipelineCodeGenerator.getCanonicalKey(createStages()),
+        PipelineCodeGenerator.getCanonicalKey(createStages()));
+    assertNotEquals(PipelineCodeGenerator.getCanonicalKey(createStages()),
+        PipelineCodeGenerator.getCanonicalKey(createStages().subList(0, 2)));
+  }
+
+  @Test(expected = CompilationError.class)
+  public void testInPredicateInLaterStage() {
+    List<PipelineStage> stages = createStages();
+    EvalNode inPredicate = new InEval(field(MID_SCHEMA, "d"),
+        new RowConstantEval(new Datum[] {DatumFactory.createText("text0")}), false);
+    stages.add(1, new PipelineStage(MID_SCHEMA, inPredicate, PlannerUtil.schemaToTargets(MID_SCHEMA)));
+    new PipelineCodeGenerator(new TajoClassLoader()).compile(stages);
+  }
+
+  @Test(expected = CompilationError.class)
+  public void testMismatchedStages() {
+    List<PipelineStage> stages = createStages();
+    stages.add(new PipelineStage(MID_SCHEMA, null, PlannerUtil.schemaToTargets(MID_SCHEMA)));
+    new PipelineCodeGenerator(new TajoClassLoader()).compile(stages);
+  }
+}
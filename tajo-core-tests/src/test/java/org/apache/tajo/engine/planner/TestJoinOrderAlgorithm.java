@@ -21,12 +21,16 @@ package org.apache.tajo.engine.planner;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.tajo.LocalTajoTestingUtility;
+import org.apache.tajo.SessionVars;
 import org.apache.tajo.TajoConstants;
 import org.apache.tajo.TajoTestingCluster;
 import org.apache.tajo.algebra.Expr;
+import org.apache.tajo.algebra.JoinType;
 import org.apache.tajo.catalog.*;
+import org.apache.tajo.catalog.statistics.ColumnStats;
 import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.DatumFactory;
 import org.apache.tajo.engine.function.FunctionLoader;
 import org.apache.tajo.engine.parser.SQLAnalyzer;
 import org.apache.tajo.engine.query.QueryContext;
@@ -123,6 +127,14 @@ public class TestJoinOrderAlgorithm {
     }
     ///////////////////////////////////////////////////////////////////////////
 
+    ///////////////////////////////////////////////////////////////////////////
+    // creating tables with column statistics for the dynamic programming join order algorithm.
+    // stats_dim2 is larger than stats_dim1, but only 5% of the keys of stats_fact are in the key range of stats_dim2.
+    createStatsTable(fs, largeTableMeta, "stats_fact", 1000000, 1000, 1, 100000, 1);
+    createStatsTable(fs, largeTableMeta, "stats_dim1", 100, 100, 1, 100, 1);
+    createStatsTable(fs, largeTableMeta, "stats_dim2", 10000, 10000, 1, 10000, 95001);
+    ///////////////////////////////////////////////////////////////////////////
+
     sqlAnalyzer = new SQLAnalyzer();
     planner = new LogicalPlanner(catalog, TablespaceManager.getInstance());
     optimizer = new LogicalOptimizer(util.getConfiguration(), catalog);
@@ -130,6 +142,35 @@ public class TestJoinOrderAlgorithm {
     defaultContext = LocalTajoTestingUtility.createDummyContext(util.getConfiguration());
   }
 
+  private static void createStatsTable(FileSystem fs, TableMeta meta, String name, long numRows,
+                                       int numKey1, int minKey1, int numKey2, int minKey2) throws Exception {
+    Schema schema = new Schema();
+    schema.addColumn("key1", Type.INT4);
+    schema.addColumn("key2", Type.INT4);
+    schema.addColumn("payload", Type.TEXT);
+
+    Path tablePath = new Path(CommonTestingUtil.getTestDir(), name);
+    fs.create(tablePath);
+    TableDesc desc = new TableDesc(CatalogUtil.buildFQName(DEFAULT_DATABASE_NAME, name), schema, meta,
+        tablePath.toUri());
+    TableStats stats = new TableStats();
+    stats.setNumRows(numRows);
+    stats.setNumBytes(numRows * 100);
+    stats.addColumnStat(createColumnStats(schema.getColumn("key1"), numKey1, minKey1));
+    stats.addColumnStat(createColumnStats(schema.getColumn("key2"), numKey2, minKey2));
+    desc.setStats(stats);
+    catalog.createTable(desc);
+  }
+
+  private static ColumnStats createColumnStats(Column column, int numDistVals, int minValue) {
+    ColumnStats stats = new ColumnStats(column);
+    stats.setNumDistVals(numDistVals);
+    stats.setNumNulls(0);
+    stats.setMinValue(DatumFactory.createInt4(minValue));
+    stats.setMaxValue(DatumFactory.createInt4(minValue + numDistVals - 1));
+    return stats;
+  }
+
   @AfterClass
   public static void tearDown() throws Exception {
     util.shutdownCatalogCluster();
@@ -165,6 +206,56 @@ public class TestJoinOrderAlgorithm {
 
   }
 
+  @Test
+  public final void testDynamicProgrammingJoinOrder() throws Exception {
+    String query = "select a.payload from stats_fact a, stats_dim1 b, stats_dim2 c " +
+        "where a.key1 = b.key1 and a.key2 = c.key2";
+
+    // the greedy algorithm joins the smallest tables first
+    Expr expr = sqlAnalyzer.parse(query);
+    LogicalPlan newPlan = planner.createPlan(defaultContext, expr);
+    optimizer.optimize(defaultContext, newPlan);
+    LogicalNode[] joinNodes = PlannerUtil.findAllNodes(newPlan.getRootBlock().getRoot(), NodeType.JOIN);
+    assertEquals(2, joinNodes.length);
+    assertJoinNode(joinNodes[0], "default.a", "default.b");
+
+    QueryContext context = LocalTajoTestingUtility.createDummyContext(util.getConfiguration());
+    context.setBool(SessionVars.JOIN_ORDER_DP_ENABLED, true);
+    expr = sqlAnalyzer.parse(query);
+    newPlan = planner.createPlan(context, expr);
+    optimizer.optimize(context, newPlan);
+
+    // stats_fact is first joined with stats_dim2, because only a few rows of stats_fact match stats_dim2.
+    joinNodes = PlannerUtil.findAllNodes(newPlan.getRootBlock().getRoot(), NodeType.JOIN);
+    assertEquals(2, joinNodes.length);
+    assertJoinNode(joinNodes[0], "default.a", "default.c");
+    assertJoinNode(joinNodes[1], null, "default.b");
+    for (LogicalNode joinNode : joinNodes) {
+      assertEquals(JoinType.INNER, ((JoinNode) joinNode).getJoinType());
+      assertTrue(((JoinNode) joinNode).hasJoinQual());
+    }
+    assertNull(PlannerUtil.findTopNode(newPlan.getRootBlock().getRoot(), NodeType.SELECTION));
+  }
+
+  @Test
+  public final void testDynamicProgrammingJoinOrderFallback() throws Exception {
+    // an outer join cannot be freely reordered, so the join order is found by the greedy algorithm.
+    String query = "select a.payload from stats_fact a left outer join stats_dim1 b on a.key1 = b.key1 " +
+        "inner join stats_dim2 c on a.key2 = c.key2";
+
+    QueryContext context = LocalTajoTestingUtility.createDummyContext(util.getConfiguration());
+    context.setBool(SessionVars.JOIN_ORDER_DP_ENABLED, true);
+    Expr expr = sqlAnalyzer.parse(query);
+    LogicalPlan newPlan = planner.createPlan(context, expr);
+    optimizer.optimize(context, newPlan);
+
+    LogicalNode[] joinNodes = PlannerUtil.findAllNodes(newPlan.getRootBlock().getRoot(), NodeType.JOIN);
+    assertEquals(2, joinNodes.length);
+    assertJoinNode(joinNodes[0], "default.a", "default.b");
+    assertEquals(JoinType.LEFT_OUTER, ((JoinNode) joinNodes[0]).getJoinType());
+    assertJoinNode(joinNodes[1], null, "default.c");
+  }
+
   private void assertJoinNode(LogicalNode node, String left, String right) {
     assertEquals(NodeType.JOIN, node.getType());
     JoinNode joinNode = (JoinNode)node;
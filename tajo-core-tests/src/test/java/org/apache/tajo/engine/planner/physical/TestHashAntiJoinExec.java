@@ -47,6 +47,8 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
 
 import static org.apache.tajo.TajoConstants.DEFAULT_DATABASE_NAME;
 import static org.apache.tajo.TajoConstants.DEFAULT_TABLESPACE_NAME;
@@ -162,6 +164,69 @@ public class TestHashAntiJoinExec {
     TaskAttemptContext ctx = new TaskAttemptContext(queryContext,
         LocalTajoTestingUtility.newTaskAttemptId(), merged, workDir);
     ctx.setEnforcer(new Enforcer());
+
+    PhysicalExec exec = createHashLeftAntiJoinExec(ctx);
+
+    Tuple tuple;
+    int count = 0;
+    int i = 0;
+    exec.init();
+    while ((tuple = exec.next()) != null) {
+      count++;
+      assertTrue(i == tuple.getInt4(0));
+      assertTrue(i == tuple.getInt4(1)); // expected empid [0, 2, 4, 6, 8]
+      assertTrue(("dept_" + i).equals(tuple.getText(2)));
+      assertTrue(10 + i == tuple.getInt4(3));
+
+      i += 2;
+    }
+    exec.close();
+    assertEquals(5 , count); // the expected result : [0, 2, 4, 6, 8]
+  }
+
+  @Test
+  public final void testHashAntiJoinWithSpill() throws IOException, TajoException {
+    FileFragment[] empFrags = FileTablespace.splitNG(conf, "default.e", employee.getMeta(),
+        new Path(employee.getUri()), Integer.MAX_VALUE);
+    FileFragment[] peopleFrags = FileTablespace.splitNG(conf, "default.p", people.getMeta(),
+        new Path(people.getUri()), Integer.MAX_VALUE);
+
+    FileFragment[] merged = TUtil.concat(empFrags, peopleFrags);
+
+    Path workDir = CommonTestingUtil.getTestDir(
+        TajoTestingCluster.DEFAULT_TEST_DIRECTORY + "/testHashAntiJoinWithSpill");
+    TaskAttemptContext ctx = new TaskAttemptContext(queryContext,
+        LocalTajoTestingUtility.newTaskAttemptId(), merged, workDir);
+    ctx.setEnforcer(new Enforcer());
+
+    PhysicalExec exec = createHashLeftAntiJoinExec(ctx);
+    assertTrue(exec instanceof HashLeftAntiJoinExec);
+    // every tuple exceeds the budget, so all partitions are spilled until the maximum level
+    ((HashLeftAntiJoinExec) exec).setMemoryBudget(1);
+
+    exec.init();
+    for (int scan = 0; scan < 2; scan++) {
+      Set<Integer> expected = new HashSet<Integer>();
+      for (int i = 0; i < 10; i += 2) {
+        expected.add(i);
+      }
+
+      Tuple tuple;
+      while ((tuple = exec.next()) != null) {
+        int i = tuple.getInt4(0);
+        assertTrue(expected.remove(i)); // each left tuple is returned once
+        assertEquals(i, tuple.getInt4(1));
+        assertEquals("dept_" + i, tuple.getText(2));
+        assertEquals(10 + i, tuple.getInt4(3));
+      }
+      assertTrue(expected.isEmpty()); // the expected result : [0, 2, 4, 6, 8]
+      exec.rescan();
+    }
+    exec.close();
+    assertTrue(ctx.getSpilledBytes() > 0);
+  }
+
+  private PhysicalExec createHashLeftAntiJoinExec(TaskAttemptContext ctx) throws IOException, TajoException {
     Expr expr = analyzer.parse(QUERIES[0]);
     LogicalPlan plan = planner.createPlan(LocalTajoTestingUtility.createDummyContext(conf), expr);
     optimizer.optimize(plan);
@@ -196,20 +261,6 @@ public class TestHashAntiJoinExec {
       }
     }
 
-    Tuple tuple;
-    int count = 0;
-    int i = 0;
-    exec.init();
-    while ((tuple = exec.next()) != null) {
-      count++;
-      assertTrue(i == tuple.getInt4(0));
-      assertTrue(i == tuple.getInt4(1)); // expected empid [0, 2, 4, 6, 8]
-      assertTrue(("dept_" + i).equals(tuple.getText(2)));
-      assertTrue(10 + i == tuple.getInt4(3));
-
-      i += 2;
-    }
-    exec.close();
-    assertEquals(5 , count); // the expected result : [0, 2, 4, 6, 8]
+    return exec;
   }
 }
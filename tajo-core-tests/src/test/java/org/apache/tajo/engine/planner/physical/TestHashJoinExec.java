@@ -50,6 +50,8 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
 
 import static org.apache.tajo.TajoConstants.DEFAULT_TABLESPACE_NAME;
 import static org.apache.tajo.plan.serder.PlanProto.JoinEnforce.JoinAlgorithm;
@@ -185,6 +187,111 @@ public class TestHashJoinExec {
     assertEquals(10 / 2, count);
   }
 
+  @Test
+  public final void testHashInnerJoinWithSpill() throws IOException, TajoException {
+    Expr expr = analyzer.parse(QUERIES[0]);
+    LogicalNode plan = planner.createPlan(defaultContext, expr).getRootBlock().getRoot();
+
+    JoinNode joinNode = PlannerUtil.findTopNode(plan, NodeType.JOIN);
+    Enforcer enforcer = new Enforcer();
+    enforcer.enforceJoinAlgorithm(joinNode.getPID(), JoinAlgorithm.IN_MEMORY_HASH_JOIN);
+
+    FileFragment[] empFrags = FileTablespace.splitNG(conf, "default.e", employee.getMeta(),
+        new Path(employee.getUri()), Integer.MAX_VALUE);
+    FileFragment[] peopleFrags = FileTablespace.splitNG(conf, "default.p", people.getMeta(),
+        new Path(people.getUri()), Integer.MAX_VALUE);
+    FileFragment[] merged = TUtil.concat(empFrags, peopleFrags);
+
+    Path workDir = CommonTestingUtil.getTestDir(
+        TajoTestingCluster.DEFAULT_TEST_DIRECTORY + "/testHashInnerJoinWithSpill");
+    TaskAttemptContext ctx = new TaskAttemptContext(new QueryContext(conf),
+        LocalTajoTestingUtility.newTaskAttemptId(), merged, workDir);
+    ctx.setEnforcer(enforcer);
+
+    PhysicalPlanner phyPlanner = new PhysicalPlannerImpl(conf);
+    PhysicalExec exec = phyPlanner.createPlan(ctx, plan);
+
+    ProjectionExec proj = (ProjectionExec) exec;
+    assertTrue(proj.getChild() instanceof HashJoinExec);
+    HashJoinExec joinExec = proj.getChild();
+    // every tuple exceeds the budget, so all partitions are spilled until the maximum level
+    joinExec.setMemoryBudget(1);
+
+    exec.init();
+    for (int scan = 0; scan < 2; scan++) {
+      Set<Integer> expected = new HashSet<Integer>();
+      for (int i = 1; i < 10; i += 2) {
+        expected.add(i);
+      }
+
+      Tuple tuple;
+      while ((tuple = exec.next()) != null) {
+        int i = tuple.getInt4(0);
+        assertTrue(expected.remove(i));
+        assertEquals(i, tuple.getInt4(1));
+        assertEquals("dept_" + i, tuple.getText(2));
+        assertEquals(10 + i, tuple.getInt4(3));
+      }
+      assertTrue(expected.isEmpty());
+      exec.rescan();
+    }
+    exec.close();
+    assertTrue(ctx.getSpilledBytes() > 0);
+  }
+
+  @Test
+  public final void testHashInnerJoinWithSpillOffHeap() throws IOException, TajoException {
+    Expr expr = analyzer.parse(QUERIES[0]);
+    LogicalNode plan = planner.createPlan(defaultContext, expr).getRootBlock().getRoot();
+
+    JoinNode joinNode = PlannerUtil.findTopNode(plan, NodeType.JOIN);
+    Enforcer enforcer = new Enforcer();
+    enforcer.enforceJoinAlgorithm(joinNode.getPID(), JoinAlgorithm.IN_MEMORY_HASH_JOIN);
+
+    FileFragment[] empFrags = FileTablespace.splitNG(conf, "default.e", employee.getMeta(),
+        new Path(employee.getUri()), Integer.MAX_VALUE);
+    FileFragment[] peopleFrags = FileTablespace.splitNG(conf, "default.p", people.getMeta(),
+        new Path(people.getUri()), Integer.MAX_VALUE);
+    FileFragment[] merged = TUtil.concat(empFrags, peopleFrags);
+
+    Path workDir = CommonTestingUtil.getTestDir(
+        TajoTestingCluster.DEFAULT_TEST_DIRECTORY + "/testHashInnerJoinWithSpillOffHeap");
+    TaskAttemptContext ctx = new TaskAttemptContext(new QueryContext(conf),
+        LocalTajoTestingUtility.newTaskAttemptId(), merged, workDir);
+    ctx.setEnforcer(enforcer);
+    ctx.getQueryContext().setBool(SessionVars.OFFHEAP_ROW_BLOCK_ENABLED, true);
+
+    PhysicalPlanner phyPlanner = new PhysicalPlannerImpl(conf);
+    PhysicalExec exec = phyPlanner.createPlan(ctx, plan);
+
+    ProjectionExec proj = (ProjectionExec) exec;
+    assertTrue(proj.getChild() instanceof HashJoinExec);
+    HashJoinExec joinExec = proj.getChild();
+    // every tuple exceeds the budget, so all partitions are spilled until the maximum level
+    joinExec.setMemoryBudget(1);
+
+    exec.init();
+    for (int scan = 0; scan < 2; scan++) {
+      Set<Integer> expected = new HashSet<Integer>();
+      for (int i = 1; i < 10; i += 2) {
+        expected.add(i);
+      }
+
+      Tuple tuple;
+      while ((tuple = exec.next()) != null) {
+        int i = tuple.getInt4(0);
+        assertTrue(expected.remove(i));
+        assertEquals(i, tuple.getInt4(1));
+        assertEquals("dept_" + i, tuple.getText(2));
+        assertEquals(10 + i, tuple.getInt4(3));
+      }
+      assertTrue(expected.isEmpty());
+      exec.rescan();
+    }
+    exec.close();
+    assertTrue(ctx.getSpilledBytes() > 0);
+  }
+
   @Test
   public final void testCheckIfInMemoryInnerJoinIsPossible() throws IOException, TajoException {
     Expr expr = analyzer.parse(QUERIES[0]);
@@ -48,6 +48,8 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.apache.tajo.TajoConstants.DEFAULT_DATABASE_NAME;
 import static org.apache.tajo.TajoConstants.DEFAULT_TABLESPACE_NAME;
@@ -297,6 +299,64 @@ public class TestLeftOuterHashJoinExec {
     assertEquals(12, count);
   }
 
+  @Test
+  public final void testLeftOuterHashJoinExecWithSpill() throws IOException, TajoException {
+    Expr expr = analyzer.parse(QUERIES[0]);
+    LogicalNode plan = planner.createPlan(defaultContext, expr).getRootBlock().getRoot();
+    JoinNode joinNode = PlannerUtil.findTopNode(plan, NodeType.JOIN);
+    Enforcer enforcer = new Enforcer();
+    enforcer.enforceJoinAlgorithm(joinNode.getPID(), JoinAlgorithm.IN_MEMORY_HASH_JOIN);
+
+    FileFragment[] dep3Frags = FileTablespace.splitNG(conf, DEP3_NAME, dep3.getMeta(),
+        new Path(dep3.getUri()), Integer.MAX_VALUE);
+    FileFragment[] emp3Frags = FileTablespace.splitNG(conf, EMP3_NAME, emp3.getMeta(),
+        new Path(emp3.getUri()), Integer.MAX_VALUE);
+    FileFragment[] merged = TUtil.concat(dep3Frags, emp3Frags);
+
+    Path workDir = CommonTestingUtil.getTestDir(
+        TajoTestingCluster.DEFAULT_TEST_DIRECTORY + "/TestLeftOuterHashJoinExecWithSpill");
+    TaskAttemptContext ctx = new TaskAttemptContext(new QueryContext(conf),
+        LocalTajoTestingUtility.newTaskAttemptId(), merged, workDir);
+    ctx.setEnforcer(enforcer);
+
+    PhysicalPlanner phyPlanner = new PhysicalPlannerImpl(conf);
+    PhysicalExec exec = phyPlanner.createPlan(ctx, plan);
+
+    ProjectionExec proj = (ProjectionExec) exec;
+    assertTrue(proj.getChild() instanceof HashLeftOuterJoinExec);
+    HashLeftOuterJoinExec joinExec = proj.getChild();
+    // every tuple exceeds the budget, so all partitions are spilled until the maximum level
+    joinExec.setMemoryBudget(1);
+
+    exec.init();
+    for (int scan = 0; scan < 2; scan++) {
+      // dep_id -> emp_id, where the departments of even ids have no employee
+      List<String> expected = new ArrayList<String>();
+      for (int i = 0; i < 10; i++) {
+        if (i % 2 == 0) {
+          expected.add(i + ":null");
+        } else {
+          expected.add(i + ":" + (10 + i));
+          if (i < 4) {
+            expected.add(i + ":" + (20 + i));
+          }
+        }
+      }
+
+      Tuple tuple;
+      while ((tuple = exec.next()) != null) {
+        int depId = tuple.getInt4(0);
+        assertEquals("dept_" + depId, tuple.getText(1));
+        String emp = tuple.isBlankOrNull(2) ? "null" : String.valueOf(tuple.getInt4(2));
+        assertTrue(expected.remove(depId + ":" + emp));
+      }
+      assertTrue(expected.isEmpty());
+      exec.rescan();
+    }
+    exec.close();
+    assertTrue(ctx.getSpilledBytes() > 0);
+  }
+
 
   @Test
   public final void testLeftOuter_HashJoinExec1() throws IOException, TajoException {
@@ -0,0 +1,194 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestOffHeapRowStore {
+  private static final Schema SCHEMA = new Schema(new Column[] {
+      new Column("col1", Type.BOOLEAN),
+      new Column("col2", Type.INT2),
+      new Column("col3", Type.INT4),
+      new Column("col4", Type.INT8),
+      new Column("col5", Type.FLOAT4),
+      new Column("col6", Type.FLOAT8),
+      new Column("col7", Type.TEXT),
+      new Column("col8", Type.DATE),
+      new Column("col9", Type.TIME),
+      new Column("col10", Type.TIMESTAMP),
+      new Column("col11", Type.INTERVAL),
+      new Column("col12", Type.INET4)
+  });
+
+  private static Tuple createTuple(int i) {
+    return new VTuple(new Datum[] {
+        DatumFactory.createBool(i % 2 == 0),
+        DatumFactory.createInt2((short) i),
+        DatumFactory.createInt4(i),
+        DatumFactory.createInt8(Integer.MAX_VALUE + (long) i),
+        DatumFactory.createFloat4(i + 0.5f),
+        DatumFactory.createFloat8(i + 0.25d),
+        DatumFactory.createText("text_" + i),
+        DatumFactory.createDate(2015, 1 + i % 12, 1 + i % 28),
+        DatumFactory.createTime(i * 1000L),
+        DatumFactory.createTimestamp("2015-07-01 12:34:56"),
+        DatumFactory.createInterval(i % 12, i * 1000L),
+        DatumFactory.createInet4("192.168.0." + (i % 256))
+    });
+  }
+
+  private static void assertTupleEquals(Tuple expected, Tuple actual) {
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals("field " + i, expected.asDatum(i), actual.asDatum(i));
+    }
+  }
+
+  @Test
+  public final void testIsSupported() {
+    assertTrue(OffHeapRowStore.isSupported(SCHEMA));
+    assertFalse(OffHeapRowStore.isSupported(new Schema()));
+    assertFalse(OffHeapRowStore.isSupported(new Schema(new Column[] {
+        new Column("col1", Type.INT4),
+        new Column("col2", Type.BLOB)
+    })));
+  }
+
+  @Test
+  public final void testAddAndRead() {
+    OffHeapRowStore store = new OffHeapRowStore(SCHEMA);
+    try {
+      List<Tuple> rows = new ArrayList<Tuple>();
+      for (int i = 0; i < 100; i++) {
+        rows.add(store.add(createTuple(i)));
+      }
+      assertEquals(100, store.rows());
+
+      // tuples returned earlier still point to valid rows
+      for (int i = 0; i < 100; i++) {
+        assertTupleEquals(createTuple(i), rows.get(i));
+      }
+    } finally {
+      store.release();
+    }
+  }
+
+  @Test
+  public final void testNullFields() {
+    OffHeapRowStore store = new OffHeapRowStore(SCHEMA);
+    try {
+      Tuple tuple = createTuple(1);
+      tuple.put(0, NullDatum.get());
+      tuple.put(6, NullDatum.get());
+      tuple.put(10, NullDatum.get());
+
+      Tuple row = store.add(tuple);
+      assertTrue(row.isBlankOrNull(0));
+      assertTrue(row.isBlankOrNull(6));
+      assertTrue(row.isBlankOrNull(10));
+      assertTupleEquals(tuple, row);
+    } finally {
+      store.release();
+    }
+  }
+
+  @Test
+  public final void testChainedBlocks() {
+    // a small block holds a few rows only, so that new blocks are chained
+    OffHeapRowStore store = new OffHeapRowStore(SCHEMA, 256);
+    try {
+      List<Tuple> rows = new ArrayList<Tuple>();
+      for (int i = 0; i < 1000; i++) {
+        rows.add(store.add(createTuple(i)));
+      }
+      assertTrue(store.allocatedMemory() > 256);
+      assertTrue(store.allocatedMemory() >= store.usedMemory());
+
+      for (int i = 0; i < 1000; i++) {
+        assertTupleEquals(createTuple(i), rows.get(i));
+      }
+
+      // a row larger than the block size gets its own block
+      Tuple large = createTuple(0);
+      StringBuilder sb = new StringBuilder();
+      for (int i = 0; i < 100; i++) {
+        sb.append("large_text");
+      }
+      large.put(6, DatumFactory.createText(sb.toString()));
+      assertTupleEquals(large, store.add(large));
+    } finally {
+      store.release();
+    }
+  }
+
+  @Test
+  public final void testMemoryAccounting() {
+    OffHeapRowStore store = new OffHeapRowStore(SCHEMA);
+    try {
+      store.add(createTuple(1));
+      long rowSize = store.usedMemory();
+      assertTrue(rowSize > 0);
+      assertEquals(rowSize + OffHeapRowStore.TUPLE_OVERHEAD, store.getMemoryConsumption());
+
+      // rows of the same width take the same number of bytes
+      store.add(createTuple(2));
+      assertEquals(rowSize * 2, store.usedMemory());
+      assertEquals((rowSize + OffHeapRowStore.TUPLE_OVERHEAD) * 2, store.getMemoryConsumption());
+    } finally {
+      store.release();
+    }
+    assertEquals(0, store.rows());
+    assertEquals(0, store.usedMemory());
+    assertEquals(0, store.allocatedMemory());
+  }
+
+  @Test
+  public final void testTupleList() {
+    OffHeapTupleList list = new OffHeapTupleList(SCHEMA);
+    for (int i = 0; i < 10; i++) {
+      list.add(createTuple(i));
+    }
+    assertEquals(10, list.size());
+    assertEquals(list.getStore().getMemoryConsumption(), list.getMemoryConsumption());
+    for (int i = 0; i < 10; i++) {
+      assertTupleEquals(createTuple(i), list.get(i));
+    }
+
+    // the list can be reused after it is cleared
+    list.clear();
+    assertEquals(0, list.size());
+    assertEquals(0, list.getStore().rows());
+    list.add(createTuple(3));
+    assertTupleEquals(createTuple(3), list.get(0));
+    list.clear();
+  }
+}
@@ -234,6 +234,9 @@ public class TestPhysicalPlanner {
       "select sum(score), max(score), min(score) from score", // 14
       "select deptname, sum(score), max(score), min(score) from score group by deptname", // 15
       "select name from employee where empid >= 0", // 16
+      "select deptname, class, sum(score), max(score), min(score) from score_large group by deptname, class", // 17
+      "select deptname, class, sum(score), max(score), min(score) from score_large where score > 1 " +
+          "group by deptname, class", // 18
   };
 
   @Test
@@ -411,6 +414,96 @@ public class TestPhysicalPlanner {
     assertEquals(10, i);
   }
 
+  @Test
+  public final void testHashGroupByPlanWithSpill() throws IOException, TajoException {
+    FileFragment[] frags = FileTablespace.splitNG(conf, "default.score_large", largeScore.getMeta(),
+        new Path(largeScore.getUri()), Integer.MAX_VALUE);
+    Path workDir = CommonTestingUtil.getTestDir(TajoTestingCluster.DEFAULT_TEST_DIRECTORY +
+        "/testHashGroupByPlanWithSpill");
+    QueryContext queryContext = new QueryContext(conf, session);
+    queryContext.setLong(SessionVars.HASH_GROUPBY_BUFFER_SIZE, 1);
+    TaskAttemptContext ctx = new TaskAttemptContext(queryContext,
+        LocalTajoTestingUtility.newTaskAttemptId(masterPlan), frags, workDir);
+    Expr expr = analyzer.parse(QUERIES[17]);
+    LogicalPlan plan = planner.createPlan(defaultContext, expr);
+    LogicalNode rootNode = optimizer.optimize(plan);
+
+    GroupbyNode groupByNode = PlannerUtil.findTopNode(rootNode, NodeType.GROUP_BY);
+    Enforcer enforcer = new Enforcer();
+    enforcer.enforceHashAggregation(groupByNode.getPID());
+    ctx.setEnforcer(enforcer);
+
+    PhysicalPlanner phyPlanner = new PhysicalPlannerImpl(conf);
+    PhysicalExec exec = phyPlanner.createPlan(ctx, rootNode);
+    assertNotNull(PhysicalPlanUtil.findExecutor(exec, HashAggregateExec.class));
+
+    Set<String> groups = Sets.newHashSet();
+    Tuple tuple;
+    exec.init();
+    while ((tuple = exec.next()) != null) {
+      assertTrue(groups.add(tuple.getText(0) + "," + tuple.getText(1)));
+      assertEquals(6, tuple.getInt4(2)); // sum
+      assertEquals(3, tuple.getInt4(3)); // max
+      assertEquals(1, tuple.getInt4(4)); // min
+    }
+    assertEquals(80000, groups.size());
+    assertTrue(ctx.getSpilledBytes() > 0);
+
+    exec.rescan();
+    int i = 0;
+    while (exec.next() != null) {
+      i++;
+    }
+    exec.close();
+    assertEquals(80000, i);
+  }
+
+  @Test
+  public final void testVectorizedHashGroupByPlan() throws IOException, TajoException {
+    FileFragment[] frags = FileTablespace.splitNG(conf, "default.score_large", largeScore.getMeta(),
+        new Path(largeScore.getUri()), Integer.MAX_VALUE);
+    Path workDir = CommonTestingUtil.getTestDir(TajoTestingCluster.DEFAULT_TEST_DIRECTORY +
+        "/testVectorizedHashGroupByPlan");
+    QueryContext queryContext = new QueryContext(conf, session);
+    queryContext.setBool(SessionVars.VECTORIZED_EXECUTION_ENABLED, true);
+    queryContext.setInt(SessionVars.VECTORIZED_BATCH_SIZE, 100);
+    TaskAttemptContext ctx = new TaskAttemptContext(queryContext,
+        LocalTajoTestingUtility.newTaskAttemptId(masterPlan), frags, workDir);
+    Expr expr = analyzer.parse(QUERIES[18]);
+    LogicalPlan plan = planner.createPlan(defaultContext, expr);
+    LogicalNode rootNode = optimizer.optimize(plan);
+
+    GroupbyNode groupByNode = PlannerUtil.findTopNode(rootNode, NodeType.GROUP_BY);
+    Enforcer enforcer = new Enforcer();
+    enforcer.enforceHashAggregation(groupByNode.getPID());
+    ctx.setEnforcer(enforcer);
+
+    PhysicalPlanner phyPlanner = new PhysicalPlannerImpl(conf);
+    PhysicalExec exec = phyPlanner.createPlan(ctx, rootNode);
+    assertNotNull(PhysicalPlanUtil.findExecutor(exec, HashAggregateExec.class));
+
+    Set<String> groups = Sets.newHashSet();
+    Tuple tuple;
+    exec.init();
+    SeqScanExec scanExec = PhysicalPlanUtil.findExecutor(exec, SeqScanExec.class);
+    assertTrue(scanExec.isVectorized());
+    while ((tuple = exec.next()) != null) {
+      assertTrue(groups.add(tuple.getText(0) + "," + tuple.getText(1)));
+      assertEquals(5, tuple.getInt4(2)); // sum
+      assertEquals(3, tuple.getInt4(3)); // max
+      assertEquals(2, tuple.getInt4(4)); // min
+    }
+    assertEquals(80000, groups.size());
+
+    exec.rescan();
+    int i = 0;
+    while (exec.next() != null) {
+      i++;
+    }
+    exec.close();
+    assertEquals(80000, i);
+  }
+
   private String[] CreateTableAsStmts = {
       "create table grouped1 as select deptName, class, sum(score), max(score), min(score) from score group by deptName, class", // 0
       "create table grouped2 using rcfile as select deptName, class, sum(score), max(score), min(score) from score group by deptName, class", // 1
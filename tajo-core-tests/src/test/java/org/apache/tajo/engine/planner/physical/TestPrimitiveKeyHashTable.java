@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TestPrimitiveKeyHashTable {
+
+  private static final Column COL_INT4 = new Column("col0", Type.INT4);
+  private static final Column COL_INT8 = new Column("col1", Type.INT8);
+  private static final Column COL_TEXT = new Column("col2", Type.TEXT);
+  private static final Column COL_DATE = new Column("col3", Type.DATE);
+  private static final Column COL_FLOAT8 = new Column("col4", Type.FLOAT8);
+
+  private static final Schema SCHEMA = new Schema(new Column[] {COL_INT4, COL_INT8, COL_TEXT, COL_DATE, COL_FLOAT8});
+
+  private static Tuple createTuple(int int4, long int8, String text, int date) {
+    return new VTuple(new Datum[] {
+        DatumFactory.createInt4(int4),
+        DatumFactory.createInt8(int8),
+        text == null ? NullDatum.get() : DatumFactory.createText(text),
+        DatumFactory.createDate(date),
+        DatumFactory.createFloat8(0.5d)
+    });
+  }
+
+  @Test
+  public final void testIsSupported() {
+    assertTrue(PrimitiveKeyHashTable.isSupported(SCHEMA, new Column[] {COL_INT4}));
+    assertTrue(PrimitiveKeyHashTable.isSupported(SCHEMA, new Column[] {COL_INT8, COL_TEXT, COL_DATE}));
+    assertFalse(PrimitiveKeyHashTable.isSupported(SCHEMA, new Column[] {COL_INT4, COL_FLOAT8}));
+    assertFalse(PrimitiveKeyHashTable.isSupported(SCHEMA, new Column[] {}));
+    assertFalse(PrimitiveKeyHashTable.isSupported(SCHEMA, new Column[] {new Column("unknown", Type.INT4)}));
+  }
+
+  @Test
+  public final void testCompositeKeys() {
+    Column [] keys = new Column[] {COL_INT4, COL_INT8, COL_TEXT, COL_DATE};
+    PrimitiveKeyHashTable<Integer> hashTable = new PrimitiveKeyHashTable<Integer>(SCHEMA, keys, 0);
+    Map<String, Integer> expected = new HashMap<String, Integer>();
+
+    Random rnd = new Random(-1);
+    for (int i = 0; i < 100000; i++) {
+      int int4 = rnd.nextInt(100);
+      long int8 = rnd.nextInt(10) * (long) Integer.MAX_VALUE;
+      String text = rnd.nextInt(10) == 0 ? null : "text_" + rnd.nextInt(10);
+      int date = 2457000 + rnd.nextInt(3);
+      Tuple tuple = createTuple(int4, int8, text, date);
+
+      int entryId = hashTable.find(tuple);
+      if (entryId >= 0) {
+        hashTable.setValue(entryId, hashTable.getValue(entryId) + 1);
+      } else {
+        entryId = hashTable.insert(entryId, tuple, 1);
+      }
+      assertEquals(entryId, hashTable.find(tuple));
+
+      String key = int4 + "," + int8 + "," + text + "," + date;
+      Integer count = expected.get(key);
+      expected.put(key, count == null ? 1 : count + 1);
+    }
+
+    assertEquals(expected.size(), hashTable.size());
+
+    Tuple keyTuple = new VTuple(keys.length);
+    for (int entryId = 0; entryId < hashTable.size(); entryId++) {
+      hashTable.putKey(entryId, keyTuple, 0);
+      String text = keyTuple.isBlankOrNull(2) ? null : keyTuple.getText(2);
+      String key = keyTuple.getInt4(0) + "," + keyTuple.getInt8(1) + "," + text + "," + keyTuple.getInt4(3);
+      assertEquals(expected.get(key), hashTable.getValue(entryId));
+      assertEquals(Type.DATE, keyTuple.type(3));
+    }
+  }
+
+  @Test
+  public final void testClear() {
+    PrimitiveKeyHashTable<Integer> hashTable =
+        new PrimitiveKeyHashTable<Integer>(SCHEMA, new Column[] {COL_TEXT}, 16);
+    Tuple tuple = createTuple(1, 1, "abc", 2457000);
+    hashTable.insert(hashTable.find(tuple), tuple, 1);
+    assertEquals(1, hashTable.size());
+
+    hashTable.clear();
+    assertTrue(hashTable.isEmpty());
+    assertTrue(hashTable.find(tuple) < 0);
+  }
+}
@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TestRuntimeFilter {
+  private static final int [] KEY_IDS = {1, 2};
+
+  private static Tuple tuple(int intKey, String textKey) {
+    return new VTuple(new Datum[] {
+        DatumFactory.createText("value"),
+        DatumFactory.createInt4(intKey),
+        textKey == null ? NullDatum.get() : DatumFactory.createText(textKey)});
+  }
+
+  @Test
+  public final void testMightContain() {
+    RuntimeFilter filter = new RuntimeFilter(KEY_IDS.length, 1 << 16);
+    assertTrue(filter.isEmpty());
+    assertFalse(filter.mightContain(tuple(1, "1"), KEY_IDS));
+
+    for (int i = 0; i < 1000; i += 2) {
+      filter.add(tuple(i, "" + i), KEY_IDS);
+    }
+    // null keys never match
+    filter.add(tuple(1, null), KEY_IDS);
+    assertFalse(filter.isEmpty());
+
+    for (int i = 0; i < 1000; i += 2) {
+      assertTrue(filter.mightContain(tuple(i, "" + i), KEY_IDS));
+    }
+    assertFalse(filter.mightContain(tuple(1, null), KEY_IDS));
+    // out of the range of the keys
+    assertFalse(filter.mightContain(tuple(-1, "-1"), KEY_IDS));
+    assertFalse(filter.mightContain(tuple(1000, "1000"), KEY_IDS));
+
+    int falsePositives = 0;
+    for (int i = 1; i < 1000; i += 2) {
+      if (filter.mightContain(tuple(i, "" + i), KEY_IDS)) {
+        falsePositives++;
+      }
+    }
+    assertTrue("false positives: " + falsePositives, falsePositives < 10);
+  }
+
+  @Test
+  public final void testMergeAndSerialize() {
+    RuntimeFilter filter1 = new RuntimeFilter(KEY_IDS.length, 1 << 16);
+    RuntimeFilter filter2 = new RuntimeFilter(KEY_IDS.length, 1 << 16);
+    RuntimeFilter emptyFilter = new RuntimeFilter(KEY_IDS.length, 1 << 16);
+    for (int i = 0; i < 100; i++) {
+      filter1.add(tuple(i, "" + i), KEY_IDS);
+      filter2.add(tuple(i + 500, "" + (i + 500)), KEY_IDS);
+    }
+
+    filter1.merge(emptyFilter);
+    filter1.merge(filter2);
+    RuntimeFilter merged = new RuntimeFilter(filter1.getProto());
+    assertTrue(merged.hasBloomFilter());
+    for (int i = 0; i < 100; i++) {
+      assertTrue(merged.mightContain(tuple(i, "" + i), KEY_IDS));
+      assertTrue(merged.mightContain(tuple(i + 500, "" + (i + 500)), KEY_IDS));
+    }
+    assertFalse(merged.mightContain(tuple(1000, "1000"), KEY_IDS));
+  }
+
+  @Test
+  public final void testSaturatedBloomFilter() {
+    RuntimeFilter filter = new RuntimeFilter(KEY_IDS.length, 64);
+    for (int i = 0; i < 1000; i++) {
+      filter.add(tuple(i, "" + i), KEY_IDS);
+    }
+
+    filter.dropSaturatedBloomFilter();
+    assertFalse(filter.hasBloomFilter());
+    // only the ranges are used
+    RuntimeFilter deserialized = new RuntimeFilter(filter.getProto());
+    assertFalse(deserialized.hasBloomFilter());
+    assertTrue(deserialized.mightContain(tuple(500, "500"), KEY_IDS));
+    assertFalse(deserialized.mightContain(tuple(1000, "1000"), KEY_IDS));
+  }
+}
@@ -28,6 +28,7 @@ import org.apache.tajo.catalog.SortSpec;
 import org.apache.tajo.common.TajoDataTypes.Type;
 import org.apache.tajo.datum.Datum;
 import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
 import org.apache.tajo.storage.BaseTupleComparator;
 import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.storage.VTuple;
@@ -36,6 +37,8 @@ import org.junit.Test;
 import java.util.*;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class TestTupleSorter {
 
@@ -124,4 +127,81 @@ public class TestTupleSorter {
       assertArrayEquals(result1, result2);
     }
   }
+
+  private static Datum randomDatum(Type type) {
+    if (rnd.nextInt(10) == 0) {
+      return NullDatum.get();
+    }
+    switch (type) {
+      case BOOLEAN: return DatumFactory.createBool(rnd.nextBoolean());
+      case INT2: return DatumFactory.createInt2((short) (rnd.nextInt(200) - 100));
+      case INT4: return DatumFactory.createInt4(rnd.nextInt(2000) - 1000);
+      case INT8: return DatumFactory.createInt8(rnd.nextBoolean() ? rnd.nextLong() : rnd.nextInt(100) - 50);
+      case FLOAT4: return DatumFactory.createFloat4(rnd.nextBoolean() ? rnd.nextFloat() * 100 - 50 : -0.0f);
+      case FLOAT8: return DatumFactory.createFloat8(rnd.nextInt(20) == 0 ? Double.NaN : rnd.nextGaussian());
+      case INET4: return DatumFactory.createInet4(rnd.nextInt());
+      case TEXT: {
+        // short values and values sharing long prefixes
+        StringBuilder sb = new StringBuilder(rnd.nextBoolean() ? "prefix_" : "");
+        int length = rnd.nextInt(4);
+        for (int i = 0; i < length; i++) {
+          sb.append((char) ('a' + rnd.nextInt(3)));
+        }
+        return DatumFactory.createText(sb.toString());
+      }
+      default:
+        throw new IllegalArgumentException(type.name());
+    }
+  }
+
+  @Test
+  public final void testNormalizedKeySorter() {
+    final int LENGTH = 5000;
+    Type[] types = new Type[] {
+        Type.BOOLEAN, Type.INT2, Type.INT4, Type.INT8, Type.FLOAT4, Type.FLOAT8, Type.INET4, Type.TEXT};
+
+    for (Type firstType : types) {
+      Schema schema = new Schema(new Column[] {new Column("col0", firstType), new Column("col1", Type.INT4)});
+      Tuple[] tuples = new Tuple[LENGTH];
+      for (int i = 0; i < LENGTH; i++) {
+        tuples[i] = new VTuple(new Datum[] {randomDatum(firstType), randomDatum(Type.INT4)});
+      }
+
+      for (int keyNum = 1; keyNum <= 2; keyNum++) {
+        for (int option = 0; option < 4; option++) {
+          SortSpec[] sortKeys = new SortSpec[keyNum];
+          int[] keyIndices = new int[keyNum];
+          for (int i = 0; i < keyNum; i++) {
+            sortKeys[i] = new SortSpec(schema.getColumn(i), (option & 1) == 0, (option & 2) == 0);
+            keyIndices[i] = i;
+          }
+
+          TupleList target = new TupleList(LENGTH);
+          target.addAll(Arrays.asList(tuples));
+          NormalizedKeySorter sorter = new NormalizedKeySorter(target, sortKeys, keyIndices);
+          List<Tuple> result1 = new ArrayList<Tuple>();
+          Iterators.addAll(result1, sorter.sort().iterator());
+
+          target = new TupleList(LENGTH);
+          target.addAll(Arrays.asList(tuples));
+          List<Tuple> result2 = new ArrayList<Tuple>();
+          Iterators.addAll(result2, new VectorizedSorter(target, sortKeys, keyIndices).sort().iterator());
+
+          assertEquals(LENGTH, result1.size());
+          ComparableVector vector = new ComparableVector(2, sortKeys, keyIndices);
+          for (int i = 0; i < LENGTH; i++) {
+            // the sort is not stable, so the tuples of equal keys can be in a different order
+            vector.set(0, result1.get(i));
+            vector.set(1, result2.get(i));
+            assertEquals(Arrays.toString(sortKeys) + " at " + i, 0, vector.compare(0, 1));
+            if (i > 0) {
+              vector.set(0, result1.get(i - 1));
+              vector.set(1, result1.get(i));
+              assertTrue(Arrays.toString(sortKeys) + " at " + i, vector.compare(0, 1) <= 0);
+            }
+          }
+        }
+      }
+    }
+  }
 }
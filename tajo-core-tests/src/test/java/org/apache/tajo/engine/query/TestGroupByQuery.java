@@ -106,6 +106,21 @@ public class TestGroupByQuery extends QueryTestCaseBase {
     cleanupQuery(res);
   }
 
+  @Test
+  public final void testGroupByWithPipelinedShuffle() throws Exception {
+    // the final group-by stage fetches the hash shuffle pages while the first stage is running
+    Map<String, String> variables = new HashMap<String, String>();
+    variables.put(SessionVars.PIPELINED_SHUFFLE_ENABLED.keyname(), "true");
+    client.updateSessionVariables(variables);
+    try {
+      ResultSet res = executeFile("testGroupBy4.sql");
+      assertResultSet(res, "testGroupBy4.result");
+      cleanupQuery(res);
+    } finally {
+      client.unsetSessionVariables(TUtil.newList(SessionVars.PIPELINED_SHUFFLE_ENABLED.keyname()));
+    }
+  }
+
   @Test
   public final void testGroupBy5() throws Exception {
     // select l_orderkey as gkey, '00' as num from lineitem group by lineitem.l_orderkey order by gkey
@@ -142,4 +142,30 @@ public class TestIndexScan extends QueryTestCaseBase {
       executeString("drop index o_orderkey_idx");
     }
   }
+
+  @Test
+  public final void testBloomFilterOnInKeys() throws Exception {
+    executeString("create index l_orderkey_bloom_idx on lineitem using bloom (l_orderkey)");
+    try {
+      ResultSet res = executeString("select l_orderkey, l_linenumber, l_shipdate from lineitem " +
+          "where l_orderkey in (1, 3) order by l_orderkey, l_linenumber;");
+      assertResultSet(res);
+      cleanupQuery(res);
+    } finally {
+      executeString("drop index l_orderkey_bloom_idx");
+    }
+  }
+
+  @Test
+  public final void testBloomFilterOnMissingKeys() throws Exception {
+    executeString("create index l_orderkey_bloom_idx on lineitem using bloom (l_orderkey) with ('bloom.fpp'='0.001')");
+    try {
+      ResultSet res = executeString("select l_orderkey, l_linenumber from lineitem " +
+          "where l_orderkey = 4 or l_orderkey = 5;");
+      assertResultSet(res);
+      cleanupQuery(res);
+    } finally {
+      executeString("drop index l_orderkey_bloom_idx");
+    }
+  }
 }
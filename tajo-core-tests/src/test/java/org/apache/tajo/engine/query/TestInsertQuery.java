@@ -29,6 +29,8 @@ import org.apache.tajo.QueryTestCaseBase;
 import org.apache.tajo.catalog.CatalogService;
 import org.apache.tajo.catalog.CatalogUtil;
 import org.apache.tajo.catalog.TableDesc;
+import org.apache.tajo.storage.FileColumnStats;
+import org.apache.tajo.storage.FileTablespace;
 import org.apache.tajo.util.CommonTestingUtil;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -879,4 +881,55 @@ public class TestInsertQuery extends QueryTestCaseBase {
     assertEquals(expected, resultDatas);
     executeString("DROP TABLE test1 PURGE");
   }
+
+  @Test
+  public final void testInsertWithFileColumnStats() throws Exception {
+    executeString("CREATE TABLE file_column_stats (l_orderkey int4, l_partkey int4) USING TEXT " +
+        "WITH ('file.column-stats'='true')").close();
+    executeString("INSERT INTO file_column_stats " +
+        "SELECT l_orderkey, l_partkey FROM default.lineitem WHERE l_orderkey = 1").close();
+    executeString("INSERT INTO file_column_stats " +
+        "SELECT l_orderkey, l_partkey FROM default.lineitem WHERE l_orderkey > 1").close();
+
+    TableDesc desc = testingCluster.getMaster().getCatalog().getTableDesc(getCurrentDatabase(), "file_column_stats");
+    Path path = new Path(desc.getUri());
+    FileSystem fs = path.getFileSystem(testingCluster.getConfiguration());
+    assertStatsFiles(fs, path, 2);
+
+    ResultSet res = executeString("SELECT l_orderkey, l_partkey FROM file_column_stats WHERE l_orderkey >= 2 " +
+        "ORDER BY l_orderkey, l_partkey");
+    String expected = "l_orderkey,l_partkey\n" +
+        "-------------------------------\n" +
+        "2,2\n" +
+        "3,2\n" +
+        "3,3\n";
+    assertEquals(expected, resultSetToString(res));
+    res.close();
+
+    executeString("INSERT OVERWRITE INTO file_column_stats " +
+        "SELECT l_orderkey, l_partkey FROM default.lineitem WHERE l_orderkey = 3").close();
+    assertStatsFiles(fs, path, 1);
+
+    res = executeString("SELECT l_orderkey, l_partkey FROM file_column_stats WHERE l_orderkey < 3");
+    assertEquals("l_orderkey,l_partkey\n-------------------------------\n", resultSetToString(res));
+    res.close();
+
+    executeString("DROP TABLE file_column_stats PURGE");
+  }
+
+  private static void assertStatsFiles(FileSystem fs, Path tablePath, int dataFileNum) throws Exception {
+    FileStatus[] dataFiles = fs.listStatus(tablePath, FileTablespace.hiddenFileFilter);
+    assertEquals(dataFileNum, dataFiles.length);
+    for (FileStatus file : dataFiles) {
+      assertTrue(fs.exists(FileColumnStats.getStatsPath(file.getPath())));
+    }
+
+    int statsFileNum = 0;
+    for (FileStatus file : fs.listStatus(tablePath)) {
+      if (FileColumnStats.isStatsFile(file.getPath())) {
+        statsFileNum++;
+      }
+    }
+    assertEquals(dataFileNum, statsFileNum);
+  }
 }
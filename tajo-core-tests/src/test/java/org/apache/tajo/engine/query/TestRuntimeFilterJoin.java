@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.query;
+
+import com.google.protobuf.ServiceException;
+import org.apache.tajo.IntegrationTest;
+import org.apache.tajo.QueryTestCaseBase;
+import org.apache.tajo.SessionVars;
+import org.apache.tajo.TajoConstants;
+import org.apache.tajo.exception.NoSuchSessionVariableException;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+@Category(IntegrationTest.class)
+public class TestRuntimeFilterJoin extends QueryTestCaseBase {
+
+  public TestRuntimeFilterJoin() throws ServiceException, SQLException, NoSuchSessionVariableException {
+    super(TajoConstants.DEFAULT_DATABASE_NAME);
+    Map<String,String> sessionVars = new HashMap<String, String>();
+    sessionVars.put(SessionVars.RUNTIME_FILTER_ENABLED.keyname(), "true");
+    sessionVars.put(SessionVars.DYNAMIC_PARTITION_PRUNING_ENABLED.keyname(), "true");
+    // runtime filters are used only for repartition joins
+    sessionVars.put(SessionVars.TEST_BROADCAST_JOIN_ENABLED.keyname(), "false");
+    client.updateSessionVariables(sessionVars);
+  }
+
+  @Test
+  public final void testFilteredDimension() throws Exception {
+    ResultSet res = executeString("select n_name, r_name from nation, region " +
+        "where n_regionkey = r_regionkey and r_name = 'ASIA' order by n_name");
+    assertResultSet(res);
+    cleanupQuery(res);
+  }
+
+  @Test
+  public final void testMultipleKeys() throws Exception {
+    ResultSet res = executeString("select l_orderkey, l_linenumber, p_name from lineitem, part " +
+        "where l_partkey = p_partkey and l_orderkey = p_partkey and p_partkey < 3 order by l_orderkey, l_linenumber");
+    assertResultSet(res);
+    cleanupQuery(res);
+  }
+
+  @Test
+  public final void testEmptyDimension() throws Exception {
+    ResultSet res = executeString("select n_name, r_name from nation, region " +
+        "where n_regionkey = r_regionkey and r_name = 'NONE'");
+    assertResultSet(res);
+    cleanupQuery(res);
+  }
+
+  @Test
+  public final void testDynamicPartitionPruning() throws Exception {
+    executeString("create table customer_parts (c_custkey int4, c_name text) " +
+        "partition by column(c_nationkey int4)").close();
+    try {
+      executeString("insert overwrite into customer_parts select c_custkey, c_name, c_nationkey from customer").close();
+
+      ResultSet res = executeString("select c_name, n_name from customer_parts, nation " +
+          "where c_nationkey = n_nationkey and n_regionkey = 1 order by c_name");
+      assertResultSet(res);
+      cleanupQuery(res);
+    } finally {
+      executeString("drop table customer_parts purge").close();
+    }
+  }
+}
@@ -777,4 +777,28 @@ public class TestSelectQuery extends QueryTestCaseBase {
     assertResultSet(res);
     cleanupQuery(res);
   }
+
+  @Test
+  public void testFilterPushdownOnParquet() throws Exception {
+    executeString("create table parquet_lineitem using parquet as select * from default.lineitem").close();
+
+    try {
+      String [] quals = {
+          "l_orderkey = 3",
+          "l_orderkey > 1 and l_linenumber <= 1",
+          "l_orderkey in (1, 3) or l_returnflag = 'R'",
+          "not (l_orderkey between 2 and 3)",
+          "l_comment is null or l_orderkey >= 3"
+      };
+      for (String qual : quals) {
+        String expected = resultSetToString(executeString(
+            "select * from default.lineitem where " + qual + " order by l_orderkey, l_linenumber"));
+        String actual = resultSetToString(executeString(
+            "select * from parquet_lineitem where " + qual + " order by l_orderkey, l_linenumber"));
+        assertEquals(qual, expected, actual);
+      }
+    } finally {
+      executeString("DROP TABLE parquet_lineitem PURGE").close();
+    }
+  }
 }
\ No newline at end of file
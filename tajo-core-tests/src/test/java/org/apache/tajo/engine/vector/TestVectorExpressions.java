@@ -0,0 +1,217 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.vector;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.plan.expr.*;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TestVectorExpressions {
+  private static final Column INT2_COL = new Column("t.int2", Type.INT2);
+  private static final Column INT4_COL = new Column("t.int4", Type.INT4);
+  private static final Column INT8_COL = new Column("t.int8", Type.INT8);
+  private static final Column FLOAT4_COL = new Column("t.float4", Type.FLOAT4);
+  private static final Column FLOAT8_COL = new Column("t.float8", Type.FLOAT8);
+  private static final Column TEXT_COL = new Column("t.text", Type.TEXT);
+  private static final Column DATE_COL = new Column("t.date", Type.DATE);
+  private static final Column BOOL_COL = new Column("t.bool", Type.BOOLEAN);
+
+  private static final Schema SCHEMA = new Schema(new Column[] {
+      INT2_COL, INT4_COL, INT8_COL, FLOAT4_COL, FLOAT8_COL, TEXT_COL, DATE_COL, BOOL_COL});
+
+  private static final int CAPACITY = 100;
+
+  private static List<Tuple> createTuples(int num) {
+    Random rnd = new Random(-1);
+    List<Tuple> tuples = new ArrayList<Tuple>();
+    for (int i = 0; i < num; i++) {
+      Datum [] values = new Datum[] {
+          DatumFactory.createInt2((short) (rnd.nextInt(10) - 5)),
+          DatumFactory.createInt4(rnd.nextInt(10) - 5),
+          DatumFactory.createInt8(rnd.nextInt(10) - 5),
+          DatumFactory.createFloat4(rnd.nextInt(10) / 2.0f),
+          DatumFactory.createFloat8(rnd.nextInt(10) / 2.0d),
+          DatumFactory.createText("t" + rnd.nextInt(5)),
+          DatumFactory.createDate(2457000 + rnd.nextInt(5)),
+          DatumFactory.createBool(rnd.nextBoolean())
+      };
+      // about 10% of values are null
+      for (int j = 0; j < values.length; j++) {
+        if (rnd.nextInt(10) == 0) {
+          values[j] = NullDatum.get();
+        }
+      }
+      tuples.add(new VTuple(values));
+    }
+    return tuples;
+  }
+
+  private static EvalNode field(Column column) {
+    return new FieldEval(column);
+  }
+
+  private static EvalNode constant(Datum datum) {
+    return new ConstEval(datum);
+  }
+
+  private static EvalNode binary(EvalType type, EvalNode left, EvalNode right) {
+    return new BinaryEval(type, left, right);
+  }
+
+  /**
+   * Check that the vectorized evaluation gives the same results as the row-at-a-time evaluation.
+   */
+  private static void assertSameResults(EvalNode eval) {
+    VectorExpression expr = VectorExpressionBuilder.build(eval, SCHEMA);
+    assertNotNull("cannot vectorize " + eval, expr);
+    eval.bind(null, SCHEMA);
+
+    List<Tuple> tuples = createTuples(CAPACITY * 3 + 7);
+    VectorBatch batch = new VectorBatch(SCHEMA, CAPACITY, null);
+    for (int start = 0; start < tuples.size(); start += CAPACITY) {
+      batch.reset();
+      for (int i = start; i < Math.min(start + CAPACITY, tuples.size()); i++) {
+        batch.addRow(tuples.get(i));
+      }
+
+      // select only even rows in order to check that the selection is respected
+      int [] selected = new int[CAPACITY];
+      int selectedNum = 0;
+      for (int i = 0; i < batch.size(); i += 2) {
+        selected[selectedNum++] = i;
+      }
+      batch.setSelected(selected, selectedNum);
+
+      ColumnVector result = expr.evaluate(batch);
+      for (int i = 0; i < selectedNum; i++) {
+        int rowId = batch.getRowId(i);
+        Datum expected = eval.eval(tuples.get(start + rowId));
+        assertEquals(eval + " at " + (start + rowId), expected, result.get(rowId));
+      }
+    }
+  }
+
+  @Test
+  public final void testComparisons() {
+    EvalType [] types = new EvalType[] {
+        EvalType.EQUAL, EvalType.NOT_EQUAL, EvalType.LTH, EvalType.LEQ, EvalType.GTH, EvalType.GEQ};
+    for (EvalType type : types) {
+      assertSameResults(binary(type, field(INT4_COL), field(INT8_COL)));
+      assertSameResults(binary(type, field(INT2_COL), constant(DatumFactory.createInt4(0))));
+      assertSameResults(binary(type, field(FLOAT8_COL), field(INT4_COL)));
+      assertSameResults(binary(type, field(FLOAT4_COL), field(FLOAT8_COL)));
+      assertSameResults(binary(type, field(TEXT_COL), constant(DatumFactory.createText("t2"))));
+      assertSameResults(binary(type, field(DATE_COL), constant(DatumFactory.createDate(2457002))));
+    }
+  }
+
+  @Test
+  public final void testArithmetic() {
+    EvalType [] types = new EvalType[] {
+        EvalType.PLUS, EvalType.MINUS, EvalType.MULTIPLY, EvalType.DIVIDE, EvalType.MODULAR};
+    for (EvalType type : types) {
+      assertSameResults(binary(type, field(INT4_COL), field(INT4_COL)));
+      assertSameResults(binary(type, field(INT8_COL), field(INT4_COL)));
+      assertSameResults(binary(type, field(FLOAT8_COL), field(INT8_COL)));
+      assertSameResults(binary(type, constant(DatumFactory.createInt4(7)), field(FLOAT8_COL)));
+    }
+  }
+
+  @Test
+  public final void testLogicalOperators() {
+    EvalNode lhs = binary(EvalType.GTH, field(INT4_COL), constant(DatumFactory.createInt4(0)));
+    EvalNode rhs = binary(EvalType.LTH, field(FLOAT8_COL), constant(DatumFactory.createFloat8(2.0d)));
+    assertSameResults(binary(EvalType.AND, lhs, rhs));
+    assertSameResults(binary(EvalType.OR, lhs, rhs));
+    assertSameResults(binary(EvalType.AND, field(BOOL_COL), lhs));
+    assertSameResults(binary(EvalType.OR, field(BOOL_COL), lhs));
+    assertSameResults(new NotEval(binary(EvalType.AND, lhs, field(BOOL_COL))));
+  }
+
+  @Test
+  public final void testIn() {
+    RowConstantEval ints = new RowConstantEval(new Datum[] {
+        DatumFactory.createInt4(-1), DatumFactory.createInt4(3), NullDatum.get()});
+    assertSameResults(new InEval(field(INT4_COL), ints, false));
+    assertSameResults(new InEval(field(INT4_COL), ints, true));
+
+    RowConstantEval texts = new RowConstantEval(new Datum[] {
+        DatumFactory.createText("t1"), DatumFactory.createText("t4")});
+    assertSameResults(new InEval(field(TEXT_COL), texts, false));
+    assertSameResults(new InEval(field(TEXT_COL), texts, true));
+  }
+
+  @Test
+  public final void testUnsupportedExpressions() {
+    // FLOAT4 arithmetic is not vectorized
+    assertNull(VectorExpressionBuilder.build(binary(EvalType.PLUS, field(FLOAT4_COL), field(INT4_COL)), SCHEMA));
+    // IN with values of a different type
+    RowConstantEval longs = new RowConstantEval(new Datum[] {DatumFactory.createInt8(1)});
+    assertNull(VectorExpressionBuilder.build(new InEval(field(INT4_COL), longs, false), SCHEMA));
+    // unknown column
+    assertNull(VectorExpressionBuilder.build(field(new Column("t.unknown", Type.INT4)), SCHEMA));
+  }
+
+  @Test
+  public final void testFilter() {
+    EvalNode qual = binary(EvalType.GEQ, field(INT4_COL), constant(DatumFactory.createInt4(0)));
+    VectorFilter filter = new VectorFilter(VectorExpressionBuilder.build(qual, SCHEMA));
+    qual.bind(null, SCHEMA);
+
+    List<Tuple> tuples = createTuples(CAPACITY);
+    VectorBatch batch = new VectorBatch(SCHEMA, CAPACITY, null);
+    for (Tuple tuple : tuples) {
+      batch.addRow(tuple);
+    }
+
+    int expected = 0;
+    for (Tuple tuple : tuples) {
+      if (qual.eval(tuple).isTrue()) {
+        expected++;
+      }
+    }
+    assertEquals(expected, filter.filter(batch));
+    assertEquals(expected, batch.getSelectedNum());
+
+    VectorBatchRow row = new VectorBatchRow();
+    Tuple materialized = new VTuple(SCHEMA.size());
+    for (int i = 0; i < batch.getSelectedNum(); i++) {
+      int rowId = batch.getRowId(i);
+      row.set(batch, rowId);
+      batch.getRow(rowId, materialized);
+      assertTrue(qual.eval(row).isTrue());
+      assertEquals(tuples.get(rowId), materialized);
+      assertEquals(tuples.get(rowId).getInt4(1), row.getInt4(1));
+    }
+  }
+}
@@ -28,6 +28,7 @@ import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.engine.parser.SQLAnalyzer;
 import org.apache.tajo.engine.planner.global.ExecutionBlock;
 import org.apache.tajo.engine.planner.global.ExecutionBlockCursor;
+import org.apache.tajo.engine.planner.global.ExecutionQueue;
 import org.apache.tajo.engine.planner.global.GlobalPlanner;
 import org.apache.tajo.engine.planner.global.MasterPlan;
 import org.apache.tajo.engine.query.QueryContext;
@@ -43,6 +44,8 @@ import org.junit.Test;
 import static org.apache.tajo.TajoConstants.DEFAULT_DATABASE_NAME;
 import static org.apache.tajo.TajoConstants.DEFAULT_TABLESPACE_NAME;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class TestExecutionBlockCursor {
   private static TajoTestingCluster util;
@@ -132,4 +135,31 @@ public class TestExecutionBlockCursor {
      */
     assertEquals(10, count);
   }
+
+  @Test
+  public void testPipelineNextBlock() throws Exception {
+    Expr context = analyzer.parse("select l_orderkey from lineitem group by l_orderkey");
+    LogicalPlan logicalPlan = logicalPlanner.createPlan(LocalTajoTestingUtility.createDummyContext(conf), context);
+    optimizer.optimize(logicalPlan);
+    QueryContext queryContext = new QueryContext(conf);
+    MasterPlan plan = new MasterPlan(LocalTajoTestingUtility.newQueryId(), queryContext, logicalPlan);
+    planner.build(queryContext, plan);
+
+    ExecutionQueue queue = new ExecutionBlockCursor(plan, true).newCursor();
+    ExecutionBlock[] first = queue.first();
+    assertEquals(1, first.length);
+    ExecutionBlock parent = plan.getParent(first[0]);
+
+    // the parent block is started while the first block is running
+    assertNull(queue.pipeline(parent.getId()));
+    assertEquals(parent, queue.pipeline(first[0].getId()));
+    assertNull(queue.pipeline(first[0].getId()));
+
+    // the parent block is not returned again when the first block is finished
+    assertEquals(0, queue.next(first[0].getId()).length);
+    ExecutionBlock[] next = queue.next(parent.getId());
+    assertEquals(1, next.length);
+    assertTrue(plan.isTerminal(next[0]));
+    assertNull(queue.next(next[0].getId()));
+  }
 }
@@ -0,0 +1,180 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.master;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.FileUtil;
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.IntegrationTest;
+import org.apache.tajo.QueryId;
+import org.apache.tajo.QueryTestCaseBase;
+import org.apache.tajo.SessionVars;
+import org.apache.tajo.TajoConstants;
+import org.apache.tajo.catalog.TableDesc;
+import org.apache.tajo.jdbc.TajoResultSetBase;
+import org.apache.tajo.master.exec.QueryResultCache;
+import org.apache.tajo.util.TUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+@Category(IntegrationTest.class)
+public class TestQueryResultCache extends QueryTestCaseBase {
+  private static final String QUERY = "select count(*), max(name) from cache_table";
+
+  private QueryResultCache resultCache;
+
+  public TestQueryResultCache() {
+    super(TajoConstants.DEFAULT_DATABASE_NAME);
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    Map<String, String> sessionVars = new HashMap<String, String>();
+    sessionVars.put(SessionVars.QUERY_RESULT_CACHE_ENABLED.keyname(), "true");
+    client.updateSessionVariables(sessionVars);
+
+    resultCache = testingCluster.getMaster().getContext().getQueryResultCache();
+    resultCache.clear();
+
+    executeString("create table cache_table (id int4, name text)").close();
+    executeString("insert into cache_table select n_nationkey, n_name from nation").close();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    executeString("drop table if exists cache_table purge").close();
+    client.unsetSessionVariables(TUtil.newList(SessionVars.QUERY_RESULT_CACHE_ENABLED.keyname()));
+  }
+
+  private long executeCount(String sql) throws Exception {
+    ResultSet res = executeString(sql);
+    try {
+      assertTrue(res.next());
+      return res.getLong(1);
+    } finally {
+      cleanupQuery(res);
+    }
+  }
+
+  /**
+   * A client may see the completion of a query before the master caches its result.
+   */
+  private void waitForCachedEntries(long entryNum) throws InterruptedException {
+    for (int i = 0; i < 100 && resultCache.getEntryNum() < entryNum; i++) {
+      Thread.sleep(100);
+    }
+    assertEquals(entryNum, resultCache.getEntryNum());
+  }
+
+  @Test
+  public final void testHitAndInvalidationByInsert() throws Exception {
+    assertEquals(25, executeCount(QUERY));
+    waitForCachedEntries(1);
+
+    long hitCount = resultCache.getHitCount();
+    // the same plan is cached regardless of the query text
+    assertEquals(25, executeCount(QUERY.toUpperCase()));
+    assertEquals(25, executeCount(QUERY));
+    assertEquals(hitCount + 2, resultCache.getHitCount());
+
+    executeString("insert into cache_table select n_nationkey, n_name from nation").close();
+    assertEquals(0, resultCache.getEntryNum());
+
+    assertEquals(50, executeCount(QUERY));
+    assertEquals(hitCount + 2, resultCache.getHitCount());
+    waitForCachedEntries(1);
+    assertEquals(50, executeCount(QUERY));
+    assertEquals(hitCount + 3, resultCache.getHitCount());
+  }
+
+  @Test
+  public final void testInvalidationByDropTable() throws Exception {
+    assertEquals(25, executeCount(QUERY));
+    waitForCachedEntries(1);
+
+    executeString("drop table cache_table purge").close();
+    assertEquals(0, resultCache.getEntryNum());
+
+    executeString("create table cache_table (id int4, name text)").close();
+    executeString("insert into cache_table select r_regionkey, r_name from region").close();
+    assertEquals(5, executeCount(QUERY));
+  }
+
+  @Test
+  public final void testChangeOutsideOfCatalog() throws Exception {
+    assertEquals(25, executeCount(QUERY));
+    waitForCachedEntries(1);
+
+    // a file is added to the table directory without the catalog
+    TableDesc desc = catalog.getTableDesc(getCurrentDatabase(), "cache_table");
+    Path tablePath = new Path(desc.getUri());
+    FileSystem fs = tablePath.getFileSystem(conf);
+    Path file = fs.listStatus(tablePath)[0].getPath();
+    FileUtil.copy(fs, file, fs, new Path(tablePath, "copied_" + file.getName()), false, conf);
+
+    long hitCount = resultCache.getHitCount();
+    assertEquals(50, executeCount(QUERY));
+    assertEquals(hitCount, resultCache.getHitCount());
+  }
+
+  @Test
+  public final void testResultDeletedAfterRemoval() throws Exception {
+    ResultSet res = executeString(QUERY);
+    QueryId queryId = ((TajoResultSetBase) res).getQueryId();
+    cleanupQuery(res);
+    waitForCachedEntries(1);
+
+    Path resultPath = new Path(testingCluster.getMaster().getContext().getQueryJobManager()
+        .getFinishedQuery(queryId).getResultDesc().getUri());
+    FileSystem fs = resultPath.getFileSystem(conf);
+
+    // the reader of a hit keeps the result after its entry is removed
+    ResultSet hit = executeString(QUERY);
+    resultCache.clear();
+    resultCache.deleteRemovedResults(Long.MAX_VALUE);
+    assertTrue(fs.exists(resultPath));
+    try {
+      assertTrue(hit.next());
+      assertEquals(25, hit.getLong(1));
+    } finally {
+      cleanupQuery(hit);
+    }
+
+    resultCache.deleteRemovedResults(Long.MAX_VALUE);
+    assertFalse(fs.exists(resultPath));
+  }
+
+  @Test
+  public final void testNonDeterministicQuery() throws Exception {
+    long hitCount = resultCache.getHitCount();
+    String sql = "select count(*), max(name) from cache_table where random(10) >= 0";
+    assertEquals(25, executeCount(sql));
+    assertEquals(25, executeCount(sql));
+    assertEquals(0, resultCache.getEntryNum());
+    assertEquals(hitCount, resultCache.getHitCount());
+  }
+}
@@ -110,6 +110,36 @@ public class TestRepartitioner {
     }
   }
 
+  @Test
+  public void testCreateGroupedHashFetchURL() throws Exception {
+    ExecutionBlockId sid = new ExecutionBlockId(TestTajoIds.createQueryId(1315890136000l, 2), 2);
+    Task.PullHost host = new Task.PullHost("tajo1", 1234);
+
+    List<FetchImpl> fetches = new ArrayList<FetchImpl>();
+    for (int i = 0; i < 5; i++) {
+      fetches.add(new FetchImpl(host, HASH_SHUFFLE, sid, i, new ArrayList<IntermediateEntry>()));
+    }
+    List<URI> uris = FetchImpl.getURIs(fetches);
+    assertEquals(1, uris.size());
+    Map<String, List<String>> params = new QueryStringDecoder(uris.get(0)).parameters();
+    assertEquals("0,1,2,3,4", params.get("p").get(0));
+    assertEquals("h", params.get("type").get(0));
+
+    // too many partitions for a request are split into several requests
+    fetches.clear();
+    for (int i = 0; i < 2000; i++) {
+      fetches.add(new FetchImpl(host, HASH_SHUFFLE, sid, i, new ArrayList<IntermediateEntry>()));
+    }
+    uris = FetchImpl.getURIs(fetches);
+    assertTrue(uris.size() > 1);
+    Set<String> partitionIds = Sets.newHashSet();
+    for (URI uri : uris) {
+      assertTrue(uri.toString().length() <= 1900);
+      partitionIds.addAll(Arrays.asList(new QueryStringDecoder(uri).parameters().get("p").get(0).split(",")));
+    }
+    assertEquals(2000, partitionIds.size());
+  }
+
   @Test
   public void testScheduleFetchesByEvenDistributedVolumes() {
     Map<Integer, FetchGroupMeta> fetchGroups = Maps.newHashMap();
@@ -477,6 +507,34 @@ public class TestRepartitioner {
     assertEquals(expectedTotalLength, totalLength);
   }
 
+  @Test
+  public void testCreateHashFetchesWithFailureRanges() {
+    ExecutionBlockId ebId = new ExecutionBlockId(LocalTajoTestingUtility.newQueryId(), 0);
+    Task.PullHost pullHost = new Task.PullHost("localhost", 0);
+
+    IntermediateEntry first = new IntermediateEntry(-1, -1, 1, pullHost);
+    first.setPages(TUtil.newList(new Pair<Long, Integer>(0L, 100), new Pair<Long, Integer>(100L, 100)));
+    IntermediateEntry second = new IntermediateEntry(-1, -1, 1, pullHost);
+    second.setPages(TUtil.newList(new Pair<Long, Integer>(200L, 100)));
+
+    // the whole partition is fetched if there is no failure
+    List<FetchImpl> fetches = Repartitioner.createHashFetches(pullHost, HASH_SHUFFLE, ebId, 1,
+        TUtil.newList(first, second));
+    assertEquals(1, fetches.size());
+    assertEquals(-1, fetches.get(0).getLength());
+
+    // the rows written by the failed task attempts are skipped, and the adjacent ranges are merged
+    first.addFailureRanges(TUtil.newList(new Pair<Long, Integer>(50L, 30), new Pair<Long, Integer>(100L, 20)));
+    fetches = Repartitioner.createHashFetches(pullHost, HASH_SHUFFLE, ebId, 1, TUtil.newList(first, second));
+    assertEquals(3, fetches.size());
+    assertEquals(0, fetches.get(0).getOffset());
+    assertEquals(50, fetches.get(0).getLength());
+    assertEquals(80, fetches.get(1).getOffset());
+    assertEquals(20, fetches.get(1).getLength());
+    assertEquals(120, fetches.get(2).getOffset());
+    assertEquals(180, fetches.get(2).getLength());
+  }
+
   @Test
   public void testFetchImpl() {
     ExecutionBlockId ebId = new ExecutionBlockId(LocalTajoTestingUtility.newQueryId(), 0);
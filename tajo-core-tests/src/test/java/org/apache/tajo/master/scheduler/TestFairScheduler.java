@@ -0,0 +1,376 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.master.scheduler;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.service.CompositeService;
+import org.apache.hadoop.yarn.event.AsyncDispatcher;
+import org.apache.tajo.QueryId;
+import org.apache.tajo.QueryIdFactory;
+import org.apache.tajo.annotation.NotThreadSafe;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.master.cluster.WorkerConnectionInfo;
+import org.apache.tajo.master.rm.*;
+import org.apache.tajo.master.scheduler.event.SchedulerEvent;
+import org.apache.tajo.master.scheduler.event.SchedulerEventType;
+import org.apache.tajo.resource.NodeResource;
+import org.apache.tajo.resource.NodeResources;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.tajo.ResourceProtos.*;
+import static org.junit.Assert.*;
+
+/**
+ * The scheduler is initialized but not started, so that the queries are taken by the tests instead of the query
+ * processor.
+ */
+@NotThreadSafe
+public class TestFairScheduler {
+  private CompositeService service;
+  private FairScheduler scheduler;
+  private TajoRMContext rmContext;
+  private TajoConf conf;
+  private int workerNum = 3;
+  private NodeResource nodeResource;
+  private long startTime;
+
+  @Before
+  public void setup() {
+    conf = new TajoConf();
+    conf.setVar(TajoConf.ConfVars.SCHEDULER_FAIR_QUEUES, "etl,adhoc.bi,adhoc.dev");
+    nodeResource = NodeResource.createResource(1500, 2, 3);
+    startTime = System.currentTimeMillis();
+  }
+
+  private void initScheduler() {
+    service = new CompositeService(TestFairScheduler.class.getSimpleName()) {
+
+      @Override
+      protected void serviceInit(Configuration conf) throws Exception {
+        AsyncDispatcher dispatcher = new AsyncDispatcher();
+        addService(dispatcher);
+
+        rmContext = new TajoRMContext(dispatcher);
+        rmContext.getDispatcher().register(NodeEventType.class,
+            new TajoResourceManager.WorkerEventDispatcher(rmContext));
+
+        for (int i = 0; i < workerNum; i++) {
+          WorkerConnectionInfo conn = new WorkerConnectionInfo("host" + i, 28091 + i, 28092, 21000, 28093, 28080);
+          NodeStatus node = new NodeStatus(rmContext, NodeResources.clone(nodeResource), conn);
+          rmContext.getNodes().putIfAbsent(conn.getId(), node);
+          node.handle(new NodeEvent(conn.getId(), NodeEventType.STARTED));
+        }
+
+        scheduler = new FairScheduler(null, rmContext);
+        addService(scheduler);
+        super.serviceInit(conf);
+      }
+    };
+    service.init(conf);
+  }
+
+  @After
+  public void tearDown() {
+    service.stop();
+  }
+
+  private QuerySchedulingInfo submitQuery(String queue, String user) {
+    QuerySchedulingInfo schedulingInfo = new QuerySchedulingInfo(queue, user,
+        QueryIdFactory.newQueryId(System.nanoTime(), 0), 1, startTime++);
+    scheduler.submitQuery(schedulingInfo);
+    return schedulingInfo;
+  }
+
+  private List<String> takeQueries(int num) throws InterruptedException {
+    List<String> queues = Lists.newArrayList();
+    for (int i = 0; i < num; i++) {
+      QuerySchedulingInfo query = scheduler.takeQuery();
+      queues.add(query == null ? null : query.getQueue());
+    }
+    return queues;
+  }
+
+  @Test
+  public void testQueueHierarchy() {
+    initScheduler();
+
+    List<String> queueNames = Lists.newArrayList();
+    for (FairQueue queue : scheduler.getQueues()) {
+      queueNames.add(queue.getQueueName());
+    }
+    assertEquals(Lists.newArrayList("default", "etl", "adhoc", "adhoc.bi", "adhoc.dev"), queueNames);
+    assertEquals(scheduler.getQueue("adhoc"), scheduler.getQueue("adhoc.bi").getParent());
+    assertEquals(2, scheduler.getQueue("adhoc").getChildQueues().size());
+    assertTrue(scheduler.getQueue("adhoc.dev").isLeaf());
+
+    // a query of an unknown queue or a parent queue goes to the default queue
+    submitQuery("unknown", "user");
+    submitQuery("adhoc", "user");
+    assertEquals(2, scheduler.getQueue("default").getPendingQueryNum());
+  }
+
+  @Test(timeout = 10000)
+  public void testTakeQueriesByWeight() throws InterruptedException {
+    conf.setFloat(FairScheduler.QUEUE_PROPERTY_PREFIX + "adhoc" + FairScheduler.WEIGHT, 2.0f);
+    initScheduler();
+
+    for (int i = 0; i < 6; i++) {
+      submitQuery("etl", "user");
+    }
+    for (int i = 0; i < 6; i++) {
+      submitQuery("adhoc.bi", "user");
+    }
+
+    // adhoc has twice as many running queries as etl, though the queries of etl were submitted earlier
+    assertEquals(Lists.newArrayList("adhoc.bi", "etl", "adhoc.bi", "adhoc.bi", "etl", "adhoc.bi"), takeQueries(6));
+    assertEquals(4, scheduler.getQueue("adhoc").getRunningQueryNum());
+    assertEquals(2, scheduler.getQueue("etl").getRunningQueryNum());
+    assertEquals(4, scheduler.getQueue("etl").getPendingQueryNum());
+
+    // the fair shares of the active queues are in proportion to the weights
+    long clusterMemory = scheduler.getMaximumResourceCapability().getMemory();
+    assertEquals(clusterMemory * 2 / 3, scheduler.getQueue("adhoc").getFairShareMemory(), 1);
+    assertEquals(clusterMemory / 3, scheduler.getQueue("etl").getFairShareMemory(), 1);
+    assertEquals(0, scheduler.getQueue("adhoc.dev").getFairShareMemory());
+  }
+
+  @Test(timeout = 10000)
+  public void testTakeQueriesByMinShare() throws InterruptedException {
+    conf.setFloat(FairScheduler.QUEUE_PROPERTY_PREFIX + "etl" + FairScheduler.MIN_SHARE, 0.5f);
+    conf.setFloat(FairScheduler.QUEUE_PROPERTY_PREFIX + "adhoc" + FairScheduler.WEIGHT, 10.0f);
+    initScheduler();
+
+    for (int i = 0; i < 6; i++) {
+      submitQuery("adhoc.bi", "user");
+      submitQuery("etl", "user");
+    }
+
+    // etl comes first until it uses its min share, though adhoc has the larger weight
+    int qmMemory = scheduler.getQMMinimumResourceCapability().getMemory();
+    long minShareMemory = scheduler.getQueue("etl").getMinShareMemory();
+    int etlQueries = (int) Math.ceil((double) minShareMemory / qmMemory);
+    List<String> queues = takeQueries(etlQueries);
+    for (String queue : queues) {
+      assertEquals("etl", queue);
+    }
+    assertEquals("adhoc.bi", scheduler.takeQuery().getQueue());
+    assertEquals(minShareMemory, scheduler.getQueue("etl").getFairShareMemory());
+  }
+
+  @Test(timeout = 10000)
+  public void testMaxRunningQueries() throws InterruptedException {
+    conf.setInt(FairScheduler.QUEUE_PROPERTY_PREFIX + "adhoc" + FairScheduler.MAX_RUNNING_QUERIES, 1);
+    initScheduler();
+
+    submitQuery("adhoc.bi", "user");
+    submitQuery("adhoc.dev", "user");
+    submitQuery("adhoc.dev", "user");
+
+    List<String> queues = takeQueries(2);
+    assertNotNull(queues.get(0));
+    assertNull(queues.get(1));
+    assertEquals(1, scheduler.getQueue("adhoc").getRunningQueryNum());
+    assertEquals(2, scheduler.getQueue("adhoc").getPendingQueryNum());
+  }
+
+  @Test(timeout = 10000)
+  public void testUserMaxRunningQueries() throws InterruptedException {
+    conf.setIntVar(TajoConf.ConfVars.SCHEDULER_FAIR_USER_MAX_RUNNING_QUERIES, 1);
+    initScheduler();
+
+    QuerySchedulingInfo query1 = submitQuery("etl", "user1");
+    QuerySchedulingInfo query2 = submitQuery("etl", "user1");
+    QuerySchedulingInfo query3 = submitQuery("etl", "user2");
+
+    assertEquals(query1, scheduler.takeQuery());
+    // the second query of user1 waits for the first one
+    assertEquals(query3, scheduler.takeQuery());
+    assertNull(scheduler.takeQuery());
+
+    scheduler.stopQuery(query1.getQueryId());
+    assertEquals(query2, scheduler.takeQuery());
+  }
+
+  @Test(timeout = 10000)
+  public void testRequeueQuery() throws InterruptedException {
+    initScheduler();
+    startTime = System.currentTimeMillis() - 1000;
+
+    QuerySchedulingInfo query = submitQuery("etl", "user");
+    assertEquals(query, scheduler.takeQuery());
+    assertEquals(1, scheduler.getQueue("etl").getRunningQueryNum());
+
+    scheduler.requeueQuery(query);
+    assertEquals(0, scheduler.getQueue("etl").getRunningQueryNum());
+    assertEquals(1, scheduler.getQueue("etl").getPendingQueryNum());
+
+    assertEquals(query, scheduler.takeQuery());
+    scheduler.assignQueryMaster(query, rmContext.getNodes().keySet().iterator().next());
+    assertTrue(scheduler.getQueue("etl").getAverageWaitTime() >= 1000);
+    assertEquals(0, scheduler.getQueue("etl").getMaxPendingTime());
+  }
+
+  @Test(timeout = 10000)
+  public void testPreemption() throws InterruptedException {
+    conf.setIntVar(TajoConf.ConfVars.WORKER_HEARTBEAT_ACTIVE_INTERVAL, 0);
+    initScheduler();
+
+    QueryId etlQuery = submitQuery("etl", "user").getQueryId();
+    QueryId biQuery = submitQuery("adhoc.bi", "user").getQueryId();
+    takeQueries(2);
+    fillClusterByEtl(etlQuery, biQuery);
+
+    // etl is over its fair share while adhoc.bi waits for resources
+    assertEquals(0, scheduler.reserve(etlQuery, createResourceRequest(etlQuery, 1)).size());
+    assertEquals(3, scheduler.reserve(biQuery, createResourceRequest(biQuery, 3)).size());
+  }
+
+  @Test(timeout = 10000)
+  public void testPreemptionDisabled() throws InterruptedException {
+    conf.setIntVar(TajoConf.ConfVars.WORKER_HEARTBEAT_ACTIVE_INTERVAL, 0);
+    conf.setBoolVar(TajoConf.ConfVars.SCHEDULER_FAIR_PREEMPTION_ENABLED, false);
+    initScheduler();
+
+    QueryId etlQuery = submitQuery("etl", "user").getQueryId();
+    QueryId biQuery = submitQuery("adhoc.bi", "user").getQueryId();
+    takeQueries(2);
+    fillClusterByEtl(etlQuery, biQuery);
+
+    assertEquals(1, scheduler.reserve(etlQuery, createResourceRequest(etlQuery, 1)).size());
+  }
+
+  @Test(timeout = 10000)
+  public void testPreemptTasks() throws InterruptedException {
+    conf.setIntVar(TajoConf.ConfVars.WORKER_HEARTBEAT_ACTIVE_INTERVAL, 0);
+    conf.setIntVar(TajoConf.ConfVars.SCHEDULER_FAIR_PREEMPTION_TIMEOUT, 500);
+    initScheduler();
+
+    QueryId etlQuery = submitQuery("etl", "user").getQueryId();
+    QueryId biQuery = submitQuery("adhoc.bi", "user").getQueryId();
+    takeQueries(2);
+
+    // etl takes all 9 containers, and its tasks keep running
+    assertEquals(9, scheduler.reserve(etlQuery, createResourceRequest(etlQuery, 9)).size());
+    Map<Integer, List<QueryId>> runningTasks = Maps.newTreeMap();
+    for (Integer workerId : rmContext.getNodes().keySet()) {
+      runningTasks.put(workerId, Lists.newArrayList(etlQuery, etlQuery, etlQuery));
+    }
+    sendHeartbeats(runningTasks);
+
+    // adhoc.bi below its fair share cannot get the requested resources, but tasks are not preempted until the timeout
+    assertEquals(0, scheduler.reserve(biQuery, createResourceRequest(biQuery, 3)).size());
+    sendHeartbeats(runningTasks);
+    for (Integer workerId : runningTasks.keySet()) {
+      assertTrue(scheduler.takePreemptions(workerId).isEmpty());
+    }
+
+    Thread.sleep(600);
+    sendHeartbeats(runningTasks);
+
+    // the workers kill the preempted tasks of etl
+    int taskMemory = scheduler.getMinimumResourceCapability().getMemory();
+    int preempted = 0;
+    for (Map.Entry<Integer, List<QueryId>> entry : runningTasks.entrySet()) {
+      Map<QueryId, Integer> preemptions = scheduler.takePreemptions(entry.getKey());
+      assertTrue(preemptions.keySet().isEmpty() || preemptions.keySet().equals(Sets.newHashSet(etlQuery)));
+      if (preemptions.containsKey(etlQuery)) {
+        for (int i = 0; i < preemptions.get(etlQuery) / taskMemory; i++) {
+          entry.getValue().remove(etlQuery);
+        }
+        preempted += preemptions.get(etlQuery);
+      }
+    }
+    assertEquals(3 * taskMemory, preempted);
+
+    // the preemptions are taken only once
+    sendHeartbeats(runningTasks);
+    for (Integer workerId : runningTasks.keySet()) {
+      assertTrue(scheduler.takePreemptions(workerId).isEmpty());
+    }
+
+    // adhoc.bi gets the resources of the preempted tasks
+    assertEquals(3, scheduler.reserve(biQuery, createResourceRequest(biQuery, 3)).size());
+    assertEquals(0, scheduler.reserve(etlQuery, createResourceRequest(etlQuery, 1)).size());
+  }
+
+  private void fillClusterByEtl(QueryId etlQuery, QueryId biQuery) throws InterruptedException {
+    // etl takes all 9 containers while no other queue waits for resources
+    assertEquals(3, scheduler.reserve(etlQuery, createResourceRequest(etlQuery, 3)).size());
+    assertEquals(6, scheduler.reserve(etlQuery, createResourceRequest(etlQuery, 6)).size());
+    assertEquals(0, scheduler.getClusterResource().getMemory());
+
+    // adhoc.bi below its fair share cannot get the requested resources
+    assertEquals(0, scheduler.reserve(biQuery, createResourceRequest(biQuery, 3)).size());
+
+    // tasks of etl finish, and the heartbeats report the remaining tasks
+    Map<Integer, List<QueryId>> runningTasks = Maps.newTreeMap();
+    for (Integer workerId : rmContext.getNodes().keySet()) {
+      runningTasks.put(workerId, new ArrayList<QueryId>());
+    }
+    List<List<QueryId>> tasks = Lists.newArrayList(runningTasks.values());
+    tasks.get(0).addAll(Lists.newArrayList(etlQuery, etlQuery, etlQuery));
+    tasks.get(1).add(etlQuery);
+    Thread.sleep(10);
+    sendHeartbeats(runningTasks);
+
+    long qmMemory = scheduler.getQMMinimumResourceCapability().getMemory();
+    long taskMemory = scheduler.getMinimumResourceCapability().getMemory();
+    assertEquals(qmMemory + 4 * taskMemory, scheduler.getQueue("etl").getUsedMemory());
+    assertTrue(scheduler.getQueue("etl").getUsedMemory() > scheduler.getQueue("etl").getFairShareMemory());
+  }
+
+  private void sendHeartbeats(Map<Integer, List<QueryId>> runningTasks) {
+    NodeResource taskResource = scheduler.getMinimumResourceCapability();
+    for (Map.Entry<Integer, List<QueryId>> entry : runningTasks.entrySet()) {
+      Map<QueryId, NodeResource> queryResources = Maps.newHashMap();
+      NodeResource available = NodeResources.clone(nodeResource);
+      for (QueryId queryId : entry.getValue()) {
+        if (!queryResources.containsKey(queryId)) {
+          queryResources.put(queryId, NodeResources.createResource(0));
+        }
+        NodeResources.addTo(queryResources.get(queryId), taskResource);
+        NodeResources.subtractFrom(available, taskResource);
+      }
+      rmContext.getNodes().get(entry.getKey()).handle(new NodeStatusEvent(entry.getKey(), entry.getValue().size(), 0, available, null, queryResources));
+    }
+    scheduler.handle(new SchedulerEvent(SchedulerEventType.RESOURCE_UPDATE));
+  }
+
+  private NodeResourceRequest createResourceRequest(QueryId queryId, int containerNum) {
+    NodeResourceRequest.Builder request = NodeResourceRequest.newBuilder();
+    request.setCapacity(scheduler.getMinimumResourceCapability().getProto())
+        .setNumContainers(containerNum)
+        .setPriority(1)
+        .setQueryId(queryId.getProto())
+        .setType(ResourceType.LEAF)
+        .setUserId("test user")
+        .setRunningTasks(0)
+        .setQueue("default");
+    return request.build();
+  }
+}
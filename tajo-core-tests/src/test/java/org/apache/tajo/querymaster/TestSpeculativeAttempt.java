@@ -0,0 +1,168 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.querymaster;
+
+import com.google.common.collect.Lists;
+import org.apache.hadoop.yarn.event.Event;
+import org.apache.hadoop.yarn.event.EventHandler;
+import org.apache.tajo.*;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.master.TaskState;
+import org.apache.tajo.master.event.*;
+import org.apache.tajo.master.event.TaskAttemptToSchedulerEvent.TaskAttemptScheduleContext;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestSpeculativeAttempt {
+  private RecordingEventHandler eventHandler;
+  private Task task;
+
+  @Before
+  public void setUp() {
+    eventHandler = new RecordingEventHandler();
+    QueryId queryId = LocalTajoTestingUtility.newQueryId();
+    TaskId taskId = QueryIdFactory.newTaskId(QueryIdFactory.newExecutionBlockId(queryId, 1));
+    task = new Task(new TajoConf(), new TaskAttemptScheduleContext(), taskId, true, eventHandler);
+
+    task.handle(new TaskEvent(task.getId(), TaskEventType.T_SCHEDULE));
+    task.handle(new TaskTAttemptEvent(attemptId(0), TaskEventType.T_ATTEMPT_LAUNCHED));
+    assertEquals(TaskState.RUNNING, task.getState());
+    eventHandler.events.clear();
+  }
+
+  private TaskAttemptId attemptId(int id) {
+    return QueryIdFactory.newTaskAttemptId(task.getId(), id);
+  }
+
+  @Test
+  public void testAddSpeculativeAttempt() {
+    task.handle(new TaskEvent(task.getId(), TaskEventType.T_ADD_SPECULATIVE_ATTEMPT));
+
+    assertEquals(TaskState.RUNNING, task.getState());
+    assertEquals(2, task.getAttempts().size());
+    assertFalse(task.getAttempt(0).isSpeculative());
+    assertTrue(task.getAttempt(1).isSpeculative());
+    assertEquals(1, eventHandler.getAttemptEvents(attemptId(1), TaskAttemptEventType.TA_SCHEDULE).size());
+
+    // a task is speculated only once
+    task.handle(new TaskEvent(task.getId(), TaskEventType.T_ADD_SPECULATIVE_ATTEMPT));
+    assertEquals(2, task.getAttempts().size());
+  }
+
+  @Test
+  public void testSpeculativeAttemptWins() {
+    task.handle(new TaskEvent(task.getId(), TaskEventType.T_ADD_SPECULATIVE_ATTEMPT));
+    task.handle(new TaskTAttemptEvent(attemptId(1), TaskEventType.T_ATTEMPT_SUCCEEDED));
+
+    assertEquals(TaskState.SUCCEEDED, task.getState());
+    assertEquals(attemptId(1), task.getSuccessfulAttempt().getId());
+    assertEquals(attemptId(1), task.getLastAttempt().getId());
+    // the loser is killed
+    assertEquals(1, eventHandler.getAttemptEvents(attemptId(0), TaskAttemptEventType.TA_KILL).size());
+    assertEquals(0, eventHandler.getAttemptEvents(attemptId(1), TaskAttemptEventType.TA_KILL).size());
+
+    // the late completion of the loser is ignored
+    task.handle(new TaskTAttemptEvent(attemptId(0), TaskEventType.T_ATTEMPT_SUCCEEDED));
+    task.handle(new TaskTAttemptEvent(attemptId(0), TaskEventType.T_ATTEMPT_KILLED));
+    assertEquals(TaskState.SUCCEEDED, task.getState());
+    assertEquals(attemptId(1), task.getSuccessfulAttempt().getId());
+  }
+
+  @Test
+  public void testOriginalAttemptWins() {
+    task.handle(new TaskEvent(task.getId(), TaskEventType.T_ADD_SPECULATIVE_ATTEMPT));
+    task.handle(new TaskTAttemptEvent(attemptId(0), TaskEventType.T_ATTEMPT_SUCCEEDED));
+
+    assertEquals(TaskState.SUCCEEDED, task.getState());
+    assertEquals(attemptId(0), task.getSuccessfulAttempt().getId());
+    assertEquals(attemptId(0), task.getLastAttempt().getId());
+    assertEquals(1, eventHandler.getAttemptEvents(attemptId(1), TaskAttemptEventType.TA_KILL).size());
+  }
+
+  @Test
+  public void testFailureOfOneAttempt() {
+    task.handle(new TaskEvent(task.getId(), TaskEventType.T_ADD_SPECULATIVE_ATTEMPT));
+    eventHandler.events.clear();
+
+    // the other attempt keeps running without a retry
+    task.handle(new TaskTAttemptEvent(attemptId(0), TaskEventType.T_ATTEMPT_FAILED));
+    assertEquals(TaskState.RUNNING, task.getState());
+    assertEquals(2, task.getAttempts().size());
+    assertTrue(eventHandler.events.isEmpty());
+
+    task.handle(new TaskTAttemptEvent(attemptId(1), TaskEventType.T_ATTEMPT_SUCCEEDED));
+    assertEquals(TaskState.SUCCEEDED, task.getState());
+    assertEquals(attemptId(1), task.getSuccessfulAttempt().getId());
+  }
+
+  @Test
+  public void testFailureOfBothAttempts() {
+    task.handle(new TaskEvent(task.getId(), TaskEventType.T_ADD_SPECULATIVE_ATTEMPT));
+    task.handle(new TaskTAttemptEvent(attemptId(0), TaskEventType.T_ATTEMPT_FAILED));
+    task.handle(new TaskTAttemptEvent(attemptId(1), TaskEventType.T_ATTEMPT_FAILED));
+
+    // retried as usual
+    assertEquals(TaskState.RUNNING, task.getState());
+    assertEquals(3, task.getAttempts().size());
+    assertFalse(task.getAttempt(2).isSpeculative());
+    assertEquals(1, eventHandler.getAttemptEvents(attemptId(2), TaskAttemptEventType.TA_RESCHEDULE).size());
+  }
+
+  @Test
+  public void testKillTaskWithSpeculativeAttempt() {
+    task.handle(new TaskEvent(task.getId(), TaskEventType.T_ADD_SPECULATIVE_ATTEMPT));
+    task.handle(new TaskEvent(task.getId(), TaskEventType.T_KILL));
+
+    assertEquals(TaskState.KILL_WAIT, task.getState());
+    assertEquals(1, eventHandler.getAttemptEvents(attemptId(0), TaskAttemptEventType.TA_KILL).size());
+    assertEquals(1, eventHandler.getAttemptEvents(attemptId(1), TaskAttemptEventType.TA_KILL).size());
+
+    task.handle(new TaskTAttemptEvent(attemptId(0), TaskEventType.T_ATTEMPT_KILLED));
+    assertEquals(TaskState.KILLED, task.getState());
+    eventHandler.events.clear();
+
+    task.handle(new TaskTAttemptEvent(attemptId(1), TaskEventType.T_ATTEMPT_KILLED));
+    assertEquals(TaskState.KILLED, task.getState());
+    assertTrue(eventHandler.events.isEmpty());
+  }
+
+  private static class RecordingEventHandler implements EventHandler<Event> {
+    private final List<Event> events = Lists.newArrayList();
+
+    @Override
+    public void handle(Event event) {
+      events.add(event);
+    }
+
+    private List<TaskAttemptEvent> getAttemptEvents(TaskAttemptId attemptId, TaskAttemptEventType type) {
+      List<TaskAttemptEvent> found = Lists.newArrayList();
+      for (Event event : events) {
+        if (event instanceof TaskAttemptEvent && event.getType() == type
+            && ((TaskAttemptEvent) event).getTaskAttemptId().equals(attemptId)) {
+          found.add((TaskAttemptEvent) event);
+        }
+      }
+      return found;
+    }
+  }
+}
@@ -0,0 +1,128 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.querymaster;
+
+import com.google.common.collect.Lists;
+import org.apache.tajo.*;
+import org.apache.tajo.querymaster.DefaultTaskScheduler.TaskProgress;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestStragglerSelection {
+  private static final long MIN_RUNTIME = 1000;
+  private static final float SLOWNESS_RATIO = 0.5f;
+
+  private ExecutionBlockId ebId;
+  private int taskNum;
+
+  @Before
+  public void setUp() {
+    ebId = QueryIdFactory.newExecutionBlockId(LocalTajoTestingUtility.newQueryId(), 1);
+    taskNum = 0;
+  }
+
+  private TaskProgress succeeded(long runningTime) {
+    return new TaskProgress(QueryIdFactory.newTaskId(ebId, taskNum++), true, runningTime, 1.0f, false);
+  }
+
+  private TaskProgress running(long runningTime, float progress) {
+    return new TaskProgress(QueryIdFactory.newTaskId(ebId, taskNum++), false, runningTime, progress, true);
+  }
+
+  private static List<TaskId> select(List<TaskProgress> progresses, int maxNum) {
+    List<TaskId> taskIds = Lists.newArrayList();
+    for (TaskProgress straggler : DefaultTaskScheduler.selectStragglers(progresses, MIN_RUNTIME, SLOWNESS_RATIO,
+        maxNum)) {
+      taskIds.add(straggler.getTaskId());
+    }
+    return taskIds;
+  }
+
+  @Test
+  public void testBelowHalfOfMedianRate() {
+    // the median rate is 1/2000 per msec
+    TaskProgress slow = running(10000, 0.5f);     // 1/20000
+    TaskProgress notSlow = running(10000, 3.0f);  // 3/10000, above a half of the median rate
+    List<TaskProgress> progresses = Lists.newArrayList(
+        succeeded(2000), succeeded(2000), succeeded(2000), slow, notSlow);
+
+    assertEquals(Lists.newArrayList(slow.getTaskId()), select(progresses, 10));
+  }
+
+  @Test
+  public void testMedianOfRunningTasks() {
+    // without succeeded tasks, the median comes from the running tasks only
+    TaskProgress slowest = running(10000, 0.05f);
+    TaskProgress slow = running(10000, 0.1f);
+    List<TaskProgress> progresses = Lists.newArrayList(
+        slow, running(10000, 0.9f), running(10000, 0.9f), slowest, running(10000, 1.0f));
+
+    assertEquals(Lists.newArrayList(slowest.getTaskId(), slow.getTaskId()), select(progresses, 10));
+  }
+
+  @Test
+  public void testMinRuntime() {
+    // a task which has just been launched is not speculated even if it has no progress yet
+    TaskProgress young = running(MIN_RUNTIME - 1, 0.0f);
+    TaskProgress old = running(MIN_RUNTIME, 0.0f);
+    List<TaskProgress> progresses = Lists.newArrayList(succeeded(100), succeeded(100), young, old);
+
+    assertEquals(Lists.newArrayList(old.getTaskId()), select(progresses, 10));
+  }
+
+  @Test
+  public void testNotSpeculatable() {
+    TaskProgress retried = new TaskProgress(QueryIdFactory.newTaskId(ebId, taskNum++), false, 10000, 0.0f, false);
+    List<TaskProgress> progresses = Lists.newArrayList(succeeded(100), succeeded(100), retried);
+
+    assertTrue(select(progresses, 10).isEmpty());
+  }
+
+  @Test
+  public void testMaxNum() {
+    TaskProgress slowest = running(10000, 0.01f);
+    TaskProgress slower = running(10000, 0.02f);
+    TaskProgress slow = running(10000, 0.03f);
+    List<TaskProgress> progresses = Lists.newArrayList(
+        succeeded(100), succeeded(100), succeeded(100), succeeded(100), slow, slowest, slower);
+
+    // the slowest ones are speculated first within the cap
+    assertEquals(Lists.newArrayList(slowest.getTaskId(), slower.getTaskId()), select(progresses, 2));
+    assertEquals(3, select(progresses, 3).size());
+    assertTrue(select(progresses, 0).isEmpty());
+  }
+
+  @Test
+  public void testMaxFraction() {
+    assertEquals(10, DefaultTaskScheduler.getMaxSpeculativeAttemptNum(100, 0.1f));
+    assertEquals(2, DefaultTaskScheduler.getMaxSpeculativeAttemptNum(29, 0.1f));
+    // a small stage can have one backup attempt
+    assertEquals(1, DefaultTaskScheduler.getMaxSpeculativeAttemptNum(5, 0.1f));
+  }
+
+  @Test
+  public void testSingleTask() {
+    // a median rate needs at least two tasks
+    assertTrue(select(Lists.newArrayList(running(10000, 0.0f)), 10).isEmpty());
+  }
+}
@@ -0,0 +1,142 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage;
+
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.storage.ColumnarRowStoreUtil.ColumnarDecoder;
+import org.apache.tajo.storage.ColumnarRowStoreUtil.ColumnarEncoder;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestColumnarRowStoreUtil {
+
+  private static Schema createSchema() {
+    Schema schema = new Schema();
+    schema.addColumn("col1", Type.BOOLEAN);
+    schema.addColumn("col2", Type.INT2);
+    schema.addColumn("col3", Type.INT4);
+    schema.addColumn("col4", Type.INT8);
+    schema.addColumn("col5", Type.FLOAT4);
+    schema.addColumn("col6", Type.FLOAT8);
+    schema.addColumn("col7", Type.TEXT);
+    schema.addColumn("col8", Type.BLOB);
+    schema.addColumn("col9", Type.INET4);
+    schema.addColumn("col10", Type.DATE);
+    schema.addColumn("col11", Type.TIME);
+    schema.addColumn("col12", Type.TIMESTAMP);
+    schema.addColumn("col13", Type.INTERVAL);
+    schema.addColumn("col14", Type.NULL_TYPE);
+    return schema;
+  }
+
+  private static List<Tuple> createTuples(Schema schema, int num) {
+    List<Tuple> tuples = new ArrayList<Tuple>();
+    for (int i = 0; i < num; i++) {
+      VTuple tuple = new VTuple(schema.size());
+      tuple.put(new Datum[] {
+          DatumFactory.createBool(i % 2 == 0),
+          DatumFactory.createInt2((short) i),
+          DatumFactory.createInt4(i * 10),
+          DatumFactory.createInt8(i * 100L),
+          DatumFactory.createFloat4(i * 0.5f),
+          DatumFactory.createFloat8(i * 0.25),
+          DatumFactory.createText("text" + i),
+          DatumFactory.createBlob(("blob" + i).getBytes()),
+          DatumFactory.createInet4("192.168.0." + (i % 256)),
+          DatumFactory.createDate(i + 1),
+          DatumFactory.createTime(i * 1000L),
+          DatumFactory.createTimestamp("2015-01-01 00:00:0" + (i % 10)),
+          DatumFactory.createInterval((i % 12) + " month " + i + " day"),
+          NullDatum.get()
+      });
+      // every column has null values at different rows
+      tuple.put(i % schema.size(), NullDatum.get());
+      tuples.add(tuple);
+    }
+    return tuples;
+  }
+
+  private static void assertRoundTrip(int num, boolean compress) {
+    Schema schema = createSchema();
+    List<Tuple> tuples = createTuples(schema, num);
+
+    ColumnarEncoder encoder = ColumnarRowStoreUtil.createEncoder(schema);
+    for (Tuple tuple : tuples) {
+      encoder.add(tuple);
+    }
+    assertEquals(num, encoder.getRowNum());
+
+    ColumnarDecoder decoder = ColumnarRowStoreUtil.createDecoder(schema, encoder.build(compress), compress);
+    assertEquals(num, decoder.getRowNum());
+    for (int pass = 0; pass < 2; pass++) {
+      for (Tuple expected : tuples) {
+        Tuple actual = decoder.next();
+        assertNotNull(actual);
+        for (int i = 0; i < schema.size(); i++) {
+          assertEquals(expected.asDatum(i), actual.asDatum(i));
+        }
+      }
+      assertNull(decoder.next());
+      decoder.reset();
+    }
+  }
+
+  @Test
+  public void testEncodeAndDecode() {
+    assertRoundTrip(100, false);
+  }
+
+  @Test
+  public void testEncodeAndDecodeWithCompression() {
+    assertRoundTrip(100, true);
+  }
+
+  @Test
+  public void testEmptyBatch() {
+    assertRoundTrip(0, false);
+    assertRoundTrip(0, true);
+  }
+
+  @Test
+  public void testCompressionRatio() {
+    Schema schema = new Schema();
+    schema.addColumn("id", Type.INT4);
+    schema.addColumn("name", Type.TEXT);
+
+    ColumnarEncoder encoder = ColumnarRowStoreUtil.createEncoder(schema);
+    RowStoreUtil.RowStoreEncoder rowEncoder = RowStoreUtil.createEncoder(schema);
+    int rowBytes = 0;
+    for (int i = 0; i < 1000; i++) {
+      VTuple tuple = new VTuple(new Datum[] {
+          DatumFactory.createInt4(i), DatumFactory.createText("name" + (i % 10))});
+      encoder.add(tuple);
+      rowBytes += rowEncoder.toBytes(tuple).length;
+    }
+    assertTrue(encoder.build(false).length <= rowBytes);
+    assertTrue(encoder.build(true).length < rowBytes / 4);
+  }
+}
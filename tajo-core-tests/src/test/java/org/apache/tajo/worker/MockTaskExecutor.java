@@ -92,6 +92,11 @@ public class MockTaskExecutor extends TaskExecutor {
 
       }
 
+      @Override
+      public void preempt() {
+
+      }
+
       @Override
       public void cleanup() {
 
@@ -21,6 +21,7 @@ package org.apache.tajo.worker;
 import org.apache.hadoop.fs.LocalDirAllocator;
 import org.apache.tajo.catalog.CatalogService;
 import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.engine.codegen.CompiledEvalCache;
 import org.apache.tajo.ipc.QueryCoordinatorProtocol;
 import org.apache.tajo.master.cluster.WorkerConnectionInfo;
 import org.apache.tajo.querymaster.QueryMaster;
@@ -51,6 +52,11 @@ public abstract class MockWorkerContext implements TajoWorker.WorkerContext {
     return null;
   }
 
+  @Override
+  public TajoWorkerClientService getTajoWorkerClientService() {
+    return null;
+  }
+
   @Override
   public CatalogService getCatalog() {
     return null;
@@ -96,6 +102,16 @@ public abstract class MockWorkerContext implements TajoWorker.WorkerContext {
     return null;
   }
 
+  @Override
+  public CompiledEvalCache getCompiledEvalCache() {
+    return null;
+  }
+
+  @Override
+  public FetchConnectionPool getFetchConnectionPool() {
+    return null;
+  }
+
   @Override
   public void cleanup(String strPath) {
 
@@ -0,0 +1,119 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.worker;
+
+import org.apache.tajo.SessionVars;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.engine.codegen.CompiledPipeline;
+import org.apache.tajo.engine.codegen.PipelineStage;
+import org.apache.tajo.engine.json.CoreGsonHelper;
+import org.apache.tajo.engine.query.QueryContext;
+import org.apache.tajo.plan.Target;
+import org.apache.tajo.plan.expr.*;
+import org.apache.tajo.plan.logical.EvalExprNode;
+import org.apache.tajo.plan.logical.LogicalNode;
+import org.apache.tajo.plan.util.PlannerUtil;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestExecutionBlockSharedResource {
+  private static final Schema SCHEMA = new Schema(new Column[] {
+      new Column("t.a", Type.INT4),
+      new Column("t.b", Type.TEXT)
+  });
+
+  private ExecutionBlockSharedResource resource;
+
+  @Before
+  public void setUp() {
+    QueryContext queryContext = new QueryContext(new TajoConf());
+    queryContext.setBool(SessionVars.CODEGEN, true);
+
+    EvalExprNode plan = new EvalExprNode(0);
+    plan.setTargets(new Target[] {new Target(new ConstEval(DatumFactory.createInt4(1)), "x")});
+
+    resource = new ExecutionBlockSharedResource();
+    resource.initialize(queryContext, CoreGsonHelper.toJson(plan, LogicalNode.class));
+  }
+
+  @After
+  public void tearDown() {
+    resource.release();
+  }
+
+  private static List<PipelineStage> createStages(EvalNode selectionQual) {
+    // scan: select a, b where a > 0
+    EvalNode scanQual = new BinaryEval(EvalType.GTH, new FieldEval(SCHEMA.getColumn("a")),
+        new ConstEval(DatumFactory.createInt4(0)));
+
+    List<PipelineStage> stages = new ArrayList<PipelineStage>();
+    stages.add(new PipelineStage(SCHEMA, scanQual, PlannerUtil.schemaToTargets(SCHEMA)));
+    stages.add(new PipelineStage(SCHEMA, selectionQual, PlannerUtil.schemaToTargets(SCHEMA)));
+    return stages;
+  }
+
+  private static EvalNode lessThan(int value) {
+    return new BinaryEval(EvalType.LTH, new FieldEval(SCHEMA.getColumn("a")),
+        new ConstEval(DatumFactory.createInt4(value)));
+  }
+
+  @Test
+  public void testCompilePipelineOnce() {
+    assertTrue(resource.canFusePipeline(createStages(lessThan(10))));
+
+    // every task gets its own instance of one class
+    CompiledPipeline pipeline1 = resource.compilePipeline(createStages(lessThan(10)));
+    CompiledPipeline pipeline2 = resource.compilePipeline(createStages(lessThan(10)));
+    assertNotSame(pipeline1, pipeline2);
+    assertSame(pipeline1.getClass(), pipeline2.getClass());
+
+    // different stages are compiled into a different class
+    CompiledPipeline pipeline3 = resource.compilePipeline(createStages(lessThan(5)));
+    assertNotSame(pipeline1.getClass(), pipeline3.getClass());
+
+    Tuple out = new VTuple(SCHEMA.size());
+    Tuple in = new VTuple(new Datum[] {DatumFactory.createInt4(7), DatumFactory.createText("abc")});
+    assertTrue(pipeline1.process(in, out));
+    assertEquals(in, out);
+    assertFalse(pipeline3.process(in, out));
+  }
+
+  @Test
+  public void testCannotFuse() {
+    // IN predicates cannot be fused after the first stage
+    EvalNode inPredicate = new InEval(new FieldEval(SCHEMA.getColumn("b")),
+        new RowConstantEval(new Datum[] {DatumFactory.createText("abc")}), false);
+    assertFalse(resource.canFusePipeline(createStages(inPredicate)));
+    assertFalse(resource.canFusePipeline(createStages(inPredicate)));
+    assertTrue(resource.canFusePipeline(createStages(lessThan(10)).subList(0, 1)));
+  }
+}
@@ -33,6 +33,7 @@ import org.junit.*;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.URI;
 import java.util.Random;
 
@@ -102,6 +103,104 @@ public class TestFetcher {
     assertEquals(TajoProtos.FetcherState.FETCH_FINISHED, fetcher.getState());
   }
 
+  @Test
+  public void testGetMultiplePartitions() throws IOException {
+    QueryId queryId = QueryIdFactory.NULL_QUERY_ID;
+    String sid = "1";
+    FileSystem fs = FileSystem.getLocal(conf);
+
+    // partition 3 has no file, because it has no rows
+    long totalLength = 0;
+    for (int partId : new int[] {1, 2, 4}) {
+      int partParentId = HashShuffleAppenderManager.getPartParentId(partId, conf);
+      Path inputPath = new Path(conf.getVar(ConfVars.WORKER_TEMPORAL_DIR) +
+          queryId.toString() + "/output/" + sid + "/hash-shuffle/" + partParentId + "/" + partId);
+      FSDataOutputStream stream = fs.create(inputPath, true);
+      for (int i = 0; i < 100 * partId; i++) {
+        stream.write(("" + i).getBytes());
+      }
+      stream.close();
+      totalLength += fs.getFileStatus(inputPath).getLen();
+    }
+
+    String params = String.format("qid=%s&sid=%s&p=%s&type=%s", queryId, sid, "1,2,3,4", "h");
+    URI uri = URI.create("http://127.0.0.1:" + pullServerService.getPort() + "/?" + params);
+    FileChunk storeChunk = new FileChunk(new File(OUTPUT_DIR + "data_multi"), 0, 0);
+    storeChunk.setFromRemote(true);
+    Fetcher fetcher = new Fetcher(conf, uri, storeChunk);
+    assertNotNull(fetcher.get());
+
+    // all partitions are received in one response
+    assertEquals(totalLength, fs.getFileStatus(new Path(OUTPUT_DIR, "data_multi")).getLen());
+    assertEquals(TajoProtos.FetcherState.FETCH_FINISHED, fetcher.getState());
+  }
+
+  @Test
+  public void testGetWithConnectionPool() throws IOException {
+    Random rnd = new Random();
+    QueryId queryId = QueryIdFactory.NULL_QUERY_ID;
+    String sid = "1";
+    String partId = "1";
+
+    int partParentId = HashShuffleAppenderManager.getPartParentId(Integer.parseInt(partId), conf);
+    String dataPath = conf.getVar(ConfVars.WORKER_TEMPORAL_DIR) +
+        queryId.toString() + "/output/" + sid + "/hash-shuffle/" + partParentId + "/" + partId;
+
+    String params = String.format("qid=%s&sid=%s&p=%s&type=%s", queryId, sid, partId, "h");
+
+    Path inputPath = new Path(dataPath);
+    FSDataOutputStream stream = FileSystem.getLocal(conf).create(inputPath, true);
+    for (int i = 0; i < 100; i++) {
+      String data = ""+rnd.nextInt();
+      stream.write(data.getBytes());
+    }
+    stream.flush();
+    stream.close();
+
+    FileSystem fs = FileSystem.getLocal(new TajoConf());
+    FileStatus inStatus = fs.getFileStatus(inputPath);
+
+    URI uri = URI.create("http://127.0.0.1:" + pullServerService.getPort() + "/?" + params);
+    FetchConnectionPool pool = new FetchConnectionPool(conf);
+    try {
+      // sequential fetches from the same pull server share a keep-alive connection
+      for (int i = 0; i < 3; i++) {
+        FileChunk storeChunk = new FileChunk(new File(OUTPUT_DIR + "data_" + i), 0, 0);
+        storeChunk.setFromRemote(true);
+        Fetcher fetcher = new Fetcher(conf, uri, storeChunk, pool);
+        assertNotNull(fetcher.get());
+        assertEquals(TajoProtos.FetcherState.FETCH_FINISHED, fetcher.getState());
+        assertEquals(inStatus.getLen(), fs.getFileStatus(new Path(OUTPUT_DIR, "data_" + i)).getLen());
+        assertEquals(1, pool.getOpenConnections());
+      }
+
+      FetchConnectionPool.HostMetrics metrics =
+          pool.getHostMetrics(new InetSocketAddress("127.0.0.1", pullServerService.getPort()));
+      assertEquals(inStatus.getLen() * 3, metrics.getBytes().getCount());
+      assertEquals(3, metrics.getLatency().getCount());
+      assertEquals(0, metrics.getFailures().getCount());
+
+      // a connection closed by an error response is not reused
+      String badParams = String.format("qid=%s&sid=%s&p=%s&type=%s", queryId, sid, partId, "x");
+      FileChunk storeChunk = new FileChunk(new File(OUTPUT_DIR + "data_bad"), 0, 0);
+      storeChunk.setFromRemote(true);
+      Fetcher fetcher = new Fetcher(conf,
+          URI.create("http://127.0.0.1:" + pullServerService.getPort() + "/?" + badParams), storeChunk, pool);
+      fetcher.get();
+      assertEquals(TajoProtos.FetcherState.FETCH_FAILED, fetcher.getState());
+      assertEquals(1, metrics.getFailures().getCount());
+
+      storeChunk = new FileChunk(new File(OUTPUT_DIR + "data_3"), 0, 0);
+      storeChunk.setFromRemote(true);
+      fetcher = new Fetcher(conf, uri, storeChunk, pool);
+      fetcher.get();
+      assertEquals(TajoProtos.FetcherState.FETCH_FINISHED, fetcher.getState());
+      assertEquals(inStatus.getLen(), fs.getFileStatus(new Path(OUTPUT_DIR, "data_3")).getLen());
+    } finally {
+      pool.close();
+    }
+  }
+
   @Test
   public void testAdjustFetchProcess() {
     assertEquals(0.0f, TaskImpl.adjustFetchProcess(0, 0), 0);
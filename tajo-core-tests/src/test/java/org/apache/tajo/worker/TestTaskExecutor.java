@@ -254,6 +254,11 @@ public class TestTaskExecutor {
 
         }
 
+        @Override
+        public void preempt() {
+
+        }
+
         @Override
         public void cleanup() {
         }
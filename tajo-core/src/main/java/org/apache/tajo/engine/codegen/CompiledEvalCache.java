@@ -0,0 +1,152 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.codegen;
+
+import com.codahale.metrics.Counter;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.engine.json.CoreGsonHelper;
+import org.apache.tajo.plan.expr.EvalNode;
+
+import java.lang.reflect.Constructor;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A worker-wide LRU cache of classes generated by {@link EvalCodeGenerator}.
+ *
+ * A cache entry is keyed by the canonical form of an input schema and an eval tree, so tasks and queries that
+ * evaluate the same expression against the same input reuse one generated class. Each class is defined by its own
+ * {@link TajoClassLoader}. Once an entry is evicted and no compiled eval of it is alive, the class and its class
+ * loader can be garbage collected.
+ *
+ * Each call returns a new instance, because compiled evals keep per-instance state such as function contexts.
+ */
+public class CompiledEvalCache {
+  private static final Log LOG = LogFactory.getLog(CompiledEvalCache.class);
+
+  private final int capacity;
+  private final Map<String, Constructor<?>> classes;
+
+  private final Counter hits = new Counter();
+  private final Counter misses = new Counter();
+  private final Counter evictions = new Counter();
+
+  public CompiledEvalCache(final int capacity) {
+    this.capacity = capacity;
+    this.classes = new LinkedHashMap<String, Constructor<?>>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Constructor<?>> eldest) {
+        if (size() > capacity) {
+          evictions.inc();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Returns a compiled eval for the given eval tree. If the same eval tree has been compiled against the same schema
+   * before, the cached class is instantiated instead of generating it again.
+   */
+  public EvalNode compile(Schema schema, EvalNode eval) throws CompilationError {
+    if (capacity <= 0) {
+      misses.inc();
+      return new EvalCodeGenerator(new TajoClassLoader()).compile(schema, eval);
+    }
+
+    String key = getCanonicalKey(schema, eval);
+    Constructor<?> constructor;
+    synchronized (classes) {
+      constructor = classes.get(key);
+    }
+
+    if (constructor != null) {
+      hits.inc();
+      try {
+        CompiledEval compiled = (CompiledEval) constructor.newInstance();
+        compiled.setSource(eval);
+        return compiled;
+      } catch (Throwable t) {
+        throw new CompilationError(eval, t);
+      }
+    }
+
+    misses.inc();
+    // Generation is done out of the lock. If two tasks miss the same key at once, the later class just replaces
+    // the former one in the cache.
+    EvalNode compiled = new EvalCodeGenerator(new TajoClassLoader()).compile(schema, eval);
+    try {
+      constructor = compiled.getClass().getConstructor();
+    } catch (NoSuchMethodException e) {
+      throw new CompilationError(eval, e);
+    }
+
+    synchronized (classes) {
+      classes.put(key, constructor);
+    }
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Cached " + compiled.getClass().getName() + " for " + eval);
+    }
+    return compiled;
+  }
+
+  /**
+   * A generated class depends on the eval tree and on the column indexes resolved from the input schema.
+   */
+  static String getCanonicalKey(Schema schema, EvalNode eval) {
+    StringBuilder sb = new StringBuilder();
+    for (Column column : schema.getRootColumns()) {
+      sb.append(column.getQualifiedName()).append(':').append(column.getDataType().getType()).append(',');
+    }
+    sb.append('|').append(CoreGsonHelper.toJson(eval, EvalNode.class));
+    return sb.toString();
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public int size() {
+    synchronized (classes) {
+      return classes.size();
+    }
+  }
+
+  public void clear() {
+    synchronized (classes) {
+      classes.clear();
+    }
+  }
+
+  public Counter getHitCounter() {
+    return hits;
+  }
+
+  public Counter getMissCounter() {
+    return misses;
+  }
+
+  public Counter getEvictionCounter() {
+    return evictions;
+  }
+}
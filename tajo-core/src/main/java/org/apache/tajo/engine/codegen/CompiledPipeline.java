@@ -0,0 +1,39 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.codegen;
+
+import org.apache.tajo.storage.Tuple;
+
+/**
+ * A pipeline segment, such as scan, selection and projection, which is compiled into a single class by
+ * {@link PipelineCodeGenerator}. All filters and projections of the segment are evaluated within one method call
+ * per input tuple, and intermediate values between stages are kept in local variables instead of tuples.
+ */
+public abstract class CompiledPipeline {
+
+  /**
+   * Evaluates all stages against an input tuple.
+   *
+   * @param in The input tuple of the first stage
+   * @param out The tuple to which the results of the last stage are written
+   * @return True if the input tuple satisfies the filters of all stages. Otherwise, false and <code>out</code>
+   * may contain garbage.
+   */
+  public abstract boolean process(Tuple in, Tuple out);
+}
@@ -41,11 +41,26 @@ public class EvalCodeGenContext extends TajoGeneratorAdapter {
   final Map<EvalNode, String> symbols;
   int seqId = 0;
 
+  private final Class superClass;
+  private final EvalNode [] evalNodes;
+
   public EvalCodeGenContext(String className, Schema schema, ClassWriter classWriter, EvalNode evalNode) {
+    this(className, schema, classWriter, CompiledEval.class, new EvalNode[] {evalNode}, "eval",
+        TajoGeneratorAdapter.getMethodDescription(Datum.class, new Class[]{Tuple.class}));
+  }
+
+  /**
+   * Creates a context for a class which extends <code>superClass</code> and evaluates all <code>evalNodes</code>
+   * in the single method <code>methodName</code>.
+   */
+  protected EvalCodeGenContext(String className, Schema schema, ClassWriter classWriter, Class superClass,
+                               EvalNode [] evalNodes, String methodName, String methodDesc) {
     this.owner = className;
     this.classWriter = classWriter;
     this.schema = schema;
-    this.evalNode = evalNode;
+    this.superClass = superClass;
+    this.evalNodes = evalNodes;
+    this.evalNode = evalNodes.length > 0 ? evalNodes[0] : null;
     this.symbols = Maps.newHashMap();
 
     emitClassDefinition();
@@ -53,8 +68,6 @@ public class EvalCodeGenContext extends TajoGeneratorAdapter {
     classWriter.visitEnd();
     emitConstructor();
 
-    String methodName = "eval";
-    String methodDesc = TajoGeneratorAdapter.getMethodDescription(Datum.class, new Class[]{Tuple.class});
     MethodVisitor evalMethod = classWriter.visitMethod(Opcodes.ACC_PUBLIC, methodName, methodDesc, null, null);
     evalMethod.visitCode();
     this.methodvisitor = evalMethod;
@@ -63,7 +76,7 @@ public class EvalCodeGenContext extends TajoGeneratorAdapter {
 
   public void emitClassDefinition() {
     classWriter.visit(Opcodes.V1_5, Opcodes.ACC_PUBLIC, this.owner, null,
-        TajoGeneratorAdapter.getInternalName(EvalNode.class), null);
+        TajoGeneratorAdapter.getInternalName(superClass), null);
   }
 
   public void emitMemberFields() {
@@ -71,7 +84,9 @@ public class EvalCodeGenContext extends TajoGeneratorAdapter {
         "L" + TajoGeneratorAdapter.getInternalName(Schema.class) + ";", null, null);
 
     VariablesPreBuilder builder = new VariablesPreBuilder();
-    builder.visit(this, evalNode, new Stack<EvalNode>());
+    for (EvalNode eval : evalNodes) {
+      builder.visit(this, eval, new Stack<EvalNode>());
+    }
   }
 
   public static void emitCreateSchema(TajoGeneratorAdapter adapter, MethodVisitor mv, Schema schema) {
@@ -100,7 +115,7 @@ public class EvalCodeGenContext extends TajoGeneratorAdapter {
     MethodVisitor initMethod = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
     initMethod.visitCode();
     initMethod.visitVarInsn(Opcodes.ALOAD, 0);
-    initMethod.visitMethodInsn(Opcodes.INVOKESPECIAL, TajoGeneratorAdapter.getInternalName(EvalNode.class), "<init>",
+    initMethod.visitMethodInsn(Opcodes.INVOKESPECIAL, TajoGeneratorAdapter.getInternalName(superClass), "<init>",
         "()V");
 
     TajoGeneratorAdapter consAdapter = new TajoGeneratorAdapter(Opcodes.ACC_PUBLIC, initMethod, "<init>", "()V");
@@ -144,8 +159,9 @@ public class EvalCodeGenContext extends TajoGeneratorAdapter {
         emitRowConstantEval(consAdapter, initMethod, (RowConstantEval) inEval.getRightExpr());
         consAdapter.push(inEval.isNot());
         consAdapter.invokeSpecial(InEval.class, "<init>", void.class,
-            new Class [] {EvalNode.class, RowConstantEval.class, boolean.class});
+            new Class [] {EvalNode.class, ValueSetEval.class, boolean.class});
         int IN_PREDICATE_EVAL = consAdapter.astore();
+        emitBind(consAdapter, initMethod, IN_PREDICATE_EVAL);
 
         consAdapter.aload(0);
         consAdapter.aload(IN_PREDICATE_EVAL);
@@ -167,6 +183,7 @@ public class EvalCodeGenContext extends TajoGeneratorAdapter {
             new Class [] {boolean.class, EvalNode.class, ConstEval.class, boolean.class});
 
         int PatternEval = consAdapter.astore();
+        emitBind(consAdapter, initMethod, PatternEval);
 
         consAdapter.aload(0);
         consAdapter.aload(PatternEval);
@@ -213,6 +230,20 @@ public class EvalCodeGenContext extends TajoGeneratorAdapter {
     initMethod.visitEnd();
   }
 
+  /**
+   * Binds an EvalNode object, which is deserialized in the constructor, to the input schema of this class.
+   */
+  private void emitBind(TajoGeneratorAdapter adapter, MethodVisitor mv, int evalVarId) {
+    if (schema != null) {
+      adapter.aload(evalVarId);
+      mv.visitInsn(Opcodes.ACONST_NULL);
+      adapter.aload(0);
+      mv.visitFieldInsn(Opcodes.GETFIELD, this.owner, "schema", getDescription(Schema.class));
+      adapter.invokeVirtual(EvalNode.class, "bind", EvalNode.class, new Class[] {EvalContext.class, Schema.class});
+      adapter.pop();
+    }
+  }
+
   public void emitReturn() {
     convertToDatum(evalNode.getValueType(), true);
     methodvisitor.visitInsn(Opcodes.ARETURN);
@@ -66,7 +66,7 @@ public class EvalCodeGenerator extends SimpleEvalNodeVisitor<EvalCodeGenContext>
       new byte [] {UNKNOWN, TRUE,    FALSE}    // false
   };
 
-  private final TajoClassLoader classLoader;
+  protected final TajoClassLoader classLoader;
   static int classSeq = 1;
 
   public EvalCodeGenerator(TajoClassLoader classLoader) {
@@ -90,11 +90,12 @@ public class EvalCodeGenerator extends SimpleEvalNodeVisitor<EvalCodeGenContext>
     Class aClass = classLoader.defineClass(className, classWriter.toByteArray());
 
     Constructor constructor;
-    EvalNode compiledEval;
+    CompiledEval compiledEval;
 
     try {
       constructor = aClass.getConstructor();
-      compiledEval = (EvalNode) constructor.newInstance();
+      compiledEval = (CompiledEval) constructor.newInstance();
+      compiledEval.setSource(expr);
     } catch (Throwable t) {
       throw new CompilationError(expr, t, classWriter.toByteArray());
     }
@@ -138,17 +139,17 @@ public class EvalCodeGenerator extends SimpleEvalNodeVisitor<EvalCodeGenContext>
     } else if (unary.getType() == EvalType.NOT) {
 
       visit(context, unary.getChild(), stack);
-      context.methodvisitor.visitVarInsn(Opcodes.ISTORE, 9);
-      context.methodvisitor.visitVarInsn(Opcodes.ISTORE, 10);
+      final int CHILD_NULLFLAG = context.istore();
+      final int CHILD = context.istore();
 
       Label ifNull = new Label();
       Label endIf = new Label();
 
-      context.emitNullityCheck(ifNull, 9);
+      context.emitNullityCheck(ifNull, CHILD_NULLFLAG);
 
       context.methodvisitor.visitFieldInsn(Opcodes.GETSTATIC, Type.getInternalName(EvalCodeGenerator.class),
           "NOT_LOGIC", "[B");
-      context.methodvisitor.visitVarInsn(Opcodes.ILOAD, 10);
+      context.iload(CHILD);
       context.methodvisitor.visitInsn(Opcodes.BALOAD);
       context.pushNullFlag(true);
       emitGotoLabel(context, endIf);
@@ -366,7 +367,7 @@ public class EvalCodeGenerator extends SimpleEvalNodeVisitor<EvalCodeGenContext>
 
       context.methodvisitor.visitVarInsn(Opcodes.ALOAD, 1);
       context.push(fieldIdx);
-      context.invokeInterface(Tuple.class, "isNull", boolean.class, new Class [] {int.class});
+      context.invokeInterface(Tuple.class, "isBlankOrNull", boolean.class, new Class [] {int.class});
 
       context.push(true);
 
@@ -422,12 +423,12 @@ public class EvalCodeGenerator extends SimpleEvalNodeVisitor<EvalCodeGenContext>
         break;
       case INTERVAL:
         methodName = "getInterval";
-        returnType = IntervalDatum.class;
+        returnType = Datum.class;
         paramTypes = new Class [] {int.class};
         break;
       case PROTOBUF:
         methodName = "getProtobufDatum";
-        returnType = ProtobufDatum.class;
+        returnType = Datum.class;
         paramTypes = new Class [] {int.class};
         break;
       default:
@@ -437,6 +438,11 @@ public class EvalCodeGenerator extends SimpleEvalNodeVisitor<EvalCodeGenContext>
       context.methodvisitor.visitVarInsn(Opcodes.ALOAD, 1);
       context.push(fieldIdx);
       context.invokeInterface(Tuple.class, methodName, returnType, paramTypes);
+      if (field.getValueType().getType() == TajoDataTypes.Type.INTERVAL) {
+        context.methodvisitor.visitTypeInsn(Opcodes.CHECKCAST, TajoGeneratorAdapter.getInternalName(IntervalDatum.class));
+      } else if (field.getValueType().getType() == TajoDataTypes.Type.PROTOBUF) {
+        context.methodvisitor.visitTypeInsn(Opcodes.CHECKCAST, TajoGeneratorAdapter.getInternalName(ProtobufDatum.class));
+      }
 
       context.pushNullFlag(true); // not null
       context.methodvisitor.visitJumpInsn(Opcodes.GOTO, afterAll);
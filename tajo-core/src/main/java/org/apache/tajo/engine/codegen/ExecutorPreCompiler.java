@@ -58,15 +58,30 @@ public class ExecutorPreCompiler extends BasicLogicalPlanVisitor<ExecutorPreComp
 
   public static class CompilationContext {
     private final EvalCodeGenerator compiler;
+    private final CompiledEvalCache evalCache;
     private Map<Pair<Schema,EvalNode>, EvalNode> compiledEval;
 
     public CompilationContext(TajoClassLoader classLoader) {
       this.compiler = new EvalCodeGenerator(classLoader);
+      this.evalCache = null;
       this.compiledEval = Maps.newHashMap();
     }
 
-    public EvalCodeGenerator getCompiler() {
-      return compiler;
+    /**
+     * Classes are looked up from and added to the given worker-wide cache instead of a per-block class loader.
+     */
+    public CompilationContext(CompiledEvalCache evalCache) {
+      this.compiler = null;
+      this.evalCache = evalCache;
+      this.compiledEval = Maps.newHashMap();
+    }
+
+    public EvalNode compile(Schema schema, EvalNode eval) throws CompilationError {
+      if (evalCache != null) {
+        return evalCache.compile(schema, eval);
+      } else {
+        return compiler.compile(schema, eval);
+      }
     }
 
     public Map<Pair<Schema, EvalNode>, EvalNode> getPrecompiedEvals() {
@@ -78,7 +93,7 @@ public class ExecutorPreCompiler extends BasicLogicalPlanVisitor<ExecutorPreComp
     Pair<Schema, EvalNode> key = new Pair<Schema, EvalNode>(schema, eval);
     if (!context.compiledEval.containsKey(key)) {
       try {
-        EvalNode compiled = context.compiler.compile(schema, eval);
+        EvalNode compiled = context.compile(schema, eval);
         context.compiledEval.put(key, compiled);
 
       } catch (Throwable t) {
@@ -0,0 +1,72 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.codegen;
+
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.org.objectweb.asm.ClassWriter;
+import org.apache.tajo.plan.expr.EvalNode;
+import org.apache.tajo.storage.Tuple;
+
+import static org.apache.tajo.common.TajoDataTypes.DataType;
+
+/**
+ * The code generation context of a {@link CompiledPipeline}. Besides the state of {@link EvalCodeGenContext}, it
+ * keeps the local variables which hold the results of the previous stage.
+ */
+public class PipelineCodeGenContext extends EvalCodeGenContext {
+  /** The input schema of the current stage */
+  private Schema stageSchema;
+  /** Local variables of the results of the previous stage. They are null during the first stage. */
+  private int [] valueVars;
+  private int [] nullFlagVars;
+  private DataType [] valueTypes;
+
+  public PipelineCodeGenContext(String className, Schema schema, ClassWriter classWriter, EvalNode [] evalNodes) {
+    super(className, schema, classWriter, CompiledPipeline.class, evalNodes, "process",
+        TajoGeneratorAdapter.getMethodDescription(boolean.class, new Class[]{Tuple.class, Tuple.class}));
+    this.stageSchema = schema;
+  }
+
+  public void nextStage(Schema stageSchema, int [] valueVars, int [] nullFlagVars, DataType [] valueTypes) {
+    this.stageSchema = stageSchema;
+    this.valueVars = valueVars;
+    this.nullFlagVars = nullFlagVars;
+    this.valueTypes = valueTypes;
+  }
+
+  public boolean isFirstStage() {
+    return valueVars == null;
+  }
+
+  public Schema getStageSchema() {
+    return stageSchema;
+  }
+
+  public int getValueVar(int fieldId) {
+    return valueVars[fieldId];
+  }
+
+  public int getNullFlagVar(int fieldId) {
+    return nullFlagVars[fieldId];
+  }
+
+  public DataType getValueType(int fieldId) {
+    return valueTypes[fieldId];
+  }
+}
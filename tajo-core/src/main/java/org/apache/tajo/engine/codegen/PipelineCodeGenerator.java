@@ -0,0 +1,292 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.codegen;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.engine.json.CoreGsonHelper;
+import org.apache.tajo.org.objectweb.asm.ClassWriter;
+import org.apache.tajo.org.objectweb.asm.Label;
+import org.apache.tajo.org.objectweb.asm.Opcodes;
+import org.apache.tajo.plan.Target;
+import org.apache.tajo.plan.expr.EvalNode;
+import org.apache.tajo.plan.expr.EvalNodeVisitor;
+import org.apache.tajo.plan.expr.EvalType;
+import org.apache.tajo.plan.expr.FieldEval;
+import org.apache.tajo.storage.Tuple;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Stack;
+
+import static org.apache.tajo.common.TajoDataTypes.DataType;
+
+/**
+ * It generates a {@link CompiledPipeline} which fuses a chain of filters and projections into one method.
+ *
+ * The first stage reads its input from the input tuple. The results of each intermediate stage are stored in
+ * local variables, and field references of the next stage are resolved against those local variables. Only the
+ * results of the last stage are materialized as datums into the output tuple.
+ */
+public class PipelineCodeGenerator extends EvalCodeGenerator {
+
+  public PipelineCodeGenerator(TajoClassLoader classLoader) {
+    super(classLoader);
+  }
+
+  public CompiledPipeline compile(List<PipelineStage> stages) throws CompilationError {
+    Constructor<? extends CompiledPipeline> constructor = compileClass(stages);
+    try {
+      return constructor.newInstance();
+    } catch (Throwable t) {
+      throw new CompilationError(stages.get(0).getTargets()[0].getEvalTree(), t);
+    }
+  }
+
+  /**
+   * Generates and defines the class of a pipeline. Each instance created by the returned constructor keeps its own
+   * state, such as function contexts, so one class can be shared by all tasks evaluating the same stages.
+   */
+  public Constructor<? extends CompiledPipeline> compileClass(List<PipelineStage> stages) throws CompilationError {
+    String className = PipelineCodeGenerator.class.getPackage().getName() + ".CompiledPipeline" +
+        getAndIncrementClassSeq();
+    byte [] bytes = generate(className, stages);
+
+    Class<?> aClass = classLoader.defineClass(className, bytes);
+    try {
+      return aClass.asSubclass(CompiledPipeline.class).getConstructor();
+    } catch (Throwable t) {
+      throw new CompilationError(stages.get(0).getTargets()[0].getEvalTree(), t, bytes);
+    }
+  }
+
+  /**
+   * Checks if the stages can be fused by generating their bytecode. It does not define any class.
+   */
+  public void check(List<PipelineStage> stages) throws CompilationError {
+    generate(PipelineCodeGenerator.class.getPackage().getName() + ".UncheckedPipeline", stages);
+  }
+
+  private byte [] generate(String className, List<PipelineStage> stages) throws CompilationError {
+    verify(stages);
+
+    List<EvalNode> evals = new ArrayList<EvalNode>();
+    for (PipelineStage stage : stages) {
+      if (stage.hasQual()) {
+        evals.add(stage.getQual());
+      }
+      for (Target target : stage.getTargets()) {
+        evals.add(target.getEvalTree());
+      }
+    }
+
+    ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+    PipelineCodeGenContext context = new PipelineCodeGenContext(TajoGeneratorAdapter.getInternalName(className),
+        stages.get(0).getInSchema(), classWriter, evals.toArray(new EvalNode[evals.size()]));
+
+    Label filteredOut = new Label();
+    for (int i = 0; i < stages.size(); i++) {
+      PipelineStage stage = stages.get(i);
+
+      if (stage.hasQual()) {
+        emitFilter(context, stage.getQual(), filteredOut);
+      }
+
+      if (i == stages.size() - 1) {
+        emitOutput(context, stage.getTargets());
+      } else {
+        emitIntermediateValues(context, stages.get(i + 1).getInSchema(), stage.getTargets());
+      }
+    }
+
+    context.push(true);
+    context.methodvisitor.visitInsn(Opcodes.IRETURN);
+
+    context.methodvisitor.visitLabel(filteredOut);
+    context.push(false);
+    context.methodvisitor.visitInsn(Opcodes.IRETURN);
+
+    context.methodvisitor.visitMaxs(0, 0);
+    context.methodvisitor.visitEnd();
+    classWriter.visitEnd();
+
+    return classWriter.toByteArray();
+  }
+
+  /**
+   * A generated class depends on the input schema, the filter and the targets of every stage.
+   */
+  public static String getCanonicalKey(List<PipelineStage> stages) {
+    StringBuilder sb = new StringBuilder();
+    for (PipelineStage stage : stages) {
+      for (Column column : stage.getInSchema().getRootColumns()) {
+        sb.append(column.getQualifiedName()).append(':').append(column.getDataType().getType()).append(',');
+      }
+      sb.append('|');
+      if (stage.hasQual()) {
+        sb.append(CoreGsonHelper.toJson(stage.getQual(), EvalNode.class));
+      }
+      for (Target target : stage.getTargets()) {
+        sb.append('|').append(CoreGsonHelper.toJson(target.getEvalTree(), EvalNode.class));
+      }
+      sb.append(';');
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Only expressions that read their operands through field references can be evaluated against local variables.
+   * Predicates which are delegated to EvalNode objects (i.e., IN and pattern matching) need an input tuple, so
+   * they are allowed only in the first stage.
+   */
+  private static void verify(List<PipelineStage> stages) {
+    if (stages.isEmpty()) {
+      throw new CompilationError("A pipeline requires at least one stage");
+    }
+
+    for (int i = 1; i < stages.size(); i++) {
+      PipelineStage stage = stages.get(i);
+      if (stage.getInSchema().size() != stages.get(i - 1).getTargets().length) {
+        throw new CompilationError("The input of " + stage + " does not match the output of the previous stage");
+      }
+
+      List<EvalNode> evals = new ArrayList<EvalNode>();
+      if (stage.hasQual()) {
+        evals.add(stage.getQual());
+      }
+      for (Target target : stage.getTargets()) {
+        evals.add(target.getEvalTree());
+      }
+
+      final List<EvalType> delegatedTypes = new ArrayList<EvalType>();
+      for (EvalNode eval : evals) {
+        eval.postOrder(new EvalNodeVisitor() {
+          @Override
+          public void visit(EvalNode node) {
+            if (node.getType() == EvalType.IN || EvalType.isStringPatternMatchOperator(node.getType())) {
+              delegatedTypes.add(node.getType());
+            }
+          }
+        });
+      }
+      if (!delegatedTypes.isEmpty()) {
+        throw new CompilationError(delegatedTypes.get(0) + " cannot be fused into " + stage);
+      }
+    }
+  }
+
+  private void emitFilter(PipelineCodeGenContext context, EvalNode qual, Label filteredOut) {
+    visit(context, qual, new Stack<EvalNode>());                                    // < value, nullflag
+    final int NULLFLAG = context.istore();
+    final int VALUE = context.istore();
+
+    // the operand stack must be empty whenever it jumps to filteredOut
+    context.iload(NULLFLAG);
+    context.methodvisitor.visitJumpInsn(Opcodes.IFEQ, filteredOut);
+    context.iload(VALUE);
+    context.push(EvalCodeGenerator.TRUE);
+    context.methodvisitor.visitJumpInsn(Opcodes.IF_ICMPNE, filteredOut);
+  }
+
+  private void emitIntermediateValues(PipelineCodeGenContext context, Schema nextSchema, Target [] targets) {
+    int [] valueVars = new int[targets.length];
+    int [] nullFlagVars = new int[targets.length];
+    DataType [] valueTypes = new DataType[targets.length];
+
+    for (int i = 0; i < targets.length; i++) {
+      EvalNode eval = targets[i].getEvalTree();
+      valueTypes[i] = eval.getValueType();
+      checkIntermediateType(valueTypes[i]);
+
+      visit(context, eval, new Stack<EvalNode>());                                  // < value, nullflag
+      nullFlagVars[i] = context.istore();
+      valueVars[i] = context.store(valueTypes[i]);
+    }
+
+    context.nextStage(nextSchema, valueVars, nullFlagVars, valueTypes);
+  }
+
+  private static void checkIntermediateType(DataType type) {
+    switch (type.getType()) {
+    case NULL_TYPE:
+    case BOOLEAN:
+    case INT1:
+    case INT2:
+    case INT4:
+    case INT8:
+    case FLOAT4:
+    case FLOAT8:
+    case DATE:
+    case TIME:
+    case TIMESTAMP:
+    case INET4:
+    case TEXT:
+      break;
+    default:
+      throw new CompilationError(type.getType().name() + " cannot be kept in a local variable");
+    }
+  }
+
+  private void emitOutput(PipelineCodeGenContext context, Target [] targets) {
+    for (int i = 0; i < targets.length; i++) {
+      EvalNode eval = targets[i].getEvalTree();
+      visit(context, eval, new Stack<EvalNode>());                                  // < value, nullflag
+      context.convertToDatum(eval.getValueType(), true);                          // < datum
+      final int DATUM = context.astore();
+
+      context.aload(2);                                                            // out tuple
+      context.push(i);
+      context.aload(DATUM);
+      context.invokeInterface(Tuple.class, "put", void.class, new Class[] {int.class, Datum.class});
+    }
+  }
+
+  @Override
+  public EvalNode visitField(EvalCodeGenContext context, Stack<EvalNode> stack, FieldEval field) {
+    PipelineCodeGenContext pipelineContext = (PipelineCodeGenContext) context;
+    if (pipelineContext.isFirstStage() || field.getValueType().getType() == TajoDataTypes.Type.NULL_TYPE) {
+      return super.visitField(context, stack, field);
+    }
+
+    Column columnRef = field.getColumnRef();
+    Schema schema = pipelineContext.getStageSchema();
+    int fieldIdx;
+    if (columnRef.hasQualifier()) {
+      fieldIdx = schema.getColumnId(columnRef.getQualifiedName());
+    } else {
+      fieldIdx = schema.getColumnIdByName(columnRef.getSimpleName());
+    }
+    if (fieldIdx < 0) {
+      throw new CompilationError("Cannot find " + columnRef + " in " + schema);
+    }
+
+    DataType valueType = pipelineContext.getValueType(fieldIdx);
+    if (valueType.getType() != field.getValueType().getType()) {
+      throw new CompilationError(columnRef + " is " + field.getValueType().getType() + ", but the previous stage "
+          + "produces " + valueType.getType());
+    }
+
+    context.load(valueType, pipelineContext.getValueVar(fieldIdx));
+    context.iload(pipelineContext.getNullFlagVar(fieldIdx));
+    return field;
+  }
+}
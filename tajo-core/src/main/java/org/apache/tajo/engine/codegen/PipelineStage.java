@@ -0,0 +1,70 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.codegen;
+
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.plan.Target;
+import org.apache.tajo.plan.expr.EvalNode;
+
+/**
+ * One operator of a pipeline segment. A stage filters its input by an optional qual and then computes its targets,
+ * which become the input of the next stage.
+ */
+public class PipelineStage {
+  private final Schema inSchema;
+  private final EvalNode qual;
+  private final Target [] targets;
+
+  public PipelineStage(Schema inSchema, EvalNode qual, Target [] targets) {
+    this.inSchema = inSchema;
+    this.qual = qual;
+    this.targets = targets;
+  }
+
+  public Schema getInSchema() {
+    return inSchema;
+  }
+
+  public boolean hasQual() {
+    return qual != null;
+  }
+
+  public EvalNode getQual() {
+    return qual;
+  }
+
+  public Target [] getTargets() {
+    return targets;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("(");
+    if (hasQual()) {
+      sb.append("qual=").append(qual).append(", ");
+    }
+    for (int i = 0; i < targets.length; i++) {
+      if (i > 0) {
+        sb.append(",");
+      }
+      sb.append(targets[i]);
+    }
+    return sb.append(")").toString();
+  }
+}
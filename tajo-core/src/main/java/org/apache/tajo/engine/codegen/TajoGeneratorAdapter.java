@@ -287,9 +287,12 @@ class TajoGeneratorAdapter {
     case INT1:
     case INT2:
     case INT4:
+    case DATE:
     case INET4:
       methodvisitor.visitVarInsn(Opcodes.ILOAD, idx);
       break;
+    case TIME:
+    case TIMESTAMP:
     case INT8:
       methodvisitor.visitVarInsn(Opcodes.LLOAD, idx);
       break;
@@ -897,6 +900,7 @@ class TajoGeneratorAdapter {
     case INT1:
     case INT2:
     case INT4:
+    case DATE:
     case INET4:
       methodvisitor.visitVarInsn(Opcodes.ISTORE, varId);
       break;
@@ -29,6 +29,7 @@ import org.apache.tajo.SessionVars;
 import org.apache.tajo.catalog.Column;
 import org.apache.tajo.catalog.SortSpec;
 import org.apache.tajo.catalog.proto.CatalogProtos;
+import org.apache.tajo.catalog.proto.CatalogProtos.IndexMethod;
 import org.apache.tajo.catalog.proto.CatalogProtos.SortSpecProto;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.engine.planner.enforce.Enforcer;
@@ -1179,6 +1180,14 @@ public class PhysicalPlannerImpl implements PhysicalPlanner {
   public PhysicalExec createIndexScanExec(TaskAttemptContext ctx,
                                           IndexScanNode annotation)
       throws IOException {
+    // A bloom filter index only skips fragments when they are split, so the remaining fragments are scanned.
+    if (annotation.getIndexMethod() == IndexMethod.BLOOM) {
+      if (ctx.getTable(annotation.getCanonicalName()) == null) {
+        return new SeqScanExec(ctx, annotation, null);
+      }
+      return new SeqScanExec(ctx, annotation, ctx.getTables(annotation.getCanonicalName()));
+    }
+
     //TODO-general Type Index
     Preconditions.checkNotNull(ctx.getTable(annotation.getCanonicalName()),
         "Error: There is no table matched to %s", annotation.getCanonicalName());
@@ -19,6 +19,7 @@
 package org.apache.tajo.engine.planner.enforce;
 
 import org.apache.tajo.annotation.Nullable;
+import org.apache.tajo.catalog.Column;
 import org.apache.tajo.catalog.SortSpec;
 import org.apache.tajo.catalog.proto.CatalogProtos;
 import org.apache.tajo.common.ProtoObject;
@@ -208,6 +209,30 @@ public class Enforcer implements ProtoObject<EnforcerProto> {
     TUtil.putToNestedList(properties, builder.getType(), builder.build());
   }
 
+  public void addRuntimeFilterOutput(int bloomBits) {
+    EnforceProperty.Builder builder = newProperty();
+    RuntimeFilterOutputEnforce.Builder enforce = RuntimeFilterOutputEnforce.newBuilder();
+    enforce.setBloomBits(bloomBits);
+
+    builder.setType(EnforceType.RUNTIME_FILTER_OUTPUT);
+    builder.setRuntimeFilterOutput(enforce);
+    TUtil.putToNestedList(properties, builder.getType(), builder.build());
+  }
+
+  public void addRuntimeFilter(String tableName, Column[] keys, RuntimeFilterProto filter) {
+    EnforceProperty.Builder builder = newProperty();
+    RuntimeFilterEnforce.Builder enforce = RuntimeFilterEnforce.newBuilder();
+    enforce.setTableName(tableName);
+    for (Column key : keys) {
+      enforce.addKeys(key.getProto());
+    }
+    enforce.setFilter(filter);
+
+    builder.setType(EnforceType.RUNTIME_FILTER);
+    builder.setRuntimeFilter(enforce);
+    TUtil.putToNestedList(properties, builder.getType(), builder.build());
+  }
+
   public Collection<EnforceProperty> getProperties() {
     if (proto != null) {
       return proto.getPropertiesList();
@@ -319,6 +344,18 @@ public class Enforcer implements ProtoObject<EnforcerProto> {
     case SORTED_INPUT:
       SortedInputEnforce sortedInput = property.getSortedInput();
       sb.append("sorted input=" + sortedInput.getTableName());
+      break;
+    case RUNTIME_FILTER_OUTPUT:
+      sb.append("type=RuntimeFilterOutput, bits=").append(property.getRuntimeFilterOutput().getBloomBits());
+      break;
+    case RUNTIME_FILTER:
+      RuntimeFilterEnforce runtimeFilter = property.getRuntimeFilter();
+      sb.append("type=RuntimeFilter, table=").append(runtimeFilter.getTableName()).append(",keys=");
+      String delim = "";
+      for (CatalogProtos.ColumnProto key : runtimeFilter.getKeysList()) {
+        sb.append(delim).append(key.getName());
+        delim = ",";
+      }
     }
 
     return sb.toString();
@@ -15,6 +15,7 @@
 package org.apache.tajo.engine.planner.global;
 
 import org.apache.tajo.ExecutionBlockId;
+import org.apache.tajo.catalog.Column;
 import org.apache.tajo.engine.planner.enforce.Enforcer;
 import org.apache.tajo.plan.logical.*;
 import org.apache.tajo.util.TUtil;
@@ -91,6 +92,11 @@ public class ExecutionBlock {
   protected boolean nullSuppllying = false;
   protected boolean preservedRow = false;
 
+  // The scan of this block is filtered by the runtime filter of the output of the source block on the keys.
+  private ExecutionBlockId runtimeFilterSource;
+  private ScanNode runtimeFilterScan;
+  private Column [] runtimeFilterKeys;
+
   public ExecutionBlock(ExecutionBlockId executionBlockId) {
     this.executionBlockId = executionBlockId;
   }
@@ -236,4 +242,26 @@ public class ExecutionBlock {
   public boolean isPreservedRow() {
     return preservedRow;
   }
+
+  public void setRuntimeFilter(ExecutionBlockId source, ScanNode scan, Column [] keys) {
+    this.runtimeFilterSource = source;
+    this.runtimeFilterScan = scan;
+    this.runtimeFilterKeys = keys;
+  }
+
+  public boolean hasRuntimeFilter() {
+    return runtimeFilterSource != null;
+  }
+
+  public ExecutionBlockId getRuntimeFilterSource() {
+    return runtimeFilterSource;
+  }
+
+  public ScanNode getRuntimeFilterScan() {
+    return runtimeFilterScan;
+  }
+
+  public Column [] getRuntimeFilterKeys() {
+    return runtimeFilterKeys;
+  }
 }
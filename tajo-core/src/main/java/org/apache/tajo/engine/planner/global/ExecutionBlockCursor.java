@@ -14,6 +14,8 @@
 
 package org.apache.tajo.engine.planner.global;
 
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
 import org.apache.tajo.ExecutionBlockId;
 import org.apache.tajo.SessionVars;
 
@@ -43,6 +45,7 @@ public class ExecutionBlockCursor implements Iterable<ExecutionBlock> {
     } else {
       buildDepthFirstOrder(plan.getRoot());
     }
+    orderRuntimeFilterSources();
   }
 
   @Override
@@ -64,8 +67,10 @@ public class ExecutionBlockCursor implements Iterable<ExecutionBlock> {
 
   public class SimpleExecutionQueue implements ExecutionQueue {
 
-    private final Iterator<ExecutionBlock> iterator = iterator();
+    private final PeekingIterator<ExecutionBlock> iterator = Iterators.peekingIterator(iterator());
     private ExecutionBlock last;
+    // the block started by pipeline() before the previous block is finished
+    private ExecutionBlock pipelined;
 
     @Override
     public int size() {
@@ -79,9 +84,26 @@ public class ExecutionBlockCursor implements Iterable<ExecutionBlock> {
 
     @Override
     public ExecutionBlock[] next(ExecutionBlockId blockId) {
+      if (pipelined != null) {
+        // the next block has been already started
+        pipelined = null;
+        return new ExecutionBlock[0];
+      }
       return iterator.hasNext() ? new ExecutionBlock[]{last = iterator.next()} : null;
     }
 
+    @Override
+    public ExecutionBlock pipeline(ExecutionBlockId blockId) {
+      if (pipelined != null || last == null || !last.getId().equals(blockId) || !iterator.hasNext()) {
+        return null;
+      }
+      ExecutionBlock parent = masterPlan.getParent(last);
+      if (parent == null || !iterator.peek().getId().equals(parent.getId())) {
+        return null;
+      }
+      return pipelined = last = iterator.next();
+    }
+
     public String toString() {
       StringBuilder sb = new StringBuilder();
       for (ExecutionBlock block : ExecutionBlockCursor.this) {
@@ -110,6 +132,21 @@ public class ExecutionBlockCursor implements Iterable<ExecutionBlock> {
     orderedBlocks.add(current);
   }
 
+  // A block whose scan is filtered by a runtime filter must be executed after the block which builds the filter.
+  private void orderRuntimeFilterSources() {
+    for (ExecutionBlock block : new ArrayList<ExecutionBlock>(orderedBlocks)) {
+      if (!block.hasRuntimeFilter()) {
+        continue;
+      }
+      int sourceIdx = orderedBlocks.indexOf(masterPlan.getExecBlock(block.getRuntimeFilterSource()));
+      int targetIdx = orderedBlocks.indexOf(block);
+      if (sourceIdx > targetIdx) {
+        orderedBlocks.remove(targetIdx);
+        orderedBlocks.add(sourceIdx, block);
+      }
+    }
+  }
+
   private void buildSiblingFirstOrder(ExecutionBlock current) {
     /*
      |-eb_1404887024677_0004_000007
@@ -40,4 +40,13 @@ public interface ExecutionQueue {
    * @return null for finished, can return empty array
    */
   ExecutionBlock[] next(ExecutionBlockId blockId);
+
+  /**
+   * get the parent block of a running block if it can be started before the running block is finished.
+   * the returned block is not returned by next() again.
+   *
+   * @param blockId currently running id of execution block
+   * @return null if the parent block cannot be started now
+   */
+  ExecutionBlock pipeline(ExecutionBlockId blockId);
 }
@@ -100,6 +100,25 @@ public class ParallelExecutionQueue implements ExecutionQueue, Iterable<Executio
     return remaining > 0 ? new ExecutionBlock[0] : null;
   }
 
+  @Override
+  public synchronized ExecutionBlock pipeline(ExecutionBlockId running) {
+    ExecutionBlock parent = masterPlan.getParent(masterPlan.getExecBlock(running));
+    for (Deque<ExecutionBlock> queue : executable) {
+      if (parent != null && !queue.isEmpty() && queue.peekLast().getId().equals(parent.getId())) {
+        // the parent can be started if it would be executable after the running block is finished
+        executed.add(running);
+        boolean executable = isExecutableNow(parent);
+        executed.remove(running);
+        if (executable) {
+          LOG.info("Pipelined block " + parent);
+          return queue.removeLast();
+        }
+        return null;
+      }
+    }
+    return null;
+  }
+
   private boolean isExecutableNow(ExecutionBlock current) {
     ExecutionBlock parent = masterPlan.getParent(current);
 
@@ -116,7 +135,8 @@ public class ParallelExecutionQueue implements ExecutionQueue, Iterable<Executio
         return false;   // there's something should be done before this
       }
     }
-    return true;
+    // the scan of this block is filtered by the runtime filter built by another block
+    return !current.hasRuntimeFilter() || executed.contains(current.getRuntimeFilterSource());
   }
 
   @Override
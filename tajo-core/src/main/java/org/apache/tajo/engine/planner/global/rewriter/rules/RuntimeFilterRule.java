@@ -0,0 +1,272 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.global.rewriter.rules;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.tajo.ExecutionBlockId;
+import org.apache.tajo.OverridableConf;
+import org.apache.tajo.SessionVars;
+import org.apache.tajo.algebra.JoinType;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.engine.planner.global.DataChannel;
+import org.apache.tajo.engine.planner.global.ExecutionBlock;
+import org.apache.tajo.engine.planner.global.MasterPlan;
+import org.apache.tajo.engine.planner.global.rewriter.GlobalPlanRewriteRule;
+import org.apache.tajo.plan.LogicalPlan;
+import org.apache.tajo.plan.Target;
+import org.apache.tajo.plan.expr.EvalType;
+import org.apache.tajo.plan.expr.FieldEval;
+import org.apache.tajo.plan.logical.JoinNode;
+import org.apache.tajo.plan.logical.LogicalNode;
+import org.apache.tajo.plan.logical.NodeType;
+import org.apache.tajo.plan.logical.ScanNode;
+import org.apache.tajo.plan.util.PlannerUtil;
+import org.apache.tajo.storage.index.bloom.BloomFilter;
+import org.apache.tajo.util.graph.DirectedGraphVisitor;
+
+import java.util.List;
+import java.util.Stack;
+
+import static org.apache.tajo.plan.serder.PlanProto.ShuffleType.HASH_SHUFFLE;
+
+/**
+ * {@link RuntimeFilterRule} makes the scan of the larger input of a repartition join filtered by the join keys of
+ * the smaller input. The block of the smaller input builds a runtime filter (a bloom filter and the ranges of the
+ * join keys) while it shuffles its output. Then, the filter is given to the block of the larger input, which is
+ * executed after the block of the smaller input. So, the rows of the larger input which cannot be joined are
+ * neither shuffled nor joined.
+ *
+ * If dynamic partition pruning is enabled, and a join key of an input is a partition column, that input is filtered
+ * regardless of the volumes. Then, its partitions which cannot be joined are not scanned at all
+ * (see {@link org.apache.tajo.querymaster.Stage}).
+ *
+ * <h3>Rules to use a runtime filter</h3>
+ * <ul>
+ *   <li>The join is an inner join, because the other joins must preserve the filtered rows.</li>
+ *   <li>Both inputs are hash shuffled by the join keys.</li>
+ *   <li>The filtered input is a leaf block of a single scan which outputs the join keys as they are.</li>
+ *   <li>Without dynamic partition pruning, both inputs are leaf blocks of known volumes.</li>
+ *   <li>The join keys of both inputs have the types which can be probed with each other by a bloom filter.</li>
+ * </ul>
+ */
+public class RuntimeFilterRule implements GlobalPlanRewriteRule {
+  private static final Log LOG = LogFactory.getLog(RuntimeFilterRule.class);
+
+  private int bloomBits;
+  private boolean rowFilterEnabled;
+  private boolean partitionPruningEnabled;
+
+  @Override
+  public String getName() {
+    return "Runtime filter rule";
+  }
+
+  @Override
+  public boolean isEligible(OverridableConf queryContext, MasterPlan plan) {
+    rowFilterEnabled = queryContext.getBool(SessionVars.RUNTIME_FILTER_ENABLED);
+    partitionPruningEnabled = queryContext.getBool(SessionVars.DYNAMIC_PARTITION_PRUNING_ENABLED);
+    if (rowFilterEnabled || partitionPruningEnabled) {
+      for (LogicalPlan.QueryBlock block : plan.getLogicalPlan().getQueryBlocks()) {
+        if (block.hasNode(NodeType.JOIN)) {
+          bloomBits = queryContext.getInt(SessionVars.RUNTIME_FILTER_BLOOM_BITS);
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public MasterPlan rewrite(MasterPlan plan) {
+    plan.accept(plan.getRoot().getId(), new RuntimeFilterPlanner(plan));
+    return plan;
+  }
+
+  private class RuntimeFilterPlanner implements DirectedGraphVisitor<ExecutionBlockId> {
+    private final MasterPlan plan;
+
+    public RuntimeFilterPlanner(MasterPlan plan) {
+      this.plan = plan;
+    }
+
+    @Override
+    public void visit(Stack<ExecutionBlockId> stack, ExecutionBlockId executionBlockId) {
+      ExecutionBlock current = plan.getExecBlock(executionBlockId);
+      if (plan.isLeaf(current) || plan.isTerminal(current) || !current.hasJoin() ||
+          !current.getUnionScanMap().isEmpty()) {
+        return;
+      }
+
+      List<ExecutionBlock> children = plan.getChilds(current);
+      JoinNode join = PlannerUtil.findTopNode(current.getPlan(), NodeType.JOIN);
+      if (children.size() != 2 || join == null || join.getJoinType() != JoinType.INNER ||
+          !isInputOf(join.getLeftChild(), children) || !isInputOf(join.getRightChild(), children)) {
+        return;
+      }
+
+      ExecutionBlock left = children.get(0);
+      ExecutionBlock right = children.get(1);
+      if (partitionPruningEnabled) {
+        boolean leftPrunable = joinsPartitionColumn(current, left);
+        boolean rightPrunable = joinsPartitionColumn(current, right);
+        if (leftPrunable != rightPrunable) {
+          if (leftPrunable) {
+            addRuntimeFilter(current, right, left);
+          } else {
+            addRuntimeFilter(current, left, right);
+          }
+          return;
+        }
+      }
+      if (!rowFilterEnabled) {
+        return;
+      }
+
+      long leftVolume = getVolume(left);
+      long rightVolume = getVolume(right);
+      if (leftVolume < 0 || rightVolume < 0) {
+        return;
+      }
+
+      if (leftVolume < rightVolume) {
+        addRuntimeFilter(current, left, right);
+      } else {
+        addRuntimeFilter(current, right, left);
+      }
+    }
+
+    /**
+     * @return True if the block scans a partitioned table, and one of its join keys is a partition column
+     */
+    private boolean joinsPartitionColumn(ExecutionBlock current, ExecutionBlock child) {
+      if (!(child.getPlan() instanceof ScanNode) || child.getPlan().getType() != NodeType.PARTITIONS_SCAN) {
+        return false;
+      }
+      DataChannel channel = plan.getChannel(child, current);
+      if (!channel.hasShuffleKeys()) {
+        return false;
+      }
+
+      ScanNode scan = (ScanNode) child.getPlan();
+      for (Column key : channel.getShuffleKeys()) {
+        Column inColumn = findInputColumn(scan, key);
+        if (inColumn != null && isPartitionColumn(scan, inColumn)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * @return True if the node is the scan of the output of one of the child blocks
+     */
+    private boolean isInputOf(LogicalNode node, List<ExecutionBlock> children) {
+      if (node.getType() != NodeType.SCAN) {
+        return false;
+      }
+      String tableName = ((ScanNode) node).getTableName();
+      for (ExecutionBlock child : children) {
+        if (child.getId().toString().equals(tableName)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * @return The volume of the tables scanned by a leaf block, or -1 if it is unknown
+     */
+    private long getVolume(ExecutionBlock block) {
+      if (!plan.isLeaf(block) || block.getScanNodes().length == 0) {
+        return -1;
+      }
+      long volume = 0;
+      for (ScanNode scan : block.getScanNodes()) {
+        long tableVolume = GlobalPlanRewriteUtil.getTableVolume(scan);
+        if (tableVolume < 0) {
+          return -1;
+        }
+        volume += tableVolume;
+      }
+      return volume;
+    }
+
+    private void addRuntimeFilter(ExecutionBlock current, ExecutionBlock source, ExecutionBlock target) {
+      DataChannel sourceChannel = plan.getChannel(source, current);
+      DataChannel targetChannel = plan.getChannel(target, current);
+      if (sourceChannel.getShuffleType() != HASH_SHUFFLE || targetChannel.getShuffleType() != HASH_SHUFFLE ||
+          !sourceChannel.hasShuffleKeys() || !targetChannel.hasShuffleKeys() ||
+          sourceChannel.getShuffleKeys().length != targetChannel.getShuffleKeys().length) {
+        return;
+      }
+      if (!(target.getPlan() instanceof ScanNode) || target.getScanNodes().length != 1) {
+        return;
+      }
+
+      ScanNode scan = (ScanNode) target.getPlan();
+      Column [] sourceKeys = sourceChannel.getShuffleKeys();
+      Column [] targetKeys = new Column[sourceKeys.length];
+      for (int i = 0; i < targetKeys.length; i++) {
+        targetKeys[i] = findInputColumn(scan, targetChannel.getShuffleKeys()[i]);
+        if (targetKeys[i] == null || !BloomFilter.isCompatible(sourceKeys[i].getDataType().getType(),
+            targetKeys[i].getDataType().getType())) {
+          return;
+        }
+      }
+
+      target.setRuntimeFilter(source.getId(), scan, targetKeys);
+      source.getEnforcer().addRuntimeFilterOutput(bloomBits);
+      LOG.info("The scan of " + scan.getCanonicalName() + " in " + target.getId() +
+          " will be filtered by the join keys of " + source.getId());
+    }
+
+    /**
+     * @return The column of the scan input which is output as the given column, or null if it is not found
+     */
+    private Column findInputColumn(ScanNode scan, Column outColumn) {
+      Column inColumn = outColumn;
+      if (scan.hasTargets()) {
+        inColumn = null;
+        for (Target target : scan.getTargets()) {
+          if (target.getNamedColumn().getQualifiedName().equals(outColumn.getQualifiedName()) &&
+              target.getEvalTree().getType() == EvalType.FIELD) {
+            inColumn = ((FieldEval) target.getEvalTree()).getColumnRef();
+            break;
+          }
+        }
+      }
+
+      if (inColumn == null) {
+        return null;
+      } else if (scan.getInSchema().contains(inColumn)) {
+        return scan.getInSchema().getColumn(inColumn);
+      } else if (isPartitionColumn(scan, inColumn)) {
+        // partition columns are not in the input schema, because their values are given by partition paths
+        return inColumn;
+      }
+      return null;
+    }
+
+    private boolean isPartitionColumn(ScanNode scan, Column column) {
+      return scan.getType() == NodeType.PARTITIONS_SCAN &&
+          scan.getTableDesc().getPartitionMethod().getExpressionSchema().containsByName(column.getSimpleName());
+    }
+  }
+}
@@ -0,0 +1,62 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.tajo.engine.vector.VectorBatch;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+
+import java.io.IOException;
+
+/**
+ * It returns the selected rows of the batches of a {@link VectorizedExec} one by one.
+ * It is used to get rows from a vectorized executor in the row-at-a-time way.
+ */
+public class BatchTupleIterator {
+  private final VectorizedExec exec;
+  private final Tuple tuple;
+  private VectorBatch batch;
+  private int index;
+
+  public BatchTupleIterator(VectorizedExec exec, int width) {
+    this.exec = exec;
+    this.tuple = new VTuple(width);
+  }
+
+  /**
+   * @return the next row, or null if there are no more rows. The returned tuple is reused.
+   */
+  public Tuple next() throws IOException {
+    while (batch == null || index >= batch.getSelectedNum()) {
+      batch = exec.nextBatch();
+      index = 0;
+      if (batch == null) {
+        return null;
+      }
+    }
+    batch.getRow(batch.getRowId(index++), tuple);
+    return tuple;
+  }
+
+  public void reset() {
+    batch = null;
+    index = 0;
+  }
+}
@@ -18,28 +18,72 @@
 
 package org.apache.tajo.engine.planner.physical;
 
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.fs.LocalDirAllocator;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RawLocalFileSystem;
+import org.apache.tajo.SessionVars;
+import org.apache.tajo.catalog.CatalogUtil;
 import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.TableMeta;
 import org.apache.tajo.catalog.statistics.TableStats;
+import org.apache.tajo.conf.TajoConf.ConfVars;
 import org.apache.tajo.engine.planner.KeyProjector;
 import org.apache.tajo.engine.utils.CacheHolder;
 import org.apache.tajo.engine.utils.TableCacheKey;
 import org.apache.tajo.exception.TajoInternalError;
 import org.apache.tajo.plan.logical.JoinNode;
 import org.apache.tajo.plan.util.PlannerUtil;
+import org.apache.tajo.storage.MemoryUtil;
+import org.apache.tajo.storage.RawFile.RawFileAppender;
+import org.apache.tajo.storage.RawFile.RawFileScanner;
+import org.apache.tajo.storage.Scanner;
 import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.unit.StorageUnit;
+import org.apache.tajo.util.ClassSize;
+import org.apache.tajo.util.Deallocatable;
+import org.apache.tajo.util.FileUtil;
 import org.apache.tajo.worker.ExecutionBlockSharedResource;
 import org.apache.tajo.worker.TaskAttemptContext;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * common exec for all hash join execs
  *
+ * If a subclass is {@link #isSpillable() spillable}, the memory consumption of the hash table is bounded by
+ * {@link SessionVars#HASH_JOIN_BUFFER_SIZE}. Once it is exceeded while loading the right relation, it works as
+ * a hybrid hash join. Right tuples are partitioned by the hash values of their join keys, and the largest partitions
+ * are written to local disks until the rest fit in memory. Left tuples belonging to the spilled partitions are also
+ * written to local disks instead of being probed. After the left relation is exhausted, each pair of spilled
+ * partitions is joined in the same way. If a partition still exceeds the budget, it is recursively repartitioned
+ * with the next bits of hash values.
+ *
+ * Subclasses must get left tuples via {@link #nextLeftTuple()} to make the spilled left tuples joined.
+ *
  * @param <T> Tuple collection type to load small relation onto in-memory
  */
 public abstract class CommonHashJoinExec<T> extends CommonJoinExec {
+  private static final Log LOG = LogFactory.getLog(CommonHashJoinExec.class);
+
+  /** the number of bits of hash values used for each level of partitioning */
+  private static final int SPILL_PARTITION_BITS = 4;
+  private static final int SPILL_PARTITION_NUM = 1 << SPILL_PARTITION_BITS;
+  /** the maximum level of recursive partitioning. Beyond it, the budget is ignored. */
+  private static final int MAX_SPILL_LEVEL = Integer.SIZE / SPILL_PARTITION_BITS - 1;
+  /** the approximate overhead of a HashMap entry, a KeyTuple and a TupleList */
+  private static final long TUPLE_MAP_ENTRY_OVERHEAD =
+      ClassSize.MAP_ENTRY + ClassSize.REFERENCE * 4 + ClassSize.ARRAY * 2;
 
   // temporal tuples and states for nested loop join
   protected boolean first = true;
@@ -62,6 +106,42 @@ public abstract class CommonHashJoinExec<T> extends CommonJoinExec {
 
   protected TableStats tableStatsOfCachedRightChild = null;
 
+  /** If the memory consumption of the hash table exceeds it, the join is processed by partitions */
+  private long memoryBudget;
+  private long memoryConsumption = 0;
+  private KeyProjector rightKeyProjector;
+
+  private TableMeta spillMeta;
+  private Path spillTmpDir;
+  /** It enables round-robin disks allocation */
+  private LocalDirAllocator localDirAllocator;
+  private RawLocalFileSystem localFS;
+
+  /** If true, right tuples are kept in off-heap row blocks, and their memory is exactly measured. */
+  private final boolean offHeapRowBlock;
+  /** the row stores backing the hash table being built or probed */
+  private final List<OffHeapRowStore> rowStores = new ArrayList<OffHeapRowStore>();
+
+  /** the hash table being built until the budget is exceeded */
+  private TupleMap<TupleList> buildingTable;
+  private OffHeapRowStore buildingStore;
+  /** the hash tables of partitions kept in memory after the budget is exceeded */
+  private TupleMap<TupleList> [] residentTables;
+  private OffHeapRowStore [] residentStores;
+  private long [] residentSizes;
+  /** the spilled partitions of the current input. It is null if the budget is not exceeded. */
+  private JoinPartition [] spilledPartitions;
+  /** spilled partitions which are not joined yet */
+  private final LinkedList<JoinPartition> pendingPartitions = new LinkedList<JoinPartition>();
+  /** the left tuples of the partition being joined. It is null while reading the left child. */
+  private Scanner leftPartitionScanner;
+  private JoinPartition currentPartition;
+  /** the partitioning level of the current input. Zero means the child operators. */
+  private int currentLevel = 0;
+  private int spillFileSeq = 0;
+  private boolean spilled = false;
+  private boolean budgetIgnored = false;
+
   public CommonHashJoinExec(TaskAttemptContext context, JoinNode plan, PhysicalExec outer, PhysicalExec inner) {
     super(context, plan, outer, inner);
 
@@ -104,6 +184,29 @@ public abstract class CommonHashJoinExec<T> extends CommonJoinExec {
         leftKeyExtractor = new KeyProjector(leftSchema, leftKeyList);
         break;
     }
+
+    offHeapRowBlock = PhysicalPlanUtil.isOffHeapRowBlockEnabled(context.getQueryContext(), rightSchema);
+
+    if (isSpillable() && !isCrossJoin) {
+      memoryBudget = context.getQueryContext().getLong(SessionVars.HASH_JOIN_BUFFER_SIZE) * StorageUnit.MB;
+      rightKeyProjector = new KeyProjector(rightSchema, rightKeyList);
+      spillMeta = CatalogUtil.newTableMeta("RAW");
+      spillTmpDir = getExecutorTmpDir();
+      localDirAllocator = new LocalDirAllocator(ConfVars.WORKER_TEMPORAL_DIR.varname);
+      localFS = new RawLocalFileSystem();
+    }
+  }
+
+  /**
+   * @return True if this join can partition both relations to local disks when its hash table exceeds the budget.
+   */
+  protected boolean isSpillable() {
+    return false;
+  }
+
+  @VisibleForTesting
+  public void setMemoryBudget(long memoryBudget) {
+    this.memoryBudget = memoryBudget;
   }
 
   protected void loadRightToHashTable() throws IOException {
@@ -112,6 +215,8 @@ public abstract class CommonHashJoinExec<T> extends CommonJoinExec {
       /* If this table can broadcast, all tasks in a node will share the same cache */
       TableCacheKey key = CacheHolder.BroadcastCacheHolder.getCacheKey(context, scanExec);
       loadRightFromCache(key);
+    } else if (isSpillable() && !isCrossJoin) {
+      this.tupleSlots = convert(buildRightToHashTableWithSpill(), false);
     } else {
       this.tupleSlots = convert(buildRightToHashTable(), false);
     }
@@ -128,7 +233,8 @@ public abstract class CommonHashJoinExec<T> extends CommonJoinExec {
         holder = sharedResource.getBroadcastCache(key);
       } else {
         TupleMap<TupleList> built = buildRightToHashTable();
-        holder = new CacheHolder.BroadcastCacheHolder(built, rightChild.getInputStats(), null);
+        // the row blocks are shared by all tasks, and they are released with the cache.
+        holder = new CacheHolder.BroadcastCacheHolder(built, rightChild.getInputStats(), detachRowStores());
         sharedResource.addBroadcastCache(key, holder);
       }
     }
@@ -147,7 +253,7 @@ public abstract class CommonHashJoinExec<T> extends CommonJoinExec {
   protected TupleMap<TupleList> buildRightToHashTableForCrossJoin() throws IOException {
     Tuple tuple;
     TupleMap<TupleList> map = new TupleMap<>(1);
-    TupleList tuples = new TupleList();
+    TupleList tuples = newTupleList(newRowStore());
 
     while (!context.isStopped() && (tuple = rightChild.next()) != null) {
       tuples.add(tuple);
@@ -160,12 +266,13 @@ public abstract class CommonHashJoinExec<T> extends CommonJoinExec {
     Tuple tuple;
     TupleMap<TupleList> map = new TupleMap<TupleList>(100000);
     KeyProjector keyProjector = new KeyProjector(rightSchema, rightKeyList);
+    OffHeapRowStore store = newRowStore();
 
     while (!context.isStopped() && (tuple = rightChild.next()) != null) {
       KeyTuple keyTuple = keyProjector.project(tuple);
       TupleList newValue = map.get(keyTuple);
       if (newValue == null) {
-        map.put(keyTuple, newValue = new TupleList());
+        map.put(keyTuple, newValue = newTupleList(store));
       }
       // if source is scan or groupby, it needs not to be cloned
       newValue.add(tuple);
@@ -173,12 +280,389 @@ public abstract class CommonHashJoinExec<T> extends CommonJoinExec {
     return map;
   }
 
+  protected TupleMap<TupleList> buildRightToHashTableWithSpill() throws IOException {
+    Tuple tuple;
+    buildingTable = new TupleMap<TupleList>(100000);
+    buildingStore = newRowStore();
+    while (!context.isStopped() && (tuple = rightChild.next()) != null) {
+      addToHashTable(tuple);
+    }
+    return finishBuild();
+  }
+
+  /**
+   * Load the right tuples of a spilled partition.
+   */
+  private TupleMap<TupleList> buildRightToHashTable(JoinPartition partition) throws IOException {
+    info(LOG, "Loading the spilled partition " + partition.rightPath.getName() + " (level: " + partition.level
+        + ", right: " + FileUtil.humanReadableByteCount(partition.rightBytes, false)
+        + ", left: " + FileUtil.humanReadableByteCount(partition.leftBytes, false) + ")");
+
+    buildingTable = new TupleMap<TupleList>();
+    buildingStore = newRowStore();
+    Scanner scanner = openScanner(partition.rightPath, partition.rightBytes, rightSchema);
+    try {
+      Tuple tuple;
+      while (!context.isStopped() && (tuple = scanner.next()) != null) {
+        addToHashTable(tuple);
+      }
+    } finally {
+      scanner.close();
+      localFS.delete(partition.rightPath, false);
+    }
+    return finishBuild();
+  }
+
+  private void addToHashTable(Tuple tuple) throws IOException {
+    KeyTuple keyTuple = rightKeyProjector.project(tuple);
+
+    if (spilledPartitions == null) {
+      memoryConsumption += put(buildingTable, keyTuple, tuple, buildingStore);
+      if (memoryConsumption > memoryBudget) {
+        startSpill();
+      }
+    } else {
+      int partitionId = getPartitionId(keyTuple);
+      if (spilledPartitions[partitionId] != null) {
+        spilledPartitions[partitionId].addRight(tuple);
+      } else {
+        if (residentTables[partitionId] == null) {
+          residentTables[partitionId] = new TupleMap<TupleList>();
+          residentStores[partitionId] = newRowStore();
+        }
+        long size = put(residentTables[partitionId], keyTuple, tuple, residentStores[partitionId]);
+        residentSizes[partitionId] += size;
+        memoryConsumption += size;
+        while (memoryConsumption > memoryBudget && spillLargestPartition()) ;
+      }
+    }
+  }
+
+  private static long put(TupleMap<TupleList> table, KeyTuple keyTuple, Tuple tuple, OffHeapRowStore store) {
+    long size = 0;
+    TupleList tuples = table.get(keyTuple);
+    if (tuples == null) {
+      table.put(keyTuple, tuples = newTupleList(store));
+      size += MemoryUtil.calculateMemorySize(keyTuple) + TUPLE_MAP_ENTRY_OVERHEAD;
+    }
+    return size + add(tuples, tuple, store);
+  }
+
+  /**
+   * @return the memory consumed by the added tuple. It is exact if the tuple is copied into a row store.
+   */
+  private static long add(TupleList tuples, Tuple tuple, OffHeapRowStore store) {
+    if (store != null) {
+      long before = store.getMemoryConsumption();
+      tuples.add(tuple);
+      return store.getMemoryConsumption() - before;
+    } else {
+      tuples.add(tuple);
+      return MemoryUtil.calculateMemorySize(tuple) + ClassSize.REFERENCE;
+    }
+  }
+
+  private static TupleList newTupleList(OffHeapRowStore store) {
+    return store == null ? new TupleList() : new OffHeapTupleList(store);
+  }
+
+  /**
+   * @return a new row store which backs the current hash table. Null if off-heap row blocks are disabled.
+   */
+  private OffHeapRowStore newRowStore() {
+    if (!offHeapRowBlock) {
+      return null;
+    }
+    OffHeapRowStore store = new OffHeapRowStore(rightSchema);
+    rowStores.add(store);
+    return store;
+  }
+
+  private void releaseRowStore(OffHeapRowStore store) {
+    if (store != null) {
+      store.release();
+      rowStores.remove(store);
+    }
+  }
+
+  private void releaseRowStores() {
+    for (OffHeapRowStore store : rowStores) {
+      store.release();
+    }
+    rowStores.clear();
+  }
+
+  /**
+   * Hand over the row stores of the current hash table to another owner.
+   *
+   * @return An object releasing the row stores. Null if there is no row store.
+   */
+  private Deallocatable detachRowStores() {
+    if (rowStores.isEmpty()) {
+      return null;
+    }
+    final List<OffHeapRowStore> stores = new ArrayList<OffHeapRowStore>(rowStores);
+    rowStores.clear();
+    return new Deallocatable() {
+      @Override
+      public void release() {
+        for (OffHeapRowStore store : stores) {
+          store.release();
+        }
+      }
+    };
+  }
+
+  /**
+   * Divide the hash table into partitions, and then spill the largest partitions until the rest fit in the budget.
+   */
+  @SuppressWarnings("unchecked")
+  private void startSpill() throws IOException {
+    if (currentLevel >= MAX_SPILL_LEVEL) {
+      if (!budgetIgnored) {
+        warn(LOG, "The partition cannot be repartitioned any more. The memory budget is ignored.");
+        budgetIgnored = true;
+      }
+      return;
+    }
+
+    info(LOG, "Memory consumption exceeds " + FileUtil.humanReadableByteCount(memoryBudget, false) + " at level "
+        + currentLevel + ". Both relations will be partitioned.");
+    spilled = true;
+    spilledPartitions = new CommonHashJoinExec.JoinPartition[SPILL_PARTITION_NUM];
+    residentTables = new TupleMap[SPILL_PARTITION_NUM];
+    residentStores = new OffHeapRowStore[SPILL_PARTITION_NUM];
+    residentSizes = new long[SPILL_PARTITION_NUM];
+
+    for (Map.Entry<KeyTuple, TupleList> entry : buildingTable.entrySet()) {
+      int partitionId = getPartitionId(entry.getKey());
+      if (residentTables[partitionId] == null) {
+        residentTables[partitionId] = new TupleMap<TupleList>();
+        residentStores[partitionId] = newRowStore();
+      }
+
+      long size = MemoryUtil.calculateMemorySize(entry.getKey()) + TUPLE_MAP_ENTRY_OVERHEAD;
+      TupleList tuples = entry.getValue();
+      if (buildingStore != null) {
+        // Rows are moved to the store of each partition, so that a spilled partition can be released alone.
+        TupleList moved = newTupleList(residentStores[partitionId]);
+        for (Tuple tuple : tuples) {
+          size += add(moved, tuple, residentStores[partitionId]);
+        }
+        tuples = moved;
+      } else {
+        for (Tuple tuple : tuples) {
+          size += MemoryUtil.calculateMemorySize(tuple) + ClassSize.REFERENCE;
+        }
+      }
+      residentTables[partitionId].putWihtoutKeyCopy(entry.getKey(), tuples);
+      residentSizes[partitionId] += size;
+    }
+    buildingTable = null;
+    releaseRowStore(buildingStore);
+    buildingStore = null;
+
+    while (memoryConsumption > memoryBudget && spillLargestPartition()) ;
+  }
+
+  /**
+   * @return True if a partition is spilled. False if there is no partition in memory.
+   */
+  private boolean spillLargestPartition() throws IOException {
+    int largest = -1;
+    for (int i = 0; i < SPILL_PARTITION_NUM; i++) {
+      if (spilledPartitions[i] == null && residentSizes[i] > 0 &&
+          (largest < 0 || residentSizes[i] > residentSizes[largest])) {
+        largest = i;
+      }
+    }
+    if (largest < 0) {
+      return false;
+    }
+
+    JoinPartition partition = new JoinPartition(currentLevel + 1);
+    for (TupleList tuples : residentTables[largest].values()) {
+      for (Tuple tuple : tuples) {
+        partition.addRight(tuple);
+      }
+    }
+    spilledPartitions[largest] = partition;
+    residentTables[largest] = null;
+    releaseRowStore(residentStores[largest]);
+    residentStores[largest] = null;
+    memoryConsumption -= residentSizes[largest];
+    residentSizes[largest] = 0;
+    return true;
+  }
+
+  /**
+   * Close the right spill files of the current input, and merge the partitions kept in memory.
+   */
+  private TupleMap<TupleList> finishBuild() throws IOException {
+    if (spilledPartitions == null) {
+      TupleMap<TupleList> built = buildingTable;
+      buildingTable = null;
+      buildingStore = null;
+      return built;
+    }
+
+    long spilledBytes = 0;
+    for (JoinPartition partition : spilledPartitions) {
+      if (partition != null) {
+        spilledBytes += partition.finishRight();
+      }
+    }
+    context.addSpilledBytes(spilledBytes);
+    info(LOG, FileUtil.humanReadableByteCount(spilledBytes, false) + " of the right relation spilled at level "
+        + currentLevel);
+
+    TupleMap<TupleList> built = new TupleMap<TupleList>();
+    for (TupleMap<TupleList> residentTable : residentTables) {
+      if (residentTable != null) {
+        for (Map.Entry<KeyTuple, TupleList> entry : residentTable.entrySet()) {
+          built.putWihtoutKeyCopy(entry.getKey(), entry.getValue());
+        }
+      }
+    }
+    residentTables = null;
+    residentStores = null;
+    residentSizes = null;
+    return built;
+  }
+
+  private int getPartitionId(KeyTuple keyTuple) {
+    // each level uses the different bits of hash values from the most significant bits.
+    int shift = Integer.SIZE - SPILL_PARTITION_BITS * (currentLevel + 1);
+    return (PrimitiveKeyHashTable.mix(keyTuple.hashCode()) >>> shift) & (SPILL_PARTITION_NUM - 1);
+  }
+
+  /**
+   * Return the next left tuple to be probed against the current hash table.
+   * If its partition is spilled, it is written to the left spill file of the partition instead.
+   * After the left child is exhausted, the spilled partitions are loaded one by one.
+   *
+   * @return the next left tuple. Null if no more left tuples in all partitions.
+   */
+  protected Tuple nextLeftTuple() throws IOException {
+    while (!context.isStopped()) {
+      Tuple leftTuple = leftPartitionScanner == null ? leftChild.next() : leftPartitionScanner.next();
+      if (leftTuple == null) {
+        if (loadNextPartition()) {
+          continue;
+        }
+        return null;
+      }
+
+      if (spilledPartitions != null) {
+        JoinPartition partition = spilledPartitions[getPartitionId(leftKeyExtractor.project(leftTuple))];
+        if (partition != null) {
+          partition.addLeft(leftTuple);
+          continue;
+        }
+      }
+      return leftTuple;
+    }
+    return null;
+  }
+
+  /**
+   * Close the left spill files of the current input, and then load the next pending partition.
+   *
+   * @return True if the next partition is loaded. False if there are no more partitions.
+   */
+  private boolean loadNextPartition() throws IOException {
+    if (leftPartitionScanner != null) {
+      leftPartitionScanner.close();
+      leftPartitionScanner = null;
+      localFS.delete(currentPartition.leftPath, false);
+      currentPartition = null;
+    }
+
+    if (spilledPartitions != null) {
+      long spilledBytes = 0;
+      for (JoinPartition partition : spilledPartitions) {
+        if (partition != null) {
+          spilledBytes += partition.finishLeft();
+          if (partition.leftPath != null) {
+            // depth-first order keeps the number of spill files small
+            pendingPartitions.addFirst(partition);
+          } else {
+            // no left tuple can be matched with this partition
+            localFS.delete(partition.rightPath, false);
+          }
+        }
+      }
+      spilledPartitions = null;
+      context.addSpilledBytes(spilledBytes);
+      info(LOG, FileUtil.humanReadableByteCount(spilledBytes, false) + " of the left relation spilled at level "
+          + currentLevel);
+    }
+
+    if (pendingPartitions.isEmpty() || context.isStopped()) {
+      return false;
+    }
+
+    currentPartition = pendingPartitions.removeFirst();
+    currentLevel = currentPartition.level;
+    budgetIgnored = false;
+    memoryConsumption = 0;
+    tupleSlots.clear();
+    releaseRowStores();
+    tupleSlots = convert(buildRightToHashTable(currentPartition), false);
+    leftPartitionScanner = openScanner(currentPartition.leftPath, currentPartition.leftBytes, leftSchema);
+    return true;
+  }
+
+  private Scanner openScanner(Path path, long length, Schema schema) throws IOException {
+    FileFragment fragment = new FileFragment(path.getName(), path, 0, length);
+    Scanner scanner = new RawFileScanner(context.getConf(), schema, spillMeta, fragment);
+    scanner.init();
+    return scanner;
+  }
+
+  private void cleanupSpillFiles() throws IOException {
+    if (leftPartitionScanner != null) {
+      leftPartitionScanner.close();
+      leftPartitionScanner = null;
+      localFS.delete(currentPartition.leftPath, false);
+      currentPartition = null;
+    }
+    if (spilledPartitions != null) {
+      for (JoinPartition partition : spilledPartitions) {
+        if (partition != null) {
+          partition.delete();
+        }
+      }
+      spilledPartitions = null;
+    }
+    for (JoinPartition partition : pendingPartitions) {
+      partition.delete();
+    }
+    pendingPartitions.clear();
+    buildingTable = null;
+    buildingStore = null;
+    residentTables = null;
+    residentStores = null;
+    residentSizes = null;
+  }
+
   // todo: convert loaded data to cache condition
   protected abstract TupleMap<T> convert(TupleMap<TupleList> hashed, boolean fromCache)
       throws IOException;
 
   @Override
   public void rescan() throws IOException {
+    if (spilled) {
+      // The spilled partitions are not kept in memory. So, the hash table should be built again.
+      cleanupSpillFiles();
+      tupleSlots.clear();
+      tupleSlots = null;
+      releaseRowStores();
+      memoryConsumption = 0;
+      currentLevel = 0;
+      spilled = false;
+      first = true;
+    }
     super.rescan();
     finished = false;
     iterator = null;
@@ -187,11 +671,15 @@ public abstract class CommonHashJoinExec<T> extends CommonJoinExec {
   @Override
   public void close() throws IOException {
     super.close();
+    if (spilled) {
+      cleanupSpillFiles();
+    }
     iterator = null;
     if (tupleSlots != null) {
       tupleSlots.clear();
       tupleSlots = null;
     }
+    releaseRowStores();
   }
 
   @Override
@@ -220,4 +708,80 @@ public abstract class CommonHashJoinExec<T> extends CommonJoinExec {
 
     return inputStats;
   }
+
+  /**
+   * A pair of spill files of the left and right tuples which have the same partition id.
+   */
+  private class JoinPartition {
+    final int level;
+    Path rightPath;
+    Path leftPath;
+    RawFileAppender rightAppender;
+    RawFileAppender leftAppender;
+    long rightBytes;
+    long leftBytes;
+
+    JoinPartition(int level) {
+      this.level = level;
+    }
+
+    void addRight(Tuple tuple) throws IOException {
+      if (rightAppender == null) {
+        rightPath = newSpillPath();
+        rightAppender = newAppender(rightPath, rightSchema);
+      }
+      rightAppender.addTuple(tuple);
+    }
+
+    void addLeft(Tuple tuple) throws IOException {
+      if (leftAppender == null) {
+        leftPath = newSpillPath();
+        leftAppender = newAppender(leftPath, leftSchema);
+      }
+      leftAppender.addTuple(tuple);
+    }
+
+    long finishRight() throws IOException {
+      rightAppender.close();
+      rightAppender = null;
+      rightBytes = new File(localFS.makeQualified(rightPath).toUri()).length();
+      return rightBytes;
+    }
+
+    long finishLeft() throws IOException {
+      if (leftAppender == null) {
+        return 0;
+      }
+      leftAppender.close();
+      leftAppender = null;
+      leftBytes = new File(localFS.makeQualified(leftPath).toUri()).length();
+      return leftBytes;
+    }
+
+    void delete() throws IOException {
+      if (rightAppender != null) {
+        rightAppender.close();
+      }
+      if (leftAppender != null) {
+        leftAppender.close();
+      }
+      if (rightPath != null) {
+        localFS.delete(rightPath, false);
+      }
+      if (leftPath != null) {
+        localFS.delete(leftPath, false);
+      }
+    }
+
+    private Path newSpillPath() throws IOException {
+      return localDirAllocator.getLocalPathForWrite(
+          spillTmpDir + "/" + level + "_" + (spillFileSeq++), context.getConf());
+    }
+
+    private RawFileAppender newAppender(Path path, Schema schema) throws IOException {
+      RawFileAppender appender = new RawFileAppender(context.getConf(), null, schema, spillMeta, path);
+      appender.init();
+      return appender;
+    }
+  }
 }
@@ -142,6 +142,62 @@ public class ComparableVector {
       }
     }
 
+    protected final boolean isNull(int index) {
+      return nulls.get(index);
+    }
+
+    /**
+     * @return True if null values come before non-null values in the order of {@link #compare(int, int)}
+     */
+    protected final boolean isNullFirst() {
+      return nullInvert;
+    }
+
+    /**
+     * @return True if equal normalized keys always mean equal values
+     */
+    protected final boolean isNormalizedKeyComplete() {
+      return type != 7;
+    }
+
+    /**
+     * Returns a key of the non-null value at the index. The unsigned order of keys is the same as the order of
+     * {@link #compare(int, int)}, except that variable length values are only represented by their leading 8 bytes.
+     */
+    protected final long normalizedKey(int index) {
+      long key;
+      switch (type) {
+        case 0: key = booleans[index] ? 1 : 0; break;
+        case 1: key = bits[index] ^ Long.MIN_VALUE; break;
+        case 2: key = shorts[index] ^ Long.MIN_VALUE; break;
+        case 3: key = ints[index] ^ Long.MIN_VALUE; break;
+        case 4: key = longs[index] ^ Long.MIN_VALUE; break;
+        case 5: {
+          int bits = Float.floatToIntBits(floats[index]);
+          // flips the magnitude of negative values, so that the bits are ordered as signed integers
+          key = (bits ^ ((bits >> 31) & Integer.MAX_VALUE)) ^ Long.MIN_VALUE;
+          break;
+        }
+        case 6: {
+          long bits = Double.doubleToLongBits(doubles[index]);
+          key = (bits ^ ((bits >> 63) & Long.MAX_VALUE)) ^ Long.MIN_VALUE;
+          break;
+        }
+        case 7: {
+          byte[] value = bytes[index];
+          key = 0;
+          for (int i = 0; i < 8; i++) {
+            key = (key << 8) | (i < value.length ? value[i] & 0xff : 0);
+          }
+          break;
+        }
+        case 8: key = ints[index] & 0xffffffffL; break;
+        default:
+          throw new IllegalArgumentException();
+      }
+      return ascending ? key : ~key;
+    }
+
     protected final int compare(int index1, int index2) {
       final boolean n1 = nulls.get(index1);
       final boolean n2 = nulls.get(index2);
@@ -61,6 +61,9 @@ public class DistinctGroupbyHashAggregationExec extends UnaryPhysicalExec {
 
   private KeyProjector outerKeyProjector;
 
+  /** If true, all hash aggregators keep groups in PrimitiveKeyHashTables instead of TupleMaps */
+  private boolean usePrimitiveKeys;
+
   public DistinctGroupbyHashAggregationExec(TaskAttemptContext context, DistinctGroupbyNode plan, PhysicalExec subOp)
       throws IOException {
     super(context, plan.getInSchema(), plan.getOutSchema(), subOp);
@@ -86,9 +89,16 @@ public class DistinctGroupbyHashAggregationExec extends UnaryPhysicalExec {
     groupbyNodeNum = groupbyNodes.size();
     this.hashAggregators = new HashAggregator[groupbyNodeNum];
 
+    // All hash aggregators must iterate the distinct grouping keys in the same order.
+    // So, PrimitiveKeyHashTable is used only if it can be used for every hash aggregator.
+    usePrimitiveKeys = PrimitiveKeyHashTable.hasSupportedTypes(inSchema, distinctGroupingKeyColumns);
+    for (GroupbyNode eachGroupby: groupbyNodes) {
+      usePrimitiveKeys &= PrimitiveKeyHashTable.isSupported(inSchema, getGroupingKeyColumns(eachGroupby));
+    }
+
     int index = 0;
     for (GroupbyNode eachGroupby: groupbyNodes) {
-      hashAggregators[index++] = new HashAggregator(eachGroupby, inSchema);
+      hashAggregators[index++] = new HashAggregator(eachGroupby, inSchema, distinctGroupingKeyColumns);
     }
 
     outputColumnNum = plan.getOutSchema().size();
@@ -153,16 +163,15 @@ public class DistinctGroupbyHashAggregationExec extends UnaryPhysicalExec {
     // aggregation with single grouping key
     for (int i = 0; i < hashAggregators.length; i++) {
       HashAggregator hashAggregator = hashAggregators[i];
-      if (!hashAggregator.iterator.hasNext()) {
+      if (!hashAggregator.hasNext()) {
         nullCount++;
         tupleSlots.add(new TupleList());
         continue;
       }
-      Entry<KeyTuple, TupleMap<FunctionContext[]>> entry = hashAggregator.iterator.next();
+      TupleList aggregatedTuples = hashAggregator.aggregateNext();
       if (distinctGroupingKey == null) {
-        distinctGroupingKey = entry.getKey();
+        distinctGroupingKey = hashAggregator.getCurrentKey();
       }
-      TupleList aggregatedTuples = hashAggregator.aggregate(entry.getValue());
       tupleSlots.add(aggregatedTuples);
     }
 
@@ -291,7 +300,7 @@ public class DistinctGroupbyHashAggregationExec extends UnaryPhysicalExec {
       hashAggregators[i].initFetch();
     }
 
-    totalNumRows = hashAggregators[0].hashTable.size();
+    totalNumRows = hashAggregators[0].size();
   }
 
   @Override
@@ -343,11 +352,33 @@ public class DistinctGroupbyHashAggregationExec extends UnaryPhysicalExec {
     }
   }
 
+  private Column[] getGroupingKeyColumns(GroupbyNode groupbyNode) {
+    List<Column> groupingKeyColumnList = new ArrayList<Column>(distinctGroupingKeyColumnSet);
+
+    Column[] keyColumns = groupbyNode.getGroupingColumns();
+    Column col;
+    for (int idx = 0; idx < keyColumns.length; idx++) {
+      col = keyColumns[idx];
+      if (!distinctGroupingKeyColumnSet.contains(col)) {
+        groupingKeyColumnList.add(col);
+      }
+    }
+    return groupingKeyColumnList.toArray(new Column[groupingKeyColumnList.size()]);
+  }
+
   class HashAggregator {
     // Outer's GroupBy Key -> Each GroupByNode's Key -> FunctionContext
     private TupleMap<TupleMap<FunctionContext[]>> hashTable;
     private Iterator<Entry<KeyTuple, TupleMap<FunctionContext[]>>> iterator = null;
 
+    // They are used instead of hashTable if usePrimitiveKeys is true.
+    private PrimitiveKeyHashTable<PrimitiveKeyHashTable<FunctionContext[]>> primitiveHashTable;
+    private int entryIdx = 0;
+    private final Column[] groupingKeyColumns;
+    private final Tuple currentPrimitiveKey;
+
+    private Tuple currentKey;
+
     private final KeyProjector innerKeyProjector;
 
     private final int aggFunctionsNum;
@@ -357,21 +388,18 @@ public class DistinctGroupbyHashAggregationExec extends UnaryPhysicalExec {
 
     private final int tupleSize;
 
-    public HashAggregator(GroupbyNode groupbyNode, Schema schema) throws IOException {
+    public HashAggregator(GroupbyNode groupbyNode, Schema schema, Column[] distinctGroupingKeyColumns)
+        throws IOException {
 
-      hashTable = new TupleMap<TupleMap<FunctionContext[]>>(10000);
-
-      List<Column> groupingKeyColumnList = new ArrayList<Column>(distinctGroupingKeyColumnSet);
-
-      Column[] keyColumns = groupbyNode.getGroupingColumns();
-      Column col;
-      for (int idx = 0; idx < keyColumns.length; idx++) {
-        col = keyColumns[idx];
-        if (!distinctGroupingKeyColumnSet.contains(col)) {
-          groupingKeyColumnList.add(col);
-        }
+      groupingKeyColumns = getGroupingKeyColumns(groupbyNode);
+      if (usePrimitiveKeys) {
+        primitiveHashTable = new PrimitiveKeyHashTable<PrimitiveKeyHashTable<FunctionContext[]>>(
+            inSchema, distinctGroupingKeyColumns, 10000);
+        currentPrimitiveKey = new VTuple(distinctGroupingKeyColumns.length);
+      } else {
+        hashTable = new TupleMap<TupleMap<FunctionContext[]>>(10000);
+        currentPrimitiveKey = null;
       }
-      Column[] groupingKeyColumns = groupingKeyColumnList.toArray(new Column[groupingKeyColumnList.size()]);
 
       if (groupbyNode.hasAggFunctions()) {
         aggFunctions = groupbyNode.getAggFunctions();
@@ -394,7 +422,16 @@ public class DistinctGroupbyHashAggregationExec extends UnaryPhysicalExec {
       return tupleSize;
     }
 
+    public int size() {
+      return usePrimitiveKeys ? primitiveHashTable.size() : hashTable.size();
+    }
+
     public void compute(Tuple tuple) throws IOException {
+      if (usePrimitiveKeys) {
+        computeWithPrimitiveKeys(tuple);
+        return;
+      }
+
       KeyTuple outerKeyTuple = outerKeyProjector.project(tuple);
       TupleMap<FunctionContext[]> distinctEntry = hashTable.get(outerKeyTuple);
 
@@ -419,11 +456,87 @@ public class DistinctGroupbyHashAggregationExec extends UnaryPhysicalExec {
       }
     }
 
+    private void computeWithPrimitiveKeys(Tuple tuple) {
+      PrimitiveKeyHashTable<FunctionContext[]> distinctEntry;
+      int outerEntryId = primitiveHashTable.find(tuple);
+      if (outerEntryId >= 0) {
+        distinctEntry = primitiveHashTable.getValue(outerEntryId);
+      } else {
+        distinctEntry = new PrimitiveKeyHashTable<FunctionContext[]>(inSchema, groupingKeyColumns, 0);
+        primitiveHashTable.insert(outerEntryId, tuple, distinctEntry);
+      }
+
+      int innerEntryId = distinctEntry.find(tuple);
+      if (innerEntryId >= 0) {
+        FunctionContext[] contexts = distinctEntry.getValue(innerEntryId);
+        for (int i = 0; i < aggFunctions.length; i++) {
+          aggFunctions[i].merge(contexts[i], tuple);
+        }
+      } else { // if the key occurs firstly
+        FunctionContext[] contexts = new FunctionContext[aggFunctionsNum];
+        for (int i = 0; i < aggFunctionsNum; i++) {
+          contexts[i] = aggFunctions[i].newContext();
+          aggFunctions[i].merge(contexts[i], tuple);
+        }
+        distinctEntry.insert(innerEntryId, tuple, contexts);
+      }
+    }
+
     public void initFetch() {
-      iterator = hashTable.entrySet().iterator();
+      if (usePrimitiveKeys) {
+        entryIdx = 0;
+      } else {
+        iterator = hashTable.entrySet().iterator();
+      }
     }
 
-    public TupleList aggregate(Map<KeyTuple, FunctionContext[]> groupTuples) {
+    public boolean hasNext() {
+      if (usePrimitiveKeys) {
+        return entryIdx < primitiveHashTable.size();
+      } else {
+        return iterator.hasNext();
+      }
+    }
+
+    /**
+     * @return the distinct grouping key of the group aggregated by the last aggregateNext() call
+     */
+    public Tuple getCurrentKey() {
+      return currentKey;
+    }
+
+    /**
+     * Aggregate the next group of distinct grouping keys.
+     */
+    public TupleList aggregateNext() {
+      if (usePrimitiveKeys) {
+        primitiveHashTable.putKey(entryIdx, currentPrimitiveKey, 0);
+        currentKey = currentPrimitiveKey;
+        return aggregate(primitiveHashTable.getValue(entryIdx++));
+      } else {
+        Entry<KeyTuple, TupleMap<FunctionContext[]>> entry = iterator.next();
+        currentKey = entry.getKey();
+        return aggregate(entry.getValue());
+      }
+    }
+
+    private TupleList aggregate(PrimitiveKeyHashTable<FunctionContext[]> groupTuples) {
+      TupleList aggregatedTuples = new TupleList();
+
+      for (int entryId = 0; entryId < groupTuples.size(); entryId++) {
+        groupTuples.putKey(entryId, aggregatedTuple, 0);
+        int index = groupTuples.getKeyNum();
+
+        FunctionContext[] contexts = groupTuples.getValue(entryId);
+        for (int i = 0; i < aggFunctionsNum; i++, index++) {
+          aggregatedTuple.put(index, aggFunctions[i].terminate(contexts[i]));
+        }
+        aggregatedTuples.add(aggregatedTuple);
+      }
+      return aggregatedTuples;
+    }
+
+    private TupleList aggregate(Map<KeyTuple, FunctionContext[]> groupTuples) {
       TupleList aggregatedTuples = new TupleList();
 
       for (Entry<KeyTuple, FunctionContext[]> entry : groupTuples.entrySet()) {
@@ -443,12 +556,19 @@ public class DistinctGroupbyHashAggregationExec extends UnaryPhysicalExec {
     }
 
     public void close() throws IOException {
-      for (TupleMap<FunctionContext[]> map : hashTable.values()) {
-        map.clear();
+      if (hashTable != null) {
+        for (TupleMap<FunctionContext[]> map : hashTable.values()) {
+          map.clear();
+        }
+        hashTable.clear();
+        hashTable = null;
+      }
+      if (primitiveHashTable != null) {
+        primitiveHashTable.clear();
+        primitiveHashTable = null;
       }
-      hashTable.clear();
-      hashTable = null;
       iterator = null;
+      currentKey = null;
     }
   }
 }
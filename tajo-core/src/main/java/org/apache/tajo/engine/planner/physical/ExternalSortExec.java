@@ -25,6 +25,7 @@ import org.apache.hadoop.fs.LocalDirAllocator;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.fs.RawLocalFileSystem;
 import org.apache.hadoop.io.IOUtils;
+import org.apache.tajo.BuiltinStorages;
 import org.apache.tajo.SessionVars;
 import org.apache.tajo.catalog.CatalogUtil;
 import org.apache.tajo.catalog.Schema;
@@ -37,6 +38,8 @@ import org.apache.tajo.plan.logical.SortNode;
 import org.apache.tajo.storage.*;
 import org.apache.tajo.storage.fragment.FileFragment;
 import org.apache.tajo.storage.fragment.FragmentConvertor;
+import org.apache.tajo.storage.rawfile.DirectRawFileScanner;
+import org.apache.tajo.storage.rawfile.DirectRawFileWriter;
 import org.apache.tajo.unit.StorageUnit;
 import org.apache.tajo.util.FileUtil;
 import org.apache.tajo.util.TUtil;
@@ -81,6 +84,13 @@ public class ExternalSortExec extends SortExec {
   private ExecutorService executorService;
   /** used for in-memory sort of each chunk. */
   private TupleList inMemoryTable;
+  /** If true, the rows of inMemoryTable are kept in off-heap row blocks, and their memory is exactly measured. */
+  private final boolean offHeapRowBlock;
+  /**
+   * If true, sorted runs are stored as DRAW files, whose rows have the off-heap row format. They are written without
+   * conversion, and memory-mapped and merged without copying rows.
+   */
+  private boolean directRunFile;
   /** temporal dir */
   private final Path sortTmpDir;
   /** It enables round-robin disks allocation */
@@ -119,7 +129,13 @@ public class ExternalSortExec extends SortExec {
     this.sortBufferBytesNum = context.getQueryContext().getLong(SessionVars.EXTSORT_BUFFER_SIZE) * StorageUnit.MB;
     this.allocatedCoreNum = context.getConf().getIntVar(ConfVars.EXECUTOR_EXTERNAL_SORT_THREAD_NUM);
     this.executorService = Executors.newFixedThreadPool(this.allocatedCoreNum);
-    this.inMemoryTable = new TupleList(100000);
+    this.offHeapRowBlock = PhysicalPlanUtil.isOffHeapRowBlockEnabled(context.getQueryContext(), inSchema);
+    if (offHeapRowBlock) {
+      this.inMemoryTable = new OffHeapTupleList(inSchema);
+      this.directRunFile = true;
+    } else {
+      this.inMemoryTable = new TupleList(100000);
+    }
 
     this.sortTmpDir = getExecutorTmpDir();
     localDirAllocator = new LocalDirAllocator(ConfVars.WORKER_TEMPORAL_DIR.varname);
@@ -130,6 +146,8 @@ public class ExternalSortExec extends SortExec {
                           final CatalogProtos.FragmentProto[] fragments) throws PhysicalPlanningException {
     this(context, plan);
 
+    // the given inputs are RAW files, so the runs merged from them are also stored as RAW files.
+    directRunFile = false;
     mergedInputFragments = TUtil.newList();
     for (CatalogProtos.FragmentProto proto : fragments) {
       FileFragment fragment = FragmentConvertor.convert(FileFragment.class, proto);
@@ -162,7 +180,6 @@ public class ExternalSortExec extends SortExec {
    */
   private Path sortAndStoreChunk(int chunkId, TupleList tupleBlock)
       throws IOException {
-    TableMeta meta = CatalogUtil.newTableMeta("RAW");
     int rowNum = tupleBlock.size();
 
     long sortStart = System.currentTimeMillis();
@@ -171,7 +188,7 @@ public class ExternalSortExec extends SortExec {
 
     long chunkWriteStart = System.currentTimeMillis();
     Path outputPath = getChunkPathForWrite(0, chunkId);
-    final RawFileAppender appender = new RawFileAppender(context.getConf(), null, inSchema, meta, outputPath);
+    final FileAppender appender = getRunAppender(outputPath);
     appender.init();
     for (Tuple t : sorted) {
       appender.addTuple(t);
@@ -203,7 +220,11 @@ public class ExternalSortExec extends SortExec {
     long runStartTime = System.currentTimeMillis();
     while (!context.isStopped() && (tuple = child.next()) != null) { // partition sort start
       inMemoryTable.add(tuple);
-      memoryConsumption += MemoryUtil.calculateMemorySize(tuple);
+      if (offHeapRowBlock) {
+        memoryConsumption = ((OffHeapTupleList) inMemoryTable).getMemoryConsumption();
+      } else {
+        memoryConsumption += MemoryUtil.calculateMemorySize(tuple);
+      }
 
       if (memoryConsumption > sortBufferBytesNum) {
         long runEndTime = System.currentTimeMillis();
@@ -464,7 +485,7 @@ public class ExternalSortExec extends SortExec {
       final Path outputPath = getChunkPathForWrite(level + 1, nextRunId);
       info(LOG, mergeFanout + " files are being merged to an output file " + outputPath.getName());
       long mergeStartTime = System.currentTimeMillis();
-      final RawFileAppender output = new RawFileAppender(context.getConf(), null, inSchema, meta, outputPath);
+      final FileAppender output = getRunAppender(outputPath);
       output.init();
       final Scanner merger = createKWayMerger(inputFiles, startIdx, mergeFanout);
       merger.init();
@@ -503,8 +524,24 @@ public class ExternalSortExec extends SortExec {
     return result;
   }
 
+  private FileAppender getRunAppender(Path outputPath) throws IOException {
+    if (directRunFile) {
+      return new DirectRawFileWriter(context.getConf(), null, inSchema,
+          CatalogUtil.newTableMeta(BuiltinStorages.DRAW), localFS.makeQualified(outputPath));
+    } else {
+      return new RawFileAppender(context.getConf(), null, inSchema, CatalogUtil.newTableMeta("RAW"), outputPath);
+    }
+  }
+
   private Scanner getFileScanner(FileFragment frag) throws IOException {
-    return new RawFileScanner(context.getConf(), plan.getInSchema(), meta, frag);
+    if (directRunFile) {
+      FileFragment localFrag = new FileFragment(frag.getTableName(), localFS.makeQualified(frag.getPath()),
+          frag.getStartKey(), frag.getLength());
+      return new DirectRawFileScanner(context.getConf(), plan.getInSchema(),
+          CatalogUtil.newTableMeta(BuiltinStorages.DRAW), localFrag);
+    } else {
+      return new RawFileScanner(context.getConf(), plan.getInSchema(), meta, frag);
+    }
   }
 
   private Scanner createKWayMerger(List<FileFragment> inputs, final int startChunkId, final int num) throws IOException {
@@ -643,7 +680,11 @@ public class ExternalSortExec extends SortExec {
     private Tuple leftTuple;
     private Tuple rightTuple;
 
-    private final Tuple outTuple;
+    /**
+     * The index of the input whose tuple was returned by the last next(), or -1. The input is advanced on the next
+     * call, so that the returned tuple is not copied and stays valid until then.
+     */
+    private int lastIndex = -1;
 
     private float mergerProgress;
     private TableStats mergerInputStats;
@@ -656,7 +697,6 @@ public class ExternalSortExec extends SortExec {
       this.leftScan = leftScanner;
       this.rightScan = rightScanner;
       this.comparator = comparator;
-      this.outTuple = new VTuple(schema.size());
     }
 
     private void setState(State state) {
@@ -695,17 +735,22 @@ public class ExternalSortExec extends SortExec {
 
     @Override
     public Tuple next() throws IOException {
+      if (lastIndex == 0) {
+        leftTuple = prepare(0, leftScan.next());
+      } else if (lastIndex == 1) {
+        rightTuple = prepare(1, rightScan.next());
+      }
+
       if (leftTuple == null && rightTuple == null) {
+        lastIndex = -1;
         return null;
       }
       if (rightTuple == null || (leftTuple != null && compare() < 0)) {
-        outTuple.put(leftTuple.getValues());
-        leftTuple = prepare(0, leftScan.next());
-        return outTuple;
+        lastIndex = 0;
+        return leftTuple;
       }
-      outTuple.put(rightTuple.getValues());
-      rightTuple = prepare(1, rightScan.next());
-      return outTuple;
+      lastIndex = 1;
+      return rightTuple;
     }
 
     @Override
@@ -716,6 +761,7 @@ public class ExternalSortExec extends SortExec {
 
         leftTuple = null;
         rightTuple = null;
+        lastIndex = -1;
 
         prepareTuplesForFirstComparison();
       } else {
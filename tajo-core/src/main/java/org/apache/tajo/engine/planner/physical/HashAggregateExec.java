@@ -18,54 +18,127 @@
 
 package org.apache.tajo.engine.planner.physical;
 
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.fs.LocalDirAllocator;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RawLocalFileSystem;
+import org.apache.tajo.SessionVars;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.conf.TajoConf.ConfVars;
 import org.apache.tajo.engine.planner.KeyProjector;
+import org.apache.tajo.engine.vector.VectorBatch;
+import org.apache.tajo.engine.vector.VectorBatchRow;
 import org.apache.tajo.plan.function.FunctionContext;
 import org.apache.tajo.plan.logical.GroupbyNode;
+import org.apache.tajo.storage.MemoryUtil;
+import org.apache.tajo.storage.RawFile.RawFileAppender;
+import org.apache.tajo.storage.RawFile.RawFileScanner;
+import org.apache.tajo.storage.Scanner;
 import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.unit.StorageUnit;
+import org.apache.tajo.util.ClassSize;
+import org.apache.tajo.util.FileUtil;
 import org.apache.tajo.worker.TaskAttemptContext;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.Map.Entry;
 
 /**
  * This is the hash-based GroupBy Operator.
+ *
+ * If all grouping keys are INT4, INT8, DATE, or TEXT types, it keeps groups in {@link PrimitiveKeyHashTable}
+ * which does not create any key object per group. Otherwise, it uses {@link TupleMap}.
+ *
+ * The memory consumption of the hash table is bounded by {@link SessionVars#HASH_GROUPBY_BUFFER_SIZE}.
+ * Once it is exceeded, the groups already in memory keep being aggregated, but the input tuples of new groups
+ * are partitioned by the hash value of their keys and stored into local spill files.
+ * After all groups in memory are returned, each spilled partition is aggregated in the same way.
+ * If a partition still exceeds the budget, it is recursively repartitioned with the next bits of hash values.
+ *
+ * If the child is a {@link VectorizedExec}, the input is consumed batch by batch.
  */
 public class HashAggregateExec extends AggregationExec {
+  private static final Log LOG = LogFactory.getLog(HashAggregateExec.class);
+
+  /** the number of bits of hash values used for each level of partitioning */
+  private static final int SPILL_PARTITION_BITS = 4;
+  private static final int SPILL_PARTITION_NUM = 1 << SPILL_PARTITION_BITS;
+  /** the maximum level of recursive partitioning. Beyond it, the budget is ignored. */
+  private static final int MAX_SPILL_LEVEL = Integer.SIZE / SPILL_PARTITION_BITS - 1;
+  /** the approximate overhead of a HashMap entry and a KeyTuple */
+  private static final long TUPLE_MAP_ENTRY_OVERHEAD = ClassSize.MAP_ENTRY + ClassSize.REFERENCE * 3 + ClassSize.ARRAY;
+
   private Tuple tuple = null;
   private TupleMap<FunctionContext[]> hashTable;
+  private PrimitiveKeyHashTable<FunctionContext[]> primitiveHashTable;
   private KeyProjector hashKeyProjector;
   private boolean computed = false;
   private Iterator<Entry<KeyTuple, FunctionContext []>> iterator = null;
+  private int entryIdx = 0;
+
+  /** If the memory consumption of groups exceeds it, new groups are spilled into local disks. */
+  private long memoryBudget;
+  private long memoryConsumption = 0;
+  private long contextsMemorySize = -1;
+
+  private final TableMeta spillMeta;
+  private final Path spillTmpDir;
+  /** It enables round-robin disks allocation */
+  private final LocalDirAllocator localDirAllocator;
+  private final RawLocalFileSystem localFS;
+
+  /** the partitions being written while aggregating the current input. It is null if the budget is not exceeded. */
+  private SpillPartition [] spillingPartitions;
+  /** spilled partitions which are not aggregated yet */
+  private final LinkedList<SpillPartition> pendingPartitions = new LinkedList<SpillPartition>();
+  /** the partitioning level of the current input. Zero means the child operator. */
+  private int currentLevel = 0;
+  private int spillFileSeq = 0;
+  private int totalPartitionNum = 0;
+  private int finishedPartitionNum = 0;
+  private boolean spilled = false;
+  private boolean budgetIgnored = false;
 
   public HashAggregateExec(TaskAttemptContext ctx, GroupbyNode plan, PhysicalExec subOp) throws IOException {
     super(ctx, plan, subOp);
-    hashKeyProjector = new KeyProjector(inSchema, plan.getGroupingColumns());
-    hashTable = new TupleMap<FunctionContext []>(10000);
+    if (PrimitiveKeyHashTable.isSupported(inSchema, plan.getGroupingColumns())) {
+      primitiveHashTable = new PrimitiveKeyHashTable<FunctionContext[]>(inSchema, plan.getGroupingColumns(), 10000);
+    } else {
+      hashKeyProjector = new KeyProjector(inSchema, plan.getGroupingColumns());
+      hashTable = new TupleMap<FunctionContext []>(10000);
+    }
     this.tuple = new VTuple(plan.getOutSchema().size());
+
+    this.memoryBudget = ctx.getQueryContext().getLong(SessionVars.HASH_GROUPBY_BUFFER_SIZE) * StorageUnit.MB;
+    this.spillMeta = CatalogUtil.newTableMeta("RAW");
+    this.spillTmpDir = getExecutorTmpDir();
+    this.localDirAllocator = new LocalDirAllocator(ConfVars.WORKER_TEMPORAL_DIR.varname);
+    this.localFS = new RawLocalFileSystem();
   }
 
-  private void compute() throws IOException {
-    Tuple tuple;
-    KeyTuple keyTuple;
-    while(!context.isStopped() && (tuple = child.next()) != null) {
-      keyTuple = hashKeyProjector.project(tuple);
+  @VisibleForTesting
+  public void setMemoryBudget(long memoryBudget) {
+    this.memoryBudget = memoryBudget;
+  }
 
-      FunctionContext [] contexts = hashTable.get(keyTuple);
-      if(contexts != null) {
-        for(int i = 0; i < aggFunctions.length; i++) {
-          aggFunctions[i].merge(contexts[i], tuple);
-        }
-      } else { // if the key occurs firstly
-        contexts = new FunctionContext[aggFunctionsNum];
-        for(int i = 0; i < aggFunctionsNum; i++) {
-          contexts[i] = aggFunctions[i].newContext();
-          aggFunctions[i].merge(contexts[i], tuple);
-        }
-        hashTable.put(keyTuple, contexts);
+  private void compute() throws IOException {
+    if (PhysicalPlanUtil.isVectorized(child)) {
+      computeBatches();
+    } else {
+      Tuple tuple;
+      while(!context.isStopped() && (tuple = child.next()) != null) {
+        aggregate(tuple);
       }
     }
+    finishSpill();
 
     // If HashAggregateExec received NullDatum and didn't has any grouping keys,
     // it should return primitive values for NullLDatum.
@@ -78,45 +151,307 @@ public class HashAggregateExec extends AggregationExec {
     }
   }
 
+  /**
+   * Aggregate the batches of the child. Each selected row is read through a tuple view of the batch,
+   * so grouping keys of primitive types are hashed without materializing rows.
+   */
+  private void computeBatches() throws IOException {
+    VectorizedExec vectorizedChild = (VectorizedExec) child;
+    VectorBatchRow row = new VectorBatchRow();
+    VectorBatch batch;
+    while(!context.isStopped() && (batch = vectorizedChild.nextBatch()) != null) {
+      row.set(batch, 0);
+      int selectedNum = batch.getSelectedNum();
+      for (int i = 0; i < selectedNum; i++) {
+        row.setRowId(batch.getRowId(i));
+        aggregate(row);
+      }
+    }
+  }
+
+  /**
+   * Aggregate all tuples of a spilled partition.
+   */
+  private void compute(SpillPartition partition) throws IOException {
+    clearHashTable();
+    currentLevel = partition.level;
+    budgetIgnored = false;
+
+    info(LOG, "Aggregating the spilled partition " + partition.path.getName() + " (level: " + partition.level
+        + ", " + FileUtil.humanReadableByteCount(partition.bytes, false) + ")");
+    FileFragment fragment = new FileFragment(partition.path.getName(), partition.path, 0, partition.bytes);
+    Scanner scanner = new RawFileScanner(context.getConf(), inSchema, spillMeta, fragment);
+    scanner.init();
+    try {
+      Tuple tuple;
+      while(!context.isStopped() && (tuple = scanner.next()) != null) {
+        aggregate(tuple);
+      }
+    } finally {
+      scanner.close();
+      localFS.delete(partition.path, false);
+    }
+    finishSpill();
+  }
+
+  private void aggregate(Tuple tuple) throws IOException {
+    if (primitiveHashTable != null) {
+      int entryId = primitiveHashTable.find(tuple);
+
+      if (entryId >= 0) {
+        merge(primitiveHashTable.getValue(entryId), tuple);
+      } else if (spillingPartitions != null) {
+        spill(primitiveHashTable.hash(tuple), tuple);
+      } else { // if the key occurs firstly
+        FunctionContext [] contexts = newContexts(tuple);
+        primitiveHashTable.insert(entryId, tuple, contexts);
+        memoryConsumption = primitiveHashTable.estimateMemorySize() +
+            primitiveHashTable.size() * getContextsMemorySize(contexts);
+        checkMemoryBudget();
+      }
+
+    } else {
+      KeyTuple keyTuple = hashKeyProjector.project(tuple);
+
+      FunctionContext [] contexts = hashTable.get(keyTuple);
+      if(contexts != null) {
+        merge(contexts, tuple);
+      } else if (spillingPartitions != null) {
+        spill(PrimitiveKeyHashTable.mix(keyTuple.hashCode()), tuple);
+      } else { // if the key occurs firstly
+        contexts = newContexts(tuple);
+        hashTable.put(keyTuple, contexts);
+        memoryConsumption += MemoryUtil.calculateMemorySize(keyTuple) + TUPLE_MAP_ENTRY_OVERHEAD +
+            getContextsMemorySize(contexts);
+        checkMemoryBudget();
+      }
+    }
+  }
+
+  private void merge(FunctionContext [] contexts, Tuple tuple) {
+    for(int i = 0; i < aggFunctionsNum; i++) {
+      aggFunctions[i].merge(contexts[i], tuple);
+    }
+  }
+
+  private FunctionContext [] newContexts(Tuple tuple) {
+    FunctionContext [] contexts = new FunctionContext[aggFunctionsNum];
+    for(int i = 0; i < aggFunctionsNum; i++) {
+      contexts[i] = aggFunctions[i].newContext();
+      aggFunctions[i].merge(contexts[i], tuple);
+    }
+    return contexts;
+  }
+
+  private long getContextsMemorySize(FunctionContext [] contexts) {
+    if (contextsMemorySize < 0) {
+      contextsMemorySize = ClassSize.ARRAY + (long) ClassSize.REFERENCE * contexts.length;
+      for (FunctionContext eachContext : contexts) {
+        contextsMemorySize += ClassSize.estimateBase(eachContext.getClass(), false);
+      }
+    }
+    return contextsMemorySize;
+  }
+
+  /**
+   * If the memory consumption exceeds the budget, it starts to spill the tuples of new groups.
+   * The groups already in memory are still aggregated in memory.
+   */
+  private void checkMemoryBudget() {
+    if (memoryConsumption > memoryBudget && groupingKeyNum > 0) {
+      if (currentLevel < MAX_SPILL_LEVEL) {
+        info(LOG, "Memory consumption exceeds " + FileUtil.humanReadableByteCount(memoryBudget, false) + " at level "
+            + currentLevel + ". Tuples of new groups will be spilled.");
+        spillingPartitions = new SpillPartition[SPILL_PARTITION_NUM];
+        spilled = true;
+      } else if (!budgetIgnored) {
+        warn(LOG, "The partition cannot be repartitioned any more. The memory budget is ignored.");
+        budgetIgnored = true;
+      }
+    }
+  }
+
+  private void spill(int hash, Tuple tuple) throws IOException {
+    // each level uses the different bits of hash values from the most significant bits.
+    int shift = Integer.SIZE - SPILL_PARTITION_BITS * (currentLevel + 1);
+    int partitionId = (hash >>> shift) & (SPILL_PARTITION_NUM - 1);
+
+    SpillPartition partition = spillingPartitions[partitionId];
+    if (partition == null) {
+      Path path = localDirAllocator.getLocalPathForWrite(
+          spillTmpDir + "/" + (currentLevel + 1) + "_" + (spillFileSeq++), context.getConf());
+      partition = new SpillPartition(currentLevel + 1, path);
+      partition.appender = new RawFileAppender(context.getConf(), null, inSchema, spillMeta, path);
+      partition.appender.init();
+      spillingPartitions[partitionId] = partition;
+    }
+    partition.appender.addTuple(tuple);
+  }
+
+  /**
+   * Close all spill files written while aggregating the current input,
+   * and then add them to the pending partitions.
+   */
+  private void finishSpill() throws IOException {
+    if (spillingPartitions == null) {
+      return;
+    }
+
+    long spilledBytes = 0;
+    for (SpillPartition partition : spillingPartitions) {
+      if (partition != null) {
+        partition.appender.close();
+        partition.bytes = new File(localFS.makeQualified(partition.path).toUri()).length();
+        partition.appender = null;
+        spilledBytes += partition.bytes;
+
+        // depth-first order keeps the number of spill files small
+        pendingPartitions.addFirst(partition);
+        totalPartitionNum++;
+      }
+    }
+    spillingPartitions = null;
+    context.addSpilledBytes(spilledBytes);
+    info(LOG, FileUtil.humanReadableByteCount(spilledBytes, false) + " spilled at level " + currentLevel);
+  }
+
   @Override
   public Tuple next() throws IOException {
     if(!computed) {
       compute();
-      iterator = hashTable.entrySet().iterator();
+      resetIterator();
       computed = true;
     }
 
-    FunctionContext [] contexts;
+    while (true) {
+      if (nextGroup()) {
+        return tuple;
+      }
+      if (pendingPartitions.isEmpty() || context.isStopped()) {
+        return null;
+      }
+      compute(pendingPartitions.removeFirst());
+      finishedPartitionNum++;
+      resetIterator();
+    }
+  }
+
+  private boolean nextGroup() {
+    if (primitiveHashTable != null) {
+      if (entryIdx < primitiveHashTable.size()) {
+        primitiveHashTable.putKey(entryIdx, tuple, 0);
+        terminate(primitiveHashTable.getValue(entryIdx++));
+        return true;
+      } else {
+        return false;
+      }
+    }
 
     if (iterator.hasNext()) {
       Entry<KeyTuple, FunctionContext []> entry = iterator.next();
       Tuple keyTuple = entry.getKey();
-      contexts =  entry.getValue();
 
-      int tupleIdx = 0;
-      for (; tupleIdx < groupingKeyNum; tupleIdx++) {
+      for (int tupleIdx = 0; tupleIdx < groupingKeyNum; tupleIdx++) {
         tuple.put(tupleIdx, keyTuple.asDatum(tupleIdx));
       }
-      for (int funcIdx = 0; funcIdx < aggFunctionsNum; funcIdx++, tupleIdx++) {
-        tuple.put(tupleIdx, aggFunctions[funcIdx].terminate(contexts[funcIdx]));
-      }
+      terminate(entry.getValue());
+
+      return true;
+    } else {
+      return false;
+    }
+  }
 
-      return tuple;
+  private void terminate(FunctionContext [] contexts) {
+    for (int funcIdx = 0, tupleIdx = groupingKeyNum; funcIdx < aggFunctionsNum; funcIdx++, tupleIdx++) {
+      tuple.put(tupleIdx, aggFunctions[funcIdx].terminate(contexts[funcIdx]));
+    }
+  }
+
+  private void resetIterator() {
+    if (primitiveHashTable != null) {
+      entryIdx = 0;
+    } else {
+      iterator = hashTable.entrySet().iterator();
+    }
+  }
+
+  private void clearHashTable() {
+    if (primitiveHashTable != null) {
+      primitiveHashTable.clear();
     } else {
-      return null;
+      hashTable.clear();
+    }
+    memoryConsumption = 0;
+  }
+
+  private void cleanupSpillFiles() throws IOException {
+    if (spillingPartitions != null) {
+      for (SpillPartition partition : spillingPartitions) {
+        if (partition != null) {
+          partition.appender.close();
+          localFS.delete(partition.path, false);
+        }
+      }
+      spillingPartitions = null;
+    }
+    for (SpillPartition partition : pendingPartitions) {
+      localFS.delete(partition.path, false);
     }
+    pendingPartitions.clear();
   }
 
   @Override
   public void rescan() throws IOException {
-    iterator = hashTable.entrySet().iterator();
+    if (spilled) {
+      // The groups of spilled partitions are not kept in memory. So, all input should be aggregated again.
+      cleanupSpillFiles();
+      clearHashTable();
+      currentLevel = 0;
+      totalPartitionNum = finishedPartitionNum = 0;
+      spilled = false;
+      computed = false;
+      super.rescan();
+    } else {
+      resetIterator();
+    }
+  }
+
+  @Override
+  public float getProgress() {
+    if (!spilled) {
+      return super.getProgress();
+    }
+    if (totalPartitionNum == 0 || !computed) {
+      return (child != null ? child.getProgress() : progress) * 0.5f;
+    }
+    return 0.5f + ((float) finishedPartitionNum / (float) totalPartitionNum) * 0.5f;
   }
 
   @Override
   public void close() throws IOException {
     super.close();
-    hashTable.clear();
-    hashTable = null;
+    cleanupSpillFiles();
+    if (hashTable != null) {
+      hashTable.clear();
+      hashTable = null;
+    }
+    if (primitiveHashTable != null) {
+      primitiveHashTable.clear();
+      primitiveHashTable = null;
+    }
     iterator = null;
   }
+
+  private static class SpillPartition {
+    final int level;
+    final Path path;
+    RawFileAppender appender;
+    long bytes;
+
+    SpillPartition(int level, Path path) {
+      this.level = level;
+      this.path = path;
+    }
+  }
 }
@@ -32,6 +32,11 @@ public class HashJoinExec extends CommonHashJoinExec<TupleList> {
     super(context, plan, leftExec, rightExec);
   }
 
+  @Override
+  protected boolean isSpillable() {
+    return true;
+  }
+
   @Override
   protected TupleMap<TupleList> convert(TupleMap<TupleList> hashed, boolean fromCache)
       throws IOException {
@@ -50,7 +55,7 @@ public class HashJoinExec extends CommonHashJoinExec<TupleList> {
         return projector.eval(frameTuple);
       }
 
-      Tuple leftTuple = leftChild.next(); // it comes from a disk
+      Tuple leftTuple = nextLeftTuple(); // it comes from a disk
       if (leftTuple == null || leftFiltered(leftTuple)) { // if no more tuples in left tuples on disk, a join is completed.
         finished = leftTuple == null;
         continue;
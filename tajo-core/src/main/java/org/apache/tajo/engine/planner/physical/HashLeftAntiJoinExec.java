@@ -62,7 +62,7 @@ public class HashLeftAntiJoinExec extends HashJoinExec {
         return projector.eval(frameTuple);
       }
       // getting new outer
-      Tuple leftTuple = leftChild.next(); // it comes from a disk
+      Tuple leftTuple = nextLeftTuple(); // it comes from a disk
       if (leftTuple == null || leftFiltered(leftTuple)) { // if no more tuples in left tuples on disk, a join is completed.
         finished = leftTuple == null;
         continue;
@@ -50,7 +50,7 @@ public class HashLeftOuterJoinExec extends HashJoinExec {
         frameTuple.setRight(iterator.next());
         return projector.eval(frameTuple);
       }
-      Tuple leftTuple = leftChild.next(); // it comes from a disk
+      Tuple leftTuple = nextLeftTuple(); // it comes from a disk
       if (leftTuple == null) { // if no more tuples in left tuples on disk, a join is completed.
         finished = true;
         return null;
@@ -26,7 +26,10 @@ import org.apache.tajo.catalog.Column;
 import org.apache.tajo.catalog.TableMeta;
 import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.conf.TajoConf.ConfVars;
+import org.apache.tajo.engine.planner.enforce.Enforcer;
 import org.apache.tajo.plan.logical.ShuffleFileWriteNode;
+import org.apache.tajo.plan.serder.PlanProto.EnforceProperty;
+import org.apache.tajo.plan.serder.PlanProto.EnforceProperty.EnforceType;
 import org.apache.tajo.storage.HashShuffleAppender;
 import org.apache.tajo.storage.HashShuffleAppenderManager;
 import org.apache.tajo.storage.Tuple;
@@ -50,6 +53,8 @@ public final class HashShuffleFileWriteExec extends UnaryPhysicalExec {
   private final int [] shuffleKeyIds;
   private HashShuffleAppenderManager hashShuffleAppenderManager;
   private int numHashShuffleBufferTuples;
+  // the runtime filter of the shuffle keys, which is built only if the enforcer requires it
+  private RuntimeFilter runtimeFilter;
 
   public HashShuffleFileWriteExec(TaskAttemptContext context,
                                   final ShuffleFileWriteNode plan, final PhysicalExec child) throws IOException {
@@ -72,6 +77,12 @@ public final class HashShuffleFileWriteExec extends UnaryPhysicalExec {
     this.partitioner = new HashPartitioner(shuffleKeyIds, numShuffleOutputs);
     this.hashShuffleAppenderManager = context.getHashShuffleAppenderManager();
     this.numHashShuffleBufferTuples = context.getConf().getIntVar(ConfVars.SHUFFLE_HASH_APPENDER_BUFFER_SIZE);
+
+    Enforcer enforcer = context.getEnforcer();
+    if (enforcer != null && enforcer.hasEnforceProperty(EnforceType.RUNTIME_FILTER_OUTPUT)) {
+      EnforceProperty property = enforcer.getEnforceProperties(EnforceType.RUNTIME_FILTER_OUTPUT).get(0);
+      this.runtimeFilter = new RuntimeFilter(shuffleKeyIds.length, property.getRuntimeFilterOutput().getBloomBits());
+    }
   }
 
   @Override
@@ -104,6 +115,9 @@ public final class HashShuffleFileWriteExec extends UnaryPhysicalExec {
         numRows++;
 
         partId = partitioner.getPartition(tuple);
+        if (runtimeFilter != null) {
+          runtimeFilter.add(tuple, shuffleKeyIds);
+        }
         TupleList partitionTupleList = partitionTuples.get(partId);
         if (partitionTupleList == null) {
           partitionTupleList = new TupleList(1000);
@@ -122,12 +136,14 @@ public final class HashShuffleFileWriteExec extends UnaryPhysicalExec {
         }
       }
 
-      // processing remained tuples
+      // processing remained tuples, which are discarded if the task is stopped
       for (Map.Entry<Integer, TupleList> entry : partitionTuples.entrySet()) {
-        int appendPartId = entry.getKey();
-        HashShuffleAppender appender = getAppender(appendPartId);
-        int appendedSize = appender.addTuples(context.getTaskId(), entry.getValue());
-        writtenBytes += appendedSize;
+        if (!context.isStopped()) {
+          int appendPartId = entry.getKey();
+          HashShuffleAppender appender = getAppender(appendPartId);
+          int appendedSize = appender.addTuples(context.getTaskId(), entry.getValue());
+          writtenBytes += appendedSize;
+        }
         entry.getValue().clear();
       }
 
@@ -135,6 +151,9 @@ public final class HashShuffleFileWriteExec extends UnaryPhysicalExec {
       aggregated.setNumBytes(writtenBytes);
       aggregated.setNumRows(numRows);
       context.setResultStats(aggregated);
+      if (runtimeFilter != null && !context.isStopped()) {
+        context.setRuntimeFilter(runtimeFilter);
+      }
 
       partitionTuples.clear();
 
@@ -168,6 +187,7 @@ public final class HashShuffleFileWriteExec extends UnaryPhysicalExec {
     partitionTuples = null;
 
     partitioner = null;
+    runtimeFilter = null;
     plan = null;
 
     progress = 1.0f;
@@ -39,7 +39,11 @@ public class MemSortExec extends SortExec {
 
   public void init() throws IOException {
     super.init();
-    this.tupleSlots = new TupleList(10000);
+    if (PhysicalPlanUtil.isOffHeapRowBlockEnabled(context.getQueryContext(), inSchema)) {
+      this.tupleSlots = new OffHeapTupleList(inSchema);
+    } else {
+      this.tupleSlots = new TupleList(10000);
+    }
   }
 
   @Override
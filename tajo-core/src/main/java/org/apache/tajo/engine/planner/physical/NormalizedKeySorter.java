@@ -0,0 +1,156 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.hadoop.util.QuickSort;
+import org.apache.tajo.catalog.SortSpec;
+import org.apache.tajo.storage.Tuple;
+
+/**
+ * Sorts tuples by normalized keys of the first sort key before comparing them.
+ *
+ * The first sort key of each tuple is encoded into a 64-bit key whose unsigned order is the sort order, and the keys
+ * are sorted by a LSD radix sort. Tuples are compared by the comparator of {@link VectorizedSorter} only within runs
+ * of equal keys, which happens when the first sort key has duplicates, or when a text key shares its leading 8 bytes.
+ * Tuples with a null first key are put together at the front or the end, and then sorted by the remaining keys.
+ */
+public class NormalizedKeySorter extends VectorizedSorter {
+  /** Less tuples than it are sorted by comparison sort, because radix sort passes would cost more */
+  public static final int MIN_SORT_SIZE = 256;
+
+  private static final int RADIX_BITS = 8;
+  private static final int RADIX = 1 << RADIX_BITS;
+  private static final int PASSES = Long.SIZE / RADIX_BITS;
+
+  /** normalized keys which are in the same order as mappings */
+  private final long[] keys;
+
+  public NormalizedKeySorter(TupleList source, SortSpec[] sortKeys, int[] keyIndex) {
+    super(source, sortKeys, keyIndex);
+    this.keys = new long[mappings.length];
+  }
+
+  @Override
+  public Iterable<Tuple> sort() {
+    final TupleVector first = vectors[0];
+    final int length = mappings.length;
+
+    // null keys cannot be normalized, so they are moved to one end
+    int nullNum = 0;
+    for (int i = 0; i < length; i++) {
+      if (first.isNull(i)) {
+        nullNum++;
+      }
+    }
+    int nonNullStart = first.isNullFirst() ? nullNum : 0;
+    int nonNullEnd = nonNullStart + length - nullNum;
+    int nullIndex = first.isNullFirst() ? 0 : nonNullEnd;
+    int nonNullIndex = nonNullStart;
+    for (int i = 0; i < length; i++) {
+      if (first.isNull(i)) {
+        mappings[nullIndex++] = i;
+      } else {
+        keys[nonNullIndex] = first.normalizedKey(i);
+        mappings[nonNullIndex++] = i;
+      }
+    }
+
+    radixSort(nonNullStart, nonNullEnd);
+
+    QuickSort quickSort = new QuickSort();
+    boolean hasTies = vectors.length > 1 || !first.isNormalizedKeyComplete();
+    if (hasTies) {
+      int start = nonNullStart;
+      while (start < nonNullEnd) {
+        int end = start + 1;
+        while (end < nonNullEnd && keys[end] == keys[start]) {
+          end++;
+        }
+        if (end - start > 1) {
+          quickSort.sort(this, start, end);
+        }
+        start = end;
+      }
+    }
+    if (nullNum > 1 && vectors.length > 1) {
+      int nullStart = first.isNullFirst() ? 0 : nonNullEnd;
+      quickSort.sort(this, nullStart, nullStart + nullNum);
+    }
+    return sorted();
+  }
+
+  /**
+   * Sorts keys and mappings in the range by keys. A pass is skipped if all keys have the same digit in it.
+   */
+  private void radixSort(int start, int end) {
+    int length = end - start;
+    if (length < 2) {
+      return;
+    }
+
+    int[][] counts = new int[PASSES][RADIX];
+    for (int i = start; i < end; i++) {
+      long key = keys[i];
+      for (int pass = 0; pass < PASSES; pass++) {
+        counts[pass][(int) (key >>> (pass * RADIX_BITS)) & (RADIX - 1)]++;
+      }
+    }
+
+    long[] srcKeys = keys;
+    int[] srcMappings = mappings;
+    int srcOffset = start;
+    long[] dstKeys = new long[length];
+    int[] dstMappings = new int[length];
+    int dstOffset = 0;
+
+    for (int pass = 0; pass < PASSES; pass++) {
+      int[] count = counts[pass];
+      int shift = pass * RADIX_BITS;
+      if (count[(int) (srcKeys[srcOffset] >>> shift) & (RADIX - 1)] == length) {
+        continue;
+      }
+
+      int[] offsets = new int[RADIX];
+      for (int digit = 1; digit < RADIX; digit++) {
+        offsets[digit] = offsets[digit - 1] + count[digit - 1];
+      }
+      for (int i = 0; i < length; i++) {
+        long key = srcKeys[srcOffset + i];
+        int position = dstOffset + offsets[(int) (key >>> shift) & (RADIX - 1)]++;
+        dstKeys[position] = key;
+        dstMappings[position] = srcMappings[srcOffset + i];
+      }
+
+      long[] tmpKeys = srcKeys;
+      int[] tmpMappings = srcMappings;
+      int tmpOffset = srcOffset;
+      srcKeys = dstKeys;
+      srcMappings = dstMappings;
+      srcOffset = dstOffset;
+      dstKeys = tmpKeys;
+      dstMappings = tmpMappings;
+      dstOffset = tmpOffset;
+    }
+
+    if (srcKeys != keys) {
+      System.arraycopy(srcKeys, srcOffset, keys, start, length);
+      System.arraycopy(srcMappings, srcOffset, mappings, start, length);
+    }
+  }
+}
@@ -0,0 +1,275 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.SchemaUtil;
+import org.apache.tajo.datum.IntervalDatum;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.tuple.offheap.OffHeapRowBlock;
+import org.apache.tajo.tuple.offheap.ResizableLimitSpec;
+import org.apache.tajo.tuple.offheap.RowWriter;
+import org.apache.tajo.tuple.offheap.ZeroCopyTuple;
+import org.apache.tajo.unit.StorageUnit;
+import org.apache.tajo.util.ClassSize;
+import org.apache.tajo.util.Deallocatable;
+import org.apache.tajo.util.SizeOf;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.tajo.common.TajoDataTypes.DataType;
+
+/**
+ * OffHeapRowStore keeps rows in a chain of {@link OffHeapRowBlock}s. An added row is copied into the last block, and
+ * a read-only tuple pointing to the copied row is returned.
+ *
+ * A block is never resized because it would move the rows which returned tuples point to. Instead, a new block is
+ * allocated when a row does not fit the remaining space of the last block. The returned tuples are valid until
+ * {@link #release()} is called.
+ */
+public class OffHeapRowStore implements Deallocatable {
+  public static final int DEFAULT_BLOCK_SIZE = 4 * StorageUnit.MB;
+
+  /** the heap memory taken by a tuple pointing to a row, and the list slot referring to it */
+  public static final long TUPLE_OVERHEAD =
+      ClassSize.align(ClassSize.OBJECT + ClassSize.REFERENCE * 2 + SizeOf.SIZE_OF_INT * 2) + ClassSize.REFERENCE;
+
+  private final Schema schema;
+  private final DataType [] dataTypes;
+  private final int blockSize;
+  /** the fixed part of a row, which is the row length and field offsets */
+  private final int headerSize;
+  /** text values of the row being added, which are materialized once to compute the row size */
+  private final byte [][] varLenValues;
+
+  private final List<OffHeapRowBlock> blocks = new ArrayList<OffHeapRowBlock>();
+  private OffHeapRowBlock current;
+  private long usedMemory;
+  private long allocatedMemory;
+  private long rowNum;
+
+  public OffHeapRowStore(Schema schema) {
+    this(schema, DEFAULT_BLOCK_SIZE);
+  }
+
+  public OffHeapRowStore(Schema schema, int blockSize) {
+    this.schema = schema;
+    this.dataTypes = SchemaUtil.toDataTypes(schema);
+    this.blockSize = blockSize;
+    this.headerSize = SizeOf.SIZE_OF_INT * (dataTypes.length + 1);
+    this.varLenValues = new byte[dataTypes.length][];
+  }
+
+  /**
+   * @return True if all columns of the schema can be written to row blocks.
+   */
+  public static boolean isSupported(Schema schema) {
+    if (schema == null || schema.size() == 0) {
+      return false;
+    }
+    for (Column column : schema.getRootColumns()) {
+      switch (column.getDataType().getType()) {
+      case NULL_TYPE:
+      case BOOLEAN:
+      case INT2:
+      case INT4:
+      case INT8:
+      case FLOAT4:
+      case FLOAT8:
+      case TEXT:
+      case DATE:
+      case TIME:
+      case TIMESTAMP:
+      case INTERVAL:
+      case INET4:
+        break;
+      default:
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Copy a tuple into the row blocks.
+   *
+   * @return A read-only tuple pointing to the copied row
+   */
+  public Tuple add(Tuple tuple) {
+    int rowSize = computeRowSize(tuple);
+    if (current == null || current.size() - current.position() < rowSize) {
+      newBlock(rowSize);
+    }
+
+    int rowOffset = current.position();
+    write(tuple, current.getWriter());
+
+    ZeroCopyTuple row = new ZeroCopyTuple();
+    row.set(current.nioBuffer(), rowOffset, rowSize, dataTypes);
+
+    usedMemory += rowSize;
+    rowNum++;
+    return row;
+  }
+
+  private void newBlock(int rowSize) {
+    int size = Math.max(blockSize, rowSize);
+    // The limit equals to the initial size, so that the block cannot be resized.
+    current = new OffHeapRowBlock(schema, new ResizableLimitSpec(size, size));
+    blocks.add(current);
+    allocatedMemory += current.size();
+  }
+
+  private int computeRowSize(Tuple tuple) {
+    int size = headerSize;
+    for (int i = 0; i < dataTypes.length; i++) {
+      varLenValues[i] = null;
+      if (tuple.isBlankOrNull(i)) {
+        continue;
+      }
+
+      switch (dataTypes[i].getType()) {
+      case BOOLEAN:
+        size += SizeOf.SIZE_OF_BOOL;
+        break;
+      case INT2:
+        size += SizeOf.SIZE_OF_SHORT;
+        break;
+      case INT4:
+      case DATE:
+      case INET4:
+        size += SizeOf.SIZE_OF_INT;
+        break;
+      case INT8:
+      case TIME:
+      case TIMESTAMP:
+        size += SizeOf.SIZE_OF_LONG;
+        break;
+      case FLOAT4:
+        size += SizeOf.SIZE_OF_FLOAT;
+        break;
+      case FLOAT8:
+        size += SizeOf.SIZE_OF_DOUBLE;
+        break;
+      case TEXT:
+        varLenValues[i] = tuple.getTextBytes(i);
+        size += SizeOf.SIZE_OF_INT + varLenValues[i].length;
+        break;
+      case INTERVAL:
+        size += SizeOf.SIZE_OF_INT + SizeOf.SIZE_OF_LONG;
+        break;
+      default:
+        break;
+      }
+    }
+    return size;
+  }
+
+  private void write(Tuple tuple, RowWriter writer) {
+    writer.startRow();
+    for (int i = 0; i < dataTypes.length; i++) {
+      if (tuple.isBlankOrNull(i)) {
+        writer.skipField();
+        continue;
+      }
+
+      switch (dataTypes[i].getType()) {
+      case BOOLEAN:
+        writer.putBool(tuple.getBool(i));
+        break;
+      case INT2:
+        writer.putInt2(tuple.getInt2(i));
+        break;
+      case INT4:
+      case DATE:
+      case INET4:
+        writer.putInt4(tuple.getInt4(i));
+        break;
+      case INT8:
+      case TIME:
+      case TIMESTAMP:
+        writer.putInt8(tuple.getInt8(i));
+        break;
+      case FLOAT4:
+        writer.putFloat4(tuple.getFloat4(i));
+        break;
+      case FLOAT8:
+        writer.putFloat8(tuple.getFloat8(i));
+        break;
+      case TEXT:
+        writer.putText(varLenValues[i]);
+        varLenValues[i] = null;
+        break;
+      case INTERVAL:
+        writer.putInterval((IntervalDatum) tuple.getInterval(i));
+        break;
+      default:
+        writer.skipField();
+        break;
+      }
+    }
+    writer.endRow();
+  }
+
+  /**
+   * @return The number of rows stored
+   */
+  public long rows() {
+    return rowNum;
+  }
+
+  /**
+   * @return The exact number of bytes taken by stored rows
+   */
+  public long usedMemory() {
+    return usedMemory;
+  }
+
+  /**
+   * @return The number of off-heap bytes allocated for row blocks
+   */
+  public long allocatedMemory() {
+    return allocatedMemory;
+  }
+
+  /**
+   * @return The memory consumption of stored rows, which includes the heap memory of the tuples pointing to them
+   */
+  public long getMemoryConsumption() {
+    return usedMemory + rowNum * TUPLE_OVERHEAD;
+  }
+
+  /**
+   * Free all row blocks. The tuples returned so far must not be accessed after it.
+   * This store can be reused after it.
+   */
+  @Override
+  public void release() {
+    for (OffHeapRowBlock block : blocks) {
+      block.release();
+    }
+    blocks.clear();
+    current = null;
+    usedMemory = 0;
+    allocatedMemory = 0;
+    rowNum = 0;
+  }
+}
@@ -0,0 +1,71 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.storage.Tuple;
+
+/**
+ * In OffHeapTupleList, input tuples are copied into off-heap row blocks of {@link OffHeapRowStore} instead of
+ * heap tuples. The list only keeps the tuples pointing to the copied rows, which are read-only.
+ *
+ * A list which creates its own store releases the store when it is cleared. Many lists can share a store
+ * like the values of a hash table. In that case, the owner of the store should release it.
+ */
+public class OffHeapTupleList extends TupleList {
+  private final OffHeapRowStore store;
+  private final boolean ownStore;
+
+  public OffHeapTupleList(Schema schema) {
+    super();
+    this.store = new OffHeapRowStore(schema);
+    this.ownStore = true;
+  }
+
+  public OffHeapTupleList(OffHeapRowStore store) {
+    super();
+    this.store = store;
+    this.ownStore = false;
+  }
+
+  @Override
+  protected Tuple copy(Tuple tuple) {
+    return store.add(tuple);
+  }
+
+  public OffHeapRowStore getStore() {
+    return store;
+  }
+
+  /**
+   * @return The exact memory consumption of the tuples in this list. If the store is shared, it is the consumption
+   * of all lists sharing it.
+   */
+  public long getMemoryConsumption() {
+    return store.getMemoryConsumption();
+  }
+
+  @Override
+  public void clear() {
+    super.clear();
+    if (ownStore) {
+      store.release();
+    }
+  }
+}
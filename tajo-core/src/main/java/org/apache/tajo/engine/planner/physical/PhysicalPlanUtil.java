@@ -54,6 +54,45 @@ public class PhysicalPlanUtil {
     return (T) new FindVisitor().visit(plan, new Stack<PhysicalExec>(), clazz);
   }
 
+  /**
+   * @return True if vectorized execution is enabled in the session
+   */
+  public static boolean isVectorizationEnabled(QueryContext context) {
+    return context.getBool(SessionVars.VECTORIZED_EXECUTION_ENABLED);
+  }
+
+  /**
+   * @return True if buffered rows of the given schema can be kept in off-heap row blocks in the session
+   */
+  public static boolean isOffHeapRowBlockEnabled(QueryContext context, Schema schema) {
+    return context.getBool(SessionVars.OFFHEAP_ROW_BLOCK_ENABLED) && OffHeapRowStore.isSupported(schema);
+  }
+
+  /**
+   * @return True if the executor can return rows as batches
+   */
+  public static boolean isVectorized(PhysicalExec exec) {
+    return exec instanceof VectorizedExec && ((VectorizedExec) exec).isVectorized();
+  }
+
+  /**
+   * Finds the scan whose compiled pipeline produces the output of the given executor. It goes down through
+   * selections and projections which are already fused into the pipeline.
+   *
+   * @return The scan executor which can fuse a parent operator. Otherwise, null.
+   */
+  public static SeqScanExec findPipelineScan(PhysicalExec exec) {
+    if (exec instanceof SeqScanExec) {
+      return (SeqScanExec) exec;
+    } else if (exec instanceof SelectionExec && ((SelectionExec) exec).isFused()) {
+      return findPipelineScan(((SelectionExec) exec).getChild());
+    } else if (exec instanceof ProjectionExec && ((ProjectionExec) exec).isFused()) {
+      return findPipelineScan(((ProjectionExec) exec).getChild());
+    } else {
+      return null;
+    }
+  }
+
   public static TupleComparator [] getComparatorsFromJoinQual(EvalNode joinQual, Schema leftSchema, Schema rightSchema) {
     SortSpec[][] sortSpecs = PlannerUtil.getSortKeysFromJoinQual(joinQual, leftSchema, rightSchema);
     BaseTupleComparator[] comparators = new BaseTupleComparator[2];
@@ -0,0 +1,457 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.util.SizeOf;
+
+import java.util.Arrays;
+
+/**
+ * PrimitiveKeyHashTable is an open-addressing hash table specialized for grouping keys
+ * consisting of INT4, INT8, DATE, and TEXT columns.
+ *
+ * Unlike {@link TupleMap}, it does not create any key object per entry. Each key is encoded into
+ * primitive arrays (one long word per key column, and a null bitmap per entry), and variable-length
+ * TEXT values are appended to a single byte arena. Hash values are computed directly from
+ * the Tuple accessors of input tuples, so probing does not require any projection or cloning.
+ *
+ * Entries are identified by a dense entry id which is assigned in insertion order.
+ * A typical usage is as follows:
+ *
+ * <pre>
+ *   int entryId = hashTable.find(tuple);
+ *   if (entryId < 0) {
+ *     entryId = hashTable.insert(entryId, tuple, value);
+ *   }
+ * </pre>
+ *
+ * @param <E> value type
+ */
+public class PrimitiveKeyHashTable<E> {
+  /** the maximum number of key columns, which is bounded by the size of null bitmap */
+  public static final int MAX_KEY_NUM = Long.SIZE;
+
+  private static final int EMPTY = -1;
+  private static final int NULL_HASH = 0x9e3779b9;
+  private static final int MIN_CAPACITY = 16;
+  private static final int INITIAL_ARENA_SIZE = 1024;
+
+  private final int keyNum;
+  private final int [] keyIds;
+  private final Type [] keyTypes;
+  private final boolean hasTextKey;
+
+  /** bucket -> entry id */
+  private int [] buckets;
+  private int bucketMask;
+
+  /** the following arrays are indexed by entry id */
+  private int [] hashes;
+  private long [] nullFlags;
+  private long [] keys;
+  private Object [] values;
+  private int size;
+
+  /** the storage for TEXT keys. Each TEXT key word keeps (offset << 32 | length) of this arena. */
+  private byte [] arena;
+  private int arenaUsed;
+
+  /** the hash value computed in the last find() call, which is reused by insert() */
+  private int lastHash;
+
+  public PrimitiveKeyHashTable(Schema inSchema, Column [] keyColumns, int initialCapacity) {
+    if (!hasSupportedTypes(inSchema, keyColumns)) {
+      throw new IllegalArgumentException("Unsupported grouping keys: " + Arrays.toString(keyColumns));
+    }
+
+    keyNum = keyColumns.length;
+    keyIds = new int[keyNum];
+    keyTypes = new Type[keyNum];
+    boolean textKey = false;
+    for (int i = 0; i < keyNum; i++) {
+      keyIds[i] = inSchema.getColumnId(keyColumns[i].getQualifiedName());
+      keyTypes[i] = inSchema.getColumn(keyIds[i]).getDataType().getType();
+      textKey |= keyTypes[i] == Type.TEXT;
+    }
+    hasTextKey = textKey;
+
+    int entryCapacity = Math.max(MIN_CAPACITY, initialCapacity);
+    buckets = new int[nextPowerOfTwo(entryCapacity * 2)];
+    Arrays.fill(buckets, EMPTY);
+    bucketMask = buckets.length - 1;
+
+    hashes = new int[entryCapacity];
+    nullFlags = new long[entryCapacity];
+    keys = new long[entryCapacity * keyNum];
+    values = new Object[entryCapacity];
+    arena = hasTextKey ? new byte[INITIAL_ARENA_SIZE] : null;
+  }
+
+  /**
+   * Check if the given grouping keys can be handled by PrimitiveKeyHashTable.
+   *
+   * @param inSchema input schema
+   * @param keyColumns grouping key columns
+   * @return True if all key columns are INT4, INT8, DATE, or TEXT types.
+   */
+  public static boolean isSupported(Schema inSchema, Column [] keyColumns) {
+    return keyColumns.length > 0 && hasSupportedTypes(inSchema, keyColumns);
+  }
+
+  /**
+   * Unlike isSupported(), it accepts an empty key. In this case, all tuples belong to the same entry.
+   */
+  static boolean hasSupportedTypes(Schema inSchema, Column [] keyColumns) {
+    if (keyColumns.length > MAX_KEY_NUM) {
+      return false;
+    }
+    for (Column column : keyColumns) {
+      int columnId = inSchema.getColumnId(column.getQualifiedName());
+      if (columnId < 0) {
+        return false;
+      }
+      switch (inSchema.getColumn(columnId).getDataType().getType()) {
+      case INT4:
+      case INT8:
+      case DATE:
+      case TEXT:
+        break;
+      default:
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public int getKeyNum() {
+    return keyNum;
+  }
+
+  /**
+   * Find the entry whose key is equal to the key columns of the given tuple.
+   *
+   * @param tuple input tuple
+   * @return An entry id if found. Otherwise, a negative value which should be passed to insert().
+   */
+  public int find(Tuple tuple) {
+    final int hash = hash(tuple);
+    lastHash = hash;
+
+    int bucket = hash & bucketMask;
+    int entryId;
+    while ((entryId = buckets[bucket]) != EMPTY) {
+      if (hashes[entryId] == hash && keyEquals(entryId, tuple)) {
+        return entryId;
+      }
+      bucket = (bucket + 1) & bucketMask;
+    }
+    return -(bucket + 1);
+  }
+
+  /**
+   * Add a new entry. It must be called with the negative value returned from the immediately preceding find()
+   * for the same tuple. The key is always copied.
+   *
+   * @param insertionPoint the negative value returned from find()
+   * @param tuple input tuple
+   * @param value the value
+   * @return the id of the added entry
+   */
+  public int insert(int insertionPoint, Tuple tuple, E value) {
+    final int entryId = size;
+    if (entryId == hashes.length) {
+      growEntries();
+    }
+
+    hashes[entryId] = lastHash;
+    values[entryId] = value;
+
+    long nullFlag = 0;
+    final int keyOffset = entryId * keyNum;
+    for (int i = 0; i < keyNum; i++) {
+      final int fieldId = keyIds[i];
+      if (tuple.isBlankOrNull(fieldId)) {
+        nullFlag |= 1L << i;
+        keys[keyOffset + i] = 0;
+        continue;
+      }
+
+      switch (keyTypes[i]) {
+      case INT4:
+      case DATE:
+        keys[keyOffset + i] = tuple.getInt4(fieldId);
+        break;
+      case INT8:
+        keys[keyOffset + i] = tuple.getInt8(fieldId);
+        break;
+      case TEXT:
+        keys[keyOffset + i] = appendToArena(tuple.getTextBytes(fieldId));
+        break;
+      default:
+        throw new IllegalStateException("Unsupported key type: " + keyTypes[i]);
+      }
+    }
+    nullFlags[entryId] = nullFlag;
+
+    buckets[-insertionPoint - 1] = entryId;
+    size++;
+
+    if (size * 2 > buckets.length) {
+      rehash(buckets.length * 2);
+    }
+    return entryId;
+  }
+
+  @SuppressWarnings("unchecked")
+  public E getValue(int entryId) {
+    return (E) values[entryId];
+  }
+
+  public void setValue(int entryId, E value) {
+    values[entryId] = value;
+  }
+
+  /**
+   * Put the key of the given entry into the output tuple.
+   *
+   * @param entryId entry id
+   * @param output output tuple
+   * @param startFieldId the field id of output tuple where the first key column is placed
+   */
+  public void putKey(int entryId, Tuple output, int startFieldId) {
+    for (int i = 0; i < keyNum; i++) {
+      output.put(startFieldId + i, getKeyDatum(entryId, i));
+    }
+  }
+
+  public Datum getKeyDatum(int entryId, int keyIdx) {
+    if ((nullFlags[entryId] & (1L << keyIdx)) != 0) {
+      return NullDatum.get();
+    }
+
+    long word = keys[entryId * keyNum + keyIdx];
+    switch (keyTypes[keyIdx]) {
+    case INT4:
+      return DatumFactory.createInt4((int) word);
+    case INT8:
+      return DatumFactory.createInt8(word);
+    case DATE:
+      return DatumFactory.createDate((int) word);
+    case TEXT:
+      return DatumFactory.createText(Arrays.copyOfRange(arena, textOffset(word), textOffset(word) + textLength(word)));
+    default:
+      throw new IllegalStateException("Unsupported key type: " + keyTypes[keyIdx]);
+    }
+  }
+
+  /**
+   * @return the hash value of the given entry, which is equal to the hash value computed from the original tuple
+   */
+  public int getHash(int entryId) {
+    return hashes[entryId];
+  }
+
+  /**
+   * @return the approximate number of bytes occupied by this table excluding values
+   */
+  public long estimateMemorySize() {
+    return (long) buckets.length * SizeOf.SIZE_OF_INT
+        + (long) hashes.length * (SizeOf.SIZE_OF_INT + SizeOf.SIZE_OF_LONG * 2)
+        + (long) keys.length * SizeOf.SIZE_OF_LONG
+        + (arena != null ? arena.length : 0);
+  }
+
+  public void clear() {
+    Arrays.fill(buckets, EMPTY);
+    Arrays.fill(values, 0, size, null);
+    size = 0;
+    arenaUsed = 0;
+  }
+
+  /**
+   * Compute the hash value of the key columns of a tuple.
+   */
+  public int hash(Tuple tuple) {
+    int hash = 0;
+    for (int i = 0; i < keyNum; i++) {
+      final int fieldId = keyIds[i];
+      int fieldHash;
+      if (tuple.isBlankOrNull(fieldId)) {
+        fieldHash = NULL_HASH;
+      } else {
+        switch (keyTypes[i]) {
+        case INT4:
+        case DATE:
+          fieldHash = tuple.getInt4(fieldId);
+          break;
+        case INT8:
+          long longVal = tuple.getInt8(fieldId);
+          fieldHash = (int) (longVal ^ (longVal >>> 32));
+          break;
+        case TEXT:
+          fieldHash = hashBytes(tuple.getTextBytes(fieldId));
+          break;
+        default:
+          throw new IllegalStateException("Unsupported key type: " + keyTypes[i]);
+        }
+      }
+      hash = 31 * hash + fieldHash;
+    }
+    return mix(hash);
+  }
+
+  private boolean keyEquals(int entryId, Tuple tuple) {
+    final long nullFlag = nullFlags[entryId];
+    final int keyOffset = entryId * keyNum;
+
+    for (int i = 0; i < keyNum; i++) {
+      final int fieldId = keyIds[i];
+      final boolean isNull = tuple.isBlankOrNull(fieldId);
+      if (isNull != ((nullFlag & (1L << i)) != 0)) {
+        return false;
+      }
+      if (isNull) {
+        continue;
+      }
+
+      final long word = keys[keyOffset + i];
+      switch (keyTypes[i]) {
+      case INT4:
+      case DATE:
+        if ((int) word != tuple.getInt4(fieldId)) {
+          return false;
+        }
+        break;
+      case INT8:
+        if (word != tuple.getInt8(fieldId)) {
+          return false;
+        }
+        break;
+      case TEXT:
+        if (!arenaEquals(word, tuple.getTextBytes(fieldId))) {
+          return false;
+        }
+        break;
+      default:
+        throw new IllegalStateException("Unsupported key type: " + keyTypes[i]);
+      }
+    }
+    return true;
+  }
+
+  private boolean arenaEquals(long word, byte [] bytes) {
+    final int length = textLength(word);
+    if (length != bytes.length) {
+      return false;
+    }
+    final int offset = textOffset(word);
+    for (int i = 0; i < length; i++) {
+      if (arena[offset + i] != bytes[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private long appendToArena(byte [] bytes) {
+    if (arenaUsed + bytes.length > arena.length) {
+      long required = (long) arenaUsed + bytes.length;
+      if (required > Integer.MAX_VALUE - 8) {
+        throw new IllegalStateException("TEXT keys exceed the maximum capacity of PrimitiveKeyHashTable");
+      }
+      int newLength = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(required, (long) arena.length * 2));
+      arena = Arrays.copyOf(arena, newLength);
+    }
+    System.arraycopy(bytes, 0, arena, arenaUsed, bytes.length);
+    long word = ((long) arenaUsed << 32) | (bytes.length & 0xFFFFFFFFL);
+    arenaUsed += bytes.length;
+    return word;
+  }
+
+  private static int textOffset(long word) {
+    return (int) (word >>> 32);
+  }
+
+  private static int textLength(long word) {
+    return (int) word;
+  }
+
+  private void growEntries() {
+    int newCapacity = hashes.length * 2;
+    hashes = Arrays.copyOf(hashes, newCapacity);
+    nullFlags = Arrays.copyOf(nullFlags, newCapacity);
+    keys = Arrays.copyOf(keys, newCapacity * keyNum);
+    values = Arrays.copyOf(values, newCapacity);
+  }
+
+  private void rehash(int newBucketNum) {
+    buckets = new int[newBucketNum];
+    Arrays.fill(buckets, EMPTY);
+    bucketMask = newBucketNum - 1;
+
+    for (int entryId = 0; entryId < size; entryId++) {
+      int bucket = hashes[entryId] & bucketMask;
+      while (buckets[bucket] != EMPTY) {
+        bucket = (bucket + 1) & bucketMask;
+      }
+      buckets[bucket] = entryId;
+    }
+  }
+
+  private static int hashBytes(byte [] bytes) {
+    int hash = 1;
+    for (byte b : bytes) {
+      hash = 31 * hash + b;
+    }
+    return hash;
+  }
+
+  /**
+   * The finalization step of MurmurHash3. It spreads the low entropy of primitive values over all bits
+   * because the bucket index only takes the lower bits of hash values.
+   */
+  static int mix(int hash) {
+    hash ^= hash >>> 16;
+    hash *= 0x85ebca6b;
+    hash ^= hash >>> 13;
+    hash *= 0xc2b2ae35;
+    hash ^= hash >>> 16;
+    return hash;
+  }
+
+  private static int nextPowerOfTwo(int value) {
+    int highestOneBit = Integer.highestOneBit(value);
+    return highestOneBit == value ? value : highestOneBit << 1;
+  }
+}
@@ -21,18 +21,32 @@
  */
 package org.apache.tajo.engine.planner.physical;
 
+import org.apache.tajo.SessionVars;
+import org.apache.tajo.engine.codegen.CompilationError;
+import org.apache.tajo.engine.codegen.PipelineStage;
 import org.apache.tajo.engine.planner.Projector;
+import org.apache.tajo.engine.vector.VectorBatch;
+import org.apache.tajo.engine.vector.VectorizedProjector;
+import org.apache.tajo.plan.Target;
 import org.apache.tajo.plan.logical.Projectable;
+import org.apache.tajo.plan.util.PlannerUtil;
 import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.worker.TaskAttemptContext;
 
 import java.io.IOException;
 
-public class ProjectionExec extends UnaryPhysicalExec {
+public class ProjectionExec extends UnaryPhysicalExec implements VectorizedExec {
   private Projectable plan;
 
   // for projection
   private Projector projector;
+
+  // true if this projection is fused into the compiled pipeline of the child scan
+  private boolean fused = false;
+
+  // for vectorized execution
+  private VectorizedProjector vectorProjector;
+  private BatchTupleIterator batchIterator;
   
   public ProjectionExec(TaskAttemptContext context, Projectable plan,
       PhysicalExec child) {
@@ -43,11 +57,55 @@ public class ProjectionExec extends UnaryPhysicalExec {
   public void init() throws IOException {
     super.init();
 
-    this.projector = new Projector(context, inSchema, outSchema, this.plan.getTargets());
+    if (!fused) {
+      this.projector = new Projector(context, inSchema, outSchema, this.plan.getTargets());
+    }
+
+    if (PhysicalPlanUtil.isVectorizationEnabled(context.getQueryContext()) && PhysicalPlanUtil.isVectorized(child)) {
+      vectorProjector = VectorizedProjector.create(inSchema, outSchema, plan.getTargets(),
+          context.getQueryContext().getInt(SessionVars.VECTORIZED_BATCH_SIZE));
+      if (vectorProjector != null) {
+        batchIterator = new BatchTupleIterator(this, outSchema.size());
+      }
+    }
+  }
+
+  @Override
+  protected void compile() throws CompilationError {
+    Target [] targets = plan.getTargets() != null ? plan.getTargets() : PlannerUtil.schemaToTargets(outSchema);
+    SeqScanExec scanExec = PhysicalPlanUtil.findPipelineScan(child);
+    if (scanExec != null && scanExec.fuse(new PipelineStage(inSchema, null, targets))) {
+      fused = true;
+    }
+  }
+
+  /**
+   * @return True if the child scan evaluates this projection. Then, this executor just passes through its child.
+   */
+  public boolean isFused() {
+    return fused;
+  }
+
+  @Override
+  public boolean isVectorized() {
+    return vectorProjector != null;
+  }
+
+  @Override
+  public VectorBatch nextBatch() throws IOException {
+    VectorBatch batch = ((VectorizedExec) child).nextBatch();
+    return batch == null ? null : vectorProjector.project(batch);
   }
 
   @Override
   public Tuple next() throws IOException {
+    if (vectorProjector != null) {
+      return batchIterator.next();
+    }
+    if (fused) {
+      return child.next();
+    }
+
     Tuple tuple = child.next();
 
     if (tuple ==  null) {
@@ -59,6 +117,14 @@ public class ProjectionExec extends UnaryPhysicalExec {
     return outTuple;
   }
 
+  @Override
+  public void rescan() throws IOException {
+    super.rescan();
+    if (batchIterator != null) {
+      batchIterator.reset();
+    }
+  }
+
   @Override
   public void close() throws IOException{
     super.close();
@@ -0,0 +1,194 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.physical;
+
+import com.google.protobuf.ByteString;
+import org.apache.tajo.common.ProtoObject;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.exception.TajoInternalError;
+import org.apache.tajo.plan.serder.EvalNodeDeserializer;
+import org.apache.tajo.plan.serder.EvalNodeSerializer;
+import org.apache.tajo.plan.serder.PlanProto.RuntimeFilterProto;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.index.bloom.BloomFilter;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * A runtime filter summarizes the join keys of one join input, and it is used to filter out the rows of the other
+ * join input which cannot have any matching row. It consists of a bloom filter of the keys, and the min/max values
+ * of each key column. Rows with a null key are not added, because they never match in an inner join.
+ *
+ * The runtime filters of the tasks of an execution block are merged, so they have the same number of bits.
+ */
+public class RuntimeFilter implements ProtoObject<RuntimeFilterProto> {
+  private static final int HASH_FUNCTION_NUM = 3;
+  /** a bloom filter is dropped if its false positive probability is too high (0.5^3) to filter rows */
+  private static final double MAX_FILL_RATIO = 0.5;
+
+  private BloomFilter bloomFilter;
+  private final Datum [] minValues;
+  private final Datum [] maxValues;
+
+  public RuntimeFilter(int keyNum, int bloomBits) {
+    this.bloomFilter = new BloomFilter(bloomBits, HASH_FUNCTION_NUM);
+    this.minValues = new Datum[keyNum];
+    this.maxValues = new Datum[keyNum];
+    for (int i = 0; i < keyNum; i++) {
+      minValues[i] = NullDatum.get();
+      maxValues[i] = NullDatum.get();
+    }
+  }
+
+  public RuntimeFilter(RuntimeFilterProto proto) {
+    if (proto.hasBloomFilter()) {
+      try {
+        bloomFilter = BloomFilter.read(new DataInputStream(proto.getBloomFilter().newInput()));
+      } catch (IOException e) {
+        throw new TajoInternalError(e);
+      }
+    }
+    this.minValues = new Datum[proto.getMinValuesCount()];
+    this.maxValues = new Datum[proto.getMaxValuesCount()];
+    for (int i = 0; i < minValues.length; i++) {
+      minValues[i] = EvalNodeDeserializer.deserialize(proto.getMinValues(i));
+      maxValues[i] = EvalNodeDeserializer.deserialize(proto.getMaxValues(i));
+    }
+  }
+
+  public void add(Tuple tuple, int [] keyIds) {
+    for (int keyId : keyIds) {
+      if (tuple.isBlankOrNull(keyId)) {
+        return;
+      }
+    }
+
+    bloomFilter.add(BloomFilter.hash(tuple, keyIds));
+    for (int i = 0; i < keyIds.length; i++) {
+      Datum value = tuple.asDatum(keyIds[i]);
+      if (minValues[i].isNull() || value.compareTo(minValues[i]) < 0) {
+        minValues[i] = value;
+      }
+      if (maxValues[i].isNull() || value.compareTo(maxValues[i]) > 0) {
+        maxValues[i] = value;
+      }
+    }
+  }
+
+  /**
+   * @param keyIds The field ids of the keys in the tuple. A negative id means that the key is unknown, and then only
+   *               the ranges of the known keys are checked.
+   * @return False if the key of the tuple is definitely not added to this filter
+   */
+  public boolean mightContain(Tuple tuple, int [] keyIds) {
+    if (isEmpty()) {
+      return false;
+    }
+
+    boolean allKeysKnown = true;
+    for (int i = 0; i < keyIds.length; i++) {
+      if (keyIds[i] < 0) {
+        allKeysKnown = false;
+        continue;
+      }
+      if (tuple.isBlankOrNull(keyIds[i])) {
+        return false;
+      }
+
+      // the range is checked only for the values of the same type
+      Datum value = tuple.asDatum(keyIds[i]);
+      if (minValues[i].type() == value.type() &&
+          (value.compareTo(minValues[i]) < 0 || value.compareTo(maxValues[i]) > 0)) {
+        return false;
+      }
+    }
+
+    return !allKeysKnown || bloomFilter == null || bloomFilter.mightContain(BloomFilter.hash(tuple, keyIds));
+  }
+
+  public void merge(RuntimeFilter other) {
+    if (bloomFilter != null && other.bloomFilter != null) {
+      bloomFilter.merge(other.bloomFilter);
+    } else {
+      bloomFilter = null;
+    }
+
+    for (int i = 0; i < minValues.length; i++) {
+      if (minValues[i].isNull() || (!other.minValues[i].isNull() && other.minValues[i].compareTo(minValues[i]) < 0)) {
+        minValues[i] = other.minValues[i];
+      }
+      if (maxValues[i].isNull() || (!other.maxValues[i].isNull() && other.maxValues[i].compareTo(maxValues[i]) > 0)) {
+        maxValues[i] = other.maxValues[i];
+      }
+    }
+  }
+
+  /**
+   * Drop the bloom filter if too many keys are added to it. Then, only the min/max values are used.
+   */
+  public void dropSaturatedBloomFilter() {
+    if (bloomFilter != null && bloomFilter.getFillRatio() > MAX_FILL_RATIO) {
+      bloomFilter = null;
+    }
+  }
+
+  public boolean hasBloomFilter() {
+    return bloomFilter != null;
+  }
+
+  /**
+   * @return True if no key is added
+   */
+  public boolean isEmpty() {
+    return minValues.length > 0 && minValues[0].isNull();
+  }
+
+  @Override
+  public RuntimeFilterProto getProto() {
+    RuntimeFilterProto.Builder builder = RuntimeFilterProto.newBuilder();
+    if (bloomFilter != null) {
+      ByteString.Output out = ByteString.newOutput((int) (bloomFilter.getBitNum() / 8) + 8);
+      try {
+        DataOutputStream dataOut = new DataOutputStream(out);
+        bloomFilter.write(dataOut);
+        dataOut.flush();
+      } catch (IOException e) {
+        throw new TajoInternalError(e);
+      }
+      builder.setBloomFilter(out.toByteString());
+    }
+    for (int i = 0; i < minValues.length; i++) {
+      builder.addMinValues(EvalNodeSerializer.serialize(minValues[i]));
+      builder.addMaxValues(EvalNodeSerializer.serialize(maxValues[i]));
+    }
+    return builder.build();
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("bloom filter=").append(bloomFilter != null);
+    for (int i = 0; i < minValues.length; i++) {
+      sb.append(", range=[").append(minValues[i]).append(", ").append(maxValues[i]).append("]");
+    }
+    return sb.toString();
+  }
+}
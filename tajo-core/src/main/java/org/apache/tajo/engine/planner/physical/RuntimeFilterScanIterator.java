@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.tajo.storage.Tuple;
+
+import java.io.IOException;
+
+/**
+ * This iterator filters out the tuples of another iterator whose join keys cannot match any row of the other
+ * join input.
+ */
+public class RuntimeFilterScanIterator implements ScanIterator {
+  private final ScanIterator child;
+  private final RuntimeFilter filter;
+  private final int [] keyIds;
+  private Tuple currentTuple;
+
+  public RuntimeFilterScanIterator(ScanIterator child, RuntimeFilter filter, int [] keyIds) {
+    this.child = child;
+    this.filter = filter;
+    this.keyIds = keyIds;
+  }
+
+  @Override
+  public boolean hasNext() throws IOException {
+    while (child.hasNext()) {
+      currentTuple = child.next();
+      if (filter.mightContain(currentTuple, keyIds)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  @Override
+  public Tuple next() {
+    return currentTuple;
+  }
+}
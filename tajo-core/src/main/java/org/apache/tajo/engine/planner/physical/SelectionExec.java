@@ -18,37 +18,97 @@
 
 package org.apache.tajo.engine.planner.physical;
 
+import org.apache.tajo.common.TajoDataTypes.Type;
 import org.apache.tajo.engine.codegen.CompilationError;
+import org.apache.tajo.engine.codegen.PipelineStage;
+import org.apache.tajo.engine.vector.VectorBatch;
+import org.apache.tajo.engine.vector.VectorExpression;
+import org.apache.tajo.engine.vector.VectorExpressionBuilder;
+import org.apache.tajo.engine.vector.VectorFilter;
 import org.apache.tajo.plan.expr.EvalNode;
 import org.apache.tajo.plan.logical.SelectionNode;
+import org.apache.tajo.plan.util.PlannerUtil;
 import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.worker.TaskAttemptContext;
 
 import java.io.IOException;
 
-public class SelectionExec extends UnaryPhysicalExec  {
+public class SelectionExec extends UnaryPhysicalExec implements VectorizedExec {
   private EvalNode qual;
+  private final EvalNode originalQual;
+
+  // true if this selection is fused into the compiled pipeline of the child scan
+  private boolean fused = false;
+
+  // for vectorized execution
+  private VectorFilter vectorFilter;
+  private BatchTupleIterator batchIterator;
 
   public SelectionExec(TaskAttemptContext context,
                        SelectionNode plan,
                        PhysicalExec child) {
     super(context, plan.getInSchema(), plan.getOutSchema(), child);
     this.qual = plan.getQual();
+    this.originalQual = qual;
   }
 
   @Override
   public void init() throws IOException {
     super.init();
     qual.bind(context.getEvalContext(), inSchema);
+
+    if (PhysicalPlanUtil.isVectorizationEnabled(context.getQueryContext()) && PhysicalPlanUtil.isVectorized(child)) {
+      VectorExpression expr = VectorExpressionBuilder.build(originalQual, inSchema);
+      if (expr != null && expr.getResultType() == Type.BOOLEAN) {
+        vectorFilter = new VectorFilter(expr);
+        batchIterator = new BatchTupleIterator(this, outSchema.size());
+      }
+    }
   }
 
   @Override
   public void compile() throws CompilationError {
-    qual = context.getPrecompiledEval(inSchema, qual);
+    SeqScanExec scanExec = PhysicalPlanUtil.findPipelineScan(child);
+    if (scanExec != null &&
+        scanExec.fuse(new PipelineStage(inSchema, originalQual, PlannerUtil.schemaToTargets(outSchema)))) {
+      fused = true;
+    } else {
+      qual = context.getPrecompiledEval(inSchema, qual);
+    }
+  }
+
+  /**
+   * @return True if the child scan evaluates this selection. Then, this executor just passes through its child.
+   */
+  public boolean isFused() {
+    return fused;
+  }
+
+  @Override
+  public boolean isVectorized() {
+    return vectorFilter != null;
+  }
+
+  @Override
+  public VectorBatch nextBatch() throws IOException {
+    VectorBatch batch;
+    while (!context.isStopped() && (batch = ((VectorizedExec) child).nextBatch()) != null) {
+      if (vectorFilter.filter(batch) > 0) {
+        return batch;
+      }
+    }
+    return null;
   }
 
   @Override
   public Tuple next() throws IOException {
+    if (vectorFilter != null) {
+      return batchIterator.next();
+    }
+    if (fused) {
+      return child.next();
+    }
+
     Tuple tuple;
     while (!context.isStopped() && (tuple = child.next()) != null) {
       if (qual.eval(tuple).isTrue()) {
@@ -58,4 +118,12 @@ public class SelectionExec extends UnaryPhysicalExec  {
 
     return null;
   }
+
+  @Override
+  public void rescan() throws IOException {
+    super.rescan();
+    if (batchIterator != null) {
+      batchIterator.reset();
+    }
+  }
 }
@@ -19,14 +19,20 @@
 package org.apache.tajo.engine.planner.physical;
 
 import org.apache.hadoop.io.IOUtils;
+import org.apache.tajo.SessionVars;
 import org.apache.tajo.catalog.*;
 import org.apache.tajo.catalog.partition.PartitionMethodDesc;
 import org.apache.tajo.catalog.proto.CatalogProtos;
 import org.apache.tajo.catalog.statistics.TableStats;
+import org.apache.tajo.common.TajoDataTypes.Type;
 import org.apache.tajo.datum.Datum;
 import org.apache.tajo.datum.NullDatum;
 import org.apache.tajo.engine.codegen.CompilationError;
+import org.apache.tajo.engine.codegen.CompiledPipeline;
+import org.apache.tajo.engine.codegen.PipelineStage;
 import org.apache.tajo.engine.planner.Projector;
+import org.apache.tajo.engine.planner.enforce.Enforcer;
+import org.apache.tajo.engine.vector.*;
 import org.apache.tajo.plan.Target;
 import org.apache.tajo.plan.expr.ConstEval;
 import org.apache.tajo.plan.expr.EvalNode;
@@ -34,18 +40,23 @@ import org.apache.tajo.plan.expr.EvalTreeUtil;
 import org.apache.tajo.plan.expr.FieldEval;
 import org.apache.tajo.plan.logical.ScanNode;
 import org.apache.tajo.plan.rewrite.rules.PartitionedTableRewriter;
+import org.apache.tajo.plan.serder.PlanProto.EnforceProperty;
+import org.apache.tajo.plan.serder.PlanProto.EnforceProperty.EnforceType;
+import org.apache.tajo.plan.serder.PlanProto.RuntimeFilterEnforce;
+import org.apache.tajo.plan.util.PlannerUtil;
 import org.apache.tajo.storage.*;
 import org.apache.tajo.storage.fragment.FileFragment;
 import org.apache.tajo.storage.fragment.FragmentConvertor;
 import org.apache.tajo.worker.TaskAttemptContext;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 
-public class SeqScanExec extends ScanExec {
+public class SeqScanExec extends ScanExec implements VectorizedExec {
   private ScanNode plan;
 
   private Scanner scanner = null;
@@ -61,6 +72,23 @@ public class SeqScanExec extends ScanExec {
   // scanner iterator with filter or without filter
   private ScanIterator scanIt;
 
+  // the filter of the join keys of the other join input, which is given by the query master
+  private RuntimeFilter runtimeFilter;
+  private int [] runtimeFilterKeyIds;
+
+  // for vectorized execution
+  private boolean vectorized = false;
+  private VectorBatch inBatch;
+  private VectorFilter vectorFilter;
+  private VectorizedProjector vectorProjector;
+  private BatchTupleIterator batchIterator;
+
+  // for the fused execution of this scan and its parent selections and projections
+  private Schema actualInSchema;
+  private List<PipelineStage> pipelineStages;
+  private CompiledPipeline pipeline;
+  private Tuple pipelineOutTuple;
+
   public SeqScanExec(TaskAttemptContext context, ScanNode plan,
                      CatalogProtos.FragmentProto [] fragments) throws IOException {
     super(context, plan.getInSchema(), plan.getOutSchema());
@@ -167,7 +195,11 @@ public class SeqScanExec extends ScanExec {
 
   private void initScanIterator() {
     // We should use FilterScanIterator only if underlying storage does not support filter push down.
-    if (plan.hasQual() && !scanner.isSelectable()) {
+    if (vectorFilter != null) {
+      // the filter is evaluated for each batch
+      scanIt = new FullScanIterator(scanner);
+
+    } else if (plan.hasQual() && !scanner.isSelectable()) {
       scanIt = new FilterScanIterator(scanner, qual);
 
     } else {
@@ -176,6 +208,38 @@ public class SeqScanExec extends ScanExec {
       }
       scanIt = new FullScanIterator(scanner);
     }
+    scanIt = withRuntimeFilter(scanIt);
+  }
+
+  private ScanIterator withRuntimeFilter(ScanIterator it) {
+    return runtimeFilter != null ? new RuntimeFilterScanIterator(it, runtimeFilter, runtimeFilterKeyIds) : it;
+  }
+
+  /**
+   * Find the runtime filter of this scan. It is applied right after the scanner and the filter of this scan, so the
+   * rows which cannot be joined are neither projected nor shuffled.
+   */
+  private void initRuntimeFilter(Schema actualInSchema) {
+    Enforcer enforcer = context.getEnforcer();
+    if (enforcer == null || !enforcer.hasEnforceProperty(EnforceType.RUNTIME_FILTER)) {
+      return;
+    }
+
+    for (EnforceProperty property : enforcer.getEnforceProperties(EnforceType.RUNTIME_FILTER)) {
+      RuntimeFilterEnforce filterEnforce = property.getRuntimeFilter();
+      if (!getCanonicalName().equals(filterEnforce.getTableName())) {
+        continue;
+      }
+
+      // the keys of partition columns are not in the input tuples, and their partitions are pruned beforehand.
+      int [] keyIds = new int[filterEnforce.getKeysCount()];
+      for (int i = 0; i < keyIds.length; i++) {
+        keyIds[i] = actualInSchema.getColumnId(new Column(filterEnforce.getKeys(i)).getQualifiedName());
+      }
+      runtimeFilter = new RuntimeFilter(filterEnforce.getFilter());
+      runtimeFilterKeyIds = keyIds;
+      return;
+    }
   }
 
   @Override
@@ -196,7 +260,7 @@ public class SeqScanExec extends ScanExec {
       // If projectable, the retrieved tuple will contain only projected fields.
       // Otherwise, the retrieved tuple will contain projected fields and NullDatum
       // for non-projected fields.
-      Schema actualInSchema = scanner.isProjectable() ? projectedFields : inSchema;
+      actualInSchema = scanner.isProjectable() ? projectedFields : inSchema;
 
       this.projector = new Projector(context, actualInSchema, outSchema, plan.getTargets());
 
@@ -204,12 +268,75 @@ public class SeqScanExec extends ScanExec {
         qual.bind(context.getEvalContext(), actualInSchema);
       }
 
+      initRuntimeFilter(actualInSchema);
+
+      if (PhysicalPlanUtil.isVectorizationEnabled(context.getQueryContext())) {
+        initVectorization(actualInSchema, projectedFields);
+      }
+
       initScanIterator();
     }
 
     super.init();
   }
 
+  /**
+   * Enable vectorized execution if all projected columns, the filter and the targets can be vectorized.
+   */
+  private void initVectorization(Schema actualInSchema, Schema projectedFields) {
+    int [] columnIds = new int[projectedFields.size()];
+    for (int i = 0; i < columnIds.length; i++) {
+      Column column = projectedFields.getColumn(i);
+      columnIds[i] = actualInSchema.getColumnId(column.getQualifiedName());
+      if (columnIds[i] < 0 || !ColumnVector.isSupported(column.getDataType().getType())) {
+        return;
+      }
+    }
+
+    VectorFilter filter = null;
+    if (plan.hasQual() && !scanner.isSelectable()) {
+      VectorExpression expr = VectorExpressionBuilder.build(qual, actualInSchema);
+      if (expr == null || expr.getResultType() != Type.BOOLEAN) {
+        return;
+      }
+      filter = new VectorFilter(expr);
+    }
+
+    int capacity = context.getQueryContext().getInt(SessionVars.VECTORIZED_BATCH_SIZE);
+    VectorizedProjector projector = VectorizedProjector.create(actualInSchema, outSchema, plan.getTargets(), capacity);
+    if (projector == null) {
+      return;
+    }
+
+    this.inBatch = new VectorBatch(actualInSchema, capacity, columnIds);
+    this.vectorFilter = filter;
+    this.vectorProjector = projector;
+    this.batchIterator = new BatchTupleIterator(this, outSchema.size());
+    this.vectorized = true;
+  }
+
+  @Override
+  public boolean isVectorized() {
+    return vectorized;
+  }
+
+  @Override
+  public VectorBatch nextBatch() throws IOException {
+    while (true) {
+      inBatch.reset();
+      while (!inBatch.isFull() && scanIt.hasNext()) {
+        inBatch.addRow(scanIt.next());
+      }
+
+      if (inBatch.size() == 0) {
+        return null;
+      }
+      if (vectorFilter == null || vectorFilter.filter(inBatch) > 0) {
+        return vectorProjector.project(inBatch);
+      }
+    }
+  }
+
   @Override
   public ScanNode getScanNode() {
     return plan;
@@ -220,6 +347,95 @@ public class SeqScanExec extends ScanExec {
     if (plan.hasQual()) {
       qual = context.getPrecompiledEval(inSchema, qual);
     }
+
+    // The filter and the targets of this scan become the first stage of a compiled pipeline.
+    if (fragments != null && !vectorized) {
+      EvalNode stageQual = plan.hasQual() && !scanner.isSelectable() ? plan.getQual() : null;
+      Target [] targets = plan.hasTargets() ? plan.getTargets() : PlannerUtil.schemaToTargets(outSchema);
+
+      List<PipelineStage> stages = new ArrayList<PipelineStage>();
+      stages.add(new PipelineStage(actualInSchema, stageQual, targets));
+      if (context.canFusePipeline(stages)) {
+        pipelineStages = stages;
+        // the filter is evaluated by the pipeline
+        scanIt = withRuntimeFilter(new FullScanIterator(scanner));
+      }
+    }
+  }
+
+  /**
+   * Fuses a parent operator into the pipeline of this scan. If it succeeds, this scan returns the output tuples
+   * of the parent operator, and the parent operator should pass through them. The pipeline is compiled once
+   * when the first tuple is requested, after all parent operators are fused.
+   *
+   * @param stage The filter and the targets of the parent operator
+   * @return True if the stage is fused.
+   */
+  public boolean fuse(PipelineStage stage) {
+    if (pipelineStages == null) {
+      return false;
+    }
+
+    List<PipelineStage> stages = new ArrayList<PipelineStage>(pipelineStages);
+    stages.add(stage);
+    if (context.canFusePipeline(stages)) {
+      pipelineStages = stages;
+      return true;
+    }
+    return false;
+  }
+
+  private void compilePipeline() {
+    pipeline = context.compilePipeline(pipelineStages);
+    if (pipeline == null) {
+      pipeline = new StagedPipeline(context, pipelineStages);
+    }
+    pipelineOutTuple = new VTuple(pipelineStages.get(pipelineStages.size() - 1).getTargets().length);
+  }
+
+  /**
+   * It evaluates the fused stages one by one through the evals of each operator. It is used if the generated class
+   * of the stages cannot be instantiated, because the parent operators already pass through the output of this scan.
+   */
+  private static class StagedPipeline extends CompiledPipeline {
+    private final EvalNode [] quals;
+    private final Projector [] projectors;
+
+    StagedPipeline(TaskAttemptContext context, List<PipelineStage> stages) {
+      quals = new EvalNode[stages.size()];
+      projectors = new Projector[stages.size()];
+      for (int i = 0; i < stages.size(); i++) {
+        PipelineStage stage = stages.get(i);
+        if (stage.hasQual()) {
+          quals[i] = context.getPrecompiledEval(stage.getInSchema(), stage.getQual());
+          quals[i].bind(context.getEvalContext(), stage.getInSchema());
+        }
+        projectors[i] = new Projector(context, stage.getInSchema(), null, stage.getTargets());
+      }
+    }
+
+    @Override
+    public boolean process(Tuple in, Tuple out) {
+      Tuple current = in;
+      for (int i = 0; i < projectors.length; i++) {
+        if (quals[i] != null && !quals[i].eval(current).isTrue()) {
+          return false;
+        }
+        current = projectors[i].eval(current);
+      }
+
+      for (int i = 0; i < out.size(); i++) {
+        out.put(i, current.asDatum(i));
+      }
+      return true;
+    }
+  }
+
+  /**
+   * @return True if the scan evaluates tuples through a compiled pipeline
+   */
+  public boolean isPipelineCompiled() {
+    return pipelineStages != null;
   }
 
   private void initScanner(Schema projected) throws IOException {
@@ -250,6 +466,23 @@ public class SeqScanExec extends ScanExec {
 
   @Override
   public Tuple next() throws IOException {
+    if (vectorized) {
+      return batchIterator.next();
+    }
+
+    if (pipelineStages != null) {
+      if (pipeline == null) {
+        compilePipeline();
+      }
+      while (scanIt.hasNext()) {
+        Tuple t = scanIt.next();
+        if (pipeline.process(t, pipelineOutTuple)) {
+          pipelineOutTuple.setOffset(t.getOffset());
+          return pipelineOutTuple;
+        }
+      }
+      return null;
+    }
 
     while(scanIt.hasNext()) {
       Tuple t = scanIt.next();
@@ -264,6 +497,9 @@ public class SeqScanExec extends ScanExec {
   @Override
   public void rescan() throws IOException {
     scanner.reset();
+    if (vectorized) {
+      batchIterator.reset();
+    }
   }
 
   @Override
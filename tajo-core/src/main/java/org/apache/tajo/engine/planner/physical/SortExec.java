@@ -41,6 +41,9 @@ public abstract class SortExec extends UnaryPhysicalExec {
 
   protected TupleSorter getSorter(TupleList tupleSlots) {
     if (!tupleSlots.isEmpty() && ComparableVector.isVectorizable(sortSpecs)) {
+      if (tupleSlots.size() >= NormalizedKeySorter.MIN_SORT_SIZE) {
+        return new NormalizedKeySorter(tupleSlots, sortSpecs, comparator.getSortKeyIds());
+      }
       return new VectorizedSorter(tupleSlots, sortSpecs, comparator.getSortKeyIds());
     }
     return new TupleSorter.DefaultSorter(tupleSlots, comparator);
@@ -26,21 +26,25 @@ import org.apache.tajo.catalog.CatalogUtil;
 import org.apache.tajo.catalog.Column;
 import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.catalog.SortSpec;
+import org.apache.tajo.catalog.proto.CatalogProtos.IndexMethod;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.exception.TajoInternalError;
 import org.apache.tajo.plan.logical.CreateIndexNode;
 import org.apache.tajo.plan.util.PlannerUtil;
 import org.apache.tajo.storage.*;
+import org.apache.tajo.storage.index.IndexWriter;
+import org.apache.tajo.storage.index.bloom.BloomFilterIndex;
 import org.apache.tajo.storage.index.bst.BSTIndex;
 import org.apache.tajo.storage.index.bst.BSTIndex.BSTIndexWriter;
 import org.apache.tajo.worker.TaskAttemptContext;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.Arrays;
 
 public class StoreIndexExec extends UnaryPhysicalExec {
   private static final Log LOG = LogFactory.getLog(StoreIndexExec.class);
-  private BSTIndexWriter indexWriter;
+  private IndexWriter indexWriter;
   private final CreateIndexNode logicalPlan;
   private int[] indexKeys = null;
   private Schema keySchema;
@@ -76,11 +80,23 @@ public class StoreIndexExec extends UnaryPhysicalExec {
     Path indexPath = new Path(logicalPlan.getIndexPath().toString(),
         IndexExecutorUtil.getIndexFileName(scanExec.getFragments()[0]));
     // TODO: Create factory using reflection
-    BSTIndex bst = new BSTIndex(conf);
-    this.comparator = new BaseTupleComparator(keySchema, sortSpecs);
-    this.indexWriter = bst.getIndexWriter(indexPath, BSTIndex.TWO_LEVEL_INDEX, keySchema, comparator);
-    this.indexWriter.setLoadNum(100);
-    this.indexWriter.open();
+    if (logicalPlan.getIndexMethod() == IndexMethod.BLOOM) {
+      double fpp = BloomFilterIndex.DEFAULT_FPP;
+      if (logicalPlan.hasOptions() && logicalPlan.getOptions().containsKey(BloomFilterIndex.FPP)) {
+        fpp = Double.parseDouble(logicalPlan.getOptions().get(BloomFilterIndex.FPP));
+      }
+      BloomFilterIndex.BloomFilterIndexWriter bloomWriter =
+          new BloomFilterIndex(conf).getIndexWriter(indexPath, keySchema, fpp);
+      bloomWriter.open();
+      this.indexWriter = bloomWriter;
+    } else {
+      BSTIndex bst = new BSTIndex(conf);
+      this.comparator = new BaseTupleComparator(keySchema, sortSpecs);
+      BSTIndexWriter bstWriter = bst.getIndexWriter(indexPath, BSTIndex.TWO_LEVEL_INDEX, keySchema, comparator);
+      bstWriter.setLoadNum(100);
+      bstWriter.open();
+      this.indexWriter = bstWriter;
+    }
   }
 
   @Override
@@ -102,8 +118,10 @@ public class StoreIndexExec extends UnaryPhysicalExec {
   public void close() throws IOException {
     super.close();
 
-    indexWriter.flush();
-    IOUtils.cleanup(LOG, indexWriter);
+    if (indexWriter instanceof BSTIndexWriter) {
+      ((BSTIndexWriter) indexWriter).flush();
+    }
+    IOUtils.cleanup(LOG, (Closeable) indexWriter);
 
     indexWriter = null;
   }
@@ -39,6 +39,13 @@ public class TupleList extends ArrayList<Tuple> {
 
   @Override
   public boolean add(Tuple tuple) {
-    return super.add(new VTuple(tuple));
+    return super.add(copy(tuple));
+  }
+
+  /**
+   * @return A copy of the tuple which is kept in this list
+   */
+  protected Tuple copy(Tuple tuple) {
+    return new VTuple(tuple);
   }
 }
@@ -0,0 +1,42 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.tajo.engine.vector.VectorBatch;
+
+import java.io.IOException;
+
+/**
+ * A physical executor which can return rows as {@link VectorBatch}es.
+ * If {@link #isVectorized()} is false, only the row-at-a-time {@link PhysicalExec#next()} is available.
+ */
+public interface VectorizedExec {
+
+  /**
+   * @return True if {@link #nextBatch()} is available. It is valid after init().
+   */
+  boolean isVectorized();
+
+  /**
+   * @return the next batch having at least one selected row, or null if there are no more rows.
+   * The returned batch is valid until the next call.
+   */
+  VectorBatch nextBatch() throws IOException;
+}
@@ -33,7 +33,7 @@ import java.util.Iterator;
  */
 public class VectorizedSorter extends ComparableVector implements IndexedSortable, TupleSorter {
 
-  private final int[] mappings;         // index indirection
+  protected final int[] mappings;       // index indirection
 
   public VectorizedSorter(TupleList source, SortSpec[] sortKeys, int[] keyIndex) {
     super(source.size(), sortKeys, keyIndex);
@@ -62,6 +62,13 @@ public class VectorizedSorter extends ComparableVector implements IndexedSortabl
   @Override
   public Iterable<Tuple> sort() {
     new QuickSort().sort(this, 0, mappings.length);
+    return sorted();
+  }
+
+  /**
+   * @return Tuples in the order of mappings
+   */
+  protected Iterable<Tuple> sorted() {
     return new Iterable<Tuple>() {
       @Override
       public Iterator<Tuple> iterator() {
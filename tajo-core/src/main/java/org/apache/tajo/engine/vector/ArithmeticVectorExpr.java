@@ -0,0 +1,137 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.vector;
+
+import org.apache.tajo.SessionVars;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.plan.expr.EvalType;
+
+/**
+ * Vectorized arithmetic operators (+, -, *, /, %) of BinaryEval.
+ * A division or a modular by zero is delegated to Datum in order to follow {@link SessionVars#ARITHABORT}.
+ */
+public class ArithmeticVectorExpr extends VectorExpression {
+  private final EvalType op;
+  private final VectorExpression left;
+  private final VectorExpression right;
+
+  /**
+   * @param resultType INT4 for int arithmetic, INT8 for long arithmetic, or FLOAT8 for double arithmetic
+   */
+  public ArithmeticVectorExpr(EvalType op, Type resultType, VectorExpression left, VectorExpression right) {
+    super(resultType);
+    this.op = op;
+    this.left = left;
+    this.right = right;
+  }
+
+  @Override
+  public ColumnVector evaluate(VectorBatch batch) {
+    ColumnVector lhs = left.evaluate(batch);
+    ColumnVector rhs = right.evaluate(batch);
+    ColumnVector result = getResultVector(batch);
+    boolean noNulls = lhs.noNulls() && rhs.noNulls();
+
+    int selectedNum = batch.getSelectedNum();
+    for (int i = 0; i < selectedNum; i++) {
+      int rowId = batch.getRowId(i);
+      if (!noNulls && (lhs.isNull(rowId) || rhs.isNull(rowId))) {
+        result.setNull(rowId);
+        continue;
+      }
+
+      if (resultType == Type.FLOAT8) {
+        double l = getDouble(lhs, rowId);
+        double r = getDouble(rhs, rowId);
+        if ((op == EvalType.DIVIDE || op == EvalType.MODULAR) && r == 0) {
+          divideByZero(result, rowId);
+        } else {
+          ((DoubleColumnVector) result).values[rowId] = calculate(l, r);
+        }
+      } else {
+        long l = ((LongColumnVector) lhs).values[rowId];
+        long r = ((LongColumnVector) rhs).values[rowId];
+        if ((op == EvalType.DIVIDE || op == EvalType.MODULAR) && r == 0) {
+          divideByZero(result, rowId);
+        } else if (resultType == Type.INT4) {
+          ((LongColumnVector) result).values[rowId] = calculate((int) l, (int) r);
+        } else {
+          ((LongColumnVector) result).values[rowId] = calculate(l, r);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * It throws ArithmeticException if ARITHABORT is enabled. Otherwise, the result is null.
+   */
+  private void divideByZero(ColumnVector result, int rowId) {
+    Datum zero = DatumFactory.createInt4(0);
+    result.put(rowId, op == EvalType.DIVIDE ? zero.divide(zero) : zero.modular(zero));
+  }
+
+  private int calculate(int l, int r) {
+    switch (op) {
+    case PLUS:
+      return l + r;
+    case MINUS:
+      return l - r;
+    case MULTIPLY:
+      return l * r;
+    case DIVIDE:
+      return l / r;
+    default:
+      return l % r;
+    }
+  }
+
+  private long calculate(long l, long r) {
+    switch (op) {
+    case PLUS:
+      return l + r;
+    case MINUS:
+      return l - r;
+    case MULTIPLY:
+      return l * r;
+    case DIVIDE:
+      return l / r;
+    default:
+      return l % r;
+    }
+  }
+
+  private double calculate(double l, double r) {
+    switch (op) {
+    case PLUS:
+      return l + r;
+    case MINUS:
+      return l - r;
+    case MULTIPLY:
+      return l * r;
+    case DIVIDE:
+      return l / r;
+    default:
+      return l % r;
+    }
+  }
+}
@@ -0,0 +1,52 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.vector;
+
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.storage.Tuple;
+
+/**
+ * A column vector for TEXT type. Each value is kept as a byte array.
+ */
+public class BytesColumnVector extends ColumnVector {
+  public final byte [][] values;
+
+  public BytesColumnVector(Type type, int capacity) {
+    super(type, capacity);
+    values = new byte[capacity][];
+  }
+
+  @Override
+  protected void putValue(int rowId, Tuple tuple, int fieldId) {
+    values[rowId] = tuple.getBytes(fieldId);
+  }
+
+  @Override
+  protected void putValue(int rowId, Datum datum) {
+    values[rowId] = datum.asByteArray();
+  }
+
+  @Override
+  protected Datum getValue(int rowId) {
+    return DatumFactory.createText(values[rowId]);
+  }
+}
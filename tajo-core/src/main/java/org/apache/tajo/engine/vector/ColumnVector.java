@@ -0,0 +1,157 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.vector;
+
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.storage.Tuple;
+
+import java.util.Arrays;
+
+/**
+ * ColumnVector keeps the values of a column for all rows of a {@link VectorBatch} in a primitive array.
+ * Null values are marked in a bitmap.
+ */
+public abstract class ColumnVector {
+  protected final Type type;
+  protected final int capacity;
+  /** the bitmap of null values. The i-th bit is set if the i-th value is null. */
+  private final long [] nulls;
+  private boolean noNulls = true;
+
+  public ColumnVector(Type type, int capacity) {
+    this.type = type;
+    this.capacity = capacity;
+    this.nulls = new long[(capacity + Long.SIZE - 1) / Long.SIZE];
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  public int capacity() {
+    return capacity;
+  }
+
+  public boolean isNull(int rowId) {
+    return !noNulls && (nulls[rowId >>> 6] & (1L << rowId)) != 0;
+  }
+
+  public void setNull(int rowId) {
+    nulls[rowId >>> 6] |= 1L << rowId;
+    noNulls = false;
+  }
+
+  public void setNotNull(int rowId) {
+    if (!noNulls) {
+      nulls[rowId >>> 6] &= ~(1L << rowId);
+    }
+  }
+
+  /**
+   * @return True if no value is null. If false, some values may be null.
+   */
+  public boolean noNulls() {
+    return noNulls;
+  }
+
+  public void reset() {
+    if (!noNulls) {
+      Arrays.fill(nulls, 0);
+      noNulls = true;
+    }
+  }
+
+  /**
+   * Read a field of a tuple into the given row.
+   */
+  public void put(int rowId, Tuple tuple, int fieldId) {
+    if (tuple.isBlankOrNull(fieldId)) {
+      setNull(rowId);
+    } else {
+      setNotNull(rowId);
+      putValue(rowId, tuple, fieldId);
+    }
+  }
+
+  /**
+   * Put a non-null datum into the given row.
+   */
+  public void put(int rowId, Datum datum) {
+    if (datum.isNull()) {
+      setNull(rowId);
+    } else {
+      setNotNull(rowId);
+      putValue(rowId, datum);
+    }
+  }
+
+  public Datum get(int rowId) {
+    if (isNull(rowId)) {
+      return NullDatum.get();
+    } else {
+      return getValue(rowId);
+    }
+  }
+
+  protected abstract void putValue(int rowId, Tuple tuple, int fieldId);
+
+  protected abstract void putValue(int rowId, Datum datum);
+
+  protected abstract Datum getValue(int rowId);
+
+  /**
+   * @return True if the values of the given type can be kept in a column vector.
+   */
+  public static boolean isSupported(Type type) {
+    switch (type) {
+    case BOOLEAN:
+    case INT2:
+    case INT4:
+    case INT8:
+    case DATE:
+    case FLOAT4:
+    case FLOAT8:
+    case TEXT:
+      return true;
+    default:
+      return false;
+    }
+  }
+
+  public static ColumnVector create(Type type, int capacity) {
+    switch (type) {
+    case BOOLEAN:
+    case INT2:
+    case INT4:
+    case INT8:
+    case DATE:
+      return new LongColumnVector(type, capacity);
+    case FLOAT4:
+    case FLOAT8:
+      return new DoubleColumnVector(type, capacity);
+    case TEXT:
+      return new BytesColumnVector(type, capacity);
+    default:
+      throw new UnsupportedOperationException("Unsupported type for column vector: " + type);
+    }
+  }
+}
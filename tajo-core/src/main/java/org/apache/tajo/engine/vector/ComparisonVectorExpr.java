@@ -0,0 +1,107 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.vector;
+
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.TextDatum;
+import org.apache.tajo.plan.expr.EvalType;
+
+/**
+ * Vectorized comparison operators (=, <>, <, <=, >, >=) of BinaryEval.
+ * The semantics follow the compareTo() methods of Datum types.
+ */
+public class ComparisonVectorExpr extends VectorExpression {
+
+  /** how the values of both operands are compared */
+  public enum Kind {
+    LONG,
+    DOUBLE,
+    BYTES
+  }
+
+  private final EvalType op;
+  private final Kind kind;
+  private final VectorExpression left;
+  private final VectorExpression right;
+
+  public ComparisonVectorExpr(EvalType op, Kind kind, VectorExpression left, VectorExpression right) {
+    super(Type.BOOLEAN);
+    this.op = op;
+    this.kind = kind;
+    this.left = left;
+    this.right = right;
+  }
+
+  @Override
+  public ColumnVector evaluate(VectorBatch batch) {
+    ColumnVector lhs = left.evaluate(batch);
+    ColumnVector rhs = right.evaluate(batch);
+    LongColumnVector result = (LongColumnVector) getResultVector(batch);
+    long [] out = result.values;
+    boolean noNulls = lhs.noNulls() && rhs.noNulls();
+
+    int selectedNum = batch.getSelectedNum();
+    for (int i = 0; i < selectedNum; i++) {
+      int rowId = batch.getRowId(i);
+      if (!noNulls && (lhs.isNull(rowId) || rhs.isNull(rowId))) {
+        result.setNull(rowId);
+        continue;
+      }
+
+      int cmp;
+      switch (kind) {
+      case LONG: {
+        long l = ((LongColumnVector) lhs).values[rowId];
+        long r = ((LongColumnVector) rhs).values[rowId];
+        cmp = l < r ? -1 : (l > r ? 1 : 0);
+        break;
+      }
+      case DOUBLE: {
+        double l = getDouble(lhs, rowId);
+        double r = getDouble(rhs, rowId);
+        cmp = l < r ? -1 : (l > r ? 1 : 0);
+        break;
+      }
+      default:
+        cmp = TextDatum.COMPARATOR.compare(((BytesColumnVector) lhs).values[rowId],
+            ((BytesColumnVector) rhs).values[rowId]);
+      }
+      out[rowId] = test(cmp) ? 1 : 0;
+    }
+    return result;
+  }
+
+  private boolean test(int cmp) {
+    switch (op) {
+    case EQUAL:
+      return cmp == 0;
+    case NOT_EQUAL:
+      return cmp != 0;
+    case LTH:
+      return cmp < 0;
+    case LEQ:
+      return cmp <= 0;
+    case GTH:
+      return cmp > 0;
+    default:
+      return cmp >= 0;
+    }
+  }
+}
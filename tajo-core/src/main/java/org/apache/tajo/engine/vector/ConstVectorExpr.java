@@ -0,0 +1,46 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.vector;
+
+import org.apache.tajo.datum.Datum;
+
+/**
+ * Vectorized ConstEval. The result vector is filled only once because it is never changed.
+ */
+public class ConstVectorExpr extends VectorExpression {
+  private final Datum value;
+  private ColumnVector vector;
+
+  public ConstVectorExpr(Datum value) {
+    super(value.type());
+    this.value = value;
+  }
+
+  @Override
+  public ColumnVector evaluate(VectorBatch batch) {
+    if (vector == null || vector.capacity() < batch.capacity()) {
+      vector = ColumnVector.create(resultType, batch.capacity());
+      for (int i = 0; i < vector.capacity(); i++) {
+        vector.put(i, value);
+      }
+    }
+    return vector;
+  }
+}
@@ -0,0 +1,64 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.vector;
+
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.storage.Tuple;
+
+/**
+ * A column vector for FLOAT4 and FLOAT8 types.
+ */
+public class DoubleColumnVector extends ColumnVector {
+  public final double [] values;
+
+  public DoubleColumnVector(Type type, int capacity) {
+    super(type, capacity);
+    values = new double[capacity];
+  }
+
+  @Override
+  protected void putValue(int rowId, Tuple tuple, int fieldId) {
+    if (type == Type.FLOAT4) {
+      values[rowId] = tuple.getFloat4(fieldId);
+    } else {
+      values[rowId] = tuple.getFloat8(fieldId);
+    }
+  }
+
+  @Override
+  protected void putValue(int rowId, Datum datum) {
+    if (type == Type.FLOAT4) {
+      values[rowId] = datum.asFloat4();
+    } else {
+      values[rowId] = datum.asFloat8();
+    }
+  }
+
+  @Override
+  protected Datum getValue(int rowId) {
+    if (type == Type.FLOAT4) {
+      return DatumFactory.createFloat4((float) values[rowId]);
+    } else {
+      return DatumFactory.createFloat8(values[rowId]);
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.vector;
+
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Vectorized InEval. Null values in the value set are ignored because they never match any value.
+ */
+public class InVectorExpr extends VectorExpression {
+  private final VectorExpression left;
+  private final boolean not;
+  /** sorted values for integral types */
+  private long [] longValues;
+  private Set<ByteBuffer> bytesValues;
+
+  public InVectorExpr(VectorExpression left, Datum [] values, boolean not) {
+    super(Type.BOOLEAN);
+    this.left = left;
+    this.not = not;
+
+    if (left.getResultType() == Type.TEXT) {
+      bytesValues = new HashSet<ByteBuffer>();
+      for (Datum value : values) {
+        if (!value.isNull()) {
+          bytesValues.add(ByteBuffer.wrap(value.asByteArray()));
+        }
+      }
+    } else {
+      long [] buffer = new long[values.length];
+      int num = 0;
+      for (Datum value : values) {
+        if (!value.isNull()) {
+          buffer[num++] = value.asInt8();
+        }
+      }
+      longValues = Arrays.copyOf(buffer, num);
+      Arrays.sort(longValues);
+    }
+  }
+
+  @Override
+  public ColumnVector evaluate(VectorBatch batch) {
+    ColumnVector lhs = left.evaluate(batch);
+    LongColumnVector result = (LongColumnVector) getResultVector(batch);
+
+    int selectedNum = batch.getSelectedNum();
+    for (int i = 0; i < selectedNum; i++) {
+      int rowId = batch.getRowId(i);
+      if (lhs.isNull(rowId)) {
+        result.setNull(rowId);
+        continue;
+      }
+
+      boolean contains;
+      if (longValues != null) {
+        contains = Arrays.binarySearch(longValues, ((LongColumnVector) lhs).values[rowId]) >= 0;
+      } else {
+        contains = bytesValues.contains(ByteBuffer.wrap(((BytesColumnVector) lhs).values[rowId]));
+      }
+      result.values[rowId] = not ^ contains ? 1 : 0;
+    }
+    return result;
+  }
+}
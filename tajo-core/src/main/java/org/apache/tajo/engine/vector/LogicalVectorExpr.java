@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.vector;
+
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.plan.expr.EvalType;
+
+/**
+ * Vectorized AND, OR and NOT operators. They follow the three-valued logic of BooleanDatum.
+ */
+public class LogicalVectorExpr extends VectorExpression {
+  private final EvalType op;
+  private final VectorExpression left;
+  /** It is null for NOT. */
+  private final VectorExpression right;
+
+  public LogicalVectorExpr(EvalType op, VectorExpression left, VectorExpression right) {
+    super(Type.BOOLEAN);
+    this.op = op;
+    this.left = left;
+    this.right = right;
+  }
+
+  @Override
+  public ColumnVector evaluate(VectorBatch batch) {
+    LongColumnVector lhs = (LongColumnVector) left.evaluate(batch);
+    LongColumnVector rhs = right == null ? null : (LongColumnVector) right.evaluate(batch);
+    LongColumnVector result = (LongColumnVector) getResultVector(batch);
+
+    int selectedNum = batch.getSelectedNum();
+    for (int i = 0; i < selectedNum; i++) {
+      int rowId = batch.getRowId(i);
+      boolean lNull = lhs.isNull(rowId);
+      long l = lhs.values[rowId];
+
+      if (op == EvalType.NOT) {
+        if (lNull) {
+          result.setNull(rowId);
+        } else {
+          result.values[rowId] = l ^ 1;
+        }
+        continue;
+      }
+
+      boolean rNull = rhs.isNull(rowId);
+      long r = rhs.values[rowId];
+      // a non-null value which decides the result regardless of the other operand
+      long dominant = op == EvalType.AND ? 0 : 1;
+      if ((!lNull && l == dominant) || (!rNull && r == dominant)) {
+        result.values[rowId] = dominant;
+      } else if (lNull || rNull) {
+        result.setNull(rowId);
+      } else {
+        result.values[rowId] = dominant ^ 1;
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.vector;
+
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.storage.Tuple;
+
+/**
+ * A column vector for BOOLEAN, INT2, INT4, INT8 and DATE types.
+ * BOOLEAN values are stored as 0 or 1, and DATE values are stored as julian days.
+ */
+public class LongColumnVector extends ColumnVector {
+  public final long [] values;
+
+  public LongColumnVector(Type type, int capacity) {
+    super(type, capacity);
+    values = new long[capacity];
+  }
+
+  @Override
+  protected void putValue(int rowId, Tuple tuple, int fieldId) {
+    switch (type) {
+    case BOOLEAN:
+      values[rowId] = tuple.getBool(fieldId) ? 1 : 0;
+      break;
+    case INT2:
+      values[rowId] = tuple.getInt2(fieldId);
+      break;
+    case INT4:
+      values[rowId] = tuple.getInt4(fieldId);
+      break;
+    case DATE:
+      values[rowId] = tuple.asDatum(fieldId).asInt4();
+      break;
+    default:
+      values[rowId] = tuple.getInt8(fieldId);
+    }
+  }
+
+  @Override
+  protected void putValue(int rowId, Datum datum) {
+    switch (type) {
+    case BOOLEAN:
+      values[rowId] = datum.asBool() ? 1 : 0;
+      break;
+    case INT2:
+      values[rowId] = datum.asInt2();
+      break;
+    case INT4:
+    case DATE:
+      values[rowId] = datum.asInt4();
+      break;
+    default:
+      values[rowId] = datum.asInt8();
+    }
+  }
+
+  @Override
+  protected Datum getValue(int rowId) {
+    switch (type) {
+    case BOOLEAN:
+      return DatumFactory.createBool(values[rowId] != 0);
+    case INT2:
+      return DatumFactory.createInt2((short) values[rowId]);
+    case INT4:
+      return DatumFactory.createInt4((int) values[rowId]);
+    case DATE:
+      return DatumFactory.createDate((int) values[rowId]);
+    default:
+      return DatumFactory.createInt8(values[rowId]);
+    }
+  }
+}
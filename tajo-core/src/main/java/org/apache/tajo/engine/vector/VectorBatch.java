@@ -0,0 +1,183 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.vector;
+
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.storage.Tuple;
+
+/**
+ * VectorBatch is a block of rows kept in a columnar form. It is the unit of batch-at-a-time execution.
+ *
+ * Rows filtered out are not removed from column vectors. Instead, the ids of the rows which are still valid are kept
+ * in a selection vector. All vectorized operations process only the selected rows.
+ */
+public class VectorBatch {
+  public static final int DEFAULT_CAPACITY = 1024;
+
+  private final Schema schema;
+  private final int capacity;
+  private final ColumnVector [] vectors;
+  /** the number of rows including filtered rows */
+  private int size;
+  /** the ids of the selected rows in ascending order. It is meaningful only if selectionInUse is true. */
+  private int [] selected;
+  private int selectedNum;
+  private boolean selectionInUse;
+  private long [] offsets;
+
+  /**
+   * Create a batch which has its own column vectors.
+   *
+   * @param schema the schema of rows
+   * @param capacity the maximum number of rows
+   * @param columnIds the ids of columns whose vectors are allocated. If null, all columns are allocated.
+   */
+  public VectorBatch(Schema schema, int capacity, int [] columnIds) {
+    this.schema = schema;
+    this.capacity = capacity;
+    this.vectors = new ColumnVector[schema.size()];
+    if (columnIds == null) {
+      for (int i = 0; i < vectors.length; i++) {
+        vectors[i] = ColumnVector.create(schema.getColumn(i).getDataType().getType(), capacity);
+      }
+    } else {
+      for (int columnId : columnIds) {
+        vectors[columnId] = ColumnVector.create(schema.getColumn(columnId).getDataType().getType(), capacity);
+      }
+    }
+    this.offsets = new long[capacity];
+  }
+
+  /**
+   * Create a batch whose column vectors are set by {@link #setVector(int, ColumnVector)}.
+   */
+  public VectorBatch(Schema schema, int capacity) {
+    this.schema = schema;
+    this.capacity = capacity;
+    this.vectors = new ColumnVector[schema.size()];
+  }
+
+  public Schema getSchema() {
+    return schema;
+  }
+
+  public int capacity() {
+    return capacity;
+  }
+
+  public ColumnVector getVector(int columnId) {
+    return vectors[columnId];
+  }
+
+  public void setVector(int columnId, ColumnVector vector) {
+    vectors[columnId] = vector;
+  }
+
+  /**
+   * @return the number of rows including filtered rows
+   */
+  public int size() {
+    return size;
+  }
+
+  public boolean isFull() {
+    return size == capacity;
+  }
+
+  public boolean isSelectionInUse() {
+    return selectionInUse;
+  }
+
+  public int [] getSelected() {
+    return selected;
+  }
+
+  /**
+   * @return the number of selected rows
+   */
+  public int getSelectedNum() {
+    return selectionInUse ? selectedNum : size;
+  }
+
+  /**
+   * @param i the index among selected rows
+   * @return the row id of the i-th selected row
+   */
+  public int getRowId(int i) {
+    return selectionInUse ? selected[i] : i;
+  }
+
+  /**
+   * Narrow the selected rows down. The given ids must be a subset of the current selected rows.
+   */
+  public void setSelected(int [] selected, int selectedNum) {
+    this.selected = selected;
+    this.selectedNum = selectedNum;
+    this.selectionInUse = true;
+  }
+
+  public long getOffset(int rowId) {
+    return offsets[rowId];
+  }
+
+  public void reset() {
+    size = 0;
+    selectedNum = 0;
+    selectionInUse = false;
+    for (ColumnVector vector : vectors) {
+      if (vector != null) {
+        vector.reset();
+      }
+    }
+  }
+
+  /**
+   * Append a row. Only the fields whose column vectors are allocated are read.
+   */
+  public void addRow(Tuple tuple) {
+    for (int i = 0; i < vectors.length; i++) {
+      if (vectors[i] != null) {
+        vectors[i].put(size, tuple, i);
+      }
+    }
+    offsets[size++] = tuple.getOffset();
+  }
+
+  /**
+   * Share the rows and the selection of the given batch. Column vectors are not changed.
+   */
+  public void shareRows(VectorBatch batch) {
+    this.size = batch.size;
+    this.selected = batch.selected;
+    this.selectedNum = batch.selectedNum;
+    this.selectionInUse = batch.selectionInUse;
+    this.offsets = batch.offsets;
+  }
+
+  /**
+   * Materialize a row into the given tuple.
+   */
+  public void getRow(int rowId, Tuple tuple) {
+    for (int i = 0; i < vectors.length; i++) {
+      tuple.put(i, vectors[i].get(rowId));
+    }
+    tuple.setOffset(offsets[rowId]);
+  }
+}
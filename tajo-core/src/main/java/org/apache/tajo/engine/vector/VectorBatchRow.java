@@ -0,0 +1,244 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.vector;
+
+import org.apache.tajo.common.TajoDataTypes;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.util.datetime.TimeMeta;
+
+/**
+ * A read-only tuple view of a row in a {@link VectorBatch}.
+ * Primitive getters read column vectors directly without creating any Datum.
+ */
+public class VectorBatchRow implements Tuple {
+  private VectorBatch batch;
+  private int rowId;
+
+  public void set(VectorBatch batch, int rowId) {
+    this.batch = batch;
+    this.rowId = rowId;
+  }
+
+  public void setRowId(int rowId) {
+    this.rowId = rowId;
+  }
+
+  @Override
+  public int size() {
+    return batch.getSchema().size();
+  }
+
+  @Override
+  public boolean contains(int fieldid) {
+    return batch.getVector(fieldid) != null;
+  }
+
+  @Override
+  public boolean isBlank(int fieldid) {
+    return batch.getVector(fieldid) == null;
+  }
+
+  @Override
+  public boolean isBlankOrNull(int fieldid) {
+    ColumnVector vector = batch.getVector(fieldid);
+    return vector == null || vector.isNull(rowId);
+  }
+
+  @Override
+  public void put(int fieldId, Tuple tuple) {
+    throw new UnsupportedOperationException("put");
+  }
+
+  @Override
+  public void put(int fieldId, Datum value) {
+    throw new UnsupportedOperationException("put");
+  }
+
+  @Override
+  public void put(Datum[] values) {
+    throw new UnsupportedOperationException("put");
+  }
+
+  @Override
+  public void clear() {
+    throw new UnsupportedOperationException("clear");
+  }
+
+  @Override
+  public Datum asDatum(int fieldId) {
+    ColumnVector vector = batch.getVector(fieldId);
+    return vector == null ? NullDatum.get() : vector.get(rowId);
+  }
+
+  @Override
+  public TajoDataTypes.Type type(int fieldId) {
+    return batch.getVector(fieldId).getType();
+  }
+
+  @Override
+  public int size(int fieldId) {
+    return asDatum(fieldId).size();
+  }
+
+  @Override
+  public void clearOffset() {
+    throw new UnsupportedOperationException("clearOffset");
+  }
+
+  @Override
+  public void setOffset(long offset) {
+    throw new UnsupportedOperationException("setOffset");
+  }
+
+  @Override
+  public long getOffset() {
+    return batch.getOffset(rowId);
+  }
+
+  @Override
+  public boolean getBool(int fieldId) {
+    ColumnVector vector = batch.getVector(fieldId);
+    if (vector.getType() == Type.BOOLEAN) {
+      return ((LongColumnVector) vector).values[rowId] != 0;
+    }
+    return asDatum(fieldId).asBool();
+  }
+
+  @Override
+  public byte getByte(int fieldId) {
+    return asDatum(fieldId).asByte();
+  }
+
+  @Override
+  public char getChar(int fieldId) {
+    return asDatum(fieldId).asChar();
+  }
+
+  @Override
+  public byte[] getBytes(int fieldId) {
+    ColumnVector vector = batch.getVector(fieldId);
+    if (vector instanceof BytesColumnVector) {
+      return ((BytesColumnVector) vector).values[rowId];
+    }
+    return asDatum(fieldId).asByteArray();
+  }
+
+  @Override
+  public byte[] getTextBytes(int fieldId) {
+    ColumnVector vector = batch.getVector(fieldId);
+    if (vector instanceof BytesColumnVector) {
+      return ((BytesColumnVector) vector).values[rowId];
+    }
+    return asDatum(fieldId).asTextBytes();
+  }
+
+  @Override
+  public short getInt2(int fieldId) {
+    ColumnVector vector = batch.getVector(fieldId);
+    if (vector.getType() == Type.INT2) {
+      return (short) ((LongColumnVector) vector).values[rowId];
+    }
+    return asDatum(fieldId).asInt2();
+  }
+
+  @Override
+  public int getInt4(int fieldId) {
+    ColumnVector vector = batch.getVector(fieldId);
+    if (vector.getType() == Type.INT4 || vector.getType() == Type.DATE) {
+      return (int) ((LongColumnVector) vector).values[rowId];
+    }
+    return asDatum(fieldId).asInt4();
+  }
+
+  @Override
+  public long getInt8(int fieldId) {
+    ColumnVector vector = batch.getVector(fieldId);
+    if (vector.getType() == Type.INT8 || vector.getType() == Type.INT4 || vector.getType() == Type.DATE) {
+      return ((LongColumnVector) vector).values[rowId];
+    }
+    return asDatum(fieldId).asInt8();
+  }
+
+  @Override
+  public float getFloat4(int fieldId) {
+    ColumnVector vector = batch.getVector(fieldId);
+    if (vector.getType() == Type.FLOAT4) {
+      return (float) ((DoubleColumnVector) vector).values[rowId];
+    }
+    return asDatum(fieldId).asFloat4();
+  }
+
+  @Override
+  public double getFloat8(int fieldId) {
+    ColumnVector vector = batch.getVector(fieldId);
+    if (vector.getType() == Type.FLOAT8) {
+      return ((DoubleColumnVector) vector).values[rowId];
+    }
+    return asDatum(fieldId).asFloat8();
+  }
+
+  @Override
+  public String getText(int fieldId) {
+    return asDatum(fieldId).asChars();
+  }
+
+  @Override
+  public TimeMeta getTimeDate(int fieldId) {
+    return asDatum(fieldId).asTimeMeta();
+  }
+
+  @Override
+  public Datum getProtobufDatum(int fieldId) {
+    return asDatum(fieldId);
+  }
+
+  @Override
+  public Datum getInterval(int fieldId) {
+    return asDatum(fieldId);
+  }
+
+  @Override
+  public char[] getUnicodeChars(int fieldId) {
+    return asDatum(fieldId).asUnicodeChars();
+  }
+
+  @Override
+  public Tuple clone() throws CloneNotSupportedException {
+    return new VTuple(getValues());
+  }
+
+  @Override
+  public Datum[] getValues() {
+    Datum [] values = new Datum[size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = asDatum(i);
+    }
+    return values;
+  }
+
+  @Override
+  public String toString() {
+    return VTuple.toDisplayString(getValues());
+  }
+}
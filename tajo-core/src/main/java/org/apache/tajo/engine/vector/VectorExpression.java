@@ -0,0 +1,73 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.vector;
+
+import org.apache.tajo.common.TajoDataTypes.Type;
+
+/**
+ * VectorExpression is the vectorized form of an EvalNode. It evaluates an expression for all selected rows of
+ * a {@link VectorBatch} at once, and returns the results as a column vector.
+ * Boolean results are represented as a {@link LongColumnVector} of 0 or 1.
+ *
+ * Vector expressions are created by {@link VectorExpressionBuilder}.
+ */
+public abstract class VectorExpression {
+  protected final Type resultType;
+  private ColumnVector result;
+
+  public VectorExpression(Type resultType) {
+    this.resultType = resultType;
+  }
+
+  public Type getResultType() {
+    return resultType;
+  }
+
+  /**
+   * Evaluate this expression for the selected rows of the given batch.
+   * The values of unselected rows in the result vector are undefined.
+   *
+   * @return the result vector. It is valid until the next call of evaluate().
+   */
+  public abstract ColumnVector evaluate(VectorBatch batch);
+
+  /**
+   * @return the result vector which is reused across batches
+   */
+  protected ColumnVector getResultVector(VectorBatch batch) {
+    if (result == null || result.capacity() < batch.capacity()) {
+      result = ColumnVector.create(resultType, batch.capacity());
+    } else {
+      result.reset();
+    }
+    return result;
+  }
+
+  /**
+   * Read a value of an integral or a floating point vector as double.
+   */
+  protected static double getDouble(ColumnVector vector, int rowId) {
+    if (vector instanceof DoubleColumnVector) {
+      return ((DoubleColumnVector) vector).values[rowId];
+    } else {
+      return ((LongColumnVector) vector).values[rowId];
+    }
+  }
+}
@@ -0,0 +1,191 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.vector;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.engine.vector.ComparisonVectorExpr.Kind;
+import org.apache.tajo.plan.expr.*;
+
+/**
+ * VectorExpressionBuilder converts an EvalNode tree into a {@link VectorExpression}.
+ *
+ * Only FieldEval, ConstEval, InEval, NotEval and BinaryEval (AND, OR, comparisons and arithmetic) are supported.
+ * If an EvalNode tree contains any other EvalNode or any value type which cannot be vectorized,
+ * the caller should use the EvalNode tree in the row-at-a-time way.
+ */
+public class VectorExpressionBuilder {
+
+  /**
+   * @param eval EvalNode tree
+   * @param schema the schema of input batches
+   * @return a vector expression, or null if the EvalNode tree cannot be vectorized.
+   */
+  public static VectorExpression build(EvalNode eval, Schema schema) {
+    switch (eval.getType()) {
+    case FIELD:
+      return buildField((FieldEval) eval, schema);
+
+    case CONST: {
+      Datum value = ((ConstEval) eval).getValue();
+      return ColumnVector.isSupported(value.type()) ? new ConstVectorExpr(value) : null;
+    }
+
+    case AND:
+    case OR: {
+      VectorExpression left = buildBoolean(((BinaryEval) eval).getLeftExpr(), schema);
+      VectorExpression right = buildBoolean(((BinaryEval) eval).getRightExpr(), schema);
+      return left == null || right == null ? null : new LogicalVectorExpr(eval.getType(), left, right);
+    }
+
+    case NOT: {
+      VectorExpression child = buildBoolean(((NotEval) eval).getChild(), schema);
+      return child == null ? null : new LogicalVectorExpr(EvalType.NOT, child, null);
+    }
+
+    case EQUAL:
+    case NOT_EQUAL:
+    case LTH:
+    case LEQ:
+    case GTH:
+    case GEQ:
+      return buildComparison((BinaryEval) eval, schema);
+
+    case PLUS:
+    case MINUS:
+    case MULTIPLY:
+    case DIVIDE:
+    case MODULAR:
+      return buildArithmetic((BinaryEval) eval, schema);
+
+    case IN:
+      return buildIn((InEval) eval, schema);
+
+    default:
+      return null;
+    }
+  }
+
+  private static VectorExpression buildField(FieldEval field, Schema schema) {
+    Column column = field.getColumnRef();
+    int columnId;
+    if (column.hasQualifier()) {
+      columnId = schema.getColumnId(column.getQualifiedName());
+    } else {
+      columnId = schema.getColumnIdByName(column.getSimpleName());
+    }
+    if (columnId < 0) {
+      return null;
+    }
+
+    Type type = schema.getColumn(columnId).getDataType().getType();
+    return ColumnVector.isSupported(type) ? new FieldVectorExpr(type, columnId) : null;
+  }
+
+  private static VectorExpression buildBoolean(EvalNode eval, Schema schema) {
+    VectorExpression expr = build(eval, schema);
+    return expr != null && expr.getResultType() == Type.BOOLEAN ? expr : null;
+  }
+
+  private static VectorExpression buildComparison(BinaryEval eval, Schema schema) {
+    VectorExpression left = build(eval.getLeftExpr(), schema);
+    VectorExpression right = build(eval.getRightExpr(), schema);
+    if (left == null || right == null) {
+      return null;
+    }
+
+    Type lType = left.getResultType();
+    Type rType = right.getResultType();
+    Kind kind;
+    if (isIntegral(lType) && isIntegral(rType)) {
+      kind = Kind.LONG;
+    } else if (lType == Type.DATE && rType == Type.DATE) {
+      kind = Kind.LONG;
+    } else if (isFloat(lType) && isFloat(rType)) {
+      kind = Kind.DOUBLE;
+    } else if ((lType == Type.FLOAT8 && isIntegral(rType)) || (isIntegral(lType) && rType == Type.FLOAT8)) {
+      kind = Kind.DOUBLE;
+    } else if (lType == Type.TEXT && rType == Type.TEXT) {
+      kind = Kind.BYTES;
+    } else {
+      return null;
+    }
+    return new ComparisonVectorExpr(eval.getType(), kind, left, right);
+  }
+
+  private static VectorExpression buildArithmetic(BinaryEval eval, Schema schema) {
+    VectorExpression left = build(eval.getLeftExpr(), schema);
+    VectorExpression right = build(eval.getRightExpr(), schema);
+    if (left == null || right == null) {
+      return null;
+    }
+
+    Type lType = left.getResultType();
+    Type rType = right.getResultType();
+    Type resultType;
+    if (lType == Type.INT4 && rType == Type.INT4) {
+      resultType = Type.INT4;
+    } else if ((lType == Type.INT4 || lType == Type.INT8) && (rType == Type.INT4 || rType == Type.INT8)) {
+      resultType = Type.INT8;
+    } else if ((lType == Type.FLOAT8 && (rType == Type.INT4 || rType == Type.INT8 || rType == Type.FLOAT8)) ||
+        (rType == Type.FLOAT8 && (lType == Type.INT4 || lType == Type.INT8))) {
+      resultType = Type.FLOAT8;
+    } else {
+      return null;
+    }
+
+    // the result type must be the same as the one of the row-at-a-time evaluation
+    if (eval.getValueType().getType() != resultType) {
+      return null;
+    }
+    return new ArithmeticVectorExpr(eval.getType(), resultType, left, right);
+  }
+
+  private static VectorExpression buildIn(InEval eval, Schema schema) {
+    VectorExpression left = build(eval.getLeftExpr(), schema);
+    if (left == null || !(eval.getRightExpr() instanceof ValueSetEval)) {
+      return null;
+    }
+
+    Type type = left.getResultType();
+    if (!isIntegral(type) && type != Type.DATE && type != Type.TEXT) {
+      return null;
+    }
+
+    // Datum.equals() is false for different types. So, only the same type is allowed.
+    Datum [] values = ((ValueSetEval) eval.getRightExpr()).getValues();
+    for (Datum value : values) {
+      if (!value.isNull() && value.type() != type) {
+        return null;
+      }
+    }
+    return new InVectorExpr(left, values, eval.isNot());
+  }
+
+  private static boolean isIntegral(Type type) {
+    return type == Type.INT2 || type == Type.INT4 || type == Type.INT8;
+  }
+
+  private static boolean isFloat(Type type) {
+    return type == Type.FLOAT4 || type == Type.FLOAT8;
+  }
+}
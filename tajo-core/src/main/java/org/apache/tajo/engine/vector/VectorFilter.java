@@ -0,0 +1,55 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.vector;
+
+/**
+ * VectorFilter narrows the selected rows of a batch down to the rows where a boolean vector expression is true.
+ */
+public class VectorFilter {
+  private final VectorExpression qual;
+  private int [] selected;
+
+  public VectorFilter(VectorExpression qual) {
+    this.qual = qual;
+  }
+
+  /**
+   * @return the number of selected rows after filtering
+   */
+  public int filter(VectorBatch batch) {
+    LongColumnVector result = (LongColumnVector) qual.evaluate(batch);
+    if (selected == null || selected.length < batch.capacity()) {
+      selected = new int[batch.capacity()];
+    }
+
+    int selectedNum = batch.getSelectedNum();
+    int newSelectedNum = 0;
+    for (int i = 0; i < selectedNum; i++) {
+      int rowId = batch.getRowId(i);
+      if (result.values[rowId] != 0 && !result.isNull(rowId)) {
+        selected[newSelectedNum++] = rowId;
+      }
+    }
+
+    // The selection array of the batch is not overwritten because it may be shared with its input batch.
+    batch.setSelected(selected, newSelectedNum);
+    return newSelectedNum;
+  }
+}
@@ -0,0 +1,67 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.vector;
+
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.plan.Target;
+import org.apache.tajo.plan.util.PlannerUtil;
+
+/**
+ * The vectorized form of {@link org.apache.tajo.engine.planner.Projector}.
+ */
+public class VectorizedProjector {
+  private final VectorExpression [] exprs;
+  private final VectorBatch outBatch;
+
+  private VectorizedProjector(VectorExpression [] exprs, Schema outSchema, int capacity) {
+    this.exprs = exprs;
+    this.outBatch = new VectorBatch(outSchema, capacity);
+  }
+
+  /**
+   * @return a vectorized projector, or null if any target cannot be vectorized.
+   */
+  public static VectorizedProjector create(Schema inSchema, Schema outSchema, Target [] targets, int capacity) {
+    Target [] realTargets = targets == null ? PlannerUtil.schemaToTargets(outSchema) : targets;
+    if (realTargets.length != outSchema.size()) {
+      return null;
+    }
+
+    VectorExpression [] exprs = new VectorExpression[realTargets.length];
+    for (int i = 0; i < realTargets.length; i++) {
+      exprs[i] = VectorExpressionBuilder.build(realTargets[i].getEvalTree(), inSchema);
+      if (exprs[i] == null || exprs[i].getResultType() != outSchema.getColumn(i).getDataType().getType()) {
+        return null;
+      }
+    }
+    return new VectorizedProjector(exprs, outSchema, capacity);
+  }
+
+  /**
+   * @return the projected batch. It shares the rows and the selection of the input batch.
+   */
+  public VectorBatch project(VectorBatch in) {
+    outBatch.shareRows(in);
+    for (int i = 0; i < exprs.length; i++) {
+      outBatch.setVector(i, exprs[i].evaluate(in));
+    }
+    return outBatch;
+  }
+}
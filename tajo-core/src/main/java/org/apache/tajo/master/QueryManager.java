@@ -33,10 +33,12 @@ import org.apache.tajo.ResourceProtos;
 import org.apache.tajo.ResourceProtos.AllocationResourceProto;
 import org.apache.tajo.ResourceProtos.TajoHeartbeatRequest;
 import org.apache.tajo.ResourceProtos.TajoHeartbeatResponse;
+import org.apache.tajo.SessionVars;
 import org.apache.tajo.TajoProtos;
 import org.apache.tajo.catalog.TableDesc;
 import org.apache.tajo.engine.query.QueryContext;
 import org.apache.tajo.master.cluster.WorkerConnectionInfo;
+import org.apache.tajo.master.exec.QueryResultCache;
 import org.apache.tajo.master.scheduler.QuerySchedulingInfo;
 import org.apache.tajo.plan.logical.LogicalRootNode;
 import org.apache.tajo.querymaster.QueryJobEvent;
@@ -206,17 +208,37 @@ public class QueryManager extends CompositeService {
   public QueryInfo scheduleQuery(Session session, QueryContext queryContext, String sql,
                                  String jsonExpr, LogicalRootNode plan)
       throws Exception {
+    return scheduleQuery(session, queryContext, sql, jsonExpr, plan, null);
+  }
+
+  /**
+   * submit query to scheduler. If the cache key is given, the result of the query is cached when it succeeds.
+   */
+  public QueryInfo scheduleQuery(Session session, QueryContext queryContext, String sql,
+                                 String jsonExpr, LogicalRootNode plan, QueryResultCache.Key cacheKey)
+      throws Exception {
     QueryId queryId = QueryIdFactory.newQueryId(masterContext.getResourceManager().getSeedQueryId());
     QueryInProgress queryInProgress = new QueryInProgress(masterContext, session, queryContext, queryId, sql,
         jsonExpr, plan);
 
-    queryInProgress.getQueryInfo().setQueryMaster(EMPTY_QM_HOSTNAME);
-    submittedQueries.put(queryInProgress.getQueryId(), queryInProgress);
-    //TODO implement scheduler queue
-    QuerySchedulingInfo querySchedulingInfo = new QuerySchedulingInfo("default", queryContext.getUser(),
-        queryInProgress.getQueryId(), 1, queryInProgress.getQueryInfo().getStartTime());
+    // the key is added before the submission, because the query may finish before this method returns
+    if (cacheKey != null) {
+      masterContext.getQueryResultCache().addPendingQuery(queryId, cacheKey);
+    }
+
+    try {
+      queryInProgress.getQueryInfo().setQueryMaster(EMPTY_QM_HOSTNAME);
+      submittedQueries.put(queryInProgress.getQueryId(), queryInProgress);
+      QuerySchedulingInfo querySchedulingInfo = new QuerySchedulingInfo(queryContext.get(SessionVars.QUERY_QUEUE),
+          queryContext.getUser(), queryInProgress.getQueryId(), 1, queryInProgress.getQueryInfo().getStartTime());
 
-    masterContext.getResourceManager().submitQuery(querySchedulingInfo);
+      masterContext.getResourceManager().submitQuery(querySchedulingInfo);
+    } catch (Exception e) {
+      if (cacheKey != null) {
+        masterContext.getQueryResultCache().removePendingQuery(queryId);
+      }
+      throw e;
+    }
     return queryInProgress.getQueryInfo();
   }
 
@@ -284,6 +306,7 @@ public class QueryManager extends CompositeService {
 
       submittedQueries.remove(queryId);
       runningQueries.remove(queryId);
+      masterContext.getQueryResultCache().queryFinished(queryInfo);
 
       long executionTime = queryInfo.getFinishTime() - queryInfo.getStartTime();
       if (executionTime < minExecutionTime.get()) {
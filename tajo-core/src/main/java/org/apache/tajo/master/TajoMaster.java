@@ -44,9 +44,13 @@ import org.apache.tajo.conf.TajoConf.ConfVars;
 import org.apache.tajo.engine.function.FunctionLoader;
 import org.apache.tajo.exception.DuplicateTablespaceException;
 import org.apache.tajo.function.FunctionSignature;
+import org.apache.tajo.master.exec.QueryResultCache;
 import org.apache.tajo.master.rm.TajoResourceManager;
+import org.apache.tajo.master.scheduler.FairScheduler;
 import org.apache.tajo.metrics.ClusterResourceMetricSet;
 import org.apache.tajo.metrics.Master;
+import org.apache.tajo.metrics.QueryResultCacheMetricSet;
+import org.apache.tajo.metrics.SchedulerQueueMetricSet;
 import org.apache.tajo.rpc.RpcChannelFactory;
 import org.apache.tajo.rpc.RpcClientManager;
 import org.apache.tajo.rpc.RpcConstants;
@@ -114,6 +118,7 @@ public class TajoMaster extends CompositeService {
   private CatalogServer catalogServer;
   private CatalogService catalog;
   private GlobalEngine globalEngine;
+  private QueryResultCache queryResultCache;
   private AsyncDispatcher dispatcher;
   private TajoMasterClientService tajoMasterClientService;
   private QueryCoordinatorService tajoMasterService;
@@ -188,6 +193,9 @@ public class TajoMaster extends CompositeService {
     sessionManager = new SessionManager(dispatcher);
     addIfService(sessionManager);
 
+    queryResultCache = new QueryResultCache(systemConf, sessionManager);
+    catalogServer.addChangeListener(queryResultCache);
+
     globalEngine = new GlobalEngine(context);
     addIfService(globalEngine);
 
@@ -231,6 +239,11 @@ public class TajoMaster extends CompositeService {
     });
 
     systemMetrics.register(Master.Cluster.class, new ClusterResourceMetricSet(context));
+    systemMetrics.register(Master.ResultCache.class, new QueryResultCacheMetricSet(context));
+    if (resourceManager.getScheduler() instanceof FairScheduler) {
+      systemMetrics.register(Master.SchedulerQueue.class,
+          new SchedulerQueueMetricSet((FairScheduler) resourceManager.getScheduler()));
+    }
   }
 
   private void initResourceManager() throws Exception {
@@ -465,6 +478,10 @@ public class TajoMaster extends CompositeService {
       return globalEngine;
     }
 
+    public QueryResultCache getQueryResultCache() {
+      return queryResultCache;
+    }
+
     public QueryCoordinatorService getTajoMasterService() {
       return tajoMasterService;
     }
@@ -19,7 +19,6 @@
 package org.apache.tajo.master;
 
 import com.google.common.base.Preconditions;
-import com.google.protobuf.ByteString;
 import com.google.protobuf.RpcController;
 import com.google.protobuf.ServiceException;
 import org.apache.commons.logging.Log;
@@ -43,6 +42,7 @@ import org.apache.tajo.exception.QueryNotFoundException;
 import org.apache.tajo.exception.ReturnStateUtil;
 import org.apache.tajo.exception.UnavailableTableLocationException;
 import org.apache.tajo.exception.UndefinedDatabaseException;
+import org.apache.tajo.exception.UnsupportedException;
 import org.apache.tajo.ipc.ClientProtos;
 import org.apache.tajo.ipc.ClientProtos.*;
 import org.apache.tajo.ipc.TajoMasterClientProtocol;
@@ -50,10 +50,9 @@ import org.apache.tajo.ipc.TajoMasterClientProtocol.TajoMasterClientProtocolServ
 import org.apache.tajo.master.TajoMaster.MasterContext;
 import org.apache.tajo.master.exec.NonForwardQueryResultFileScanner;
 import org.apache.tajo.master.exec.NonForwardQueryResultScanner;
+import org.apache.tajo.master.exec.QueryResultEncoder;
+import org.apache.tajo.master.exec.QueryResultStreams;
 import org.apache.tajo.master.rm.NodeStatus;
-import org.apache.tajo.plan.LogicalPlan;
-import org.apache.tajo.plan.logical.PartitionedTableScanNode;
-import org.apache.tajo.plan.logical.ScanNode;
 import org.apache.tajo.querymaster.QueryJobEvent;
 import org.apache.tajo.rpc.BlockingRpcServer;
 import org.apache.tajo.rpc.protocolrecords.PrimitiveProtos.*;
@@ -543,41 +542,20 @@ public class TajoMasterClientService extends AbstractService {
         NonForwardQueryResultScanner queryResultScanner = session.getNonForwardQueryResultScanner(queryId);
 
         if (queryResultScanner == null) {
-
-          QueryInfo queryInfo = context.getQueryJobManager().getFinishedQuery(queryId);
-          if (queryInfo == null) {
-            throw new QueryNotFoundException(queryId.toString());
-          }
-
-          TableDesc resultTableDesc = queryInfo.getResultDesc();
-          Preconditions.checkNotNull(resultTableDesc, "QueryInfo::getResultDesc results in NULL.");
-
-          ScanNode scanNode;
-          if (resultTableDesc.hasPartition()) {
-            scanNode = LogicalPlan.createNodeWithoutPID(PartitionedTableScanNode.class);
-            scanNode.init(resultTableDesc);
-          } else {
-            scanNode = LogicalPlan.createNodeWithoutPID(ScanNode.class);
-            scanNode.init(resultTableDesc);
-          }
-
-          queryResultScanner =
-              new NonForwardQueryResultFileScanner(context.getConf(), session.getSessionId(), queryId, scanNode,
-                  resultTableDesc, Integer.MAX_VALUE);
+          queryResultScanner = createResultScanner(session, queryId);
           queryResultScanner.init();
           session.addNonForwardQueryResultScanner(queryResultScanner);
         }
 
-        List<ByteString> rows = queryResultScanner.getNextRows(request.getFetchRowNum());
-
-        resultSetBuilder.setSchema(queryResultScanner.getLogicalSchema().getProto());
-        resultSetBuilder.addAllSerializedTuples(rows);
+        // the rows are encoded in columns if the client can decode them
+        int rowNum = QueryResultEncoder.encodeNextRows(queryResultScanner, request.getFetchRowNum(),
+            request.hasColumnarCodec() ? request.getColumnarCodec() : null, resultSetBuilder);
 
         builder.setResultSet(resultSetBuilder.build());
         builder.setState(OK);
 
         LOG.info("Send result to client for " +
-            request.getSessionId().getId() + "," + queryId + ", " + rows.size() + " rows");
+            request.getSessionId().getId() + "," + queryId + ", " + rowNum + " rows");
 
       } catch (Throwable t) {
         printStackTraceIfError(LOG, t);
@@ -589,6 +567,59 @@ public class TajoMasterClientService extends AbstractService {
       return builder.build();
     }
 
+    private NonForwardQueryResultFileScanner createResultScanner(Session session, QueryId queryId)
+        throws IOException, QueryNotFoundException {
+      QueryInfo queryInfo = context.getQueryJobManager().getFinishedQuery(queryId);
+      if (queryInfo == null) {
+        throw new QueryNotFoundException(queryId.toString());
+      }
+
+      TableDesc resultTableDesc = queryInfo.getResultDesc();
+      Preconditions.checkNotNull(resultTableDesc, "QueryInfo::getResultDesc results in NULL.");
+
+      return new NonForwardQueryResultFileScanner(context.getConf(), session.getSessionId(), queryId,
+          NonForwardQueryResultFileScanner.createScanNode(resultTableDesc), resultTableDesc, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public GetQueryResultStreamsResponse getQueryResultStreams(RpcController controller,
+                                                               GetQueryResultStreamsRequest request) {
+      GetQueryResultStreamsResponse.Builder builder = GetQueryResultStreamsResponse.newBuilder();
+
+      try {
+        context.getSessionManager().touch(request.getSessionId().getId());
+        Session session = context.getSessionManager().getSession(request.getSessionId().getId());
+        QueryId queryId = new QueryId(request.getQueryId());
+
+        NonForwardQueryResultScanner queryResultScanner = session.getNonForwardQueryResultScanner(queryId);
+        if (queryResultScanner == null) {
+          // the session keeps the scanner, so that the result files are not removed while the streams are read
+          queryResultScanner = createResultScanner(session, queryId);
+          session.addNonForwardQueryResultScanner(queryResultScanner);
+        }
+        if (!(queryResultScanner instanceof NonForwardQueryResultFileScanner)) {
+          throw new UnsupportedException("result streams of a query on a system table");
+        }
+
+        NonForwardQueryResultFileScanner fileScanner = (NonForwardQueryResultFileScanner) queryResultScanner;
+        Collection<NodeStatus> nodes = context.getResourceManager().getNodes().values();
+        List<ResultStreamProto> streams = QueryResultStreams.split(queryId, fileScanner.getTableDesc(),
+            fileScanner.getFragments(), fileScanner.getMaxRow(), request.getMaxStreamNum(), nodes);
+        QueryResultStreams.register(streams, nodes);
+        builder.addAllStreams(streams);
+        builder.setState(OK);
+
+        LOG.info("Send " + streams.size() + " result streams to client for " +
+            request.getSessionId().getId() + "," + queryId);
+
+      } catch (Throwable t) {
+        printStackTraceIfError(LOG, t);
+        builder.setState(returnError(t));
+      }
+
+      return builder.build();
+    }
+
     @Override
     public ReturnState closeNonForwardQuery(RpcController controller, QueryIdRequest request)
         throws ServiceException {
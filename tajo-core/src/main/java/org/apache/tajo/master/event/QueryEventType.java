@@ -26,6 +26,7 @@ public enum QueryEventType {
 
   // Producer: Stage
   STAGE_COMPLETED,
+  STAGE_PIPELINED,
 
   // Producer: Query
   QUERY_COMPLETED,
@@ -34,6 +34,7 @@ public enum StageEventType {
 
   // Producer: Stage
   SQ_SHUFFLE_REPORT,
+  SQ_TASK_SHUFFLE_REPORT,
   SQ_STAGE_COMPLETED,
 
   // Producer: Any component
@@ -28,7 +28,12 @@ public class StageShuffleReportEvent extends StageEvent {
   private ExecutionBlockReport report;
 
   public StageShuffleReportEvent(ExecutionBlockId executionBlockId, ExecutionBlockReport report) {
-    super(executionBlockId, StageEventType.SQ_SHUFFLE_REPORT);
+    this(executionBlockId, StageEventType.SQ_SHUFFLE_REPORT, report);
+  }
+
+  public StageShuffleReportEvent(ExecutionBlockId executionBlockId, StageEventType eventType,
+                                 ExecutionBlockReport report) {
+    super(executionBlockId, eventType);
     this.report = report;
   }
 
@@ -29,6 +29,9 @@ public enum TaskEventType {
   //Producer:Stage
   T_SCHEDULE,
 
+  //Producer:TaskScheduler
+  T_ADD_SPECULATIVE_ATTEMPT,
+
   //Producer:TaskAttempt
   T_ATTEMPT_LAUNCHED,
   T_ATTEMPT_COMMIT_PENDING,
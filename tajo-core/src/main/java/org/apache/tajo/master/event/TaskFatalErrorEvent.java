@@ -23,19 +23,29 @@ import org.apache.tajo.ResourceProtos.TaskFatalErrorReport;
 
 public class TaskFatalErrorEvent extends TaskAttemptEvent {
   private final String message;
+  private final boolean preempted;
 
   public TaskFatalErrorEvent(TaskFatalErrorReport report) {
     super(new TaskAttemptId(report.getId()),
         TaskAttemptEventType.TA_FATAL_ERROR);
     this.message = report.getErrorMessage();
+    this.preempted = report.getPreempted();
   }
 
   public TaskFatalErrorEvent(TaskAttemptId attemptId, String message) {
     super(attemptId, TaskAttemptEventType.TA_FATAL_ERROR);
     this.message = message;
+    this.preempted = false;
   }
 
   public String errorMessage() {
     return message;
   }
+
+  /**
+   * @return True if the task attempt was killed for the resources of another query
+   */
+  public boolean isPreempted() {
+    return preempted;
+  }
 }
@@ -32,9 +32,12 @@ import org.apache.tajo.engine.planner.physical.PartitionMergeScanExec;
 import org.apache.tajo.engine.planner.physical.ScanExec;
 import org.apache.tajo.engine.query.QueryContext;
 import org.apache.tajo.exception.TajoException;
+import org.apache.tajo.plan.LogicalPlan;
+import org.apache.tajo.plan.logical.PartitionedTableScanNode;
 import org.apache.tajo.plan.logical.ScanNode;
 import org.apache.tajo.querymaster.Repartitioner;
 import org.apache.tajo.storage.*;
+import org.apache.tajo.storage.ColumnarRowStoreUtil.ColumnarEncoder;
 import org.apache.tajo.storage.RowStoreUtil.RowStoreEncoder;
 import org.apache.tajo.storage.fragment.Fragment;
 import org.apache.tajo.storage.fragment.FragmentConvertor;
@@ -57,6 +60,7 @@ public class NonForwardQueryResultFileScanner implements NonForwardQueryResultSc
   private TaskAttemptContext taskContext;
   private TajoConf tajoConf;
   private ScanNode scanNode;
+  private List<Fragment> fragments;
 
   public NonForwardQueryResultFileScanner(TajoConf tajoConf, String sessionId, QueryId queryId, ScanNode scanNode,
       TableDesc tableDesc, int maxRow) throws IOException {
@@ -69,21 +73,57 @@ public class NonForwardQueryResultFileScanner implements NonForwardQueryResultSc
     this.rowEncoder = RowStoreUtil.createEncoder(tableDesc.getLogicalSchema());
   }
 
-  public void init() throws IOException, TajoException {
-    initSeqScanExec();
+  /**
+   * Create a scanner which reads only the given fragments of the table.
+   */
+  public NonForwardQueryResultFileScanner(TajoConf tajoConf, String sessionId, QueryId queryId, ScanNode scanNode,
+      TableDesc tableDesc, List<Fragment> fragments, int maxRow) throws IOException {
+    this(tajoConf, sessionId, queryId, scanNode, tableDesc, maxRow);
+    this.fragments = fragments;
   }
 
-  private void initSeqScanExec() throws IOException, TajoException {
-    Tablespace tablespace = TablespaceManager.get(tableDesc.getUri()).get();
-
-    List<Fragment> fragments = Lists.newArrayList();
+  /**
+   * @return A scan node which reads all rows of the table
+   */
+  public static ScanNode createScanNode(TableDesc tableDesc) {
+    ScanNode scanNode;
     if (tableDesc.hasPartition()) {
-      FileTablespace fileTablespace = TUtil.checkTypeAndGet(tablespace, FileTablespace.class);
-      fragments.addAll(Repartitioner.getFragmentsFromPartitionedTable(fileTablespace, scanNode, tableDesc));
+      scanNode = LogicalPlan.createNodeWithoutPID(PartitionedTableScanNode.class);
     } else {
-      fragments.addAll(tablespace.getSplits(tableDesc.getName(), tableDesc, scanNode));
+      scanNode = LogicalPlan.createNodeWithoutPID(ScanNode.class);
+    }
+    scanNode.init(tableDesc);
+    return scanNode;
+  }
+
+  public void init() throws IOException, TajoException {
+    initSeqScanExec();
+  }
+
+  /**
+   * @return The fragments of the table which are read by this scanner
+   */
+  public List<Fragment> getFragments() throws IOException, TajoException {
+    if (fragments == null) {
+      Tablespace tablespace = TablespaceManager.get(tableDesc.getUri()).get();
+
+      fragments = Lists.newArrayList();
+      if (tableDesc.hasPartition()) {
+        FileTablespace fileTablespace = TUtil.checkTypeAndGet(tablespace, FileTablespace.class);
+        fragments.addAll(Repartitioner.getFragmentsFromPartitionedTable(fileTablespace, scanNode, tableDesc));
+      } else {
+        fragments.addAll(tablespace.getSplits(tableDesc.getName(), tableDesc, scanNode));
+      }
     }
+    return fragments;
+  }
 
+  public int getMaxRow() {
+    return maxRow;
+  }
+
+  private void initSeqScanExec() throws IOException, TajoException {
+    List<Fragment> fragments = getFragments();
     if (!fragments.isEmpty()) {
       FragmentProto[] fragmentProtos = FragmentConvertor.toFragmentProtoArray(fragments.toArray(new Fragment[]{}));
       this.taskContext = new TaskAttemptContext(
@@ -121,31 +161,40 @@ public class NonForwardQueryResultFileScanner implements NonForwardQueryResultSc
 
   public List<ByteString> getNextRows(int fetchRowNum) throws IOException {
     List<ByteString> rows = new ArrayList<ByteString>();
-    if (scanExec == null) {
-      return rows;
+    Tuple tuple;
+    while (rows.size() < fetchRowNum && (tuple = nextTuple()) != null) {
+      rows.add(ByteString.copyFrom((rowEncoder.toBytes(tuple))));
     }
-    int rowCount = 0;
-    while (true) {
-      Tuple tuple = scanExec.next();
-      if (tuple == null) {
-        scanExec.close();
-        scanExec = null;
-        break;
-      }
+    return rows;
+  }
 
-      rows.add(ByteString.copyFrom((rowEncoder.toBytes(tuple))));
+  @Override
+  public int getNextRows(int fetchRowNum, ColumnarEncoder encoder) throws IOException {
+    int rowCount = 0;
+    Tuple tuple;
+    while (rowCount < fetchRowNum && (tuple = nextTuple()) != null) {
+      encoder.add(tuple);
       rowCount++;
-      currentNumRows++;
-      if (rowCount >= fetchRowNum) {
-        break;
-      }
-      if (currentNumRows >= maxRow) {
-        scanExec.close();
-        scanExec = null;
-        break;
-      }
     }
-    return rows;
+    return rowCount;
+  }
+
+  /**
+   * @return The next tuple, or null if all tuples or the max number of rows are read
+   */
+  private Tuple nextTuple() throws IOException {
+    if (scanExec == null) {
+      return null;
+    }
+    // the scanner is closed after the last tuple is encoded, because the tuple may refer to the buffer of the scanner
+    Tuple tuple = currentNumRows < maxRow ? scanExec.next() : null;
+    if (tuple == null) {
+      scanExec.close();
+      scanExec = null;
+      return null;
+    }
+    currentNumRows++;
+    return tuple;
   }
 
   @Override
@@ -23,6 +23,7 @@ import org.apache.tajo.QueryId;
 import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.catalog.TableDesc;
 import org.apache.tajo.exception.TajoException;
+import org.apache.tajo.storage.ColumnarRowStoreUtil.ColumnarEncoder;
 
 import java.io.IOException;
 import java.util.List;
@@ -35,6 +36,13 @@ public interface NonForwardQueryResultScanner {
 
   public List<ByteString> getNextRows(int fetchRowNum) throws IOException;
 
+  /**
+   * Add the next rows to the columnar encoder instead of encoding each row separately.
+   *
+   * @return The number of added rows
+   */
+  public int getNextRows(int fetchRowNum, ColumnarEncoder encoder) throws IOException;
+
   public QueryId getQueryId();
   
   public String getSessionId();
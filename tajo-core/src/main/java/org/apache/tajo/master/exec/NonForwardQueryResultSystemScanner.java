@@ -56,6 +56,7 @@ import org.apache.tajo.plan.logical.ScanNode;
 import org.apache.tajo.resource.NodeResource;
 import org.apache.tajo.resource.NodeResources;
 import org.apache.tajo.session.InvalidSessionException;
+import org.apache.tajo.storage.ColumnarRowStoreUtil.ColumnarEncoder;
 import org.apache.tajo.storage.RowStoreUtil;
 import org.apache.tajo.storage.RowStoreUtil.RowStoreEncoder;
 import org.apache.tajo.storage.Tuple;
@@ -587,35 +588,38 @@ public class NonForwardQueryResultSystemScanner implements NonForwardQueryResult
   @Override
   public List<ByteString> getNextRows(int fetchRowNum) throws IOException {
     List<ByteString> rows = new ArrayList<ByteString>();
-    int startRow = currentRow;
-    int endRow = startRow + fetchRowNum;
-    
-    if (physicalExec == null) {
-      return rows;
-    }
-    
-    while (currentRow < endRow) {
-      Tuple currentTuple = physicalExec.next();
-      
-      if (currentTuple == null) {
-        physicalExec.close();
-        physicalExec = null;
-        break;
-      }
-      
-      currentRow++;
+    Tuple currentTuple;
+    while (rows.size() < fetchRowNum && (currentTuple = nextTuple()) != null) {
       rows.add(ByteString.copyFrom(encoder.toBytes(currentTuple)));
-      
-      if (currentRow >= maxRow) {
-        physicalExec.close();
-        physicalExec = null;
-        break;
-      }
     }
-    
     return rows;
   }
 
+  @Override
+  public int getNextRows(int fetchRowNum, ColumnarEncoder columnarEncoder) throws IOException {
+    int rowCount = 0;
+    Tuple currentTuple;
+    while (rowCount < fetchRowNum && (currentTuple = nextTuple()) != null) {
+      columnarEncoder.add(currentTuple);
+      rowCount++;
+    }
+    return rowCount;
+  }
+
+  private Tuple nextTuple() throws IOException {
+    if (physicalExec == null) {
+      return null;
+    }
+    Tuple currentTuple = currentRow < maxRow ? physicalExec.next() : null;
+    if (currentTuple == null) {
+      physicalExec.close();
+      physicalExec = null;
+      return null;
+    }
+    currentRow++;
+    return currentTuple;
+  }
+
   @Override
   public QueryId getQueryId() {
     return queryId;
@@ -129,6 +129,9 @@ public class QueryExecutor {
     } else if (PlannerUtil.checkIfNonFromQuery(plan)) {
       execNonFromQuery(queryContext, session, sql, plan, response);
 
+    } else if (queryContext.getBool(SessionVars.QUERY_RESULT_CACHE_ENABLED)) {
+      execQueryWithResultCache(queryContext, session, sql, jsonExpr, plan, response);
+
     } else { // it requires distributed execution. So, the query is forwarded to a query master.
       executeDistributedQuery(queryContext, session, plan, sql, jsonExpr, response);
     }
@@ -279,6 +282,40 @@ public class QueryExecutor {
     response.setTableDesc(desc.getProto());
   }
 
+  /**
+   * The query is answered from the result of its previous execution if its input tables are not changed since then.
+   * Otherwise, it is executed in distributed, and its result is cached when it succeeds.
+   */
+  public void execQueryWithResultCache(QueryContext queryContext, Session session, String query, String jsonExpr,
+                                       LogicalPlan plan, SubmitQueryResponse.Builder response) throws Exception {
+    QueryResultCache resultCache = context.getQueryResultCache();
+    QueryResultCache.Key key = resultCache.createKey(queryContext, plan);
+    TableDesc resultDesc = key != null ? resultCache.get(key) : null;
+
+    if (resultDesc == null) {
+      executeDistributedQuery(queryContext, session, plan, query, jsonExpr, response, key);
+      return;
+    }
+
+    QueryInfo queryInfo = context.getQueryJobManager().createNewSimpleQuery(queryContext, session, query,
+        (LogicalRootNode) plan.getRootBlock().getRoot());
+    queryInfo.setResultDesc(resultDesc);
+    LOG.info("Query " + queryInfo.getQueryId() + " is answered from the result cache (" + resultDesc.getUri() + ")");
+
+    NonForwardQueryResultScanner queryResultScanner = new NonForwardQueryResultFileScanner(
+        context.getConf(), session.getSessionId(), queryInfo.getQueryId(),
+        NonForwardQueryResultFileScanner.createScanNode(resultDesc), resultDesc, Integer.MAX_VALUE);
+
+    queryResultScanner.init();
+    session.addNonForwardQueryResultScanner(queryResultScanner);
+
+    response.setState(OK);
+    response.setQueryId(queryInfo.getQueryId().getProto());
+    response.setResultType(ResultType.ENCLOSED);
+    response.setMaxRowNum(Integer.MAX_VALUE);
+    response.setTableDesc(resultDesc.getProto());
+  }
+
   public void execNonFromQuery(QueryContext queryContext, Session session, String query, LogicalPlan plan, SubmitQueryResponse.Builder responseBuilder)
       throws Exception {
     LogicalRootNode rootNode = plan.getRootBlock().getRoot();
@@ -491,6 +528,15 @@ public class QueryExecutor {
                                       String sql,
                                       String jsonExpr,
                                       SubmitQueryResponse.Builder responseBuilder) throws Exception {
+    executeDistributedQuery(queryContext, session, plan, sql, jsonExpr, responseBuilder, null);
+  }
+
+  private void executeDistributedQuery(QueryContext queryContext, Session session,
+                                       LogicalPlan plan,
+                                       String sql,
+                                       String jsonExpr,
+                                       SubmitQueryResponse.Builder responseBuilder,
+                                       QueryResultCache.Key cacheKey) throws Exception {
     LogicalRootNode rootNode = plan.getRootBlock().getRoot();
 
     prepareForCreateTableOrInsert(catalog, plan);
@@ -500,7 +546,7 @@ public class QueryExecutor {
     QueryManager queryManager = this.context.getQueryJobManager();
     QueryInfo queryInfo;
 
-    queryInfo = queryManager.scheduleQuery(session, queryContext, sql, jsonExpr, rootNode);
+    queryInfo = queryManager.scheduleQuery(session, queryContext, sql, jsonExpr, rootNode, cacheKey);
 
     responseBuilder.setState(OK);
     responseBuilder.setQueryId(queryInfo.getQueryId().getProto());
@@ -0,0 +1,461 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.master.exec;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Objects;
+import com.google.common.cache.*;
+import com.google.common.collect.Maps;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Message;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.QueryId;
+import org.apache.tajo.SessionVars;
+import org.apache.tajo.TajoProtos.QueryState;
+import org.apache.tajo.catalog.CatalogChangeListener;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.TableDesc;
+import org.apache.tajo.catalog.proto.CatalogProtos.FunctionDescProto;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.engine.query.QueryContext;
+import org.apache.tajo.master.QueryInfo;
+import org.apache.tajo.plan.LogicalPlan;
+import org.apache.tajo.plan.logical.LogicalNode;
+import org.apache.tajo.plan.logical.LogicalRootNode;
+import org.apache.tajo.plan.logical.NodeType;
+import org.apache.tajo.plan.logical.ScanNode;
+import org.apache.tajo.plan.serder.LogicalNodeSerializer;
+import org.apache.tajo.plan.util.PlannerUtil;
+import org.apache.tajo.session.SessionManager;
+import org.apache.tajo.storage.FileTablespace;
+import org.apache.tajo.storage.TablespaceManager;
+import org.apache.tajo.util.TUtil;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * QueryResultCache keeps the results of distributed queries so that the same query is answered from the result
+ * files of the previous execution while its input tables are not changed.
+ *
+ * A query is identified by its serialized logical plan, which is the same for queries written differently but
+ * planned in the same way, and by the session timezone. Each entry records the versions of the input tables,
+ * which consist of the number of catalog changes and the size in the catalog statistics of a table and the
+ * modification time of its directory. Entries are invalidated as soon as their input tables are changed through
+ * the catalog. A file added to or removed from a table directory outside of Tajo is detected by the modification
+ * time of the directory when an entry is looked up, but a change in the subdirectories of a table is not.
+ *
+ * Entries own the result directories of the queries which produced them, and they are evicted in LRU order when
+ * the total size of the results exceeds the cache size. The result directory of a removed entry is deleted when a
+ * query finishes after the session expiry time, once no session reads it any more.
+ */
+public class QueryResultCache implements CatalogChangeListener {
+  private static final Log LOG = LogFactory.getLog(QueryResultCache.class);
+
+  // functions whose results differ in every execution
+  private static final Set<String> NON_DETERMINISTIC_FUNCTIONS = TUtil.newHashSet(
+      "random", "now", "current_date", "current_time");
+  private final TajoConf conf;
+  private final SessionManager sessionManager;
+  // a removed result is kept for the session expiry time, because its reader may not have opened it yet
+  private final long resultDeletionDelayMs;
+  private final Cache<Key, Entry> cache;
+  // the queries which are running to be cached
+  private final ConcurrentMap<QueryId, Key> pendingQueries = Maps.newConcurrentMap();
+  // the result directories of removed entries and the times when they are removed
+  private final ConcurrentMap<URI, Long> removedResults = Maps.newConcurrentMap();
+  // the last change sequence of each table or database
+  private final ConcurrentMap<String, Long> changeSeqs = Maps.newConcurrentMap();
+  private final AtomicLong changeSeq = new AtomicLong();
+
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong totalBytes = new AtomicLong();
+
+  public QueryResultCache(TajoConf conf, SessionManager sessionManager) {
+    this.conf = conf;
+    this.sessionManager = sessionManager;
+    this.resultDeletionDelayMs = conf.getIntVar(TajoConf.ConfVars.$CLIENT_SESSION_EXPIRY_TIME) * 1000L;
+    long cacheSizeKb = conf.getIntVar(TajoConf.ConfVars.QUERY_RESULT_CACHE_SIZE) * 1024L;
+    this.cache = CacheBuilder.newBuilder()
+        .maximumWeight(cacheSizeKb)
+        .weigher(new Weigher<Key, Entry>() {
+          @Override
+          public int weigh(Key key, Entry entry) {
+            return (int) Math.min(Integer.MAX_VALUE, entry.getBytes() / 1024 + 1);
+          }
+        })
+        .removalListener(new RemovalListener<Key, Entry>() {
+          @Override
+          public void onRemoval(RemovalNotification<Key, Entry> notification) {
+            totalBytes.addAndGet(-notification.getValue().getBytes());
+            removedResults.put(notification.getValue().getResultDesc().getUri(), System.currentTimeMillis());
+          }
+        })
+        .build();
+  }
+
+  public boolean isEnabled() {
+    return conf.getIntVar(TajoConf.ConfVars.QUERY_RESULT_CACHE_SIZE) > 0;
+  }
+
+  /**
+   * @return The key of the query, or null if the result of the query cannot be cached
+   */
+  public Key createKey(QueryContext queryContext, LogicalPlan plan) {
+    if (!isEnabled()) {
+      return null;
+    }
+
+    LogicalRootNode rootNode = plan.getRootBlock().getRoot();
+    NodeType type = rootNode.getChild().getType();
+    if (type == NodeType.INSERT || type == NodeType.CREATE_TABLE || type == NodeType.CREATE_INDEX) {
+      return null;
+    }
+
+    LogicalNode[] scanNodes = PlannerUtil.findAllNodes(rootNode,
+        NodeType.SCAN, NodeType.PARTITIONS_SCAN, NodeType.INDEX_SCAN);
+    if (scanNodes.length == 0) {
+      return null;
+    }
+    Map<String, TableDesc> inputs = new TreeMap<String, TableDesc>();
+    for (LogicalNode node : scanNodes) {
+      TableDesc desc = ((ScanNode) node).getTableDesc();
+      if (desc.getName() == null || desc.getUri() == null ||
+          !(TablespaceManager.get(desc.getUri()).orNull() instanceof FileTablespace)) {
+        return null;
+      }
+      inputs.put(desc.getName(), desc);
+    }
+
+    Message serializedPlan;
+    try {
+      serializedPlan = LogicalNodeSerializer.serialize(rootNode);
+    } catch (RuntimeException e) {
+      LOG.debug("Cannot serialize the plan for the result cache: " + e.getMessage());
+      return null;
+    }
+    if (!isDeterministic(serializedPlan)) {
+      return null;
+    }
+
+    List<InputVersion> versions;
+    try {
+      versions = getInputVersions(inputs.values());
+    } catch (IOException e) {
+      LOG.debug("Cannot get the versions of input tables: " + e.getMessage());
+      return null;
+    }
+    return new Key(serializedPlan.toByteString(), queryContext.get(SessionVars.TIMEZONE, ""), inputs, versions);
+  }
+
+  /**
+   * @return The result of a previous execution of the query, or null if there is no valid result
+   */
+  public TableDesc get(Key key) {
+    Entry entry = cache.getIfPresent(key);
+    if (entry != null) {
+      if (entry.getVersions().equals(key.getVersions()) && exists(entry.getResultDesc())) {
+        hitCount.incrementAndGet();
+        return entry.getResultDesc();
+      }
+      cache.asMap().remove(key, entry);
+    }
+    missCount.incrementAndGet();
+    return null;
+  }
+
+  /**
+   * The result of the query is cached when it succeeds without any change of its input tables. It should be added
+   * before the query is submitted, so that a query which finishes immediately is not missed.
+   */
+  public void addPendingQuery(QueryId queryId, Key key) {
+    pendingQueries.put(queryId, key);
+  }
+
+  public void removePendingQuery(QueryId queryId) {
+    pendingQueries.remove(queryId);
+  }
+
+  public void queryFinished(QueryInfo queryInfo) {
+    deleteRemovedResults(System.currentTimeMillis() - resultDeletionDelayMs);
+
+    Key key = pendingQueries.remove(queryInfo.getQueryId());
+    if (key == null || queryInfo.getQueryState() != QueryState.QUERY_SUCCEEDED || queryInfo.getResultDesc() == null) {
+      return;
+    }
+
+    try {
+      if (!getInputVersions(key.getInputs().values()).equals(key.getVersions())) {
+        return;
+      }
+    } catch (IOException e) {
+      LOG.debug("Cannot get the versions of input tables: " + e.getMessage());
+      return;
+    }
+
+    Entry entry = new Entry(queryInfo.getResultDesc(), key.getVersions());
+    totalBytes.addAndGet(entry.getBytes());
+    cache.put(key, entry);
+    // a change during the put is not caught by the version check above
+    for (String tableName : key.getInputs().keySet()) {
+      if (getCatalogVersion(tableName) != getVersion(key.getVersions(), tableName).catalogVersion) {
+        cache.asMap().remove(key, entry);
+        break;
+      }
+    }
+  }
+
+  @Override
+  public void tableChanged(String qualifiedTableName) {
+    changeSeqs.put(qualifiedTableName, changeSeq.incrementAndGet());
+    invalidate(qualifiedTableName, false);
+  }
+
+  @Override
+  public void databaseDropped(String databaseName) {
+    changeSeqs.put(databaseName, changeSeq.incrementAndGet());
+    invalidate(databaseName, true);
+  }
+
+  private void invalidate(String name, boolean isDatabase) {
+    for (Key key : cache.asMap().keySet()) {
+      for (String tableName : key.getInputs().keySet()) {
+        if (isDatabase ? CatalogUtil.splitTableName(tableName)[0].equals(name) : tableName.equals(name)) {
+          cache.invalidate(key);
+          break;
+        }
+      }
+    }
+  }
+
+  private long getCatalogVersion(String tableName) {
+    Long tableSeq = changeSeqs.get(tableName);
+    Long databaseSeq = changeSeqs.get(CatalogUtil.splitTableName(tableName)[0]);
+    return Math.max(tableSeq == null ? 0 : tableSeq, databaseSeq == null ? 0 : databaseSeq);
+  }
+
+  private List<InputVersion> getInputVersions(Collection<TableDesc> inputs) throws IOException {
+    List<InputVersion> versions = TUtil.newList();
+    for (TableDesc desc : inputs) {
+      // the catalog version is taken first, so that a change during the file system call is not missed
+      long catalogVersion = getCatalogVersion(desc.getName());
+      long numBytes = desc.getStats() != null ? desc.getStats().getNumBytes() : -1;
+      Path path = new Path(desc.getUri());
+      long modificationTime = path.getFileSystem(conf).getFileStatus(path).getModificationTime();
+      versions.add(new InputVersion(desc.getName(), catalogVersion, numBytes, modificationTime));
+    }
+    return versions;
+  }
+
+  private static InputVersion getVersion(List<InputVersion> versions, String tableName) {
+    for (InputVersion version : versions) {
+      if (version.tableName.equals(tableName)) {
+        return version;
+      }
+    }
+    throw new NoSuchElementException(tableName);
+  }
+
+  /**
+   * Deletes the result directories of the entries which are removed before the given time and are not read by
+   * any session.
+   */
+  @VisibleForTesting
+  public void deleteRemovedResults(long removedBefore) {
+    for (Map.Entry<URI, Long> removed : removedResults.entrySet()) {
+      URI resultUri = removed.getKey();
+      if (removed.getValue() >= removedBefore || sessionManager.hasNonForwardQueryResultScanner(resultUri)) {
+        continue;
+      }
+      if (removedResults.remove(resultUri, removed.getValue())) {
+        try {
+          Path path = new Path(resultUri);
+          path.getFileSystem(conf).delete(path, true);
+          LOG.info("The result of a removed cache entry is deleted: " + resultUri);
+        } catch (IOException e) {
+          LOG.warn("Cannot delete the result of a removed cache entry " + resultUri + ": " + e.getMessage());
+        }
+      }
+    }
+  }
+
+  private boolean exists(TableDesc resultDesc) {
+    try {
+      Path path = new Path(resultDesc.getUri());
+      return path.getFileSystem(conf).exists(path);
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /**
+   * @return False if the message has a function whose result is not determined by its arguments
+   */
+  private static boolean isDeterministic(Message message) {
+    if (message instanceof FunctionDescProto) {
+      FunctionDescProto function = (FunctionDescProto) message;
+      return !NON_DETERMINISTIC_FUNCTIONS.contains(function.getSignature().getName().toLowerCase()) &&
+          !function.getInvocation().hasPython();
+    }
+    for (Map.Entry<FieldDescriptor, Object> field : message.getAllFields().entrySet()) {
+      if (field.getKey().getJavaType() != FieldDescriptor.JavaType.MESSAGE) {
+        continue;
+      }
+      if (field.getKey().isRepeated()) {
+        for (Object value : (List<?>) field.getValue()) {
+          if (!isDeterministic((Message) value)) {
+            return false;
+          }
+        }
+      } else if (!isDeterministic((Message) field.getValue())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  public double getHitRate() {
+    long requestCount = hitCount.get() + missCount.get();
+    return requestCount == 0 ? 0 : (double) hitCount.get() / requestCount;
+  }
+
+  public long getEntryNum() {
+    return cache.size();
+  }
+
+  public long getTotalBytes() {
+    return totalBytes.get();
+  }
+
+  public long getEvictionCount() {
+    return cache.stats().evictionCount();
+  }
+
+  @VisibleForTesting
+  public void clear() {
+    cache.invalidateAll();
+    pendingQueries.clear();
+  }
+
+  /**
+   * The key of a query, which is compared by the plan and the session timezone. The inputs and their versions are
+   * taken when the key is created.
+   */
+  public static class Key {
+    private final ByteString serializedPlan;
+    private final String timezone;
+    private final Map<String, TableDesc> inputs;
+    private final List<InputVersion> versions;
+
+    Key(ByteString serializedPlan, String timezone, Map<String, TableDesc> inputs, List<InputVersion> versions) {
+      this.serializedPlan = serializedPlan;
+      this.timezone = timezone;
+      this.inputs = inputs;
+      this.versions = versions;
+    }
+
+    public Map<String, TableDesc> getInputs() {
+      return inputs;
+    }
+
+    public List<InputVersion> getVersions() {
+      return versions;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj instanceof Key) {
+        Key other = (Key) obj;
+        return serializedPlan.equals(other.serializedPlan) && timezone.equals(other.timezone);
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(serializedPlan, timezone);
+    }
+  }
+
+  private static class Entry {
+    private final TableDesc resultDesc;
+    private final List<InputVersion> versions;
+
+    Entry(TableDesc resultDesc, List<InputVersion> versions) {
+      this.resultDesc = resultDesc;
+      this.versions = versions;
+    }
+
+    TableDesc getResultDesc() {
+      return resultDesc;
+    }
+
+    List<InputVersion> getVersions() {
+      return versions;
+    }
+
+    long getBytes() {
+      return resultDesc.getStats() != null ? Math.max(0, resultDesc.getStats().getNumBytes()) : 0;
+    }
+  }
+
+  private static class InputVersion {
+    private final String tableName;
+    private final long catalogVersion;
+    private final long numBytes;
+    private final long modificationTime;
+
+    InputVersion(String tableName, long catalogVersion, long numBytes, long modificationTime) {
+      this.tableName = tableName;
+      this.catalogVersion = catalogVersion;
+      this.numBytes = numBytes;
+      this.modificationTime = modificationTime;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj instanceof InputVersion) {
+        InputVersion other = (InputVersion) obj;
+        return tableName.equals(other.tableName) && catalogVersion == other.catalogVersion &&
+            numBytes == other.numBytes && modificationTime == other.modificationTime;
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(tableName, catalogVersion, numBytes, modificationTime);
+    }
+  }
+}
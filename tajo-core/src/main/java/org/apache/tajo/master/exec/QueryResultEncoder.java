@@ -0,0 +1,57 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.master.exec;
+
+import com.google.protobuf.ByteString;
+import org.apache.tajo.ipc.ClientProtos.SerializedResultSet;
+import org.apache.tajo.storage.ColumnarRowStoreUtil;
+import org.apache.tajo.storage.ColumnarRowStoreUtil.ColumnarEncoder;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * QueryResultEncoder encodes the next rows of a query result to be sent to a client.
+ */
+public class QueryResultEncoder {
+
+  /**
+   * @param columnarCodec The codec of the columnar encoding requested by the client, or null if rows should be
+   *                      encoded separately
+   * @return The number of encoded rows
+   */
+  public static int encodeNextRows(NonForwardQueryResultScanner scanner, int fetchRowNum,
+                                   SerializedResultSet.CodecType columnarCodec,
+                                   SerializedResultSet.Builder resultSetBuilder) throws IOException {
+    resultSetBuilder.setSchema(scanner.getLogicalSchema().getProto());
+    if (columnarCodec != null) {
+      ColumnarEncoder encoder = ColumnarRowStoreUtil.createEncoder(scanner.getLogicalSchema());
+      int rowNum = scanner.getNextRows(fetchRowNum, encoder);
+      boolean compress = columnarCodec == SerializedResultSet.CodecType.DEFLATE;
+      resultSetBuilder.setSerializedColumns(ByteString.copyFrom(encoder.build(compress)));
+      resultSetBuilder.setRowNum(rowNum);
+      resultSetBuilder.setCodec(columnarCodec);
+      return rowNum;
+    } else {
+      List<ByteString> rows = scanner.getNextRows(fetchRowNum);
+      resultSetBuilder.addAllSerializedTuples(rows);
+      return rows.size();
+    }
+  }
+}
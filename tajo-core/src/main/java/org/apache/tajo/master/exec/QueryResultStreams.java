@@ -0,0 +1,204 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.master.exec;
+
+import org.apache.tajo.QueryId;
+import org.apache.tajo.ResourceProtos.ResultStreamsRequest;
+import org.apache.tajo.catalog.TableDesc;
+import org.apache.tajo.ipc.ClientProtos.ResultStreamProto;
+import org.apache.tajo.ipc.QueryMasterProtocol;
+import org.apache.tajo.ipc.QueryMasterProtocol.QueryMasterProtocolService;
+import org.apache.tajo.master.cluster.WorkerConnectionInfo;
+import org.apache.tajo.master.rm.NodeState;
+import org.apache.tajo.master.rm.NodeStatus;
+import org.apache.tajo.rpc.AsyncRpcClient;
+import org.apache.tajo.rpc.CallFuture;
+import org.apache.tajo.rpc.RpcClientManager;
+import org.apache.tajo.rpc.RpcConstants;
+import org.apache.tajo.rpc.protocolrecords.PrimitiveProtos;
+import org.apache.tajo.storage.fragment.Fragment;
+import org.apache.tajo.util.NetUtils;
+import org.apache.tajo.util.TUtil;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QueryResultStreams splits the result table of a query into result streams, which clients read from workers in
+ * parallel instead of fetching all rows through TajoMaster.
+ *
+ * The fragments of the result table are distributed over the streams so that the streams have similar numbers of
+ * bytes. Each stream is served by the worker which has the most bytes of its fragments in local, or by the worker
+ * serving the fewest streams if no worker has them.
+ */
+public class QueryResultStreams {
+
+  /**
+   * @param maxRow The max number of rows of the result. A limited result is not split, so that the limit is kept.
+   * @return The result streams, which are empty if the result has no fragment
+   */
+  public static List<ResultStreamProto> split(QueryId queryId, TableDesc tableDesc, List<Fragment> fragments,
+                                              int maxRow, int maxStreamNum, Collection<NodeStatus> nodes)
+      throws IOException {
+    List<WorkerConnectionInfo> workers = TUtil.newList();
+    for (NodeStatus node : nodes) {
+      if (node.getState() == NodeState.RUNNING) {
+        workers.add(node.getConnectionInfo());
+      }
+    }
+    if (workers.isEmpty()) {
+      throw new IOException("No running worker to serve the result of " + queryId);
+    }
+    Collections.sort(workers);
+
+    List<Fragment> sortedFragments = TUtil.newList();
+    for (Fragment fragment : fragments) {
+      if (!fragment.isEmpty()) {
+        sortedFragments.add(fragment);
+      }
+    }
+    if (sortedFragments.isEmpty()) {
+      return TUtil.newList();
+    }
+    // larger fragments are distributed first to balance the streams
+    Collections.sort(sortedFragments, new Comparator<Fragment>() {
+      @Override
+      public int compare(Fragment o1, Fragment o2) {
+        return Long.compare(o2.getLength(), o1.getLength());
+      }
+    });
+
+    int streamNum = maxRow < Integer.MAX_VALUE ? 1 : Math.max(1, Math.min(maxStreamNum, sortedFragments.size()));
+    List<List<Fragment>> streamFragments = TUtil.newList();
+    long [] streamBytes = new long[streamNum];
+    for (int i = 0; i < streamNum; i++) {
+      streamFragments.add(new ArrayList<Fragment>());
+    }
+    for (Fragment fragment : sortedFragments) {
+      int smallest = 0;
+      for (int i = 1; i < streamNum; i++) {
+        if (streamBytes[i] < streamBytes[smallest]) {
+          smallest = i;
+        }
+      }
+      streamFragments.get(smallest).add(fragment);
+      streamBytes[smallest] += fragment.getLength();
+    }
+
+    List<ResultStreamProto> streams = TUtil.newList();
+    Map<WorkerConnectionInfo, Integer> assignedStreamNums = TUtil.newHashMap();
+    for (List<Fragment> eachFragments : streamFragments) {
+      WorkerConnectionInfo worker = selectWorker(eachFragments, workers, assignedStreamNums);
+      assignedStreamNums.put(worker, getAssignedStreamNum(assignedStreamNums, worker) + 1);
+
+      ResultStreamProto.Builder builder = ResultStreamProto.newBuilder()
+          .setId(UUID.randomUUID().toString())
+          .setQueryId(queryId.getProto())
+          .setTableDesc(tableDesc.getProto())
+          .setMaxRowNum(maxRow)
+          .setHost(worker.getHost())
+          .setPort(worker.getClientPort());
+      for (Fragment fragment : eachFragments) {
+        builder.addFragments(fragment.getProto());
+      }
+      streams.add(builder.build());
+    }
+    return streams;
+  }
+
+  /**
+   * Register the result streams with the workers serving them. A worker serves only the streams registered by
+   * TajoMaster, so that a client cannot make a worker read arbitrary files.
+   */
+  public static void register(List<ResultStreamProto> streams, Collection<NodeStatus> nodes) throws Exception {
+    Map<WorkerConnectionInfo, ResultStreamsRequest.Builder> requests = TUtil.newHashMap();
+    for (ResultStreamProto stream : streams) {
+      WorkerConnectionInfo worker = null;
+      for (NodeStatus node : nodes) {
+        WorkerConnectionInfo connectionInfo = node.getConnectionInfo();
+        if (connectionInfo.getHost().equals(stream.getHost()) && connectionInfo.getClientPort() == stream.getPort()) {
+          worker = connectionInfo;
+          break;
+        }
+      }
+      if (worker == null) {
+        throw new IOException("No worker serves the result stream " + stream.getId() + " at "
+            + stream.getHost() + ":" + stream.getPort());
+      }
+      if (!requests.containsKey(worker)) {
+        requests.put(worker, ResultStreamsRequest.newBuilder());
+      }
+      requests.get(worker).addStreams(stream);
+    }
+
+    for (Map.Entry<WorkerConnectionInfo, ResultStreamsRequest.Builder> entry : requests.entrySet()) {
+      WorkerConnectionInfo worker = entry.getKey();
+      InetSocketAddress addr = NetUtils.createSocketAddr(worker.getHost(), worker.getQueryMasterPort());
+      AsyncRpcClient rpcClient = RpcClientManager.getInstance().getClient(addr, QueryMasterProtocol.class, true);
+      QueryMasterProtocolService stub = rpcClient.getStub();
+
+      CallFuture<PrimitiveProtos.BoolProto> callFuture = new CallFuture<PrimitiveProtos.BoolProto>();
+      stub.registerResultStreams(callFuture.getController(), entry.getValue().build(), callFuture);
+      if (!callFuture.get(RpcConstants.DEFAULT_FUTURE_TIMEOUT_SECONDS, TimeUnit.SECONDS).getValue()) {
+        throw new IOException("Failed to register result streams with " + addr);
+      }
+    }
+  }
+
+  private static WorkerConnectionInfo selectWorker(List<Fragment> fragments, List<WorkerConnectionInfo> workers,
+                                                   Map<WorkerConnectionInfo, Integer> assignedStreamNums) {
+    Map<WorkerConnectionInfo, Long> localBytes = TUtil.newHashMap();
+    for (Fragment fragment : fragments) {
+      if (fragment.getHosts() == null) {
+        continue;
+      }
+      for (String host : fragment.getHosts()) {
+        for (WorkerConnectionInfo worker : workers) {
+          if (worker.getHost().equals(host)) {
+            Long bytes = localBytes.get(worker);
+            localBytes.put(worker, (bytes == null ? 0 : bytes) + fragment.getLength());
+          }
+        }
+      }
+    }
+
+    WorkerConnectionInfo selected = null;
+    for (WorkerConnectionInfo worker : workers) {
+      if (selected == null) {
+        selected = worker;
+        continue;
+      }
+      long bytes = localBytes.containsKey(worker) ? localBytes.get(worker) : 0;
+      long selectedBytes = localBytes.containsKey(selected) ? localBytes.get(selected) : 0;
+      if (bytes > selectedBytes || (bytes == selectedBytes &&
+          getAssignedStreamNum(assignedStreamNums, worker) < getAssignedStreamNum(assignedStreamNums, selected))) {
+        selected = worker;
+      }
+    }
+    return selected;
+  }
+
+  private static int getAssignedStreamNum(Map<WorkerConnectionInfo, Integer> assignedStreamNums,
+                                          WorkerConnectionInfo worker) {
+    Integer num = assignedStreamNums.get(worker);
+    return num == null ? 0 : num;
+  }
+}
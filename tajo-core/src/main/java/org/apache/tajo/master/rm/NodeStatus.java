@@ -23,12 +23,15 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.yarn.event.EventHandler;
 import org.apache.hadoop.yarn.state.*;
+import org.apache.tajo.QueryId;
 import org.apache.tajo.master.cluster.WorkerConnectionInfo;
 import org.apache.tajo.resource.NodeResource;
 import org.apache.tajo.resource.NodeResources;
 import org.apache.tajo.util.TUtil;
 
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
@@ -76,6 +79,9 @@ public class NodeStatus implements EventHandler<NodeEvent>, Comparable<NodeStatu
   /** Node connection information */
   private WorkerConnectionInfo connectionInfo;
 
+  /** Resources of the running tasks of each query, which are reported by the last heartbeat */
+  private volatile Map<QueryId, NodeResource> runningQueryResources = Collections.emptyMap();
+
   private static final ReconnectNodeTransition RECONNECT_NODE_TRANSITION = new ReconnectNodeTransition();
   private static final StatusUpdateTransition STATUS_UPDATE_TRANSITION = new StatusUpdateTransition();
 
@@ -159,6 +165,15 @@ public class NodeStatus implements EventHandler<NodeEvent>, Comparable<NodeStatu
     return this.lastHeartbeatTime;
   }
 
+  /**
+   * Get the resources of the running tasks of each query on the node.
+   *
+   * @return the resources reported by the last heartbeat
+   */
+  public Map<QueryId, NodeResource> getRunningQueryResources() {
+    return runningQueryResources;
+  }
+
   /**
    *
    * @return the current state of node
@@ -238,6 +253,7 @@ public class NodeStatus implements EventHandler<NodeEvent>, Comparable<NodeStatu
     setLastHeartbeatTime(System.currentTimeMillis());
     setNumRunningTasks(statusEvent.getRunningTaskNum());
     setNumRunningQueryMaster(statusEvent.getRunningQMNum());
+    runningQueryResources = statusEvent.getQueryResources();
     NodeResources.update(availableResource, statusEvent.getAvailableResource());
 
     if(statusEvent.getTotalResource() != null) {
@@ -18,9 +18,13 @@
 
 package org.apache.tajo.master.rm;
 
+import org.apache.tajo.QueryId;
 import org.apache.tajo.annotation.Nullable;
 import org.apache.tajo.resource.NodeResource;
 
+import java.util.Collections;
+import java.util.Map;
+
 /**
  * {@link TajoResourceTracker} produces this event, and its destination is
  * {@link NodeStatus.StatusUpdateTransition} of {@link NodeStatus}.
@@ -30,14 +34,22 @@ public class NodeStatusEvent extends NodeEvent {
   private final int runningQMNum;
   private final NodeResource available;
   private final NodeResource total;
+  private final Map<QueryId, NodeResource> queryResources;
 
   public NodeStatusEvent(int workerId, int runningTaskNum, int runningQMNum,
                          NodeResource available, @Nullable NodeResource total) {
+    this(workerId, runningTaskNum, runningQMNum, available, total, Collections.<QueryId, NodeResource>emptyMap());
+  }
+
+  public NodeStatusEvent(int workerId, int runningTaskNum, int runningQMNum,
+                         NodeResource available, @Nullable NodeResource total,
+                         Map<QueryId, NodeResource> queryResources) {
     super(workerId, NodeEventType.STATE_UPDATE);
     this.runningTaskNum = runningTaskNum;
     this.runningQMNum = runningQMNum;
     this.available = available;
     this.total = total;
+    this.queryResources = queryResources;
   }
 
   public int getRunningTaskNum() {
@@ -55,4 +67,11 @@ public class NodeStatusEvent extends NodeEvent {
   public NodeResource getTotalResource() {
     return total;
   }
+
+  /**
+   * @return The resources of the running tasks of each query in the node
+   */
+  public Map<QueryId, NodeResource> getQueryResources() {
+    return queryResources;
+  }
 }
@@ -18,12 +18,14 @@
 
 package org.apache.tajo.master.rm;
 
+import com.google.common.collect.Maps;
 import com.google.protobuf.RpcCallback;
 import com.google.protobuf.RpcController;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.service.AbstractService;
+import org.apache.tajo.QueryId;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.ipc.TajoResourceTrackerProtocol;
 import org.apache.tajo.ipc.TajoResourceTrackerProtocol.TajoResourceTrackerProtocolService;
@@ -31,11 +33,13 @@ import org.apache.tajo.master.cluster.WorkerConnectionInfo;
 import org.apache.tajo.master.scheduler.event.SchedulerEvent;
 import org.apache.tajo.master.scheduler.event.SchedulerEventType;
 import org.apache.tajo.resource.NodeResource;
+import org.apache.tajo.resource.NodeResources;
 import org.apache.tajo.rpc.AsyncRpcServer;
 import org.apache.tajo.util.NetUtils;
 import org.apache.tajo.util.TUtil;
 
 import java.net.InetSocketAddress;
+import java.util.Map;
 
 import static org.apache.tajo.ResourceProtos.*;
 
@@ -111,12 +115,18 @@ public class TajoResourceTracker extends AbstractService implements TajoResource
   }
 
   private static NodeStatusEvent createStatusEvent(NodeHeartbeatRequest heartbeat) {
+    Map<QueryId, NodeResource> queryResources = Maps.newHashMap();
+    for (QueryResourceProto queryResource : heartbeat.getQueryResourcesList()) {
+      queryResources.put(new QueryId(queryResource.getQueryId()), new NodeResource(queryResource.getResource()));
+    }
+
     return new NodeStatusEvent(
         heartbeat.getWorkerId(),
         heartbeat.getRunningTasks(),
         heartbeat.getRunningQueryMasters(),
         new NodeResource(heartbeat.getAvailableResource()),
-        heartbeat.hasTotalResource() ? new NodeResource(heartbeat.getTotalResource()) : null);
+        heartbeat.hasTotalResource() ? new NodeResource(heartbeat.getTotalResource()) : null,
+        queryResources);
   }
 
   @Override
@@ -142,6 +152,13 @@ public class TajoResourceTracker extends AbstractService implements TajoResource
         // refresh ping
         nodeLivelinessMonitor.receivedPing(workerId);
 
+        // the tasks which the worker should kill for the starved queries
+        for (Map.Entry<QueryId, Integer> entry : manager.getScheduler().takePreemptions(workerId).entrySet()) {
+          response.addPreemptions(QueryResourceProto.newBuilder()
+              .setQueryId(entry.getKey().getProto())
+              .setResource(NodeResources.createResource(entry.getValue()).getProto()));
+        }
+
       } else if (rmContext.getInactiveNodes().containsKey(workerId)) { // node was inactive
         if (!heartbeat.hasConnectionInfo()) {
           // request membership to worker node
@@ -24,6 +24,9 @@ import org.apache.tajo.resource.NodeResource;
 import org.apache.tajo.resource.NodeResources;
 import org.apache.tajo.resource.ResourceCalculator;
 
+import java.util.Collections;
+import java.util.Map;
+
 /**
  * please refer to {@TajoResourceScheduler} for detailed information.
  */
@@ -70,4 +73,14 @@ public abstract class AbstractQueryScheduler extends AbstractService implements
 
   public abstract void stopQuery(QueryId queryId);
 
+  /**
+   * Takes the preemptions of a worker. The worker kills the most recently started tasks of each query until the
+   * resources of the killed tasks reach the preempted memory.
+   *
+   * @return The task memory to be released by each query on the worker. By default, tasks are never preempted.
+   */
+  public Map<QueryId, Integer> takePreemptions(int workerId) {
+    return Collections.emptyMap();
+  }
+
 }
@@ -0,0 +1,345 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.master.scheduler;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.apache.tajo.QueryId;
+
+import java.util.*;
+
+/**
+ * A queue of {@link FairScheduler}. A leaf queue has pending and running queries, and a parent queue aggregates the
+ * queries of its children. The statistics of a queue are updated by the scheduler, and they can be read by other
+ * threads without locking.
+ */
+public class FairQueue extends QueueInfo {
+  private final FairQueue parent;
+  private String queueName;
+  private List<QueueInfo> childQueues = Lists.newArrayList();
+  private QueueState queueState = QueueState.RUNNING;
+
+  /** Relative share among the sibling queues */
+  private float weight;
+  /** Guaranteed fraction of the cluster memory */
+  private float minShare;
+  /** The max number of running queries, or Integer.MAX_VALUE if unlimited */
+  private float maxRunningQueries;
+
+  /** Pending queries of a leaf queue in FIFO order */
+  private final PriorityQueue<QuerySchedulingInfo> pendingQueries =
+      new PriorityQueue<QuerySchedulingInfo>(11, new SchedulingAlgorithms.FifoComparator());
+  /** Running queries of a leaf queue */
+  private final Map<QueryId, QuerySchedulingInfo> runningQueries = Maps.newHashMap();
+  /** The last time when a query of a leaf queue did not get all the task resources it requested */
+  private long lastUnmetDemandTime;
+  /** The time since when a leaf queue below its fair share has not gotten the requested resources, or zero */
+  private long starvedSince;
+  /** The task memory which a query of a leaf queue requested but did not get at the last request */
+  private long unmetDemandMemory;
+
+  // statistics, including the queries of the child queues
+  private volatile int pendingQueryNum;
+  private volatile int runningQueryNum;
+  private volatile long usedMemory;
+  private volatile long fairShareMemory;
+  private volatile long clusterMemory;
+  private volatile long startedQueryNum;
+  private volatile long totalWaitTime;
+  private volatile long oldestPendingTime = Long.MAX_VALUE;
+
+  public FairQueue(FairQueue parent, String queueName, float weight, float minShare, int maxRunningQueries) {
+    this.parent = parent;
+    this.queueName = queueName;
+    this.weight = weight;
+    this.minShare = minShare;
+    this.maxRunningQueries = maxRunningQueries;
+    if (parent != null) {
+      parent.childQueues.add(this);
+    }
+  }
+
+  public FairQueue getParent() {
+    return parent;
+  }
+
+  public boolean isLeaf() {
+    return childQueues.isEmpty();
+  }
+
+  public float getWeight() {
+    return weight;
+  }
+
+  public float getMinShare() {
+    return minShare;
+  }
+
+  @Override
+  public String getQueueName() {
+    return queueName;
+  }
+
+  @Override
+  public void setQueueName(String queueName) {
+    this.queueName = queueName;
+  }
+
+  /**
+   * @return The guaranteed fraction of the cluster memory
+   */
+  @Override
+  public float getCapacity() {
+    return minShare;
+  }
+
+  @Override
+  public void setCapacity(float capacity) {
+    this.minShare = capacity;
+  }
+
+  /**
+   * @return The fraction of the cluster memory which is the fair share of the queue for now
+   */
+  @Override
+  public float getMaximumCapacity() {
+    return clusterMemory == 0 ? 0 : (float) fairShareMemory / clusterMemory;
+  }
+
+  @Override
+  public void setMaximumCapacity(float maximumCapacity) {
+    throw new UnsupportedOperationException("The fair share is computed by the scheduler");
+  }
+
+  @Override
+  public float getMaximumQueryCapacity() {
+    return maxRunningQueries;
+  }
+
+  @Override
+  public void setMaximumQueryCapacity(float maximumQueryCapacity) {
+    this.maxRunningQueries = maximumQueryCapacity;
+  }
+
+  /**
+   * @return The fraction of the cluster memory used by the queue
+   */
+  @Override
+  public float getCurrentCapacity() {
+    return clusterMemory == 0 ? 0 : (float) usedMemory / clusterMemory;
+  }
+
+  @Override
+  public void setCurrentCapacity(float currentCapacity) {
+    throw new UnsupportedOperationException("The usage is computed by the scheduler");
+  }
+
+  @Override
+  public List<QueueInfo> getChildQueues() {
+    return childQueues;
+  }
+
+  @Override
+  public void setChildQueues(List<QueueInfo> childQueues) {
+    this.childQueues = childQueues;
+  }
+
+  @Override
+  public QueueState getQueueState() {
+    return queueState;
+  }
+
+  @Override
+  public void setQueueState(QueueState queueState) {
+    this.queueState = queueState;
+  }
+
+  public int getPendingQueryNum() {
+    return pendingQueryNum;
+  }
+
+  public int getRunningQueryNum() {
+    return runningQueryNum;
+  }
+
+  public long getUsedMemory() {
+    return usedMemory;
+  }
+
+  public long getMinShareMemory() {
+    return (long) (minShare * clusterMemory);
+  }
+
+  public long getFairShareMemory() {
+    return fairShareMemory;
+  }
+
+  /**
+   * @return The average time (ms) for which the started queries waited in the queue
+   */
+  public long getAverageWaitTime() {
+    return startedQueryNum == 0 ? 0 : totalWaitTime / startedQueryNum;
+  }
+
+  /**
+   * @return The time (ms) for which the oldest pending query has waited
+   */
+  public long getMaxPendingTime() {
+    return oldestPendingTime == Long.MAX_VALUE ? 0 : System.currentTimeMillis() - oldestPendingTime;
+  }
+
+  Iterable<FairQueue> getChildren() {
+    List<FairQueue> children = Lists.newArrayList();
+    for (QueueInfo child : childQueues) {
+      children.add((FairQueue) child);
+    }
+    return children;
+  }
+
+  PriorityQueue<QuerySchedulingInfo> getPendingQueries() {
+    return pendingQueries;
+  }
+
+  Map<QueryId, QuerySchedulingInfo> getRunningQueries() {
+    return runningQueries;
+  }
+
+  boolean isActive() {
+    return pendingQueryNum + runningQueryNum > 0;
+  }
+
+  boolean canRunMoreQueries() {
+    return runningQueryNum < maxRunningQueries;
+  }
+
+  long getLastUnmetDemandTime() {
+    return lastUnmetDemandTime;
+  }
+
+  void setLastUnmetDemandTime(long lastUnmetDemandTime) {
+    this.lastUnmetDemandTime = lastUnmetDemandTime;
+  }
+
+  long getStarvedSince() {
+    return starvedSince;
+  }
+
+  void setStarvedSince(long starvedSince) {
+    this.starvedSince = starvedSince;
+  }
+
+  long getUnmetDemandMemory() {
+    return unmetDemandMemory;
+  }
+
+  void setUnmetDemandMemory(long unmetDemandMemory) {
+    this.unmetDemandMemory = unmetDemandMemory;
+  }
+
+  void addWaitTime(long waitTime) {
+    for (FairQueue queue = this; queue != null; queue = queue.parent) {
+      queue.startedQueryNum++;
+      queue.totalWaitTime += waitTime;
+    }
+  }
+
+  /**
+   * Update the query numbers and the used memory of the queue and its children.
+   *
+   * @param queryMemory The memory used by each running query
+   */
+  void updateUsage(Map<QueryId, Long> queryMemory, long clusterMemory) {
+    this.clusterMemory = clusterMemory;
+    int pending = pendingQueries.size();
+    int running = runningQueries.size();
+    long used = 0;
+    long oldest = pendingQueries.isEmpty() ? Long.MAX_VALUE : pendingQueries.peek().getStartTime();
+    for (QueryId queryId : runningQueries.keySet()) {
+      Long memory = queryMemory.get(queryId);
+      used += memory == null ? 0 : memory;
+    }
+    for (FairQueue child : getChildren()) {
+      child.updateUsage(queryMemory, clusterMemory);
+      pending += child.pendingQueryNum;
+      running += child.runningQueryNum;
+      used += child.usedMemory;
+      oldest = Math.min(oldest, child.oldestPendingTime);
+    }
+    this.pendingQueryNum = pending;
+    this.runningQueryNum = running;
+    this.usedMemory = used;
+    this.oldestPendingTime = oldest;
+  }
+
+  /**
+   * Divide the fair share of this queue among the active children in proportion to their weights. A child whose
+   * min share is larger than its weighted share gets the min share, and the others divide the rest.
+   */
+  void updateFairShare(long fairShareMemory) {
+    this.fairShareMemory = fairShareMemory;
+
+    List<FairQueue> activeChildren = Lists.newArrayList();
+    for (FairQueue child : getChildren()) {
+      if (child.isActive()) {
+        activeChildren.add(child);
+      } else {
+        child.updateFairShare(0);
+      }
+    }
+
+    long remaining = fairShareMemory;
+    boolean changed = true;
+    while (changed && !activeChildren.isEmpty()) {
+      changed = false;
+      float totalWeight = getTotalWeight(activeChildren);
+      Iterator<FairQueue> iter = activeChildren.iterator();
+      while (iter.hasNext()) {
+        FairQueue child = iter.next();
+        long minShareMemory = child.getMinShareMemory();
+        if (minShareMemory > remaining * child.weight / totalWeight) {
+          long share = Math.min(minShareMemory, remaining);
+          child.updateFairShare(share);
+          remaining -= share;
+          iter.remove();
+          changed = true;
+          break;
+        }
+      }
+    }
+
+    float totalWeight = getTotalWeight(activeChildren);
+    for (FairQueue child : activeChildren) {
+      child.updateFairShare((long) (remaining * child.weight / totalWeight));
+    }
+  }
+
+  private static float getTotalWeight(List<FairQueue> queues) {
+    float totalWeight = 0;
+    for (FairQueue queue : queues) {
+      totalWeight += queue.weight;
+    }
+    return totalWeight;
+  }
+
+  @Override
+  public String toString() {
+    return queueName + " (weight: " + weight + ", min share: " + minShare + ", running: " + runningQueryNum
+        + ", pending: " + pendingQueryNum + ", used: " + usedMemory + "MB, fair share: " + fairShareMemory + "MB)";
+  }
+}
@@ -0,0 +1,634 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.master.scheduler;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.tajo.QueryId;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.master.TajoMaster;
+import org.apache.tajo.master.rm.NodeStatus;
+import org.apache.tajo.master.rm.TajoRMContext;
+import org.apache.tajo.master.scheduler.event.SchedulerEvent;
+import org.apache.tajo.master.scheduler.event.SchedulerEventType;
+import org.apache.tajo.resource.NodeResource;
+import org.apache.tajo.util.TUtil;
+
+import java.util.*;
+
+import static org.apache.tajo.ResourceProtos.*;
+
+/**
+ * FairScheduler shares the cluster among hierarchical queues. The queues are configured by
+ * 'tajo.scheduler.fair.queues' as comma-separated paths such as 'adhoc.bi', and each queue has the following
+ * properties:
+ * <ul>
+ *   <li>tajo.scheduler.fair.queue.[path].weight - the relative share among the sibling queues (default: 1)</li>
+ *   <li>tajo.scheduler.fair.queue.[path].min-share - the guaranteed fraction of the cluster memory (default: 0)</li>
+ *   <li>tajo.scheduler.fair.queue.[path].max-running-queries - the max number of running queries (default: unlimited)
+ *   </li>
+ * </ul>
+ *
+ * The fair share of a queue is its share of the parent's fair share among the sibling queues which have queries.
+ * A query is started from the queue which is the furthest below its min share, or the queue whose usage divided by
+ * its weight is the smallest if no queue is below its min share. In the queue, queries are started in FIFO order
+ * within the per-user limit of running queries.
+ *
+ * When preemption is enabled, a query in a queue over its fair share gets task resources only within the fair share
+ * while another queue below its fair share is waiting for resources, so the resources of the over-share queue are
+ * reclaimed as its tasks finish. If a queue below its fair share still has not gotten the requested resources after
+ * 'tajo.scheduler.fair.preemption.timeout-ms', the most recently granted tasks of the queries furthest over their
+ * shares are killed. The workers take the preemptions by their heartbeats, and the killed task attempts are retried
+ * by their QueryMasters.
+ *
+ * The usage of a query is the memory of its QueryMaster and of its running tasks reported by the worker heartbeats,
+ * and of the resources granted to it after the last heartbeats of the workers.
+ */
+public class FairScheduler extends SimpleScheduler {
+  private static final Log LOG = LogFactory.getLog(FairScheduler.class);
+
+  public static final String ROOT_QUEUE = "root";
+  public static final String DEFAULT_QUEUE = "default";
+  public static final String QUEUE_PROPERTY_PREFIX = "tajo.scheduler.fair.queue.";
+  public static final String WEIGHT = ".weight";
+  public static final String MIN_SHARE = ".min-share";
+  public static final String MAX_RUNNING_QUERIES = ".max-running-queries";
+
+  private final Object lock = new Object();
+  /** All queues by their paths, including the parent queues */
+  private final Map<String, FairQueue> queues = Maps.newLinkedHashMap();
+  private final Map<QueryId, FairQueue> queryQueueMap = Maps.newHashMap();
+  private final Map<String, Integer> userRunningQueries = Maps.newHashMap();
+  /** Resources granted after the last heartbeats of the workers */
+  private final List<Grant> grants = Lists.newLinkedList();
+  /** The last time when resources of each worker were granted to each query */
+  private final Map<QueryId, Map<Integer, Long>> lastGrantTimes = Maps.newHashMap();
+  /** The task memory to be released by each query on each worker, until the worker takes it */
+  private final Map<Integer, Map<QueryId, Integer>> preemptions = Maps.newHashMap();
+  /** The memory used by each query at the last update of the queues */
+  private Map<QueryId, Long> queryMemory = Maps.newHashMap();
+
+  private FairQueue root;
+  private int userMaxRunningQueries;
+  private boolean preemptionEnabled;
+  private long demandTimeout;
+  private long preemptionTimeout;
+  private long grantTimeout;
+  private volatile boolean isStopped;
+
+  @VisibleForTesting
+  public FairScheduler(TajoMaster.MasterContext context, TajoRMContext rmContext) {
+    super(context, rmContext);
+  }
+
+  public FairScheduler(TajoMaster.MasterContext context) {
+    this(context, context.getResourceManager().getRMContext());
+  }
+
+  @Override
+  public void serviceInit(Configuration conf) throws Exception {
+    TajoConf tajoConf = TUtil.checkTypeAndGet(conf, TajoConf.class);
+    initQueues(tajoConf);
+    userMaxRunningQueries = tajoConf.getIntVar(TajoConf.ConfVars.SCHEDULER_FAIR_USER_MAX_RUNNING_QUERIES);
+    preemptionEnabled = tajoConf.getBoolVar(TajoConf.ConfVars.SCHEDULER_FAIR_PREEMPTION_ENABLED);
+    demandTimeout = tajoConf.getIntVar(TajoConf.ConfVars.SCHEDULER_FAIR_PREEMPTION_DEMAND_TIMEOUT);
+    preemptionTimeout = tajoConf.getIntVar(TajoConf.ConfVars.SCHEDULER_FAIR_PREEMPTION_TIMEOUT);
+    grantTimeout = tajoConf.getIntVar(TajoConf.ConfVars.WORKER_HEARTBEAT_ACTIVE_INTERVAL);
+    super.serviceInit(conf);
+  }
+
+  @Override
+  protected void serviceStop() throws Exception {
+    isStopped = true;
+    synchronized (lock) {
+      lock.notifyAll();
+    }
+    super.serviceStop();
+  }
+
+  private void initQueues(TajoConf conf) {
+    root = new FairQueue(null, ROOT_QUEUE, 1.0f, 0.0f, Integer.MAX_VALUE);
+
+    List<String> paths = Lists.newArrayList(DEFAULT_QUEUE);
+    for (String path : conf.getVar(TajoConf.ConfVars.SCHEDULER_FAIR_QUEUES).split(",")) {
+      if (!path.trim().isEmpty() && !paths.contains(path.trim())) {
+        paths.add(path.trim());
+      }
+    }
+
+    for (String path : paths) {
+      FairQueue parent = root;
+      StringBuilder queuePath = new StringBuilder();
+      for (String name : path.split("\\.")) {
+        if (queuePath.length() > 0) {
+          queuePath.append(".");
+        }
+        queuePath.append(name);
+
+        FairQueue queue = queues.get(queuePath.toString());
+        if (queue == null) {
+          String prefix = QUEUE_PROPERTY_PREFIX + queuePath;
+          queue = new FairQueue(parent, queuePath.toString(),
+              conf.getFloat(prefix + WEIGHT, 1.0f),
+              conf.getFloat(prefix + MIN_SHARE, 0.0f),
+              conf.getInt(prefix + MAX_RUNNING_QUERIES, Integer.MAX_VALUE));
+          queues.put(queue.getQueueName(), queue);
+        }
+        parent = queue;
+      }
+    }
+
+    for (FairQueue queue : queues.values()) {
+      LOG.info("Fair scheduler queue: " + queue);
+    }
+  }
+
+  /**
+   * @return All queues including the parent queues, except the root queue
+   */
+  public Collection<FairQueue> getQueues() {
+    return Collections.unmodifiableCollection(queues.values());
+  }
+
+  public FairQueue getQueue(String path) {
+    return queues.get(path);
+  }
+
+  @Override
+  public void submitQuery(QuerySchedulingInfo schedulingInfo) {
+    synchronized (lock) {
+      FairQueue queue = queues.get(schedulingInfo.getQueue());
+      if (queue == null || !queue.isLeaf()) {
+        LOG.warn("Unknown leaf queue '" + schedulingInfo.getQueue() + "' of " + schedulingInfo.getQueryId()
+            + ", the query is submitted to the default queue");
+        queue = queues.get(DEFAULT_QUEUE);
+      }
+      queue.getPendingQueries().add(schedulingInfo);
+      queryQueueMap.put(schedulingInfo.getQueryId(), queue);
+      updateQueues();
+      lock.notifyAll();
+    }
+  }
+
+  @Override
+  public void stopQuery(QueryId queryId) {
+    synchronized (lock) {
+      FairQueue queue = queryQueueMap.remove(queryId);
+      if (queue != null) {
+        QuerySchedulingInfo query = queue.getRunningQueries().remove(queryId);
+        if (query != null) {
+          decrementUserRunningQueries(query.getUser());
+        } else {
+          Iterator<QuerySchedulingInfo> iter = queue.getPendingQueries().iterator();
+          while (iter.hasNext()) {
+            if (iter.next().getQueryId().equals(queryId)) {
+              iter.remove();
+            }
+          }
+        }
+      }
+      Iterator<Grant> iter = grants.iterator();
+      while (iter.hasNext()) {
+        if (iter.next().queryId.equals(queryId)) {
+          iter.remove();
+        }
+      }
+      lastGrantTimes.remove(queryId);
+      for (Map<QueryId, Integer> orders : preemptions.values()) {
+        orders.remove(queryId);
+      }
+      updateQueues();
+      lock.notifyAll();
+    }
+    super.stopQuery(queryId);
+  }
+
+  /**
+   * The taken query is counted as a running query until it is returned by {@link #requeueQuery}.
+   */
+  @Override
+  protected QuerySchedulingInfo takeQuery() throws InterruptedException {
+    synchronized (lock) {
+      updateQueues();
+      FairQueue queue = selectQueue(root);
+      if (queue == null) {
+        if (!isStopped) {
+          lock.wait(1000);
+        }
+        return null;
+      }
+
+      QuerySchedulingInfo query = selectQuery(queue);
+      queue.getPendingQueries().remove(query);
+      queue.getRunningQueries().put(query.getQueryId(), query);
+      Integer userQueries = userRunningQueries.get(query.getUser());
+      userRunningQueries.put(query.getUser(), userQueries == null ? 1 : userQueries + 1);
+      updateQueues();
+      return query;
+    }
+  }
+
+  @Override
+  protected void requeueQuery(QuerySchedulingInfo query) {
+    synchronized (lock) {
+      FairQueue queue = queryQueueMap.get(query.getQueryId());
+      if (queue != null && queue.getRunningQueries().remove(query.getQueryId()) != null) {
+        decrementUserRunningQueries(query.getUser());
+        queue.getPendingQueries().add(query);
+        updateQueues();
+      }
+    }
+  }
+
+  @Override
+  protected void assignQueryMaster(QuerySchedulingInfo query, int workerId) {
+    synchronized (lock) {
+      FairQueue queue = queryQueueMap.get(query.getQueryId());
+      if (queue != null) {
+        queue.addWaitTime(System.currentTimeMillis() - query.getStartTime());
+      }
+    }
+    super.assignQueryMaster(query, workerId);
+  }
+
+  private void decrementUserRunningQueries(String user) {
+    Integer userQueries = userRunningQueries.get(user);
+    if (userQueries == null || userQueries <= 1) {
+      userRunningQueries.remove(user);
+    } else {
+      userRunningQueries.put(user, userQueries - 1);
+    }
+  }
+
+  /**
+   * @return The leaf queue from which a query is started next, or null if no query can be started
+   */
+  private FairQueue selectQueue(FairQueue queue) {
+    if (!queue.canRunMoreQueries()) {
+      return null;
+    }
+    if (queue.isLeaf()) {
+      return selectQuery(queue) != null ? queue : null;
+    }
+
+    List<FairQueue> children = Lists.newArrayList(queue.getChildren());
+    Collections.sort(children, FAIR_SHARE_COMPARATOR);
+    for (FairQueue child : children) {
+      FairQueue selected = selectQueue(child);
+      if (selected != null) {
+        return selected;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return The first pending query of the queue whose user can run more queries
+   */
+  private QuerySchedulingInfo selectQuery(FairQueue queue) {
+    List<QuerySchedulingInfo> pendingQueries = Lists.newArrayList(queue.getPendingQueries());
+    Collections.sort(pendingQueries, new SchedulingAlgorithms.FifoComparator());
+    for (QuerySchedulingInfo query : pendingQueries) {
+      Integer userQueries = userRunningQueries.get(query.getUser());
+      if (userMaxRunningQueries <= 0 || userQueries == null || userQueries < userMaxRunningQueries) {
+        return query;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * The queue below its min share comes first, and then the queue whose usage divided by its weight is smaller.
+   */
+  private static final Comparator<FairQueue> FAIR_SHARE_COMPARATOR = new Comparator<FairQueue>() {
+    @Override
+    public int compare(FairQueue q1, FairQueue q2) {
+      long minShare1 = q1.getMinShareMemory();
+      long minShare2 = q2.getMinShareMemory();
+      boolean needy1 = q1.getUsedMemory() < minShare1;
+      boolean needy2 = q2.getUsedMemory() < minShare2;
+
+      int res;
+      if (needy1 && !needy2) {
+        res = -1;
+      } else if (!needy1 && needy2) {
+        res = 1;
+      } else if (needy1) {
+        res = Double.compare((double) q1.getUsedMemory() / minShare1, (double) q2.getUsedMemory() / minShare2);
+      } else {
+        res = Double.compare(q1.getUsedMemory() / q1.getWeight(), q2.getUsedMemory() / q2.getWeight());
+      }
+      if (res == 0) {
+        res = q1.getQueueName().compareTo(q2.getQueueName());
+      }
+      return res;
+    }
+  };
+
+  @Override
+  public List<AllocationResourceProto> reserve(QueryId queryId, NodeResourceRequest request) {
+    if (request.getType() == ResourceType.QUERYMASTER) {
+      return super.reserve(queryId, request);
+    }
+
+    FairQueue queue;
+    int allowedContainers = request.getNumContainers();
+    synchronized (lock) {
+      queue = queryQueueMap.get(queryId);
+      if (queue != null && preemptionEnabled) {
+        updateQueues();
+        allowedContainers = getAllowedContainers(queue, request.getCapacity().getMemory(), allowedContainers);
+      }
+    }
+
+    List<AllocationResourceProto> allocations;
+    if (allowedContainers <= 0) {
+      allocations = Lists.newArrayList();
+    } else if (allowedContainers < request.getNumContainers()) {
+      allocations = super.reserve(queryId, request.toBuilder().setNumContainers(allowedContainers).build());
+    } else {
+      allocations = super.reserve(queryId, request);
+    }
+
+    synchronized (lock) {
+      long now = System.currentTimeMillis();
+      for (AllocationResourceProto allocation : allocations) {
+        grants.add(new Grant(allocation.getWorkerId(), queryId, allocation.getResource().getMemory(), now));
+        Map<Integer, Long> grantTimes = lastGrantTimes.get(queryId);
+        if (grantTimes == null) {
+          grantTimes = Maps.newHashMap();
+          lastGrantTimes.put(queryId, grantTimes);
+        }
+        grantTimes.put(allocation.getWorkerId(), now);
+      }
+      updateQueues();
+
+      if (queue != null) {
+        int unmetContainers = request.getNumContainers() - allocations.size();
+        if (unmetContainers > 0) {
+          queue.setLastUnmetDemandTime(now);
+          queue.setUnmetDemandMemory((long) unmetContainers * request.getCapacity().getMemory());
+          if (queue.getStarvedSince() == 0 && queue.getUsedMemory() < queue.getFairShareMemory()) {
+            queue.setStarvedSince(now);
+          }
+        } else {
+          queue.setUnmetDemandMemory(0);
+          queue.setStarvedSince(0);
+        }
+        if (preemptionEnabled) {
+          preemptTasks(now);
+        }
+      }
+    }
+    return allocations;
+  }
+
+  /**
+   * Takes the preemptions of a worker. The worker kills the most recently started tasks of each query until the
+   * resources of the killed tasks reach the preempted memory.
+   *
+   * @return The task memory to be released by each query on the worker
+   */
+  @Override
+  public Map<QueryId, Integer> takePreemptions(int workerId) {
+    synchronized (lock) {
+      Map<QueryId, Integer> orders = preemptions.remove(workerId);
+      return orders == null ? Collections.<QueryId, Integer>emptyMap() : orders;
+    }
+  }
+
+  @Override
+  public void handle(SchedulerEvent event) {
+    super.handle(event);
+    if (event.getType() == SchedulerEventType.RESOURCE_UPDATE) {
+      // the heartbeats of the workers update the resources of the running tasks
+      synchronized (lock) {
+        updateQueues();
+        if (preemptionEnabled) {
+          preemptTasks(System.currentTimeMillis());
+        }
+      }
+    }
+  }
+
+  /**
+   * @return The number of containers which a query of the queue can get without taking the fair shares of the
+   * other queues waiting for resources
+   */
+  private int getAllowedContainers(FairQueue queue, int containerMemory, int requestedContainers) {
+    long available = queue.getFairShareMemory() - queue.getUsedMemory();
+    if (containerMemory <= 0 || available >= (long) containerMemory * requestedContainers) {
+      return requestedContainers;
+    }
+
+    long now = System.currentTimeMillis();
+    for (FairQueue other : queues.values()) {
+      if (other == queue || !other.isLeaf() || other.getUsedMemory() >= other.getFairShareMemory()) {
+        continue;
+      }
+      if (other.getPendingQueryNum() > 0 || now - other.getLastUnmetDemandTime() < demandTimeout) {
+        if (LOG.isDebugEnabled()) {
+          LOG.debug("Queue " + queue + " is limited for starved queue " + other);
+        }
+        return (int) Math.max(0, available / containerMemory);
+      }
+    }
+    return requestedContainers;
+  }
+
+  /**
+   * Preempts the tasks of the queries over their fair shares for the queues below their fair shares which have
+   * waited for resources longer than the preemption timeout. This should be called with the lock.
+   */
+  private void preemptTasks(long now) {
+    List<FairQueue> starvedQueues = Lists.newArrayList();
+    long demand = 0;
+    for (FairQueue queue : queues.values()) {
+      if (queue.isLeaf() && queue.getStarvedSince() > 0 && now - queue.getStarvedSince() >= preemptionTimeout) {
+        starvedQueues.add(queue);
+        demand += Math.min(queue.getFairShareMemory() - queue.getUsedMemory(), queue.getUnmetDemandMemory());
+      }
+    }
+    // the preemptions which the workers have not taken yet will release their resources soon
+    for (Map<QueryId, Integer> orders : preemptions.values()) {
+      for (Integer memory : orders.values()) {
+        demand -= memory;
+      }
+    }
+    if (demand <= 0) {
+      return;
+    }
+
+    // The share of a query is the fair share of its queue divided among the running queries of the queue.
+    // A queue is not preempted below its fair share.
+    final Map<QueryId, Long> queryExcess = Maps.newHashMap();
+    Map<FairQueue, Long> queueExcess = Maps.newHashMap();
+    for (FairQueue queue : queues.values()) {
+      if (!queue.isLeaf() || queue.getUsedMemory() <= queue.getFairShareMemory()
+          || queue.getRunningQueries().isEmpty()) {
+        continue;
+      }
+      queueExcess.put(queue, queue.getUsedMemory() - queue.getFairShareMemory());
+      long queryShare = queue.getFairShareMemory() / queue.getRunningQueries().size();
+      for (QueryId queryId : queue.getRunningQueries().keySet()) {
+        Long used = queryMemory.get(queryId);
+        if (used != null && used > queryShare) {
+          queryExcess.put(queryId, used - queryShare);
+        }
+      }
+    }
+
+    List<QueryId> victims = Lists.newArrayList(queryExcess.keySet());
+    Collections.sort(victims, new Comparator<QueryId>() {
+      @Override
+      public int compare(QueryId q1, QueryId q2) {
+        return Long.compare(queryExcess.get(q2), queryExcess.get(q1));
+      }
+    });
+
+    for (QueryId queryId : victims) {
+      if (demand <= 0) {
+        break;
+      }
+      FairQueue queue = queryQueueMap.get(queryId);
+      long amount = Math.min(demand, Math.min(queryExcess.get(queryId), queueExcess.get(queue)));
+      long preempted = preemptQuery(queryId, amount);
+      queueExcess.put(queue, queueExcess.get(queue) - preempted);
+      demand -= preempted;
+    }
+
+    // the starved queues wait for the preempted resources before preempting more
+    for (FairQueue queue : starvedQueues) {
+      queue.setStarvedSince(now);
+    }
+  }
+
+  /**
+   * Preempts the task memory of a query on the workers which granted resources to the query most recently.
+   *
+   * @return The preempted memory
+   */
+  private long preemptQuery(QueryId queryId, long amount) {
+    final Map<Integer, Long> grantTimes = lastGrantTimes.containsKey(queryId) ?
+        lastGrantTimes.get(queryId) : Collections.<Integer, Long>emptyMap();
+    List<NodeStatus> nodes = Lists.newArrayList();
+    for (NodeStatus node : getRMContext().getNodes().values()) {
+      if (node.getRunningQueryResources().containsKey(queryId)) {
+        nodes.add(node);
+      }
+    }
+    Collections.sort(nodes, new Comparator<NodeStatus>() {
+      @Override
+      public int compare(NodeStatus n1, NodeStatus n2) {
+        Long time1 = grantTimes.get(n1.getWorkerId());
+        Long time2 = grantTimes.get(n2.getWorkerId());
+        return Long.compare(time2 == null ? 0 : time2, time1 == null ? 0 : time1);
+      }
+    });
+
+    long preempted = 0;
+    for (NodeStatus node : nodes) {
+      if (preempted >= amount) {
+        break;
+      }
+      Map<QueryId, Integer> orders = preemptions.get(node.getWorkerId());
+      if (orders == null) {
+        orders = Maps.newHashMap();
+        preemptions.put(node.getWorkerId(), orders);
+      }
+      Integer ordered = orders.get(queryId);
+      int running = node.getRunningQueryResources().get(queryId).getMemory() - (ordered == null ? 0 : ordered);
+      int memory = (int) Math.min(running, amount - preempted);
+      if (memory > 0) {
+        orders.put(queryId, ordered == null ? memory : ordered + memory);
+        preempted += memory;
+        LOG.info("Preempt " + memory + "MB of " + queryId + " on worker " + node.getWorkerId());
+      }
+    }
+    return preempted;
+  }
+
+  /**
+   * Update the usages and the fair shares of all queues. This should be called with the lock.
+   */
+  private void updateQueues() {
+    Map<Integer, NodeStatus> nodes = getRMContext().getNodes();
+    Map<QueryId, Long> queryMemory = Maps.newHashMap();
+
+    // resources of the running tasks reported by the last heartbeats
+    for (NodeStatus node : nodes.values()) {
+      for (Map.Entry<QueryId, NodeResource> entry : node.getRunningQueryResources().entrySet()) {
+        addMemory(queryMemory, entry.getKey(), entry.getValue().getMemory());
+      }
+    }
+
+    // resources granted after the last heartbeats
+    Iterator<Grant> iter = grants.iterator();
+    while (iter.hasNext()) {
+      Grant grant = iter.next();
+      NodeStatus node = nodes.get(grant.workerId);
+      if (node == null || node.getLastHeartbeatTime() > grant.time + grantTimeout) {
+        iter.remove();
+      } else {
+        addMemory(queryMemory, grant.queryId, grant.memory);
+      }
+    }
+
+    // resources of the QueryMasters
+    for (FairQueue queue : queues.values()) {
+      for (QueryId queryId : queue.getRunningQueries().keySet()) {
+        addMemory(queryMemory, queryId, getQMMinimumResourceCapability().getMemory());
+      }
+    }
+
+    long clusterMemory = getMaximumResourceCapability().getMemory();
+    root.updateUsage(queryMemory, clusterMemory);
+    root.updateFairShare(clusterMemory);
+    this.queryMemory = queryMemory;
+
+    for (FairQueue queue : queues.values()) {
+      if (queue.getStarvedSince() > 0 && queue.getUsedMemory() >= queue.getFairShareMemory()) {
+        queue.setStarvedSince(0);
+      }
+    }
+  }
+
+  private static void addMemory(Map<QueryId, Long> queryMemory, QueryId queryId, long memory) {
+    Long used = queryMemory.get(queryId);
+    queryMemory.put(queryId, used == null ? memory : used + memory);
+  }
+
+  private static class Grant {
+    final int workerId;
+    final QueryId queryId;
+    final int memory;
+    final long time;
+
+    Grant(int workerId, QueryId queryId, int memory, long time) {
+      this.workerId = workerId;
+      this.queryId = queryId;
+      this.memory = memory;
+      this.time = time;
+    }
+  }
+}
@@ -137,7 +137,7 @@ public class SimpleScheduler extends AbstractQueryScheduler {
     return resourceCalculator;
   }
 
-  private NodeResourceRequest createQMResourceRequest(QueryInfo queryInfo) {
+  private NodeResourceRequest createQMResourceRequest(QuerySchedulingInfo query, QueryInfo queryInfo) {
     NodeResource qmResource = getQMMinimumResourceCapability();
 
     int containers = 1;
@@ -163,8 +163,8 @@ public class SimpleScheduler extends AbstractQueryScheduler {
         .setNumContainers(containers)
         .setRunningTasks(1)
         .addAllCandidateNodes(idleNode)
-        .setUserId(queryInfo.getQueryContext().getUser());
-    //TODO .setQueue(queryInfo.getQueue());
+        .setUserId(queryInfo.getQueryContext().getUser())
+        .setQueue(query.getQueue());
     return builder.build();
   }
 
@@ -291,6 +291,26 @@ public class SimpleScheduler extends AbstractQueryScheduler {
    return masterContext.getQueryJobManager().startQueryJob(queryId, allocation);
   }
 
+  /**
+   * This will block until a query is submitted.
+   *
+   * @return The next query to be started, or null if no query can be started for now
+   */
+  protected QuerySchedulingInfo takeQuery() throws InterruptedException {
+    return queryQueue.take();
+  }
+
+  /**
+   * Return a query, which is not started, to be taken again.
+   */
+  protected void requeueQuery(QuerySchedulingInfo query) {
+    queryQueue.add(query);
+  }
+
+  protected void assignQueryMaster(QuerySchedulingInfo query, int workerId) {
+    assignedQueryMasterMap.put(query.getQueryId(), workerId);
+  }
+
   public void stopQuery(QueryId queryId) {
     if(pendingQueryMap.containsKey(queryId)){
       queryQueue.remove(pendingQueryMap.remove(queryId));
@@ -329,18 +349,21 @@ public class SimpleScheduler extends AbstractQueryScheduler {
 
       while (!isStopped && !Thread.currentThread().isInterrupted()) {
         try {
-          query = queryQueue.take();
+          query = takeQuery();
         } catch (InterruptedException e) {
           LOG.warn(e.getMessage(), e);
           break;
         }
+        if (query == null) {
+          continue;
+        }
         //TODO get by assigned queue
         int maxAvailable = getResourceCalculator().computeAvailableContainers(
             getMaximumResourceCapability(), getQMMinimumResourceCapability());
 
         // check maximum parallel running QM. allow 50% parallel running
         if (assignedQueryMasterMap.size() >= Math.floor(maxAvailable * MAXIMUM_RUNNING_QM_RATE)) {
-          queryQueue.add(query);
+          requeueQuery(query);
           synchronized (this) {
             try {
               this.wait(1000);
@@ -353,10 +376,10 @@ public class SimpleScheduler extends AbstractQueryScheduler {
           }
         } else {
           QueryInfo queryInfo = getQueryInfo(query.getQueryId());
-          List<AllocationResourceProto> allocation = reserve(query.getQueryId(), createQMResourceRequest(queryInfo));
+          List<AllocationResourceProto> allocation = reserve(query.getQueryId(), createQMResourceRequest(query, queryInfo));
 
           if(allocation.size() == 0) {
-            queryQueue.add(query);
+            requeueQuery(query);
             LOG.info("No Available Resources for QueryMaster :" + queryInfo.getQueryId() + "," + queryInfo);
 
             synchronized (this) {
@@ -371,9 +394,9 @@ public class SimpleScheduler extends AbstractQueryScheduler {
               //if QM resource can't be allocated to a node, it should retry
               boolean started = startQuery(query.getQueryId(), allocation.get(0));
               if(!started) {
-                queryQueue.put(query);
+                requeueQuery(query);
               } else {
-                assignedQueryMasterMap.put(query.getQueryId(), allocation.get(0).getWorkerId());
+                assignQueryMaster(query, allocation.get(0).getWorkerId());
               }
             } catch (Throwable t) {
               LOG.fatal("Exception during query startup:", t);
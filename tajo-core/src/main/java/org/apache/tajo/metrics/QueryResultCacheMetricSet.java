@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.metrics;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import org.apache.tajo.master.TajoMaster;
+import org.apache.tajo.master.exec.QueryResultCache;
+import org.apache.tajo.metrics.Master.ResultCache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class QueryResultCacheMetricSet implements MetricSet {
+  TajoMaster.MasterContext masterContext;
+  public QueryResultCacheMetricSet(TajoMaster.MasterContext masterContext) {
+    this.masterContext = masterContext;
+  }
+
+  @Override
+  public Map<String, Metric> getMetrics() {
+    Map<String, Metric> metricsMap = new HashMap<String, Metric>();
+
+    metricsMap.put(ResultCache.HITS.name(), new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        return getCache().getHitCount();
+      }
+    });
+
+    metricsMap.put(ResultCache.MISSES.name(), new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        return getCache().getMissCount();
+      }
+    });
+
+    metricsMap.put(ResultCache.HIT_RATE.name(), new Gauge<Double>() {
+      @Override
+      public Double getValue() {
+        return getCache().getHitRate();
+      }
+    });
+
+    metricsMap.put(ResultCache.ENTRIES.name(), new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        return getCache().getEntryNum();
+      }
+    });
+
+    metricsMap.put(ResultCache.BYTES.name(), new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        return getCache().getTotalBytes();
+      }
+    });
+
+    metricsMap.put(ResultCache.EVICTIONS.name(), new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        return getCache().getEvictionCount();
+      }
+    });
+
+    return metricsMap;
+  }
+
+  protected QueryResultCache getCache() {
+    return masterContext.getQueryResultCache();
+  }
+}
@@ -0,0 +1,91 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.metrics;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import org.apache.tajo.master.scheduler.FairQueue;
+import org.apache.tajo.master.scheduler.FairScheduler;
+import org.apache.tajo.metrics.Master.SchedulerQueue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class SchedulerQueueMetricSet implements MetricSet {
+  FairScheduler scheduler;
+  public SchedulerQueueMetricSet(FairScheduler scheduler) {
+    this.scheduler = scheduler;
+  }
+
+  @Override
+  public Map<String, Metric> getMetrics() {
+    Map<String, Metric> metricsMap = new HashMap<String, Metric>();
+
+    for (final FairQueue queue : scheduler.getQueues()) {
+      metricsMap.put(getName(queue, SchedulerQueue.RUNNING_QUERY_NUM), new Gauge<Integer>() {
+        @Override
+        public Integer getValue() {
+          return queue.getRunningQueryNum();
+        }
+      });
+
+      metricsMap.put(getName(queue, SchedulerQueue.PENDING_QUERY_NUM), new Gauge<Integer>() {
+        @Override
+        public Integer getValue() {
+          return queue.getPendingQueryNum();
+        }
+      });
+
+      metricsMap.put(getName(queue, SchedulerQueue.USED_MEMORY), new Gauge<Long>() {
+        @Override
+        public Long getValue() {
+          return queue.getUsedMemory();
+        }
+      });
+
+      metricsMap.put(getName(queue, SchedulerQueue.FAIR_SHARE_MEMORY), new Gauge<Long>() {
+        @Override
+        public Long getValue() {
+          return queue.getFairShareMemory();
+        }
+      });
+
+      metricsMap.put(getName(queue, SchedulerQueue.AVG_WAIT_TIME), new Gauge<Long>() {
+        @Override
+        public Long getValue() {
+          return queue.getAverageWaitTime();
+        }
+      });
+
+      metricsMap.put(getName(queue, SchedulerQueue.MAX_PENDING_TIME), new Gauge<Long>() {
+        @Override
+        public Long getValue() {
+          return queue.getMaxPendingTime();
+        }
+      });
+    }
+
+    return metricsMap;
+  }
+
+  private static String getName(FairQueue queue, SchedulerQueue metric) {
+    return queue.getQueueName() + MetricsUtil.DELIMITER + metric.name();
+  }
+}
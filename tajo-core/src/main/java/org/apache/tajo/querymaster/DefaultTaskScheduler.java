@@ -18,6 +18,7 @@
 
 package org.apache.tajo.querymaster;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -26,16 +27,20 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.yarn.api.records.ContainerId;
 import org.apache.hadoop.yarn.util.RackResolver;
+import org.apache.tajo.SessionVars;
+import org.apache.tajo.TajoProtos.TaskAttemptState;
 import org.apache.tajo.TaskAttemptId;
-import org.apache.tajo.catalog.proto.CatalogProtos.FragmentProto;
+import org.apache.tajo.TaskId;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.engine.planner.global.ExecutionBlock;
 import org.apache.tajo.engine.planner.global.MasterPlan;
+import org.apache.tajo.engine.query.QueryContext;
 import org.apache.tajo.engine.query.TaskRequest;
 import org.apache.tajo.engine.query.TaskRequestImpl;
 import org.apache.tajo.ipc.QueryCoordinatorProtocol;
 import org.apache.tajo.ipc.QueryCoordinatorProtocol.QueryCoordinatorProtocolService;
 import org.apache.tajo.ipc.TajoWorkerProtocol;
+import org.apache.tajo.master.TaskState;
 import org.apache.tajo.master.cluster.WorkerConnectionInfo;
 import org.apache.tajo.master.event.*;
 import org.apache.tajo.master.event.TaskAttemptToSchedulerEvent.TaskAttemptScheduleContext;
@@ -60,11 +65,14 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.apache.tajo.ResourceProtos.*;
+import static org.apache.tajo.plan.serder.PlanProto.ShuffleType;
 
 public class DefaultTaskScheduler extends AbstractTaskScheduler {
   private static final Log LOG = LogFactory.getLog(DefaultTaskScheduler.class);
 
   private static final String REQUEST_MAX_NUM = "tajo.qm.task-scheduler.request.max-num";
+  // the interval (msec) between checks for straggler tasks
+  private static final long SPECULATION_CHECK_INTERVAL = 1000;
 
   private final TaskSchedulerContext context;
   private Stage stage;
@@ -86,6 +94,14 @@ public class DefaultTaskScheduler extends AbstractTaskScheduler {
   //candidate workers for locality of high priority
   private Set<Integer> candidateWorkers = Sets.newHashSet();
 
+  // for speculative execution
+  private boolean speculativeEnabled;
+  private long speculativeMinRuntime;
+  private float speculativeSlownessRatio;
+  private float speculativeMaxFraction;
+  private int speculativeAttemptNum = 0;
+  private long lastSpeculationCheckTime = 0;
+
   public DefaultTaskScheduler(TaskSchedulerContext context, Stage stage) {
     super(DefaultTaskScheduler.class.getName());
     this.context = context;
@@ -99,6 +115,13 @@ public class DefaultTaskScheduler extends AbstractTaskScheduler {
     minTaskMemory = tajoConf.getIntVar(TajoConf.ConfVars.TASK_RESOURCE_MINIMUM_MEMORY);
     schedulerDelay= tajoConf.getIntVar(TajoConf.ConfVars.QUERYMASTER_TASK_SCHEDULER_DELAY);
 
+    QueryContext queryContext = context.getMasterContext().getQueryContext();
+    speculativeEnabled = queryContext.getBool(SessionVars.SPECULATIVE_EXECUTION_ENABLED)
+        && hasAttemptIsolatedOutput();
+    speculativeMinRuntime = queryContext.getInt(SessionVars.SPECULATIVE_EXECUTION_MIN_RUNTIME);
+    speculativeSlownessRatio = queryContext.getFloat(SessionVars.SPECULATIVE_EXECUTION_SLOWNESS_RATIO);
+    speculativeMaxFraction = queryContext.getFloat(SessionVars.SPECULATIVE_EXECUTION_MAX_FRACTION);
+
     this.schedulingThread = new Thread() {
       public void run() {
 
@@ -166,7 +189,12 @@ public class DefaultTaskScheduler extends AbstractTaskScheduler {
 
   public void schedule() throws Exception {
     try {
-      final int incompleteTaskNum = scheduledRequests.leafTaskNum() + scheduledRequests.nonLeafTaskNum();
+      if (speculativeEnabled) {
+        speculateStragglers();
+      }
+
+      final int pendingTaskNum = scheduledRequests.leafTaskNum() + scheduledRequests.nonLeafTaskNum();
+      final int incompleteTaskNum = pendingTaskNum + scheduledRequests.speculativeTaskNum();
       if (incompleteTaskNum == 0) {
         needWakeup.set(true);
         // all task is done or tasks is not scheduled
@@ -185,7 +213,10 @@ public class DefaultTaskScheduler extends AbstractTaskScheduler {
             LOG.debug("Get " + taskRequests.size() + " taskRequestEvents ");
           }
 
-          if (isLeaf) {
+          if (pendingTaskNum == 0) {
+            // backup attempts are launched only after all original attempts are assigned
+            scheduledRequests.assignToSpeculativeTasks(taskRequests);
+          } else if (isLeaf) {
             scheduledRequests.assignToLeafTasks(taskRequests);
           } else {
             scheduledRequests.assignToNonLeafTasks(taskRequests);
@@ -244,7 +275,9 @@ public class DefaultTaskScheduler extends AbstractTaskScheduler {
         stage.getEventHandler().handle(new TaskEvent(task.getId(), TaskEventType.T_SCHEDULE));
       } else if (event instanceof TaskAttemptToSchedulerEvent) {
         TaskAttemptToSchedulerEvent castEvent = (TaskAttemptToSchedulerEvent) event;
-        if (context.isLeafQuery()) {
+        if (castEvent.getTaskAttempt().isSpeculative()) {
+          scheduledRequests.addSpeculativeTask(castEvent);
+        } else if (context.isLeafQuery()) {
           scheduledRequests.addLeafTask(castEvent);
         } else {
           scheduledRequests.addNonLeafTask(castEvent);
@@ -262,6 +295,7 @@ public class DefaultTaskScheduler extends AbstractTaskScheduler {
       // This event is triggered by TaskAttempt.
       TaskAttemptToSchedulerEvent castedEvent = (TaskAttemptToSchedulerEvent) event;
       scheduledRequests.leafTasks.remove(castedEvent.getTaskAttempt().getId());
+      scheduledRequests.speculativeTasks.remove(castedEvent.getTaskAttempt().getId());
       LOG.info(castedEvent.getTaskAttempt().getId() + " is canceled from " + this.getClass().getSimpleName());
       ((TaskAttemptToSchedulerEvent) event).getTaskAttempt().handle(
           new TaskAttemptEvent(castedEvent.getTaskAttempt().getId(), TaskAttemptEventType.TA_SCHEDULE_CANCELED));
@@ -307,7 +341,7 @@ public class DefaultTaskScheduler extends AbstractTaskScheduler {
         .setUserId(context.getMasterContext().getQueryContext().getUser())
         .setRunningTasks(stage.getTotalScheduledObjectsCount() - stage.getCompletedTaskCount())
         .addAllCandidateNodes(candidateWorkers)
-        .setQueue(context.getMasterContext().getQueryContext().get("queue", "default")); //TODO set queue
+        .setQueue(context.getMasterContext().getQueryContext().get(SessionVars.QUERY_QUEUE));
 
     masterClientService.reserveNodeResources(callBack.getController(), request.build(), callBack);
     NodeResourceResponse response = callBack.get(RpcConstants.DEFAULT_FUTURE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
@@ -319,6 +353,153 @@ public class DefaultTaskScheduler extends AbstractTaskScheduler {
     return taskRequestEvents;
   }
 
+  /**
+   * Only the range shuffle output is written in a directory of each task attempt. The other outputs, such as
+   * hash shuffle partitions and final output files, are shared by all attempts of a task, so they cannot be
+   * produced by two attempts at the same time.
+   */
+  private boolean hasAttemptIsolatedOutput() {
+    return !stage.getMasterPlan().isRoot(stage.getBlock())
+        && stage.getDataChannel().getShuffleType() == ShuffleType.RANGE_SHUFFLE;
+  }
+
+  /**
+   * Find the running tasks whose progress rates are far below the median rate of the stage, and add backup attempts
+   * of them. The progress rate of a task is its progress per msec since it was launched. Stragglers are looked for
+   * only after all tasks of the stage are assigned, and backup attempts are capped by a fraction of the tasks.
+   */
+  private void speculateStragglers() {
+    long now = System.currentTimeMillis();
+    if (now - lastSpeculationCheckTime < SPECULATION_CHECK_INTERVAL) {
+      return;
+    }
+    lastSpeculationCheckTime = now;
+
+    // a backup attempt needs another worker, and it waits until all the other tasks are assigned
+    if (context.getMasterContext().getWorkerMap().size() < 2
+        || scheduledRequests.leafTaskNum() + scheduledRequests.nonLeafTaskNum() > 0) {
+      return;
+    }
+    int maxSpeculativeAttemptNum =
+        getMaxSpeculativeAttemptNum(stage.getTotalScheduledObjectsCount(), speculativeMaxFraction);
+    if (speculativeAttemptNum >= maxSpeculativeAttemptNum) {
+      return;
+    }
+
+    List<TaskProgress> progresses = Lists.newArrayList();
+    for (Task task : stage.getTasks()) {
+      TaskState state = task.getState();
+      if (state == TaskState.SUCCEEDED) {
+        progresses.add(new TaskProgress(task.getId(), true, task.getRunningTime(), 1.0f, false));
+
+      } else if (state == TaskState.RUNNING && task.getLaunchTime() > 0) {
+        TaskAttempt attempt = task.getLastAttempt();
+        if (attempt == null) {
+          continue;
+        }
+        // a task is speculated only once, and a retried task is left to the retry
+        TaskAttemptState attemptState = attempt.getState();
+        boolean speculatable = task.getRetryCount() == 0
+            && (attemptState == TaskAttemptState.TA_ASSIGNED || attemptState == TaskAttemptState.TA_RUNNING);
+        progresses.add(new TaskProgress(task.getId(), false, now - task.getLaunchTime(), attempt.getProgress(),
+            speculatable));
+      }
+    }
+
+    for (TaskProgress straggler : selectStragglers(progresses, speculativeMinRuntime, speculativeSlownessRatio,
+        maxSpeculativeAttemptNum - speculativeAttemptNum)) {
+      speculativeAttemptNum++;
+      LOG.info(String.format("Speculate %s (progress rate: %.6f, speculated: %d/%d)", straggler.taskId,
+          straggler.getProgressRate(), speculativeAttemptNum, maxSpeculativeAttemptNum));
+      stage.getEventHandler().handle(new TaskEvent(straggler.taskId, TaskEventType.T_ADD_SPECULATIVE_ATTEMPT));
+    }
+  }
+
+  /**
+   * @return The maximum number of backup attempts in a stage, which is at least one
+   */
+  @VisibleForTesting
+  static int getMaxSpeculativeAttemptNum(int taskNum, float maxFraction) {
+    return Math.max(1, (int) (taskNum * maxFraction));
+  }
+
+  /**
+   * A running task is a straggler if it has run for the minimum runtime, and its progress rate is below the median
+   * rate of the succeeded and running tasks multiplied by the slowness ratio.
+   *
+   * @param maxNum The maximum number of stragglers to be returned
+   * @return The stragglers, the slowest first
+   */
+  @VisibleForTesting
+  static List<TaskProgress> selectStragglers(List<TaskProgress> progresses, long minRuntime, float slownessRatio,
+                                             int maxNum) {
+    List<Float> progressRates = Lists.newArrayList();
+    List<TaskProgress> candidates = Lists.newArrayList();
+    for (TaskProgress progress : progresses) {
+      progressRates.add(progress.getProgressRate());
+      if (progress.speculatable && progress.runningTime >= minRuntime) {
+        candidates.add(progress);
+      }
+    }
+    if (candidates.isEmpty() || progressRates.size() < 2 || maxNum <= 0) {
+      return Collections.emptyList();
+    }
+
+    Collections.sort(progressRates);
+    float medianRate = progressRates.get(progressRates.size() / 2);
+
+    List<TaskProgress> stragglers = Lists.newArrayList();
+    for (TaskProgress candidate : candidates) {
+      if (candidate.getProgressRate() < medianRate * slownessRatio) {
+        stragglers.add(candidate);
+      }
+    }
+    // the slowest first
+    Collections.sort(stragglers, new Comparator<TaskProgress>() {
+      @Override
+      public int compare(TaskProgress p1, TaskProgress p2) {
+        return Float.compare(p1.getProgressRate(), p2.getProgressRate());
+      }
+    });
+    return stragglers.size() > maxNum ? stragglers.subList(0, maxNum) : stragglers;
+  }
+
+  /**
+   * The progress of a task when stragglers are looked for
+   */
+  @VisibleForTesting
+  static class TaskProgress {
+    private final TaskId taskId;
+    private final boolean succeeded;
+    private final long runningTime;
+    private final float progress;
+    // false if a backup attempt cannot be added to the task
+    private final boolean speculatable;
+
+    TaskProgress(TaskId taskId, boolean succeeded, long runningTime, float progress, boolean speculatable) {
+      this.taskId = taskId;
+      this.succeeded = succeeded;
+      this.runningTime = runningTime;
+      this.progress = progress;
+      this.speculatable = speculatable;
+    }
+
+    TaskId getTaskId() {
+      return taskId;
+    }
+
+    float getProgressRate() {
+      return (succeeded ? 1.0f : progress) / Math.max(runningTime, 1);
+    }
+  }
+
+  /**
+   * @return The number of speculative attempts launched in this stage so far
+   */
+  public int getSpeculativeAttemptNum() {
+    return speculativeAttemptNum;
+  }
+
   @Override
   public int remainingScheduledObjectNum() {
     return scheduledObjectNum;
@@ -592,7 +773,10 @@ public class DefaultTaskScheduler extends AbstractTaskScheduler {
 
   public void cancel(TaskAttempt taskAttempt) {
 
-    if(taskAttempt.isLeafTask()) {
+    if (taskAttempt.isSpeculative()) {
+      releaseTaskAttempt(taskAttempt);
+      scheduledRequests.speculativeTasks.add(taskAttempt.getId());
+    } else if(taskAttempt.isLeafTask()) {
       releaseTaskAttempt(taskAttempt);
 
       List<DataLocation> locations = taskAttempt.getTask().getDataLocations();
@@ -617,12 +801,16 @@ public class DefaultTaskScheduler extends AbstractTaskScheduler {
     // if the task is not included in leafTasks and nonLeafTasks.
     private final Set<TaskAttemptId> leafTasks = Collections.synchronizedSet(new HashSet<TaskAttemptId>());
     private final Set<TaskAttemptId> nonLeafTasks = Collections.synchronizedSet(new HashSet<TaskAttemptId>());
+    // backup attempts of straggler tasks, which are assigned after all the other attempts
+    private final Set<TaskAttemptId> speculativeTasks =
+        Collections.synchronizedSet(new LinkedHashSet<TaskAttemptId>());
     private Map<String, HostVolumeMapping> leafTaskHostMapping = Maps.newConcurrentMap();
     private final Map<String, HashSet<TaskAttemptId>> leafTasksRackMapping = Maps.newConcurrentMap();
 
     protected void clear() {
       leafTasks.clear();
       nonLeafTasks.clear();
+      speculativeTasks.clear();
       leafTaskHostMapping.clear();
       leafTasksRackMapping.clear();
     }
@@ -667,6 +855,14 @@ public class DefaultTaskScheduler extends AbstractTaskScheduler {
       nonLeafTasks.add(event.getTaskAttempt().getId());
     }
 
+    private void addSpeculativeTask(TaskAttemptToSchedulerEvent event) {
+      speculativeTasks.add(event.getTaskAttempt().getId());
+    }
+
+    public int speculativeTaskNum() {
+      return speculativeTasks.size();
+    }
+
     public int leafTaskNum() {
       return leafTasks.size();
     }
@@ -865,63 +1061,85 @@ public class DefaultTaskScheduler extends AbstractTaskScheduler {
         }
 
         if (attemptId != null) {
-          Task task = stage.getTask(attemptId.getTaskId());
-          TaskRequest taskAssign = new TaskRequestImpl(
-              attemptId,
-              new ArrayList<FragmentProto>(task.getAllFragments()),
-              "",
-              false,
-              LogicalNodeSerializer.serialize(task.getLogicalPlan()),
-              context.getMasterContext().getQueryContext(),
-              stage.getDataChannel(), stage.getBlock().getEnforcer(),
-              queryMasterHostAndPort);
-
-          if (checkIfInterQuery(stage.getMasterPlan(), stage.getBlock())) {
-            taskAssign.setInterQuery();
+          if (!allocateTaskAttempt(attemptId, taskRequest, connectionInfo, queryMasterHostAndPort)) {
+            continue;
           }
+          scheduledObjectNum--;
+
+        } else {
+          throw new RuntimeException("Illegal State!!!!!!!!!!!!!!!!!!!!!");
+        }
+      }
+    }
 
-          //TODO send batch request
-          BatchAllocationRequest.Builder requestProto = BatchAllocationRequest.newBuilder();
-          requestProto.addTaskRequest(TaskAllocationProto.newBuilder()
-              .setResource(taskRequest.getResponseProto().getResource())
-              .setTaskRequest(taskAssign.getProto()).build());
+    /**
+     * Send a task attempt to the worker which requested a task. The regular and backup attempts are sent in the
+     * same way, so that a worker runs them with the same task request.
+     *
+     * @return False if the worker canceled the attempt, otherwise true
+     */
+    private boolean allocateTaskAttempt(TaskAttemptId attemptId, TaskRequestEvent taskRequest,
+                                        WorkerConnectionInfo connectionInfo, String queryMasterHostAndPort) {
+      Task task = stage.getTask(attemptId.getTaskId());
+      TaskRequest taskAssign = new TaskRequestImpl(
+          attemptId,
+          Lists.newArrayList(task.getAllFragments()),
+          "",
+          false,
+          LogicalNodeSerializer.serialize(task.getLogicalPlan()),
+          context.getMasterContext().getQueryContext(),
+          stage.getDataChannel(),
+          stage.getBlock().getEnforcer(),
+          queryMasterHostAndPort);
+
+      if (checkIfInterQuery(stage.getMasterPlan(), stage.getBlock())) {
+        taskAssign.setInterQuery();
+      }
+      for (Map.Entry<String, Set<FetchImpl>> entry : task.getFetchMap().entrySet()) {
+        Collection<FetchImpl> fetches = entry.getValue();
+        if (fetches != null) {
+          for (FetchImpl fetch : fetches) {
+            taskAssign.addFetch(entry.getKey(), fetch);
+          }
+        }
+      }
 
-          requestProto.setExecutionBlockId(attemptId.getTaskId().getExecutionBlockId().getProto());
-          context.getMasterContext().getEventHandler().handle(new TaskAttemptAssignedEvent(attemptId, connectionInfo));
+      //TODO send batch request
+      BatchAllocationRequest.Builder requestProto = BatchAllocationRequest.newBuilder();
+      requestProto.addTaskRequest(TaskAllocationProto.newBuilder()
+          .setResource(taskRequest.getResponseProto().getResource())
+          .setTaskRequest(taskAssign.getProto()).build());
 
-          InetSocketAddress addr = stage.getAssignedWorkerMap().get(connectionInfo.getId());
-          if (addr == null) addr = new InetSocketAddress(connectionInfo.getHost(), connectionInfo.getPeerRpcPort());
+      requestProto.setExecutionBlockId(attemptId.getTaskId().getExecutionBlockId().getProto());
+      context.getMasterContext().getEventHandler().handle(new TaskAttemptAssignedEvent(attemptId, connectionInfo));
 
-          AsyncRpcClient tajoWorkerRpc = null;
-          CallFuture<BatchAllocationResponse> callFuture = new CallFuture<BatchAllocationResponse>();
-          try {
-            tajoWorkerRpc = RpcClientManager.getInstance().getClient(addr, TajoWorkerProtocol.class, true);
-            TajoWorkerProtocol.TajoWorkerProtocolService tajoWorkerRpcClient = tajoWorkerRpc.getStub();
-            tajoWorkerRpcClient.allocateTasks(callFuture.getController(), requestProto.build(), callFuture);
+      InetSocketAddress addr = stage.getAssignedWorkerMap().get(connectionInfo.getId());
+      if (addr == null) addr = new InetSocketAddress(connectionInfo.getHost(), connectionInfo.getPeerRpcPort());
 
-            BatchAllocationResponse responseProto =
-                callFuture.get(RpcConstants.DEFAULT_FUTURE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+      CallFuture<BatchAllocationResponse> callFuture = new CallFuture<BatchAllocationResponse>();
+      try {
+        AsyncRpcClient tajoWorkerRpc = RpcClientManager.getInstance().getClient(addr, TajoWorkerProtocol.class, true);
+        TajoWorkerProtocol.TajoWorkerProtocolService tajoWorkerRpcClient = tajoWorkerRpc.getStub();
+        tajoWorkerRpcClient.allocateTasks(callFuture.getController(), requestProto.build(), callFuture);
 
-            if (responseProto.getCancellationTaskCount() > 0) {
-              for (TaskAllocationProto proto : responseProto.getCancellationTaskList()) {
-                cancel(task.getAttempt(new TaskAttemptId(proto.getTaskRequest().getId())));
-                cancellation++;
-              }
+        BatchAllocationResponse responseProto =
+            callFuture.get(RpcConstants.DEFAULT_FUTURE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
 
-              if(LOG.isDebugEnabled()) {
-                LOG.debug("Canceled requests: " + responseProto.getCancellationTaskCount() + " from " +  addr);
-              }
-              continue;
-            }
-          } catch (Exception e) {
-            LOG.error(e);
+        if (responseProto.getCancellationTaskCount() > 0) {
+          for (TaskAllocationProto proto : responseProto.getCancellationTaskList()) {
+            cancel(task.getAttempt(new TaskAttemptId(proto.getTaskRequest().getId())));
+            cancellation++;
           }
-          scheduledObjectNum--;
 
-        } else {
-          throw new RuntimeException("Illegal State!!!!!!!!!!!!!!!!!!!!!");
+          if(LOG.isDebugEnabled()) {
+            LOG.debug("Canceled requests: " + responseProto.getCancellationTaskCount() + " from " +  addr);
+          }
+          return false;
         }
+      } catch (Exception e) {
+        LOG.error(e);
       }
+      return true;
     }
 
     private boolean checkIfInterQuery(MasterPlan masterPlan, ExecutionBlock block) {
@@ -956,77 +1174,103 @@ public class DefaultTaskScheduler extends AbstractTaskScheduler {
           }
           LOG.debug("Assigned based on * match");
 
-          Task task;
-          task = stage.getTask(attemptId.getTaskId());
-
-          TaskRequest taskAssign = new TaskRequestImpl(
-              attemptId,
-              Lists.newArrayList(task.getAllFragments()),
-              "",
-              false,
-              LogicalNodeSerializer.serialize(task.getLogicalPlan()),
-              context.getMasterContext().getQueryContext(),
-              stage.getDataChannel(),
-              stage.getBlock().getEnforcer(),
-              queryMasterHostAndPort);
-
-          if (checkIfInterQuery(stage.getMasterPlan(), stage.getBlock())) {
-            taskAssign.setInterQuery();
-          }
-          for(Map.Entry<String, Set<FetchImpl>> entry: task.getFetchMap().entrySet()) {
-            Collection<FetchImpl> fetches = entry.getValue();
-            if (fetches != null) {
-              for (FetchImpl fetch : fetches) {
-                taskAssign.addFetch(entry.getKey(), fetch);
-              }
-            }
-          }
-
           WorkerConnectionInfo connectionInfo =
               context.getMasterContext().getWorkerMap().get(taskRequest.getWorkerId());
+          if (!allocateTaskAttempt(attemptId, taskRequest, connectionInfo, queryMasterHostAndPort)) {
+            continue;
+          }
+          totalAssigned++;
+          scheduledObjectNum--;
+        }
+      }
+    }
+
+    /**
+     * Assign backup attempts to the workers other than those of the original attempts. A worker which has the data
+     * of a task is preferred for its backup attempt, and the volume loads of the worker are counted as usual.
+     */
+    public void assignToSpeculativeTasks(LinkedList<TaskRequestEvent> taskRequests) {
+      String queryMasterHostAndPort = context.getMasterContext().getQueryMasterContext().getWorkerContext().
+          getConnectionInfo().getHostAndQMPort();
 
-          //TODO send batch request
-          BatchAllocationRequest.Builder requestProto = BatchAllocationRequest.newBuilder();
-          requestProto.addTaskRequest(TaskAllocationProto.newBuilder()
-              .setResource(taskRequest.getResponseProto().getResource())
-              .setTaskRequest(taskAssign.getProto()).build());
+      TaskRequestEvent taskRequest;
+      while (!speculativeTasks.isEmpty() && !taskRequests.isEmpty()) {
+        taskRequest = taskRequests.pollFirst();
 
-          requestProto.setExecutionBlockId(attemptId.getTaskId().getExecutionBlockId().getProto());
-          context.getMasterContext().getEventHandler().handle(new TaskAttemptAssignedEvent(attemptId, connectionInfo));
+        WorkerConnectionInfo connectionInfo = context.getMasterContext().getWorkerMap().get(taskRequest.getWorkerId());
+        if (connectionInfo == null) continue;
 
-          CallFuture<BatchAllocationResponse> callFuture = new CallFuture<BatchAllocationResponse>();
+        TaskAttemptId attemptId = allocateSpeculativeTask(connectionInfo);
+        if (attemptId == null) {
+          // the original attempts of all backup attempts are running in this worker
+          continue;
+        }
 
-          InetSocketAddress addr = stage.getAssignedWorkerMap().get(connectionInfo.getId());
-          if (addr == null) addr = new InetSocketAddress(connectionInfo.getHost(), connectionInfo.getPeerRpcPort());
+        allocateTaskAttempt(attemptId, taskRequest, connectionInfo, queryMasterHostAndPort);
+      }
+    }
 
-          AsyncRpcClient tajoWorkerRpc;
-          try {
-            tajoWorkerRpc = RpcClientManager.getInstance().getClient(addr, TajoWorkerProtocol.class, true);
-            TajoWorkerProtocol.TajoWorkerProtocolService tajoWorkerRpcClient = tajoWorkerRpc.getStub();
-            tajoWorkerRpcClient.allocateTasks(callFuture.getController(), requestProto.build(), callFuture);
+    /**
+     * @return A backup attempt whose task has no other attempt in the given worker, or null if there is no such
+     * attempt. An attempt whose task has data in the worker is preferred.
+     */
+    private TaskAttemptId allocateSpeculativeTask(WorkerConnectionInfo connectionInfo) {
+      String host = connectionInfo.getHost();
+      String normalizedHost = NetUtils.normalizeHost(host);
 
-            BatchAllocationResponse
-                responseProto = callFuture.get(RpcConstants.DEFAULT_FUTURE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+      List<TaskAttemptId> attemptIds;
+      synchronized (speculativeTasks) {
+        attemptIds = Lists.newArrayList(speculativeTasks);
+      }
 
-            if(responseProto.getCancellationTaskCount() > 0) {
-              for (TaskAllocationProto proto : responseProto.getCancellationTaskList()) {
-                cancel(task.getAttempt(new TaskAttemptId(proto.getTaskRequest().getId())));
-                cancellation++;
-              }
+      TaskAttemptId remoteAttemptId = null;
+      for (TaskAttemptId attemptId : attemptIds) {
+        Task task = stage.getTask(attemptId.getTaskId());
+        if (task == null || hasOtherAttemptIn(task, attemptId, connectionInfo)) {
+          continue;
+        }
 
-              if(LOG.isDebugEnabled()) {
-                LOG.debug("Canceled requests: " + responseProto.getCancellationTaskCount() + " from " +  addr);
-              }
-              continue;
+        for (DataLocation location : task.getDataLocations()) {
+          if ((location.getHost().equals(host) || location.getHost().equals(normalizedHost))
+              && speculativeTasks.remove(attemptId)) {
+            HostVolumeMapping hostVolumeMapping = leafTaskHostMapping.get(location.getHost());
+            if (isLeaf && hostVolumeMapping != null) {
+              hostVolumeMapping.increaseConcurrency(location.getVolumeId());
+              hostVolumeMapping.lastAssignedVolumeId.put(attemptId, location.getVolumeId());
             }
-
-            totalAssigned++;
-            scheduledObjectNum--;
-          } catch (Exception e) {
-            LOG.error(e);
+            LOG.info("Assigned speculative attempt " + attemptId + " to local host " + host);
+            return attemptId;
           }
         }
+
+        if (remoteAttemptId == null) {
+          remoteAttemptId = attemptId;
+        }
+      }
+
+      if (remoteAttemptId != null && speculativeTasks.remove(remoteAttemptId)) {
+        HostVolumeMapping hostVolumeMapping = leafTaskHostMapping.get(host);
+        if (hostVolumeMapping == null) {
+          hostVolumeMapping = leafTaskHostMapping.get(normalizedHost);
+        }
+        if (isLeaf && hostVolumeMapping != null) {
+          hostVolumeMapping.increaseConcurrency(HostVolumeMapping.REMOTE);
+          hostVolumeMapping.lastAssignedVolumeId.put(remoteAttemptId, HostVolumeMapping.REMOTE);
+        }
+        LOG.info("Assigned speculative attempt " + remoteAttemptId + " to remote host " + host);
+        return remoteAttemptId;
+      }
+      return null;
+    }
+
+    private boolean hasOtherAttemptIn(Task task, TaskAttemptId attemptId, WorkerConnectionInfo connectionInfo) {
+      for (TaskAttempt attempt : task.getAttempts()) {
+        if (!attempt.getId().equals(attemptId) && attempt.getWorkerConnectionInfo() != null
+            && attempt.getWorkerConnectionInfo().getId() == connectionInfo.getId()) {
+          return true;
+        }
       }
+      return false;
     }
   }
 }
@@ -47,6 +47,7 @@ import org.apache.tajo.engine.query.QueryContext;
 import org.apache.tajo.exception.TajoInternalError;
 import org.apache.tajo.master.event.*;
 import org.apache.tajo.plan.logical.*;
+import org.apache.tajo.plan.serder.PlanProto.ShuffleType;
 import org.apache.tajo.plan.util.PlannerUtil;
 import org.apache.tajo.storage.StorageConstants;
 import org.apache.tajo.storage.Tablespace;
@@ -74,6 +75,8 @@ public class Query implements EventHandler<QueryEvent> {
   QueryMasterTask.QueryMasterTaskContext context;
   private ExecutionBlockCursor cursor;
   private ExecutionQueue execution;
+  // the running stages, and their parent stages which have been started before they are completed
+  private final Map<ExecutionBlockId, ExecutionBlockId> pipelinedStages = Maps.newConcurrentMap();
 
   // Query Status
   private final QueryId id;
@@ -102,6 +105,7 @@ public class Query implements EventHandler<QueryEvent> {
   private static final DiagnosticsUpdateTransition DIAGNOSTIC_UPDATE_TRANSITION = new DiagnosticsUpdateTransition();
   private static final StageCompletedTransition STAGE_COMPLETED_TRANSITION = new StageCompletedTransition();
   private static final QueryCompletedTransition QUERY_COMPLETED_TRANSITION = new QueryCompletedTransition();
+  private static final StagePipelinedTransition STAGE_PIPELINED_TRANSITION = new StagePipelinedTransition();
 
   protected static final StateMachineFactory
       <Query,QueryState,QueryEventType,QueryEvent> stateMachineFactory =
@@ -126,6 +130,9 @@ public class Query implements EventHandler<QueryEvent> {
           .addTransition(QueryState.QUERY_RUNNING, QueryState.QUERY_RUNNING,
               QueryEventType.STAGE_COMPLETED,
               STAGE_COMPLETED_TRANSITION)
+          .addTransition(QueryState.QUERY_RUNNING, QueryState.QUERY_RUNNING,
+              QueryEventType.STAGE_PIPELINED,
+              STAGE_PIPELINED_TRANSITION)
           .addTransition(QueryState.QUERY_RUNNING,
               EnumSet.of(QueryState.QUERY_SUCCEEDED, QueryState.QUERY_FAILED, QueryState.QUERY_KILLED,
                   QueryState.QUERY_ERROR),
@@ -150,7 +157,7 @@ public class Query implements EventHandler<QueryEvent> {
               QueryEventType.STAGE_COMPLETED,
               STAGE_COMPLETED_TRANSITION)
           .addTransition(QueryState.QUERY_SUCCEEDED, QueryState.QUERY_SUCCEEDED,
-              QueryEventType.KILL)
+              EnumSet.of(QueryEventType.KILL, QueryEventType.STAGE_PIPELINED))
           .addTransition(QueryState.QUERY_SUCCEEDED, QueryState.QUERY_ERROR,
               QueryEventType.INTERNAL_ERROR,
               INTERNAL_ERROR_TRANSITION)
@@ -174,12 +181,14 @@ public class Query implements EventHandler<QueryEvent> {
           .addTransition(QueryState.QUERY_KILL_WAIT, EnumSet.of(QueryState.QUERY_KILLED),
               QueryEventType.KILL,
               QUERY_COMPLETED_TRANSITION)
+          .addTransition(QueryState.QUERY_KILL_WAIT, QueryState.QUERY_KILL_WAIT,
+              QueryEventType.STAGE_PIPELINED)
 
               // Transitions from KILLED state
               // ignore-able transitions
           .addTransition(QueryState.QUERY_KILLED, QueryState.QUERY_KILLED,
               EnumSet.of(QueryEventType.START, QueryEventType.QUERY_COMPLETED,
-                  QueryEventType.KILL, QueryEventType.INTERNAL_ERROR))
+                  QueryEventType.KILL, QueryEventType.INTERNAL_ERROR, QueryEventType.STAGE_PIPELINED))
           .addTransition(QueryState.QUERY_KILLED, QueryState.QUERY_ERROR,
               QueryEventType.INTERNAL_ERROR,
               INTERNAL_ERROR_TRANSITION)
@@ -193,7 +202,7 @@ public class Query implements EventHandler<QueryEvent> {
               INTERNAL_ERROR_TRANSITION)
           // Ignore-able transitions
           .addTransition(QueryState.QUERY_FAILED, QueryState.QUERY_FAILED,
-              QueryEventType.KILL)
+              EnumSet.of(QueryEventType.KILL, QueryEventType.STAGE_PIPELINED))
 
           // Transitions from ERROR state
           .addTransition(QueryState.QUERY_ERROR, QueryState.QUERY_ERROR,
@@ -204,7 +213,7 @@ public class Query implements EventHandler<QueryEvent> {
               INTERNAL_ERROR_TRANSITION)
           // Ignore-able transitions
           .addTransition(QueryState.QUERY_ERROR, QueryState.QUERY_ERROR,
-              EnumSet.of(QueryEventType.KILL, QueryEventType.STAGE_COMPLETED))
+              EnumSet.of(QueryEventType.KILL, QueryEventType.STAGE_COMPLETED, QueryEventType.STAGE_PIPELINED))
 
           .installTopology();
 
@@ -414,6 +423,13 @@ public class Query implements EventHandler<QueryEvent> {
     return execution;
   }
 
+  /**
+   * @return True if the given stage is still running and its parent stage has been started by pipelined shuffle
+   */
+  public boolean isPipelinedStage(ExecutionBlockId id) {
+    return pipelinedStages.containsKey(id);
+  }
+
   public static class StartTransition
       implements SingleArcTransition<Query, QueryEvent> {
 
@@ -749,16 +765,7 @@ public class Query implements EventHandler<QueryEvent> {
         if (query.getPlan().isTerminal(nextBlock)) {
           continue;
         }
-        Stage nextStage = new Stage(query.context, query.getPlan(), nextBlock);
-        nextStage.setPriority(query.priority--);
-        query.addStage(nextStage);
-        nextStage.getEventHandler().handle(new StageEvent(nextStage.getId(), StageEventType.SQ_INIT));
-
-        LOG.info("Scheduling Stage:" + nextStage.getId());
-        if (LOG.isDebugEnabled()) {
-          LOG.debug("Scheduling Stage's Priority: " + nextStage.getPriority());
-          LOG.debug("Scheduling Stage's Plan: \n" + nextStage.getBlock().getPlan());
-        }
+        query.scheduleStage(nextBlock);
         terminal = false;
       }
       return terminal;
@@ -773,6 +780,12 @@ public class Query implements EventHandler<QueryEvent> {
         query.completedStagesCount++;
         StageCompletedEvent castEvent = (StageCompletedEvent) event;
 
+        // the pipelined parent stage cannot fetch the pages which the stage has not produced
+        ExecutionBlockId pipelinedId = query.pipelinedStages.remove(castEvent.getExecutionBlockId());
+        if (pipelinedId != null && castEvent.getState() != StageState.SUCCEEDED) {
+          query.eventHandler.handle(new StageEvent(pipelinedId, StageEventType.SQ_KILL));
+        }
+
         if (castEvent.getState() == StageState.SUCCEEDED) {
           query.succeededStagesCount++;
         } else if (castEvent.getState() == StageState.KILLED) {
@@ -811,6 +824,53 @@ public class Query implements EventHandler<QueryEvent> {
     }
   }
 
+  private void scheduleStage(ExecutionBlock block) {
+    Stage stage = new Stage(context, getPlan(), block);
+    stage.setPriority(priority--);
+    addStage(stage);
+    stage.getEventHandler().handle(new StageEvent(stage.getId(), StageEventType.SQ_INIT));
+
+    LOG.info("Scheduling Stage:" + stage.getId());
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Scheduling Stage's Priority: " + stage.getPriority());
+      LOG.debug("Scheduling Stage's Plan: \n" + stage.getBlock().getPlan());
+    }
+  }
+
+  /**
+   * Starts the parent stage of a running stage, which has reported the first pages of its hash shuffle. The parent
+   * stage fetches the pages while the running stage produces them. It is done only if the parent stage scans just the
+   * hash shuffle without a runtime filter, and the execution queue allows to run it now.
+   */
+  private static class StagePipelinedTransition implements SingleArcTransition<Query, QueryEvent> {
+
+    @Override
+    public void transition(Query query, QueryEvent event) {
+      ExecutionBlockId producerId = ((StagePipelinedEvent) event).getExecutionBlockId();
+      MasterPlan plan = query.getPlan();
+      Stage producer = query.getStage(producerId);
+      ExecutionBlock parent = plan.getParent(plan.getExecBlock(producerId));
+      if (producer == null || !producer.isPipelinedShuffle() || parent == null
+          || query.getStage(parent.getId()) != null || !canPipeline(plan, parent)) {
+        return;
+      }
+
+      ExecutionBlock nextBlock = query.getExecutionQueue().pipeline(producerId);
+      if (nextBlock != null) {
+        query.pipelinedStages.put(producerId, nextBlock.getId());
+        query.scheduleStage(nextBlock);
+      }
+    }
+
+    private static boolean canPipeline(MasterPlan plan, ExecutionBlock block) {
+      if (plan.isTerminal(block) || block.isUnionOnly() || block.hasRuntimeFilter()
+          || block.getScanNodes().length != 1 || plan.getChildCount(block.getId()) != 1) {
+        return false;
+      }
+      return plan.getIncomingChannels(block.getId()).get(0).getShuffleType() == ShuffleType.HASH_SHUFFLE;
+    }
+  }
+
   private static class DiagnosticsUpdateTransition implements SingleArcTransition<Query, QueryEvent> {
     @Override
     public void transition(Query query, QueryEvent event) {
@@ -43,6 +43,9 @@ import org.apache.tajo.worker.TajoWorker;
 import org.apache.tajo.worker.event.QMResourceAllocateEvent;
 
 import java.net.InetSocketAddress;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import static org.apache.tajo.ResourceProtos.*;
 
@@ -178,11 +181,52 @@ public class QueryMasterManagerService extends CompositeService
     QueryMasterTask queryMasterTask = queryMaster.getQueryMasterTask(new QueryId(request.getEbId().getQueryId()));
     if (queryMasterTask != null) {
       ExecutionBlockId ebId = new ExecutionBlockId(request.getEbId());
-      queryMasterTask.getEventHandler().handle(new StageShuffleReportEvent(ebId, request));
+      if (request.hasFinishedAttempt()) {
+        queryMasterTask.getEventHandler().handle(
+            new StageShuffleReportEvent(ebId, StageEventType.SQ_TASK_SHUFFLE_REPORT, request));
+      } else {
+        queryMasterTask.getEventHandler().handle(new StageShuffleReportEvent(ebId, request));
+      }
     }
     done.run(TajoWorker.NULL_PROTO);
   }
 
+  @Override
+  public void getShufflePages(RpcController controller, ShufflePagesRequest request,
+                              RpcCallback<ShufflePagesResponse> done) {
+    QueryMasterTask queryMasterTask = queryMaster.getQueryMasterTask(new QueryId(request.getEbId().getQueryId()));
+    Stage stage = null;
+    if (queryMasterTask != null && queryMasterTask.getQuery() != null) {
+      stage = queryMasterTask.getQuery().getStage(new ExecutionBlockId(request.getEbId()));
+    }
+
+    if (stage == null) {
+      controller.setFailed("Can't find stage. request: " + request.getEbId());
+      done.run(null);
+      return;
+    }
+
+    // the state is read before the entries, so that no entry is missed if the stage is completed
+    StageState state = stage.getSynchronizedState();
+    if (state == StageState.FAILED || state == StageState.KILLED || state == StageState.ERROR) {
+      controller.setFailed("Stage " + stage.getId() + " is " + state);
+      done.run(null);
+      return;
+    }
+
+    List<Task.IntermediateEntry> entries = stage.getHashShuffleIntermediateEntries(request.getOffset());
+    Set<Integer> partIds = new HashSet<Integer>(request.getPartIdsList());
+    ShufflePagesResponse.Builder builder = ShufflePagesResponse.newBuilder();
+    for (Task.IntermediateEntry eachEntry : entries) {
+      if (partIds.contains(eachEntry.getPartId())) {
+        builder.addIntermediateEntries(eachEntry.getProto());
+      }
+    }
+    builder.setNextOffset(request.getOffset() + entries.size());
+    builder.setCompleted(state == StageState.SUCCEEDED);
+    done.run(builder.build());
+  }
+
   @Override
   public void getExecutionBlockContext(RpcController controller,
                                        ExecutionBlockContextRequest request,
@@ -255,4 +299,11 @@ public class QueryMasterManagerService extends CompositeService
       done.run(TajoWorker.FALSE_PROTO);
     }
   }
+
+  @Override
+  public void registerResultStreams(RpcController controller, ResultStreamsRequest request,
+                                    RpcCallback<PrimitiveProtos.BoolProto> done) {
+    workerContext.getTajoWorkerClientService().registerResultStreams(request.getStreamsList());
+    done.run(TajoWorker.TRUE_PROTO);
+  }
 }
@@ -19,10 +19,12 @@
 package org.apache.tajo.querymaster;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.fs.Path;
+import org.apache.tajo.BuiltinStorages;
 import org.apache.tajo.ExecutionBlockId;
 import org.apache.tajo.SessionVars;
 import org.apache.tajo.algebra.JoinType;
@@ -194,7 +196,8 @@ public class Repartitioner {
       int maxStatsScanIdx = -1;
       StringBuilder nonLeafScanNamesBuilder = new StringBuilder();
       for (int i = 0; i < scans.length; i++) {
-        if (scans[i].getTableDesc().getMeta().getStoreType().equalsIgnoreCase("RAW")) {
+        String storeType = scans[i].getTableDesc().getMeta().getStoreType();
+        if (storeType.equalsIgnoreCase(BuiltinStorages.RAW) || storeType.equalsIgnoreCase(BuiltinStorages.DRAW)) {
           // Intermediate data scan
           hasNonLeafNode = true;
           largeScanIndexList.add(i);
@@ -442,6 +445,15 @@ public class Repartitioner {
             ebMerged.put(ebMergedKey, intermediateEntryPerPullHost);
           }
           intermediateEntryPerPullHost.setVolume(intermediateEntryPerPullHost.getVolume() + eachIntermediate.getVolume());
+          if (eachIntermediate.getPages() != null) {
+            if (intermediateEntryPerPullHost.getPages() == null) {
+              intermediateEntryPerPullHost.setPages(new ArrayList<Pair<Long, Integer>>());
+            }
+            intermediateEntryPerPullHost.getPages().addAll(eachIntermediate.getPages());
+          }
+          if (eachIntermediate.hasFailureRanges()) {
+            intermediateEntryPerPullHost.addFailureRanges(eachIntermediate.getFailureRanges());
+          }
         }
 
         List<IntermediateEntry> ebIntermediateEntries = new ArrayList<IntermediateEntry>(ebMerged.values());
@@ -469,7 +481,7 @@ public class Repartitioner {
     List<Fragment> fragments = Lists.newArrayList();
     PartitionedTableScanNode partitionsScan = (PartitionedTableScanNode) scan;
     fragments.addAll(sm.getSplits(
-        scan.getCanonicalName(), table.getMeta(), table.getSchema(), partitionsScan.getInputPaths()));
+        scan.getCanonicalName(), table.getMeta(), table.getSchema(), scan, partitionsScan.getInputPaths()));
     partitionsScan.setInputPaths(null);
     return fragments;
   }
@@ -567,8 +579,14 @@ public class Repartitioner {
                                                           List<IntermediateEntry> partitions) {
     // ebId + pullhost -> FetchImmpl
     Map<String, FetchImpl> mergedPartitions = new HashMap<String, FetchImpl>();
+    List<FetchImpl> rangeFetches = new ArrayList<FetchImpl>();
 
     for (IntermediateEntry partition : partitions) {
+      if (partition.hasFailureRanges()) {
+        rangeFetches.addAll(createHashFetches(partition.getPullHost(), type, partition.getEbId(), partitionId,
+            TUtil.newList(partition)));
+        continue;
+      }
       String mergedKey = partition.getEbId().toString() + "," + partition.getPullHost();
 
       if (mergedPartitions.containsKey(mergedKey)) {
@@ -581,7 +599,51 @@ public class Repartitioner {
         mergedPartitions.put(mergedKey, fetch);
       }
     }
-    return mergedPartitions.values();
+    List<FetchImpl> fetches = new ArrayList<FetchImpl>(mergedPartitions.values());
+    fetches.addAll(rangeFetches);
+    return fetches;
+  }
+
+  /**
+   * Creates the fetches of a hash shuffle partition from a pull server. If the task attempts which did not succeed
+   * have written rows to the partition, it is fetched by the byte ranges except their rows. Otherwise, the whole
+   * partition is fetched at once.
+   *
+   * @param entries The intermediate entries of the partition from the pull server
+   */
+  public static List<FetchImpl> createHashFetches(Task.PullHost host, ShuffleType type, ExecutionBlockId ebId,
+                                                  int partId, List<IntermediateEntry> entries) {
+    List<Pair<Long, Long>> ranges = new ArrayList<Pair<Long, Long>>();
+    boolean hasFailures = false;
+    for (IntermediateEntry eachEntry : entries) {
+      hasFailures |= eachEntry.hasFailureRanges();
+      ranges.addAll(eachEntry.getFetchRanges());
+    }
+    if (!hasFailures) {
+      return Lists.newArrayList(new FetchImpl(host, type, ebId, partId, entries));
+    }
+
+    Collections.sort(ranges, new Comparator<Pair<Long, Long>>() {
+      @Override
+      public int compare(Pair<Long, Long> o1, Pair<Long, Long> o2) {
+        return o1.getFirst().compareTo(o2.getFirst());
+      }
+    });
+
+    // adjacent ranges are merged into a fetch
+    List<FetchImpl> fetches = new ArrayList<FetchImpl>();
+    FetchImpl last = null;
+    for (Pair<Long, Long> eachRange : ranges) {
+      if (last != null && last.getOffset() + last.getLength() == eachRange.getFirst()) {
+        last.setLength(last.getLength() + eachRange.getSecond());
+      } else {
+        last = new FetchImpl(host, type, ebId, partId, entries);
+        last.setOffset(eachRange.getFirst());
+        last.setLength(eachRange.getSecond());
+        fetches.add(last);
+      }
+    }
+    return fetches;
   }
 
   public static void scheduleFragmentsForNonLeafTasks(TaskSchedulerContext schedulerContext,
@@ -793,6 +855,13 @@ public class Repartitioner {
     fragments.add(frag);
     Stage.scheduleFragments(stage, fragments);
 
+    // the child stage is still running if this stage is started by pipelined shuffle
+    Query query = stage.getContext().getQuery();
+    if (channel.getShuffleType() == HASH_SHUFFLE && query.isPipelinedStage(channel.getSrcId())) {
+      schedulePipelinedHashShuffleFetches(schedulerContext, stage, channel, maxNum, scan.getTableName());
+      return;
+    }
+
     Map<Integer, FetchGroupMeta> finalFetches = new HashMap<Integer, FetchGroupMeta>();
     Map<ExecutionBlockId, List<IntermediateEntry>> intermediates = new HashMap<ExecutionBlockId,
         List<IntermediateEntry>>();
@@ -816,7 +885,7 @@ public class Repartitioner {
         Map<Task.PullHost, List<IntermediateEntry>> hashedByHost = hashByHost(interm.getValue());
         for (Entry<Task.PullHost, List<IntermediateEntry>> e : hashedByHost.entrySet()) {
 
-          FetchImpl fetch = new FetchImpl(e.getKey(), channel.getShuffleType(),
+          List<FetchImpl> fetches = createHashFetches(e.getKey(), channel.getShuffleType(),
               block.getId(), interm.getKey(), e.getValue());
 
           long volumeSum = 0;
@@ -824,15 +893,52 @@ public class Repartitioner {
             volumeSum += ie.getVolume();
           }
 
+          for (FetchImpl fetch : fetches) {
+            if (finalFetches.containsKey(interm.getKey())) {
+              finalFetches.get(interm.getKey()).addFetche(fetch);
+            } else {
+              finalFetches.put(interm.getKey(), new FetchGroupMeta(0, fetch));
+            }
+          }
           if (finalFetches.containsKey(interm.getKey())) {
-            finalFetches.get(interm.getKey()).addFetche(fetch).increaseVolume(volumeSum);
-          } else {
-            finalFetches.put(interm.getKey(), new FetchGroupMeta(volumeSum, fetch));
+            finalFetches.get(interm.getKey()).increaseVolume(volumeSum);
           }
         }
       }
     }
 
+    int groupingColumns = getGroupingColumnNum(stage);
+    // get a proper number of tasks
+    int determinedTaskNum = Math.min(maxNum, finalFetches.size());
+    LOG.info(stage.getId() + ", ScheduleHashShuffledFetches - Max num=" + maxNum + ", finalFetchURI=" + finalFetches.size());
+
+    if (groupingColumns == 0) {
+      determinedTaskNum = 1;
+      LOG.info(stage.getId() + ", No Grouping Column - determinedTaskNum is set to 1");
+    } else {
+      TableStats totalStat = computeChildBlocksStats(stage.getContext(), masterPlan, stage.getId());
+      if (totalStat.getNumRows() == 0) {
+        determinedTaskNum = 1;
+      }
+    }
+
+    // set the proper number of tasks to the estimated task num
+    if (channel.getShuffleType() == SCATTERED_HASH_SHUFFLE) {
+      scheduleScatteredHashShuffleFetches(schedulerContext, stage, intermediates,
+          scan.getTableName());
+    } else {
+      schedulerContext.setEstimatedTaskNum(determinedTaskNum);
+      // divide fetch uris into the the proper number of tasks according to volumes
+      scheduleFetchesByEvenDistributedVolumes(stage, finalFetches, scan.getTableName(), determinedTaskNum);
+      LOG.info(stage.getId() + ", DeterminedTaskNum : " + determinedTaskNum);
+    }
+  }
+
+  /**
+   * @return The number of the grouping columns of the bottom group-by in the stage, or 0 if there is no grouping
+   */
+  private static int getGroupingColumnNum(Stage stage) {
+    ExecutionBlock execBlock = stage.getBlock();
     int groupingColumns = 0;
     LogicalNode[] groupbyNodes = PlannerUtil.findAllNodes(stage.getBlock().getPlan(),
         new NodeType[]{NodeType.GROUP_BY, NodeType.DISTINCT_GROUP_BY});
@@ -860,30 +966,33 @@ public class Repartitioner {
         }
       }
     }
-    // get a proper number of tasks
-    int determinedTaskNum = Math.min(maxNum, finalFetches.size());
-    LOG.info(stage.getId() + ", ScheduleHashShuffledFetches - Max num=" + maxNum + ", finalFetchURI=" + finalFetches.size());
+    return groupingColumns;
+  }
 
-    if (groupingColumns == 0) {
+  /**
+   * Schedules the fetches of hash shuffle while the child stage is running. Since the intermediate entries are not
+   * known yet, the partitions are assigned to the tasks in a round robin manner, and each task fetches the pages of
+   * its partitions whenever they are reported to the query master (see {@link FetchImpl#hasNext()}).
+   */
+  private static void schedulePipelinedHashShuffleFetches(TaskSchedulerContext schedulerContext, Stage stage,
+                                                          DataChannel channel, int maxNum, String tableName) {
+    int partitionNum = channel.getShuffleOutputNum();
+    int determinedTaskNum = Math.max(1, Math.min(maxNum, partitionNum));
+    if (getGroupingColumnNum(stage) == 0) {
       determinedTaskNum = 1;
-      LOG.info(stage.getId() + ", No Grouping Column - determinedTaskNum is set to 1");
-    } else {
-      TableStats totalStat = computeChildBlocksStats(stage.getContext(), masterPlan, stage.getId());
-      if (totalStat.getNumRows() == 0) {
-        determinedTaskNum = 1;
-      }
     }
 
-    // set the proper number of tasks to the estimated task num
-    if (channel.getShuffleType() == SCATTERED_HASH_SHUFFLE) {
-      scheduleScatteredHashShuffleFetches(schedulerContext, stage, intermediates,
-          scan.getTableName());
-    } else {
-      schedulerContext.setEstimatedTaskNum(determinedTaskNum);
-      // divide fetch uris into the the proper number of tasks according to volumes
-      scheduleFetchesByEvenDistributedVolumes(stage, finalFetches, scan.getTableName(), determinedTaskNum);
-      LOG.info(stage.getId() + ", DeterminedTaskNum : " + determinedTaskNum);
+    Map<Integer, Collection<FetchImpl>> partitions = new HashMap<Integer, Collection<FetchImpl>>();
+    for (int partId = 0; partId < partitionNum; partId++) {
+      FetchImpl fetch = new FetchImpl(new Task.PullHost(UNKNOWN_HOST, 0), HASH_SHUFFLE, channel.getSrcId(), partId);
+      fetch.setHasNext(true);
+      partitions.put(partId, TUtil.<FetchImpl>newList(fetch));
     }
+
+    schedulerContext.setEstimatedTaskNum(determinedTaskNum);
+    scheduleFetchesByRoundRobin(stage, partitions, tableName, determinedTaskNum);
+    LOG.info(stage.getId() + ", Pipelined hash shuffle - partitions=" + partitionNum
+        + ", DeterminedTaskNum : " + determinedTaskNum);
   }
 
   public static Pair<Long [], Map<String, List<FetchImpl>>[]> makeEvenDistributedFetchImpl(
@@ -1060,11 +1169,14 @@ public class Repartitioner {
           fetchListForSingleTask = new ArrayList<FetchImpl>();
           fetchListVolume = 0;
         }
-        FetchImpl fetch = new FetchImpl(currentInterm.getPullHost(), SCATTERED_HASH_SHUFFLE,
-            ebId, currentInterm.getPartId(), TUtil.newList(currentInterm));
-        fetch.setOffset(eachSplit.getFirst());
-        fetch.setLength(eachSplit.getSecond());
-        fetchListForSingleTask.add(fetch);
+        // the rows written by the task attempts which did not succeed are skipped
+        for (Pair<Long, Long> eachRange : currentInterm.excludeFailures(eachSplit.getFirst(), eachSplit.getSecond())) {
+          FetchImpl fetch = new FetchImpl(currentInterm.getPullHost(), SCATTERED_HASH_SHUFFLE,
+              ebId, currentInterm.getPartId(), TUtil.newList(currentInterm));
+          fetch.setOffset(eachRange.getFirst());
+          fetch.setLength(eachRange.getSecond());
+          fetchListForSingleTask.add(fetch);
+        }
         fetchListVolume += eachSplit.getSecond();
       }
     }
@@ -1074,15 +1186,55 @@ public class Repartitioner {
     return fetches;
   }
 
-  public static List<URI> createFetchURL(FetchImpl fetch, boolean includeParts) {
+  private static StringBuilder createFetchURLPrefix(FetchImpl fetch, String partitionIds) {
     String scheme = "http://";
 
     StringBuilder urlPrefix = new StringBuilder(scheme);
     urlPrefix.append(fetch.getPullHost().getHost()).append(":").append(fetch.getPullHost().getPort()).append("/?")
         .append("qid=").append(fetch.getExecutionBlockId().getQueryId().toString())
         .append("&sid=").append(fetch.getExecutionBlockId().getId())
-        .append("&p=").append(fetch.getPartitionId())
+        .append("&p=").append(partitionIds)
         .append("&type=");
+    return urlPrefix;
+  }
+
+  /**
+   * Creates the URLs which fetch several hash shuffle partitions in one request each. The pull server sends all
+   * partitions of a request in one response, so that a task assigned many partitions does not make a round trip
+   * for each of them. The partition ids are split into several URLs if a URL exceeds the maximum request length.
+   *
+   * @param fetches The hash shuffle fetches of whole partitions from the same pull server and execution block
+   */
+  public static List<URI> createFetchURL(List<FetchImpl> fetches) {
+    Preconditions.checkArgument(!fetches.isEmpty());
+    FetchImpl first = fetches.get(0);
+    for (FetchImpl fetch : fetches) {
+      Preconditions.checkArgument(fetch.getType() == HASH_SHUFFLE && fetch.getLength() < 0
+          && fetch.getPullHost().equals(first.getPullHost())
+          && fetch.getExecutionBlockId().equals(first.getExecutionBlockId()), "Cannot group fetches: " + fetches);
+    }
+
+    List<URI> fetchURLs = new ArrayList<URI>();
+    int baseLength = createFetchURLPrefix(first, "").append("h").length();
+    StringBuilder partitionIds = new StringBuilder();
+    for (FetchImpl fetch : fetches) {
+      String partitionId = String.valueOf(fetch.getPartitionId());
+      if (partitionIds.length() > 0
+          && baseLength + partitionIds.length() + partitionId.length() + 1 > HTTP_REQUEST_MAXIMUM_LENGTH) {
+        fetchURLs.add(URI.create(createFetchURLPrefix(first, partitionIds.toString()).append("h").toString()));
+        partitionIds = new StringBuilder();
+      }
+      if (partitionIds.length() > 0) {
+        partitionIds.append(",");
+      }
+      partitionIds.append(partitionId);
+    }
+    fetchURLs.add(URI.create(createFetchURLPrefix(first, partitionIds.toString()).append("h").toString()));
+    return fetchURLs;
+  }
+
+  public static List<URI> createFetchURL(FetchImpl fetch, boolean includeParts) {
+    StringBuilder urlPrefix = createFetchURLPrefix(fetch, String.valueOf(fetch.getPartitionId()));
     if (fetch.getType() == HASH_SHUFFLE) {
       urlPrefix.append("h");
     } else if (fetch.getType() == RANGE_SHUFFLE) {
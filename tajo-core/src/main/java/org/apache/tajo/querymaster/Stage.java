@@ -23,11 +23,13 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.yarn.event.Event;
 import org.apache.hadoop.yarn.event.EventHandler;
 import org.apache.hadoop.yarn.state.*;
 import org.apache.tajo.*;
 import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.Column;
 import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.catalog.TableDesc;
 import org.apache.tajo.catalog.TableMeta;
@@ -41,12 +43,15 @@ import org.apache.tajo.engine.planner.enforce.Enforcer;
 import org.apache.tajo.engine.planner.global.DataChannel;
 import org.apache.tajo.engine.planner.global.ExecutionBlock;
 import org.apache.tajo.engine.planner.global.MasterPlan;
+import org.apache.tajo.engine.planner.physical.RuntimeFilter;
+import org.apache.tajo.engine.query.QueryContext;
 import org.apache.tajo.exception.TajoException;
 import org.apache.tajo.ipc.TajoWorkerProtocol;
 import org.apache.tajo.master.TaskState;
 import org.apache.tajo.master.event.*;
 import org.apache.tajo.master.event.TaskAttemptToSchedulerEvent.TaskAttemptScheduleContext;
 import org.apache.tajo.plan.logical.*;
+import org.apache.tajo.plan.rewrite.rules.PartitionedTableRewriter;
 import org.apache.tajo.plan.serder.PlanProto.DistinctGroupbyEnforcer.MultipleAggregationStage;
 import org.apache.tajo.plan.serder.PlanProto.EnforceProperty;
 import org.apache.tajo.plan.util.PlannerUtil;
@@ -58,6 +63,7 @@ import org.apache.tajo.rpc.protocolrecords.PrimitiveProtos;
 import org.apache.tajo.storage.FileTablespace;
 import org.apache.tajo.storage.Tablespace;
 import org.apache.tajo.storage.TablespaceManager;
+import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.storage.fragment.Fragment;
 import org.apache.tajo.unit.StorageUnit;
 import org.apache.tajo.util.KeyValueSet;
@@ -113,6 +119,8 @@ public class Stage implements EventHandler<StageEvent> {
   private static final TaskCompletedTransition TASK_COMPLETED_TRANSITION = new TaskCompletedTransition();
   private static final StageCompleteTransition STAGE_COMPLETED_TRANSITION = new StageCompleteTransition();
   private static final StageFinalizeTransition STAGE_FINALIZE_TRANSITION = new StageFinalizeTransition();
+  private static final TaskShuffleReportTransition TASK_SHUFFLE_REPORT_TRANSITION =
+      new TaskShuffleReportTransition();
   private StateMachine<StageState, StageEventType, StageEvent> stateMachine;
 
   protected static final StateMachineFactory<Stage, StageState,
@@ -153,6 +161,9 @@ public class Stage implements EventHandler<StageEvent> {
           .addTransition(StageState.RUNNING, StageState.FINALIZING,
               StageEventType.SQ_SHUFFLE_REPORT,
               STAGE_FINALIZE_TRANSITION)
+          .addTransition(StageState.RUNNING, StageState.RUNNING,
+              StageEventType.SQ_TASK_SHUFFLE_REPORT,
+              TASK_SHUFFLE_REPORT_TRANSITION)
           .addTransition(StageState.RUNNING,
               EnumSet.of(StageState.SUCCEEDED, StageState.FAILED),
               StageEventType.SQ_STAGE_COMPLETED,
@@ -195,12 +206,17 @@ public class Stage implements EventHandler<StageEvent> {
               INTERNAL_ERROR_TRANSITION)
               // Ignore-able events
           .addTransition(StageState.KILL_WAIT, StageState.KILL_WAIT,
-              EnumSet.of(StageEventType.SQ_START))
+              EnumSet.of(
+                  StageEventType.SQ_START,
+                  StageEventType.SQ_TASK_SHUFFLE_REPORT))
 
               // Transitions from FINALIZING state
           .addTransition(StageState.FINALIZING, StageState.FINALIZING,
               StageEventType.SQ_SHUFFLE_REPORT,
               STAGE_FINALIZE_TRANSITION)
+          .addTransition(StageState.FINALIZING, StageState.FINALIZING,
+              StageEventType.SQ_TASK_SHUFFLE_REPORT,
+              TASK_SHUFFLE_REPORT_TRANSITION)
           .addTransition(StageState.FINALIZING,
               EnumSet.of(StageState.SUCCEEDED, StageState.FAILED),
               StageEventType.SQ_STAGE_COMPLETED,
@@ -227,7 +243,8 @@ public class Stage implements EventHandler<StageEvent> {
               EnumSet.of(
                   StageEventType.SQ_START,
                   StageEventType.SQ_KILL,
-                  StageEventType.SQ_SHUFFLE_REPORT))
+                  StageEventType.SQ_SHUFFLE_REPORT,
+                  StageEventType.SQ_TASK_SHUFFLE_REPORT))
 
           // Transitions from KILLED state
           .addTransition(StageState.KILLED, StageState.KILLED,
@@ -242,6 +259,7 @@ public class Stage implements EventHandler<StageEvent> {
                   StageEventType.SQ_START,
                   StageEventType.SQ_KILL,
                   StageEventType.SQ_SHUFFLE_REPORT,
+                  StageEventType.SQ_TASK_SHUFFLE_REPORT,
                   StageEventType.SQ_STAGE_COMPLETED,
                   StageEventType.SQ_FAILED))
 
@@ -257,7 +275,8 @@ public class Stage implements EventHandler<StageEvent> {
               EnumSet.of(
                   StageEventType.SQ_START,
                   StageEventType.SQ_KILL,
-                  StageEventType.SQ_FAILED))
+                  StageEventType.SQ_FAILED,
+                  StageEventType.SQ_TASK_SHUFFLE_REPORT))
 
           // Transitions from ERROR state
           .addTransition(StageState.ERROR, StageState.ERROR,
@@ -271,7 +290,8 @@ public class Stage implements EventHandler<StageEvent> {
                   StageEventType.SQ_FAILED,
                   StageEventType.SQ_INTERNAL_ERROR,
                   StageEventType.SQ_STAGE_COMPLETED,
-                  StageEventType.SQ_SHUFFLE_REPORT))
+                  StageEventType.SQ_SHUFFLE_REPORT,
+                  StageEventType.SQ_TASK_SHUFFLE_REPORT))
 
           .installTopology();
 
@@ -284,9 +304,15 @@ public class Stage implements EventHandler<StageEvent> {
   private volatile int killedObjectCount = 0;
   private volatile int failedObjectCount = 0;
   private TaskSchedulerContext schedulerContext;
-  private List<IntermediateEntry> hashShuffleIntermediateEntries = Lists.newArrayList();
+  private List<IntermediateEntry> hashShuffleIntermediateEntries =
+      Collections.synchronizedList(new ArrayList<IntermediateEntry>());
   private AtomicInteger completedShuffleTasks = new AtomicInteger(0);
+  // true if the parent stage has been requested to start while this stage is running
+  private AtomicBoolean pipelineRequested = new AtomicBoolean();
   private AtomicBoolean stopShuffleReceiver = new AtomicBoolean();
+  // the merged runtime filter of succeeded tasks, and the number of tasks which have reported it
+  private RuntimeFilter runtimeFilter;
+  private int runtimeFilterTaskNum = 0;
   private StageHistory finalStageHistory;
 
   public Stage(QueryMasterTask.QueryMasterTaskContext context, MasterPlan masterPlan, ExecutionBlock block) {
@@ -408,6 +434,33 @@ public class Stage implements EventHandler<StageEvent> {
     return block;
   }
 
+  /**
+   * @return The runtime filter merged from all succeeded tasks, or null if some tasks have not reported it
+   */
+  public RuntimeFilter getRuntimeFilter() {
+    if (runtimeFilter == null || runtimeFilterTaskNum != succeededObjectCount) {
+      return null;
+    }
+    return runtimeFilter;
+  }
+
+  private void mergeRuntimeFilter(Task task) {
+    TaskAttempt attempt = task.getSuccessfulAttempt();
+    if (attempt == null || attempt.getRuntimeFilter() == null) {
+      return;
+    }
+
+    RuntimeFilter filter = new RuntimeFilter(attempt.getRuntimeFilter());
+    if (runtimeFilter == null) {
+      runtimeFilter = filter;
+    } else {
+      runtimeFilter.merge(filter);
+    }
+    runtimeFilterTaskNum++;
+    // the merged one is enough
+    attempt.clearRuntimeFilter();
+  }
+
   public void addTask(Task task) {
     tasks.put(task.getId(), task);
   }
@@ -828,6 +881,7 @@ public class Stage implements EventHandler<StageEvent> {
           ExecutionBlock parent = stage.getMasterPlan().getParent(stage.getBlock());
           DataChannel channel = stage.getMasterPlan().getChannel(stage.getId(), parent.getId());
           setShuffleIfNecessary(stage, channel);
+          setRuntimeFilterIfNecessary(stage);
           initTaskScheduler(stage);
           // execute pre-processing asyncronously
           stage.getContext().getQueryMasterContext().getSingleEventExecutor()
@@ -888,6 +942,78 @@ public class Stage implements EventHandler<StageEvent> {
       LOG.info(stage.taskScheduler.getName() + " is chosen for the task scheduling for " + stage.getId());
     }
 
+    /**
+     * If the scan of this block is filtered by the join keys of the other join input, the runtime filter built by
+     * the block of the other input is given to the tasks of this block. The block of the other input is always
+     * completed before this block (see {@link ExecutionBlock#getRuntimeFilterSource()}). If the scan is of a
+     * partitioned table, the partitions which cannot be joined are pruned before fragments are computed.
+     */
+    private static void setRuntimeFilterIfNecessary(Stage stage) {
+      ExecutionBlock block = stage.getBlock();
+      if (!block.hasRuntimeFilter()) {
+        return;
+      }
+
+      Stage source = stage.getContext().getStage(block.getRuntimeFilterSource());
+      RuntimeFilter filter = source != null ? source.getRuntimeFilter() : null;
+      if (filter == null) {
+        LOG.info("No runtime filter is built by " + block.getRuntimeFilterSource());
+        return;
+      }
+
+      filter.dropSaturatedBloomFilter();
+      ScanNode scan = block.getRuntimeFilterScan();
+      QueryContext queryContext = stage.getContext().getQueryContext();
+      if (scan.getType() == NodeType.PARTITIONS_SCAN &&
+          queryContext.getBool(SessionVars.DYNAMIC_PARTITION_PRUNING_ENABLED)) {
+        prunePartitions((PartitionedTableScanNode) scan, block.getRuntimeFilterKeys(), filter);
+      }
+      if (queryContext.getBool(SessionVars.RUNTIME_FILTER_ENABLED)) {
+        block.getEnforcer().addRuntimeFilter(scan.getCanonicalName(), block.getRuntimeFilterKeys(),
+            filter.getProto());
+        LOG.info("The scan of " + scan.getCanonicalName() + " in " + stage.getId() + " is filtered by the runtime " +
+            "filter (" + filter + ") of " + block.getRuntimeFilterSource());
+      }
+    }
+
+    /**
+     * Remove the partitions whose partition keys are not in the runtime filter from the input paths of the scan.
+     */
+    private static void prunePartitions(PartitionedTableScanNode scan, Column[] keys, RuntimeFilter filter) {
+      if (scan.getInputPaths() == null || scan.getInputPaths().length == 0) {
+        return;
+      }
+
+      Schema partitionColumns = scan.getTableDesc().getPartitionMethod().getExpressionSchema();
+      int [] keyIds = new int[keys.length];
+      boolean hasPartitionKey = false;
+      for (int i = 0; i < keys.length; i++) {
+        keyIds[i] = partitionColumns.getColumnIdByName(keys[i].getSimpleName());
+        hasPartitionKey |= keyIds[i] >= 0;
+      }
+      if (!hasPartitionKey) {
+        return;
+      }
+
+      List<Path> selected = Lists.newArrayList();
+      for (Path path : scan.getInputPaths()) {
+        Tuple partitionKeys;
+        try {
+          partitionKeys = PartitionedTableRewriter.buildTupleFromPartitionPath(partitionColumns, path, false);
+        } catch (RuntimeException e) {
+          // e.g., a default partition of null values, which is kept for safety
+          partitionKeys = null;
+        }
+        if (partitionKeys == null || filter.mightContain(partitionKeys, keyIds)) {
+          selected.add(path);
+        }
+      }
+
+      LOG.info("Dynamic partition pruning chooses " + selected.size() + " of " + scan.getInputPaths().length +
+          " partitions of " + scan.getCanonicalName());
+      scan.setInputPaths(selected.toArray(new Path[selected.size()]));
+    }
+
     /**
      * If a parent block requires a repartition operation, the method sets proper repartition
      * methods and the number of partitions to a given Stage.
@@ -1179,9 +1305,12 @@ public class Stage implements EventHandler<StageEvent> {
         stage.eventHandler.handle(new StageEvent(stage.getId(), StageEventType.SQ_FAILED));
       } else {
         stage.completedTaskCount++;
-        stage.getTaskScheduler().releaseTaskAttempt(task.getLastAttempt());
+        for (TaskAttempt attempt : task.getAttempts()) {
+          stage.getTaskScheduler().releaseTaskAttempt(attempt);
+        }
 
         if (taskEvent.getState() == TaskState.SUCCEEDED) {
+          stage.mergeRuntimeFilter(task);
           stage.succeededObjectCount++;
         } else if (task.getState() == TaskState.KILLED) {
           stage.killedObjectCount++;
@@ -1234,12 +1363,26 @@ public class Stage implements EventHandler<StageEvent> {
     return hashShuffleIntermediateEntries;
   }
 
+  /**
+   * @param offset The number of the intermediate entries which have been already read
+   * @return The intermediate entries reported after the given offset, in the order of the reports
+   */
+  public List<IntermediateEntry> getHashShuffleIntermediateEntries(int offset) {
+    synchronized (hashShuffleIntermediateEntries) {
+      if (offset >= hashShuffleIntermediateEntries.size()) {
+        return new ArrayList<IntermediateEntry>();
+      }
+      return new ArrayList<IntermediateEntry>(
+          hashShuffleIntermediateEntries.subList(offset, hashShuffleIntermediateEntries.size()));
+    }
+  }
+
   protected void stopFinalization() {
     stopShuffleReceiver.set(true);
   }
 
   private void finalizeShuffleReport(StageShuffleReportEvent event, ShuffleType type) {
-    if(!checkIfNeedFinalizing(type)) return;
+    if(!PlannerUtil.isHashShuffle(type)) return;
 
     ExecutionBlockReport report = event.getReport();
 
@@ -1272,16 +1415,46 @@ public class Stage implements EventHandler<StageEvent> {
   }
 
   /**
-   * HASH_SHUFFLE, SCATTERED_HASH_SHUFFLE should get report from worker nodes when ExecutionBlock is stopping.
-   * RANGE_SHUFFLE report is sent from task reporter when a task finished in worker node.
+   * If pipelined shuffle is enabled, the committed pages of hash shuffle are reported whenever a task attempt
+   * finishes, and the parent stage fetches them while this stage is running. The remaining pages are reported when
+   * the execution block is stopping, as usual.
    */
-  public static boolean checkIfNeedFinalizing(ShuffleType type) {
-    switch (type) {
-      case HASH_SHUFFLE:
-      case SCATTERED_HASH_SHUFFLE:
-        return true;
-      default:
-        return false;
+  public boolean isPipelinedShuffle() {
+    return PlannerUtil.isHashShuffle(getDataChannel().getShuffleType())
+        && context.getQueryContext().getBool(SessionVars.PIPELINED_SHUFFLE_ENABLED);
+  }
+
+  private static class TaskShuffleReportTransition implements SingleArcTransition<Stage, StageEvent> {
+
+    @Override
+    public void transition(Stage stage, StageEvent event) {
+      if (stage.stopShuffleReceiver.get()) {
+        return;
+      }
+
+      ExecutionBlockReport report = ((StageShuffleReportEvent) event).getReport();
+      if (!report.getReportSuccess()) {
+        stage.stopFinalization();
+        LOG.error(stage.getId() + ", task shuffle report is failed. Caused by:"
+            + report.getReportErrorMessage());
+        stage.getEventHandler().handle(new StageDiagnosticsUpdateEvent(stage.getId(),
+            report.getReportErrorMessage()));
+        stage.getEventHandler().handle(new StageEvent(stage.getId(), StageEventType.SQ_INTERNAL_ERROR));
+        return;
+      }
+
+      for (IntermediateEntryProto eachInterm : report.getIntermediateEntriesList()) {
+        stage.hashShuffleIntermediateEntries.add(new IntermediateEntry(eachInterm));
+      }
+
+      // The parent stage is started once the first pages are reported. It is not started before all tasks of this
+      // stage are launched, so that its tasks do not take the resources which the tasks of this stage wait for.
+      if (!stage.hashShuffleIntermediateEntries.isEmpty() && stage.getTaskScheduler() != null
+          && stage.getTaskScheduler().remainingScheduledObjectNum() == 0
+          && stage.pipelineRequested.compareAndSet(false, true)) {
+        LOG.info(stage.getId() + ", the first pages are reported. The parent stage is requested to start.");
+        stage.getEventHandler().handle(new StagePipelinedEvent(stage.getId()));
+      }
     }
   }
 
@@ -1308,7 +1481,7 @@ public class Stage implements EventHandler<StageEvent> {
               stage.killedObjectCount));
           stage.finalizeStage();
 
-          if (checkIfNeedFinalizing(shuffleType)) {
+          if (PlannerUtil.isHashShuffle(shuffleType)) {
             /* wait for StageShuffleReportEvent from worker nodes */
 
             LOG.info(stage.getId() + ", wait for " + shuffleType + " reports. expected Tasks:"
@@ -133,6 +133,9 @@ public class Task implements EventHandler<TaskEvent> {
               EnumSet.of(TaskState.RUNNING, TaskState.FAILED),
               TaskEventType.T_ATTEMPT_FAILED,
               new AttemptFailedOrRetryTransition())
+          .addTransition(TaskState.RUNNING, TaskState.RUNNING,
+              TaskEventType.T_ADD_SPECULATIVE_ATTEMPT,
+              new AddSpeculativeAttemptTransition())
 
           // Transitions from KILL_WAIT state
           .addTransition(TaskState.KILL_WAIT, TaskState.KILLED,
@@ -151,27 +154,30 @@ public class Task implements EventHandler<TaskEvent> {
           .addTransition(TaskState.KILL_WAIT, TaskState.KILL_WAIT,
               EnumSet.of(
                   TaskEventType.T_KILL,
-                  TaskEventType.T_SCHEDULE))
+                  TaskEventType.T_SCHEDULE,
+                  TaskEventType.T_ADD_SPECULATIVE_ATTEMPT))
 
           // Transitions from SUCCEEDED state
           // Ignore-able transitions
           .addTransition(TaskState.SUCCEEDED, TaskState.SUCCEEDED,
-              EnumSet.of(TaskEventType.T_KILL,
+              EnumSet.of(TaskEventType.T_KILL, TaskEventType.T_ADD_SPECULATIVE_ATTEMPT,
                   TaskEventType.T_ATTEMPT_KILLED, TaskEventType.T_ATTEMPT_SUCCEEDED, TaskEventType.T_ATTEMPT_FAILED))
 
           // Transitions from FAILED state
           // Ignore-able transitions
           .addTransition(TaskState.FAILED, TaskState.FAILED,
-              EnumSet.of(TaskEventType.T_KILL,
+              EnumSet.of(TaskEventType.T_KILL, TaskEventType.T_ADD_SPECULATIVE_ATTEMPT,
                   TaskEventType.T_ATTEMPT_KILLED, TaskEventType.T_ATTEMPT_SUCCEEDED, TaskEventType.T_ATTEMPT_FAILED))
 
           // Transitions from KILLED state
-          .addTransition(TaskState.KILLED, TaskState.KILLED, TaskEventType.T_ATTEMPT_KILLED, new KillTaskTransition())
-          // Ignore-able transitions
+          // Ignore-able transitions. The other attempts of a killed task are already being killed, and killing them
+          // again would bounce T_ATTEMPT_KILLED back from the killed attempts.
           .addTransition(TaskState.KILLED, TaskState.KILLED,
               EnumSet.of(
                   TaskEventType.T_KILL,
                   TaskEventType.T_SCHEDULE,
+                  TaskEventType.T_ADD_SPECULATIVE_ATTEMPT,
+                  TaskEventType.T_ATTEMPT_KILLED,
                   TaskEventType.T_ATTEMPT_LAUNCHED,
                   TaskEventType.T_ATTEMPT_SUCCEEDED,
                   TaskEventType.T_ATTEMPT_FAILED))
@@ -478,6 +484,18 @@ public class Task implements EventHandler<TaskEvent> {
     return getAttempt(this.lastAttemptId);
   }
 
+  /**
+   * @return All attempts of this task, including the speculative ones
+   */
+  public Collection<TaskAttempt> getAttempts() {
+    readLock.lock();
+    try {
+      return new ArrayList<TaskAttempt>(attempts.values());
+    } finally {
+      readLock.unlock();
+    }
+  }
+
   public TaskAttempt getSuccessfulAttempt() {
     readLock.lock();
     try {
@@ -535,8 +553,14 @@ public class Task implements EventHandler<TaskEvent> {
 
   // This is always called in the Write Lock
   private void addAndScheduleAttempt() {
+    addAndScheduleAttempt(false);
+  }
+
+  // This is always called in the Write Lock
+  private void addAndScheduleAttempt(boolean speculative) {
     // Create new task attempt
     TaskAttempt attempt = newAttempt();
+    attempt.setSpeculative(speculative);
     if (LOG.isDebugEnabled()) {
       LOG.debug("Created attempt " + attempt.getId());
     }
@@ -585,7 +609,10 @@ public class Task implements EventHandler<TaskEvent> {
     @Override
     public void transition(Task task, TaskEvent taskEvent) {
       task.finishTask();
-      task.eventHandler.handle(new TaskAttemptEvent(task.lastAttemptId, TaskAttemptEventType.TA_KILL));
+      // a speculative attempt may be running together with the last one
+      for (TaskAttemptId attemptId : task.attempts.keySet()) {
+        task.eventHandler.handle(new TaskAttemptEvent(attemptId, TaskAttemptEventType.TA_KILL));
+      }
     }
   }
 
@@ -612,6 +639,26 @@ public class Task implements EventHandler<TaskEvent> {
 
       task.successfulAttempt = attemptEvent.getTaskAttemptId();
       task.succeededWorker = attempt.getWorkerConnectionInfo();
+      // the first finished attempt wins even if a speculative attempt was created after it
+      task.lastAttemptId = task.successfulAttempt;
+
+      if (attempt.getShuffleFileOutputs() != null) {
+        task.setShuffleFileOutputs(attempt.getShuffleFileOutputs());
+      }
+      if (attempt.getIntermediateData() != null) {
+        task.setIntermediateData(attempt.getIntermediateData());
+      }
+      if (attempt.getResultStats() != null) {
+        task.setStats(attempt.getResultStats());
+      }
+
+      // kill the other attempts which are still running
+      for (TaskAttemptId attemptId : task.attempts.keySet()) {
+        if (!attemptId.equals(task.successfulAttempt)) {
+          LOG.info("Kill " + attemptId + " because " + task.successfulAttempt + " has succeeded");
+          task.eventHandler.handle(new TaskAttemptEvent(attemptId, TaskAttemptEventType.TA_KILL));
+        }
+      }
 
       task.finishTask();
       task.eventHandler.handle(new StageTaskEvent(event.getTaskId(), TaskState.SUCCEEDED));
@@ -647,6 +694,18 @@ public class Task implements EventHandler<TaskEvent> {
     }
   }
 
+  private static class AddSpeculativeAttemptTransition implements SingleArcTransition<Task, TaskEvent> {
+
+    @Override
+    public void transition(Task task, TaskEvent event) {
+      // only one backup attempt is launched for a task, and only while its original attempt is running
+      if (task.successfulAttempt == null && task.attempts.size() == 1 && task.finishedAttempts == 0) {
+        LOG.info("Add a speculative attempt of " + task.getId());
+        task.addAndScheduleAttempt(true);
+      }
+    }
+  }
+
   private static class AttemptFailedOrRetryTransition implements
     MultipleArcTransition<Task, TaskEvent, TaskState> {
 
@@ -656,8 +715,19 @@ public class Task implements EventHandler<TaskEvent> {
         throw new IllegalArgumentException("taskEvent should be a TaskTAttemptEvent type.");
       }
       TaskTAttemptEvent attemptEvent = (TaskTAttemptEvent) taskEvent;
-      task.failedAttempts++;
+      TaskAttempt attempt = task.getAttempt(attemptEvent.getTaskAttemptId());
+      // a preempted attempt is retried without counting it as a failure
+      if (attempt == null || !attempt.isPreempted()) {
+        task.failedAttempts++;
+      }
       task.finishedAttempts++;
+
+      if (task.finishedAttempts < task.attempts.size()) {
+        // the other attempt of a speculative pair keeps running
+        LOG.info(">>> Task Failed: " + attemptEvent.getTaskAttemptId() + ", another attempt is still running <<<");
+        return task.getState();
+      }
+
       boolean retry = task.failedAttempts < task.maxAttempts;
 
       LOG.info("====================================================================================");
@@ -782,8 +852,17 @@ public class Task implements EventHandler<TaskEvent> {
     int partId;
     PullHost host;
     long volume;
+    int pageIndex;
     List<Pair<Long, Integer>> pages;
     List<Pair<Long, Pair<Integer, Integer>>> failureRowNums;
+    List<Pair<Long, Integer>> failureRanges;
+
+    private static final Comparator<Pair<Long, Integer>> RANGE_COMPARATOR = new Comparator<Pair<Long, Integer>>() {
+      @Override
+      public int compare(Pair<Long, Integer> o1, Pair<Long, Integer> o2) {
+        return o1.getFirst().compareTo(o2.getFirst());
+      }
+    };
 
     public IntermediateEntry(IntermediateEntryProto proto) {
       this.ebId = new ExecutionBlockId(proto.getEbId());
@@ -802,10 +881,48 @@ public class Task implements EventHandler<TaskEvent> {
             new Pair(eachFailure.getStartRowNum(), eachFailure.getEndRowNum())));
       }
 
+      pageIndex = proto.getPageIndex();
       pages = new ArrayList<Pair<Long, Integer>>();
       for (IntermediateEntryProto.PageProto eachPage: proto.getPagesList()) {
         pages.add(new Pair(eachPage.getPos(), eachPage.getLength()));
       }
+
+      failureRanges = new ArrayList<Pair<Long, Integer>>();
+      for (IntermediateEntryProto.PageProto eachRange: proto.getFailureRangesList()) {
+        failureRanges.add(new Pair(eachRange.getPos(), eachRange.getLength()));
+      }
+    }
+
+    public IntermediateEntryProto getProto() {
+      IntermediateEntryProto.Builder builder = IntermediateEntryProto.newBuilder();
+      builder.setEbId(ebId.getProto())
+          .setTaskId(taskId)
+          .setAttemptId(attemptId)
+          .setPartId(partId)
+          .setHost(host.getPullAddress())
+          .setVolume(volume)
+          .setPageIndex(pageIndex);
+
+      IntermediateEntryProto.PageProto.Builder pageBuilder = IntermediateEntryProto.PageProto.newBuilder();
+      if (pages != null) {
+        for (Pair<Long, Integer> eachPage : pages) {
+          builder.addPages(pageBuilder.setPos(eachPage.getFirst()).setLength(eachPage.getSecond()).build());
+        }
+      }
+      if (failureRowNums != null) {
+        FailureIntermediateProto.Builder failureBuilder = FailureIntermediateProto.newBuilder();
+        for (Pair<Long, Pair<Integer, Integer>> eachFailure : failureRowNums) {
+          builder.addFailures(failureBuilder.setPagePos(eachFailure.getFirst())
+              .setStartRowNum(eachFailure.getSecond().getFirst())
+              .setEndRowNum(eachFailure.getSecond().getSecond()).build());
+        }
+      }
+      if (failureRanges != null) {
+        for (Pair<Long, Integer> eachRange : failureRanges) {
+          builder.addFailureRanges(pageBuilder.setPos(eachRange.getFirst()).setLength(eachRange.getSecond()).build());
+        }
+      }
+      return builder.build();
     }
 
     public IntermediateEntry(int taskId, int attemptId, int partId, PullHost host) {
@@ -867,6 +984,82 @@ public class Task implements EventHandler<TaskEvent> {
       return failureRowNums;
     }
 
+    /**
+     * @return The index of the first page in the partition of the pull server
+     */
+    public int getPageIndex() {
+      return pageIndex;
+    }
+
+    /**
+     * @return [<offset, length>] The byte ranges of the rows written by the task attempts which did not succeed
+     */
+    public List<Pair<Long, Integer>> getFailureRanges() {
+      return failureRanges;
+    }
+
+    public void addFailureRanges(List<Pair<Long, Integer>> failureRanges) {
+      if (this.failureRanges == null) {
+        this.failureRanges = new ArrayList<Pair<Long, Integer>>();
+      }
+      this.failureRanges.addAll(failureRanges);
+    }
+
+    public boolean hasFailureRanges() {
+      return failureRanges != null && !failureRanges.isEmpty();
+    }
+
+    /**
+     * @return [<offset, length>] The byte ranges of the pages except the failure ranges, in the order of offsets
+     */
+    public List<Pair<Long, Long>> getFetchRanges() {
+      List<Pair<Long, Long>> ranges = new ArrayList<Pair<Long, Long>>();
+      if (pages == null || pages.isEmpty()) {
+        return ranges;
+      }
+
+      List<Pair<Long, Integer>> sortedPages = new ArrayList<Pair<Long, Integer>>(pages);
+      Collections.sort(sortedPages, RANGE_COMPARATOR);
+      long offset = sortedPages.get(0).getFirst();
+      long end = offset;
+      for (Pair<Long, Integer> eachPage : sortedPages) {
+        if (eachPage.getFirst() > end) {
+          ranges.addAll(excludeFailures(offset, end - offset));
+          offset = eachPage.getFirst();
+        }
+        end = eachPage.getFirst() + eachPage.getSecond();
+      }
+      ranges.addAll(excludeFailures(offset, end - offset));
+      return ranges;
+    }
+
+    /**
+     * @return [<offset, length>] The byte ranges of the given range except the failure ranges
+     */
+    public List<Pair<Long, Long>> excludeFailures(long offset, long length) {
+      List<Pair<Long, Long>> ranges = new ArrayList<Pair<Long, Long>>();
+      long pos = offset;
+      long end = offset + length;
+      if (hasFailureRanges()) {
+        List<Pair<Long, Integer>> sortedFailures = new ArrayList<Pair<Long, Integer>>(failureRanges);
+        Collections.sort(sortedFailures, RANGE_COMPARATOR);
+        for (Pair<Long, Integer> eachFailure : sortedFailures) {
+          long failureEnd = eachFailure.getFirst() + eachFailure.getSecond();
+          if (failureEnd <= pos || eachFailure.getFirst() >= end) {
+            continue;
+          }
+          if (eachFailure.getFirst() > pos) {
+            ranges.add(new Pair<Long, Long>(pos, eachFailure.getFirst() - pos));
+          }
+          pos = failureEnd;
+        }
+      }
+      if (end > pos) {
+        ranges.add(new Pair<Long, Long>(pos, end - pos));
+      }
+      return ranges;
+    }
+
     @Override
     public int hashCode() {
       return Objects.hashCode(ebId, taskId, partId, attemptId, host);
@@ -34,6 +34,7 @@ import org.apache.tajo.master.cluster.WorkerConnectionInfo;
 import org.apache.tajo.master.event.*;
 import org.apache.tajo.master.event.TaskAttemptToSchedulerEvent.TaskAttemptScheduleContext;
 import org.apache.tajo.master.event.TaskSchedulerEvent.EventType;
+import org.apache.tajo.plan.serder.PlanProto.RuntimeFilterProto;
 import org.apache.tajo.querymaster.Task.IntermediateEntry;
 import org.apache.tajo.querymaster.Task.PullHost;
 import org.apache.tajo.util.TUtil;
@@ -66,9 +67,18 @@ public class TaskAttempt implements EventHandler<TaskAttemptEvent> {
   private float progress;
   private CatalogProtos.TableStatsProto inputStats;
   private CatalogProtos.TableStatsProto resultStats;
+  private RuntimeFilterProto runtimeFilter;
+  private List<ShuffleFileOutput> shuffleFileOutputs;
+  private List<IntermediateEntry> intermediateData;
 
   private Set<PartitionDescProto> partitions;
 
+  // whether this attempt is a backup of a straggler attempt of the same task
+  private boolean speculative;
+
+  // whether this attempt was killed by the scheduler for the resources of another query
+  private boolean preempted;
+
   protected static final StateMachineFactory
       <TaskAttempt, TaskAttemptState, TaskAttemptEventType, TaskAttemptEvent>
       stateMachineFactory = new StateMachineFactory
@@ -220,6 +230,18 @@ public class TaskAttempt implements EventHandler<TaskAttemptEvent> {
     return this.workerConnectionInfo;
   }
 
+  public boolean isSpeculative() {
+    return speculative;
+  }
+
+  void setSpeculative(boolean speculative) {
+    this.speculative = speculative;
+  }
+
+  public boolean isPreempted() {
+    return preempted;
+  }
+
   public synchronized void setExpireTime(int expire) {
     this.expire = expire;
   }
@@ -255,6 +277,28 @@ public class TaskAttempt implements EventHandler<TaskAttemptEvent> {
     return new TableStats(resultStats);
   }
 
+  /**
+   * @return The runtime filter reported by this attempt, or null if it does not build any
+   */
+  public RuntimeFilterProto getRuntimeFilter() {
+    return runtimeFilter;
+  }
+
+  public void clearRuntimeFilter() {
+    runtimeFilter = null;
+  }
+
+  /**
+   * @return The shuffle outputs reported by this attempt, or null if it does not write any
+   */
+  public List<ShuffleFileOutput> getShuffleFileOutputs() {
+    return shuffleFileOutputs;
+  }
+
+  public List<IntermediateEntry> getIntermediateData() {
+    return intermediateData;
+  }
+
   public Set<PartitionDescProto> getPartitions() {
     return partitions;
   }
@@ -269,7 +313,7 @@ public class TaskAttempt implements EventHandler<TaskAttemptEvent> {
     List<IntermediateEntry> partitions = new ArrayList<IntermediateEntry>();
 
     if (report.getShuffleFileOutputsCount() > 0) {
-      this.getTask().setShuffleFileOutputs(report.getShuffleFileOutputsList());
+      this.shuffleFileOutputs = report.getShuffleFileOutputsList();
 
       PullHost host = new PullHost(getWorkerConnectionInfo().getHost(), getWorkerConnectionInfo().getPullServerPort());
       for (ShuffleFileOutput p : report.getShuffleFileOutputsList()) {
@@ -278,14 +322,17 @@ public class TaskAttempt implements EventHandler<TaskAttemptEvent> {
         partitions.add(entry);
       }
     }
-    this.getTask().setIntermediateData(partitions);
+    // the task takes them over only if this attempt finishes first among its attempts
+    this.intermediateData = partitions;
 
     if (report.hasInputStats()) {
       this.inputStats = report.getInputStats();
     }
     if (report.hasResultStats()) {
       this.resultStats = report.getResultStats();
-      this.getTask().setStats(new TableStats(resultStats));
+    }
+    if (report.hasRuntimeFilter()) {
+      this.runtimeFilter = report.getRuntimeFilter();
     }
   }
 
@@ -433,6 +480,7 @@ public class TaskAttempt implements EventHandler<TaskAttemptEvent> {
         throw new IllegalArgumentException("event should be a TaskFatalErrorEvent type.");
       }
       TaskFatalErrorEvent errorEvent = (TaskFatalErrorEvent) event;
+      taskAttempt.preempted = errorEvent.isPreempted();
       taskAttempt.eventHandler.handle(new TaskTAttemptEvent(taskAttempt.getId(), TaskEventType.T_ATTEMPT_FAILED));
       taskAttempt.addDiagnosticInfo(errorEvent.errorMessage());
       LOG.error(taskAttempt.getId() + " FROM " + taskAttempt.getWorkerConnectionInfo().getHost()
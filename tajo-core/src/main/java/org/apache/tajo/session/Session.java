@@ -25,10 +25,12 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.tajo.QueryId;
 import org.apache.tajo.SessionVars;
 import org.apache.tajo.algebra.Expr;
+import org.apache.tajo.catalog.TableDesc;
 import org.apache.tajo.master.exec.NonForwardQueryResultScanner;
 import org.apache.tajo.util.KeyValueSet;
 import org.apache.tajo.common.ProtoObject;
 
+import java.net.URI;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -170,6 +172,21 @@ public class Session implements SessionConstants, ProtoObject<SessionProto>, Clo
     }
   }
 
+  /**
+   * @return True if a result scanner of this session reads the table at the given location
+   */
+  public boolean hasNonForwardQueryResultScanner(URI tableUri) {
+    synchronized (nonForwardQueryMap) {
+      for (NonForwardQueryResultScanner eachQueryScanner : nonForwardQueryMap.values()) {
+        TableDesc desc = eachQueryScanner.getTableDesc();
+        if (desc != null && tableUri.equals(desc.getUri())) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
   public void closeNonForwardQueryResultScanner(QueryId queryId) {
     NonForwardQueryResultScanner resultScanner;
     synchronized (nonForwardQueryMap) {
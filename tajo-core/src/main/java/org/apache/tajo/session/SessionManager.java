@@ -25,6 +25,7 @@ import org.apache.hadoop.service.CompositeService;
 import org.apache.hadoop.yarn.event.Dispatcher;
 import org.apache.hadoop.yarn.event.EventHandler;
 
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -93,6 +94,18 @@ public class SessionManager extends CompositeService implements EventHandler<Ses
     }
   }
 
+  /**
+   * @return True if a session has a result scanner which reads the table at the given location
+   */
+  public boolean hasNonForwardQueryResultScanner(URI tableUri) {
+    for (Session session : sessions.values()) {
+      if (session.hasNonForwardQueryResultScanner(tableUri)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   public Session getSession(String sessionId) throws InvalidSessionException {
     assertSessionExistence(sessionId);
     touch(sessionId);
@@ -73,6 +73,11 @@ public class TajoMetrics {
     metricRegistry.register(MetricsUtil.getCanonicalName(item), gauge);
   }
 
+  public void register(Enum<?> item, Counter counter) {
+    Preconditions.checkArgument(metricsGroupName.equals(MetricsUtil.getGroupName(item)));
+    metricRegistry.register(MetricsUtil.getCanonicalName(item), counter);
+  }
+
   public void register(Class<? extends Enum<?>> context, MetricSet metricSet) {
     Preconditions.checkArgument(metricsGroupName.equals(MetricsUtil.getGroupName(context)));
 
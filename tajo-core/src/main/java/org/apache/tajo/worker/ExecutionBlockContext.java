@@ -28,6 +28,7 @@ import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.security.UserGroupInformation;
 import org.apache.hadoop.util.ReflectionUtils;
 import org.apache.tajo.ExecutionBlockId;
+import org.apache.tajo.SessionVars;
 import org.apache.tajo.TajoProtos;
 import org.apache.tajo.TaskAttemptId;
 import org.apache.tajo.TaskId;
@@ -35,6 +36,7 @@ import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.engine.query.QueryContext;
 import org.apache.tajo.ipc.QueryMasterProtocol;
 import org.apache.tajo.plan.serder.PlanProto;
+import org.apache.tajo.plan.util.PlannerUtil;
 import org.apache.tajo.rpc.*;
 import org.apache.tajo.rpc.protocolrecords.PrimitiveProtos;
 import org.apache.tajo.storage.HashShuffleAppenderManager;
@@ -88,6 +90,9 @@ public class ExecutionBlockContext {
 
   private PlanProto.ShuffleType shuffleType;
 
+  // If true, the committed pages of hash shuffle are reported whenever a task finishes.
+  private boolean pipelinedShuffle;
+
   // It keeps all of the query unit attempts while a TaskRunner is running.
   private final ConcurrentMap<TaskAttemptId, Task> tasks = Maps.newConcurrentMap();
 
@@ -108,9 +113,11 @@ public class ExecutionBlockContext {
     this.queryEngine = new TajoQueryEngine(systemConf);
     this.queryContext = new QueryContext(workerContext.getConf(), request.getQueryContext());
     this.plan = request.getPlanJson();
-    this.resource = new ExecutionBlockSharedResource();
+    this.resource = new ExecutionBlockSharedResource(workerContext.getCompiledEvalCache());
     this.workerContext = workerContext;
     this.shuffleType = request.getShuffleType();
+    this.pipelinedShuffle = PlannerUtil.isHashShuffle(shuffleType)
+        && queryContext.getBool(SessionVars.PIPELINED_SHUFFLE_ENABLED);
     this.queryMasterClient = queryMasterClient;
   }
 
@@ -275,8 +282,10 @@ public class ExecutionBlockContext {
 
   /**
    * HASH_SHUFFLE, SCATTERED_HASH_SHUFFLE should send report when this executionBlock stopping.
+   * It is not sent until the shuffle report of a finishing task attempt is sent, so that the stage is not
+   * completed before the pages committed by the task attempt are reported.
    */
-  protected void sendShuffleReport() throws Exception {
+  protected synchronized void sendShuffleReport() throws Exception {
 
     switch (shuffleType) {
       case HASH_SHUFFLE:
@@ -313,44 +322,8 @@ public class ExecutionBlockContext {
         return;
       }
 
-      IntermediateEntryProto.Builder intermediateBuilder = IntermediateEntryProto.newBuilder();
-      IntermediateEntryProto.PageProto.Builder pageBuilder = IntermediateEntryProto.PageProto.newBuilder();
-      FailureIntermediateProto.Builder failureBuilder = FailureIntermediateProto.newBuilder();
-
-      for (HashShuffleAppenderManager.HashShuffleIntermediate eachShuffle: shuffles) {
-        List<IntermediateEntryProto.PageProto> pages = Lists.newArrayList();
-        List<FailureIntermediateProto> failureIntermediateItems = Lists.newArrayList();
-
-        for (Pair<Long, Integer> eachPage: eachShuffle.getPages()) {
-          pageBuilder.clear();
-          pageBuilder.setPos(eachPage.getFirst());
-          pageBuilder.setLength(eachPage.getSecond());
-          pages.add(pageBuilder.build());
-        }
-
-        for(Pair<Long, Pair<Integer, Integer>> eachFailure: eachShuffle.getFailureTskTupleIndexes()) {
-          failureBuilder.clear();
-          failureBuilder.setPagePos(eachFailure.getFirst());
-          failureBuilder.setStartRowNum(eachFailure.getSecond().getFirst());
-          failureBuilder.setEndRowNum(eachFailure.getSecond().getSecond());
-          failureIntermediateItems.add(failureBuilder.build());
-        }
-        intermediateBuilder.clear();
-
-        intermediateBuilder.setEbId(ebId.getProto())
-            .setHost(getWorkerContext().getConnectionInfo().getHost() + ":" +
-                getWorkerContext().getConnectionInfo().getPullServerPort())
-            .setTaskId(-1)
-            .setAttemptId(-1)
-            .setPartId(eachShuffle.getPartId())
-            .setVolume(eachShuffle.getVolume())
-            .addAllPages(pages)
-            .addAllFailures(failureIntermediateItems);
-        intermediateEntries.add(intermediateBuilder.build());
-      }
-
       // send intermediateEntries to QueryMaster
-      reporterBuilder.addAllIntermediateEntries(intermediateEntries);
+      reporterBuilder.addAllIntermediateEntries(toIntermediateEntryProtos(ebId, shuffles));
 
     } catch (Throwable e) {
       LOG.error(e.getMessage(), e);
@@ -372,6 +345,98 @@ public class ExecutionBlockContext {
     }
   }
 
+  /**
+   * Report the hash shuffle pages committed until a task attempt finishes. It is called for every finished
+   * task attempt if pipelined shuffle is enabled, so that the consumer tasks can fetch the pages while the stage
+   * is running. The pages which are not committed yet are reported when this execution block is stopping.
+   *
+   * @param attemptId The finished task attempt
+   * @param succeeded True if the task attempt succeeded
+   */
+  public synchronized void sendTaskShuffleReport(TaskAttemptId attemptId, boolean succeeded) {
+    ExecutionBlockReport.Builder reporterBuilder = ExecutionBlockReport.newBuilder();
+    reporterBuilder.setEbId(executionBlockId.getProto());
+    reporterBuilder.setReportSuccess(true);
+    reporterBuilder.setSucceededTasks(succeeded ? 1 : 0);
+    reporterBuilder.setFinishedAttempt(attemptId.getProto());
+    try {
+      List<HashShuffleAppenderManager.HashShuffleIntermediate> shuffles =
+          getWorkerContext().getHashShuffleAppenderManager().commit(executionBlockId);
+      reporterBuilder.addAllIntermediateEntries(toIntermediateEntryProtos(executionBlockId, shuffles));
+    } catch (Throwable e) {
+      LOG.error(e.getMessage(), e);
+      reporterBuilder.setReportSuccess(false);
+      if (e.getMessage() == null) {
+        reporterBuilder.setReportErrorMessage(e.getClass().getSimpleName());
+      } else {
+        reporterBuilder.setReportErrorMessage(e.getMessage());
+      }
+    }
+    try {
+      CallFuture<PrimitiveProtos.NullProto> callFuture = new CallFuture<PrimitiveProtos.NullProto>();
+      getStub().doneExecutionBlock(callFuture.getController(), reporterBuilder.build(), callFuture);
+      callFuture.get(RpcConstants.DEFAULT_FUTURE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    } catch (Throwable e) {
+      // can't send report to query master
+      LOG.error(e.getMessage(), e);
+    }
+  }
+
+  private List<IntermediateEntryProto> toIntermediateEntryProtos(
+      ExecutionBlockId ebId, List<HashShuffleAppenderManager.HashShuffleIntermediate> shuffles) {
+    List<IntermediateEntryProto> intermediateEntries = Lists.newArrayList();
+    IntermediateEntryProto.Builder intermediateBuilder = IntermediateEntryProto.newBuilder();
+    IntermediateEntryProto.PageProto.Builder pageBuilder = IntermediateEntryProto.PageProto.newBuilder();
+    FailureIntermediateProto.Builder failureBuilder = FailureIntermediateProto.newBuilder();
+
+    for (HashShuffleAppenderManager.HashShuffleIntermediate eachShuffle: shuffles) {
+      List<IntermediateEntryProto.PageProto> pages = Lists.newArrayList();
+      List<FailureIntermediateProto> failureIntermediateItems = Lists.newArrayList();
+      List<IntermediateEntryProto.PageProto> failureRanges = Lists.newArrayList();
+
+      for (Pair<Long, Integer> eachPage: eachShuffle.getPages()) {
+        pageBuilder.clear();
+        pageBuilder.setPos(eachPage.getFirst());
+        pageBuilder.setLength(eachPage.getSecond());
+        pages.add(pageBuilder.build());
+      }
+
+      for (Pair<Long, Integer> eachRange: eachShuffle.getFailureRanges()) {
+        pageBuilder.clear();
+        pageBuilder.setPos(eachRange.getFirst());
+        pageBuilder.setLength(eachRange.getSecond());
+        failureRanges.add(pageBuilder.build());
+      }
+
+      for(Pair<Long, Pair<Integer, Integer>> eachFailure: eachShuffle.getFailureTskTupleIndexes()) {
+        failureBuilder.clear();
+        failureBuilder.setPagePos(eachFailure.getFirst());
+        failureBuilder.setStartRowNum(eachFailure.getSecond().getFirst());
+        failureBuilder.setEndRowNum(eachFailure.getSecond().getSecond());
+        failureIntermediateItems.add(failureBuilder.build());
+      }
+      intermediateBuilder.clear();
+
+      intermediateBuilder.setEbId(ebId.getProto())
+          .setHost(getWorkerContext().getConnectionInfo().getHost() + ":" +
+              getWorkerContext().getConnectionInfo().getPullServerPort())
+          .setTaskId(-1)
+          .setAttemptId(-1)
+          .setPartId(eachShuffle.getPartId())
+          .setVolume(eachShuffle.getVolume())
+          .setPageIndex(eachShuffle.getPageIndex())
+          .addAllPages(pages)
+          .addAllFailures(failureIntermediateItems)
+          .addAllFailureRanges(failureRanges);
+      intermediateEntries.add(intermediateBuilder.build());
+    }
+    return intermediateEntries;
+  }
+
+  public boolean isPipelinedShuffle() {
+    return pipelinedShuffle;
+  }
+
   protected class Reporter {
     private Thread reporterThread;
     private static final int PROGRESS_INTERVAL = 1000;
@@ -18,13 +18,18 @@
 
 package org.apache.tajo.worker;
 
+import com.google.common.collect.Maps;
 import org.apache.commons.lang.exception.ExceptionUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.tajo.ExecutionBlockId;
 import org.apache.tajo.SessionVars;
 import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.engine.codegen.CompiledEvalCache;
+import org.apache.tajo.engine.codegen.CompiledPipeline;
 import org.apache.tajo.engine.codegen.ExecutorPreCompiler;
+import org.apache.tajo.engine.codegen.PipelineCodeGenerator;
+import org.apache.tajo.engine.codegen.PipelineStage;
 import org.apache.tajo.engine.codegen.TajoClassLoader;
 import org.apache.tajo.engine.json.CoreGsonHelper;
 import org.apache.tajo.engine.query.QueryContext;
@@ -36,6 +41,9 @@ import org.apache.tajo.plan.expr.EvalNode;
 import org.apache.tajo.plan.logical.LogicalNode;
 import org.apache.tajo.util.Pair;
 
+import java.lang.reflect.Constructor;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ExecutionBlockSharedResource {
@@ -48,11 +56,28 @@ public class ExecutionBlockSharedResource {
   private QueryContext context;
 
   // Resources
+  private final CompiledEvalCache evalCache;
   private TajoClassLoader classLoader;
   private ExecutorPreCompiler.CompilationContext compilationContext;
+  private PipelineCodeGenerator pipelineCompiler;
+  // pipeline segments of this execution block, keyed by the canonical form of their stages
+  private final Map<String, Boolean> fusiblePipelines = Maps.newHashMap();
+  private final Map<String, Constructor<? extends CompiledPipeline>> compiledPipelines = Maps.newHashMap();
   private LogicalNode plan;
   private boolean codeGenEnabled = false;
 
+  public ExecutionBlockSharedResource() {
+    this(null);
+  }
+
+  /**
+   * @param evalCache The worker-wide cache of compiled evals. If it is null, evals are compiled by a class loader
+   *                  owned by this execution block.
+   */
+  public ExecutionBlockSharedResource(CompiledEvalCache evalCache) {
+    this.evalCache = evalCache;
+  }
+
   public void initialize(final QueryContext context, final String planJson) {
 
     if (!initializing.getAndSet(true)) {
@@ -80,8 +105,13 @@ public class ExecutionBlockSharedResource {
     if (context.getBool(SessionVars.CODEGEN)) {
       codeGenEnabled = true;
       classLoader = new TajoClassLoader();
-      compilationContext = new ExecutorPreCompiler.CompilationContext(classLoader);
+      if (evalCache != null) {
+        compilationContext = new ExecutorPreCompiler.CompilationContext(evalCache);
+      } else {
+        compilationContext = new ExecutorPreCompiler.CompilationContext(classLoader);
+      }
       ExecutorPreCompiler.compile(compilationContext, plan);
+      pipelineCompiler = new PipelineCodeGenerator(classLoader);
     }
   }
 
@@ -90,7 +120,7 @@ public class ExecutionBlockSharedResource {
   }
 
   public EvalNode compileEval(Schema schema, EvalNode eval) {
-    return compilationContext.getCompiler().compile(schema, eval);
+    return compilationContext.compile(schema, eval);
   }
 
   public EvalNode getPreCompiledEval(Schema schema, EvalNode eval) {
@@ -113,6 +143,79 @@ public class ExecutionBlockSharedResource {
     }
   }
 
+  /**
+   * Checks if a chain of operators can be fused into a single class. The result is shared by all tasks of this
+   * execution block, and no class is defined until {@link #compilePipeline(List)} is called.
+   *
+   * @return True if the stages can be compiled.
+   */
+  public boolean canFusePipeline(List<PipelineStage> stages) {
+    if (codeGenEnabled) {
+      String key = PipelineCodeGenerator.getCanonicalKey(stages);
+      synchronized (fusiblePipelines) {
+        Boolean fusible = fusiblePipelines.get(key);
+        if (fusible == null) {
+          try {
+            pipelineCompiler.check(stages);
+            fusible = true;
+          } catch (Throwable t) {
+            LOG.warn("Pipeline " + stages + " cannot be fused: " + t.getMessage());
+            fusible = false;
+          }
+          fusiblePipelines.put(key, fusible);
+        }
+        return fusible;
+      }
+    } else {
+      throw new IllegalStateException("CodeGen is disabled");
+    }
+  }
+
+  /**
+   * Compiles a chain of operators into a single class. The class is compiled once per execution block, and each
+   * call returns a new instance of it.
+   *
+   * @return A compiled pipeline. If the class cannot be compiled or instantiated, it returns null.
+   */
+  public CompiledPipeline compilePipeline(List<PipelineStage> stages) {
+    if (codeGenEnabled) {
+      String key = PipelineCodeGenerator.getCanonicalKey(stages);
+      synchronized (compiledPipelines) {
+        if (compiledPipelines.containsKey(key)) {
+          return newPipeline(compiledPipelines.get(key));
+        }
+
+        Constructor<? extends CompiledPipeline> constructor;
+        try {
+          constructor = pipelineCompiler.compileClass(stages);
+        } catch (Throwable t) {
+          LOG.warn("Pipeline " + stages + " cannot be compiled: " + t.getMessage());
+          constructor = null;
+        }
+
+        // a failure is also kept, so that other tasks do not compile the same stages again
+        CompiledPipeline pipeline = newPipeline(constructor);
+        compiledPipelines.put(key, pipeline != null ? constructor : null);
+        return pipeline;
+      }
+    } else {
+      throw new IllegalStateException("CodeGen is disabled");
+    }
+  }
+
+  private static CompiledPipeline newPipeline(Constructor<? extends CompiledPipeline> constructor) {
+    if (constructor == null) {
+      return null;
+    }
+
+    try {
+      return constructor.newInstance();
+    } catch (Throwable t) {
+      LOG.warn(constructor.getDeclaringClass().getName() + " cannot be instantiated: " + t.getMessage());
+      return null;
+    }
+  }
+
   /* This is guarantee a lock for a ExecutionBlock */
   public synchronized Object getLock() {
     return lock;
@@ -136,6 +239,10 @@ public class ExecutionBlockSharedResource {
 
   public void release() {
     compilationContext = null;
+    pipelineCompiler = null;
+    synchronized (compiledPipelines) {
+      compiledPipelines.clear();
+    }
 
     if (classLoader != null) {
       try {
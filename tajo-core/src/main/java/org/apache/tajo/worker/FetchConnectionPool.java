@@ -0,0 +1,235 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.worker;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.collect.Maps;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.pool.AbstractChannelPoolMap;
+import io.netty.channel.pool.ChannelHealthChecker;
+import io.netty.channel.pool.ChannelPoolHandler;
+import io.netty.channel.pool.FixedChannelPool;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpContentDecompressor;
+import io.netty.util.concurrent.Future;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.metrics.MetricsUtil;
+import org.apache.tajo.metrics.Node;
+import org.apache.tajo.rpc.RpcChannelFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * FetchConnectionPool keeps keep-alive connections to pull servers, and it is shared by all fetchers of a worker.
+ *
+ * The number of connections to a pull server is bounded. A fetch waits for an idle connection if all connections
+ * are in use, and it fails if too many fetches are already waiting, so that it is retried later by its task.
+ * The fetch throughput and latency are recorded for each pull server.
+ */
+public class FetchConnectionPool {
+  private static final Log LOG = LogFactory.getLog(FetchConnectionPool.class);
+
+  private final Bootstrap bootstrap;
+  private final int maxConnectionsPerHost;
+  private final int maxPendingFetchesPerHost;
+  private final long acquireTimeoutMillis;
+  private final AbstractChannelPoolMap<InetSocketAddress, FixedChannelPool> pools;
+
+  private final MetricRegistry registry;
+  private final ConcurrentMap<InetSocketAddress, HostMetrics> hostMetrics = Maps.newConcurrentMap();
+  private final AtomicInteger openConnections = new AtomicInteger();
+
+  public FetchConnectionPool(TajoConf conf) {
+    this(conf, new MetricRegistry());
+  }
+
+  /**
+   * @param registry The registry where the metrics of each pull server are added
+   */
+  public FetchConnectionPool(TajoConf conf, MetricRegistry registry) {
+    this.registry = registry;
+    this.maxConnectionsPerHost = conf.getIntVar(TajoConf.ConfVars.SHUFFLE_FETCHER_MAX_CONNECTIONS_PER_HOST);
+    this.maxPendingFetchesPerHost = conf.getIntVar(TajoConf.ConfVars.SHUFFLE_FETCHER_MAX_PENDING_FETCHES_PER_HOST);
+    this.acquireTimeoutMillis = conf.getIntVar(TajoConf.ConfVars.SHUFFLE_FETCHER_READ_TIMEOUT) * 1000L;
+
+    this.bootstrap = new Bootstrap()
+        .group(
+            RpcChannelFactory.getSharedClientEventloopGroup(RpcChannelFactory.ClientChannelId.FETCHER,
+                conf.getIntVar(TajoConf.ConfVars.SHUFFLE_RPC_CLIENT_WORKER_THREAD_NUM)))
+        .channel(NioSocketChannel.class)
+        .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS,
+            conf.getIntVar(TajoConf.ConfVars.SHUFFLE_FETCHER_CONNECT_TIMEOUT) * 1000)
+        .option(ChannelOption.SO_RCVBUF, 1048576) // set 1M
+        .option(ChannelOption.TCP_NODELAY, true);
+
+    final int maxChunkSize = conf.getIntVar(TajoConf.ConfVars.SHUFFLE_FETCHER_CHUNK_MAX_SIZE);
+    final ChannelPoolHandler poolHandler = new ChannelPoolHandler() {
+      @Override
+      public void channelCreated(Channel channel) throws Exception {
+        // The read timeout and the response handler are added by a fetcher while it uses this channel.
+        channel.pipeline().addLast("codec", new HttpClientCodec(4096, 8192, maxChunkSize));
+        channel.pipeline().addLast("inflater", new HttpContentDecompressor());
+
+        openConnections.incrementAndGet();
+        channel.closeFuture().addListener(new ChannelFutureListener() {
+          @Override
+          public void operationComplete(ChannelFuture future) throws Exception {
+            openConnections.decrementAndGet();
+          }
+        });
+      }
+
+      @Override
+      public void channelAcquired(Channel channel) throws Exception {
+      }
+
+      @Override
+      public void channelReleased(Channel channel) throws Exception {
+      }
+    };
+
+    this.pools = new AbstractChannelPoolMap<InetSocketAddress, FixedChannelPool>() {
+      @Override
+      protected FixedChannelPool newPool(InetSocketAddress address) {
+        return new FixedChannelPool(bootstrap.clone().remoteAddress(address), poolHandler,
+            ChannelHealthChecker.ACTIVE, FixedChannelPool.AcquireTimeoutAction.FAIL, acquireTimeoutMillis,
+            maxConnectionsPerHost, maxPendingFetchesPerHost);
+      }
+    };
+  }
+
+  /**
+   * Get a connection to a pull server. It blocks until a connection is available.
+   *
+   * @throws IOException If a connection cannot be made, or too many fetches are waiting for the pull server
+   */
+  public Channel acquire(InetSocketAddress address) throws IOException {
+    Future<Channel> future = pools.get(address).acquire().awaitUninterruptibly();
+    if (!future.isSuccess()) {
+      getHostMetrics(address).failures.inc();
+      throw new IOException("Cannot get a connection to " + address, future.cause());
+    }
+    return future.getNow();
+  }
+
+  /**
+   * Return a connection acquired by {@link #acquire(InetSocketAddress)}.
+   *
+   * @param reusable If false, the connection is closed. It should be false if a response was not read completely.
+   */
+  public void release(InetSocketAddress address, Channel channel, boolean reusable) {
+    if (!reusable) {
+      channel.close();
+    }
+    pools.get(address).release(channel);
+  }
+
+  /**
+   * Record a fetch from a pull server.
+   *
+   * @param bytes The number of bytes received
+   * @param elapsedNanos The elapsed time from sending a request to receiving the last content
+   * @param succeeded True if the fetch succeeded
+   */
+  public void record(InetSocketAddress address, long bytes, long elapsedNanos, boolean succeeded) {
+    HostMetrics metrics = getHostMetrics(address);
+    if (succeeded) {
+      metrics.bytes.mark(bytes);
+      metrics.latency.update(elapsedNanos, TimeUnit.NANOSECONDS);
+    } else {
+      metrics.failures.inc();
+    }
+  }
+
+  public HostMetrics getHostMetrics(InetSocketAddress address) {
+    HostMetrics metrics = hostMetrics.get(address);
+    if (metrics == null) {
+      metrics = new HostMetrics(registry, address);
+      HostMetrics existing = hostMetrics.putIfAbsent(address, metrics);
+      if (existing != null) {
+        metrics = existing;
+      }
+    }
+    return metrics;
+  }
+
+  /**
+   * @return The number of open connections to all pull servers
+   */
+  public int getOpenConnections() {
+    return openConnections.get();
+  }
+
+  public int getMaxConnectionsPerHost() {
+    return maxConnectionsPerHost;
+  }
+
+  public void close() {
+    LOG.info("Close connections to " + pools.size() + " pull servers");
+    pools.close();
+  }
+
+  /**
+   * Fetch metrics of a pull server. They are named NODE.SHUFFLE.[host_port].[item].
+   */
+  public static class HostMetrics {
+    /** received bytes, whose rates are the fetch throughput */
+    private final Meter bytes;
+    /** the elapsed time of succeeded fetches */
+    private final Timer latency;
+    /** the number of failed fetches */
+    private final Counter failures;
+
+    HostMetrics(MetricRegistry registry, InetSocketAddress address) {
+      String prefix = MetricRegistry.name(MetricsUtil.getCanonicalContextName(Node.Shuffle.class),
+          (address.getHostString() + "_" + address.getPort()).replace('.', '_'));
+      this.bytes = registry.meter(MetricRegistry.name(prefix, Node.Shuffle.FETCH_BYTES.name()));
+      this.latency = registry.timer(MetricRegistry.name(prefix, Node.Shuffle.FETCH_LATENCY.name()));
+      this.failures = registry.counter(MetricRegistry.name(prefix, Node.Shuffle.FETCH_FAILURES.name()));
+    }
+
+    public Meter getBytes() {
+      return bytes;
+    }
+
+    public Timer getLatency() {
+      return latency;
+    }
+
+    public Counter getFailures() {
+      return failures;
+    }
+  }
+}
@@ -44,7 +44,7 @@ public class FetchImpl implements ProtoObject<FetchProto>, Cloneable {
   private int partitionId;                     // The hash partition id
   private String name;                         // The intermediate source name
   private String rangeParams;                  // optional, the http parameters of range partition. (e.g., start=xx&end=yy)
-  private boolean hasNext = false;             // optional, if true, has more taskIds
+  private boolean hasNext = false;             // optional, if true, the pages are fetched while the producer runs
 
   private List<Integer> taskIds;               // repeated, the task ids
   private List<Integer> attemptIds;            // repeated, the attempt ids
@@ -192,6 +192,13 @@ public class FetchImpl implements ProtoObject<FetchProto>, Cloneable {
     return Repartitioner.createFetchURL(this, true);
   }
 
+  /**
+   * Get the pull server URIs which fetch the partitions of the given hash shuffle fetches together.
+   */
+  public static List<URI> getURIs(List<FetchImpl> hashFetches) {
+    return Repartitioner.createFetchURL(hashFetches);
+  }
+
   /**
    * Get the pull server URIs without repeated parameters.
    */
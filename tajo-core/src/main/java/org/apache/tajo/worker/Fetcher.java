@@ -42,11 +42,15 @@ import java.io.RandomAccessFile;
 import java.net.InetSocketAddress;
 import java.net.URI;
 import java.nio.channels.FileChannel;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Fetcher fetches data from a given uri via HTTP protocol and stores them into
  * a specific file. It aims at asynchronous and efficient data transmit.
+ *
+ * If a {@link FetchConnectionPool} is given, the request is sent through a keep-alive connection of the pool.
+ * Otherwise, a new connection is made for each fetch.
  */
 public class Fetcher {
 
@@ -67,13 +71,19 @@ public class Fetcher {
   private TajoProtos.FetcherState state;
 
   private Bootstrap bootstrap;
+  private final FetchConnectionPool connectionPool;
 
   public Fetcher(TajoConf conf, URI uri, FileChunk chunk) {
+    this(conf, uri, chunk, null);
+  }
+
+  public Fetcher(TajoConf conf, URI uri, FileChunk chunk, FetchConnectionPool connectionPool) {
     this.uri = uri;
     this.fileChunk = chunk;
     this.useLocalFile = !chunk.fromRemote();
     this.state = TajoProtos.FetcherState.FETCH_INIT;
     this.conf = conf;
+    this.connectionPool = connectionPool;
 
     String scheme = uri.getScheme() == null ? "http" : uri.getScheme();
     this.host = uri.getHost() == null ? "localhost" : uri.getHost();
@@ -86,7 +96,7 @@ public class Fetcher {
       }
     }
 
-    if (!useLocalFile) {
+    if (!useLocalFile && connectionPool == null) {
       bootstrap = new Bootstrap()
           .group(
               RpcChannelFactory.getSharedClientEventloopGroup(RpcChannelFactory.ClientChannelId.FETCHER,
@@ -133,6 +143,10 @@ public class Fetcher {
     }
 
     LOG.info("Get real fetch from remote host");
+    if (connectionPool != null) {
+      return getThroughPool();
+    }
+
     this.startTime = System.currentTimeMillis();
     this.state = TajoProtos.FetcherState.FETCH_FETCHING;
     ChannelFuture future = null;
@@ -147,13 +161,8 @@ public class Fetcher {
         throw new IOException(future.cause());
       }
 
-      String query = uri.getPath()
-          + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "");
       // Prepare the HTTP request.
-      HttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, query);
-      request.headers().set(HttpHeaders.Names.HOST, host);
-      request.headers().set(HttpHeaders.Names.CONNECTION, HttpHeaders.Values.CLOSE);
-      request.headers().set(HttpHeaders.Names.ACCEPT_ENCODING, HttpHeaders.Values.GZIP);
+      HttpRequest request = createRequest(HttpHeaders.Values.CLOSE);
 
       LOG.info("Status: " + getState() + ", URI:" + uri);
       // Send the HTTP request.
@@ -175,6 +184,64 @@ public class Fetcher {
     }
   }
 
+  private FileChunk getThroughPool() throws IOException {
+    this.startTime = System.currentTimeMillis();
+    this.state = TajoProtos.FetcherState.FETCH_FETCHING;
+    InetSocketAddress address = new InetSocketAddress(host, port);
+    long startNanos = System.nanoTime();
+    Channel channel = null;
+    boolean reusable = false;
+    try {
+      try {
+        channel = connectionPool.acquire(address);
+      } catch (IOException e) {
+        state = TajoProtos.FetcherState.FETCH_FAILED;
+        throw e;
+      }
+
+      HttpClientHandler handler = new HttpClientHandler(fileChunk.getFile());
+      int readTimeout = conf.getIntVar(TajoConf.ConfVars.SHUFFLE_FETCHER_READ_TIMEOUT);
+      channel.pipeline().addLast("timeout", new ReadTimeoutHandler(readTimeout, TimeUnit.SECONDS));
+      channel.pipeline().addLast("handler", handler);
+
+      LOG.info("Status: " + getState() + ", URI:" + uri);
+      // A failed write closes the channel, and then the handler finishes this fetch as failed.
+      channel.writeAndFlush(createRequest(HttpHeaders.Values.KEEP_ALIVE))
+          .addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
+
+      // Wait for the last content, or the failure of this fetch
+      handler.awaitResponse();
+      if (state == TajoProtos.FetcherState.FETCH_FINISHED && handler.isKeepAlive()) {
+        channel.pipeline().remove("timeout");
+        channel.pipeline().remove("handler");
+        reusable = channel.isActive();
+      }
+
+      fileChunk.setLength(fileChunk.getFile().length());
+      return fileChunk;
+    } finally {
+      if (channel != null) {
+        connectionPool.release(address, channel, reusable);
+      }
+
+      this.finishTime = System.currentTimeMillis();
+      connectionPool.record(address, fileLen, System.nanoTime() - startNanos,
+          state == TajoProtos.FetcherState.FETCH_FINISHED);
+      LOG.info("Fetcher finished:" + (finishTime - startTime) + " ms, " + getState() + ", URI:" + uri);
+    }
+  }
+
+  private HttpRequest createRequest(String connection) {
+    String query = uri.getPath()
+        + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "");
+    // A full request ends the message, so that the next request can be written to a reused connection.
+    HttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, query);
+    request.headers().set(HttpHeaders.Names.HOST, host);
+    request.headers().set(HttpHeaders.Names.CONNECTION, connection);
+    request.headers().set(HttpHeaders.Names.ACCEPT_ENCODING, HttpHeaders.Values.GZIP);
+    return request;
+  }
+
   public URI getURI() {
     return this.uri;
   }
@@ -184,6 +251,8 @@ public class Fetcher {
     private RandomAccessFile raf;
     private FileChannel fc;
     private long length = -1;
+    private boolean keepAlive;
+    private final CountDownLatch responseLatch = new CountDownLatch(1);
 
     public HttpClientHandler(File file) throws FileNotFoundException {
       this.file = file;
@@ -199,6 +268,9 @@ public class Fetcher {
       if (msg instanceof HttpResponse) {
         try {
           HttpResponse response = (HttpResponse) msg;
+          // a connection is not reused after an error, because the pull server closes it
+          keepAlive = HttpHeaders.isKeepAlive(response)
+              && response.getStatus().code() == HttpResponseStatus.OK.code();
 
           StringBuilder sb = new StringBuilder();
           if (LOG.isDebugEnabled()) {
@@ -256,6 +328,7 @@ public class Fetcher {
             }
 
             IOUtils.cleanup(LOG, fc, raf);
+            responseLatch.countDown();
           }
         } catch (Exception e) {
           LOG.error(e.getMessage(), e);
@@ -265,6 +338,22 @@ public class Fetcher {
       }
     }
 
+    /**
+     * @return True if the connection can be used for the next request
+     */
+    public boolean isKeepAlive() {
+      return keepAlive;
+    }
+
+    public void awaitResponse() {
+      try {
+        responseLatch.await();
+      } catch (InterruptedException e) {
+        state = TajoProtos.FetcherState.FETCH_FAILED;
+        Thread.currentThread().interrupt();
+      }
+    }
+
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause)
         throws Exception {
@@ -278,6 +367,7 @@ public class Fetcher {
       IOUtils.cleanup(LOG, fc, raf);
       finishTime = System.currentTimeMillis();
       state = TajoProtos.FetcherState.FETCH_FAILED;
+      responseLatch.countDown();
       ctx.close();
     }
 
@@ -289,7 +379,8 @@ public class Fetcher {
         state = TajoProtos.FetcherState.FETCH_FAILED;
       }
       IOUtils.cleanup(LOG, fc, raf);
-      
+      responseLatch.countDown();
+
       super.channelUnregistered(ctx);
     }
   }
@@ -25,9 +25,11 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.service.AbstractService;
 import org.apache.hadoop.yarn.event.EventHandler;
+import org.apache.tajo.QueryId;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.ipc.TajoResourceTrackerProtocol;
 import org.apache.tajo.resource.DefaultResourceCalculator;
+import org.apache.tajo.resource.NodeResource;
 import org.apache.tajo.resource.NodeResources;
 import org.apache.tajo.rpc.AsyncRpcClient;
 import org.apache.tajo.rpc.CallFuture;
@@ -41,6 +43,7 @@ import org.apache.tajo.worker.event.NodeStatusEvent;
 import java.net.ConnectException;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -130,6 +133,11 @@ public class NodeStatusUpdater extends AbstractService implements EventHandler<N
     requestProto.setAvailableResource(workerContext.getNodeResourceManager().getAvailableResource().getProto());
     requestProto.setRunningTasks(workerContext.getTaskManager().getRunningTasks());
     requestProto.setRunningQueryMasters(workerContext.getNodeResourceManager().getRunningQueryMasters());
+    for (Map.Entry<QueryId, NodeResource> entry : workerContext.getTaskManager().getRunningQueryResources().entrySet()) {
+      requestProto.addQueryResources(QueryResourceProto.newBuilder()
+          .setQueryId(entry.getKey().getProto())
+          .setResource(entry.getValue().getProto()));
+    }
 
     return requestProto;
   }
@@ -218,6 +226,12 @@ public class NodeStatusUpdater extends AbstractService implements EventHandler<N
             if (lastResponse.getCommand() == ResponseCommand.NORMAL) {
               List<NodeStatusEvent> events = Lists.newArrayList();
 
+              // kill the tasks which the scheduler preempted for other queries
+              for (QueryResourceProto preemption : lastResponse.getPreemptionsList()) {
+                workerContext.getTaskManager().preemptTasks(new QueryId(preemption.getQueryId()),
+                    preemption.getResource().getMemory());
+              }
+
               if(lastResponse.hasHeartBeatInterval()) {
                 nextHeartBeatInterval = lastResponse.getHeartBeatInterval();
               } else {
@@ -35,6 +35,7 @@ import org.apache.tajo.catalog.CatalogClient;
 import org.apache.tajo.catalog.CatalogService;
 import org.apache.tajo.catalog.FunctionDesc;
 import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.engine.codegen.CompiledEvalCache;
 import org.apache.tajo.engine.function.FunctionLoader;
 import org.apache.tajo.function.FunctionSignature;
 import org.apache.tajo.master.cluster.WorkerConnectionInfo;
@@ -132,6 +133,10 @@ public class TajoWorker extends CompositeService {
 
   private HistoryReader historyReader;
 
+  private CompiledEvalCache compiledEvalCache;
+
+  private FetchConnectionPool fetchConnectionPool;
+
   public TajoWorker() throws Exception {
     super(TajoWorker.class.getName());
   }
@@ -236,6 +241,8 @@ public class TajoWorker extends CompositeService {
 
     historyReader = new HistoryReader(workerContext.getWorkerName(), this.systemConf);
 
+    compiledEvalCache = new CompiledEvalCache(systemConf.getIntVar(ConfVars.EXECUTOR_CODEGEN_CACHE_SIZE));
+
     FunctionLoader.loadUserDefinedFunctions(systemConf, new HashMap<FunctionSignature, FunctionDesc>());
     
     diagnoseTajoWorker();
@@ -266,6 +273,30 @@ public class TajoWorker extends CompositeService {
         }
       }
     });
+
+    workerSystemMetrics.register(Node.Codegen.CACHE_HITS, compiledEvalCache.getHitCounter());
+    workerSystemMetrics.register(Node.Codegen.CACHE_MISSES, compiledEvalCache.getMissCounter());
+    workerSystemMetrics.register(Node.Codegen.CACHE_EVICTIONS, compiledEvalCache.getEvictionCounter());
+    workerSystemMetrics.register(Node.Codegen.CACHED_CLASSES, new Gauge<Integer>() {
+      @Override
+      public Integer getValue() {
+        return compiledEvalCache.size();
+      }
+    });
+  }
+
+  private void initFetchConnectionPool() {
+    if (!systemConf.getBoolVar(ConfVars.SHUFFLE_FETCHER_CONNECTION_POOL_ENABLED)) {
+      return;
+    }
+
+    fetchConnectionPool = new FetchConnectionPool(systemConf, workerSystemMetrics.getRegistry());
+    workerSystemMetrics.register(Node.Shuffle.OPEN_CONNECTIONS, new Gauge<Integer>() {
+      @Override
+      public Integer getValue() {
+        return fetchConnectionPool.getOpenConnections();
+      }
+    });
   }
 
   private int initWebServer() {
@@ -331,6 +362,7 @@ public class TajoWorker extends CompositeService {
     }
 
     initWorkerMetrics();
+    initFetchConnectionPool();
     super.serviceStart();
     LOG.info("Tajo Worker is started");
   }
@@ -370,6 +402,10 @@ public class TajoWorker extends CompositeService {
       workerSystemMetrics.stop();
     }
 
+    if (fetchConnectionPool != null) {
+      fetchConnectionPool.close();
+    }
+
     if(deletionService != null) deletionService.stop();
 
     if(pauseMonitor != null) pauseMonitor.stop();
@@ -386,6 +422,8 @@ public class TajoWorker extends CompositeService {
 
     QueryMasterManagerService getQueryMasterManagerService();
 
+    TajoWorkerClientService getTajoWorkerClientService();
+
     TaskManager getTaskManager();
 
     TaskExecutor getTaskExecuor();
@@ -408,6 +446,13 @@ public class TajoWorker extends CompositeService {
 
     HistoryReader getHistoryReader();
 
+    CompiledEvalCache getCompiledEvalCache();
+
+    /**
+     * @return The pool of connections to pull servers, or null if the connection pool is disabled
+     */
+    FetchConnectionPool getFetchConnectionPool();
+
     void cleanup(String strPath);
 
     void cleanupTemporalDirectories();
@@ -433,6 +478,10 @@ public class TajoWorker extends CompositeService {
       return queryMasterManagerService;
     }
 
+    public TajoWorkerClientService getTajoWorkerClientService() {
+      return tajoWorkerClientService;
+    }
+
     @Override
     public TaskManager getTaskManager(){
       return taskManager;
@@ -523,6 +572,16 @@ public class TajoWorker extends CompositeService {
     public HistoryReader getHistoryReader() {
       return historyReader;
     }
+
+    @Override
+    public CompiledEvalCache getCompiledEvalCache() {
+      return compiledEvalCache;
+    }
+
+    @Override
+    public FetchConnectionPool getFetchConnectionPool() {
+      return fetchConnectionPool;
+    }
   }
 
   private int getStandAlonePullServerPort() {
@@ -26,18 +26,31 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.service.AbstractService;
 import org.apache.tajo.QueryId;
+import org.apache.tajo.catalog.TableDesc;
+import org.apache.tajo.catalog.proto.CatalogProtos.FragmentProto;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.exception.ReturnStateUtil;
-import org.apache.tajo.ipc.ClientProtos.GetQueryHistoryResponse;
-import org.apache.tajo.ipc.ClientProtos.QueryIdRequest;
+import org.apache.tajo.exception.TajoException;
+import org.apache.tajo.exception.TajoInternalError;
+import org.apache.tajo.ipc.ClientProtos.*;
 import org.apache.tajo.ipc.QueryMasterClientProtocol;
+import org.apache.tajo.master.exec.NonForwardQueryResultFileScanner;
+import org.apache.tajo.master.exec.QueryResultEncoder;
 import org.apache.tajo.querymaster.QueryMasterTask;
 import org.apache.tajo.rpc.BlockingRpcServer;
 import org.apache.tajo.rpc.protocolrecords.PrimitiveProtos;
+import org.apache.tajo.rpc.protocolrecords.PrimitiveProtos.ReturnState;
+import org.apache.tajo.storage.fragment.Fragment;
+import org.apache.tajo.storage.fragment.FragmentConvertor;
 import org.apache.tajo.util.NetUtils;
 import org.apache.tajo.util.history.QueryHistory;
 
+import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class TajoWorkerClientService extends AbstractService {
   private static final Log LOG = LogFactory.getLog(TajoWorkerClientService.class);
@@ -53,6 +66,9 @@ public class TajoWorkerClientService extends AbstractService {
   private TajoConf conf;
   private TajoWorker.WorkerContext workerContext;
   private TajoWorkerClientProtocolServiceHandler serviceHandler;
+  // the result streams registered by TajoMaster, which are being read by clients
+  private final ConcurrentMap<String, ResultStreamScanner> resultStreamScanners =
+      new ConcurrentHashMap<String, ResultStreamScanner>();
 
   public TajoWorkerClientService(TajoWorker.WorkerContext workerContext, int port) {
     super(TajoWorkerClientService.class.getName());
@@ -100,6 +116,9 @@ public class TajoWorkerClientService extends AbstractService {
     if(rpcServer != null) {
       rpcServer.shutdown();
     }
+    for (String streamId : resultStreamScanners.keySet()) {
+      closeResultStreamScanner(streamId);
+    }
     LOG.info("TajoWorkerClientService stopped");
     super.stop();
   }
@@ -108,6 +127,100 @@ public class TajoWorkerClientService extends AbstractService {
     return bindAddr;
   }
 
+  private static class ResultStreamScanner {
+    private final ResultStreamProto stream;
+    // opened by the first request of the stream
+    private NonForwardQueryResultFileScanner scanner;
+    private boolean closed;
+    private long lastAccessTime = System.currentTimeMillis();
+
+    ResultStreamScanner(ResultStreamProto stream) {
+      this.stream = stream;
+    }
+  }
+
+  /**
+   * Register the result streams which TajoMaster hands out to a client. A worker serves only the registered streams,
+   * and it reads the tables and fragments of a stream from its registration, not from the requests of clients.
+   */
+  public void registerResultStreams(List<ResultStreamProto> streams) {
+    closeExpiredResultStreams();
+    for (ResultStreamProto stream : streams) {
+      if (resultStreamScanners.putIfAbsent(stream.getId(), new ResultStreamScanner(stream)) != null) {
+        LOG.warn("Result stream " + stream.getId() + " is already registered");
+      }
+    }
+  }
+
+  private ResultStreamScanner getResultStreamScanner(String streamId) {
+    ResultStreamScanner streamScanner = resultStreamScanners.get(streamId);
+    if (streamScanner == null) {
+      throw new TajoInternalError("result stream " + streamId + " is not registered, or already closed or expired");
+    }
+    return streamScanner;
+  }
+
+  /**
+   * Open the scanner of a stream if it is the first request, and check if the scanner is at the requested row.
+   * It must be called with the lock of the stream.
+   */
+  private void seekResultStream(ResultStreamScanner streamScanner, long offset) throws IOException, TajoException {
+    ResultStreamProto stream = streamScanner.stream;
+    if (streamScanner.closed) {
+      throw new TajoInternalError("result stream " + stream.getId() + " is already closed or expired");
+    }
+
+    if (streamScanner.scanner == null) {
+      // a stream is opened by its first request, and then it is kept until all rows are read
+      if (offset > 0) {
+        throw new TajoInternalError("result stream " + stream.getId() + " is not opened, but requested from row "
+            + offset);
+      }
+      TableDesc tableDesc = new TableDesc(stream.getTableDesc());
+      List<Fragment> fragments = FragmentConvertor.convert(conf,
+          stream.getFragmentsList().toArray(new FragmentProto[stream.getFragmentsCount()]));
+      NonForwardQueryResultFileScanner scanner = new NonForwardQueryResultFileScanner(conf, null,
+          new QueryId(stream.getQueryId()), NonForwardQueryResultFileScanner.createScanNode(tableDesc), tableDesc,
+          fragments, stream.getMaxRowNum());
+      scanner.init();
+      streamScanner.scanner = scanner;
+    } else if (streamScanner.scanner.getCurrentRowNumber() != offset) {
+      throw new TajoInternalError("result stream " + stream.getId() + " is at row "
+          + streamScanner.scanner.getCurrentRowNumber() + ", but requested from row " + offset);
+    }
+    streamScanner.lastAccessTime = System.currentTimeMillis();
+  }
+
+  private void closeResultStreamScanner(String streamId) {
+    ResultStreamScanner streamScanner = resultStreamScanners.remove(streamId);
+    if (streamScanner != null) {
+      synchronized (streamScanner) {
+        streamScanner.closed = true;
+        if (streamScanner.scanner != null) {
+          try {
+            streamScanner.scanner.close();
+          } catch (Exception e) {
+            LOG.warn("Failed to close result stream " + streamId + ": " + e.getMessage(), e);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Close the result streams which are not read by clients during the session expiry time.
+   */
+  private void closeExpiredResultStreams() {
+    long expiryTime = System.currentTimeMillis()
+        - conf.getIntVar(TajoConf.ConfVars.$CLIENT_SESSION_EXPIRY_TIME) * 1000L;
+    for (Map.Entry<String, ResultStreamScanner> entry : resultStreamScanners.entrySet()) {
+      if (entry.getValue().lastAccessTime < expiryTime) {
+        LOG.info("Result stream " + entry.getKey() + " is expired");
+        closeResultStreamScanner(entry.getKey());
+      }
+    }
+  }
+
   public class TajoWorkerClientProtocolServiceHandler
           implements QueryMasterClientProtocol.QueryMasterClientProtocolService.BlockingInterface {
 
@@ -137,5 +250,42 @@ public class TajoWorkerClientService extends AbstractService {
 
       return builder.build();
     }
+
+    @Override
+    public GetQueryResultDataResponse getResultStreamData(RpcController controller,
+                                                          GetResultStreamDataRequest request) {
+      GetQueryResultDataResponse.Builder builder = GetQueryResultDataResponse.newBuilder();
+      SerializedResultSet.Builder resultSetBuilder = SerializedResultSet.newBuilder();
+
+      try {
+        closeExpiredResultStreams();
+
+        String streamId = request.getStream().getId();
+        ResultStreamScanner streamScanner = getResultStreamScanner(streamId);
+        synchronized (streamScanner) {
+          seekResultStream(streamScanner, request.getOffset());
+          int rowNum = QueryResultEncoder.encodeNextRows(streamScanner.scanner, request.getFetchRowNum(),
+              request.hasColumnarCodec() ? request.getColumnarCodec() : null, resultSetBuilder);
+          if (rowNum < request.getFetchRowNum()) {
+            // the client stops reading the stream at the last batch which is not full
+            closeResultStreamScanner(streamId);
+          }
+        }
+        builder.setResultSet(resultSetBuilder.build());
+        builder.setState(ReturnStateUtil.OK);
+      } catch (Throwable t) {
+        LOG.error(t.getMessage(), t);
+        builder.setState(ReturnStateUtil.returnError(t));
+        builder.setResultSet(resultSetBuilder.build()); // required field
+      }
+
+      return builder.build();
+    }
+
+    @Override
+    public ReturnState closeResultStream(RpcController controller, ResultStreamProto request) {
+      closeResultStreamScanner(request.getId());
+      return ReturnStateUtil.OK;
+    }
   }
 }
@@ -36,6 +36,12 @@ public interface Task {
 
   void abort();
 
+  /**
+   * Aborts the task so that its resources are given to another query. The task attempt is retried without
+   * counting it as a failure.
+   */
+  void preempt();
+
   void cleanup();
 
   boolean hasFetchPhase();
@@ -30,9 +30,13 @@ import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.catalog.proto.CatalogProtos.PartitionDescProto;
 import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.engine.codegen.CompiledPipeline;
+import org.apache.tajo.engine.codegen.PipelineStage;
 import org.apache.tajo.engine.planner.enforce.Enforcer;
 import org.apache.tajo.engine.planner.global.DataChannel;
+import org.apache.tajo.engine.planner.physical.RuntimeFilter;
 import org.apache.tajo.engine.query.QueryContext;
+import org.apache.tajo.metrics.Node;
 import org.apache.tajo.plan.expr.EvalContext;
 import org.apache.tajo.plan.expr.EvalNode;
 import org.apache.tajo.storage.HashShuffleAppenderManager;
@@ -47,6 +51,7 @@ import java.io.IOException;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.apache.tajo.catalog.proto.CatalogProtos.FragmentProto;
 
@@ -88,6 +93,12 @@ public class TaskAttemptContext {
 
   private List<PartitionDescProto> partitions;
 
+  /** the total bytes written to local disks by executors which exceed their memory budgets */
+  private final AtomicLong spilledBytes = new AtomicLong(0);
+
+  /** the runtime filter of the join keys of the shuffle output, which is reported to the query master */
+  private RuntimeFilter runtimeFilter;
+
   public TaskAttemptContext(QueryContext queryContext, final ExecutionBlockContext executionBlockContext,
                             final TaskAttemptId taskId,
                             final FragmentProto[] fragments,
@@ -175,6 +186,24 @@ public class TaskAttemptContext {
     }
   }
 
+  public boolean canFusePipeline(List<PipelineStage> stages) {
+    if (sharedResource != null) {
+      return sharedResource.canFusePipeline(stages);
+    } else {
+      LOG.debug("Shared resource is not initialized. It is NORMAL in unit tests");
+      return false;
+    }
+  }
+
+  public CompiledPipeline compilePipeline(List<PipelineStage> stages) {
+    if (sharedResource != null) {
+      return sharedResource.compilePipeline(stages);
+    } else {
+      LOG.debug("Shared resource is not initialized. It is NORMAL in unit tests");
+      return null;
+    }
+  }
+
   public boolean hasResultStats() {
     return resultStats != null;
   }
@@ -187,6 +216,14 @@ public class TaskAttemptContext {
     return this.resultStats;
   }
 
+  public void setRuntimeFilter(RuntimeFilter runtimeFilter) {
+    this.runtimeFilter = runtimeFilter;
+  }
+
+  public RuntimeFilter getRuntimeFilter() {
+    return runtimeFilter;
+  }
+
   public boolean isStopped() {
     return this.stopped;
   }
@@ -405,6 +442,22 @@ public class TaskAttemptContext {
     return hashShuffleAppenderManager;
   }
 
+  /**
+   * It is called by executors whenever they spill in-memory data to local disks.
+   *
+   * @param bytes the number of spilled bytes
+   */
+  public void addSpilledBytes(long bytes) {
+    spilledBytes.addAndGet(bytes);
+    if (workerContext != null && workerContext.getMetrics() != null) {
+      workerContext.getMetrics().counter(Node.Tasks.SPILLED_BYTES).inc(bytes);
+    }
+  }
+
+  public long getSpilledBytes() {
+    return spilledBytes.get();
+  }
+
   public EvalContext getEvalContext() {
     return evalContext;
   }
@@ -26,18 +26,23 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.service.AbstractService;
 import org.apache.hadoop.yarn.event.EventHandler;
+import org.apache.tajo.QueryId;
 import org.apache.tajo.ResourceProtos.TaskRequestProto;
+import org.apache.tajo.TajoProtos.TaskAttemptState;
 import org.apache.tajo.TaskAttemptId;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.conf.TajoConf.ConfVars;
 import org.apache.tajo.engine.query.TaskRequestImpl;
 import org.apache.tajo.resource.NodeResource;
+import org.apache.tajo.resource.NodeResources;
 import org.apache.tajo.util.TUtil;
 import org.apache.tajo.worker.event.NodeResourceDeallocateEvent;
 import org.apache.tajo.worker.event.NodeResourceEvent;
 import org.apache.tajo.worker.event.TaskStartEvent;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
@@ -64,7 +69,8 @@ public class TaskExecutor extends AbstractService implements EventHandler<TaskSt
   public TaskExecutor(TajoWorker.WorkerContext workerContext) {
     super(TaskExecutor.class.getName());
     this.workerContext = workerContext;
-    this.allocatedResourceMap = Maps.newConcurrentMap();
+    // in the order of the allocations, so that the most recently started tasks are preempted first
+    this.allocatedResourceMap = Collections.synchronizedMap(new LinkedHashMap<TaskAttemptId, NodeResource>());
     this.runningTasks = new AtomicInteger();
     this.taskQueue = new LinkedBlockingQueue<Task>();
     this.fetcherThreadPoolList = Lists.newArrayList();
@@ -115,6 +121,58 @@ public class TaskExecutor extends AbstractService implements EventHandler<TaskSt
     return runningTasks.get();
   }
 
+  /**
+   * @return The sum of the resources allocated to the tasks of each query
+   */
+  public Map<QueryId, NodeResource> getRunningQueryResources() {
+    Map<QueryId, NodeResource> queryResources = Maps.newHashMap();
+    synchronized (allocatedResourceMap) {
+      for (Map.Entry<TaskAttemptId, NodeResource> entry : allocatedResourceMap.entrySet()) {
+        QueryId queryId = entry.getKey().getTaskId().getExecutionBlockId().getQueryId();
+        NodeResource resource = queryResources.get(queryId);
+        if (resource == null) {
+          queryResources.put(queryId, NodeResources.clone(entry.getValue()));
+        } else {
+          NodeResources.addTo(resource, entry.getValue());
+        }
+      }
+    }
+    return queryResources;
+  }
+
+  /**
+   * Preempts the most recently started running tasks of a query until their resources reach the given memory.
+   * Waiting tasks are not preempted, because a stopped task is skipped before it runs.
+   *
+   * @return The memory of the preempted tasks
+   */
+  public int preemptTasks(QueryId queryId, int memory) {
+    List<TaskAttemptId> taskAttemptIds;
+    synchronized (allocatedResourceMap) {
+      taskAttemptIds = Lists.newArrayList(allocatedResourceMap.keySet());
+    }
+
+    int preempted = 0;
+    for (TaskAttemptId taskAttemptId : Lists.reverse(taskAttemptIds)) {
+      if (preempted >= memory) {
+        break;
+      }
+      if (!taskAttemptId.getTaskId().getExecutionBlockId().getQueryId().equals(queryId)) {
+        continue;
+      }
+
+      Task task = workerContext.getTaskManager().getTaskByTaskAttemptId(taskAttemptId);
+      NodeResource resource = allocatedResourceMap.get(taskAttemptId);
+      if (task != null && resource != null && !task.isStopped()
+          && task.getTaskContext().getState() == TaskAttemptState.TA_RUNNING) {
+        LOG.info("Preempt " + taskAttemptId + ", allocated resource: " + resource);
+        task.preempt();
+        preempted += resource.getMemory();
+      }
+    }
+    return preempted;
+  }
+
   /**
    * This will block until a task is available.
    */
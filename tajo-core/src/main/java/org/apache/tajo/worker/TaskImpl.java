@@ -30,6 +30,7 @@ import org.apache.hadoop.fs.CommonConfigurationKeysPublic;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.tajo.ExecutionBlockId;
 import org.apache.tajo.TajoProtos;
 import org.apache.tajo.TajoProtos.TaskAttemptState;
 import org.apache.tajo.TaskAttemptId;
@@ -54,10 +55,16 @@ import org.apache.tajo.plan.serder.LogicalNodeDeserializer;
 import org.apache.tajo.plan.util.PlannerUtil;
 import org.apache.tajo.pullserver.TajoPullServerService;
 import org.apache.tajo.pullserver.retriever.FileChunk;
+import org.apache.tajo.querymaster.Task.IntermediateEntry;
+import org.apache.tajo.rpc.CallFuture;
 import org.apache.tajo.rpc.NullCallback;
+import org.apache.tajo.rpc.RpcConstants;
 import org.apache.tajo.storage.*;
 import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.util.FileUtil;
 import org.apache.tajo.util.NetUtils;
+import org.apache.tajo.util.Pair;
+import org.apache.tajo.util.TUtil;
 
 import java.io.File;
 import java.io.IOException;
@@ -66,12 +73,15 @@ import java.net.URI;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static org.apache.tajo.ResourceProtos.*;
 
 public class TaskImpl implements Task {
   private static final Log LOG = LogFactory.getLog(TaskImpl.class);
   private static final float FETCHER_PROGRESS = 0.5f;
+  // the interval to poll the query master for the pages of pipelined hash shuffle
+  private static final long PIPELINED_FETCH_INTERVAL_MS = 500;
 
   private final TajoConf systemConf;
   private final QueryContext queryContext;
@@ -83,6 +93,9 @@ public class TaskImpl implements Task {
 
   private final TaskAttemptContext context;
   private List<Fetcher> fetcherRunners;
+  // the fetches of hash shuffle whose pages are reported while the producer stage runs
+  private List<FetchImpl> pipelinedFetches;
+  private int pipelinedFetcherNum;
   private LogicalNode plan;
   private PhysicalExec executor;
 
@@ -98,6 +111,7 @@ public class TaskImpl implements Task {
   private Schema finalSchema = null;
 
   private TupleComparator sortComp = null;
+  private volatile boolean preempted;
 
   public TaskImpl(final TaskRequest request,
                   final ExecutionBlockContext executionBlockContext) throws IOException {
@@ -108,6 +122,7 @@ public class TaskImpl implements Task {
     this.queryContext = request.getQueryContext(systemConf);
     this.inputStats = new TableStats();
     this.fetcherRunners = Lists.newArrayList();
+    this.pipelinedFetches = Lists.newArrayList();
     this.descs = Maps.newHashMap();
 
     Path baseDirPath = executionBlockContext.createBaseDir();
@@ -218,6 +233,11 @@ public class TaskImpl implements Task {
       }
       // for localizing the intermediate data
       fetcherRunners.addAll(getFetchRunners(context, request.getFetches()));
+      for (FetchImpl f : request.getFetches()) {
+        if (f.hasNext()) {
+          pipelinedFetches.add(f);
+        }
+      }
     }
   }
 
@@ -270,6 +290,12 @@ public class TaskImpl implements Task {
     context.stop();
   }
 
+  @Override
+  public void preempt() {
+    preempted = true;
+    abort();
+  }
+
   @Override
   public TaskStatusProto getReport() {
     TaskStatusProto.Builder builder = TaskStatusProto.newBuilder();
@@ -333,6 +359,10 @@ public class TaskImpl implements Task {
       builder.addAllPartitions(context.getPartitions());
     }
 
+    if (context.getRuntimeFilter() != null) {
+      builder.setRuntimeFilter(context.getRuntimeFilter().getProto());
+    }
+
     Iterator<Entry<Integer, String>> it = context.getShuffleFileOutputs();
     if (it.hasNext()) {
       do {
@@ -391,6 +421,9 @@ public class TaskImpl implements Task {
       if(!context.isStopped()) {
         context.setState(TajoProtos.TaskAttemptState.TA_RUNNING);
         if (context.hasFetchPhase()) {
+          if (!pipelinedFetches.isEmpty()) {
+            fetchPipelinedPages();
+          }
           // If the fetch is still in progress, the query unit must wait for complete.
           waitForFetch();
           context.setFetcherProgress(FETCHER_PROGRESS);
@@ -420,10 +453,14 @@ public class TaskImpl implements Task {
       }
 
       executionBlockContext.completedTasksNum.incrementAndGet();
-      context.getHashShuffleAppenderManager().finalizeTask(getId());
+      boolean stopped = context.isStopped();
+      context.getHashShuffleAppenderManager().finalizeTask(getId(), !stopped);
+      if (executionBlockContext.isPipelinedShuffle()) {
+        executionBlockContext.sendTaskShuffleReport(getId(), !stopped);
+      }
 
       QueryMasterProtocol.QueryMasterProtocolService.Interface queryMasterStub = executionBlockContext.getStub();
-      if (context.isStopped()) {
+      if (stopped) {
         context.setExecutorProgress(0.0f);
 
         if (context.getState() == TaskAttemptState.TA_KILLED) {
@@ -441,7 +478,10 @@ public class TaskImpl implements Task {
               errorBuilder.setErrorMessage(error.getMessage());
             }
             errorBuilder.setErrorTrace(ExceptionUtils.getStackTrace(error));
+          } else if (preempted) {
+            errorBuilder.setErrorMessage(getId() + " is preempted");
           }
+          errorBuilder.setPreempted(preempted);
 
           queryMasterStub.fatalError(null, errorBuilder.build(), NullCallback.get());
           executionBlockContext.failedTasksNum.incrementAndGet();
@@ -462,6 +502,10 @@ public class TaskImpl implements Task {
           ", succeeded: " + executionBlockContext.succeededTasksNum.intValue()
           + ", killed: " + executionBlockContext.killedTasksNum.intValue()
           + ", failed: " + executionBlockContext.failedTasksNum.intValue());
+      if (context.getSpilledBytes() > 0) {
+        LOG.info(context.getTaskId() + " spilled " +
+            FileUtil.humanReadableByteCount(context.getSpilledBytes(), false) + " to local disks");
+      }
     }
   }
 
@@ -580,55 +624,66 @@ public class TaskImpl implements Task {
     return tablets;
   }
 
+  /**
+   * Fetch the data of a fetcher with retries. The chunks read directly from the local pull server are added to the
+   * local chunk list.
+   *
+   * @return true if the fetch is finished
+   */
+  private boolean fetchWithRetry(Fetcher fetcher) {
+    int maxRetryNum = systemConf.getIntVar(TajoConf.ConfVars.SHUFFLE_FETCHER_READ_RETRY_MAX_NUM);
+    int retryNum = 0;
+    int retryWaitTime = 1000; //sec
+
+    while(!context.isStopped() && retryNum < maxRetryNum) {
+      if (retryNum > 0) {
+        try {
+          Thread.sleep(retryWaitTime);
+          retryWaitTime = Math.min(10 * 1000, retryWaitTime * 2);  // max 10 seconds
+        } catch (InterruptedException e) {
+          LOG.error(e);
+        }
+        LOG.warn("Retry on the fetch: " + fetcher.getURI() + " (" + retryNum + ")");
+      }
+      try {
+        FileChunk fetched = fetcher.get();
+        if (fetcher.getState() == TajoProtos.FetcherState.FETCH_FINISHED && fetched != null
+            && fetched.getFile() != null) {
+          if (fetched.fromRemote() == false) {
+            localChunks.add(fetched);
+            LOG.info("Add a new FileChunk to local chunk list");
+          }
+          break;
+        }
+      } catch (Throwable e) {
+        LOG.error("Fetch failed: " + fetcher.getURI(), e);
+      }
+      retryNum++;
+    }
+
+    if (retryNum == maxRetryNum) {
+      LOG.error("ERROR: the maximum retry (" + retryNum + ") on the fetch exceeded (" + fetcher.getURI() + ")");
+    }
+    return fetcher.getState() == TajoProtos.FetcherState.FETCH_FINISHED;
+  }
+
   private class FetchRunner implements Runnable {
     private final TaskAttemptContext ctx;
     private final Fetcher fetcher;
-    private int maxRetryNum;
 
     public FetchRunner(TaskAttemptContext ctx, Fetcher fetcher) {
       this.ctx = ctx;
       this.fetcher = fetcher;
-      this.maxRetryNum = systemConf.getIntVar(TajoConf.ConfVars.SHUFFLE_FETCHER_READ_RETRY_MAX_NUM);
     }
 
     @Override
     public void run() {
-      int retryNum = 0;
-      int retryWaitTime = 1000; //sec
-
       try { // for releasing fetch latch
-        while(!context.isStopped() && retryNum < maxRetryNum) {
-          if (retryNum > 0) {
-            try {
-              Thread.sleep(retryWaitTime);
-              retryWaitTime = Math.min(10 * 1000, retryWaitTime * 2);  // max 10 seconds
-            } catch (InterruptedException e) {
-              LOG.error(e);
-            }
-            LOG.warn("Retry on the fetch: " + fetcher.getURI() + " (" + retryNum + ")");
-          }
-          try {
-            FileChunk fetched = fetcher.get();
-            if (fetcher.getState() == TajoProtos.FetcherState.FETCH_FINISHED && fetched != null
-          && fetched.getFile() != null) {
-              if (fetched.fromRemote() == false) {
-          localChunks.add(fetched);
-          LOG.info("Add a new FileChunk to local chunk list");
-              }
-              break;
-            }
-          } catch (Throwable e) {
-            LOG.error("Fetch failed: " + fetcher.getURI(), e);
-          }
-          retryNum++;
-        }
+        fetchWithRetry(fetcher);
       } finally {
         if(fetcher.getState() == TajoProtos.FetcherState.FETCH_FINISHED){
           fetcherFinished(ctx);
         } else {
-          if (retryNum == maxRetryNum) {
-            LOG.error("ERROR: the maximum retry (" + retryNum + ") on the fetch exceeded (" + fetcher.getURI() + ")");
-          }
           stopScriptExecutors();
           context.stop(); // retry task
           ctx.getFetchLatch().countDown();
@@ -670,63 +725,185 @@ public class TaskImpl implements Task {
           getLocalPathToRead(getTaskAttemptDir(ctx.getTaskId()).toString(), systemConf);
 
       int i = 0;
-      File storeDir;
-      File defaultStoreFile;
-      FileChunk storeChunk = null;
       List<Fetcher> runnerList = Lists.newArrayList();
 
+      for (Pair<String, URI> nameAndUri : getFetchURIs(fetches)) {
+        Fetcher fetcher = createFetcher(new File(inputDir.toString()), nameAndUri.getFirst(),
+            nameAndUri.getSecond(), i);
+        if (fetcher == null) {
+          continue;
+        }
+        runnerList.add(fetcher);
+        i++;
+      }
+      ctx.addFetchPhase(runnerList.size(), new File(inputDir.toString()));
+      return runnerList;
+    } else {
+      return Lists.newArrayList();
+    }
+  }
+
+  /**
+   * @return The fetcher of the URI, or null if the range of the local file is out of range
+   */
+  private Fetcher createFetcher(File inputDir, String name, URI uri, int fileIdx) throws IOException {
+    File storeDir = new File(inputDir, name);
+    if (!storeDir.exists()) {
+      if (!storeDir.mkdirs()) throw new IOException("Failed to create " + storeDir);
+    }
+
+    File defaultStoreFile = new File(storeDir, "in_" + fileIdx);
+    InetAddress address = InetAddress.getByName(uri.getHost());
+    FileChunk storeChunk = null;
+
+    WorkerConnectionInfo conn = executionBlockContext.getWorkerContext().getConnectionInfo();
+    if (NetUtils.isLocalAddress(address) && conn.getPullServerPort() == uri.getPort()) {
+      boolean hasError = false;
+      try {
+        LOG.info("Try to get local file chunk at local host");
+        storeChunk = getLocalStoredFileChunk(uri, systemConf);
+      } catch (Throwable t) {
+        hasError = true;
+      }
+
+      // When a range request is out of range, storeChunk will be NULL. This case is normal state.
+      // So, we should skip and don't need to create storeChunk.
+      if (storeChunk == null && !hasError) {
+        return null;
+      }
+
+      if (storeChunk != null && storeChunk.getFile() != null && storeChunk.startOffset() > -1
+          && hasError == false) {
+        storeChunk.setFromRemote(false);
+      } else {
+        storeChunk = new FileChunk(defaultStoreFile, 0, -1);
+        storeChunk.setFromRemote(true);
+      }
+    } else {
+      storeChunk = new FileChunk(defaultStoreFile, 0, -1);
+      storeChunk.setFromRemote(true);
+    }
+
+    // If we decide that intermediate data should be really fetched from a remote host, storeChunk
+    // represents a complete file. Otherwise, storeChunk may represent a complete file or only a part of it
+    storeChunk.setEbId(name);
+    Fetcher fetcher = new Fetcher(systemConf, uri, storeChunk,
+        executionBlockContext.getWorkerContext().getFetchConnectionPool());
+    LOG.info("Create a new Fetcher with storeChunk:" + storeChunk.toString());
+    return fetcher;
+  }
+
+  /**
+   * Fetch the pages of pipelined hash shuffle while the producer stage is running. The query master is polled for
+   * the intermediate entries of the partitions of this task until the producer stage is completed. The pages of each
+   * partition of a pull server are fetched in the order of their indexes, except the byte ranges written by the task
+   * attempts which did not succeed. If some pages cannot be fetched, this task attempt fails, and the next attempt
+   * fetches all pages again from the first index.
+   */
+  private void fetchPipelinedPages() throws Exception {
+    Map<ExecutionBlockId, List<FetchImpl>> producers = Maps.newHashMap();
+    for (FetchImpl f : pipelinedFetches) {
+      TUtil.putToNestedList(producers, f.getExecutionBlockId(), f);
+    }
+
+    for (List<FetchImpl> fetches : producers.values()) {
+      String name = fetches.get(0).getName();
+      ExecutionBlockId ebId = fetches.get(0).getExecutionBlockId();
+      List<Integer> partIds = Lists.newArrayList();
       for (FetchImpl f : fetches) {
-        storeDir = new File(inputDir.toString(), f.getName());
-        if (!storeDir.exists()) {
-          if (!storeDir.mkdirs()) throw new IOException("Failed to create " + storeDir);
+        partIds.add(f.getPartitionId());
+      }
+
+      // <pull server address and partition id, the index of the next page to be fetched>
+      Map<String, Integer> nextPages = Maps.newHashMap();
+      int offset = 0;
+      boolean completed = false;
+      while (!completed && !context.isStopped()) {
+        ShufflePagesResponse response = getShufflePages(ebId, partIds, offset);
+        for (IntermediateEntryProto eachProto : response.getIntermediateEntriesList()) {
+          fetchPages(name, new IntermediateEntry(eachProto), nextPages);
+        }
+        completed = response.getCompleted();
+        if (!completed && response.getNextOffset() == offset) {
+          Thread.sleep(PIPELINED_FETCH_INTERVAL_MS);
         }
+        offset = response.getNextOffset();
+      }
+    }
+  }
 
-        for (URI uri : f.getURIs()) {
-          defaultStoreFile = new File(storeDir, "in_" + i);
-          InetAddress address = InetAddress.getByName(uri.getHost());
-
-          WorkerConnectionInfo conn = executionBlockContext.getWorkerContext().getConnectionInfo();
-          if (NetUtils.isLocalAddress(address) && conn.getPullServerPort() == uri.getPort()) {
-            boolean hasError = false;
-            try {
-              LOG.info("Try to get local file chunk at local host");
-              storeChunk = getLocalStoredFileChunk(uri, systemConf);
-            } catch (Throwable t) {
-              hasError = true;
-            }
+  private ShufflePagesResponse getShufflePages(ExecutionBlockId ebId, List<Integer> partIds, int offset)
+      throws Exception {
+    ShufflePagesRequest.Builder builder = ShufflePagesRequest.newBuilder();
+    builder.setAttemptId(getId().getProto())
+        .setEbId(ebId.getProto())
+        .addAllPartIds(partIds)
+        .setOffset(offset);
 
-            // When a range request is out of range, storeChunk will be NULL. This case is normal state.
-            // So, we should skip and don't need to create storeChunk.
-            if (storeChunk == null && !hasError) {
-              continue;
-            }
+    CallFuture<ShufflePagesResponse> callFuture = new CallFuture<ShufflePagesResponse>();
+    executionBlockContext.getStub().getShufflePages(callFuture.getController(), builder.build(), callFuture);
+    return callFuture.get(RpcConstants.DEFAULT_FUTURE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+  }
 
-            if (storeChunk != null && storeChunk.getFile() != null && storeChunk.startOffset() > -1
-                && hasError == false) {
-              storeChunk.setFromRemote(false);
-            } else {
-              storeChunk = new FileChunk(defaultStoreFile, 0, -1);
-              storeChunk.setFromRemote(true);
-            }
-          } else {
-            storeChunk = new FileChunk(defaultStoreFile, 0, -1);
-            storeChunk.setFromRemote(true);
-          }
+  private void fetchPages(String name, IntermediateEntry entry, Map<String, Integer> nextPages) throws IOException {
+    String key = entry.getPullHost().getPullAddress() + "," + entry.getPartId();
+    int nextPage = nextPages.containsKey(key) ? nextPages.get(key) : 0;
+    int endPage = entry.getPageIndex() + entry.getPages().size();
+    if (!entry.getPages().isEmpty() && endPage <= nextPage) {
+      return; // already fetched
+    }
+    if (entry.getPageIndex() != nextPage) {
+      throw new IOException("Missing pages of partition " + key + ": the next page is " + nextPage
+          + ", but " + entry.getPageIndex() + " is reported");
+    }
 
-          // If we decide that intermediate data should be really fetched from a remote host, storeChunk
-          // represents a complete file. Otherwise, storeChunk may represent a complete file or only a part of it
-          storeChunk.setEbId(f.getName());
-          Fetcher fetcher = new Fetcher(systemConf, uri, storeChunk);
-          LOG.info("Create a new Fetcher with storeChunk:" + storeChunk.toString());
-          runnerList.add(fetcher);
-          i++;
+    for (Pair<Long, Long> eachRange : entry.getFetchRanges()) {
+      FetchImpl fetch = new FetchImpl(entry.getPullHost(), ShuffleType.HASH_SHUFFLE, entry.getEbId(),
+          entry.getPartId());
+      fetch.setOffset(eachRange.getFirst());
+      fetch.setLength(eachRange.getSecond());
+      for (URI uri : fetch.getURIs()) {
+        Fetcher fetcher = createFetcher(context.getFetchIn(), name, uri,
+            fetcherRunners.size() + pipelinedFetcherNum++);
+        if (fetcher != null && !fetchWithRetry(fetcher) && !context.isStopped()) {
+          throw new IOException("Failed to fetch the pages of partition " + key + ": " + uri);
         }
       }
-      ctx.addFetchPhase(runnerList.size(), new File(inputDir.toString()));
-      return runnerList;
-    } else {
-      return Lists.newArrayList();
     }
+    nextPages.put(key, endPage);
+  }
+
+  /**
+   * @return The intermediate source names and the URIs of the fetches. The whole partitions of hash shuffle from the
+   * same remote pull server are fetched by one request, while the local ones are read directly from their files.
+   */
+  private List<Pair<String, URI>> getFetchURIs(List<FetchImpl> fetches) throws IOException {
+    List<Pair<String, URI>> uris = Lists.newArrayList();
+    Map<List<Object>, List<FetchImpl>> hashFetches = Maps.newLinkedHashMap();
+    WorkerConnectionInfo conn = executionBlockContext.getWorkerContext().getConnectionInfo();
+
+    for (FetchImpl f : fetches) {
+      if (f.hasNext()) {
+        continue; // fetched by fetchPipelinedPages()
+      }
+      boolean isLocal = NetUtils.isLocalAddress(InetAddress.getByName(f.getPullHost().getHost()))
+          && conn.getPullServerPort() == f.getPullHost().getPort();
+      if (f.getType() == ShuffleType.HASH_SHUFFLE && f.getLength() < 0 && !isLocal) {
+        List<Object> groupKey = TUtil.<Object>newList(f.getName(), f.getPullHost(), f.getExecutionBlockId());
+        TUtil.putToNestedList(hashFetches, groupKey, f);
+      } else {
+        for (URI uri : f.getURIs()) {
+          uris.add(new Pair<String, URI>(f.getName(), uri));
+        }
+      }
+    }
+
+    for (List<FetchImpl> group : hashFetches.values()) {
+      for (URI uri : FetchImpl.getURIs(group)) {
+        uris.add(new Pair<String, URI>(group.get(0).getName(), uri));
+      }
+    }
+    return uris;
   }
 
   private FileChunk getLocalStoredFileChunk(URI fetchURI, TajoConf conf) throws IOException {
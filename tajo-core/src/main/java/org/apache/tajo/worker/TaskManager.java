@@ -26,10 +26,12 @@ import org.apache.hadoop.service.AbstractService;
 import org.apache.hadoop.yarn.event.Dispatcher;
 import org.apache.hadoop.yarn.event.EventHandler;
 import org.apache.tajo.ExecutionBlockId;
+import org.apache.tajo.QueryId;
 import org.apache.tajo.TajoIdProtos;
 import org.apache.tajo.TaskAttemptId;
 import org.apache.tajo.TaskId;
 import org.apache.tajo.ipc.QueryMasterProtocol;
+import org.apache.tajo.resource.NodeResource;
 import org.apache.tajo.rpc.AsyncRpcClient;
 import org.apache.tajo.rpc.CallFuture;
 import org.apache.tajo.rpc.RpcClientManager;
@@ -106,6 +108,20 @@ public class TaskManager extends AbstractService implements EventHandler<TaskMan
     return workerContext.getTaskExecuor().getRunningTasks();
   }
 
+  public Map<QueryId, NodeResource> getRunningQueryResources() {
+    return getTaskExecutor().getRunningQueryResources();
+  }
+
+  /**
+   * Preempts the running tasks of a query for the resources requested by other queries.
+   *
+   * @param memory The task memory to be released by the query
+   */
+  public void preemptTasks(QueryId queryId, int memory) {
+    int preempted = getTaskExecutor().preemptTasks(queryId, memory);
+    LOG.info("Preempted " + preempted + "MB of the requested " + memory + "MB from " + queryId);
+  }
+
   protected ExecutionBlockContext createExecutionBlock(ExecutionBlockId executionBlockId,
                                                        String queryMasterHostAndPort) {
 
@@ -21,10 +21,12 @@ package org.apache.tajo.jdbc;
 import com.google.protobuf.ServiceException;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.tajo.QueryId;
 import org.apache.tajo.SessionVars;
 import org.apache.tajo.TajoConstants;
 import org.apache.tajo.client.CatalogAdminClient;
 import org.apache.tajo.client.QueryClient;
+import org.apache.tajo.client.ResultStream;
 import org.apache.tajo.client.TajoClient;
 import org.apache.tajo.client.TajoClientImpl;
 import org.apache.tajo.conf.TajoConf;
@@ -37,6 +39,7 @@ import org.apache.tajo.util.KeyValueSet;
 import java.io.IOException;
 import java.net.URI;
 import java.sql.*;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -134,6 +137,34 @@ public class JdbcConnection implements Connection {
     return tajoClient;
   }
 
+  /**
+   * Split the result of a completed query into result sets, which are read directly from workers in parallel instead
+   * of being fetched through TajoMaster. Each result set has a part of the rows, and it should be closed separately.
+   * The result sets are independent of the given result set, which is still needed to be closed.
+   *
+   * @param resultSet The result set of a query executed by a statement of this connection
+   * @param maxStreamNum The max number of result sets
+   * @return The result sets, whose union is the result of the query
+   */
+  public List<ResultSet> getResultStreams(ResultSet resultSet, int maxStreamNum) throws SQLException {
+    if (!(resultSet instanceof TajoResultSetBase) || ((TajoResultSetBase) resultSet).getQueryId() == null) {
+      throw new SQLException("Result streams are not available for " + resultSet);
+    }
+    QueryId queryId = ((TajoResultSetBase) resultSet).getQueryId();
+    int fetchRowNum = clientProperties.getInt(SessionVars.FETCH_ROWNUM.getConfVars().keyname(),
+        SessionVars.FETCH_ROWNUM.getConfVars().defaultIntVal);
+
+    try {
+      List<ResultSet> resultSets = new ArrayList<ResultSet>();
+      for (ResultStream stream : tajoClient.getQueryResultStreams(queryId, maxStreamNum)) {
+        resultSets.add(new StreamResultSet(stream, fetchRowNum));
+      }
+      return resultSets;
+    } catch (TajoException e) {
+      throw SQLExceptionUtil.toSQLException(e);
+    }
+  }
+
   @Override
   public void clearWarnings() throws SQLException {
   }
@@ -61,6 +61,7 @@ public class TestResultSet {
   private static TableMeta scoreMeta;
   private static Schema scoreSchema;
   private static List<ByteString> serializedData;
+  private static byte [] serializedColumns;
 
   @BeforeClass
   public static void setup() throws Exception {
@@ -78,6 +79,7 @@ public class TestResultSet {
     sm.getFileSystem().mkdirs(p);
     Appender appender = sm.getAppender(scoreMeta, scoreSchema, new Path(p, "score"));
     RowStoreUtil.RowStoreEncoder encoder = RowStoreUtil.createEncoder(scoreSchema);
+    ColumnarRowStoreUtil.ColumnarEncoder columnarEncoder = ColumnarRowStoreUtil.createEncoder(scoreSchema);
     serializedData = Lists.newArrayList();
     appender.init();
 
@@ -93,7 +95,9 @@ public class TestResultSet {
       written += key.length() + Integer.SIZE;
       appender.addTuple(tuple);
       serializedData.add(ByteString.copyFrom(encoder.toBytes(tuple)));
+      columnarEncoder.add(tuple);
     }
+    serializedColumns = columnarEncoder.build(true);
     appender.close();
     stats.setNumRows(tupleNum);
     stats.setNumBytes(written);
@@ -136,6 +140,25 @@ public class TestResultSet {
     assertTrue(rs.isAfterLast());
   }
 
+  @Test
+  public void testColumnarMemoryResultSet() throws Exception {
+    TajoMemoryResultSet rs = new TajoMemoryResultSet(null, desc.getSchema(),
+        ColumnarRowStoreUtil.createDecoder(desc.getSchema(), serializedColumns, true), null);
+    assertTrue(rs.hasResult());
+
+    for (int pass = 0; pass < 2; pass++) {
+      int i = 0;
+      for (; rs.next(); i++) {
+        assertEquals("test"+i%100, rs.getString("deptname"));
+        assertEquals(i+1, rs.getInt("score"));
+      }
+      assertEquals(10000, i);
+      // read again from the first row
+      rs.beforeFirst();
+    }
+    rs.close();
+  }
+
   @Test
   public void testDateTimeType() throws Exception {
     // HiveCatalog does not support date type, time type in hive-0.12.0
@@ -578,6 +578,101 @@ public class TestTajoJdbc extends QueryTestCaseBase {
     }
   }
 
+  private List<String> fetchLineitem(boolean columnar, boolean compression, int prefetchNum, int maxRows)
+      throws Exception {
+    String connUri = buildConnectionUri(tajoMasterAddress.getHostName(), tajoMasterAddress.getPort(),
+        DEFAULT_DATABASE_NAME);
+    Properties props = new Properties();
+    props.setProperty(SessionVars.FETCH_ROWNUM.getConfVars().keyname(), "2");
+    props.setProperty(SessionVars.FETCH_COLUMNAR.getConfVars().keyname(), String.valueOf(columnar));
+    props.setProperty(SessionVars.FETCH_COMPRESSION.getConfVars().keyname(), String.valueOf(compression));
+    props.setProperty(SessionVars.FETCH_PREFETCH_NUM.getConfVars().keyname(), String.valueOf(prefetchNum));
+
+    List<String> rows = new ArrayList<String>();
+    Connection conn = new JdbcConnection(connUri, props);
+    Statement stmt = null;
+    ResultSet res = null;
+    try {
+      stmt = conn.createStatement();
+      stmt.setMaxRows(maxRows);
+      // a simple scan query is fetched from the result scanner of TajoMaster in batches
+      res = stmt.executeQuery("select * from lineitem");
+      ResultSetMetaData meta = res.getMetaData();
+      while (res.next()) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+          sb.append(res.getString(i)).append("|");
+        }
+        rows.add(sb.toString());
+      }
+    } finally {
+      if (res != null) {
+        res.close();
+      }
+      if (stmt != null) {
+        stmt.close();
+      }
+      conn.close();
+    }
+    return rows;
+  }
+
+  @Test
+  public void testFetchInColumnsWithPrefetch() throws Exception {
+    List<String> expected = fetchLineitem(false, false, 0, 0);
+    assertEquals(5, expected.size());
+
+    assertEquals(expected, fetchLineitem(true, false, 0, 0));
+    assertEquals(expected, fetchLineitem(true, true, 0, 0));
+    assertEquals(expected, fetchLineitem(false, false, 2, 0));
+    assertEquals(expected, fetchLineitem(true, true, 2, 0));
+    assertEquals(expected, fetchLineitem(true, false, 10, 0));
+
+    assertEquals(expected.subList(0, 3), fetchLineitem(true, true, 2, 3));
+    assertEquals(expected.subList(0, 3), fetchLineitem(false, false, 2, 3));
+  }
+
+  @Test
+  public void testResultStreams() throws Exception {
+    List<String> expected = fetchLineitem(true, false, 0, 0);
+
+    String connUri = buildConnectionUri(tajoMasterAddress.getHostName(), tajoMasterAddress.getPort(),
+        DEFAULT_DATABASE_NAME);
+    Connection conn = DriverManager.getConnection(connUri);
+    Statement stmt = null;
+    ResultSet res = null;
+    try {
+      stmt = conn.createStatement();
+      res = stmt.executeQuery("select * from lineitem");
+      List<ResultSet> streams = conn.unwrap(JdbcConnection.class).getResultStreams(res, 4);
+      assertFalse(streams.isEmpty());
+
+      List<String> rows = new ArrayList<String>();
+      for (ResultSet stream : streams) {
+        ResultSetMetaData meta = stream.getMetaData();
+        while (stream.next()) {
+          StringBuilder sb = new StringBuilder();
+          for (int i = 1; i <= meta.getColumnCount(); i++) {
+            sb.append(stream.getString(i)).append("|");
+          }
+          rows.add(sb.toString());
+        }
+        stream.close();
+      }
+      Collections.sort(rows);
+      Collections.sort(expected);
+      assertEquals(expected, rows);
+    } finally {
+      if (res != null) {
+        res.close();
+      }
+      if (stmt != null) {
+        stmt.close();
+      }
+      conn.close();
+    }
+  }
+
   @Test
   public final void testCancel() throws Exception {
     String connUri = buildConnectionUri(tajoMasterAddress.getHostName(), tajoMasterAddress.getPort(),
@@ -92,7 +92,7 @@ public class LogicalOptimizer {
     if (context == null || context.getBool(SessionVars.TEST_JOIN_OPT_ENABLED)) {
       // default is true
       while (blockCursor.hasNext()) {
-        optimizeJoinOrder(plan, blockCursor.nextBlock());
+        optimizeJoinOrder(context, plan, blockCursor.nextBlock());
       }
     } else {
       LOG.info("Skip join order optimization");
@@ -101,7 +101,8 @@ public class LogicalOptimizer {
     return plan.getRootBlock().getRoot();
   }
 
-  private void optimizeJoinOrder(LogicalPlan plan, String blockName) throws TajoException {
+  private void optimizeJoinOrder(OverridableConf context, LogicalPlan plan, String blockName)
+      throws TajoException {
     LogicalPlan.QueryBlock block = plan.getBlock(blockName);
 
     if (block.hasNode(NodeType.JOIN)) {
@@ -112,7 +113,7 @@ public class LogicalOptimizer {
       JoinGraphContext joinGraphContext = JoinGraphBuilder.buildJoinGraph(plan, block);
 
       // finding join order and restore remaining filters
-      FoundJoinOrder order = joinOrderAlgorithm.findBestOrder(plan, block, joinGraphContext);
+      FoundJoinOrder order = getJoinOrderAlgorithm(context).findBestOrder(plan, block, joinGraphContext);
 
       // replace join node with FoundJoinOrder.
       JoinNode newJoinNode = order.getOrderedJoin();
@@ -140,6 +141,14 @@ public class LogicalOptimizer {
     }
   }
 
+  private JoinOrderAlgorithm getJoinOrderAlgorithm(OverridableConf context) {
+    if (context != null && context.getBool(SessionVars.JOIN_ORDER_DP_ENABLED)) {
+      return new DynamicProgrammingJoinOrderAlgorithm(context.getInt(SessionVars.JOIN_ORDER_DP_MAX_RELATIONS),
+          joinOrderAlgorithm);
+    }
+    return joinOrderAlgorithm;
+  }
+
   /**
    * During join order optimization, every condition is checked whether it is a join condition or not.
    * So, after join order is optimized, there can be remaining conditions which are not join conditions.
@@ -0,0 +1,270 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.plan.joinorder;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.tajo.algebra.JoinType;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.exception.TajoException;
+import org.apache.tajo.plan.LogicalPlan;
+import org.apache.tajo.plan.expr.EvalNode;
+import org.apache.tajo.plan.expr.EvalTreeUtil;
+import org.apache.tajo.plan.logical.JoinNode;
+import org.apache.tajo.plan.logical.JoinSpec;
+import org.apache.tajo.plan.logical.RelationNode;
+import org.apache.tajo.util.TUtil;
+
+import java.util.*;
+
+/**
+ * This algorithm finds the bushy join tree of the minimum cost by dynamic programming over the subsets of relations.
+ * The cost of a join tree is the sum of the estimated numbers of rows of its joins, which are estimated by
+ * {@link JoinCardinalityEstimator} with column statistics.
+ *
+ * Every subset of relations is enumerated, and so the number of relations is limited. A subset is joined by a cross
+ * join only if it cannot be split into two subsets connected by a join predicate. The join order of a query block
+ * having more relations or any join other than inner and cross joins is found by the fallback algorithm, because
+ * such joins cannot be freely reordered.
+ */
+public class DynamicProgrammingJoinOrderAlgorithm implements JoinOrderAlgorithm {
+  private static final Log LOG = LogFactory.getLog(DynamicProgrammingJoinOrderAlgorithm.class);
+
+  private final int maxRelationNum;
+  private final JoinOrderAlgorithm fallback;
+
+  public DynamicProgrammingJoinOrderAlgorithm(int maxRelationNum, JoinOrderAlgorithm fallback) {
+    this.maxRelationNum = Math.min(maxRelationNum, Integer.SIZE - 2);
+    this.fallback = fallback;
+  }
+
+  @Override
+  public FoundJoinOrder findBestOrder(LogicalPlan plan, LogicalPlan.QueryBlock block, JoinGraphContext graphContext)
+      throws TajoException {
+    List<RelationNode> relations = new ArrayList<RelationNode>(block.getRelations());
+    if (relations.size() < 2 || relations.size() > maxRelationNum || !isReorderable(graphContext.getJoinGraph())) {
+      return fallback.findBestOrder(plan, block, graphContext);
+    }
+    // sort relations to make the join order determinant
+    Collections.sort(relations, new Comparator<RelationNode>() {
+      @Override
+      public int compare(RelationNode o1, RelationNode o2) {
+        return o1.getCanonicalName().compareTo(o2.getCanonicalName());
+      }
+    });
+
+    // Every join qual is gathered, because all joins are built again.
+    // The quals in the join graph are regarded as candidates, so that the remaining quals are handled as filters.
+    Set<EvalNode> predicates = TUtil.newHashSet();
+    for (JoinEdge edge : graphContext.getJoinGraph().getEdgesAll()) {
+      graphContext.addCandidateJoinConditions(edge.getJoinQual());
+      predicates.addAll(edge.getJoinQual());
+    }
+    predicates.addAll(graphContext.getCandidateJoinConditions());
+    predicates.addAll(graphContext.getCandidateJoinFilters());
+
+    Enumerator enumerator = new Enumerator(relations, predicates);
+    enumerator.enumerate();
+
+    Set<EvalNode> evaluated = TUtil.newHashSet();
+    int allRelations = (1 << relations.size()) - 1;
+    JoinVertex root = enumerator.buildVertex(allRelations, evaluated);
+    graphContext.markAsEvaluatedJoinConditions(evaluated);
+    graphContext.markAsEvaluatedJoinFilters(evaluated);
+
+    JoinNode joinTree = (JoinNode) root.buildPlan(plan, block);
+    // all generated nodes should be registered to corresponding blocks
+    block.registerNode(joinTree);
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Join order of " + relations.size() + " relations (estimated rows: "
+          + enumerator.cardinalities[allRelations] + "): " + root);
+    }
+    return new FoundJoinOrder(joinTree, enumerator.costs[allRelations]);
+  }
+
+  /**
+   * @return True if every join is an inner or cross join, which can be reordered in any order
+   */
+  private static boolean isReorderable(JoinGraph joinGraph) {
+    for (JoinEdge edge : joinGraph.getEdgesAll()) {
+      if (edge.getJoinType() != JoinType.INNER && edge.getJoinType() != JoinType.CROSS) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * A set of relations is represented by a bit mask of the relation indexes.
+   */
+  private static class Enumerator {
+    private final List<RelationNode> relations;
+    private final JoinCardinalityEstimator estimator;
+
+    // join quals and the relations referred to by them. A qual is placed at the lowest join having the relations.
+    private final List<EvalNode> predicates = TUtil.newList();
+    private final List<Integer> predicateMasks = TUtil.newList();
+    // join predicates referring to two or more relations, and their selectivities
+    private final int [] joinPredicateMasks;
+    private final double [] joinSelectivities;
+
+    private final double [] cardinalities;
+    private final double [] costs;
+    private final int [] bestLefts;
+
+    Enumerator(List<RelationNode> relations, Set<EvalNode> candidates) {
+      this.relations = relations;
+      this.estimator = new JoinCardinalityEstimator(relations);
+
+      int setNum = 1 << relations.size();
+      cardinalities = new double[setNum];
+      costs = new double[setNum];
+      bestLefts = new int[setNum];
+      for (int i = 0; i < relations.size(); i++) {
+        cardinalities[1 << i] = estimator.getCardinality(i);
+      }
+
+      List<Integer> joinMasks = TUtil.newList();
+      List<Double> selectivities = TUtil.newList();
+      for (EvalNode predicate : candidates) {
+        int mask = getRelationMask(predicate);
+        if (mask < 0) {
+          // It cannot be evaluated at any join, and it will be evaluated by a filter.
+          continue;
+        }
+        predicates.add(predicate);
+        predicateMasks.add(mask);
+        if (Integer.bitCount(mask) == 1) {
+          int relationId = Integer.numberOfTrailingZeros(mask);
+          cardinalities[mask] = Math.max(1, cardinalities[mask] * estimator.getFilterSelectivity(relationId,
+              predicate));
+        } else if (Integer.bitCount(mask) > 1) {
+          joinMasks.add(mask);
+          selectivities.add(estimator.getJoinSelectivity(predicate));
+        }
+      }
+      joinPredicateMasks = new int[joinMasks.size()];
+      joinSelectivities = new double[joinMasks.size()];
+      for (int i = 0; i < joinPredicateMasks.length; i++) {
+        joinPredicateMasks[i] = joinMasks.get(i);
+        joinSelectivities[i] = selectivities.get(i);
+      }
+    }
+
+    /**
+     * @return The bit mask of the relations referred to by the predicate, or -1 if it refers to an unknown column
+     */
+    private int getRelationMask(EvalNode predicate) {
+      int mask = 0;
+      for (Column column : EvalTreeUtil.findUniqueColumns(predicate)) {
+        int relationId = estimator.findRelation(column);
+        if (relationId < 0) {
+          return -1;
+        }
+        mask |= 1 << relationId;
+      }
+      return mask;
+    }
+
+    /**
+     * Find the best join of every subset of relations. Subsets are enumerated in the increasing order of their bit
+     * masks, so the subsets of a set are always enumerated before the set.
+     */
+    void enumerate() {
+      for (int set = 1; set < cardinalities.length; set++) {
+        if (Integer.bitCount(set) < 2) {
+          continue;
+        }
+        int lowest = Integer.lowestOneBit(set);
+        int rest = set ^ lowest;
+        double cardinality = cardinalities[rest] * cardinalities[lowest];
+        for (int i = 0; i < joinPredicateMasks.length; i++) {
+          if ((joinPredicateMasks[i] & ~set) == 0 && (joinPredicateMasks[i] & lowest) != 0) {
+            cardinality *= joinSelectivities[i];
+          }
+        }
+        cardinalities[set] = Math.max(1, cardinality);
+
+        double minCost = Double.MAX_VALUE;
+        int bestLeft = 0;
+        boolean bestConnected = false;
+        // each pair of the disjoint subsets is visited once by fixing the lowest relation on the left
+        for (int left = (set - 1) & set; left > 0; left = (left - 1) & set) {
+          if ((left & lowest) == 0) {
+            continue;
+          }
+          int right = set ^ left;
+          boolean connected = isConnected(left, right);
+          double cost = costs[left] + costs[right] + cardinalities[set];
+          // a join with join predicates is always chosen rather than a cross join regardless of cost
+          if ((connected && !bestConnected) || (connected == bestConnected && cost < minCost)) {
+            minCost = cost;
+            bestLeft = left;
+            bestConnected = connected;
+          }
+        }
+        costs[set] = minCost;
+        bestLefts[set] = bestLeft;
+      }
+    }
+
+    private boolean isConnected(int left, int right) {
+      for (int mask : joinPredicateMasks) {
+        if ((mask & ~(left | right)) == 0 && (mask & left) != 0 && (mask & right) != 0) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Build the best join of the given set of relations. The larger input is placed on the left as in
+     * {@link GreedyHeuristicJoinOrderAlgorithm}.
+     *
+     * @param set relations to be joined
+     * @param evaluated join quals which are placed at the joins built so far
+     */
+    JoinVertex buildVertex(int set, Set<EvalNode> evaluated) {
+      if (Integer.bitCount(set) == 1) {
+        return new RelationVertex(relations.get(Integer.numberOfTrailingZeros(set)));
+      }
+
+      int left = bestLefts[set];
+      int right = set ^ left;
+      if (cardinalities[left] < cardinalities[right]) {
+        left = right;
+        right = set ^ left;
+      }
+      JoinVertex leftVertex = buildVertex(left, evaluated);
+      JoinVertex rightVertex = buildVertex(right, evaluated);
+
+      Set<EvalNode> quals = TUtil.newHashSet();
+      for (int i = 0; i < predicates.size(); i++) {
+        if ((predicateMasks.get(i) & ~set) == 0 && !evaluated.contains(predicates.get(i))) {
+          quals.add(predicates.get(i));
+        }
+      }
+      evaluated.addAll(quals);
+
+      JoinSpec joinSpec = new JoinSpec(quals.isEmpty() ? JoinType.CROSS : JoinType.INNER);
+      joinSpec.addPredicates(quals);
+      return new JoinedRelationsVertex(new JoinEdge(joinSpec, leftVertex, rightVertex));
+    }
+  }
+}
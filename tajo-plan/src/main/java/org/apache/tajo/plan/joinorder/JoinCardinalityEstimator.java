@@ -0,0 +1,277 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.plan.joinorder;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.SchemaUtil;
+import org.apache.tajo.catalog.statistics.ColumnStats;
+import org.apache.tajo.catalog.statistics.TableStats;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.plan.expr.*;
+import org.apache.tajo.plan.logical.RelationNode;
+import org.apache.tajo.plan.logical.ScanNode;
+import org.apache.tajo.util.TUtil;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JoinCardinalityEstimator estimates the number of rows of relations and the selectivities of join predicates with
+ * table and column statistics. The number of distinct values of a column is assumed to be uniformly distributed
+ * between its min and max values, and predicates are assumed to be independent of each other.
+ *
+ * If a column has no statistics, every value of the column is assumed to be distinct, which is the case of the key
+ * of a key-foreign key join. Predicates which cannot be estimated have {@link
+ * GreedyHeuristicJoinOrderAlgorithm#DEFAULT_SELECTION_FACTOR}.
+ */
+public class JoinCardinalityEstimator {
+  private final List<RelationNode> relations;
+  private final double [] rowNums;
+  private final List<Map<String, ColumnStats>> columnStats = TUtil.newList();
+
+  public JoinCardinalityEstimator(List<RelationNode> relations) {
+    this.relations = relations;
+    this.rowNums = new double[relations.size()];
+    for (int i = 0; i < relations.size(); i++) {
+      RelationNode relation = relations.get(i);
+      Map<String, ColumnStats> statsOfRelation = TUtil.newHashMap();
+      TableStats tableStats = relation instanceof ScanNode ? ((ScanNode) relation).getTableDesc().getStats() : null;
+      if (tableStats != null && tableStats.getColumnStats() != null) {
+        for (ColumnStats eachStats : tableStats.getColumnStats()) {
+          statsOfRelation.put(eachStats.getColumn().getSimpleName(), eachStats);
+        }
+      }
+      columnStats.add(statsOfRelation);
+      rowNums[i] = estimateRowNum(relation, tableStats);
+    }
+  }
+
+  private static double estimateRowNum(RelationNode relation, TableStats tableStats) {
+    if (tableStats != null && tableStats.getNumRows() != null && tableStats.getNumRows() > 0) {
+      return tableStats.getNumRows();
+    }
+    double rowWidth = Math.max(1, SchemaUtil.estimateRowByteSizeWithSchema(relation.getOutSchema()));
+    if (tableStats != null && tableStats.getNumBytes() != null && tableStats.getNumBytes() > 0) {
+      return Math.max(1, tableStats.getNumBytes() / rowWidth);
+    }
+    return Math.max(1, GreedyHeuristicJoinOrderAlgorithm.getCost(relation) / rowWidth);
+  }
+
+  /**
+   * @return The index of the relation which has the given column, or -1 if there is no such relation
+   */
+  public int findRelation(Column column) {
+    for (int i = 0; i < relations.size(); i++) {
+      if (relations.get(i).getOutSchema().contains(column)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @return The estimated number of rows of the relation after its scan filter is applied
+   */
+  public double getCardinality(int relationId) {
+    double cardinality = rowNums[relationId];
+    RelationNode relation = relations.get(relationId);
+    if (relation instanceof ScanNode && ((ScanNode) relation).hasQual()) {
+      for (EvalNode conjunct : AlgebraicUtil.toConjunctiveNormalFormArray(((ScanNode) relation).getQual())) {
+        cardinality *= getFilterSelectivity(relationId, conjunct);
+      }
+    }
+    return Math.max(1, cardinality);
+  }
+
+  /**
+   * @return The fraction of rows which satisfy the given predicate on a single relation
+   */
+  public double getFilterSelectivity(int relationId, EvalNode predicate) {
+    if (predicate.getType() == EvalType.IS_NULL) {
+      IsNullEval isNull = (IsNullEval) predicate;
+      ColumnStats stats = getColumnStats(relationId, isNull.getChild());
+      if (stats != null && stats.getNumNulls() != null) {
+        double nullFraction = getNullFraction(relationId, stats);
+        return isNull.isNot() ? 1 - nullFraction : nullFraction;
+      }
+      return GreedyHeuristicJoinOrderAlgorithm.DEFAULT_SELECTION_FACTOR;
+    }
+    if (!EvalType.isComparisonOperator(predicate.getType()) || !(predicate instanceof BinaryEval)) {
+      return GreedyHeuristicJoinOrderAlgorithm.DEFAULT_SELECTION_FACTOR;
+    }
+
+    BinaryEval binary = (BinaryEval) predicate;
+    EvalNode field = binary.getLeftExpr();
+    EvalNode constant = binary.getRightExpr();
+    EvalType op = predicate.getType();
+    if (field.getType() == EvalType.CONST) {
+      field = binary.getRightExpr();
+      constant = binary.getLeftExpr();
+      op = flip(op);
+    }
+    ColumnStats stats = getColumnStats(relationId, field);
+    if (stats == null || constant.getType() != EvalType.CONST) {
+      return GreedyHeuristicJoinOrderAlgorithm.DEFAULT_SELECTION_FACTOR;
+    }
+
+    Datum value = ((ConstEval) constant).getValue();
+    double nonNullFraction = 1 - getNullFraction(relationId, stats);
+    double [] range = getRange(stats);
+    if (range != null && !isNumeric(value)) {
+      range = null;
+    }
+
+    switch (op) {
+    case EQUAL:
+      if (range != null && (value.asFloat8() < range[0] || value.asFloat8() > range[1])) {
+        return 0;
+      }
+      return nonNullFraction / getDistinctValueNum(relationId, stats);
+    case NOT_EQUAL:
+      return nonNullFraction * (1 - 1 / getDistinctValueNum(relationId, stats));
+    case LTH:
+    case LEQ:
+      if (range != null) {
+        return nonNullFraction * clamp(fraction(range, value.asFloat8()));
+      }
+      break;
+    case GTH:
+    case GEQ:
+      if (range != null) {
+        return nonNullFraction * clamp(1 - fraction(range, value.asFloat8()));
+      }
+      break;
+    default:
+    }
+    return GreedyHeuristicJoinOrderAlgorithm.DEFAULT_SELECTION_FACTOR;
+  }
+
+  /**
+   * Estimate the selectivity of a join predicate, which is the fraction of the cross product of the relations
+   * satisfying the predicate. For an equi-join predicate of two columns, only the overlap of their value ranges can
+   * match, and then each value of the column having fewer distinct values in the overlap is assumed to match.
+   *
+   * @return The estimated selectivity of the join predicate
+   */
+  public double getJoinSelectivity(EvalNode predicate) {
+    if (predicate.getType() != EvalType.EQUAL) {
+      return GreedyHeuristicJoinOrderAlgorithm.DEFAULT_SELECTION_FACTOR;
+    }
+    BinaryEval binary = (BinaryEval) predicate;
+    if (binary.getLeftExpr().getType() != EvalType.FIELD || binary.getRightExpr().getType() != EvalType.FIELD) {
+      return GreedyHeuristicJoinOrderAlgorithm.DEFAULT_SELECTION_FACTOR;
+    }
+    int leftId = findRelation(((FieldEval) binary.getLeftExpr()).getColumnRef());
+    int rightId = findRelation(((FieldEval) binary.getRightExpr()).getColumnRef());
+    if (leftId < 0 || rightId < 0 || leftId == rightId) {
+      return GreedyHeuristicJoinOrderAlgorithm.DEFAULT_SELECTION_FACTOR;
+    }
+
+    ColumnStats leftStats = getColumnStats(leftId, binary.getLeftExpr());
+    ColumnStats rightStats = getColumnStats(rightId, binary.getRightExpr());
+    double leftDistinctNum = getDistinctValueNum(leftId, leftStats);
+    double rightDistinctNum = getDistinctValueNum(rightId, rightStats);
+    double nonNullFraction = (1 - getNullFraction(leftId, leftStats)) * (1 - getNullFraction(rightId, rightStats));
+
+    double leftOverlap = 1;
+    double rightOverlap = 1;
+    double [] leftRange = getRange(leftStats);
+    double [] rightRange = getRange(rightStats);
+    if (leftRange != null && rightRange != null) {
+      double low = Math.max(leftRange[0], rightRange[0]);
+      double high = Math.min(leftRange[1], rightRange[1]);
+      if (high < low) {
+        return 0;
+      }
+      leftOverlap = overlap(leftRange, low, high, leftDistinctNum);
+      rightOverlap = overlap(rightRange, low, high, rightDistinctNum);
+    }
+
+    // rows in the overlap: (|L| * lo) * (|R| * ro), distinct values in the overlap: max(ndv(L) * lo, ndv(R) * ro)
+    return nonNullFraction * leftOverlap * rightOverlap /
+        Math.max(1, Math.max(leftDistinctNum * leftOverlap, rightDistinctNum * rightOverlap));
+  }
+
+  private ColumnStats getColumnStats(int relationId, EvalNode field) {
+    if (field.getType() != EvalType.FIELD) {
+      return null;
+    }
+    return columnStats.get(relationId).get(((FieldEval) field).getColumnRef().getSimpleName());
+  }
+
+  /**
+   * @return The number of distinct values of the column, which is the number of rows if it is unknown
+   */
+  private double getDistinctValueNum(int relationId, ColumnStats stats) {
+    if (stats != null && stats.getNumDistValues() != null && stats.getNumDistValues() > 0) {
+      return Math.min(stats.getNumDistValues(), rowNums[relationId]);
+    }
+    return rowNums[relationId];
+  }
+
+  private double getNullFraction(int relationId, ColumnStats stats) {
+    if (stats != null && stats.getNumNulls() != null) {
+      return clamp(stats.getNumNulls() / rowNums[relationId]);
+    }
+    return 0;
+  }
+
+  /**
+   * @return The min and max values of a numeric column, or null if they are unknown
+   */
+  private static double [] getRange(ColumnStats stats) {
+    if (stats == null || stats.getMinValue() == null || stats.getMaxValue() == null
+        || !isNumeric(stats.getMinValue()) || !isNumeric(stats.getMaxValue())) {
+      return null;
+    }
+    return new double[] {stats.getMinValue().asFloat8(), stats.getMaxValue().asFloat8()};
+  }
+
+  private static boolean isNumeric(Datum datum) {
+    Type type = datum.type();
+    return type == Type.INT1 || type == Type.INT2 || type == Type.INT4 || type == Type.INT8
+        || type == Type.FLOAT4 || type == Type.FLOAT8;
+  }
+
+  private static double fraction(double [] range, double value) {
+    return range[1] > range[0] ? (value - range[0]) / (range[1] - range[0]) : (value < range[0] ? 0 : 1);
+  }
+
+  /**
+   * @return The fraction of the range in the overlap, which has at least one of the distinct values
+   */
+  private static double overlap(double [] range, double low, double high, double distinctNum) {
+    return range[1] > range[0] ? Math.max((high - low) / (range[1] - range[0]), 1 / distinctNum) : 1;
+  }
+
+  private static double clamp(double fraction) {
+    return Math.min(1, Math.max(0, fraction));
+  }
+
+  private static EvalType flip(EvalType op) {
+    switch (op) {
+    case LTH: return EvalType.GTH;
+    case LEQ: return EvalType.GEQ;
+    case GTH: return EvalType.LTH;
+    case GEQ: return EvalType.LEQ;
+    default: return op;
+    }
+  }
+}
@@ -24,6 +24,7 @@ import com.google.gson.Gson;
 import com.google.gson.annotations.Expose;
 
 import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.proto.CatalogProtos.IndexMethod;
 import org.apache.tajo.plan.rewrite.rules.IndexScanInfo.SimplePredicate;
 import org.apache.tajo.plan.serder.PlanGsonHelper;
 import org.apache.tajo.util.TUtil;
@@ -34,6 +35,7 @@ public class IndexScanNode extends ScanNode {
   @Expose private Schema keySchema = null;
   @Expose private URI indexPath = null;
   @Expose private SimplePredicate[] predicates = null;
+  @Expose private IndexMethod indexMethod = IndexMethod.TWO_LEVEL_BIN_TREE;
 
   public IndexScanNode(int pid) {
     super(pid);
@@ -56,6 +58,14 @@ public class IndexScanNode extends ScanNode {
     this.predicates = predicates;
   }
   
+  public IndexMethod getIndexMethod() {
+    return indexMethod;
+  }
+
+  public void setIndexMethod(IndexMethod indexMethod) {
+    this.indexMethod = indexMethod;
+  }
+
   public Schema getKeySchema() {
     return this.keySchema;
   }
@@ -70,6 +80,7 @@ public class IndexScanNode extends ScanNode {
     StringBuilder builder = new StringBuilder();
     builder.append("IndexScanNode : {\n");
     builder.append("  \"indexPath\" : \"" + gson.toJson(this.indexPath) + "\"\n");
+    builder.append("  \"indexMethod\" : \"" + this.indexMethod + "\"\n");
     builder.append("  \"keySchema\" : \"" + gson.toJson(this.keySchema) + "\"\n");
     builder.append("  \"keySortSpecs\" : \"" + gson.toJson(predicates) + " \"\n");
     builder.append("      <<\"superClass\" : " + super.toString());
@@ -83,6 +94,7 @@ public class IndexScanNode extends ScanNode {
     final int prime = 31;
     int result = super.hashCode();
     result = prime * result + indexPath.hashCode();
+    result = prime * result + indexMethod.hashCode();
     result = prime * result + ((keySchema == null) ? 0 : keySchema.hashCode());
     result = prime * result + Arrays.hashCode(predicates);
     return result;
@@ -94,6 +106,7 @@ public class IndexScanNode extends ScanNode {
       IndexScanNode other = (IndexScanNode) obj;
       boolean eq = super.equals(other);
       eq &= this.indexPath.equals(other.indexPath);
+      eq &= this.indexMethod == other.indexMethod;
       eq &= TUtil.checkEquals(this.predicates, other.predicates);
       eq &= this.keySchema.equals(other.keySchema);
 
@@ -110,6 +123,7 @@ public class IndexScanNode extends ScanNode {
     for(int i = 0 ; i < this.predicates.length ; i ++ )
       indexNode.predicates[i] = (SimplePredicate) this.predicates[i].clone();
     indexNode.indexPath = this.indexPath;
+    indexNode.indexMethod = this.indexMethod;
     return indexNode;
   }
 
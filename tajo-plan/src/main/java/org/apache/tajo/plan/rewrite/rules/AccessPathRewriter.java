@@ -117,6 +117,7 @@ public class AccessPathRewriter implements LogicalPlanRewriteRule {
         plan.addHistory("AccessPathRewriter chooses the index scan for " + scanNode.getTableName());
         IndexScanNode indexScanNode = new IndexScanNode(plan.newPID(), scanNode, indexScanInfo.getKeySchema(),
             indexScanInfo.getPredicates(), indexScanInfo.getIndexPath());
+        indexScanNode.setIndexMethod(indexScanInfo.getIndexMethod());
         if (stack.empty() || block.getRoot().equals(scanNode)) {
           block.setRoot(indexScanNode);
         } else {
@@ -26,6 +26,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.tajo.algebra.JoinType;
 import org.apache.tajo.catalog.*;
+import org.apache.tajo.catalog.proto.CatalogProtos.IndexMethod;
 import org.apache.tajo.datum.Datum;
 import org.apache.tajo.exception.TajoException;
 import org.apache.tajo.exception.TajoInternalError;
@@ -991,6 +992,21 @@ public class FilterPushDownRule extends BasicLogicalPlanVisitor<FilterPushDownCo
               table.getStats(), indexDesc, getSimplePredicates(indexDesc, subset)));
         }
       }
+
+      // a bloom filter index can also be probed with the values of IN predicates
+      for (EvalNode eval : PlannerUtil.getAllInEvals(qual)) {
+        InEval inEval = (InEval) eval;
+        if (!inEval.isNot() && inEval.getLeftExpr().getType() == EvalType.FIELD &&
+            inEval.getRightExpr().getType() == EvalType.ROW_CONSTANT) {
+          Column[] columns = new Column[] {((FieldEval) inEval.getLeftExpr()).getColumnRef()};
+          if (catalog.existIndexByColumns(databaseName, tableName, columns)) {
+            IndexDesc indexDesc = catalog.getIndexByColumns(databaseName, tableName, columns);
+            if (indexDesc.getIndexMethod() == IndexMethod.BLOOM) {
+              block.addAccessPath(scanNode, new IndexScanInfo(table.getStats(), indexDesc, new SimplePredicate[0]));
+            }
+          }
+        }
+      }
     }
 
     for (EvalNode matchedEval: matched) {
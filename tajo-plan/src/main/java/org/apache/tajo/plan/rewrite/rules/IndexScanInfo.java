@@ -22,6 +22,7 @@ import com.google.gson.annotations.Expose;
 import org.apache.tajo.catalog.IndexDesc;
 import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.catalog.SortSpec;
+import org.apache.tajo.catalog.proto.CatalogProtos.IndexMethod;
 import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.common.ProtoObject;
 import org.apache.tajo.datum.Datum;
@@ -86,16 +87,22 @@ public class IndexScanInfo extends AccessPathInfo {
   }
 
   private final URI indexPath;
+  private final IndexMethod indexMethod;
   private final Schema keySchema;
   private final SimplePredicate[] predicates;
 
+  /**
+   * @param predicates The equality predicates on all keys of the index. It can be empty for a bloom filter index,
+   *                   which is probed with the filter of a scan instead.
+   */
   public IndexScanInfo(TableStats tableStats, IndexDesc indexDesc, SimplePredicate[] predicates) {
     super(ScanTypeControl.INDEX_SCAN, tableStats);
     this.indexPath = indexDesc.getIndexPath();
+    this.indexMethod = indexDesc.getIndexMethod();
     keySchema = new Schema();
     this.predicates = predicates;
-    for (SimplePredicate predicate : predicates) {
-      keySchema.addColumn(predicate.getKeySortSpec().getSortKey());
+    for (SortSpec keySortSpec : indexDesc.getKeySortSpecs()) {
+      keySchema.addColumn(keySortSpec.getSortKey());
     }
   }
 
@@ -103,6 +110,10 @@ public class IndexScanInfo extends AccessPathInfo {
     return indexPath;
   }
 
+  public IndexMethod getIndexMethod() {
+    return indexMethod;
+  }
+
   public Schema getKeySchema() {
     return keySchema;
   }
@@ -454,6 +454,7 @@ public class LogicalNodeDeserializer {
 
     indexScan.set(new Schema(indexScanSpec.getKeySchema()), predicates,
         TUtil.stringToURI(indexScanSpec.getIndexPath()));
+    indexScan.setIndexMethod(indexScanSpec.getIndexMethod());
 
     return indexScan;
   }
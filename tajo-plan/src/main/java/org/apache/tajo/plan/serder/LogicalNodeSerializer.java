@@ -457,6 +457,7 @@ public class LogicalNodeSerializer extends BasicLogicalPlanVisitor<LogicalNodeSe
     PlanProto.IndexScanSpec.Builder indexScanSpecBuilder = PlanProto.IndexScanSpec.newBuilder();
     indexScanSpecBuilder.setKeySchema(node.getKeySchema().getProto());
     indexScanSpecBuilder.setIndexPath(node.getIndexPath().toString());
+    indexScanSpecBuilder.setIndexMethod(node.getIndexMethod());
     for (SimplePredicate predicate : node.getPredicates()) {
       indexScanSpecBuilder.addPredicates(predicate.getProto());
     }
@@ -859,6 +859,20 @@ public class PlannerUtil {
     return ShuffleType.valueOf(shuffleType);
   }
 
+  /**
+   * HASH_SHUFFLE and SCATTERED_HASH_SHUFFLE write a shuffle file per partition in each worker node. Their intermediate
+   * data are reported from worker nodes rather than by each task, while RANGE_SHUFFLE is reported when a task finishes.
+   */
+  public static boolean isHashShuffle(ShuffleType type) {
+    switch (type) {
+      case HASH_SHUFFLE:
+      case SCATTERED_HASH_SHUFFLE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
   public static boolean isFileStorageType(String storageType) {
     if (storageType.equalsIgnoreCase("hbase")) {
       return false;
@@ -998,4 +1012,10 @@ public class PlannerUtil {
     finder.visit(null, qual, new Stack<EvalNode>());
     return finder.getEvalNodes();
   }
+
+  public static List<EvalNode> getAllInEvals(EvalNode qual) {
+    EvalTreeUtil.EvalFinder finder = new EvalTreeUtil.EvalFinder(EvalType.IN);
+    finder.visit(null, qual, new Stack<EvalNode>());
+    return finder.getEvalNodes();
+  }
 }
@@ -189,7 +189,7 @@ public class PreLogicalPlanVerifier extends BaseAlgebraVisitor<PreLogicalPlanVer
   private boolean assertSupportedStoreType(VerificationState state, String name) {
     Preconditions.checkNotNull(name);
 
-    if (name.equalsIgnoreCase("RAW")) {
+    if (name.equalsIgnoreCase("RAW") || name.equalsIgnoreCase("DRAW")) {
       state.addVerification(SyntaxErrorUtil.makeUnknownDataFormat(name));
       return false;
     }
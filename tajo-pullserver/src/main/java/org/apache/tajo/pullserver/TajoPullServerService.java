@@ -530,6 +530,22 @@ public class TajoPullServerService extends AbstractService {
           chunks.add(chunk);
         }
 
+        // if a stage requires a hash shuffle, the partitions of a comma separated list are sent in one response
+      } else if (shuffleType.equals("h") && offset < 0 && partId.contains(",")) {
+        for (String eachPartId : partId.split(",")) {
+          int partParentId = HashShuffleAppenderManager.getPartParentId(Integer.parseInt(eachPartId), conf);
+          String partPath = queryBaseDir + "/" + sid + "/hash-shuffle/" + partParentId + "/" + eachPartId;
+          // a partition without any rows has no file
+          if (!lDirAlloc.ifExists(partPath, conf)) {
+            continue;
+          }
+          File file = new File(localFS.makeQualified(lDirAlloc.getLocalPathToRead(partPath, conf)).toUri());
+          if (file.length() > 0) {
+            chunks.add(new FileChunk(file, 0, file.length()));
+          }
+        }
+        LOG.info("RequestURL: " + request.getUri() + ", files=" + chunks.size());
+
         // if a stage requires a hash shuffle or a scattered hash shuffle
       } else if (shuffleType.equals("h") || shuffleType.equals("s")) {
         int partParentId = HashShuffleAppenderManager.getPartParentId(Integer.parseInt(partId), conf);
@@ -657,6 +673,7 @@ public class TajoPullServerService extends AbstractService {
       FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status,
           Unpooled.copiedBuffer(message, CharsetUtil.UTF_8));
       response.headers().set(HttpHeaders.Names.CONTENT_TYPE, "text/plain; charset=UTF-8");
+      response.headers().set(HttpHeaders.Names.CONNECTION, HttpHeaders.Values.CLOSE);
 
       // Close the connection as soon as the error message is sent.
       ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
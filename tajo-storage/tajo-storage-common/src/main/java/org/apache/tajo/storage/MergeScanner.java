@@ -47,6 +47,7 @@ public class MergeScanner implements Scanner {
   private boolean projectable = false;
   private boolean selectable = false;
   private Schema target;
+  private EvalNode filter;
   private float progress;
   protected TableStats tableStats;
 
@@ -112,6 +113,7 @@ public class MergeScanner implements Scanner {
         if (scannerTableStsts != null) {
           tableStats.setReadBytes(tableStats.getReadBytes() + scannerTableStsts.getReadBytes());
           tableStats.setNumRows(tableStats.getNumRows() + scannerTableStsts.getNumRows());
+          tableStats.setNumSkippedBlocks(tableStats.getNumSkippedBlocks() + scannerTableStsts.getNumSkippedBlocks());
         }
       }
       currentScanner = getNextScanner();
@@ -136,6 +138,9 @@ public class MergeScanner implements Scanner {
       currentFragment = iterator.next();
       currentScanner = TablespaceManager.getLocalFs().getScanner(meta, schema, currentFragment, target);
       currentScanner.init();
+      if (filter != null) {
+        currentScanner.setFilter(filter);
+      }
       return currentScanner;
     } else {
       return null;
@@ -169,7 +174,13 @@ public class MergeScanner implements Scanner {
 
   @Override
   public void setFilter(EvalNode filter) {
-    throw new TajoRuntimeException(new UnsupportedException());
+    if (!selectable) {
+      throw new TajoRuntimeException(new UnsupportedException());
+    }
+    this.filter = filter;
+    if (currentScanner != null) {
+      currentScanner.setFilter(filter);
+    }
   }
 
   @Override
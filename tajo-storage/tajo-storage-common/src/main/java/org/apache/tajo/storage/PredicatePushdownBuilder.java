@@ -0,0 +1,197 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.plan.expr.*;
+
+/**
+ * PredicatePushdownBuilder translates a filter into the predicate form of a storage format, which is used to skip
+ * blocks of rows, such as row groups or stripes, by their statistics.
+ *
+ * A translated predicate can be looser than the filter, because a part of the filter which cannot be translated is
+ * dropped from a conjunction. So, a scanner still has to evaluate the filter for the rows of the remaining blocks.
+ * A negation is pushed down to comparisons, so that implementations only handle the following predicates on columns:
+ * comparisons with a constant, and IS [NOT] NULL. IN and BETWEEN are rewritten to them.
+ *
+ * @param <T> The predicate type of a storage format
+ */
+public abstract class PredicatePushdownBuilder<T> {
+
+  /**
+   * @return A predicate which is equivalent to or looser than the filter, or null if nothing can be pushed down
+   */
+  public T build(EvalNode filter) {
+    return filter == null ? null : visit(filter, false);
+  }
+
+  private T visit(EvalNode node, boolean negated) {
+    switch (node.getType()) {
+    case AND: {
+      BinaryEval binary = (BinaryEval) node;
+      T left = visit(binary.getLeftExpr(), negated);
+      T right = visit(binary.getRightExpr(), negated);
+      return negated ? or(left, right) : and(left, right);
+    }
+    case OR: {
+      BinaryEval binary = (BinaryEval) node;
+      T left = visit(binary.getLeftExpr(), negated);
+      T right = visit(binary.getRightExpr(), negated);
+      return negated ? and(left, right) : or(left, right);
+    }
+    case NOT:
+      return visit(((NotEval) node).getChild(), !negated);
+
+    case EQUAL:
+    case NOT_EQUAL:
+    case LTH:
+    case LEQ:
+    case GTH:
+    case GEQ:
+      return visitComparison((BinaryEval) node, negated);
+
+    case IS_NULL: {
+      IsNullEval isNull = (IsNullEval) node;
+      if (isNull.getChild().getType() != EvalType.FIELD) {
+        return null;
+      }
+      return isNull(((FieldEval) isNull.getChild()).getColumnRef(), isNull.isNot() != negated);
+    }
+
+    case IN:
+      return visitIn((InEval) node, negated);
+
+    case BETWEEN:
+      return visitBetween((BetweenPredicateEval) node, negated);
+
+    default:
+      return null;
+    }
+  }
+
+  private T visitComparison(BinaryEval binary, boolean negated) {
+    EvalNode left = binary.getLeftExpr();
+    EvalNode right = binary.getRightExpr();
+    EvalType op = binary.getType();
+
+    if (left.getType() == EvalType.CONST && right.getType() == EvalType.FIELD) {
+      EvalNode tmp = left;
+      left = right;
+      right = tmp;
+      op = commute(op);
+    }
+    if (left.getType() != EvalType.FIELD || right.getType() != EvalType.CONST) {
+      return null;
+    }
+
+    return compare(((FieldEval) left).getColumnRef(), negated ? negate(op) : op, ((ConstEval) right).getValue());
+  }
+
+  private T visitIn(InEval in, boolean negated) {
+    // NOT IN cannot skip a block unless its values are few, so it is not pushed down.
+    if (in.isNot() != negated || in.getLeftExpr().getType() != EvalType.FIELD ||
+        in.getRightExpr().getType() != EvalType.ROW_CONSTANT) {
+      return null;
+    }
+
+    Column column = ((FieldEval) in.getLeftExpr()).getColumnRef();
+    T result = null;
+    for (Datum value : ((RowConstantEval) in.getRightExpr()).getValues()) {
+      T eq = compare(column, EvalType.EQUAL, value);
+      if (eq == null) {
+        return null;
+      }
+      result = result == null ? eq : or(result, eq);
+    }
+    return result;
+  }
+
+  private T visitBetween(BetweenPredicateEval between, boolean negated) {
+    if (between.isSymmetric() || between.getPredicand().getType() != EvalType.FIELD ||
+        between.getBegin().getType() != EvalType.CONST || between.getEnd().getType() != EvalType.CONST) {
+      return null;
+    }
+
+    Column column = ((FieldEval) between.getPredicand()).getColumnRef();
+    Datum begin = ((ConstEval) between.getBegin()).getValue();
+    Datum end = ((ConstEval) between.getEnd()).getValue();
+    if (between.isNot() != negated) {
+      return or(compare(column, EvalType.LTH, begin), compare(column, EvalType.GTH, end));
+    } else {
+      return and(compare(column, EvalType.GEQ, begin), compare(column, EvalType.LEQ, end));
+    }
+  }
+
+  private static EvalType commute(EvalType op) {
+    switch (op) {
+    case LTH: return EvalType.GTH;
+    case LEQ: return EvalType.GEQ;
+    case GTH: return EvalType.LTH;
+    case GEQ: return EvalType.LEQ;
+    default: return op;
+    }
+  }
+
+  private static EvalType negate(EvalType op) {
+    switch (op) {
+    case EQUAL: return EvalType.NOT_EQUAL;
+    case NOT_EQUAL: return EvalType.EQUAL;
+    case LTH: return EvalType.GEQ;
+    case LEQ: return EvalType.GTH;
+    case GTH: return EvalType.LEQ;
+    case GEQ: return EvalType.LTH;
+    default: throw new IllegalArgumentException("Not a comparison: " + op);
+    }
+  }
+
+  private T and(T left, T right) {
+    if (left == null) {
+      return right;
+    } else if (right == null) {
+      return left;
+    } else {
+      return createAnd(left, right);
+    }
+  }
+
+  private T or(T left, T right) {
+    if (left == null || right == null) {
+      return null;
+    } else {
+      return createOr(left, right);
+    }
+  }
+
+  /**
+   * @param op One of EQUAL, NOT_EQUAL, LTH, LEQ, GTH and GEQ, where the column is the left operand
+   * @return A predicate, or null if it cannot be pushed down
+   */
+  protected abstract T compare(Column column, EvalType op, Datum value);
+
+  /**
+   * @param not True if it is IS NOT NULL
+   * @return A predicate, or null if it cannot be pushed down
+   */
+  protected abstract T isNull(Column column, boolean not);
+
+  protected abstract T createAnd(T left, T right);
+
+  protected abstract T createOr(T left, T right);
+}
@@ -134,7 +134,7 @@ public class HeapTuple implements Tuple {
     case INT4:
       return DatumFactory.createInt4(getInt4(fieldId));
     case INT8:
-      return DatumFactory.createInt8(getInt4(fieldId));
+      return DatumFactory.createInt8(getInt8(fieldId));
     case FLOAT4:
       return DatumFactory.createFloat4(getFloat4(fieldId));
     case FLOAT8:
@@ -225,7 +225,7 @@ public class HeapTuple implements Tuple {
 
   @Override
   public String getText(int fieldId) {
-    return new String(getBytes(fieldId));
+    return new String(getBytes(fieldId), TextDatum.DEFAULT_CHARSET);
   }
 
   @Override
@@ -203,7 +203,7 @@ public class OffHeapRowBlock extends OffHeapMemory implements Deallocatable {
     }
   }
 
-  public RowWriter getWriter() {
+  public OffHeapRowWriter getWriter() {
     return builder;
   }
 
@@ -18,6 +18,7 @@
 
 package org.apache.tajo.tuple.offheap;
 
+import io.netty.buffer.ByteBuf;
 import org.apache.tajo.common.TajoDataTypes;
 import org.apache.tajo.datum.IntervalDatum;
 import org.apache.tajo.datum.ProtobufDatum;
@@ -185,6 +186,30 @@ public abstract class OffHeapRowWriter implements RowWriter {
     curOffset += bytesLen;
   }
 
+  /**
+   * Put a text from the given range of a buffer without copying it to an intermediate array.
+   */
+  public void putText(ByteBuf buf, int index, int length) {
+    ensureSize(SizeOf.SIZE_OF_INT + length);
+    forwardField();
+
+    OffHeapMemory.UNSAFE.putInt(recordStartAddr() + curOffset, length);
+    curOffset += SizeOf.SIZE_OF_INT;
+
+    if (buf.hasMemoryAddress()) {
+      OffHeapMemory.UNSAFE.copyMemory(null, buf.memoryAddress() + index, null,
+          recordStartAddr() + curOffset, length);
+    } else if (buf.hasArray()) {
+      OffHeapMemory.UNSAFE.copyMemory(buf.array(), UnsafeUtil.ARRAY_BYTE_BASE_OFFSET + buf.arrayOffset() + index,
+          null, recordStartAddr() + curOffset, length);
+    } else {
+      for (int i = 0; i < length; i++) {
+        OffHeapMemory.UNSAFE.putByte(recordStartAddr() + curOffset + i, buf.getByte(index + i));
+      }
+    }
+    curOffset += length;
+  }
+
   public void putBlob(byte[] val) {
     int bytesLen = val.length;
 
@@ -160,7 +160,7 @@ public abstract class UnSafeTuple implements Tuple {
     case INT4:
       return DatumFactory.createInt4(getInt4(fieldId));
     case INT8:
-      return DatumFactory.createInt8(getInt4(fieldId));
+      return DatumFactory.createInt8(getInt8(fieldId));
     case FLOAT4:
       return DatumFactory.createFloat4(getFloat4(fieldId));
     case FLOAT8:
@@ -262,7 +262,7 @@ public abstract class UnSafeTuple implements Tuple {
 
   @Override
   public String getText(int fieldId) {
-    return new String(getTextBytes(fieldId));
+    return new String(getTextBytes(fieldId), TextDatum.DEFAULT_CHARSET);
   }
 
   public IntervalDatum getInterval(int fieldId) {
@@ -301,7 +301,7 @@ public abstract class UnSafeTuple implements Tuple {
 
   @Override
   public TimeMeta getTimeDate(int fieldId) {
-    return null;
+    return asDatum(fieldId).asTimeMeta();
   }
 
   @Override
@@ -0,0 +1,103 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.statistics.ColumnStats;
+import org.apache.tajo.catalog.statistics.TableStats;
+
+import java.io.IOException;
+
+/**
+ * ColumnStatsAppender collects the min/max values and the null counts of all columns written by a file appender.
+ * When it is closed, the statistics are stored with the data file by {@link FileColumnStats}.
+ */
+public class ColumnStatsAppender implements Appender {
+  private final FileAppender appender;
+  private final FileSystem fs;
+  private final TableStatistics columnStats;
+  private final int columnNum;
+
+  public ColumnStatsAppender(FileSystem fs, Schema schema, FileAppender appender) {
+    this.fs = fs;
+    this.appender = appender;
+    this.columnStats = new TableStatistics(schema);
+    this.columnNum = schema.size();
+  }
+
+  @Override
+  public void init() throws IOException {
+    appender.init();
+  }
+
+  @Override
+  public void addTuple(Tuple t) throws IOException {
+    appender.addTuple(t);
+
+    for (int i = 0; i < columnNum; i++) {
+      columnStats.analyzeField(i, t);
+    }
+    columnStats.incrementRow();
+  }
+
+  @Override
+  public void flush() throws IOException {
+    appender.flush();
+  }
+
+  @Override
+  public long getEstimatedOutputSize() throws IOException {
+    return appender.getEstimatedOutputSize();
+  }
+
+  @Override
+  public void close() throws IOException {
+    appender.close();
+
+    Path path = appender.getPath();
+    if (!fs.exists(path)) {
+      return;
+    }
+
+    columnStats.setNumBytes(fs.getFileStatus(path).getLen());
+    TableStats stats = columnStats.getTableStat();
+    for (ColumnStats eachStats : stats.getColumnStats()) {
+      // a column which has only nulls does not have min/max values
+      if (eachStats.getMinValue() != null && eachStats.getMinValue().isNull()) {
+        eachStats.setMinValue(null);
+      }
+      if (eachStats.getMaxValue() != null && eachStats.getMaxValue().isNull()) {
+        eachStats.setMaxValue(null);
+      }
+    }
+    FileColumnStats.write(fs, path, stats);
+  }
+
+  @Override
+  public void enableStats() {
+    appender.enableStats();
+  }
+
+  @Override
+  public TableStats getStats() {
+    return appender.getStats();
+  }
+}
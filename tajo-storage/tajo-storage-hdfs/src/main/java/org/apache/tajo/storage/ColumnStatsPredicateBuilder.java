@@ -0,0 +1,141 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.statistics.ColumnStats;
+import org.apache.tajo.catalog.statistics.TableStats;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.plan.expr.EvalType;
+import org.apache.tajo.util.TUtil;
+
+import java.util.Map;
+
+/**
+ * ColumnStatsPredicateBuilder translates a filter into a predicate on the column statistics of a file, which is used
+ * to skip the files which cannot have any matching row.
+ *
+ * Columns are matched by their simple names, because the statistics are written with the schema of a table while a
+ * filter refers to the columns of a scan. Only comparisons with a constant of the same type as the column are
+ * translated.
+ */
+public class ColumnStatsPredicateBuilder extends PredicatePushdownBuilder<ColumnStatsPredicateBuilder.Predicate> {
+
+  public interface Predicate {
+    /**
+     * @param table The statistics of a file
+     * @param stats The column statistics of the file by simple column names
+     * @return False if no row of the file can match
+     */
+    boolean matches(TableStats table, Map<String, ColumnStats> stats);
+  }
+
+  /**
+   * @return False only if the statistics show that no row of the file can match the predicate
+   */
+  public static boolean matches(Predicate predicate, TableStats stats) {
+    Map<String, ColumnStats> statsByName = TUtil.newHashMap();
+    for (ColumnStats columnStats : stats.getColumnStats()) {
+      statsByName.put(columnStats.getColumn().getSimpleName(), columnStats);
+    }
+    return predicate.matches(stats, statsByName);
+  }
+
+  @Override
+  protected Predicate compare(Column column, final EvalType op, final Datum value) {
+    if (value.isNull()) {
+      return null;
+    }
+    final String name = column.getSimpleName();
+
+    return new Predicate() {
+      @Override
+      public boolean matches(TableStats table, Map<String, ColumnStats> stats) {
+        ColumnStats columnStats = stats.get(name);
+        if (columnStats == null || columnStats.getColumn().getDataType().getType() != value.type()) {
+          return true;
+        }
+        // nulls never match a comparison
+        if (columnStats.getNumNulls() != null &&
+            columnStats.getNumNulls().longValue() == table.getNumRows().longValue()) {
+          return false;
+        }
+
+        Datum min = columnStats.getMinValue();
+        Datum max = columnStats.getMaxValue();
+        if (min == null || max == null || min.type() != value.type() || max.type() != value.type()) {
+          return true;
+        }
+
+        switch (op) {
+        case EQUAL:
+          return min.compareTo(value) <= 0 && max.compareTo(value) >= 0;
+        case NOT_EQUAL:
+          return min.compareTo(value) != 0 || max.compareTo(value) != 0;
+        case LTH:
+          return min.compareTo(value) < 0;
+        case LEQ:
+          return min.compareTo(value) <= 0;
+        case GTH:
+          return max.compareTo(value) > 0;
+        case GEQ:
+          return max.compareTo(value) >= 0;
+        default:
+          return true;
+        }
+      }
+    };
+  }
+
+  @Override
+  protected Predicate isNull(Column column, final boolean not) {
+    final String name = column.getSimpleName();
+
+    return new Predicate() {
+      @Override
+      public boolean matches(TableStats table, Map<String, ColumnStats> stats) {
+        ColumnStats columnStats = stats.get(name);
+        if (columnStats == null || columnStats.getNumNulls() == null) {
+          return true;
+        }
+        return not ? columnStats.getNumNulls() < table.getNumRows() : columnStats.getNumNulls() > 0;
+      }
+    };
+  }
+
+  @Override
+  protected Predicate createAnd(final Predicate left, final Predicate right) {
+    return new Predicate() {
+      @Override
+      public boolean matches(TableStats table, Map<String, ColumnStats> stats) {
+        return left.matches(table, stats) && right.matches(table, stats);
+      }
+    };
+  }
+
+  @Override
+  protected Predicate createOr(final Predicate left, final Predicate right) {
+    return new Predicate() {
+      @Override
+      public boolean matches(TableStats table, Map<String, ColumnStats> stats) {
+        return left.matches(table, stats) || right.matches(table, stats);
+      }
+    };
+  }
+}
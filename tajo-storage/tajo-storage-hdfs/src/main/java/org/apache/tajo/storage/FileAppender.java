@@ -87,6 +87,13 @@ public abstract class FileAppender implements Appender {
     this.enabledStats = true;
   }
 
+  /**
+   * @return The path of the file written by this appender
+   */
+  public Path getPath() {
+    return path;
+  }
+
   public long getEstimatedOutputSize() throws IOException {
     return getOffset();
   }
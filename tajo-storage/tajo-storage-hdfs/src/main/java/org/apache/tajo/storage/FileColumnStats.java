@@ -0,0 +1,102 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.catalog.proto.CatalogProtos.TableStatsProto;
+import org.apache.tajo.catalog.statistics.TableStats;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+/**
+ * FileColumnStats reads and writes the column statistics of a data file, which are stored in a hidden file
+ * named '.[data file name].stats' in the same directory. The statistics file contains a serialized
+ * {@link TableStatsProto}, whose number of bytes is the length of the data file. So, the statistics of a data file
+ * which was rewritten are not used.
+ */
+public class FileColumnStats {
+  private static final Log LOG = LogFactory.getLog(FileColumnStats.class);
+
+  private static final String PREFIX = ".";
+  private static final String SUFFIX = ".stats";
+
+  public static boolean isEnabled(TableMeta meta) {
+    return Boolean.parseBoolean(meta.getOption(StorageConstants.FILE_COLUMN_STATS,
+        StorageConstants.DEFAULT_FILE_COLUMN_STATS));
+  }
+
+  public static Path getStatsPath(Path dataFile) {
+    return new Path(dataFile.getParent(), PREFIX + dataFile.getName() + SUFFIX);
+  }
+
+  public static boolean isStatsFile(Path path) {
+    String name = path.getName();
+    return name.startsWith(PREFIX) && name.endsWith(SUFFIX) && name.length() > PREFIX.length() + SUFFIX.length();
+  }
+
+  public static void write(FileSystem fs, Path dataFile, TableStats stats) throws IOException {
+    FSDataOutputStream out = fs.create(getStatsPath(dataFile), true);
+    try {
+      stats.getProto().writeTo(out);
+    } finally {
+      out.close();
+    }
+  }
+
+  /**
+   * @return The statistics of the data file, or null if they do not exist or are not valid for the data file
+   */
+  public static TableStats read(FileSystem fs, FileStatus dataFile) {
+    Path statsPath = getStatsPath(dataFile.getPath());
+    try {
+      FSDataInputStream in = fs.open(statsPath);
+      TableStats stats;
+      try {
+        stats = new TableStats(TableStatsProto.parseFrom(in));
+      } finally {
+        in.close();
+      }
+      return stats.getNumBytes() == dataFile.getLen() ? stats : null;
+
+    } catch (FileNotFoundException e) {
+      return null;
+    } catch (Throwable t) {
+      LOG.warn("Cannot read the column statistics " + statsPath + ": " + t.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Move the statistics file of a data file, if it exists, along with the data file.
+   */
+  public static void move(FileSystem fs, Path dataFile, Path movedDataFile) throws IOException {
+    Path statsPath = getStatsPath(dataFile);
+    if (fs.exists(statsPath)) {
+      fs.rename(statsPath, getStatsPath(movedDataFile));
+    }
+  }
+}
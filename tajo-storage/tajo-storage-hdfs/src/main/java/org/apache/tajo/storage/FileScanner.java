@@ -29,10 +29,13 @@ import org.apache.tajo.catalog.TableMeta;
 import org.apache.tajo.catalog.statistics.ColumnStats;
 import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.plan.expr.EvalNode;
+import org.apache.tajo.plan.expr.EvalTreeUtil;
 import org.apache.tajo.storage.fragment.FileFragment;
 import org.apache.tajo.storage.fragment.Fragment;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 public abstract class FileScanner implements Scanner {
   private static final Log LOG = LogFactory.getLog(FileScanner.class);
@@ -89,6 +92,37 @@ public abstract class FileScanner implements Scanner {
     this.targets = targets;
   }
 
+  /**
+   * Find the columns which a filter refers to, so that the fields of the columns can be read before the others.
+   * If a column is not in the table schema, all columns are regarded as the filter columns.
+   *
+   * @param filter The filter bound to the targets
+   * @return Whether each column is referred by the filter, indexed by the column id in the table schema
+   */
+  protected boolean [] findFilterColumns(EvalNode filter) {
+    boolean [] filterColumns = new boolean[schema.size()];
+    for (Column column : EvalTreeUtil.findUniqueColumns(filter)) {
+      int columnId = schema.getColumnId(column.getQualifiedName());
+      if (columnId < 0) {
+        Arrays.fill(filterColumns, true);
+        break;
+      }
+      filterColumns[columnId] = true;
+    }
+    return filterColumns;
+  }
+
+  /**
+   * @return The negation of the given column mask
+   */
+  protected static boolean [] negate(boolean [] columnMask) {
+    boolean [] negated = new boolean[columnMask.length];
+    for (int i = 0; i < columnMask.length; i++) {
+      negated[i] = !columnMask[i];
+    }
+    return negated;
+  }
+
   public static FileSystem getFileSystem(TajoConf tajoConf, Path path) throws IOException {
     String tajoUser = tajoConf.getVar(TajoConf.ConfVars.USERNAME);
     FileSystem fs;
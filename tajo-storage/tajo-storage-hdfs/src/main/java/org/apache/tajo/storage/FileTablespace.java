@@ -32,14 +32,19 @@ import org.apache.hadoop.hdfs.DistributedFileSystem;
 import org.apache.hadoop.security.UserGroupInformation;
 import org.apache.tajo.*;
 import org.apache.tajo.catalog.*;
+import org.apache.tajo.catalog.proto.CatalogProtos.IndexMethod;
 import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.plan.LogicalPlan;
+import org.apache.tajo.plan.logical.IndexScanNode;
 import org.apache.tajo.plan.logical.LogicalNode;
 import org.apache.tajo.plan.logical.NodeType;
 import org.apache.tajo.plan.logical.ScanNode;
 import org.apache.tajo.storage.fragment.FileFragment;
 import org.apache.tajo.storage.fragment.Fragment;
+import org.apache.tajo.storage.index.IndexUtil;
+import org.apache.tajo.storage.index.bloom.BloomFilterIndex;
+import org.apache.tajo.storage.index.bloom.BloomFilterPredicateBuilder;
 import org.apache.tajo.util.Bytes;
 import org.apache.tajo.util.TUtil;
 
@@ -59,6 +64,15 @@ public class FileTablespace extends Tablespace {
       return !name.startsWith("_") && !name.startsWith(".");
     }
   };
+
+  /**
+   * It accepts data files and the column statistics files of them, which are moved together.
+   */
+  private static final PathFilter dataOrStatsFileFilter = new PathFilter() {
+    public boolean accept(Path p) {
+      return hiddenFileFilter.accept(p) || FileColumnStats.isStatsFile(p);
+    }
+  };
   private final Log LOG = LogFactory.getLog(FileTablespace.class);
 
   static final String OUTPUT_FILE_PREFIX="part-";
@@ -183,6 +197,19 @@ public class FileTablespace extends Tablespace {
     return getAppender(null, null, meta, schema, filePath);
   }
 
+  @Override
+  public Appender getAppender(OverridableConf queryContext,
+                              TaskAttemptId taskAttemptId, TableMeta meta, Schema schema, Path workDir)
+      throws IOException {
+    Appender appender = super.getAppender(queryContext, taskAttemptId, meta, schema, workDir);
+
+    if (appender instanceof FileAppender && FileColumnStats.isEnabled(meta)) {
+      FileAppender fileAppender = (FileAppender) appender;
+      appender = new ColumnStatsAppender(fileAppender.getPath().getFileSystem(conf), schema, fileAppender);
+    }
+    return appender;
+  }
+
   public FileFragment[] split(String tableName) throws IOException {
     Path tablePath = new Path(spacePath, tableName);
     return split(tableName, tablePath, fs.getDefaultBlockSize());
@@ -631,7 +658,87 @@ public class FileTablespace extends Tablespace {
 
   @Override
   public List<Fragment> getSplits(String tableName, TableDesc table, ScanNode scanNode) throws IOException {
-    return getSplits(tableName, table.getMeta(), table.getSchema(), new Path(table.getUri()));
+    List<Fragment> fragments =
+        getSplits(tableName, table.getMeta(), table.getSchema(), scanNode, new Path(table.getUri()));
+
+    if (scanNode instanceof IndexScanNode && ((IndexScanNode) scanNode).getIndexMethod() == IndexMethod.BLOOM) {
+      return pruneByBloomFilters(tableName, (IndexScanNode) scanNode, fragments);
+    }
+    return fragments;
+  }
+
+  /**
+   * Skip the fragments whose bloom filters show that they cannot have any row matching the qual of the scan.
+   * A fragment is scanned if its bloom filter does not exist, for example, because the fragment was appended after
+   * the index was built.
+   */
+  private List<Fragment> pruneByBloomFilters(String tableName, IndexScanNode scanNode, List<Fragment> fragments)
+      throws IOException {
+    BloomFilterPredicateBuilder.Predicate predicate =
+        BloomFilterPredicateBuilder.build(scanNode.getKeySchema(), scanNode.getQual());
+    if (predicate == null) {
+      return fragments;
+    }
+
+    BloomFilterIndex index = new BloomFilterIndex(conf);
+    Path indexPath = new Path(scanNode.getIndexPath());
+    FileSystem indexFs = indexPath.getFileSystem(conf);
+    List<Fragment> filtered = Lists.newArrayList();
+    for (Fragment fragment : fragments) {
+      Path indexFile = new Path(indexPath, IndexUtil.getIndexFileName((FileFragment) fragment));
+      if (!indexFs.exists(indexFile)) {
+        filtered.add(fragment);
+        continue;
+      }
+
+      BloomFilterIndex.BloomFilterIndexReader reader = index.getIndexReader(indexFile);
+      try {
+        reader.open();
+        if (predicate.mightMatch(reader)) {
+          filtered.add(fragment);
+        }
+      } finally {
+        reader.close();
+      }
+    }
+
+    if (filtered.size() < fragments.size()) {
+      LOG.info((fragments.size() - filtered.size()) + " fragments of " + tableName +
+          " are skipped by their bloom filters");
+    }
+    return filtered;
+  }
+
+  /**
+   * Generate the splits of the given inputs. If the column statistics of files are enabled, the files which cannot
+   * have any row matching the qual of the scan are skipped.
+   */
+  public List<Fragment> getSplits(String tableName, TableMeta meta, Schema schema, ScanNode scanNode,
+                                  Path... inputs) throws IOException {
+    if (scanNode == null || !scanNode.hasQual() || !FileColumnStats.isEnabled(meta) || inputs.length == 0) {
+      return getSplits(tableName, meta, schema, inputs);
+    }
+
+    ColumnStatsPredicateBuilder.Predicate predicate = new ColumnStatsPredicateBuilder().build(scanNode.getQual());
+    if (predicate == null) {
+      return getSplits(tableName, meta, schema, inputs);
+    }
+
+    List<Path> files = Lists.newArrayList();
+    int skipped = 0;
+    for (FileStatus file : listStatus(inputs)) {
+      TableStats stats = FileColumnStats.read(fs, file);
+      if (stats != null && !ColumnStatsPredicateBuilder.matches(predicate, stats)) {
+        skipped++;
+      } else {
+        files.add(file.getPath());
+      }
+    }
+
+    if (skipped > 0) {
+      LOG.info(skipped + " files of " + tableName + " are skipped by their column statistics");
+    }
+    return getSplits(tableName, meta, schema, files.toArray(new Path[files.size()]));
   }
 
   @Override
@@ -896,7 +1003,7 @@ public class FileTablespace extends Tablespace {
               if (fs.exists(finalOutputDir)) {
                 fs.mkdirs(oldTableDir);
 
-                for (FileStatus status : fs.listStatus(finalOutputDir, hiddenFileFilter)) {
+                for (FileStatus status : fs.listStatus(finalOutputDir, dataOrStatsFileFilter)) {
                   fs.rename(status.getPath(), oldTableDir);
                 }
 
@@ -918,7 +1025,7 @@ public class FileTablespace extends Tablespace {
               if (movedToOldTable && !committed) {
 
                 // if commit is failed, recover the old data
-                for (FileStatus status : fs.listStatus(finalOutputDir, hiddenFileFilter)) {
+                for (FileStatus status : fs.listStatus(finalOutputDir, dataOrStatsFileFilter)) {
                   fs.delete(status.getPath(), true);
                 }
 
@@ -950,7 +1057,7 @@ public class FileTablespace extends Tablespace {
             } else {
               int maxSeq = StorageUtil.getMaxFileSequence(fs, finalOutputDir, false) + 1;
               for(FileStatus eachFile: fs.listStatus(stagingResultDir)) {
-                if (eachFile.getPath().getName().startsWith("_")) {
+                if (eachFile.getPath().getName().startsWith("_") || FileColumnStats.isStatsFile(eachFile.getPath())) {
                   continue;
                 }
                 moveResultFromStageToFinal(fs, stagingResultDir, eachFile, finalOutputDir, fmt, maxSeq++, changeFileSeq);
@@ -1014,7 +1121,7 @@ public class FileTablespace extends Tablespace {
         }
         int maxSeq = StorageUtil.getMaxFileSequence(fs, finalSubPath, false);
         for (FileStatus eachFile : fs.listStatus(fileStatus.getPath())) {
-          if (eachFile.getPath().getName().startsWith("_")) {
+          if (eachFile.getPath().getName().startsWith("_") || FileColumnStats.isStatsFile(eachFile.getPath())) {
             continue;
           }
           moveResultFromStageToFinal(fs, stagingResultDir, eachFile, finalOutputPath, nf, ++maxSeq, changeFileSeq);
@@ -1037,6 +1144,7 @@ public class FileTablespace extends Tablespace {
         }
         boolean success = fs.rename(fileStatus.getPath(), finalSubPath);
         if (success) {
+          FileColumnStats.move(fs, fileStatus.getPath(), finalSubPath);
           LOG.info("Moving staging file[" + fileStatus.getPath() + "] + " +
               "to final output[" + finalSubPath + "]");
         } else {
@@ -23,11 +23,13 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.tajo.ExecutionBlockId;
 import org.apache.tajo.TaskAttemptId;
 import org.apache.tajo.catalog.statistics.TableStats;
+import org.apache.tajo.storage.HashShuffleAppenderManager.HashShuffleIntermediate;
 import org.apache.tajo.util.Pair;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -44,11 +46,26 @@ public class HashShuffleAppender implements Appender {
   //<taskId,<page start offset,<task start, task end>>>
   private Map<TaskAttemptId, List<Pair<Long, Pair<Integer, Integer>>>> taskTupleIndexes;
 
+  //<taskId,<start offset, length>>, the byte ranges of taskTupleIndexes
+  private Map<TaskAttemptId, List<Pair<Long, Integer>>> taskRanges;
+
+  //<page start offset,<task start, task end>> of the finished task attempts which did not succeed
+  private List<Pair<Long, Pair<Integer, Integer>>> failureTupleIndexes;
+
+  //<start offset, length>, the byte ranges of failureTupleIndexes
+  private List<Pair<Long, Integer>> failureRanges;
+
   //page start offset, length
   private List<Pair<Long, Integer>> pages = new ArrayList<Pair<Long, Integer>>();
 
   private Pair<Long, Integer> currentPage;
 
+  // the number of pages returned by commitPages()
+  private int committedPageNum;
+
+  // the end offset of the last committed page
+  private long committedOffset;
+
   private int pageSize; //MB
 
   private int rowNumInPage;
@@ -70,6 +87,9 @@ public class HashShuffleAppender implements Appender {
   public void init() throws IOException {
     currentPage = new Pair(0L, 0);
     taskTupleIndexes = new HashMap<TaskAttemptId, List<Pair<Long, Pair<Integer, Integer>>>>();
+    taskRanges = new HashMap<TaskAttemptId, List<Pair<Long, Integer>>>();
+    failureTupleIndexes = new ArrayList<Pair<Long, Pair<Integer, Integer>>>();
+    failureRanges = new ArrayList<Pair<Long, Integer>>();
     rowNumInPage = 0;
   }
 
@@ -103,6 +123,12 @@ public class HashShuffleAppender implements Appender {
       }
       taskIndexes.add(
           new Pair<Long, Pair<Integer, Integer>>(currentPage.getFirst(), new Pair(rowNumInPage, nextRowNum)));
+      List<Pair<Long, Integer>> ranges = taskRanges.get(taskId);
+      if (ranges == null) {
+        ranges = new ArrayList<Pair<Long, Integer>>();
+        taskRanges.put(taskId, ranges);
+      }
+      ranges.add(new Pair<Long, Integer>(currentPos, writtenBytes));
       rowNumInPage = nextRowNum;
 
       if (posAfterWritten - currentPage.getFirst() > pageSize) {
@@ -189,21 +215,156 @@ public class HashShuffleAppender implements Appender {
     return pages;
   }
 
+  /**
+   * Seal the current page, and return the pages committed since the last call.
+   * A page is committed if no running task has written rows to it. All written data are flushed,
+   * so committed pages can be fetched before this appender is closed.
+   *
+   * @return [<page start offset, length>]
+   * @throws java.io.IOException
+   */
+  public List<Pair<Long, Integer>> commitPages() throws IOException {
+    synchronized(appender) {
+      if (!closed.get()) {
+        appender.flush();
+        long pos = appender.getOffset();
+        if (pos > currentPage.getFirst()) {
+          nextPage(pos);
+          rowNumInPage = 0;
+        }
+      }
+
+      long firstRunningPage = Long.MAX_VALUE;
+      for (List<Pair<Long, Pair<Integer, Integer>>> eachTaskIndexes: taskTupleIndexes.values()) {
+        for (Pair<Long, Pair<Integer, Integer>> eachIndex: eachTaskIndexes) {
+          firstRunningPage = Math.min(firstRunningPage, eachIndex.getFirst());
+        }
+      }
+
+      List<Pair<Long, Integer>> committed = new ArrayList<Pair<Long, Integer>>();
+      while (committedPageNum < pages.size() && pages.get(committedPageNum).getFirst() < firstRunningPage) {
+        Pair<Long, Integer> page = pages.get(committedPageNum++);
+        committed.add(page);
+        committedOffset = page.getFirst() + page.getSecond();
+      }
+      return committed;
+    }
+  }
+
+  /**
+   * @return [<page start offset, length>] pages which have not been returned by commitPages()
+   */
+  public List<Pair<Long, Integer>> getUncommittedPages() {
+    synchronized(appender) {
+      return new ArrayList<Pair<Long, Integer>>(pages.subList(committedPageNum, pages.size()));
+    }
+  }
+
+  /**
+   * @return the end offset of the last committed page
+   */
+  public long getCommittedOffset() {
+    return committedOffset;
+  }
+
+  /**
+   * @return the number of pages returned by commitPages(), which is also the index of the first uncommitted page
+   */
+  public int getCommittedPageNum() {
+    return committedPageNum;
+  }
+
+  /**
+   * Commit pages like commitPages(), and return them with the indexes of the rows which the task attempts
+   * finished without success have written to them. The returned failure indexes are not returned again.
+   *
+   * @return the committed pages, or null if no page is committed
+   * @throws java.io.IOException
+   */
+  public HashShuffleIntermediate commit() throws IOException {
+    synchronized(appender) {
+      List<Pair<Long, Integer>> committed = commitPages();
+      if (committed.isEmpty()) {
+        return null;
+      }
+
+      long volume = 0;
+      for (Pair<Long, Integer> eachPage : committed) {
+        volume += eachPage.getSecond();
+      }
+
+      List<Pair<Long, Pair<Integer, Integer>>> committedFailures = new ArrayList<Pair<Long, Pair<Integer, Integer>>>();
+      List<Pair<Long, Integer>> committedFailureRanges = new ArrayList<Pair<Long, Integer>>();
+      Iterator<Pair<Long, Pair<Integer, Integer>>> indexIter = failureTupleIndexes.iterator();
+      Iterator<Pair<Long, Integer>> rangeIter = failureRanges.iterator();
+      while (indexIter.hasNext()) {
+        Pair<Long, Pair<Integer, Integer>> index = indexIter.next();
+        Pair<Long, Integer> range = rangeIter.next();
+        if (index.getFirst() < committedOffset) {
+          committedFailures.add(index);
+          committedFailureRanges.add(range);
+          indexIter.remove();
+          rangeIter.remove();
+        }
+      }
+
+      return new HashShuffleIntermediate(partId, volume, committedPageNum - committed.size(), committed,
+          committedFailures, committedFailureRanges);
+    }
+  }
+
   public Map<TaskAttemptId, List<Pair<Long, Pair<Integer, Integer>>>> getTaskTupleIndexes() {
     return taskTupleIndexes;
   }
 
+  /**
+   * @return [<page start offset,<task start, task end>>] the indexes of the rows written by the running task attempts
+   * and the ones finished without success, which are not returned by commit()
+   */
   public List<Pair<Long, Pair<Integer, Integer>>> getMergedTupleIndexes() {
     List<Pair<Long, Pair<Integer, Integer>>> merged = new ArrayList<Pair<Long, Pair<Integer, Integer>>>();
 
-    for (List<Pair<Long, Pair<Integer, Integer>>> eachFailureIndex: taskTupleIndexes.values()) {
-      merged.addAll(eachFailureIndex);
+    synchronized(appender) {
+      for (List<Pair<Long, Pair<Integer, Integer>>> eachFailureIndex: taskTupleIndexes.values()) {
+        merged.addAll(eachFailureIndex);
+      }
+      merged.addAll(failureTupleIndexes);
+    }
+
+    return merged;
+  }
+
+  /**
+   * @return [<start offset, length>] the byte ranges of getMergedTupleIndexes()
+   */
+  public List<Pair<Long, Integer>> getMergedFailureRanges() {
+    List<Pair<Long, Integer>> merged = new ArrayList<Pair<Long, Integer>>();
+
+    synchronized(appender) {
+      for (List<Pair<Long, Integer>> eachRanges: taskRanges.values()) {
+        merged.addAll(eachRanges);
+      }
+      merged.addAll(failureRanges);
     }
 
     return merged;
   }
 
-  public void taskFinished(TaskAttemptId taskId) {
-    taskTupleIndexes.remove(taskId);
+  /**
+   * Release the indexes of the rows written by a task attempt. If the task attempt did not succeed, its indexes are
+   * kept until the pages having them are committed, so that they are reported as failures.
+   *
+   * @param taskId The finished task attempt
+   * @param succeeded True if the task attempt succeeded
+   */
+  public void taskFinished(TaskAttemptId taskId, boolean succeeded) {
+    synchronized(appender) {
+      List<Pair<Long, Pair<Integer, Integer>>> indexes = taskTupleIndexes.remove(taskId);
+      List<Pair<Long, Integer>> ranges = taskRanges.remove(taskId);
+      if (!succeeded && indexes != null) {
+        failureTupleIndexes.addAll(indexes);
+        failureRanges.addAll(ranges);
+      }
+    }
   }
 }
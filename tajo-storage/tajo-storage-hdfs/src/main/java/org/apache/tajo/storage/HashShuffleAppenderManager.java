@@ -141,10 +141,14 @@ public class HashShuffleAppenderManager {
     for (PartitionAppenderMeta eachMeta : partitionAppenderMap.values()) {
       try {
         eachMeta.appender.close();
+        // If pages have been committed before, only the remaining pages are reported.
         HashShuffleIntermediate intermediate =
-            new HashShuffleIntermediate(eachMeta.partId, eachMeta.appender.getOffset(),
-                eachMeta.appender.getPages(),
-                eachMeta.appender.getMergedTupleIndexes());
+            new HashShuffleIntermediate(eachMeta.partId,
+                eachMeta.appender.getOffset() - eachMeta.appender.getCommittedOffset(),
+                eachMeta.appender.getCommittedPageNum(),
+                eachMeta.appender.getUncommittedPages(),
+                eachMeta.appender.getMergedTupleIndexes(),
+                eachMeta.appender.getMergedFailureRanges());
         intermediateEntries.add(intermediate);
       } catch (IOException e) {
         LOG.error(e.getMessage(), e);
@@ -157,7 +161,33 @@ public class HashShuffleAppenderManager {
     return intermediateEntries;
   }
 
-  public void finalizeTask(TaskAttemptId taskId) {
+  /**
+   * Commit the pages of all partitions of an execution block. It is called whenever a task finishes
+   * if pipelined shuffle is enabled, so that the pages are reported before the execution block stops.
+   *
+   * @return the pages committed since the last call. Partitions without new committed pages are excluded.
+   */
+  public List<HashShuffleIntermediate> commit(ExecutionBlockId ebId) throws IOException {
+    Map<Integer, PartitionAppenderMeta> partitionAppenderMap = appenderMap.get(ebId);
+    List<HashShuffleIntermediate> intermediateEntries = new ArrayList<HashShuffleIntermediate>();
+    if (partitionAppenderMap == null) {
+      return intermediateEntries;
+    }
+
+    for (PartitionAppenderMeta eachMeta : partitionAppenderMap.values()) {
+      HashShuffleIntermediate intermediate = eachMeta.appender.commit();
+      if (intermediate != null) {
+        intermediateEntries.add(intermediate);
+      }
+    }
+    return intermediateEntries;
+  }
+
+  /**
+   * Release the row indexes of a finished task attempt. The indexes of a task attempt which did not succeed are
+   * reported as failures with the pages having them, so that its rows are not fetched.
+   */
+  public void finalizeTask(TaskAttemptId taskId, boolean succeeded) {
     synchronized (appenderMap) {
       Map<Integer, PartitionAppenderMeta> partitionAppenderMap =
         appenderMap.get(taskId.getTaskId().getExecutionBlockId());
@@ -166,7 +196,7 @@ public class HashShuffleAppenderManager {
       }
 
       for (PartitionAppenderMeta eachAppender: partitionAppenderMap.values()) {
-        eachAppender.appender.taskFinished(taskId);
+        eachAppender.appender.taskFinished(taskId, succeeded);
       }
     }
   }
@@ -176,18 +206,27 @@ public class HashShuffleAppenderManager {
 
     private long volume;
 
+    // the index of the first page in the partition
+    private int pageIndex;
+
     //[<page start offset,<task start, task end>>]
     private Collection<Pair<Long, Pair<Integer, Integer>>> failureTskTupleIndexes;
 
+    //[<start offset, length>] the byte ranges of failureTskTupleIndexes
+    private Collection<Pair<Long, Integer>> failureRanges;
+
     //[<page start offset, length>]
     private List<Pair<Long, Integer>> pages = new ArrayList<Pair<Long, Integer>>();
 
-    public HashShuffleIntermediate(int partId, long volume,
+    public HashShuffleIntermediate(int partId, long volume, int pageIndex,
                                    List<Pair<Long, Integer>> pages,
-                                   Collection<Pair<Long, Pair<Integer, Integer>>> failureTskTupleIndexes) {
+                                   Collection<Pair<Long, Pair<Integer, Integer>>> failureTskTupleIndexes,
+                                   Collection<Pair<Long, Integer>> failureRanges) {
       this.partId = partId;
       this.volume = volume;
+      this.pageIndex = pageIndex;
       this.failureTskTupleIndexes = failureTskTupleIndexes;
+      this.failureRanges = failureRanges;
       this.pages = pages;
     }
 
@@ -199,10 +238,18 @@ public class HashShuffleAppenderManager {
       return volume;
     }
 
+    public int getPageIndex() {
+      return pageIndex;
+    }
+
     public Collection<Pair<Long, Pair<Integer, Integer>>> getFailureTskTupleIndexes() {
       return failureTskTupleIndexes;
     }
 
+    public Collection<Pair<Long, Integer>> getFailureRanges() {
+      return failureRanges;
+    }
+
     public List<Pair<Long, Integer>> getPages() {
       return pages;
     }
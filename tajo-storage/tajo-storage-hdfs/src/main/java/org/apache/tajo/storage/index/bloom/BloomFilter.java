@@ -0,0 +1,189 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage.index.bloom;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.storage.Tuple;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A bloom filter of the hashes of keys, which are computed by {@link #hash(Tuple)}. The bit indexes of a hash are
+ * computed by double hashing with the two halves of the hash.
+ *
+ * Integers of any size are hashed as the same long value, so a key of INT4 can be probed with an INT8 value. Other
+ * types must be the same as the key types (see {@link #isCompatible(Type, Type)}).
+ */
+public class BloomFilter {
+  private static final int MIN_BITS = 64;
+  private static final int MAX_HASH_FUNCTIONS = 30;
+
+  private final int hashFunctionNum;
+  private final long [] words;
+
+  /**
+   * @param bitNum The number of bits, which is rounded up to a multiple of 64
+   */
+  public BloomFilter(long bitNum, int hashFunctionNum) {
+    this(new long[(int) Math.min(Integer.MAX_VALUE, (Math.max(MIN_BITS, bitNum) + 63) / 64)], hashFunctionNum);
+  }
+
+  private BloomFilter(long [] words, int hashFunctionNum) {
+    this.words = words;
+    this.hashFunctionNum = hashFunctionNum;
+  }
+
+  /**
+   * @return A bloom filter sized to have the given false positive probability with the given number of keys
+   */
+  public static BloomFilter create(long keyNum, double fpp) {
+    // the optimal number of bits is -n * ln(p) / ln(2)^2, and that of hash functions is (bits / n) * ln(2).
+    long bitNum = Math.max(MIN_BITS, (long) Math.ceil(-keyNum * Math.log(fpp) / (Math.log(2) * Math.log(2))));
+    double bitsPerKey = (double) bitNum / Math.max(1, keyNum);
+    int hashFunctionNum = (int) Math.min(MAX_HASH_FUNCTIONS, Math.max(1, Math.round(bitsPerKey * Math.log(2))));
+    return new BloomFilter(bitNum, hashFunctionNum);
+  }
+
+  /**
+   * @return True if a key of the given type can be probed with a value of the other type
+   */
+  public static boolean isCompatible(Type keyType, Type valueType) {
+    return keyType == valueType || (isInteger(keyType) && isInteger(valueType));
+  }
+
+  private static boolean isInteger(Type type) {
+    return type == Type.INT1 || type == Type.INT2 || type == Type.INT4 || type == Type.INT8;
+  }
+
+  public static long hash(Tuple key) {
+    Hasher hasher = Hashing.murmur3_128().newHasher();
+    for (int i = 0; i < key.size(); i++) {
+      putField(hasher, key, i);
+    }
+    return hasher.hash().asLong();
+  }
+
+  /**
+   * @return The hash of the key which consists of the given fields of the tuple
+   */
+  public static long hash(Tuple tuple, int [] keyIds) {
+    Hasher hasher = Hashing.murmur3_128().newHasher();
+    for (int keyId : keyIds) {
+      putField(hasher, tuple, keyId);
+    }
+    return hasher.hash().asLong();
+  }
+
+  private static void putField(Hasher hasher, Tuple tuple, int fieldId) {
+    if (tuple.isBlankOrNull(fieldId)) {
+      hasher.putByte((byte) 0);
+      return;
+    }
+
+    hasher.putByte((byte) 1);
+    Datum datum = tuple.asDatum(fieldId);
+    if (isInteger(datum.type())) {
+      hasher.putLong(datum.asInt8());
+    } else {
+      hasher.putBytes(datum.asByteArray());
+    }
+  }
+
+  public int getHashFunctionNum() {
+    return hashFunctionNum;
+  }
+
+  public long getBitNum() {
+    return (long) words.length * 64;
+  }
+
+  public void add(long hash) {
+    long bitNum = getBitNum();
+    int hash1 = (int) hash;
+    int hash2 = (int) (hash >>> 32);
+    for (int i = 1; i <= hashFunctionNum; i++) {
+      int combined = hash1 + i * hash2;
+      long index = (combined < 0 ? ~combined : combined) % bitNum;
+      words[(int) (index >>> 6)] |= 1L << index;
+    }
+  }
+
+  /**
+   * @return False if the hash was definitely not added
+   */
+  public boolean mightContain(long hash) {
+    long bitNum = getBitNum();
+    int hash1 = (int) hash;
+    int hash2 = (int) (hash >>> 32);
+    for (int i = 1; i <= hashFunctionNum; i++) {
+      int combined = hash1 + i * hash2;
+      long index = (combined < 0 ? ~combined : combined) % bitNum;
+      if ((words[(int) (index >>> 6)] & (1L << index)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Add all hashes of the other bloom filter, which must have the same number of bits and hash functions.
+   */
+  public void merge(BloomFilter other) {
+    if (words.length != other.words.length || hashFunctionNum != other.hashFunctionNum) {
+      throw new IllegalArgumentException("Bloom filters of different sizes cannot be merged");
+    }
+    for (int i = 0; i < words.length; i++) {
+      words[i] |= other.words[i];
+    }
+  }
+
+  /**
+   * @return The ratio of set bits. The false positive probability is this ratio to the power of the number of
+   * hash functions.
+   */
+  public double getFillRatio() {
+    long setBits = 0;
+    for (long word : words) {
+      setBits += Long.bitCount(word);
+    }
+    return (double) setBits / getBitNum();
+  }
+
+  public void write(DataOutput out) throws IOException {
+    out.writeInt(hashFunctionNum);
+    out.writeInt(words.length);
+    for (long word : words) {
+      out.writeLong(word);
+    }
+  }
+
+  public static BloomFilter read(DataInput in) throws IOException {
+    int hashFunctionNum = in.readInt();
+    long [] words = new long[in.readInt()];
+    for (int i = 0; i < words.length; i++) {
+      words[i] = in.readLong();
+    }
+    return new BloomFilter(words, hashFunctionNum);
+  }
+}
@@ -0,0 +1,162 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage.index.bloom;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.proto.CatalogProtos.SchemaProto;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.index.IndexWriter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * This is a bloom filter index, which is built for each fragment of a table. Unlike the BST index, it does not
+ * find the rows of a key. Instead, it tells that a fragment does not have a key, so that the fragment is not
+ * scanned for equality and IN predicates on the key. It is useful for point lookups on unsorted and high-cardinality
+ * keys. See {@link BloomFilter} for the key types which can be probed.
+ */
+public class BloomFilterIndex {
+  /** the false positive probability of bloom filters, which is an index parameter */
+  public static final String FPP = "bloom.fpp";
+  public static final double DEFAULT_FPP = 0.01;
+
+  private final Configuration conf;
+
+  public BloomFilterIndex(final Configuration conf) {
+    this.conf = conf;
+  }
+
+  public BloomFilterIndexWriter getIndexWriter(final Path fileName, Schema keySchema, double fpp) {
+    return new BloomFilterIndexWriter(fileName, keySchema, fpp);
+  }
+
+  public BloomFilterIndexReader getIndexReader(final Path fileName) {
+    return new BloomFilterIndexReader(fileName);
+  }
+
+  /**
+   * BloomFilterIndexWriter collects the hashes of keys, and builds a bloom filter sized to the number of keys when
+   * it is closed. It is not thread-safe.
+   */
+  public class BloomFilterIndexWriter extends IndexWriter implements Closeable {
+    private final Path fileName;
+    private final Schema keySchema;
+    private final double fpp;
+
+    private FileSystem fs;
+    private long [] hashes = new long[1024];
+    private int hashNum = 0;
+
+    public BloomFilterIndexWriter(final Path fileName, Schema keySchema, double fpp) {
+      this.fileName = fileName;
+      this.keySchema = keySchema;
+      this.fpp = fpp;
+    }
+
+    public void open() throws IOException {
+      fs = fileName.getFileSystem(conf);
+      if (fs.exists(fileName)) {
+        throw new IOException("ERROR: index file (" + fileName + " already exists");
+      }
+    }
+
+    /**
+     * @param offset It is not used, because a bloom filter does not locate rows.
+     */
+    @Override
+    public void write(final Tuple key, final long offset) throws IOException {
+      if (hashNum == hashes.length) {
+        hashes = Arrays.copyOf(hashes, hashes.length * 2);
+      }
+      hashes[hashNum++] = BloomFilter.hash(key);
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (hashes == null) {
+        return;
+      }
+
+      BloomFilter filter = BloomFilter.create(hashNum, fpp);
+      for (int i = 0; i < hashNum; i++) {
+        filter.add(hashes[i]);
+      }
+      hashes = null;
+
+      FSDataOutputStream out = fs.create(fileName);
+      try {
+        byte [] schemaBytes = keySchema.getProto().toByteArray();
+        out.writeInt(schemaBytes.length);
+        out.write(schemaBytes);
+        filter.write(out);
+      } finally {
+        out.close();
+      }
+    }
+  }
+
+  /**
+   * BloomFilterIndexReader loads a bloom filter into memory.
+   */
+  public class BloomFilterIndexReader implements Closeable {
+    private final Path fileName;
+    private Schema keySchema;
+    private BloomFilter filter;
+
+    public BloomFilterIndexReader(final Path fileName) {
+      this.fileName = fileName;
+    }
+
+    public void open() throws IOException {
+      FileSystem fs = fileName.getFileSystem(conf);
+      FSDataInputStream in = fs.open(fileName);
+      try {
+        byte [] schemaBytes = new byte[in.readInt()];
+        in.readFully(schemaBytes);
+        keySchema = new Schema(SchemaProto.parseFrom(schemaBytes));
+        filter = BloomFilter.read(in);
+      } finally {
+        in.close();
+      }
+    }
+
+    public Schema getKeySchema() {
+      return keySchema;
+    }
+
+    /**
+     * @return False if the key is definitely not in the fragment
+     */
+    public boolean mightContain(Tuple key) {
+      return filter.mightContain(BloomFilter.hash(key));
+    }
+
+    @Override
+    public void close() throws IOException {
+      filter = null;
+    }
+  }
+}
@@ -0,0 +1,155 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage.index.bloom;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.plan.expr.*;
+import org.apache.tajo.storage.PredicatePushdownBuilder;
+import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.storage.index.bloom.BloomFilterIndex.BloomFilterIndexReader;
+
+/**
+ * BloomFilterPredicateBuilder translates a filter into a predicate on the bloom filter of a fragment, which is used
+ * to skip the fragments which cannot have any matching row.
+ *
+ * For an index of a single key, equality, IN and IS NULL predicates on the key are translated in any combination of
+ * AND, OR and NOT. For an index of multiple keys, a key is probed only if the filter is a conjunction which has an
+ * equality predicate for every key. Columns are matched by their simple names.
+ */
+public class BloomFilterPredicateBuilder extends PredicatePushdownBuilder<BloomFilterPredicateBuilder.Predicate> {
+
+  public interface Predicate {
+    /**
+     * @return False if no row of the fragment can match
+     */
+    boolean mightMatch(BloomFilterIndexReader reader);
+  }
+
+  private final Column key;
+
+  private BloomFilterPredicateBuilder(Column key) {
+    this.key = key;
+  }
+
+  /**
+   * @return A predicate, or null if the filter cannot be evaluated with the bloom filters of the keys
+   */
+  public static Predicate build(Schema keySchema, EvalNode filter) {
+    if (filter == null) {
+      return null;
+    }
+    if (keySchema.size() == 1) {
+      return new BloomFilterPredicateBuilder(keySchema.getColumn(0)).build(filter);
+    }
+
+    Datum[] values = new Datum[keySchema.size()];
+    for (EvalNode conjunct : AlgebraicUtil.toConjunctiveNormalFormArray(filter)) {
+      if (conjunct.getType() != EvalType.EQUAL) {
+        continue;
+      }
+      BinaryEval binary = (BinaryEval) conjunct;
+      EvalNode field = binary.getLeftExpr();
+      EvalNode constant = binary.getRightExpr();
+      if (field.getType() == EvalType.CONST) {
+        field = binary.getRightExpr();
+        constant = binary.getLeftExpr();
+      }
+      if (field.getType() != EvalType.FIELD || constant.getType() != EvalType.CONST) {
+        continue;
+      }
+
+      int idx = findKey(keySchema, ((FieldEval) field).getColumnRef());
+      Datum value = ((ConstEval) constant).getValue();
+      if (idx >= 0 && isProbable(keySchema.getColumn(idx), value)) {
+        values[idx] = value;
+      }
+    }
+
+    for (Datum value : values) {
+      if (value == null) {
+        return null;
+      }
+    }
+    return new KeyPredicate(new VTuple(values));
+  }
+
+  private static int findKey(Schema keySchema, Column column) {
+    for (int i = 0; i < keySchema.size(); i++) {
+      if (keySchema.getColumn(i).getSimpleName().equals(column.getSimpleName())) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean isProbable(Column key, Datum value) {
+    return !value.isNull() && BloomFilter.isCompatible(key.getDataType().getType(), value.type());
+  }
+
+  @Override
+  protected Predicate compare(Column column, EvalType op, Datum value) {
+    if (op != EvalType.EQUAL || !column.getSimpleName().equals(key.getSimpleName()) || !isProbable(key, value)) {
+      return null;
+    }
+    return new KeyPredicate(new VTuple(new Datum[] {value}));
+  }
+
+  @Override
+  protected Predicate isNull(Column column, boolean not) {
+    if (not || !column.getSimpleName().equals(key.getSimpleName())) {
+      return null;
+    }
+    return new KeyPredicate(new VTuple(1));
+  }
+
+  @Override
+  protected Predicate createAnd(final Predicate left, final Predicate right) {
+    return new Predicate() {
+      @Override
+      public boolean mightMatch(BloomFilterIndexReader reader) {
+        return left.mightMatch(reader) && right.mightMatch(reader);
+      }
+    };
+  }
+
+  @Override
+  protected Predicate createOr(final Predicate left, final Predicate right) {
+    return new Predicate() {
+      @Override
+      public boolean mightMatch(BloomFilterIndexReader reader) {
+        return left.mightMatch(reader) || right.mightMatch(reader);
+      }
+    };
+  }
+
+  private static class KeyPredicate implements Predicate {
+    private final VTuple key;
+
+    KeyPredicate(VTuple key) {
+      this.key = key;
+    }
+
+    @Override
+    public boolean mightMatch(BloomFilterIndexReader reader) {
+      return reader.mightContain(key);
+    }
+  }
+}
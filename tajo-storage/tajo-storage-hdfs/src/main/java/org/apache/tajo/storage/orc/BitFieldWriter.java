@@ -0,0 +1,66 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage.orc;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * BitFieldWriter packs bits into bytes from the most significant bit, and the bytes are run-length encoded.
+ */
+class BitFieldWriter {
+  private final RunLengthByteWriter output;
+  private int current = 0;
+  private int bitsLeft = 8;
+
+  BitFieldWriter(OrcOutStream output) {
+    this.output = new RunLengthByteWriter(output);
+  }
+
+  void write(boolean value) throws IOException {
+    bitsLeft--;
+    if (value) {
+      current |= 1 << bitsLeft;
+    }
+    if (bitsLeft == 0) {
+      writeByte();
+    }
+  }
+
+  private void writeByte() throws IOException {
+    output.write((byte) current);
+    current = 0;
+    bitsLeft = 8;
+  }
+
+  void flush() throws IOException {
+    if (bitsLeft != 8) {
+      writeByte();
+    }
+    output.flush();
+  }
+
+  /**
+   * Record the position of the next bit, which is the position of the current byte and the number of bits used in it.
+   */
+  void getPosition(List<Long> positions) {
+    output.getPosition(positions);
+    positions.add((long) (8 - bitsLeft));
+  }
+}
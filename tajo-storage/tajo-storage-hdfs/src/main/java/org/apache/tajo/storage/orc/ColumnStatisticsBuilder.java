@@ -0,0 +1,386 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage.orc;
+
+import org.apache.hadoop.hive.ql.io.orc.OrcProto;
+
+import java.nio.charset.Charset;
+
+/**
+ * ColumnStatisticsBuilder collects the statistics of a column for a row group, a stripe or a file. The statistics of
+ * a row group are merged into the ones of its stripe, and the ones of a stripe are merged into the ones of the file.
+ */
+class ColumnStatisticsBuilder {
+  /** the number of non-null values */
+  protected long numberOfValues;
+
+  void increment() {
+    numberOfValues++;
+  }
+
+  void merge(ColumnStatisticsBuilder other) {
+    numberOfValues += other.numberOfValues;
+  }
+
+  void reset() {
+    numberOfValues = 0;
+  }
+
+  /**
+   * @return A builder which has no statistics of the same type
+   */
+  ColumnStatisticsBuilder newInstance() {
+    return new ColumnStatisticsBuilder();
+  }
+
+  OrcProto.ColumnStatistics build() {
+    OrcProto.ColumnStatistics.Builder builder = OrcProto.ColumnStatistics.newBuilder();
+    builder.setNumberOfValues(numberOfValues);
+    addTypeStatistics(builder);
+    return builder.build();
+  }
+
+  protected void addTypeStatistics(OrcProto.ColumnStatistics.Builder builder) {
+  }
+
+  static class BooleanStatistics extends ColumnStatisticsBuilder {
+    private long trueCount;
+
+    void update(boolean value) {
+      if (value) {
+        trueCount++;
+      }
+      numberOfValues++;
+    }
+
+    @Override
+    void merge(ColumnStatisticsBuilder other) {
+      super.merge(other);
+      trueCount += ((BooleanStatistics) other).trueCount;
+    }
+
+    @Override
+    void reset() {
+      super.reset();
+      trueCount = 0;
+    }
+
+    @Override
+    ColumnStatisticsBuilder newInstance() {
+      return new BooleanStatistics();
+    }
+
+    @Override
+    protected void addTypeStatistics(OrcProto.ColumnStatistics.Builder builder) {
+      builder.setBucketStatistics(OrcProto.BucketStatistics.newBuilder().addCount(trueCount));
+    }
+  }
+
+  static class IntegerStatistics extends ColumnStatisticsBuilder {
+    private long min;
+    private long max;
+    private long sum;
+    private boolean overflow;
+
+    void update(long value) {
+      if (numberOfValues == 0) {
+        min = max = value;
+      } else if (value < min) {
+        min = value;
+      } else if (value > max) {
+        max = value;
+      }
+      addSum(value);
+      numberOfValues++;
+    }
+
+    private void addSum(long value) {
+      if (!overflow) {
+        long result = sum + value;
+        // the sum is dropped if it overflows
+        overflow = ((sum ^ result) & (value ^ result)) < 0;
+        sum = result;
+      }
+    }
+
+    @Override
+    void merge(ColumnStatisticsBuilder other) {
+      IntegerStatistics stats = (IntegerStatistics) other;
+      if (stats.numberOfValues > 0) {
+        if (numberOfValues == 0) {
+          min = stats.min;
+          max = stats.max;
+        } else {
+          min = Math.min(min, stats.min);
+          max = Math.max(max, stats.max);
+        }
+        overflow |= stats.overflow;
+        addSum(stats.sum);
+      }
+      super.merge(other);
+    }
+
+    @Override
+    void reset() {
+      super.reset();
+      sum = 0;
+      overflow = false;
+    }
+
+    @Override
+    ColumnStatisticsBuilder newInstance() {
+      return new IntegerStatistics();
+    }
+
+    @Override
+    protected void addTypeStatistics(OrcProto.ColumnStatistics.Builder builder) {
+      if (numberOfValues > 0) {
+        OrcProto.IntegerStatistics.Builder stats = OrcProto.IntegerStatistics.newBuilder();
+        stats.setMinimum(min).setMaximum(max);
+        if (!overflow) {
+          stats.setSum(sum);
+        }
+        builder.setIntStatistics(stats);
+      }
+    }
+  }
+
+  static class DoubleStatistics extends ColumnStatisticsBuilder {
+    private double min;
+    private double max;
+    private double sum;
+    /** min and max are dropped if there is NaN, which is not ordered */
+    private boolean hasNaN;
+
+    void update(double value) {
+      if (Double.isNaN(value)) {
+        hasNaN = true;
+      } else if (numberOfValues == 0) {
+        min = max = value;
+      } else if (value < min) {
+        min = value;
+      } else if (value > max) {
+        max = value;
+      }
+      sum += value;
+      numberOfValues++;
+    }
+
+    @Override
+    void merge(ColumnStatisticsBuilder other) {
+      DoubleStatistics stats = (DoubleStatistics) other;
+      if (stats.numberOfValues > 0) {
+        if (numberOfValues == 0) {
+          min = stats.min;
+          max = stats.max;
+        } else {
+          min = Math.min(min, stats.min);
+          max = Math.max(max, stats.max);
+        }
+        hasNaN |= stats.hasNaN;
+        sum += stats.sum;
+      }
+      super.merge(other);
+    }
+
+    @Override
+    void reset() {
+      super.reset();
+      sum = 0;
+      hasNaN = false;
+    }
+
+    @Override
+    ColumnStatisticsBuilder newInstance() {
+      return new DoubleStatistics();
+    }
+
+    @Override
+    protected void addTypeStatistics(OrcProto.ColumnStatistics.Builder builder) {
+      if (numberOfValues > 0 && !hasNaN) {
+        builder.setDoubleStatistics(OrcProto.DoubleStatistics.newBuilder().setMinimum(min).setMaximum(max).setSum(sum));
+      }
+    }
+  }
+
+  /**
+   * Statistics of strings, whose min and max are compared by their UTF-8 bytes.
+   */
+  static class StringStatistics extends ColumnStatisticsBuilder {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private byte [] min = new byte[16];
+    private int minLength;
+    private byte [] max = new byte[16];
+    private int maxLength;
+    private long sum;
+
+    void update(byte [] value, int offset, int length) {
+      if (numberOfValues == 0) {
+        min = set(min, value, offset, length);
+        minLength = length;
+        max = set(max, value, offset, length);
+        maxLength = length;
+      } else if (compare(value, offset, length, min, minLength) < 0) {
+        min = set(min, value, offset, length);
+        minLength = length;
+      } else if (compare(value, offset, length, max, maxLength) > 0) {
+        max = set(max, value, offset, length);
+        maxLength = length;
+      }
+      sum += length;
+      numberOfValues++;
+    }
+
+    @Override
+    void merge(ColumnStatisticsBuilder other) {
+      StringStatistics stats = (StringStatistics) other;
+      if (stats.numberOfValues > 0) {
+        if (numberOfValues == 0 || compare(stats.min, 0, stats.minLength, min, minLength) < 0) {
+          min = set(min, stats.min, 0, stats.minLength);
+          minLength = stats.minLength;
+        }
+        if (numberOfValues == 0 || compare(stats.max, 0, stats.maxLength, max, maxLength) > 0) {
+          max = set(max, stats.max, 0, stats.maxLength);
+          maxLength = stats.maxLength;
+        }
+        sum += stats.sum;
+      }
+      super.merge(other);
+    }
+
+    @Override
+    void reset() {
+      super.reset();
+      sum = 0;
+    }
+
+    @Override
+    ColumnStatisticsBuilder newInstance() {
+      return new StringStatistics();
+    }
+
+    @Override
+    protected void addTypeStatistics(OrcProto.ColumnStatistics.Builder builder) {
+      if (numberOfValues > 0) {
+        builder.setStringStatistics(OrcProto.StringStatistics.newBuilder()
+            .setMinimum(new String(min, 0, minLength, UTF8))
+            .setMaximum(new String(max, 0, maxLength, UTF8))
+            .setSum(sum));
+      }
+    }
+
+    private static byte [] set(byte [] buffer, byte [] value, int offset, int length) {
+      if (buffer.length < length) {
+        buffer = new byte[Math.max(length, buffer.length * 2)];
+      }
+      System.arraycopy(value, offset, buffer, 0, length);
+      return buffer;
+    }
+
+    private static int compare(byte [] b1, int offset1, int length1, byte [] b2, int length2) {
+      int length = Math.min(length1, length2);
+      for (int i = 0; i < length; i++) {
+        int c1 = b1[offset1 + i] & 0xff;
+        int c2 = b2[i] & 0xff;
+        if (c1 != c2) {
+          return c1 - c2;
+        }
+      }
+      return length1 - length2;
+    }
+  }
+
+  static class BinaryStatistics extends ColumnStatisticsBuilder {
+    private long sum;
+
+    void update(int length) {
+      sum += length;
+      numberOfValues++;
+    }
+
+    @Override
+    void merge(ColumnStatisticsBuilder other) {
+      super.merge(other);
+      sum += ((BinaryStatistics) other).sum;
+    }
+
+    @Override
+    void reset() {
+      super.reset();
+      sum = 0;
+    }
+
+    @Override
+    ColumnStatisticsBuilder newInstance() {
+      return new BinaryStatistics();
+    }
+
+    @Override
+    protected void addTypeStatistics(OrcProto.ColumnStatistics.Builder builder) {
+      builder.setBinaryStatistics(OrcProto.BinaryStatistics.newBuilder().setSum(sum));
+    }
+  }
+
+  /**
+   * Statistics of dates, which are the number of days since the epoch.
+   */
+  static class DateStatistics extends ColumnStatisticsBuilder {
+    private int min;
+    private int max;
+
+    void update(int value) {
+      if (numberOfValues == 0) {
+        min = max = value;
+      } else if (value < min) {
+        min = value;
+      } else if (value > max) {
+        max = value;
+      }
+      numberOfValues++;
+    }
+
+    @Override
+    void merge(ColumnStatisticsBuilder other) {
+      DateStatistics stats = (DateStatistics) other;
+      if (stats.numberOfValues > 0) {
+        if (numberOfValues == 0) {
+          min = stats.min;
+          max = stats.max;
+        } else {
+          min = Math.min(min, stats.min);
+          max = Math.max(max, stats.max);
+        }
+      }
+      super.merge(other);
+    }
+
+    @Override
+    ColumnStatisticsBuilder newInstance() {
+      return new DateStatistics();
+    }
+
+    @Override
+    protected void addTypeStatistics(OrcProto.ColumnStatistics.Builder builder) {
+      if (numberOfValues > 0) {
+        builder.setDateStatistics(OrcProto.DateStatistics.newBuilder().setMinimum(min).setMaximum(max));
+      }
+    }
+  }
+}
@@ -0,0 +1,489 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage.orc;
+
+import org.apache.hadoop.hive.ql.io.orc.OrcProto;
+import org.apache.tajo.common.TajoDataTypes;
+import org.apache.tajo.exception.NotImplementedException;
+import org.apache.tajo.exception.TajoRuntimeException;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.orc.ColumnStatisticsBuilder.*;
+import org.apache.tajo.util.datetime.DateTimeUtil;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ColumnWriter writes the values of a column into the streams of a stripe, and it builds the row index of the column.
+ *
+ * The PRESENT stream has a bit for each row which is set if the value is not null. It is not written for a stripe
+ * without nulls, and then its positions are removed from the row index.
+ */
+abstract class ColumnWriter {
+  /** the column id of ORC, where 0 is the root struct */
+  protected final int id;
+  private final OrcProto.Type.Kind kind;
+  private final OrcOutStream.Codec codec;
+  private final int bufferSize;
+
+  private final Map<OrcProto.Stream.Kind, OrcOutStream> streams =
+      new LinkedHashMap<OrcProto.Stream.Kind, OrcOutStream>();
+  private final BitFieldWriter present;
+  private boolean hasNulls;
+
+  protected final ColumnStatisticsBuilder rowGroupStats;
+  private final ColumnStatisticsBuilder stripeStats;
+  private final ColumnStatisticsBuilder fileStats;
+
+  /** the positions of the current row group */
+  private List<Long> presentPositions = new ArrayList<Long>();
+  private List<Long> dataPositions = new ArrayList<Long>();
+  /** the row index entries of the current stripe */
+  private final List<List<Long>> indexPresentPositions = new ArrayList<List<Long>>();
+  private final List<List<Long>> indexDataPositions = new ArrayList<List<Long>>();
+  private final List<OrcProto.ColumnStatistics> indexStatistics = new ArrayList<OrcProto.ColumnStatistics>();
+
+  ColumnWriter(int id, OrcProto.Type.Kind kind, ColumnStatisticsBuilder stats, OrcOutStream.Codec codec,
+               int bufferSize) {
+    this.id = id;
+    this.kind = kind;
+    this.codec = codec;
+    this.bufferSize = bufferSize;
+    this.present = new BitFieldWriter(createStream(OrcProto.Stream.Kind.PRESENT));
+    this.rowGroupStats = stats;
+    this.stripeStats = stats.newInstance();
+    this.fileStats = stats.newInstance();
+  }
+
+  protected OrcOutStream createStream(OrcProto.Stream.Kind streamKind) {
+    OrcOutStream stream = new OrcOutStream(codec, bufferSize);
+    streams.put(streamKind, stream);
+    return stream;
+  }
+
+  OrcProto.Type.Kind getKind() {
+    return kind;
+  }
+
+  void write(Tuple tuple, int fieldId) throws IOException {
+    if (tuple.isBlankOrNull(fieldId)) {
+      writeNull();
+    } else {
+      present.write(true);
+      writeValue(tuple, fieldId);
+    }
+  }
+
+  protected void writeNull() throws IOException {
+    present.write(false);
+    hasNulls = true;
+  }
+
+  /**
+   * Write a non-null value, and update {@link #rowGroupStats}.
+   */
+  protected abstract void writeValue(Tuple tuple, int fieldId) throws IOException;
+
+  /**
+   * Record the positions of the data streams in the order that readers seek them.
+   */
+  protected abstract void getDataPositions(List<Long> positions);
+
+  protected abstract void flushData() throws IOException;
+
+  /**
+   * Record the positions where the next row group starts.
+   */
+  void recordPositions() {
+    presentPositions.clear();
+    present.getPosition(presentPositions);
+    dataPositions.clear();
+    getDataPositions(dataPositions);
+  }
+
+  void finishRowGroup() {
+    indexPresentPositions.add(presentPositions);
+    indexDataPositions.add(dataPositions);
+    indexStatistics.add(rowGroupStats.build());
+    stripeStats.merge(rowGroupStats);
+    rowGroupStats.reset();
+
+    presentPositions = new ArrayList<Long>();
+    dataPositions = new ArrayList<Long>();
+    recordPositions();
+  }
+
+  long getBufferedSize() {
+    long size = 0;
+    for (OrcOutStream stream : streams.values()) {
+      size += stream.getBufferedSize();
+    }
+    return size;
+  }
+
+  void flush() throws IOException {
+    present.flush();
+    flushData();
+  }
+
+  OrcProto.RowIndex buildRowIndex() {
+    OrcProto.RowIndex.Builder builder = OrcProto.RowIndex.newBuilder();
+    for (int i = 0; i < indexStatistics.size(); i++) {
+      OrcProto.RowIndexEntry.Builder entry = OrcProto.RowIndexEntry.newBuilder();
+      if (hasNulls) {
+        entry.addAllPositions(indexPresentPositions.get(i));
+      }
+      entry.addAllPositions(indexDataPositions.get(i));
+      entry.setStatistics(indexStatistics.get(i));
+      builder.addEntry(entry);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Write the data streams of the current stripe, which must be flushed, and add them to the stripe footer.
+   *
+   * @return The length of the written streams
+   */
+  long writeStreams(OutputStream out, OrcProto.StripeFooter.Builder footer) throws IOException {
+    long dataLength = 0;
+    for (Map.Entry<OrcProto.Stream.Kind, OrcOutStream> entry : streams.entrySet()) {
+      if (entry.getKey() == OrcProto.Stream.Kind.PRESENT && !hasNulls) {
+        entry.getValue().clear();
+        continue;
+      }
+      long length = entry.getValue().writeTo(out);
+      footer.addStreams(OrcProto.Stream.newBuilder().setKind(entry.getKey()).setColumn(id).setLength(length));
+      dataLength += length;
+    }
+    return dataLength;
+  }
+
+  /**
+   * Finish the current stripe, and start the next one.
+   *
+   * @return The statistics of the stripe
+   */
+  OrcProto.ColumnStatistics finishStripe() {
+    OrcProto.ColumnStatistics stats = stripeStats.build();
+    fileStats.merge(stripeStats);
+    stripeStats.reset();
+
+    hasNulls = false;
+    indexPresentPositions.clear();
+    indexDataPositions.clear();
+    indexStatistics.clear();
+    recordPositions();
+    return stats;
+  }
+
+  OrcProto.ColumnStatistics getFileStatistics() {
+    return fileStats.build();
+  }
+
+  static ColumnWriter create(int id, TajoDataTypes.DataType type, OrcOutStream.Codec codec, int bufferSize,
+                             DateTimeZone timeZone) {
+    switch (type.getType()) {
+    case BOOLEAN:
+      return new BooleanColumnWriter(id, codec, bufferSize, false);
+    case NULL_TYPE:
+      return new BooleanColumnWriter(id, codec, bufferSize, true);
+    case INT1:
+    case INT2:
+      return new IntegerColumnWriter(id, OrcProto.Type.Kind.SHORT, type.getType(), codec, bufferSize);
+    case INT4:
+    case INET4:
+      return new IntegerColumnWriter(id, OrcProto.Type.Kind.INT, type.getType(), codec, bufferSize);
+    case INT8:
+      return new IntegerColumnWriter(id, OrcProto.Type.Kind.LONG, type.getType(), codec, bufferSize);
+    case FLOAT4:
+      return new FloatColumnWriter(id, OrcProto.Type.Kind.FLOAT, codec, bufferSize);
+    case FLOAT8:
+      return new FloatColumnWriter(id, OrcProto.Type.Kind.DOUBLE, codec, bufferSize);
+    case CHAR:
+    case TEXT:
+      return new StringColumnWriter(id, OrcProto.Type.Kind.STRING, codec, bufferSize);
+    case BLOB:
+    case PROTOBUF:
+      return new StringColumnWriter(id, OrcProto.Type.Kind.BINARY, codec, bufferSize);
+    case DATE:
+      return new DateColumnWriter(id, codec, bufferSize);
+    case TIMESTAMP:
+      return new TimestampColumnWriter(id, codec, bufferSize, timeZone);
+    default:
+      throw new TajoRuntimeException(new NotImplementedException(type.getType().name() + " for orc"));
+    }
+  }
+
+  private static class BooleanColumnWriter extends ColumnWriter {
+    private final BitFieldWriter data;
+    /** NULL_TYPE is written as a boolean column which has only nulls */
+    private final boolean alwaysNull;
+
+    BooleanColumnWriter(int id, OrcOutStream.Codec codec, int bufferSize, boolean alwaysNull) {
+      super(id, OrcProto.Type.Kind.BOOLEAN, new BooleanStatistics(), codec, bufferSize);
+      this.data = new BitFieldWriter(createStream(OrcProto.Stream.Kind.DATA));
+      this.alwaysNull = alwaysNull;
+    }
+
+    @Override
+    void write(Tuple tuple, int fieldId) throws IOException {
+      if (alwaysNull) {
+        writeNull();
+      } else {
+        super.write(tuple, fieldId);
+      }
+    }
+
+    @Override
+    protected void writeValue(Tuple tuple, int fieldId) throws IOException {
+      boolean value = tuple.getBool(fieldId);
+      data.write(value);
+      ((BooleanStatistics) rowGroupStats).update(value);
+    }
+
+    @Override
+    protected void getDataPositions(List<Long> positions) {
+      data.getPosition(positions);
+    }
+
+    @Override
+    protected void flushData() throws IOException {
+      data.flush();
+    }
+  }
+
+  private static class IntegerColumnWriter extends ColumnWriter {
+    private final RunLengthIntegerWriter data;
+    private final TajoDataTypes.Type type;
+
+    IntegerColumnWriter(int id, OrcProto.Type.Kind kind, TajoDataTypes.Type type, OrcOutStream.Codec codec,
+                        int bufferSize) {
+      super(id, kind, new IntegerStatistics(), codec, bufferSize);
+      this.data = new RunLengthIntegerWriter(createStream(OrcProto.Stream.Kind.DATA), true);
+      this.type = type;
+    }
+
+    @Override
+    protected void writeValue(Tuple tuple, int fieldId) throws IOException {
+      long value;
+      switch (type) {
+      case INT1:
+      case INT2:
+        value = tuple.getInt2(fieldId);
+        break;
+      case INT8:
+        value = tuple.getInt8(fieldId);
+        break;
+      default:
+        value = tuple.getInt4(fieldId);
+      }
+      data.write(value);
+      ((IntegerStatistics) rowGroupStats).update(value);
+    }
+
+    @Override
+    protected void getDataPositions(List<Long> positions) {
+      data.getPosition(positions);
+    }
+
+    @Override
+    protected void flushData() throws IOException {
+      data.flush();
+    }
+  }
+
+  /**
+   * Writes floats and doubles in the little-endian IEEE 754 format.
+   */
+  private static class FloatColumnWriter extends ColumnWriter {
+    private final OrcOutStream data;
+    private final boolean isFloat;
+    private final byte [] buffer = new byte[8];
+
+    FloatColumnWriter(int id, OrcProto.Type.Kind kind, OrcOutStream.Codec codec, int bufferSize) {
+      super(id, kind, new DoubleStatistics(), codec, bufferSize);
+      this.data = createStream(OrcProto.Stream.Kind.DATA);
+      this.isFloat = kind == OrcProto.Type.Kind.FLOAT;
+    }
+
+    @Override
+    protected void writeValue(Tuple tuple, int fieldId) throws IOException {
+      if (isFloat) {
+        float value = tuple.getFloat4(fieldId);
+        int bits = Float.floatToIntBits(value);
+        for (int i = 0; i < 4; i++) {
+          buffer[i] = (byte) (bits >>> (i * 8));
+        }
+        data.write(buffer, 0, 4);
+        ((DoubleStatistics) rowGroupStats).update(value);
+      } else {
+        double value = tuple.getFloat8(fieldId);
+        long bits = Double.doubleToLongBits(value);
+        for (int i = 0; i < 8; i++) {
+          buffer[i] = (byte) (bits >>> (i * 8));
+        }
+        data.write(buffer, 0, 8);
+        ((DoubleStatistics) rowGroupStats).update(value);
+      }
+    }
+
+    @Override
+    protected void getDataPositions(List<Long> positions) {
+      data.getPosition(positions);
+    }
+
+    @Override
+    protected void flushData() throws IOException {
+      data.flush();
+    }
+  }
+
+  /**
+   * Writes strings and binaries in the direct encoding, where the bytes of values are concatenated in the DATA stream
+   * and their lengths are written in the LENGTH stream.
+   */
+  private static class StringColumnWriter extends ColumnWriter {
+    private final OrcOutStream data;
+    private final RunLengthIntegerWriter lengths;
+    private final boolean isBinary;
+
+    StringColumnWriter(int id, OrcProto.Type.Kind kind, OrcOutStream.Codec codec, int bufferSize) {
+      super(id, kind, kind == OrcProto.Type.Kind.BINARY ? new BinaryStatistics() : new StringStatistics(),
+          codec, bufferSize);
+      this.data = createStream(OrcProto.Stream.Kind.DATA);
+      this.lengths = new RunLengthIntegerWriter(createStream(OrcProto.Stream.Kind.LENGTH), false);
+      this.isBinary = kind == OrcProto.Type.Kind.BINARY;
+    }
+
+    @Override
+    protected void writeValue(Tuple tuple, int fieldId) throws IOException {
+      byte [] value = tuple.getBytes(fieldId);
+      data.write(value, 0, value.length);
+      lengths.write(value.length);
+      if (isBinary) {
+        ((BinaryStatistics) rowGroupStats).update(value.length);
+      } else {
+        ((StringStatistics) rowGroupStats).update(value, 0, value.length);
+      }
+    }
+
+    @Override
+    protected void getDataPositions(List<Long> positions) {
+      data.getPosition(positions);
+      lengths.getPosition(positions);
+    }
+
+    @Override
+    protected void flushData() throws IOException {
+      data.flush();
+      lengths.flush();
+    }
+  }
+
+  /**
+   * Writes dates as the number of days since the epoch.
+   */
+  private static class DateColumnWriter extends ColumnWriter {
+    private final RunLengthIntegerWriter data;
+
+    DateColumnWriter(int id, OrcOutStream.Codec codec, int bufferSize) {
+      super(id, OrcProto.Type.Kind.DATE, new DateStatistics(), codec, bufferSize);
+      this.data = new RunLengthIntegerWriter(createStream(OrcProto.Stream.Kind.DATA), true);
+    }
+
+    @Override
+    protected void writeValue(Tuple tuple, int fieldId) throws IOException {
+      int days = tuple.getInt4(fieldId) - DateTimeUtil.DAYS_FROM_JULIAN_TO_EPOCH;
+      data.write(days);
+      ((DateStatistics) rowGroupStats).update(days);
+    }
+
+    @Override
+    protected void getDataPositions(List<Long> positions) {
+      data.getPosition(positions);
+    }
+
+    @Override
+    protected void flushData() throws IOException {
+      data.flush();
+    }
+  }
+
+  /**
+   * Writes timestamps as the seconds since 2015-01-01 00:00:00 of the table time zone in the DATA stream, and the
+   * nanoseconds in the SECONDARY stream. The trailing decimal zeros of nanoseconds are removed, and their count
+   * minus one is stored in the lowest 3 bits.
+   */
+  private static class TimestampColumnWriter extends ColumnWriter {
+    private final long baseTimestampSeconds;
+    private final RunLengthIntegerWriter seconds;
+    private final RunLengthIntegerWriter nanos;
+
+    TimestampColumnWriter(int id, OrcOutStream.Codec codec, int bufferSize, DateTimeZone timeZone) {
+      super(id, OrcProto.Type.Kind.TIMESTAMP, new ColumnStatisticsBuilder(), codec, bufferSize);
+      this.baseTimestampSeconds = new DateTime(2015, 1, 1, 0, 0, timeZone).getMillis() / 1000;
+      this.seconds = new RunLengthIntegerWriter(createStream(OrcProto.Stream.Kind.DATA), true);
+      this.nanos = new RunLengthIntegerWriter(createStream(OrcProto.Stream.Kind.SECONDARY), false);
+    }
+
+    @Override
+    protected void writeValue(Tuple tuple, int fieldId) throws IOException {
+      long millis = DateTimeUtil.julianTimeToJavaTime(tuple.getInt8(fieldId));
+      // the same as java.sql.Timestamp, whose seconds are truncated and whose nanos are not negative
+      seconds.write(millis / 1000 - baseTimestampSeconds);
+      nanos.write(formatNanos((int) (((millis % 1000) + 1000) % 1000) * 1000000));
+      rowGroupStats.increment();
+    }
+
+    private static long formatNanos(int nanos) {
+      if (nanos == 0) {
+        return 0;
+      } else if (nanos % 100 != 0) {
+        return ((long) nanos) << 3;
+      } else {
+        nanos /= 100;
+        int trailingZeros = 1;
+        while (nanos % 10 == 0 && trailingZeros < 7) {
+          nanos /= 10;
+          trailingZeros++;
+        }
+        return ((long) nanos) << 3 | trailingZeros;
+      }
+    }
+
+    @Override
+    protected void getDataPositions(List<Long> positions) {
+      seconds.getPosition(positions);
+      nanos.getPosition(positions);
+    }
+
+    @Override
+    protected void flushData() throws IOException {
+      seconds.flush();
+      nanos.flush();
+    }
+  }
+}
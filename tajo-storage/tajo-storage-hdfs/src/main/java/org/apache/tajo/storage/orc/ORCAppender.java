@@ -0,0 +1,133 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage.orc;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.ql.io.orc.OrcProto;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.DefaultCodec;
+import org.apache.hadoop.io.compress.SnappyCodec;
+import org.apache.tajo.TaskAttemptId;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.catalog.statistics.TableStats;
+import org.apache.tajo.storage.FileAppender;
+import org.apache.tajo.storage.StorageConstants;
+import org.apache.tajo.storage.TableStatistics;
+import org.apache.tajo.storage.Tuple;
+
+import java.io.IOException;
+
+/**
+ * FileAppender for writing to ORC files.
+ *
+ * The compression is given by a codec class of Hadoop, which is mapped to the compression of ORC. Snappy is mapped to
+ * SNAPPY, and the codecs of deflate, such as DefaultCodec, DeflateCodec and GzipCodec, are mapped to ZLIB.
+ */
+public class ORCAppender extends FileAppender {
+  private OrcWriter writer;
+  private TableStatistics stats;
+
+  public ORCAppender(Configuration conf, TaskAttemptId taskAttemptId, Schema schema, TableMeta meta, Path workDir) {
+    super(conf, taskAttemptId, schema, meta, workDir);
+  }
+
+  @Override
+  public void init() throws IOException {
+    FileSystem fs = path.getFileSystem(conf);
+    writer = new OrcWriter(fs.create(path), schema, getCompression(),
+        Integer.parseInt(meta.getOption(StorageConstants.ORC_COMPRESSION_BUFFER_SIZE,
+            StorageConstants.DEFAULT_ORC_COMPRESSION_BUFFER_SIZE)),
+        Long.parseLong(meta.getOption(StorageConstants.ORC_STRIPE_SIZE, StorageConstants.DEFAULT_ORC_STRIPE_SIZE)),
+        Integer.parseInt(meta.getOption(StorageConstants.ORC_ROW_INDEX_STRIDE,
+            StorageConstants.DEFAULT_ORC_ROW_INDEX_STRIDE)),
+        ORCScanner.getTimeZone(meta));
+
+    if (enabledStats) {
+      this.stats = new TableStatistics(schema);
+    }
+    super.init();
+  }
+
+  private OrcProto.CompressionKind getCompression() {
+    if (!meta.containsOption(StorageConstants.COMPRESSION_CODEC)) {
+      return OrcProto.CompressionKind.NONE;
+    }
+
+    String codecClassName = meta.getOption(StorageConstants.COMPRESSION_CODEC);
+    Class<? extends CompressionCodec> codecClass;
+    try {
+      codecClass = conf.getClassByName(codecClassName).asSubclass(CompressionCodec.class);
+    } catch (ClassNotFoundException e) {
+      throw new IllegalArgumentException("Unknown codec: " + codecClassName, e);
+    }
+
+    if (SnappyCodec.class.isAssignableFrom(codecClass)) {
+      return OrcProto.CompressionKind.SNAPPY;
+    } else if (DefaultCodec.class.isAssignableFrom(codecClass)) {
+      return OrcProto.CompressionKind.ZLIB;
+    } else {
+      throw new IllegalArgumentException("Unsupported codec for ORC: " + codecClassName);
+    }
+  }
+
+  @Override
+  public long getOffset() throws IOException {
+    return writer.getOffset();
+  }
+
+  @Override
+  public long getEstimatedOutputSize() throws IOException {
+    return writer.getEstimatedSize();
+  }
+
+  @Override
+  public void addTuple(Tuple tuple) throws IOException {
+    writer.addTuple(tuple);
+    if (enabledStats) {
+      stats.incrementRow();
+    }
+  }
+
+  /**
+   * A stripe is written when it is full or the appender is closed, so this is a no-op.
+   */
+  @Override
+  public void flush() throws IOException {
+  }
+
+  @Override
+  public void close() throws IOException {
+    writer.close();
+    if (enabledStats) {
+      stats.setNumBytes(writer.getOffset());
+    }
+  }
+
+  @Override
+  public TableStats getStats() {
+    if (enabledStats) {
+      return stats.getTableStat();
+    } else {
+      return null;
+    }
+  }
+}
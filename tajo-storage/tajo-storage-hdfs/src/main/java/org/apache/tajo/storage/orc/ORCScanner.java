@@ -24,6 +24,7 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.tajo.TajoConstants;
 import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.catalog.TableMeta;
 import org.apache.tajo.common.TajoDataTypes;
@@ -38,6 +39,9 @@ import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.storage.VTuple;
 import org.apache.tajo.storage.fragment.Fragment;
 import com.facebook.presto.orc.*;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.facebook.presto.orc.metadata.ColumnStatistics;
 import com.facebook.presto.orc.metadata.OrcMetadataReader;
 import org.apache.tajo.storage.thirdparty.orc.HdfsOrcDataSource;
 import org.apache.tajo.util.datetime.DateTimeUtil;
@@ -45,14 +49,23 @@ import org.joda.time.DateTimeZone;
 
 import java.io.IOException;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.TimeZone;
 
 /**
- * OrcScanner for reading ORC files
+ * OrcScanner for reading ORC files.
+ *
+ * A filter is pushed down to the ORC reader, so that stripes and row groups which cannot have any matched row are
+ * skipped by their column statistics. The filter is still evaluated for the rows of the remaining ones.
  */
 public class ORCScanner extends FileScanner {
   private static final Log LOG = LogFactory.getLog(ORCScanner.class);
+  private OrcReader orcReader;
   private OrcRecordReader recordReader;
+  private EvalNode filter;
+  private OrcPredicate predicate = OrcPredicate.TRUE;
+  private int skippedBlocks;
   private Vector [] vectors;
   private int currentPosInBatch = 0;
   private int batchSize = 0;
@@ -104,8 +117,6 @@ public class ORCScanner extends FileScanner {
 
   @Override
   public void init() throws IOException {
-    OrcReader orcReader;
-
     if (targets == null) {
       targets = schema.toArray();
     }
@@ -145,44 +156,77 @@ public class ORCScanner extends FileScanner {
       vectors[i] = createOrcVector(targetColInfo[i].type);
     }
 
+    orcReader = new OrcReader(orcDataSource, new OrcMetadataReader());
+
+    LOG.debug("file fragment { path: " + fragment.getPath() +
+      ", start offset: " + fragment.getStartKey() +
+      ", length: " + fragment.getLength() + "}");
+  }
+
+  /**
+   * The record reader is created when the first tuple is read, so that a filter set after {@link #init()} is
+   * pushed down.
+   */
+  private void openRecordReader() throws IOException {
     Set<Integer> columnSet = new HashSet<Integer>();
     for (ColumnInfo colInfo: targetColInfo) {
       columnSet.add(colInfo.id);
     }
 
-    orcReader = new OrcReader(orcDataSource, new OrcMetadataReader());
-
-    // TODO: make OrcPredicate useful
-    // TODO: TimeZone should be from conf
-    // TODO: it might be splittable
-    recordReader = orcReader.createRecordReader(columnSet, OrcPredicate.TRUE,
-        fragment.getStartKey(), fragment.getLength(), DateTimeZone.getDefault());
+    // Counts the stripes and the row groups skipped by the predicate
+    OrcPredicate countingPredicate = new OrcPredicate() {
+      @Override
+      public boolean matches(long numberOfRows, Map<Integer, ColumnStatistics> statisticsByColumnIndex) {
+        boolean matched = predicate.matches(numberOfRows, statisticsByColumnIndex);
+        if (!matched) {
+          skippedBlocks++;
+          tableStats.setNumSkippedBlocks(skippedBlocks);
+        }
+        return matched;
+      }
+    };
 
-    LOG.debug("file fragment { path: " + fragment.getPath() +
-      ", start offset: " + fragment.getStartKey() +
-      ", length: " + fragment.getLength() + "}");
+    recordReader = orcReader.createRecordReader(columnSet, countingPredicate,
+        fragment.getStartKey(), fragment.getLength(), getTimeZone(meta));
 
     getNextBatch();
   }
 
+  /**
+   * Timestamps are stored relative to the time zone of the table, like the text serde, so that they are read back
+   * without a shift on any worker.
+   */
+  static DateTimeZone getTimeZone(TableMeta meta) {
+    return DateTimeZone.forTimeZone(
+        TimeZone.getTimeZone(meta.getOption(StorageConstants.TIMEZONE, TajoConstants.DEFAULT_SYSTEM_TIMEZONE)));
+  }
+
   @Override
   public Tuple next() throws IOException {
-    if (currentPosInBatch == batchSize) {
-      getNextBatch();
+    if (recordReader == null) {
+      openRecordReader();
+    }
 
-      // EOF
+    while (true) {
+      if (currentPosInBatch == batchSize) {
+        getNextBatch();
+      }
+
+      // EOF, which can be found by the first batch if all stripes are skipped
       if (batchSize == -1) {
         return null;
       }
-    }
 
-    for (int i=0; i<targetColInfo.length; i++) {
-      outTuple.put(i, createValueDatum(vectors[i], targetColInfo[i].type));
-    }
+      for (int i = 0; i < targetColInfo.length; i++) {
+        outTuple.put(i, createValueDatum(vectors[i], targetColInfo[i].type));
+      }
 
-    currentPosInBatch++;
+      currentPosInBatch++;
 
-    return outTuple;
+      if (filter == null || filter.eval(outTuple).isTrue()) {
+        return outTuple;
+      }
+    }
   }
 
   // TODO: support more types
@@ -243,6 +287,12 @@ public class ORCScanner extends FileScanner {
 
         return DatumFactory.createBlob(((SliceVector) vector).vector[currentPosInBatch].getBytes());
 
+      case PROTOBUF:
+        if (((SliceVector) vector).vector[currentPosInBatch] == null)
+          return NullDatum.get();
+
+        return createProtobufDatum(type, ((SliceVector) vector).vector[currentPosInBatch].getBytes());
+
       case TIMESTAMP:
         if (((LongVector) vector).isNull[currentPosInBatch])
           return NullDatum.get();
@@ -271,6 +321,17 @@ public class ORCScanner extends FileScanner {
     }
   }
 
+  private static Datum createProtobufDatum(TajoDataTypes.DataType type, byte [] bytes) {
+    ProtobufDatumFactory factory = ProtobufDatumFactory.get(type);
+    Message.Builder builder = factory.newBuilder();
+    try {
+      builder.mergeFrom(bytes);
+    } catch (InvalidProtocolBufferException e) {
+      throw new RuntimeException(e);
+    }
+    return factory.createDatum(builder);
+  }
+
   /**
    * Fetch next batch from ORC file to vectors as many as batch size
    *
@@ -279,8 +340,11 @@ public class ORCScanner extends FileScanner {
   private void getNextBatch() throws IOException {
     batchSize = recordReader.nextBatch();
 
-    for (int i=0; i<targetColInfo.length; i++) {
-      recordReader.readVector(targetColInfo[i].id, vectors[i]);
+    // there is no vector to read if all stripes are skipped
+    if (batchSize > 0) {
+      for (int i = 0; i < targetColInfo.length; i++) {
+        recordReader.readVector(targetColInfo[i].id, vectors[i]);
+      }
     }
 
     currentPosInBatch = 0;
@@ -288,7 +352,7 @@ public class ORCScanner extends FileScanner {
 
   @Override
   public float getProgress() {
-    return recordReader.getProgress();
+    return recordReader == null ? 0.0f : recordReader.getProgress();
   }
 
   @Override
@@ -299,6 +363,9 @@ public class ORCScanner extends FileScanner {
   public void close() throws IOException {
     if (recordReader != null) {
       recordReader.close();
+    } else if (fis != null) {
+      // the record reader, which closes the data source, has not been created
+      fis.close();
     }
   }
 
@@ -309,12 +376,20 @@ public class ORCScanner extends FileScanner {
 
   @Override
   public boolean isSelectable() {
-    return false;
+    return true;
   }
 
+  /**
+   * Sets a filter bound to the target columns. It must be called before the first tuple is read.
+   */
   @Override
   public void setFilter(EvalNode filter) {
-    // TODO: implement it
+    if (recordReader != null) {
+      throw new IllegalStateException("Should be called before reading tuples");
+    }
+    this.filter = filter;
+    OrcPredicate pushed = new OrcPredicateBuilder(schema).build(filter);
+    this.predicate = pushed != null ? pushed : OrcPredicate.TRUE;
   }
 
   @Override
@@ -0,0 +1,209 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage.orc;
+
+import org.apache.hadoop.hive.ql.io.orc.OrcProto;
+import org.iq80.snappy.Snappy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * OrcOutStream buffers a stream of a stripe in memory until the stripe is written.
+ *
+ * If the file is compressed, the stream is divided into chunks of the compression buffer size. Each chunk has a
+ * 3-byte little-endian header, which is the chunk length shifted by one, and whose lowest bit is set if the chunk is
+ * stored as it is because it does not get smaller by compression.
+ */
+class OrcOutStream extends OutputStream {
+  private static final int HEADER_SIZE = 3;
+
+  private final Codec codec;
+  private final byte [] buffer;
+  private int bufferPos;
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+  /**
+   * @param codec The codec shared by all streams of a file
+   * @param bufferSize The size of a compression chunk
+   */
+  OrcOutStream(Codec codec, int bufferSize) {
+    this.codec = codec;
+    this.buffer = new byte[bufferSize];
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    if (bufferPos == buffer.length) {
+      spill();
+    }
+    buffer[bufferPos++] = (byte) b;
+  }
+
+  @Override
+  public void write(byte [] bytes, int offset, int length) throws IOException {
+    while (length > 0) {
+      if (bufferPos == buffer.length) {
+        spill();
+      }
+      int n = Math.min(length, buffer.length - bufferPos);
+      System.arraycopy(bytes, offset, buffer, bufferPos, n);
+      bufferPos += n;
+      offset += n;
+      length -= n;
+    }
+  }
+
+  /**
+   * Record the position of the next byte. It consists of the offset of the current chunk and the offset in the
+   * chunk if compressed, or the offset of the next byte otherwise.
+   */
+  void getPosition(List<Long> positions) {
+    if (codec.isCompressed()) {
+      positions.add((long) out.size());
+      positions.add((long) bufferPos);
+    } else {
+      positions.add((long) out.size() + bufferPos);
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if (bufferPos > 0) {
+      spill();
+    }
+  }
+
+  /**
+   * @return The number of bytes buffered in memory
+   */
+  long getBufferedSize() {
+    return out.size() + bufferPos;
+  }
+
+  /**
+   * Write the flushed stream, and clear it for the next stripe.
+   *
+   * @return The length of the written stream
+   */
+  long writeTo(OutputStream stream) throws IOException {
+    long length = out.size();
+    out.writeTo(stream);
+    out.reset();
+    return length;
+  }
+
+  /**
+   * Discard the stream of the current stripe.
+   */
+  void clear() {
+    out.reset();
+    bufferPos = 0;
+  }
+
+  private void spill() throws IOException {
+    if (!codec.isCompressed()) {
+      out.write(buffer, 0, bufferPos);
+    } else {
+      byte [] compressed = codec.getOutputBuffer(buffer.length);
+      int length = codec.compress(buffer, bufferPos, compressed, HEADER_SIZE);
+      if (length < 0) {
+        writeHeader(compressed, bufferPos, true);
+        out.write(compressed, 0, HEADER_SIZE);
+        out.write(buffer, 0, bufferPos);
+      } else {
+        writeHeader(compressed, length, false);
+        out.write(compressed, 0, HEADER_SIZE + length);
+      }
+    }
+    bufferPos = 0;
+  }
+
+  private static void writeHeader(byte [] bytes, int length, boolean original) {
+    int header = (length << 1) | (original ? 1 : 0);
+    bytes[0] = (byte) header;
+    bytes[1] = (byte) (header >>> 8);
+    bytes[2] = (byte) (header >>> 16);
+  }
+
+  /**
+   * Codec compresses the chunks of all streams in a file. It is not thread-safe.
+   */
+  static class Codec {
+    private final OrcProto.CompressionKind kind;
+    private Deflater deflater;
+    private byte [] outputBuffer;
+
+    Codec(OrcProto.CompressionKind kind) {
+      if (kind != OrcProto.CompressionKind.NONE && kind != OrcProto.CompressionKind.ZLIB &&
+          kind != OrcProto.CompressionKind.SNAPPY) {
+        throw new IllegalArgumentException("Unsupported compression for ORC: " + kind);
+      }
+      this.kind = kind;
+      if (kind == OrcProto.CompressionKind.ZLIB) {
+        deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+      }
+    }
+
+    OrcProto.CompressionKind getKind() {
+      return kind;
+    }
+
+    boolean isCompressed() {
+      return kind != OrcProto.CompressionKind.NONE;
+    }
+
+    byte [] getOutputBuffer(int bufferSize) {
+      int size = HEADER_SIZE + (kind == OrcProto.CompressionKind.SNAPPY ?
+          Snappy.maxCompressedLength(bufferSize) : bufferSize);
+      if (outputBuffer == null || outputBuffer.length < size) {
+        outputBuffer = new byte[size];
+      }
+      return outputBuffer;
+    }
+
+    /**
+     * @return The compressed length, or -1 if it is not smaller than the input
+     */
+    int compress(byte [] input, int length, byte [] output, int offset) {
+      if (kind == OrcProto.CompressionKind.SNAPPY) {
+        int compressed = Snappy.compress(input, 0, length, output, offset);
+        return compressed < length ? compressed : -1;
+      }
+
+      deflater.reset();
+      deflater.setInput(input, 0, length);
+      deflater.finish();
+      int compressed = 0;
+      while (!deflater.finished() && compressed < length) {
+        compressed += deflater.deflate(output, offset + compressed, length - compressed);
+      }
+      return deflater.finished() && compressed < length ? compressed : -1;
+    }
+
+    void close() {
+      if (deflater != null) {
+        deflater.end();
+      }
+    }
+  }
+}
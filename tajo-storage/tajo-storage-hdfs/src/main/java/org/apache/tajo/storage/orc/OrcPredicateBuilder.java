@@ -0,0 +1,250 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage.orc;
+
+import com.facebook.presto.orc.OrcPredicate;
+import com.facebook.presto.orc.metadata.BooleanStatistics;
+import com.facebook.presto.orc.metadata.ColumnStatistics;
+import com.facebook.presto.orc.metadata.RangeStatistics;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.plan.expr.EvalType;
+import org.apache.tajo.storage.PredicatePushdownBuilder;
+import org.apache.tajo.util.datetime.DateTimeUtil;
+
+import java.util.Map;
+
+/**
+ * OrcPredicateBuilder translates a filter into an {@link OrcPredicate}, which is used to skip stripes and row groups
+ * by their column statistics.
+ *
+ * Only comparisons with a constant of the same type as the column are translated. The column must have statistics
+ * in ORC, so that timestamps and binaries are not translated.
+ */
+public class OrcPredicateBuilder extends PredicatePushdownBuilder<OrcPredicate> {
+  private final Schema schema;
+
+  /**
+   * @param schema The schema of the ORC file, whose column ids are the ordinals of ORC columns
+   */
+  public OrcPredicateBuilder(Schema schema) {
+    this.schema = schema;
+  }
+
+  @Override
+  protected OrcPredicate compare(Column column, EvalType op, Datum value) {
+    int id = schema.getColumnId(column.getQualifiedName());
+    if (id < 0 || value.isNull() || value.type() != schema.getColumn(id).getDataType().getType()) {
+      return null;
+    }
+
+    switch (value.type()) {
+    case BOOLEAN:
+      return op == EvalType.EQUAL || op == EvalType.NOT_EQUAL ?
+          new BooleanPredicate(id, op == EvalType.EQUAL ? value.asBool() : !value.asBool()) : null;
+    case INT2:
+    case INT4:
+    case INT8:
+      return new RangePredicate<Long>(id, op, value.asInt8());
+    case FLOAT4:
+    case FLOAT8:
+      return new RangePredicate<Double>(id, op, value.asFloat8());
+    case TEXT:
+      return new RangePredicate<CodePointString>(id, op, new CodePointString(value.asChars()));
+    case DATE:
+      return new RangePredicate<Integer>(id, op, value.asInt4() - DateTimeUtil.DAYS_FROM_JULIAN_TO_EPOCH);
+    default:
+      return null;
+    }
+  }
+
+  @Override
+  protected OrcPredicate isNull(Column column, final boolean not) {
+    final int id = schema.getColumnId(column.getQualifiedName());
+    if (id < 0) {
+      return null;
+    }
+
+    return new OrcPredicate() {
+      @Override
+      public boolean matches(long numberOfRows, Map<Integer, ColumnStatistics> statisticsByColumnIndex) {
+        ColumnStatistics stats = statisticsByColumnIndex.get(id);
+        if (stats == null || !stats.hasNumberOfValues()) {
+          return true;
+        }
+        // the number of values does not include nulls
+        return not ? stats.getNumberOfValues() > 0 : stats.getNumberOfValues() < numberOfRows;
+      }
+    };
+  }
+
+  @Override
+  protected OrcPredicate createAnd(final OrcPredicate left, final OrcPredicate right) {
+    return new OrcPredicate() {
+      @Override
+      public boolean matches(long numberOfRows, Map<Integer, ColumnStatistics> statisticsByColumnIndex) {
+        return left.matches(numberOfRows, statisticsByColumnIndex) &&
+            right.matches(numberOfRows, statisticsByColumnIndex);
+      }
+    };
+  }
+
+  @Override
+  protected OrcPredicate createOr(final OrcPredicate left, final OrcPredicate right) {
+    return new OrcPredicate() {
+      @Override
+      public boolean matches(long numberOfRows, Map<Integer, ColumnStatistics> statisticsByColumnIndex) {
+        return left.matches(numberOfRows, statisticsByColumnIndex) ||
+            right.matches(numberOfRows, statisticsByColumnIndex);
+      }
+    };
+  }
+
+  /**
+   * @return False if the column has only nulls, which never match a comparison
+   */
+  private static boolean hasValues(ColumnStatistics stats) {
+    return !stats.hasNumberOfValues() || stats.getNumberOfValues() > 0;
+  }
+
+  private static class RangePredicate<T extends Comparable<T>> implements OrcPredicate {
+    private final int id;
+    private final EvalType op;
+    private final T value;
+
+    RangePredicate(int id, EvalType op, T value) {
+      this.id = id;
+      this.op = op;
+      this.value = value;
+    }
+
+    @Override
+    public boolean matches(long numberOfRows, Map<Integer, ColumnStatistics> statisticsByColumnIndex) {
+      ColumnStatistics stats = statisticsByColumnIndex.get(id);
+      if (stats == null) {
+        return true;
+      }
+      if (!hasValues(stats)) {
+        return false;
+      }
+
+      RangeStatistics<?> range = getRange(stats);
+      if (range == null || range.getMin() == null || range.getMax() == null) {
+        return true;
+      }
+      T min = toComparable(range.getMin());
+      T max = toComparable(range.getMax());
+
+      switch (op) {
+      case EQUAL:
+        return min.compareTo(value) <= 0 && max.compareTo(value) >= 0;
+      case NOT_EQUAL:
+        return min.compareTo(value) != 0 || max.compareTo(value) != 0;
+      case LTH:
+        return min.compareTo(value) < 0;
+      case LEQ:
+        return min.compareTo(value) <= 0;
+      case GTH:
+        return max.compareTo(value) > 0;
+      case GEQ:
+        return max.compareTo(value) >= 0;
+      default:
+        return true;
+      }
+    }
+
+    private RangeStatistics<?> getRange(ColumnStatistics stats) {
+      if (value instanceof Long) {
+        return stats.getIntegerStatistics();
+      } else if (value instanceof Double) {
+        return stats.getDoubleStatistics();
+      } else if (value instanceof CodePointString) {
+        return stats.getStringStatistics();
+      } else {
+        return stats.getDateStatistics();
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T toComparable(Object bound) {
+      if (value instanceof CodePointString) {
+        return (T) new CodePointString((String) bound);
+      }
+      return (T) bound;
+    }
+  }
+
+  private static class BooleanPredicate implements OrcPredicate {
+    private final int id;
+    private final boolean value;
+
+    BooleanPredicate(int id, boolean value) {
+      this.id = id;
+      this.value = value;
+    }
+
+    @Override
+    public boolean matches(long numberOfRows, Map<Integer, ColumnStatistics> statisticsByColumnIndex) {
+      ColumnStatistics stats = statisticsByColumnIndex.get(id);
+      if (stats == null) {
+        return true;
+      }
+      if (!hasValues(stats)) {
+        return false;
+      }
+
+      BooleanStatistics booleans = stats.getBooleanStatistics();
+      if (booleans == null || !stats.hasNumberOfValues()) {
+        return true;
+      }
+      long trueCount = booleans.getTrueValueCount();
+      return value ? trueCount > 0 : trueCount < stats.getNumberOfValues();
+    }
+  }
+
+  /**
+   * A string ordered by code points, which is the order of UTF-8 bytes used by ORC and Tajo.
+   * {@link String#compareTo(String)} orders by UTF-16 chars, which is different for supplementary characters.
+   */
+  private static class CodePointString implements Comparable<CodePointString> {
+    private final String str;
+
+    CodePointString(String str) {
+      this.str = str;
+    }
+
+    @Override
+    public int compareTo(CodePointString other) {
+      int i = 0;
+      int j = 0;
+      while (i < str.length() && j < other.str.length()) {
+        int c1 = str.codePointAt(i);
+        int c2 = other.str.codePointAt(j);
+        if (c1 != c2) {
+          return c1 < c2 ? -1 : 1;
+        }
+        i += Character.charCount(c1);
+        j += Character.charCount(c2);
+      }
+      return (str.length() - i) - (other.str.length() - j);
+    }
+  }
+}
@@ -0,0 +1,273 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage.orc;
+
+import com.facebook.presto.hive.shaded.com.google.protobuf.GeneratedMessage;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.hive.ql.io.orc.OrcProto;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.storage.Tuple;
+import org.joda.time.DateTimeZone;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * OrcWriter writes tuples into an ORC file, which consists of the header, stripes, the metadata of stripe statistics,
+ * the footer, the postscript and the length of the postscript.
+ *
+ * A stripe consists of the row index streams, the data streams and the stripe footer. A stripe is buffered in memory
+ * until its size exceeds the stripe size, which is checked whenever a row group of the row index stride is finished.
+ * The statistics of columns are written for each row group in the row index, for each stripe in the metadata, and for
+ * the file in the footer, so that readers can skip row groups and stripes by predicates.
+ *
+ * All columns are written in the DIRECT encoding with the version 1 run length encoding of integers.
+ */
+class OrcWriter implements Closeable {
+  private static final String MAGIC = "ORC";
+  /** the version of Hive 0.12, which is readable by all ORC readers */
+  private static final int [] VERSION = new int[] {0, 12};
+
+  private final FSDataOutputStream out;
+  private final Schema schema;
+  private final OrcOutStream.Codec codec;
+  private final int bufferSize;
+  private final long stripeSize;
+  private final int rowIndexStride;
+  private final ColumnWriter [] columns;
+  /** the stream where metadata, such as a row index and footers, is written before compressed */
+  private final OrcOutStream metadataStream;
+
+  private final List<OrcProto.StripeInformation> stripes = new ArrayList<OrcProto.StripeInformation>();
+  private final List<OrcProto.StripeStatistics> stripeStatistics = new ArrayList<OrcProto.StripeStatistics>();
+  /** the number of rows of each row group in the current stripe, which is the statistics of the root column */
+  private final List<Long> rowGroupSizes = new ArrayList<Long>();
+  private long rowsInRowGroup;
+  private long rowsInStripe;
+  private long numberOfRows;
+
+  /**
+   * @param out The output stream of the file, which is closed by this writer
+   * @param compression The compression of streams
+   * @param bufferSize The size of compression chunks
+   * @param stripeSize The size of stripes in bytes
+   * @param rowIndexStride The number of rows in a row group
+   * @param timeZone The time zone of timestamps, which should be the same as the one of the reader
+   */
+  OrcWriter(FSDataOutputStream out, Schema schema, OrcProto.CompressionKind compression, int bufferSize,
+            long stripeSize, int rowIndexStride, DateTimeZone timeZone) throws IOException {
+    if (rowIndexStride <= 0) {
+      throw new IllegalArgumentException("Row index stride must be positive: " + rowIndexStride);
+    }
+    this.out = out;
+    this.schema = schema;
+    this.codec = new OrcOutStream.Codec(compression);
+    this.bufferSize = bufferSize;
+    this.stripeSize = stripeSize;
+    this.rowIndexStride = rowIndexStride;
+    this.metadataStream = new OrcOutStream(codec, bufferSize);
+
+    columns = new ColumnWriter[schema.size()];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = ColumnWriter.create(i + 1, schema.getColumn(i).getDataType(), codec, bufferSize, timeZone);
+      columns[i].recordPositions();
+    }
+
+    out.writeBytes(MAGIC);
+  }
+
+  void addTuple(Tuple tuple) throws IOException {
+    for (int i = 0; i < columns.length; i++) {
+      columns[i].write(tuple, i);
+    }
+    rowsInRowGroup++;
+    rowsInStripe++;
+    numberOfRows++;
+
+    if (rowsInRowGroup == rowIndexStride) {
+      finishRowGroup();
+      if (getBufferedSize() >= stripeSize) {
+        flushStripe();
+      }
+    }
+  }
+
+  private void finishRowGroup() {
+    for (ColumnWriter column : columns) {
+      column.finishRowGroup();
+    }
+    rowGroupSizes.add(rowsInRowGroup);
+    rowsInRowGroup = 0;
+  }
+
+  private long getBufferedSize() {
+    long size = 0;
+    for (ColumnWriter column : columns) {
+      size += column.getBufferedSize();
+    }
+    return size;
+  }
+
+  private void flushStripe() throws IOException {
+    if (rowsInRowGroup > 0) {
+      finishRowGroup();
+    }
+    if (rowsInStripe == 0) {
+      return;
+    }
+
+    for (ColumnWriter column : columns) {
+      column.flush();
+    }
+
+    long offset = out.getPos();
+    OrcProto.StripeFooter.Builder footer = OrcProto.StripeFooter.newBuilder();
+
+    // row index streams
+    OrcProto.RowIndex.Builder rootIndex = OrcProto.RowIndex.newBuilder();
+    for (long rows : rowGroupSizes) {
+      rootIndex.addEntry(OrcProto.RowIndexEntry.newBuilder().setStatistics(rootStatistics(rows)));
+    }
+    long indexLength = writeIndex(0, rootIndex.build(), footer);
+    for (ColumnWriter column : columns) {
+      indexLength += writeIndex(column.id, column.buildRowIndex(), footer);
+    }
+
+    // data streams
+    long dataLength = 0;
+    for (ColumnWriter column : columns) {
+      dataLength += column.writeStreams(out, footer);
+    }
+
+    for (int i = 0; i <= columns.length; i++) {
+      footer.addColumns(OrcProto.ColumnEncoding.newBuilder().setKind(OrcProto.ColumnEncoding.Kind.DIRECT));
+    }
+    long footerLength = writeMetadata(footer.build());
+
+    stripes.add(OrcProto.StripeInformation.newBuilder()
+        .setOffset(offset)
+        .setIndexLength(indexLength)
+        .setDataLength(dataLength)
+        .setFooterLength(footerLength)
+        .setNumberOfRows(rowsInStripe)
+        .build());
+
+    OrcProto.StripeStatistics.Builder stats = OrcProto.StripeStatistics.newBuilder();
+    stats.addColStats(rootStatistics(rowsInStripe));
+    for (ColumnWriter column : columns) {
+      stats.addColStats(column.finishStripe());
+    }
+    stripeStatistics.add(stats.build());
+
+    rowGroupSizes.clear();
+    rowsInStripe = 0;
+  }
+
+  private long writeIndex(int columnId, OrcProto.RowIndex index, OrcProto.StripeFooter.Builder footer)
+      throws IOException {
+    long length = writeMetadata(index);
+    footer.addStreams(OrcProto.Stream.newBuilder()
+        .setKind(OrcProto.Stream.Kind.ROW_INDEX).setColumn(columnId).setLength(length));
+    return length;
+  }
+
+  /**
+   * Write a message which is compressed with the file's compression.
+   *
+   * @return The written length
+   */
+  private long writeMetadata(GeneratedMessage message) throws IOException {
+    message.writeTo(metadataStream);
+    metadataStream.flush();
+    return metadataStream.writeTo(out);
+  }
+
+  private static OrcProto.ColumnStatistics rootStatistics(long rows) {
+    return OrcProto.ColumnStatistics.newBuilder().setNumberOfValues(rows).build();
+  }
+
+  /**
+   * @return The number of bytes written to the file
+   */
+  long getOffset() throws IOException {
+    return out.getPos();
+  }
+
+  /**
+   * @return The size of the file if it is closed now, without metadata
+   */
+  long getEstimatedSize() throws IOException {
+    return out.getPos() + getBufferedSize();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      flushStripe();
+      long contentLength = out.getPos();
+
+      OrcProto.Metadata.Builder metadata = OrcProto.Metadata.newBuilder();
+      metadata.addAllStripeStats(stripeStatistics);
+      long metadataLength = writeMetadata(metadata.build());
+
+      OrcProto.Footer.Builder footer = OrcProto.Footer.newBuilder();
+      footer.setHeaderLength(MAGIC.length());
+      footer.setContentLength(contentLength);
+      footer.addAllStripes(stripes);
+      footer.setNumberOfRows(numberOfRows);
+      footer.setRowIndexStride(rowIndexStride);
+
+      OrcProto.Type.Builder root = OrcProto.Type.newBuilder().setKind(OrcProto.Type.Kind.STRUCT);
+      for (int i = 0; i < columns.length; i++) {
+        Column column = schema.getColumn(i);
+        root.addSubtypes(columns[i].id);
+        root.addFieldNames(column.getSimpleName());
+      }
+      footer.addTypes(root);
+      for (ColumnWriter column : columns) {
+        footer.addTypes(OrcProto.Type.newBuilder().setKind(column.getKind()));
+      }
+
+      footer.addStatistics(rootStatistics(numberOfRows));
+      for (ColumnWriter column : columns) {
+        footer.addStatistics(column.getFileStatistics());
+      }
+      long footerLength = writeMetadata(footer.build());
+
+      OrcProto.PostScript.Builder postScript = OrcProto.PostScript.newBuilder()
+          .setFooterLength(footerLength)
+          .setCompression(codec.getKind())
+          .setCompressionBlockSize(bufferSize)
+          .setMetadataLength(metadataLength)
+          .setMagic(MAGIC);
+      for (int version : VERSION) {
+        postScript.addVersion(version);
+      }
+      byte [] postScriptBytes = postScript.build().toByteArray();
+      out.write(postScriptBytes);
+      out.write(postScriptBytes.length);
+    } finally {
+      codec.close();
+      out.close();
+    }
+  }
+}
@@ -0,0 +1,138 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage.orc;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * RunLengthIntegerWriter encodes integers in the version 1 run length encoding of ORC. Integers are written as base
+ * 128 varints, and signed ones are zigzag encoded.
+ *
+ * A run is a control byte of the run length minus 3 (0 to 127), followed by a delta byte (-128 to 127) and the base
+ * varint. Literals are a control byte of the negative number of literals (-1 to -128), followed by the varints.
+ */
+class RunLengthIntegerWriter {
+  static final int MIN_REPEAT_SIZE = 3;
+  static final int MAX_DELTA = 127;
+  static final int MIN_DELTA = -128;
+  static final int MAX_LITERAL_SIZE = 128;
+  static final int MAX_REPEAT_SIZE = 127 + MIN_REPEAT_SIZE;
+
+  private final OrcOutStream output;
+  private final boolean signed;
+  private final long [] literals = new long[MAX_LITERAL_SIZE];
+  private int numLiterals = 0;
+  private long delta = 0;
+  private boolean repeat = false;
+  private int tailRunLength = 0;
+
+  RunLengthIntegerWriter(OrcOutStream output, boolean signed) {
+    this.output = output;
+    this.signed = signed;
+  }
+
+  void write(long value) throws IOException {
+    if (numLiterals == 0) {
+      literals[numLiterals++] = value;
+      tailRunLength = 1;
+    } else if (repeat) {
+      if (value == literals[0] + delta * numLiterals) {
+        numLiterals++;
+        if (numLiterals == MAX_REPEAT_SIZE) {
+          writeValues();
+        }
+      } else {
+        writeValues();
+        literals[numLiterals++] = value;
+        tailRunLength = 1;
+      }
+    } else {
+      if (tailRunLength > 1 && value == literals[numLiterals - 1] + delta) {
+        tailRunLength++;
+      } else {
+        delta = value - literals[numLiterals - 1];
+        tailRunLength = delta < MIN_DELTA || delta > MAX_DELTA ? 1 : 2;
+      }
+
+      if (tailRunLength == MIN_REPEAT_SIZE) {
+        if (numLiterals + 1 == MIN_REPEAT_SIZE) {
+          repeat = true;
+          numLiterals++;
+        } else {
+          // the literals before the tail are written, and the tail starts a run
+          numLiterals -= MIN_REPEAT_SIZE - 1;
+          long base = literals[numLiterals];
+          writeValues();
+          literals[0] = base;
+          repeat = true;
+          numLiterals = MIN_REPEAT_SIZE;
+        }
+      } else {
+        literals[numLiterals++] = value;
+        if (numLiterals == MAX_LITERAL_SIZE) {
+          writeValues();
+        }
+      }
+    }
+  }
+
+  private void writeValues() throws IOException {
+    if (numLiterals != 0) {
+      if (repeat) {
+        output.write(numLiterals - MIN_REPEAT_SIZE);
+        output.write((byte) delta);
+        writeVarint(literals[0]);
+      } else {
+        output.write(-numLiterals);
+        for (int i = 0; i < numLiterals; i++) {
+          writeVarint(literals[i]);
+        }
+      }
+      repeat = false;
+      numLiterals = 0;
+      tailRunLength = 0;
+    }
+  }
+
+  private void writeVarint(long value) throws IOException {
+    if (signed) {
+      value = (value << 1) ^ (value >> 63);
+    }
+    while ((value & ~0x7fL) != 0) {
+      output.write((int) (0x80 | (value & 0x7f)));
+      value >>>= 7;
+    }
+    output.write((int) value);
+  }
+
+  void flush() throws IOException {
+    writeValues();
+    output.flush();
+  }
+
+  /**
+   * Record the position of the next integer, which is the stream position of the pending run and the number of
+   * integers in the run before the next integer.
+   */
+  void getPosition(List<Long> positions) {
+    output.getPosition(positions);
+    positions.add((long) numLiterals);
+  }
+}
@@ -0,0 +1,166 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage.parquet;
+
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators;
+import org.apache.parquet.io.api.Binary;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.plan.expr.EvalType;
+import org.apache.tajo.storage.PredicatePushdownBuilder;
+
+/**
+ * ParquetFilterBuilder translates a filter into a Parquet {@link FilterPredicate}, which is used to skip row groups
+ * by their statistics.
+ *
+ * Only comparisons with a constant of the same type as the column are translated. Texts are only compared for
+ * equality, because Parquet orders binary values by signed bytes while Tajo orders texts by unsigned bytes.
+ */
+public class ParquetFilterBuilder extends PredicatePushdownBuilder<FilterPredicate> {
+  private final Schema schema;
+
+  /**
+   * @param schema The schema of the Parquet file
+   */
+  public ParquetFilterBuilder(Schema schema) {
+    this.schema = schema;
+  }
+
+  @Override
+  protected FilterPredicate compare(Column column, EvalType op, Datum value) {
+    Type type = getType(column);
+    if (type == null || value.isNull() || value.type() != type) {
+      return null;
+    }
+
+    String name = column.getSimpleName();
+    switch (type) {
+    case BOOLEAN:
+      return eqOrNotEq(FilterApi.booleanColumn(name), op, value.asBool());
+    case INT4:
+      return compare(FilterApi.intColumn(name), op, value.asInt4());
+    case INT8:
+      return compare(FilterApi.longColumn(name), op, value.asInt8());
+    case FLOAT4:
+      return compare(FilterApi.floatColumn(name), op, value.asFloat4());
+    case FLOAT8:
+      return compare(FilterApi.doubleColumn(name), op, value.asFloat8());
+    case TEXT:
+      return eqOrNotEq(FilterApi.binaryColumn(name), op, Binary.fromByteArray(value.asByteArray()));
+    default:
+      return null;
+    }
+  }
+
+  @Override
+  protected FilterPredicate isNull(Column column, boolean not) {
+    Type type = getType(column);
+    if (type == null) {
+      return null;
+    }
+
+    // Parquet compares a column with null for IS NULL
+    EvalType op = not ? EvalType.NOT_EQUAL : EvalType.EQUAL;
+    String name = column.getSimpleName();
+    switch (type) {
+    case BOOLEAN:
+      return eqOrNotEq(FilterApi.booleanColumn(name), op, null);
+    case INT4:
+      return eqOrNotEq(FilterApi.intColumn(name), op, null);
+    case INT8:
+      return eqOrNotEq(FilterApi.longColumn(name), op, null);
+    case FLOAT4:
+      return eqOrNotEq(FilterApi.floatColumn(name), op, null);
+    case FLOAT8:
+      return eqOrNotEq(FilterApi.doubleColumn(name), op, null);
+    case TEXT:
+      return eqOrNotEq(FilterApi.binaryColumn(name), op, null);
+    default:
+      return null;
+    }
+  }
+
+  @Override
+  protected FilterPredicate createAnd(FilterPredicate left, FilterPredicate right) {
+    return FilterApi.and(left, right);
+  }
+
+  @Override
+  protected FilterPredicate createOr(FilterPredicate left, FilterPredicate right) {
+    return FilterApi.or(left, right);
+  }
+
+  /**
+   * @return The type of the column if it is stored in a primitive type which Parquet can filter, or null
+   */
+  private Type getType(Column column) {
+    int id = schema.getColumnId(column.getQualifiedName());
+    if (id < 0) {
+      return null;
+    }
+    Type type = schema.getColumn(id).getDataType().getType();
+    switch (type) {
+    case BOOLEAN:
+    case INT4:
+    case INT8:
+    case FLOAT4:
+    case FLOAT8:
+    case TEXT:
+      return type;
+    default:
+      return null;
+    }
+  }
+
+  private static <T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsEqNotEq>
+  FilterPredicate eqOrNotEq(C column, EvalType op, T value) {
+    switch (op) {
+    case EQUAL:
+      return FilterApi.eq(column, value);
+    case NOT_EQUAL:
+      return FilterApi.notEq(column, value);
+    default:
+      return null;
+    }
+  }
+
+  private static <T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsLtGt>
+  FilterPredicate compare(C column, EvalType op, T value) {
+    switch (op) {
+    case EQUAL:
+      return FilterApi.eq(column, value);
+    case NOT_EQUAL:
+      return FilterApi.notEq(column, value);
+    case LTH:
+      return FilterApi.lt(column, value);
+    case LEQ:
+      return FilterApi.ltEq(column, value);
+    case GTH:
+      return FilterApi.gt(column, value);
+    case GEQ:
+      return FilterApi.gtEq(column, value);
+    default:
+      return null;
+    }
+  }
+}
@@ -18,23 +18,41 @@
 
 package org.apache.tajo.storage.parquet;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.compat.RowGroupFilter;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
 import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.catalog.TableMeta;
-import org.apache.tajo.exception.TajoRuntimeException;
-import org.apache.tajo.exception.UnsupportedException;
 import org.apache.tajo.plan.expr.EvalNode;
 import org.apache.tajo.storage.FileScanner;
 import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.storage.fragment.Fragment;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
- * FileScanner for reading Parquet files
+ * FileScanner for reading Parquet files.
+ *
+ * A filter is pushed down to Parquet, so that row groups which cannot have any matched row are skipped by their
+ * statistics. The filter is still evaluated for the rows of the remaining row groups.
  */
 public class ParquetScanner extends FileScanner {
-  private TajoParquetReader reader;
+  private static final Log LOG = LogFactory.getLog(ParquetScanner.class);
+
+  private ParquetReader<Tuple> reader;
+  private EvalNode filter;
+  private FilterPredicate filterPredicate;
+  /** true if all row groups are skipped */
+  private boolean skipAll;
 
   /**
    * Creates a new ParquetScanner.
@@ -58,10 +76,37 @@ public class ParquetScanner extends FileScanner {
     if (targets == null) {
       targets = schema.toArray();
     }
-    reader = new TajoParquetReader(fragment.getPath(), schema, new Schema(targets));
     super.init();
   }
 
+  /**
+   * The reader is opened when the first tuple is read, so that a filter set after {@link #init()} is pushed down.
+   */
+  private void openReader() throws IOException {
+    if (filterPredicate != null) {
+      FilterCompat.Filter parquetFilter = FilterCompat.get(filterPredicate);
+      ParquetMetadata footer = ParquetFileReader.readFooter(conf, fragment.getPath(),
+          ParquetMetadataConverter.NO_FILTER);
+      List<BlockMetaData> blocks = footer.getBlocks();
+      try {
+        List<BlockMetaData> filtered =
+            RowGroupFilter.filterRowGroups(parquetFilter, blocks, footer.getFileMetaData().getSchema());
+        tableStats.setNumSkippedBlocks(blocks.size() - filtered.size());
+        if (filtered.isEmpty()) {
+          skipAll = true;
+        } else {
+          reader = ParquetReader.builder(new TajoReadSupport(schema, new Schema(targets)), fragment.getPath())
+              .withConf(conf).withFilter(parquetFilter).build();
+        }
+        return;
+      } catch (IllegalArgumentException e) {
+        // the predicate does not match the file schema, e.g. the file was written with an older table schema
+        LOG.warn("Cannot push down the filter to " + fragment.getPath() + ": " + e.getMessage());
+      }
+    }
+    reader = new TajoParquetReader(fragment.getPath(), schema, new Schema(targets));
+  }
+
   /**
    * Reads the next Tuple from the Parquet file.
    *
@@ -70,7 +115,23 @@ public class ParquetScanner extends FileScanner {
    */
   @Override
   public Tuple next() throws IOException {
-    return reader.read();
+    if (reader == null) {
+      if (skipAll) {
+        return null;
+      }
+      openReader();
+      if (skipAll) {
+        return null;
+      }
+    }
+
+    Tuple tuple;
+    while ((tuple = reader.read()) != null) {
+      if (filter == null || filter.eval(tuple).isTrue()) {
+        return tuple;
+      }
+    }
+    return null;
   }
 
   /**
@@ -103,16 +164,23 @@ public class ParquetScanner extends FileScanner {
   /**
    * Returns whether this scanner is selectable.
    *
-   * @return false
+   * @return true
    */
   @Override
   public boolean isSelectable() {
-    return false;
+    return true;
   }
 
+  /**
+   * Sets a filter bound to the target columns. It must be called before the first tuple is read.
+   */
   @Override
   public void setFilter(EvalNode filter) {
-    throw new TajoRuntimeException(new UnsupportedException());
+    if (reader != null) {
+      throw new IllegalStateException("Should be called before reading tuples");
+    }
+    this.filter = filter;
+    this.filterPredicate = new ParquetFilterBuilder(schema).build(filter);
   }
 
   /**
@@ -159,7 +159,7 @@ public class TajoRecordConverter extends GroupConverter {
       Column column = tajoReadSchema.getColumn(projectionIndex);
       if (column.getDataType().getType() == TajoDataTypes.Type.NULL_TYPE
           || currentTuple.isBlankOrNull(i)) {
-        set(projectionIndex, NullDatum.get());
+        set(i, NullDatum.get());
       }
     }
   }
@@ -30,20 +30,52 @@ import org.apache.tajo.common.TajoDataTypes;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.plan.expr.EvalNode;
 import org.apache.tajo.storage.*;
-import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.storage.fragment.Fragment;
 import org.apache.tajo.tuple.offheap.OffHeapRowBlock;
 import org.apache.tajo.tuple.offheap.OffHeapRowBlockReader;
 import org.apache.tajo.tuple.offheap.ZeroCopyTuple;
 import org.apache.tajo.unit.StorageUnit;
+import org.apache.tajo.util.SizeOf;
+import org.apache.tajo.util.UnsafeUtil;
+import sun.misc.Unsafe;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 
+/**
+ * A scanner for DRAW files, whose rows are stored in the same format as off-heap rows.
+ *
+ * A file in a local file system is memory-mapped in large windows, and each returned tuple points directly to a row
+ * in the current window, without copying it. So, a returned tuple is only valid until the next call of
+ * {@link #next()}, and a window is unmapped when the scanner moves to the next window or is closed.
+ * Other files are read into an off-heap row block through a channel.
+ */
 public class DirectRawFileScanner extends FileScanner implements SeekableScanner {
   private static final Log LOG = LogFactory.getLog(DirectRawFileScanner.class);
+  private static final Unsafe UNSAFE = UnsafeUtil.unsafe;
+
+  public static final String MMAP_ENABLED = "tajo.storage.draw.mmap.enabled";
+  public static final String MMAP_WINDOW_SIZE = "tajo.storage.draw.mmap.window-bytes";
+  public static final int DEFAULT_MMAP_WINDOW_SIZE = 64 * StorageUnit.MB;
 
   private SeekableInputChannel channel;
+
+  // for memory-mapped local files
+  private FileChannel fileChannel;
+  private MappedByteBuffer window;
+  private long windowAddress;
+  private int windowSize;
+  /** the file offset of the current window */
+  private long windowOffset;
+  /** the read position in the current window */
+  private int windowPos;
+  private long startOffset;
+  private long endOffset;
+
   private TajoDataTypes.DataType[] columnTypes;
 
   private boolean eof = false;
@@ -54,22 +86,24 @@ public class DirectRawFileScanner extends FileScanner implements SeekableScanner
   private OffHeapRowBlock tupleBuffer;
   private OffHeapRowBlockReader reader;
 
-  public DirectRawFileScanner(Configuration conf, Schema schema, TableMeta meta, FileFragment fragment) throws IOException {
+  public DirectRawFileScanner(Configuration conf, Schema schema, TableMeta meta, Fragment fragment) throws IOException {
     super(conf, schema, meta, fragment);
   }
 
   public void init() throws IOException {
-    initChannel();
-
     columnTypes = new TajoDataTypes.DataType[schema.size()];
     for (int i = 0; i < schema.size(); i++) {
       columnTypes[i] = schema.getColumn(i).getDataType();
     }
 
-    tupleBuffer = new OffHeapRowBlock(schema, 64 * StorageUnit.KB);
-    reader = new OffHeapRowBlockReader(tupleBuffer);
+    initChannel();
+
+    if (fileChannel == null) {
+      tupleBuffer = new OffHeapRowBlock(schema, 64 * StorageUnit.KB);
+      reader = new OffHeapRowBlockReader(tupleBuffer);
 
-    fetchNeeded = !next(tupleBuffer);
+      fetchNeeded = !next(tupleBuffer);
+    }
 
     super.init();
   }
@@ -77,19 +111,16 @@ public class DirectRawFileScanner extends FileScanner implements SeekableScanner
   private void initChannel() throws IOException {
     FileSystem fs = FileScanner.getFileSystem((TajoConf) conf, fragment.getPath());
 
-    if (fs instanceof LocalFileSystem) {
-      File file;
-      try {
-        if (fragment.getPath().toUri().getScheme() != null) {
-          file = new File(fragment.getPath().toUri());
-        } else {
-          file = new File(fragment.getPath().toString());
-        }
-      } catch (IllegalArgumentException iae) {
-        throw new IOException(iae);
-      }
-
-      channel = new LocalFileInputChannel(new FileInputStream(file));
+    if (fs instanceof LocalFileSystem && conf.getBoolean(MMAP_ENABLED, true)) {
+      fileChannel = new RandomAccessFile(toLocalFile(), "r").getChannel();
+      fileSize = fileChannel.size();
+      windowSize = conf.getInt(MMAP_WINDOW_SIZE, DEFAULT_MMAP_WINDOW_SIZE);
+      startOffset = fragment.getStartKey();
+      endOffset = Math.min(fileSize, fragment.getStartKey() + fragment.getLength());
+      windowOffset = startOffset;
+      windowPos = 0;
+    } else if (fs instanceof LocalFileSystem) {
+      channel = new LocalFileInputChannel(new FileInputStream(toLocalFile()));
       channel.seek(fragment.getStartKey());
       fileSize = channel.size();
     } else {
@@ -104,17 +135,94 @@ public class DirectRawFileScanner extends FileScanner implements SeekableScanner
 
     if (LOG.isDebugEnabled()) {
       LOG.debug("RawFileScanner open:" + fragment.getPath() + ", offset :" +
-          fragment.getStartKey() + ", file size :" + fileSize);
+          fragment.getStartKey() + ", file size :" + fileSize + ", memory-mapped :" + (fileChannel != null));
     }
   }
 
+  private File toLocalFile() throws IOException {
+    try {
+      if (fragment.getPath().toUri().getScheme() != null) {
+        return new File(fragment.getPath().toUri());
+      } else {
+        return new File(fragment.getPath().toString());
+      }
+    } catch (IllegalArgumentException iae) {
+      throw new IOException(iae);
+    }
+  }
+
+  /**
+   * Map a new window which starts at the given file offset, and unmap the current window.
+   *
+   * @param offset The file offset where the window starts
+   * @param minSize The minimum size of the window, which must be contained in the fragment
+   */
+  private void mapWindow(long offset, int minSize) throws IOException {
+    unmapWindow();
+
+    long size = Math.min(endOffset - offset, Math.max(windowSize, minSize));
+    if (size < minSize) {
+      throw new IOException("Unexpected end of " + fragment.getPath() + " at " + offset + ": a row requires "
+          + minSize + " bytes, but only " + size + " bytes remain");
+    }
+
+    window = fileChannel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+    windowAddress = UnsafeUtil.getAddress(window);
+    windowOffset = offset;
+    windowPos = 0;
+  }
+
+  private void unmapWindow() {
+    if (window != null) {
+      UnsafeUtil.free(window);
+      window = null;
+    }
+  }
+
+  private Tuple nextMapped() throws IOException {
+    if (windowOffset + windowPos >= endOffset) {
+      eof = true;
+      return null;
+    }
+
+    if (window == null || window.limit() - windowPos < SizeOf.SIZE_OF_INT) {
+      mapWindow(windowOffset + windowPos, SizeOf.SIZE_OF_INT);
+    }
+    int recordLen = UNSAFE.getInt(windowAddress + windowPos);
+    if (recordLen < SizeOf.SIZE_OF_INT) {
+      throw new IOException("Corrupted row of " + recordLen + " bytes at " + (windowOffset + windowPos)
+          + " in " + fragment.getPath());
+    }
+    if (window.limit() - windowPos < recordLen) {
+      mapWindow(windowOffset + windowPos, recordLen);
+    }
+
+    unSafeTuple.set(window, windowPos, recordLen, columnTypes);
+    windowPos += recordLen;
+    recordCount++;
+    return unSafeTuple;
+  }
+
   @Override
   public long getNextOffset() throws IOException {
+    if (fileChannel != null) {
+      return windowOffset + windowPos;
+    }
     return channel.position() - reader.remainForRead();
   }
 
   @Override
   public void seek(long offset) throws IOException {
+    if (fileChannel != null) {
+      if (window != null && offset >= windowOffset && offset < windowOffset + window.limit()) {
+        windowPos = (int) (offset - windowOffset);
+      } else {
+        unmapWindow();
+        windowOffset = offset;
+        windowPos = 0;
+      }
+      return;
+    }
     channel.seek(offset);
     fetchNeeded = true;
   }
@@ -131,6 +239,10 @@ public class DirectRawFileScanner extends FileScanner implements SeekableScanner
       return null;
     }
 
+    if (fileChannel != null) {
+      return nextMapped();
+    }
+
     while(true) {
       if (fetchNeeded) {
         if (!next(tupleBuffer)) {
@@ -150,6 +262,12 @@ public class DirectRawFileScanner extends FileScanner implements SeekableScanner
 
   @Override
   public void reset() throws IOException {
+    if (fileChannel != null) {
+      seek(startOffset);
+      eof = false;
+      return;
+    }
+
     // reload initial buffer
     seek(0);
     eof = false;
@@ -162,11 +280,15 @@ public class DirectRawFileScanner extends FileScanner implements SeekableScanner
       tableStats.setReadBytes(fileSize);
       tableStats.setNumRows(recordCount);
     }
-    tupleBuffer.release();
-    tupleBuffer = null;
+    if (tupleBuffer != null) {
+      tupleBuffer.release();
+      tupleBuffer = null;
+    }
     reader = null;
 
-    IOUtils.cleanup(LOG, channel);
+    // unmap the window here rather than waiting for GC, so that the memory and file are released immediately
+    unmapWindow();
+    IOUtils.cleanup(LOG, channel, fileChannel);
   }
 
   @Override
@@ -196,12 +318,19 @@ public class DirectRawFileScanner extends FileScanner implements SeekableScanner
     try {
       tableStats.setNumRows(recordCount);
       long filePos = 0;
-      if (channel != null) {
+      if (fileChannel != null) {
+        filePos = windowOffset + windowPos;
+        tableStats.setReadBytes(filePos - startOffset);
+        if (!eof) {
+          return endOffset > startOffset ?
+              Math.min(1.0f, (float) (filePos - startOffset) / (float) (endOffset - startOffset)) : 1.0f;
+        }
+      } else if (channel != null) {
         filePos = channel.position();
         tableStats.setReadBytes(filePos);
       }
 
-      if(eof || channel == null) {
+      if(eof || (channel == null && fileChannel == null)) {
         tableStats.setReadBytes(fileSize);
         return 1.0f;
       }
@@ -36,6 +36,7 @@ import org.apache.tajo.plan.util.PlannerUtil;
 import org.apache.tajo.storage.*;
 import org.apache.tajo.tuple.BaseTupleBuilder;
 import org.apache.tajo.tuple.offheap.OffHeapRowBlock;
+import org.apache.tajo.tuple.offheap.OffHeapRowBlockUtils;
 import org.apache.tajo.tuple.offheap.UnSafeTuple;
 import org.apache.tajo.unit.StorageUnit;
 
@@ -168,7 +169,7 @@ public class DirectRawFileWriter extends FileAppender {
     UnSafeTuple unSafeTuple;
 
     if (!(t instanceof UnSafeTuple)) {
-      RowStoreUtil.convert(t, builder);
+      OffHeapRowBlockUtils.convert(t, builder);
       unSafeTuple = builder.buildToZeroCopyTuple();
     } else {
       unSafeTuple = (UnSafeTuple) t;
@@ -176,7 +177,12 @@ public class DirectRawFileWriter extends FileAppender {
 
     ByteBuffer bb = unSafeTuple.nioBuffer();
     ensureSize(bb.limit());
-    buffer.put(bb);
+    if (bb.limit() > buffer.remaining()) {
+      // a row larger than the write buffer is written directly
+      write(bb);
+    } else {
+      buffer.put(bb);
+    }
 
     pos = getFilePosition() + (buffer.limit() - buffer.remaining());
 
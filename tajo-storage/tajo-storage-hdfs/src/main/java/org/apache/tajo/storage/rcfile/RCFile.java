@@ -36,8 +36,6 @@ import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.datum.Datum;
 import org.apache.tajo.datum.NullDatum;
-import org.apache.tajo.exception.TajoRuntimeException;
-import org.apache.tajo.exception.UnsupportedException;
 import org.apache.tajo.plan.expr.EvalNode;
 import org.apache.tajo.storage.*;
 import org.apache.tajo.storage.fragment.Fragment;
@@ -1115,6 +1113,8 @@ public class RCFile {
     private static class SelectedColumn {
       public int colIndex;
       public int rowReadIndex;
+      /** The start of the value of the current row */
+      public int valueStart;
       public int runLength;
       public int prvLength;
       public boolean isNulled;
@@ -1171,6 +1171,11 @@ public class RCFile {
 
     private Tuple outTuple;
 
+    private EvalNode filter;
+    /** The columns referred by the filter, which are deserialized before the others */
+    private boolean [] filterColumns;
+    private boolean [] otherColumns;
+
     public RCFileScanner(Configuration conf, final Schema schema, final TableMeta meta,
                          final Fragment fragment) throws IOException {
       super(conf, schema, meta, fragment);
@@ -1617,23 +1622,35 @@ public class RCFile {
 
     @Override
     public Tuple next() throws IOException {
-      if (!more) {
-        return null;
-      }
+      while (more) {
+        more = nextBuffer(rowId);
+        long lastSeenSyncPos = lastSeenSyncPos();
+        if (lastSeenSyncPos >= endOffset) {
+          more = false;
+          return null;
+        }
 
-      more = nextBuffer(rowId);
-      long lastSeenSyncPos = lastSeenSyncPos();
-      if (lastSeenSyncPos >= endOffset) {
-        more = false;
-        return null;
-      }
+        if (!more) {
+          return null;
+        }
 
-      if (!more) {
-        return null;
-      }
+        if (filter == null) {
+          getCurrentRow(outTuple);
+          return outTuple;
+        }
 
-      getCurrentRow(outTuple);
-      return outTuple;
+        // The other columns are deserialized only if the row passes the filter.
+        if (!currentValue.inited) {
+          currentValueBuffer();
+        }
+        advanceRow();
+        deserializeColumns(outTuple, filterColumns);
+        if (filter.eval(outTuple).isTrue()) {
+          deserializeColumns(outTuple, otherColumns);
+          return outTuple;
+        }
+      }
+      return null;
     }
 
     @Override
@@ -1701,22 +1718,47 @@ public class RCFile {
         currentValueBuffer();
       }
 
+      advanceRow();
+      deserializeColumns(tuple, null);
+    }
+
+    /**
+     * Advance all selected columns to the current row, so that their values can be deserialized in any order.
+     */
+    private void advanceRow() throws IOException {
+      for (int j = 0; j < selectedColumns.length; ++j) {
+        SelectedColumn col = selectedColumns[j];
+        if (!col.isNulled) {
+          colAdvanceRow(j, col);
+          col.valueStart = col.rowReadIndex;
+          col.rowReadIndex += col.prvLength;
+        }
+      }
+      rowFetched = true;
+    }
+
+    /**
+     * Deserialize the values of the current row.
+     *
+     * @param columnMask Whether each column is deserialized, indexed by the column id in the table schema.
+     *                   If it is null, all selected columns are deserialized.
+     */
+    private void deserializeColumns(Tuple tuple, boolean [] columnMask) throws IOException {
       for (int j = 0; j < selectedColumns.length; ++j) {
         SelectedColumn col = selectedColumns[j];
         int actualColumnIdx = col.colIndex;
+        if (columnMask != null && !columnMask[actualColumnIdx]) {
+          continue;
+        }
 
         if (col.isNulled) {
           tuple.put(j, NullDatum.get());
         } else {
-          colAdvanceRow(j, col);
-
           Datum datum = serde.deserialize(actualColumnIdx,
-              currentValue.loadedColumnsValueBuffer[j].getData(), col.rowReadIndex, col.prvLength, nullChars);
+              currentValue.loadedColumnsValueBuffer[j].getData(), col.valueStart, col.prvLength, nullChars);
           tuple.put(j, datum);
-          col.rowReadIndex += col.prvLength;
         }
       }
-      rowFetched = true;
     }
 
     /**
@@ -1777,12 +1819,20 @@ public class RCFile {
 
     @Override
     public boolean isSelectable() {
-      return false;
+      return true;
     }
 
+    /**
+     * Sets a filter bound to the target columns. The values of the filter columns are deserialized first, and the
+     * others are deserialized only for the rows which pass the filter.
+     */
     @Override
     public void setFilter(EvalNode filter) {
-      throw new TajoRuntimeException(new UnsupportedException());
+      this.filter = filter;
+      if (filter != null) {
+        this.filterColumns = findFilterColumns(filter);
+        this.otherColumns = negate(filterColumns);
+      }
     }
 
     @Override
@@ -30,10 +30,7 @@ import org.apache.tajo.catalog.Column;
 import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.catalog.TableMeta;
 import org.apache.tajo.conf.TajoConf;
-import org.apache.tajo.datum.Datum;
 import org.apache.tajo.datum.NullDatum;
-import org.apache.tajo.exception.TajoRuntimeException;
-import org.apache.tajo.exception.UnsupportedException;
 import org.apache.tajo.plan.expr.EvalNode;
 import org.apache.tajo.storage.*;
 import org.apache.tajo.storage.fragment.Fragment;
@@ -83,6 +80,11 @@ public class SequenceFileScanner extends FileScanner {
 
   private Tuple outTuple;
 
+  private EvalNode filter;
+  /** The columns referred by the filter, which are deserialized before the others */
+  private boolean [] filterColumns;
+  private boolean [] otherColumns;
+
   public SequenceFileScanner(Configuration conf, Schema schema, TableMeta meta, Fragment fragment) throws IOException {
     super(conf, schema, meta, fragment);
   }
@@ -166,23 +168,36 @@ public class SequenceFileScanner extends FileScanner {
 
   @Override
   public Tuple next() throws IOException {
-    if (!more) return null;
+    while (more) {
+      long pos = reader.getPosition();
+      boolean remaining = reader.next(EMPTY_KEY);
 
-    long pos = reader.getPosition();
-    boolean remaining = reader.next(EMPTY_KEY);
+      if (pos >= end && reader.syncSeen()) {
+        more = false;
+      } else {
+        more = remaining;
+      }
 
-    if (pos >= end && reader.syncSeen()) {
-      more = false;
-    } else {
-      more = remaining;
-    }
+      if (!more) {
+        return null;
+      }
 
-    if (more) {
+      currentIdx++;
       if (hasBinarySerDe) {
         BytesWritable bytesWritable = new BytesWritable();
         reader.getCurrentValue(bytesWritable);
-        makeTuple(bytesWritable);
         totalBytes += (long)bytesWritable.getBytes().length;
+        if (filter == null) {
+          makeTuple(bytesWritable, null);
+          return outTuple;
+        }
+
+        // The other columns are deserialized only if the row passes the filter.
+        makeTuple(bytesWritable, filterColumns);
+        if (filter.eval(outTuple).isTrue()) {
+          deserializeFields(bytesWritable.getBytes(), otherColumns);
+          return outTuple;
+        }
       } else {
         reader.getCurrentValue(text);
 
@@ -190,16 +205,24 @@ public class SequenceFileScanner extends FileScanner {
         byteBuf.writeBytes(text.getBytes(), 0, text.getLength());
 
         try {
-          deserializer.deserialize(byteBuf, outTuple);
+          if (filter == null) {
+            deserializer.deserialize(byteBuf, outTuple);
+            return outTuple;
+          }
+
+          boolean partial = deserializer.deserialize(byteBuf, outTuple, filterColumns);
+          if (filter.eval(outTuple).isTrue()) {
+            if (partial) {
+              deserializer.deserialize(byteBuf, outTuple, otherColumns);
+            }
+            return outTuple;
+          }
         } catch (TextLineParsingError e) {
           throw new IOException(e);
         }
       }
-      currentIdx++;
-      return outTuple;
-    } else {
-      return null;
     }
+    return null;
   }
 
   /**
@@ -215,7 +238,7 @@ public class SequenceFileScanner extends FileScanner {
    *
    * So, tajo must make a tuple after parsing hive style BinarySerDe.
    */
-  private Tuple makeTuple(BytesWritable value) throws IOException{
+  private Tuple makeTuple(BytesWritable value, boolean [] columnMask) throws IOException{
     int start = 0;
     int length = value.getLength();
 
@@ -239,13 +262,6 @@ public class SequenceFileScanner extends FileScanner {
         fieldStart[i] = lastFieldByteEnd + elementOffset;
         fieldLength[i] = elementSize;
         lastFieldByteEnd = fieldStart[i] + fieldLength[i];
-
-        for (int j = 0; j < projectionMap.length; j++) {
-          if (projectionMap[j] == i) {
-            Datum datum = serde.deserialize(i, bytes, fieldStart[i], fieldLength[i], nullChars);
-            outTuple.put(i, datum);
-          }
-        }
       }
 
       // next byte is a null byte if there are more bytes to go
@@ -261,9 +277,31 @@ public class SequenceFileScanner extends FileScanner {
       }
     }
 
+    deserializeFields(bytes, columnMask);
     return outTuple;
   }
 
+  /**
+   * Deserialize the projected fields located by {@link #makeTuple(BytesWritable, boolean[])}.
+   *
+   * @param columnMask Whether each column is deserialized, indexed by the column id in the table schema.
+   *                   If it is null, all projected columns are deserialized.
+   */
+  private void deserializeFields(byte [] bytes, boolean [] columnMask) throws IOException {
+    for (int j = 0; j < projectionMap.length; j++) {
+      int columnId = projectionMap[j];
+      if (columnMask != null && !columnMask[columnId]) {
+        continue;
+      }
+
+      if (fieldIsNull[columnId]) {
+        outTuple.put(j, NullDatum.get());
+      } else {
+        outTuple.put(j, serde.deserialize(columnId, bytes, fieldStart[columnId], fieldLength[columnId], nullChars));
+      }
+    }
+  }
+
   /**
    * Check a particular field and set its size and offset in bytes based on the
    * field type and the bytes arrays.
@@ -349,12 +387,20 @@ public class SequenceFileScanner extends FileScanner {
 
   @Override
   public boolean isSelectable() {
-    return false;
+    return true;
   }
 
+  /**
+   * Sets a filter bound to the target columns. The fields of the filter columns are deserialized first, and the
+   * others are deserialized only for the rows which pass the filter.
+   */
   @Override
   public void setFilter(EvalNode filter) {
-    throw new TajoRuntimeException(new UnsupportedException());
+    this.filter = filter;
+    if (filter != null) {
+      this.filterColumns = findFilterColumns(filter);
+      this.otherColumns = negate(filterColumns);
+    }
   }
 
   @Override
@@ -39,7 +39,8 @@ public class ByteBufLineReader implements Closeable {
   private final InputChannel channel;
   private final SeekableChannel seekableChannel;
   private final AtomicInteger lineReadBytes = new AtomicInteger();
-  private final LineSplitProcessor processor = new LineSplitProcessor();
+  /** true if the last newline was CR, which can be followed by LF in the next buffer */
+  private boolean prevCharCR = false;
 
   public ByteBufLineReader(InputChannel channel) {
     this(channel, BufferPool.directBuffer(DEFAULT_BUFFER));
@@ -76,7 +77,7 @@ public class ByteBufLineReader implements Closeable {
       this.startIndex = 0;
       this.eof = false;
       this.buffer.clear();
-      this.processor.reset();
+      this.prevCharCR = false;
     } else {
       throw new IllegalArgumentException("Channel is not an instance of SeekableChannel");
     }
@@ -157,8 +158,9 @@ public class ByteBufLineReader implements Closeable {
           return null;
         } else {
           //skip first newLine
-          if (processor.isPrevCharCR() && buffer.getByte(buffer.readerIndex()) == LineSplitProcessor.LF) {
+          if (prevCharCR && buffer.getByte(buffer.readerIndex()) == LineSplitProcessor.LF) {
             buffer.skipBytes(1);
+            prevCharCR = false;
             if(eof && !buffer.isReadable()) {
               reads.set(1);
               return null;
@@ -172,22 +174,26 @@ public class ByteBufLineReader implements Closeable {
         readable = buffer.readableBytes();
       }
 
-      int endIndex = buffer.forEachByte(buffer.readerIndex(), readable, processor);
+      // searches a newline eight bytes at a time
+      int endIndex = DelimiterSearcher.indexOfNewline(buffer, buffer.readerIndex(), readable);
       if (endIndex < 0) {
         //does not appeared terminating newline
+        prevCharCR = false;
         buffer.readerIndex(buffer.writerIndex()); // set to end buffer
         if(eof){
           readBytes += (buffer.readerIndex() - startIndex);
           break loop;
         }
       } else {
+        prevCharCR = buffer.getByte(endIndex) == LineSplitProcessor.CR;
         buffer.readerIndex(endIndex + 1);
         readBytes += (buffer.readerIndex() - startIndex); //past newline + text line
 
         //appeared terminating CRLF
-        if (processor.isPrevCharCR() && buffer.isReadable()
+        if (prevCharCR && buffer.isReadable()
             && buffer.getByte(buffer.readerIndex()) == LineSplitProcessor.LF) {
           buffer.skipBytes(1);
+          prevCharCR = false;
           readBytes++;
           newlineLength += 2;
         } else {
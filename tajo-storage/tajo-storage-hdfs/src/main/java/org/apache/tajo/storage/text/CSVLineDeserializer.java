@@ -69,11 +69,31 @@ public class CSVLineDeserializer extends TextLineDeserializer {
   }
 
   public void deserialize(final ByteBuf lineBuf, Tuple output) throws IOException, TextLineParsingError {
+    deserialize(lineBuf, output, null);
+  }
+
+  /**
+   * Fields are split only up to the last field of the given columns.
+   */
+  @Override
+  public boolean deserialize(final ByteBuf lineBuf, Tuple output, boolean [] columnMask)
+      throws IOException, TextLineParsingError {
     if (lineBuf == null || targetColumnIndexes == null || targetColumnIndexes.length == 0) {
-      return;
+      return true;
     }
     int[] projection = targetColumnIndexes;
 
+    // the number of targets to be split
+    int targetNum = projection.length;
+    if (columnMask != null) {
+      while (targetNum > 0 && !columnMask[projection[targetNum - 1]]) {
+        targetNum--;
+      }
+    }
+
+    final int readerIndex = lineBuf.readerIndex();
+    final int writerIndex = lineBuf.writerIndex();
+
     final int rowLength = lineBuf.readableBytes();
     int start = 0, fieldLength = 0, end = 0;
 
@@ -90,18 +110,20 @@ public class CSVLineDeserializer extends TextLineDeserializer {
         fieldLength = end - start - delimiterCompensation;
       }
 
-      if (projection.length > currentTarget && currentIndex == projection[currentTarget]) {
-        lineBuf.setIndex(start, start + fieldLength);
-        try {
-          Datum datum = fieldSerDer.deserialize(currentIndex, lineBuf, nullChars);
-          output.put(currentTarget, datum);
-        } catch (Exception e) {
-          output.put(currentTarget, NullDatum.get());
+      if (targetNum > currentTarget && currentIndex == projection[currentTarget]) {
+        if (columnMask == null || columnMask[currentIndex]) {
+          lineBuf.setIndex(start, start + fieldLength);
+          try {
+            Datum datum = fieldSerDer.deserialize(currentIndex, lineBuf, nullChars);
+            output.put(currentTarget, datum);
+          } catch (Exception e) {
+            output.put(currentTarget, NullDatum.get());
+          }
         }
         currentTarget++;
       }
 
-      if (projection.length == currentTarget) {
+      if (targetNum == currentTarget) {
         break;
       }
 
@@ -110,11 +132,16 @@ public class CSVLineDeserializer extends TextLineDeserializer {
     }
 
     /* If a text row is less than table schema size, tuple should set to NullDatum */
-    if (projection.length > currentTarget) {
-      for (; currentTarget < projection.length; currentTarget++) {
-        output.put(currentTarget, NullDatum.get());
+    if (targetNum > currentTarget) {
+      for (; currentTarget < targetNum; currentTarget++) {
+        if (columnMask == null || columnMask[projection[currentTarget]]) {
+          output.put(currentTarget, NullDatum.get());
+        }
       }
     }
+
+    lineBuf.setIndex(readerIndex, writerIndex);
+    return true;
   }
 
   @Override
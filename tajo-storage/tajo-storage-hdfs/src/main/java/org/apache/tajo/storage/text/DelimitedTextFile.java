@@ -34,8 +34,6 @@ import org.apache.tajo.TaskAttemptId;
 import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.catalog.TableMeta;
 import org.apache.tajo.catalog.statistics.TableStats;
-import org.apache.tajo.exception.TajoRuntimeException;
-import org.apache.tajo.exception.UnsupportedException;
 import org.apache.tajo.plan.expr.EvalNode;
 import org.apache.tajo.storage.*;
 import org.apache.tajo.storage.compress.CodecPool;
@@ -280,6 +278,8 @@ public class DelimitedTextFile {
 
     private DelimitedLineReader reader;
     private TextLineDeserializer deserializer;
+    /** It is used instead of the deserializer if the direct parsing is applicable */
+    private DirectCSVLineParser directParser;
 
     private int errorPrintOutMaxNum = 5;
     /** Maximum number of permissible errors */
@@ -289,6 +289,11 @@ public class DelimitedTextFile {
 
     private VTuple outTuple;
 
+    private EvalNode filter;
+    /** The columns referred by the filter, which are read before the others */
+    private boolean [] filterColumns;
+    private boolean [] otherColumns;
+
     public DelimitedTextFileScanner(Configuration conf, final Schema schema, final TableMeta meta,
                                     final Fragment fragment)
         throws IOException {
@@ -315,6 +320,9 @@ public class DelimitedTextFile {
       if(deserializer != null) {
         deserializer.release();
       }
+      if (directParser != null) {
+        directParser.release();
+      }
 
       reader = new DelimitedLineReader(conf, fragment, conf.getInt(READ_BUFFER_SIZE, 128 * StorageUnit.KB));
       reader.init();
@@ -350,8 +358,14 @@ public class DelimitedTextFile {
         }
       }
 
-      deserializer = getLineSerde().createDeserializer(schema, meta, targets);
-      deserializer.init();
+      TextLineSerDe serde = getLineSerde();
+      if (serde.getClass() == CSVLineSerDe.class && DirectCSVLineParser.isApplicable(meta, targets)) {
+        directParser = new DirectCSVLineParser(schema, meta, targets);
+        directParser.init();
+      } else {
+        deserializer = serde.createDeserializer(schema, meta, targets);
+        deserializer.init();
+      }
     }
 
     public TextLineSerDe getLineSerde() {
@@ -406,12 +420,34 @@ public class DelimitedTextFile {
             return EmptyTuple.get();
           }
 
+          // A malformed field is parsed as null, so that the direct parsing has no parsing error.
+          if (directParser != null) {
+            recordCount++;
+            Tuple tuple = directParser.parse(buf, offset);
+            if (filter == null || filter.eval(tuple).isTrue()) {
+              return tuple;
+            }
+            continue;
+          }
+
           outTuple.setOffset(offset);
 
           try {
-            deserializer.deserialize(buf, outTuple);
-            // if a line is read normally, it exits this loop.
-            break;
+            if (filter == null) {
+              deserializer.deserialize(buf, outTuple);
+              // if a line is read normally, it exits this loop.
+              break;
+            }
+
+            // The other columns are read only if the line passes the filter.
+            boolean partial = deserializer.deserialize(buf, outTuple, filterColumns);
+            if (filter.eval(outTuple).isTrue()) {
+              if (partial) {
+                deserializer.deserialize(buf, outTuple, otherColumns);
+              }
+              break;
+            }
+            recordCount++;
 
           } catch (TextLineParsingError tae) {
 
@@ -429,7 +465,7 @@ public class DelimitedTextFile {
               throw tae;
             }
           }
-        } while (reader.isReadable()); // continue until EOS
+        } while (true); // continue until EOS, where readLine() returns null
 
         // recordCount means the number of actual read records. We increment the count here.
         recordCount++;
@@ -453,6 +489,9 @@ public class DelimitedTextFile {
         if (deserializer != null) {
           deserializer.release();
         }
+        if (directParser != null) {
+          directParser.release();
+        }
 
         if (tableStats != null && reader != null) {
           tableStats.setReadBytes(reader.getReadBytes());  //Actual Processed Bytes. (decompressed bytes + overhead)
@@ -475,12 +514,20 @@ public class DelimitedTextFile {
 
     @Override
     public boolean isSelectable() {
-      return false;
+      return true;
     }
 
+    /**
+     * Sets a filter bound to the target columns. The fields of the filter columns are read first, and the others
+     * are read only for the lines which pass the filter.
+     */
     @Override
     public void setFilter(EvalNode filter) {
-      throw new TajoRuntimeException(new UnsupportedException());
+      this.filter = filter;
+      if (filter != null) {
+        this.filterColumns = findFilterColumns(filter);
+        this.otherColumns = negate(filterColumns);
+      }
     }
 
     @Override
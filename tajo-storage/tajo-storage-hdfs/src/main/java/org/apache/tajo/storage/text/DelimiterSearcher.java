@@ -0,0 +1,154 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage.text;
+
+import io.netty.buffer.ByteBuf;
+import org.apache.tajo.util.UnsafeUtil;
+import sun.misc.Unsafe;
+
+import java.nio.ByteOrder;
+
+/**
+ * DelimiterSearcher finds delimiter bytes in a buffer eight bytes at a time. It reads a long word from the memory of
+ * the buffer, and computes a word whose bytes have their highest bits set where the bytes are equal to a delimiter
+ * (SIMD within a register). Then, the delimiters in the word are found by counting zero bits, without branching on
+ * each byte.
+ *
+ * Buffers which have neither a memory address nor an array are searched byte by byte.
+ */
+public class DelimiterSearcher {
+  private static final Unsafe UNSAFE = UnsafeUtil.unsafe;
+  private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+
+  private static final long ONES = 0x0101010101010101L;
+  private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+  private static final long CR_PATTERN = broadcast(LineSplitProcessor.CR);
+  private static final long LF_PATTERN = broadcast(LineSplitProcessor.LF);
+
+  private final byte delimiter;
+  private final long pattern;
+
+  public DelimiterSearcher(byte delimiter) {
+    this.delimiter = delimiter;
+    this.pattern = broadcast(delimiter);
+  }
+
+  /**
+   * Split the readable bytes of a buffer into fields by the delimiter. The search stops when the given number of
+   * fields are found, so that the rest of a line is not read.
+   *
+   * @param buf The buffer of a line
+   * @param fieldEnds The indexes of the buffer where fields end, which are filled by this method.
+   *                  A field starts at the next index of the end of the previous field.
+   * @param maxFields The maximum number of fields to find, which must be less than or equal to the array length
+   * @return The number of found fields
+   */
+  public int split(ByteBuf buf, int [] fieldEnds, int maxFields) {
+    int index = buf.readerIndex();
+    int end = buf.writerIndex();
+    int fieldNum = 0;
+
+    if (buf.hasMemoryAddress() || buf.hasArray()) {
+      Object base = buf.hasMemoryAddress() ? null : buf.array();
+      long address = buf.hasMemoryAddress() ?
+          buf.memoryAddress() : UnsafeUtil.ARRAY_BYTE_BASE_OFFSET + buf.arrayOffset();
+
+      for (; index + 8 <= end; index += 8) {
+        long matches = matchBytes(UNSAFE.getLong(base, address + index), pattern);
+        while (matches != 0) {
+          fieldEnds[fieldNum++] = index + firstMatch(matches);
+          if (fieldNum == maxFields) {
+            return fieldNum;
+          }
+          matches = clearFirstMatch(matches);
+        }
+      }
+    }
+
+    for (; index < end; index++) {
+      if (buf.getByte(index) == delimiter) {
+        fieldEnds[fieldNum++] = index;
+        if (fieldNum == maxFields) {
+          return fieldNum;
+        }
+      }
+    }
+
+    fieldEnds[fieldNum++] = end;
+    return fieldNum;
+  }
+
+  /**
+   * Find the first CR or LF in the given range of a buffer.
+   *
+   * @return The index of the first CR or LF, or -1 if there is none
+   */
+  public static int indexOfNewline(ByteBuf buf, int index, int length) {
+    int end = index + length;
+
+    if (buf.hasMemoryAddress() || buf.hasArray()) {
+      Object base = buf.hasMemoryAddress() ? null : buf.array();
+      long address = buf.hasMemoryAddress() ?
+          buf.memoryAddress() : UnsafeUtil.ARRAY_BYTE_BASE_OFFSET + buf.arrayOffset();
+
+      for (; index + 8 <= end; index += 8) {
+        long word = UNSAFE.getLong(base, address + index);
+        long matches = matchBytes(word, LF_PATTERN) | matchBytes(word, CR_PATTERN);
+        if (matches != 0) {
+          return index + firstMatch(matches);
+        }
+      }
+    }
+
+    for (; index < end; index++) {
+      byte b = buf.getByte(index);
+      if (b == LineSplitProcessor.LF || b == LineSplitProcessor.CR) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @return A word all of whose bytes are the given byte
+   */
+  private static long broadcast(byte b) {
+    return (b & 0xFFL) * ONES;
+  }
+
+  /**
+   * @return A word in which only the highest bit of each byte equal to the pattern byte is set. Unlike the common
+   * (x - 0x01..) & ~x & 0x80.. form, it has no false match caused by borrows, so all matches of a word can be used.
+   */
+  private static long matchBytes(long word, long pattern) {
+    long x = word ^ pattern;
+    return ~(((x & LOW_BITS) + LOW_BITS) | x | LOW_BITS);
+  }
+
+  /**
+   * @return The byte offset of the first match in memory order
+   */
+  private static int firstMatch(long matches) {
+    return (LITTLE_ENDIAN ? Long.numberOfTrailingZeros(matches) : Long.numberOfLeadingZeros(matches)) >>> 3;
+  }
+
+  private static long clearFirstMatch(long matches) {
+    return LITTLE_ENDIAN ? matches & (matches - 1) : matches & ~Long.highestOneBit(matches);
+  }
+}
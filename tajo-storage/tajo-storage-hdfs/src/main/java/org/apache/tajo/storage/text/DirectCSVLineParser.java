@@ -0,0 +1,352 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage.text;
+
+import io.netty.buffer.ByteBuf;
+import org.apache.tajo.TajoConstants;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.common.TajoDataTypes.DataType;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.storage.StorageConstants;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.tuple.offheap.OffHeapRowBlock;
+import org.apache.tajo.tuple.offheap.OffHeapRowWriter;
+import org.apache.tajo.tuple.offheap.ZeroCopyTuple;
+import org.apache.tajo.unit.StorageUnit;
+import org.apache.tajo.util.Bytes;
+import org.apache.tajo.util.NumberUtil;
+import org.apache.tajo.util.datetime.DateTimeUtil;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.TimeZone;
+
+/**
+ * DirectCSVLineParser parses a delimited text line directly into an off-heap row, which is read through a reused
+ * tuple. Unlike {@link CSVLineDeserializer}, it creates neither Datums nor Strings for fields.
+ *
+ * <ul>
+ *   <li>Field delimiters are found eight bytes at a time by {@link DelimiterSearcher}, and the search stops at the
+ *   last projected field.</li>
+ *   <li>Fields of non-projected columns are never parsed.</li>
+ *   <li>Numbers, dates and timestamps in the standard formats are parsed from the bytes of a line, and texts are
+ *   copied from the line buffer to the row. Dates and timestamps in other formats fall back to the general
+ *   parsers.</li>
+ * </ul>
+ *
+ * A null field and a malformed field become null as in {@link TextFieldSerializerDeserializer}.
+ */
+public class DirectCSVLineParser {
+  private static final Set<Type> SUPPORTED_TYPES = EnumSet.of(Type.BOOLEAN, Type.INT1, Type.INT2, Type.INT4,
+      Type.INT8, Type.FLOAT4, Type.FLOAT8, Type.TEXT, Type.DATE, Type.TIMESTAMP);
+
+  private static final int ROW_BUFFER_SIZE = 64 * StorageUnit.KB;
+
+  private final TableMeta meta;
+  private final int [] targetColumnIndexes;
+  private final Type [] targetTypes;
+  private final DataType [] targetDataTypes;
+  private final Schema targetSchema;
+
+  private final boolean hasTimezone;
+  private final TimeZone timezone;
+
+  private DelimiterSearcher searcher;
+  private int [] fieldEnds;
+  private byte [] nullChars;
+
+  private OffHeapRowBlock rowBlock;
+  private OffHeapRowWriter writer;
+  private final LineTuple tuple = new LineTuple();
+
+  public DirectCSVLineParser(Schema schema, TableMeta meta, Column [] projected) {
+    this.meta = meta;
+
+    targetColumnIndexes = new int[projected.length];
+    for (int i = 0; i < projected.length; i++) {
+      targetColumnIndexes[i] = schema.getColumnId(projected[i].getQualifiedName());
+    }
+    Arrays.sort(targetColumnIndexes);
+
+    // the fields of a row are in the order of columns in the table, as in CSVLineDeserializer
+    targetSchema = new Schema();
+    targetTypes = new Type[targetColumnIndexes.length];
+    targetDataTypes = new DataType[targetColumnIndexes.length];
+    for (int i = 0; i < targetColumnIndexes.length; i++) {
+      Column column = schema.getColumn(targetColumnIndexes[i]);
+      targetSchema.addColumn(column);
+      targetTypes[i] = column.getDataType().getType();
+      targetDataTypes[i] = column.getDataType();
+    }
+
+    hasTimezone = meta.containsOption(StorageConstants.TIMEZONE);
+    timezone = TimeZone.getTimeZone(meta.getOption(StorageConstants.TIMEZONE, TajoConstants.DEFAULT_SYSTEM_TIMEZONE));
+  }
+
+  /**
+   * @return True if the direct parsing is enabled for the table, and it can parse the projected columns
+   */
+  public static boolean isApplicable(TableMeta meta, Column [] projected) {
+    if (!Boolean.parseBoolean(meta.getOption(StorageConstants.TEXT_DIRECT_PARSE,
+        StorageConstants.DEFAULT_TEXT_DIRECT_PARSE))) {
+      return false;
+    }
+    if (projected.length == 0 || CSVLineSerDe.getFieldDelimiter(meta).length != 1) {
+      return false;
+    }
+    for (Column column : projected) {
+      if (!SUPPORTED_TYPES.contains(column.getDataType().getType())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public void init() {
+    searcher = new DelimiterSearcher(CSVLineSerDe.getFieldDelimiter(meta)[0]);
+    fieldEnds = new int[targetColumnIndexes[targetColumnIndexes.length - 1] + 1];
+    nullChars = TextLineSerDe.getNullCharsAsBytes(meta);
+
+    release();
+    rowBlock = new OffHeapRowBlock(targetSchema, ROW_BUFFER_SIZE);
+    writer = rowBlock.getWriter();
+  }
+
+  /**
+   * Parse a line into the reused tuple, which is valid until the next line is parsed.
+   *
+   * @param line The buffer of a line, whose readable bytes are the line
+   * @param offset The offset of the line in the file
+   * @return The tuple of projected fields
+   */
+  public Tuple parse(ByteBuf line, long offset) {
+    int fieldNum = searcher.split(line, fieldEnds, fieldEnds.length);
+
+    rowBlock.clear();
+    writer.startRow();
+    for (int i = 0; i < targetColumnIndexes.length; i++) {
+      int columnIndex = targetColumnIndexes[i];
+      if (columnIndex < fieldNum) {
+        int start = columnIndex == 0 ? line.readerIndex() : fieldEnds[columnIndex - 1] + 1;
+        putField(line, start, fieldEnds[columnIndex] - start, targetTypes[i]);
+      } else {
+        // If a text row is less than table schema size, the remaining fields are null.
+        writer.skipField();
+      }
+    }
+    writer.endRow();
+
+    tuple.set(rowBlock.nioBuffer(), 0, rowBlock.position(), targetDataTypes);
+    tuple.setOffset(offset);
+    return tuple;
+  }
+
+  private void putField(ByteBuf line, int start, int length, Type type) {
+    if (isNull(line, start, length, type)) {
+      writer.skipField();
+      return;
+    }
+
+    // Arguments are parsed before a field is put, so that a malformed field can be skipped as null.
+    try {
+      switch (type) {
+      case BOOLEAN:
+        byte bool = line.getByte(start);
+        writer.putBool(bool == 't' || bool == 'T');
+        break;
+      case INT1:
+      case INT2:
+        writer.putInt2((short) NumberUtil.parseInt(line, start, length));
+        break;
+      case INT4:
+        writer.putInt4(NumberUtil.parseInt(line, start, length));
+        break;
+      case INT8:
+        writer.putInt8(NumberUtil.parseLong(line, start, length));
+        break;
+      case FLOAT4:
+        writer.putFloat4(parseFloat(line, start, length));
+        break;
+      case FLOAT8:
+        writer.putFloat8(NumberUtil.parseDouble(line, start, length));
+        break;
+      case TEXT:
+        writer.putText(line, start, length);
+        break;
+      case DATE:
+        writer.putDate(parseDate(line, start, length));
+        break;
+      case TIMESTAMP:
+        writer.putTimestamp(parseTimestamp(line, start, length));
+        break;
+      default:
+        writer.skipField();
+        break;
+      }
+    } catch (RuntimeException e) {
+      writer.skipField();
+    }
+  }
+
+  private boolean isNull(ByteBuf line, int start, int length, Type type) {
+    if (length == 0) {
+      // an empty text is not null
+      return type != Type.TEXT;
+    }
+    if (length != nullChars.length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (line.getByte(start + i) != nullChars[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Parse a float of plain decimal digits directly, and other forms by the general parser, which rejects malformed
+   * numbers unlike {@link NumberUtil#parseDouble(ByteBuf, int, int)}.
+   */
+  private static float parseFloat(ByteBuf buf, int start, int length) {
+    boolean hasDigit = false;
+    for (int i = start; i < start + length; i++) {
+      byte b = buf.getByte(i);
+      if (b >= '0' && b <= '9') {
+        hasDigit = true;
+      } else if (b != '.' && b != '-' && b != '+' && b != 'e' && b != 'E') {
+        hasDigit = false;
+        break;
+      }
+    }
+    if (hasDigit) {
+      return (float) NumberUtil.parseDouble(buf, start, length);
+    }
+    return Float.parseFloat(buf.toString(start, length, Bytes.UTF8_CHARSET));
+  }
+
+  /**
+   * Parse a date in the form of 'YYYY-MM-DD' directly, and other forms by the general parser.
+   *
+   * @return The julian date
+   */
+  private static int parseDate(ByteBuf buf, int start, int length) {
+    if (length == 10 && buf.getByte(start + 4) == '-' && buf.getByte(start + 7) == '-') {
+      int year = parseDigits(buf, start, 4);
+      int month = parseDigits(buf, start + 5, 2);
+      int day = parseDigits(buf, start + 8, 2);
+      if (isValidDate(year, month, day)) {
+        return DateTimeUtil.date2j(year, month, day);
+      }
+    }
+    return DateTimeUtil.toJulianDate(buf.toString(start, length, Bytes.UTF8_CHARSET));
+  }
+
+  /**
+   * Parse a timestamp in the form of 'YYYY-MM-DD HH:MM:SS[.FFFFFF]' directly if the table has no timezone, and other
+   * forms by the general parser.
+   *
+   * @return The julian timestamp
+   */
+  private long parseTimestamp(ByteBuf buf, int start, int length) {
+    if (!hasTimezone && length >= 19 && length != 20 && length <= 26 &&
+        buf.getByte(start + 4) == '-' && buf.getByte(start + 7) == '-' && buf.getByte(start + 10) == ' ' &&
+        buf.getByte(start + 13) == ':' && buf.getByte(start + 16) == ':' &&
+        (length == 19 || buf.getByte(start + 19) == '.')) {
+      int year = parseDigits(buf, start, 4);
+      int month = parseDigits(buf, start + 5, 2);
+      int day = parseDigits(buf, start + 8, 2);
+      int hour = parseDigits(buf, start + 11, 2);
+      int minute = parseDigits(buf, start + 14, 2);
+      int second = parseDigits(buf, start + 17, 2);
+      int fraction = 0;
+      if (length > 20) {
+        fraction = parseDigits(buf, start + 20, length - 20);
+        for (int i = length - 20; i < 6 && fraction >= 0; i++) {
+          fraction *= 10;
+        }
+      }
+
+      if (isValidDate(year, month, day) && hour >= 0 && hour < 24 && minute >= 0 && minute < 60 &&
+          second >= 0 && second < 60 && fraction >= 0) {
+        return DateTimeUtil.toJulianTimestamp(year, month, day, hour, minute, second, fraction);
+      }
+    }
+
+    String str = buf.toString(start, length, Bytes.UTF8_CHARSET);
+    if (hasTimezone) {
+      return DatumFactory.createTimestamp(str, timezone).asInt8();
+    } else {
+      return DateTimeUtil.toJulianTimestamp(str);
+    }
+  }
+
+  private static boolean isValidDate(int year, int month, int day) {
+    return year > 0 && month >= 1 && month <= 12 && day >= 1 && day <= DateTimeUtil.getDaysInYearMonth(year, month);
+  }
+
+  /**
+   * @return The value of the given number of decimal digits, or -1 if there is a non-digit byte
+   */
+  private static int parseDigits(ByteBuf buf, int start, int length) {
+    int value = 0;
+    for (int i = start; i < start + length; i++) {
+      int digit = buf.getByte(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      value = value * 10 + digit;
+    }
+    return value;
+  }
+
+  public void release() {
+    if (rowBlock != null) {
+      rowBlock.release();
+      rowBlock = null;
+      writer = null;
+    }
+  }
+
+  /**
+   * The reused tuple of parsed lines, which keeps the offset of a line for index scans
+   */
+  private static class LineTuple extends ZeroCopyTuple {
+    private long offset = -1;
+
+    @Override
+    public void clearOffset() {
+      offset = -1;
+    }
+
+    @Override
+    public void setOffset(long offset) {
+      this.offset = offset;
+    }
+
+    @Override
+    public long getOffset() {
+      return offset;
+    }
+  }
+}
@@ -51,6 +51,23 @@ public abstract class TextLineDeserializer {
    */
   public abstract void deserialize(final ByteBuf buf, Tuple output) throws IOException, TextLineParsingError;
 
+  /**
+   * It fills only the fields of the given columns with read fields in a given line, and leaves the other fields
+   * as they are. It allows a scanner to read the columns of a filter first, and the others only if the line
+   * passes the filter. The default implementation fills all fields.
+   *
+   * @param buf Read line, whose readable bytes are not changed by this method
+   * @param output Tuple to be filled with read fields
+   * @param columnMask Whether each column is filled, indexed by the column id in the table schema
+   * @return True if only the given columns are filled, or false if all fields are filled
+   * @throws java.io.IOException
+   */
+  public boolean deserialize(final ByteBuf buf, Tuple output, boolean [] columnMask)
+      throws IOException, TextLineParsingError {
+    deserialize(buf, output);
+    return false;
+  }
+
   /**
    * Release external resources
    */
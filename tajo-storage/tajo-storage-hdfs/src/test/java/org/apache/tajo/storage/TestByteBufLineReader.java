@@ -153,4 +153,34 @@ public class TestByteBufLineReader {
     lineReader.close();
     inputStream.close();
   }
+
+  @Test
+  public void testReaderWithMixedNewlines() throws Exception {
+    Path tablePath = new Path(testDir, "testReaderWithMixedNewlines");
+    Path filePath = new Path(tablePath, "data.dat");
+
+    // empty lines after CRLF, a CR followed by another CR, and a long line
+    String data = "a\r\n\n\nb\r\rc\n" + LINE + "\r\nd";
+    FSDataOutputStream out = fs.create(filePath, true);
+    out.write(data.getBytes(Charset.defaultCharset()));
+    out.close();
+
+    File file = new File(filePath.toUri());
+    String [] expected = new String[] {"a", "", "", "b", "", "c", LINE, "d"};
+
+    // a small buffer splits newlines across buffers
+    for (int bufferSize : new int[] {3, 4, 5, 64 * 1024}) {
+      FileInputStream inputStream = new FileInputStream(file);
+      ByteBufLineReader lineReader = new ByteBufLineReader(new LocalFileInputChannel(inputStream),
+          BufferPool.directBuffer(bufferSize));
+
+      for (String line : expected) {
+        assertEquals(line, lineReader.readLine());
+      }
+      assertNull(lineReader.readLine());
+
+      lineReader.close();
+      inputStream.close();
+    }
+  }
 }
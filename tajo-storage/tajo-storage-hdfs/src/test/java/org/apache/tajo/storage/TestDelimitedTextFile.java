@@ -22,6 +22,7 @@ import com.google.common.base.Preconditions;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -33,12 +34,17 @@ import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.datum.Datum;
 import org.apache.tajo.datum.DatumFactory;
 import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.util.Bytes;
+import org.apache.tajo.util.CommonTestingUtil;
 import org.apache.tajo.util.FileUtil;
 import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.*;
 
@@ -232,4 +238,116 @@ public class TestDelimitedTextFile {
       scanner.close();
     }
   }
+
+  @Test
+  public void testDirectParse() throws IOException {
+    Schema textSchema = new Schema();
+    textSchema.addColumn("col1", Type.BOOLEAN);
+    textSchema.addColumn("col2", Type.INT2);
+    textSchema.addColumn("col3", Type.INT4);
+    textSchema.addColumn("col4", Type.INT8);
+    textSchema.addColumn("col5", Type.FLOAT4);
+    textSchema.addColumn("col6", Type.FLOAT8);
+    textSchema.addColumn("col7", Type.TEXT);
+    textSchema.addColumn("col8", Type.DATE);
+    textSchema.addColumn("col9", Type.TIMESTAMP);
+    textSchema.addColumn("col10", Type.TEXT);
+
+    // lines with nulls, empty and malformed fields, and missing fields
+    Random random = new Random(1234);
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 2000; i++) {
+      String [] fields = new String[] {
+          random.nextBoolean() ? "t" : "false",
+          String.valueOf((short) random.nextInt()),
+          String.valueOf(random.nextInt()),
+          String.valueOf(random.nextLong()),
+          String.valueOf(random.nextFloat() * 1000),
+          String.valueOf(random.nextDouble() * 1000000),
+          "text_" + i + (i % 5 == 0 ? "\uD55C\uAE00" : ""),
+          String.format("%04d-%02d-%02d", 1900 + random.nextInt(200), 1 + random.nextInt(12), 1 + random.nextInt(31)),
+          String.format("2015-%02d-%02d %02d:%02d:%02d", 1 + random.nextInt(12), 1 + random.nextInt(28),
+              random.nextInt(24), random.nextInt(60), random.nextInt(60)) + (i % 3 == 0 ? "." + i % 1000 : ""),
+          i % 7 == 0 ? "" : "long text field which is longer than words " + i
+      };
+      for (int j = 0; j < fields.length; j++) {
+        switch (random.nextInt(20)) {
+        case 0: fields[j] = "\\N"; break;
+        case 1: fields[j] = ""; break;
+        case 2: fields[j] = "x" + fields[j]; break;
+        default: break;
+        }
+      }
+      int fieldNum = i % 11 == 0 ? random.nextInt(fields.length) : fields.length;
+      for (int j = 0; j < fieldNum; j++) {
+        if (j > 0) {
+          sb.append('|');
+        }
+        sb.append(fields[j]);
+      }
+      sb.append(i % 2 == 0 ? "\n" : "\r\n");
+    }
+    sb.append("2015-01-01|20150101|1|2|3|4|5|20150102|2015-01-02T03:04:05|6\n");
+
+    Path path = new Path(CommonTestingUtil.getTestDir("target/test-data/TestDelimitedTextFile"), "direct.txt");
+    FileSystem fs = FileSystem.getLocal(new TajoConf());
+    FSDataOutputStream out = fs.create(path, true);
+    out.write(sb.toString().getBytes(Bytes.UTF8_CHARSET));
+    out.close();
+    FileFragment fragment = new FileFragment("table", path, 0, fs.getFileStatus(path).getLen());
+
+    TableMeta meta = CatalogUtil.newTableMeta("TEXT");
+    meta.putOption(StorageConstants.TEXT_DELIMITER, "|");
+    meta.putOption(StorageConstants.TEXT_NULL, "\\\\N");
+    TableMeta directMeta = CatalogUtil.newTableMeta("TEXT");
+    directMeta.putOption(StorageConstants.TEXT_DELIMITER, "|");
+    directMeta.putOption(StorageConstants.TEXT_NULL, "\\\\N");
+    directMeta.putOption(StorageConstants.TEXT_DIRECT_PARSE, "true");
+
+    String [][] projections = new String[][] {
+        {"col1", "col2", "col3", "col4", "col5", "col6", "col7", "col8", "col9", "col10"},
+        {"col3", "col7"},
+        {"col9"},
+        {"col10"}
+    };
+    for (String [] projection : projections) {
+      Schema target = new Schema();
+      for (String name : projection) {
+        target.addColumn(textSchema.getColumn(name));
+      }
+
+      List<Datum[]> expected = scanAll(meta, textSchema, fragment, target);
+      List<Datum[]> actual = scanAll(directMeta, textSchema, fragment, target);
+      assertEquals(2001, expected.size());
+      assertEquals(expected.size(), actual.size());
+      for (int i = 0; i < expected.size(); i++) {
+        assertArrayEquals("line " + i, expected.get(i), actual.get(i));
+      }
+    }
+  }
+
+  /**
+   * @return The values and the offset of each tuple
+   */
+  private static List<Datum[]> scanAll(TableMeta meta, Schema schema, FileFragment fragment, Schema target)
+      throws IOException {
+    Scanner scanner = TablespaceManager.getLocalFs().getScanner(meta, schema, fragment, target);
+    scanner.init();
+
+    List<Datum[]> rows = new ArrayList<Datum[]>();
+    Tuple tuple;
+    while ((tuple = scanner.next()) != null) {
+      boolean direct = meta.containsOption(StorageConstants.TEXT_DIRECT_PARSE);
+      assertEquals(direct, !(tuple instanceof VTuple));
+
+      Datum [] row = new Datum[tuple.size() + 1];
+      for (int i = 0; i < tuple.size(); i++) {
+        row[i] = tuple.asDatum(i);
+      }
+      row[tuple.size()] = DatumFactory.createInt8(tuple.getOffset());
+      rows.add(row);
+    }
+    scanner.close();
+    return rows;
+  }
 }
@@ -26,11 +26,16 @@ import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hdfs.*;
 import org.apache.tajo.catalog.CatalogUtil;
 import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.TableDesc;
 import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.common.TajoDataTypes.Type;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.datum.Datum;
 import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.plan.expr.*;
+import org.apache.tajo.plan.logical.ScanNode;
 import org.apache.tajo.storage.fragment.FileFragment;
 import org.apache.tajo.storage.fragment.Fragment;
 import org.apache.tajo.util.CommonTestingUtil;
@@ -247,4 +252,81 @@ public class TestFileTablespace {
       cluster.shutdown(true);
     }
   }
+
+  @Test
+  public void testGetSplitsWithColumnStats() throws Exception {
+    Schema schema = new Schema();
+    schema.addColumn("id", Type.INT4);
+    schema.addColumn("name", Type.TEXT);
+    schema.addColumn("comment", Type.TEXT);
+
+    TableMeta meta = CatalogUtil.newTableMeta("TEXT");
+    meta.putOption(StorageConstants.FILE_COLUMN_STATS, "true");
+
+    Path tablePath = StorageUtil.concatPath(testDir, "testGetSplitsWithColumnStats");
+    localFs.mkdirs(tablePath);
+    FileTablespace space = TablespaceManager.getLocalFs();
+
+    // each file has ids of [i * 10, i * 10 + 9], and the comment column has only nulls
+    for (int i = 0; i < 3; i++) {
+      Path path = new Path(tablePath, "file" + i);
+      Appender appender = space.getAppender(meta, schema, path);
+      appender.init();
+      for (int j = i * 10; j < i * 10 + 10; j++) {
+        appender.addTuple(new VTuple(new Datum[] {
+            DatumFactory.createInt4(j), DatumFactory.createText("name" + j), NullDatum.get()}));
+      }
+      appender.close();
+
+      Path statsPath = FileColumnStats.getStatsPath(path);
+      assertTrue(localFs.exists(statsPath));
+      assertFalse(FileTablespace.hiddenFileFilter.accept(statsPath));
+
+      TableStats stats = FileColumnStats.read(localFs, localFs.getFileStatus(path));
+      assertNotNull(stats);
+      assertEquals(10, stats.getNumRows().longValue());
+      assertEquals(i * 10, stats.getColumnStats().get(0).getMinValue().asInt4());
+      assertEquals(i * 10 + 9, stats.getColumnStats().get(0).getMaxValue().asInt4());
+      assertEquals(10, stats.getColumnStats().get(2).getNumNulls().longValue());
+    }
+
+    TableDesc desc = new TableDesc(CatalogUtil.buildFQName("default", "stats"), schema, meta, tablePath.toUri());
+    ScanNode scan = new ScanNode(0);
+    scan.init(desc);
+
+    // no qual
+    assertEquals(3, space.getSplits("stats", desc, scan).size());
+
+    scan.setQual(new BinaryEval(EvalType.GEQ, field(schema, "id"), new ConstEval(DatumFactory.createInt4(15))));
+    assertEquals(2, space.getSplits("stats", desc, scan).size());
+
+    scan.setQual(new BetweenPredicateEval(false, false, field(schema, "id"),
+        new ConstEval(DatumFactory.createInt4(12)), new ConstEval(DatumFactory.createInt4(18))));
+    assertEquals(1, space.getSplits("stats", desc, scan).size());
+
+    scan.setQual(new BinaryEval(EvalType.EQUAL, field(schema, "name"), new ConstEval(DatumFactory.createText("x"))));
+    assertEquals(0, space.getSplits("stats", desc, scan).size());
+
+    scan.setQual(new IsNullEval(true, field(schema, "comment")));
+    assertEquals(0, space.getSplits("stats", desc, scan).size());
+
+    // a comparison with a constant of another type is not used
+    scan.setQual(new BinaryEval(EvalType.GEQ, field(schema, "id"), new ConstEval(DatumFactory.createInt8(15))));
+    assertEquals(3, space.getSplits("stats", desc, scan).size());
+
+    // the statistics of a rewritten file are not used
+    Path path = new Path(tablePath, "file0");
+    localFs.delete(path, false);
+    Appender appender = space.getAppender(CatalogUtil.newTableMeta("TEXT"), schema, path);
+    appender.init();
+    appender.addTuple(new VTuple(new Datum[] {
+        DatumFactory.createInt4(100), DatumFactory.createText("name100"), NullDatum.get()}));
+    appender.close();
+    scan.setQual(new BinaryEval(EvalType.GEQ, field(schema, "id"), new ConstEval(DatumFactory.createInt4(15))));
+    assertEquals(3, space.getSplits("stats", desc, scan).size());
+  }
+
+  private static FieldEval field(Schema schema, String name) {
+    return new FieldEval(schema.getColumn(name));
+  }
 }
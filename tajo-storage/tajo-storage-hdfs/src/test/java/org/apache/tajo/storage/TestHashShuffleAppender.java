@@ -0,0 +1,209 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.BuiltinStorages;
+import org.apache.tajo.ExecutionBlockId;
+import org.apache.tajo.QueryIdFactory;
+import org.apache.tajo.TaskAttemptId;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.storage.HashShuffleAppenderManager.HashShuffleIntermediate;
+import org.apache.tajo.util.CommonTestingUtil;
+import org.apache.tajo.util.Pair;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestHashShuffleAppender {
+  private static final String TEST_PATH = "target/test-data/TestHashShuffleAppender";
+
+  private TajoConf conf;
+  private Path testDir;
+  private FileSystem fs;
+  private Schema schema;
+  private ExecutionBlockId ebId;
+
+  @Before
+  public void setup() throws Exception {
+    conf = new TajoConf();
+    testDir = CommonTestingUtil.getTestDir(TEST_PATH);
+    fs = testDir.getFileSystem(conf);
+
+    schema = new Schema();
+    schema.addColumn("id", Type.INT4);
+    schema.addColumn("name", Type.TEXT);
+
+    ebId = QueryIdFactory.newExecutionBlockId(QueryIdFactory.newQueryId(System.currentTimeMillis(), 0));
+  }
+
+  private TaskAttemptId newAttemptId(int taskId) {
+    return QueryIdFactory.newTaskAttemptId(QueryIdFactory.newTaskId(ebId, taskId), 0);
+  }
+
+  private List<Tuple> createTuples(int start, int num) {
+    List<Tuple> tuples = new ArrayList<Tuple>();
+    for (int i = start; i < start + num; i++) {
+      VTuple tuple = new VTuple(2);
+      tuple.put(0, DatumFactory.createInt4(i));
+      tuple.put(1, DatumFactory.createText("name_" + i));
+      tuples.add(tuple);
+    }
+    return tuples;
+  }
+
+  private static long assertContiguous(long start, List<Pair<Long, Integer>> pages) {
+    long pos = start;
+    for (Pair<Long, Integer> page : pages) {
+      assertEquals(pos, page.getFirst().longValue());
+      assertTrue(page.getSecond() > 0);
+      pos += page.getSecond();
+    }
+    return pos;
+  }
+
+  @Test
+  public void testCommitPages() throws IOException {
+    TableMeta meta = CatalogUtil.newTableMeta(BuiltinStorages.RAW);
+    Path dataFile = new Path(testDir, "0");
+    FileAppender fileAppender = (FileAppender) TablespaceManager.getLocalFs()
+        .getAppender(null, null, meta, schema, dataFile);
+    fileAppender.enableStats();
+    fileAppender.init();
+
+    HashShuffleAppender appender = new HashShuffleAppender(ebId, 0, 256, fileAppender);
+    appender.init();
+
+    TaskAttemptId task1 = newAttemptId(1);
+    TaskAttemptId task2 = newAttemptId(2);
+    appender.addTuples(task1, createTuples(0, 50));
+    appender.addTuples(task2, createTuples(50, 50));
+
+    // the first page has rows of running tasks
+    assertTrue(appender.commitPages().isEmpty());
+
+    // only the pages written by the finished task are committed
+    appender.taskFinished(task1, true);
+    List<Pair<Long, Integer>> committed = appender.commitPages();
+    assertFalse(committed.isEmpty());
+    long committedOffset = assertContiguous(0, committed);
+    assertTrue(committedOffset < appender.getOffset());
+
+    // all pages are committed after the last running task finished, and they are flushed to the file
+    appender.taskFinished(task2, true);
+    committed = appender.commitPages();
+    assertFalse(committed.isEmpty());
+    committedOffset = assertContiguous(committedOffset, committed);
+    assertEquals(appender.getOffset(), committedOffset);
+    assertEquals(committedOffset, appender.getCommittedOffset());
+    assertEquals(committedOffset, fs.getFileStatus(dataFile).getLen());
+    assertTrue(appender.getUncommittedPages().isEmpty());
+
+    // pages written after the last commit are committed when the writing task finishes
+    TaskAttemptId task3 = newAttemptId(3);
+    appender.addTuples(task3, createTuples(100, 50));
+    assertTrue(appender.commitPages().isEmpty());
+    appender.taskFinished(task3, true);
+    committed = appender.commitPages();
+    assertFalse(committed.isEmpty());
+    committedOffset = assertContiguous(committedOffset, committed);
+    assertEquals(appender.getOffset(), committedOffset);
+
+    // nothing remains to be reported when the appender is closed
+    appender.close();
+    assertTrue(appender.getUncommittedPages().isEmpty());
+    assertEquals(committedOffset, appender.getOffset());
+    assertTrue(appender.commitPages().isEmpty());
+    assertEquals(150, appender.getStats().getNumRows().longValue());
+  }
+
+  @Test
+  public void testCommitFailureIndexes() throws IOException {
+    TableMeta meta = CatalogUtil.newTableMeta(BuiltinStorages.RAW);
+    Path dataFile = new Path(testDir, "1");
+    FileAppender fileAppender = (FileAppender) TablespaceManager.getLocalFs()
+        .getAppender(null, null, meta, schema, dataFile);
+    fileAppender.enableStats();
+    fileAppender.init();
+
+    HashShuffleAppender appender = new HashShuffleAppender(ebId, 1, 1024 * 1024, fileAppender);
+    appender.init();
+
+    TaskAttemptId task1 = newAttemptId(1);
+    TaskAttemptId task2 = newAttemptId(2);
+    TaskAttemptId task3 = newAttemptId(3);
+    long failureStart = appender.getOffset();
+    appender.addTuples(task1, createTuples(0, 10));
+    long failureEnd = appender.getOffset();
+    appender.addTuples(task2, createTuples(10, 10));
+    appender.addTuples(task3, createTuples(20, 10));
+
+    // the pages are not committed while a task is running, but the indexes of the failed task are kept
+    appender.taskFinished(task1, false);
+    appender.taskFinished(task2, true);
+    assertNull(appender.commit());
+
+    // the rows of the failed task are reported with the committed pages
+    appender.taskFinished(task3, true);
+    HashShuffleIntermediate intermediate = appender.commit();
+    assertNotNull(intermediate);
+    assertEquals(0, intermediate.getPageIndex());
+    assertEquals(appender.getOffset(), assertContiguous(0, intermediate.getPages()));
+    assertEquals(appender.getOffset(), intermediate.getVolume());
+    assertEquals(1, intermediate.getFailureTskTupleIndexes().size());
+    Pair<Long, Pair<Integer, Integer>> failure = intermediate.getFailureTskTupleIndexes().iterator().next();
+    assertEquals(0, failure.getSecond().getFirst().intValue());
+    assertEquals(10, failure.getSecond().getSecond().intValue());
+    assertEquals(1, intermediate.getFailureRanges().size());
+    Pair<Long, Integer> failureRange = intermediate.getFailureRanges().iterator().next();
+    assertEquals(failureStart, failureRange.getFirst().longValue());
+    assertEquals(failureEnd - failureStart, failureRange.getSecond().longValue());
+
+    // the reported failures are not reported again, and the page index continues
+    TaskAttemptId task4 = newAttemptId(4);
+    appender.addTuples(task4, createTuples(30, 10));
+    appender.taskFinished(task4, true);
+    intermediate = appender.commit();
+    assertEquals(intermediate.getPages().size(), appender.getCommittedPageNum() - intermediate.getPageIndex());
+    assertTrue(intermediate.getPageIndex() > 0);
+    assertTrue(intermediate.getFailureTskTupleIndexes().isEmpty());
+    assertTrue(intermediate.getFailureRanges().isEmpty());
+
+    // the rows of a running task and the uncommitted ones of a failed task are failures when closed
+    TaskAttemptId task5 = newAttemptId(5);
+    TaskAttemptId task6 = newAttemptId(6);
+    appender.addTuples(task5, createTuples(40, 10));
+    appender.addTuples(task6, createTuples(50, 10));
+    appender.taskFinished(task5, false);
+    appender.close();
+    assertEquals(2, appender.getMergedTupleIndexes().size());
+    assertEquals(2, appender.getMergedFailureRanges().size());
+  }
+}
@@ -22,14 +22,17 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufProcessor;
 import io.netty.buffer.Unpooled;
 import io.netty.util.CharsetUtil;
+import org.apache.tajo.storage.text.DelimiterSearcher;
 import org.apache.tajo.storage.text.FieldSplitProcessor;
 import org.apache.tajo.storage.text.LineSplitProcessor;
 import org.apache.tajo.storage.text.MultiBytesFieldSplitProcessor;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 import static io.netty.util.ReferenceCountUtil.releaseLater;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -101,4 +104,48 @@ public class TestSplitProcessor {
     // find LF
     assertEquals(5, buf.forEachByte(5, len - 5, processor)); //line length is zero
   }
+
+  @Test
+  public void testDelimiterSearcher() throws IOException {
+    // delimiters at both ends of words, in a word, and in the tail shorter than a word
+    String data = "abcdefg|hijklmn||opqrstuvwxyz|ㅎ|ab|";
+    ByteBuf [] bufs = new ByteBuf[] {
+        releaseLater(Unpooled.copiedBuffer(data, CharsetUtil.UTF_8)),
+        releaseLater(BufferPool.directBuffer(64).writeBytes(data.getBytes(CharsetUtil.UTF_8)))
+    };
+
+    DelimiterSearcher searcher = new DelimiterSearcher((byte) '|');
+    for (ByteBuf buf : bufs) {
+      int [] ends = new int[10];
+      assertEquals(7, searcher.split(buf, ends, ends.length));
+      assertArrayEquals(new int[] {7, 15, 16, 29, 33, 36, 37}, Arrays.copyOf(ends, 7));
+
+      // stops at the given number of fields
+      assertEquals(3, searcher.split(buf, ends, 3));
+      assertArrayEquals(new int[] {7, 15, 16}, Arrays.copyOf(ends, 3));
+
+      // searches only the readable bytes
+      ByteBuf slice = buf.slice(8, 10);
+      assertEquals(3, searcher.split(slice, ends, ends.length));
+      assertArrayEquals(new int[] {7, 8, 10}, Arrays.copyOf(ends, 3));
+    }
+  }
+
+  @Test
+  public void testIndexOfNewline() throws IOException {
+    String data = "abcdefghijklmnopq\rstu\n\r\nvw";
+    ByteBuf [] bufs = new ByteBuf[] {
+        releaseLater(Unpooled.copiedBuffer(data, CharsetUtil.ISO_8859_1)),
+        releaseLater(BufferPool.directBuffer(64).writeBytes(data.getBytes(CharsetUtil.ISO_8859_1)))
+    };
+
+    for (ByteBuf buf : bufs) {
+      final int len = buf.readableBytes();
+      assertEquals(17, DelimiterSearcher.indexOfNewline(buf, 0, len));
+      assertEquals(21, DelimiterSearcher.indexOfNewline(buf, 18, len - 18));
+      assertEquals(22, DelimiterSearcher.indexOfNewline(buf, 22, len - 22));
+      assertEquals(-1, DelimiterSearcher.indexOfNewline(buf, 24, len - 24));
+      assertEquals(-1, DelimiterSearcher.indexOfNewline(buf, 0, 17));
+    }
+  }
 }
@@ -38,6 +38,7 @@ import org.apache.tajo.datum.DatumFactory;
 import org.apache.tajo.datum.NullDatum;
 import org.apache.tajo.datum.ProtobufDatumFactory;
 import org.apache.tajo.exception.ValueTooLongForTypeCharactersException;
+import org.apache.tajo.plan.expr.*;
 import org.apache.tajo.storage.fragment.FileFragment;
 import org.apache.tajo.storage.rcfile.RCFile;
 import org.apache.tajo.storage.sequencefile.SequenceFileScanner;
@@ -138,6 +139,7 @@ public class TestStorages {
         {"RAW", false, true, true},
         {"RCFILE", true, true, false},
         {"PARQUET", false, false, false},
+        {"ORC", true, true, false},
         {"SEQUENCEFILE", true, true, false},
         {"AVRO", false, false, false},
         {"TEXT", true, true, true},
@@ -953,11 +955,91 @@ public class TestStorages {
     }
   }
 
+  @Test
+  public void testFilter() throws IOException {
+    if (storeType.equalsIgnoreCase("AVRO")) {
+      return;
+    }
+
+    TableMeta meta = CatalogUtil.newTableMeta(storeType);
+    meta.setOptions(CatalogUtil.newDefaultProperty(storeType));
+    meta.putOption(StorageConstants.TEXT_NULL, "\\\\N");
+    meta.putOption(StorageConstants.SEQUENCEFILE_NULL, "\\\\N");
+    testFilter(meta, "testFilter.data");
+
+    if (storeType.equalsIgnoreCase("SEQUENCEFILE")) {
+      meta.putOption(StorageConstants.SEQUENCEFILE_SERDE, BinarySerializerDeserializer.class.getName());
+      testFilter(meta, "testFilterBinary.data");
+    }
+  }
+
+  private void testFilter(TableMeta meta, String fileName) throws IOException {
+    Schema schema = new Schema();
+    schema.addColumn("id", Type.INT4);
+    schema.addColumn("age", Type.INT8);
+    schema.addColumn("score", Type.FLOAT4);
+    schema.addColumn("name", Type.TEXT);
+
+    Path tablePath = new Path(testDir, fileName);
+    FileTablespace sm = TablespaceManager.getLocalFs();
+    Appender appender = sm.getAppender(meta, schema, tablePath);
+    appender.init();
+    int tupleNum = 10000;
+    for (int i = 0; i < tupleNum; i++) {
+      VTuple tuple = new VTuple(4);
+      tuple.put(0, DatumFactory.createInt4(i));
+      tuple.put(1, DatumFactory.createInt8(i * 2L));
+      tuple.put(2, DatumFactory.createFloat4(i / 2.0f));
+      tuple.put(3, i % 3 == 0 ? NullDatum.get() : DatumFactory.createText("name_" + i));
+      appender.addTuple(tuple);
+    }
+    appender.close();
+
+    FileStatus status = fs.getFileStatus(tablePath);
+    FileFragment fragment = new FileFragment("testFilter", tablePath, 0, status.getLen());
+
+    // the filter column is between other projected columns
+    Schema target = new Schema();
+    target.addColumn(schema.getColumn("id"));
+    target.addColumn(schema.getColumn("age"));
+    target.addColumn(schema.getColumn("name"));
+    EvalNode filter = new BinaryEval(EvalType.EQUAL,
+        new BinaryEval(EvalType.MODULAR, new FieldEval(schema.getColumn("age")),
+            new ConstEval(DatumFactory.createInt8(100))),
+        new ConstEval(DatumFactory.createInt8(14)));
+    filter.bind(null, target);
+
+    Scanner scanner = sm.getScanner(meta, schema, fragment, target);
+    scanner.init();
+    if (!scanner.isSelectable()) {
+      scanner.close();
+      return;
+    }
+    scanner.setFilter(filter);
+
+    int tupleCnt = 0;
+    Tuple tuple;
+    while ((tuple = scanner.next()) != null) {
+      int id = tuple.getInt4(0);
+      assertEquals(7, id % 50);
+      assertEquals(id * 2L, tuple.getInt8(1));
+      if (id % 3 == 0) {
+        assertTrue(tuple.isBlankOrNull(2));
+      } else {
+        assertEquals("name_" + id, tuple.getText(2));
+      }
+      tupleCnt++;
+    }
+    scanner.close();
+
+    assertEquals(tupleNum / 50, tupleCnt);
+  }
+
   @Test
   public void testLessThanSchemaSize() throws IOException {
     /* RAW is internal storage. It must be same with schema size */
     if (storeType.equalsIgnoreCase("RAW") || storeType.equalsIgnoreCase("AVRO")
-        || storeType.equalsIgnoreCase("PARQUET")){
+        || storeType.equalsIgnoreCase("PARQUET") || storeType.equalsIgnoreCase("ORC")){
       return;
     }
 
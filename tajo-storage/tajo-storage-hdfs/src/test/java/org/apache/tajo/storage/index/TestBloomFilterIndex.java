@@ -0,0 +1,176 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage.index;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.plan.expr.*;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.storage.index.bloom.BloomFilterIndex;
+import org.apache.tajo.storage.index.bloom.BloomFilterIndex.BloomFilterIndexReader;
+import org.apache.tajo.storage.index.bloom.BloomFilterIndex.BloomFilterIndexWriter;
+import org.apache.tajo.storage.index.bloom.BloomFilterPredicateBuilder;
+import org.apache.tajo.util.CommonTestingUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class TestBloomFilterIndex {
+  private static final int KEY_NUM = 10000;
+  private static final String TEST_PATH = "target/test-data/TestBloomFilterIndex";
+
+  private TajoConf conf;
+  private Path testDir;
+
+  @Before
+  public void setUp() throws Exception {
+    conf = new TajoConf();
+    testDir = CommonTestingUtil.getTestDir(TEST_PATH);
+  }
+
+  private static Tuple key(Datum... values) {
+    return new VTuple(values);
+  }
+
+  private BloomFilterIndexReader writeIndex(String name, Schema keySchema, int keyNum, double fpp)
+      throws IOException {
+    BloomFilterIndex index = new BloomFilterIndex(conf);
+    Path indexPath = new Path(testDir, name);
+    BloomFilterIndexWriter writer = index.getIndexWriter(indexPath, keySchema, fpp);
+    writer.open();
+    for (int i = 0; i < keyNum; i++) {
+      // even numbers only, so that odd numbers are never contained
+      if (keySchema.size() == 1) {
+        writer.write(key(DatumFactory.createInt4(i * 2)), i);
+      } else {
+        writer.write(key(DatumFactory.createInt4(i * 2), DatumFactory.createText("key_" + i)), i);
+      }
+    }
+    writer.write(new VTuple(keySchema.size()), keyNum);
+    writer.close();
+
+    BloomFilterIndexReader reader = index.getIndexReader(indexPath);
+    reader.open();
+    return reader;
+  }
+
+  @Test
+  public void testMightContain() throws IOException {
+    Schema keySchema = new Schema();
+    keySchema.addColumn(new Column("int", Type.INT4));
+    BloomFilterIndexReader reader = writeIndex("testMightContain.idx", keySchema, KEY_NUM, 0.01);
+
+    assertEquals(keySchema, reader.getKeySchema());
+    for (int i = 0; i < KEY_NUM; i++) {
+      assertTrue(reader.mightContain(key(DatumFactory.createInt4(i * 2))));
+      // integers of other sizes are hashed as the same value
+      assertTrue(reader.mightContain(key(DatumFactory.createInt8(i * 2))));
+    }
+    assertTrue(reader.mightContain(new VTuple(1)));
+
+    int falsePositives = 0;
+    for (int i = 0; i < KEY_NUM; i++) {
+      if (reader.mightContain(key(DatumFactory.createInt4(i * 2 + 1)))) {
+        falsePositives++;
+      }
+    }
+    assertTrue("false positives: " + falsePositives, falsePositives < KEY_NUM * 0.03);
+    reader.close();
+  }
+
+  @Test
+  public void testMultipleKeys() throws IOException {
+    Schema keySchema = new Schema();
+    keySchema.addColumn(new Column("int", Type.INT4));
+    keySchema.addColumn(new Column("text", Type.TEXT));
+    BloomFilterIndexReader reader = writeIndex("testMultipleKeys.idx", keySchema, KEY_NUM, 0.01);
+
+    for (int i = 0; i < KEY_NUM; i++) {
+      assertTrue(reader.mightContain(key(DatumFactory.createInt4(i * 2), DatumFactory.createText("key_" + i))));
+    }
+
+    int falsePositives = 0;
+    for (int i = 0; i < KEY_NUM; i++) {
+      if (reader.mightContain(key(DatumFactory.createInt4(i * 2), DatumFactory.createText("key_" + (i + 1))))) {
+        falsePositives++;
+      }
+    }
+    assertTrue("false positives: " + falsePositives, falsePositives < KEY_NUM * 0.03);
+    reader.close();
+  }
+
+  @Test
+  public void testEmptyIndex() throws IOException {
+    Schema keySchema = new Schema();
+    keySchema.addColumn(new Column("int", Type.INT4));
+    BloomFilterIndex index = new BloomFilterIndex(conf);
+    Path indexPath = new Path(testDir, "testEmptyIndex.idx");
+    BloomFilterIndexWriter writer = index.getIndexWriter(indexPath, keySchema, BloomFilterIndex.DEFAULT_FPP);
+    writer.open();
+    writer.close();
+
+    BloomFilterIndexReader reader = index.getIndexReader(indexPath);
+    reader.open();
+    assertFalse(reader.mightContain(key(DatumFactory.createInt4(1))));
+    assertFalse(reader.mightContain(new VTuple(1)));
+    reader.close();
+  }
+
+  @Test
+  public void testPredicate() throws IOException {
+    Column column = new Column("default.t1.int", Type.INT4);
+    Schema keySchema = new Schema();
+    keySchema.addColumn(new Column("int", Type.INT4));
+    BloomFilterIndexReader reader = writeIndex("testPredicate.idx", keySchema, 100, 0.0001);
+
+    FieldEval field = new FieldEval(column);
+    EvalNode equal = new BinaryEval(EvalType.EQUAL, field, new ConstEval(DatumFactory.createInt4(4)));
+    EvalNode otherEqual = new BinaryEval(EvalType.EQUAL, field, new ConstEval(DatumFactory.createInt4(5)));
+    EvalNode in = new InEval(field, new RowConstantEval(new Datum[] {
+        DatumFactory.createInt4(1), DatumFactory.createInt4(3), DatumFactory.createInt4(6)}), false);
+    EvalNode otherIn = new InEval(field, new RowConstantEval(new Datum[] {
+        DatumFactory.createInt4(1), DatumFactory.createInt4(3)}), false);
+    EvalNode greater = new BinaryEval(EvalType.GTH, field, new ConstEval(DatumFactory.createInt4(4)));
+
+    assertTrue(BloomFilterPredicateBuilder.build(keySchema, equal).mightMatch(reader));
+    assertFalse(BloomFilterPredicateBuilder.build(keySchema, otherEqual).mightMatch(reader));
+    assertTrue(BloomFilterPredicateBuilder.build(keySchema, in).mightMatch(reader));
+    assertFalse(BloomFilterPredicateBuilder.build(keySchema, otherIn).mightMatch(reader));
+    assertFalse(BloomFilterPredicateBuilder.build(keySchema,
+        new BinaryEval(EvalType.AND, equal, otherEqual)).mightMatch(reader));
+    assertFalse(BloomFilterPredicateBuilder.build(keySchema,
+        new BinaryEval(EvalType.AND, greater, otherEqual)).mightMatch(reader));
+
+    // the other predicates cannot be evaluated with a bloom filter
+    assertNull(BloomFilterPredicateBuilder.build(keySchema, greater));
+    assertNull(BloomFilterPredicateBuilder.build(keySchema, new BinaryEval(EvalType.OR, greater, otherEqual)));
+    assertNull(BloomFilterPredicateBuilder.build(keySchema, new InEval(field, new RowConstantEval(new Datum[] {
+        DatumFactory.createInt4(1), DatumFactory.createInt4(3)}), true)));
+    reader.close();
+  }
+}
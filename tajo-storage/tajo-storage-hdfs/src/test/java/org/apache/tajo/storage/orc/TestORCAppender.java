@@ -0,0 +1,257 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage.orc;
+
+import com.facebook.presto.orc.OrcReader;
+import com.facebook.presto.orc.metadata.CompressionKind;
+import com.facebook.presto.orc.metadata.Footer;
+import com.facebook.presto.orc.metadata.OrcMetadataReader;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.DeflateCodec;
+import org.apache.hadoop.io.compress.SnappyCodec;
+import org.apache.tajo.BuiltinStorages;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.catalog.statistics.TableStats;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.plan.expr.*;
+import org.apache.tajo.storage.*;
+import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.storage.thirdparty.orc.FileOrcDataSource;
+import org.apache.tajo.util.CommonTestingUtil;
+import org.apache.tajo.util.datetime.DateTimeUtil;
+import org.joda.time.DateTimeZone;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class TestORCAppender {
+  private static final String TEST_PATH = "target/test-data/TestORCAppender";
+  private static final int ROW_NUM = 50000;
+  private static final long BASE_TIME = DateTimeUtil.javaTimeToJulianTime(1420070400000L);
+
+  private final Class<? extends CompressionCodec> codec;
+  private final CompressionKind compressionKind;
+
+  private TajoConf conf;
+  private Schema schema;
+  private TableMeta meta;
+  private Path path;
+  private FileFragment fragment;
+  private TableStats stats;
+
+  public TestORCAppender(Class<? extends CompressionCodec> codec, CompressionKind compressionKind) {
+    this.codec = codec;
+    this.compressionKind = compressionKind;
+  }
+
+  @Parameterized.Parameters
+  public static Collection<Object[]> generateParameters() {
+    return Arrays.asList(new Object[][] {
+        {null, CompressionKind.UNCOMPRESSED},
+        {DeflateCodec.class, CompressionKind.ZLIB},
+        {SnappyCodec.class, CompressionKind.SNAPPY},
+    });
+  }
+
+  @Before
+  public void setUp() throws IOException {
+    conf = new TajoConf();
+    Path testDir = CommonTestingUtil.getTestDir(TEST_PATH);
+    FileSystem fs = testDir.getFileSystem(conf);
+
+    schema = new Schema();
+    schema.addColumn("id", Type.INT4);
+    schema.addColumn("name", Type.TEXT);
+    schema.addColumn("score", Type.FLOAT8);
+    schema.addColumn("flag", Type.BOOLEAN);
+    schema.addColumn("day", Type.DATE);
+    schema.addColumn("time", Type.TIMESTAMP);
+    schema.addColumn("seq", Type.INT8);
+
+    // small stripes and row groups, so that the file has many of them ordered by id
+    meta = CatalogUtil.newTableMeta(BuiltinStorages.ORC);
+    meta.putOption(StorageConstants.ORC_STRIPE_SIZE, "65536");
+    meta.putOption(StorageConstants.ORC_ROW_INDEX_STRIDE, "1000");
+    meta.putOption(StorageConstants.ORC_COMPRESSION_BUFFER_SIZE, "4096");
+    if (codec != null) {
+      meta.putOption(StorageConstants.COMPRESSION_CODEC, codec.getName());
+    }
+
+    path = new Path(testDir, "data.orc");
+    Appender appender = TablespaceManager.getLocalFs().getAppender(null, null, meta, schema, path);
+    assertTrue(appender instanceof ORCAppender);
+    appender.enableStats();
+    appender.init();
+    for (int i = 0; i < ROW_NUM; i++) {
+      appender.addTuple(createTuple(i));
+    }
+    appender.close();
+    stats = appender.getStats();
+
+    FileStatus status = fs.getFileStatus(path);
+    fragment = new FileFragment("table", path, 0, status.getLen());
+  }
+
+  private static Tuple createTuple(int i) {
+    VTuple tuple = new VTuple(7);
+    tuple.put(0, DatumFactory.createInt4(i));
+    // nulls only in the first half, so that some stripes have no PRESENT stream
+    tuple.put(1, i < ROW_NUM / 2 && i % 7 == 0 ? NullDatum.get() : DatumFactory.createText("name_" + (i % 100)));
+    tuple.put(2, i % 13 == 0 ? NullDatum.get() : DatumFactory.createFloat8(i * 0.5));
+    tuple.put(3, DatumFactory.createBool(i % 3 == 0));
+    tuple.put(4, DatumFactory.createDate(DateTimeUtil.DAYS_FROM_JULIAN_TO_EPOCH + i / 10 - 1000));
+    tuple.put(5, i % 11 == 0 ? NullDatum.get() : DatumFactory.createTimestamp(BASE_TIME + (i - 1000) * 1001000L));
+    tuple.put(6, DatumFactory.createInt8((long) i * Integer.MAX_VALUE));
+    return tuple;
+  }
+
+  private int scan(EvalNode filter, int [] skipped) throws IOException {
+    Scanner scanner = TablespaceManager.getLocalFs().getScanner(meta, schema, fragment, schema);
+    scanner.init();
+    if (filter != null) {
+      filter.bind(null, schema);
+      scanner.setFilter(filter);
+    }
+
+    int count = 0;
+    Tuple tuple;
+    while ((tuple = scanner.next()) != null) {
+      Tuple expected = createTuple(tuple.getInt4(0));
+      for (int i = 0; i < schema.size(); i++) {
+        assertEquals(expected.asDatum(i), tuple.asDatum(i));
+      }
+      if (filter != null) {
+        assertTrue(filter.eval(tuple).isTrue());
+      }
+      count++;
+    }
+    scanner.close();
+    skipped[0] = scanner.getInputStats().getNumSkippedBlocks();
+    return count;
+  }
+
+  private static FieldEval field(Schema schema, String name) {
+    return new FieldEval(schema.getColumn(name));
+  }
+
+  @Test
+  public void testReadWrite() throws IOException {
+    assertEquals(ROW_NUM, stats.getNumRows().longValue());
+    assertEquals(fragment.getLength(), stats.getNumBytes().longValue());
+
+    OrcReader reader = new OrcReader(new FileOrcDataSource(new File(path.toUri()), 1024 * 1024),
+        new OrcMetadataReader());
+    assertEquals(compressionKind, reader.getCompressionKind());
+    Footer footer = reader.getFooter();
+    assertEquals(ROW_NUM, footer.getNumberOfRows());
+    assertEquals(1000, footer.getRowsInRowGroup());
+    assertTrue(footer.getStripes().size() > 1);
+    assertEquals(0, footer.getFileStats().get(1).getIntegerStatistics().getMin().longValue());
+    assertEquals(ROW_NUM - 1, footer.getFileStats().get(1).getIntegerStatistics().getMax().longValue());
+
+    int [] skipped = new int[1];
+    assertEquals(ROW_NUM, scan(null, skipped));
+    assertEquals(0, skipped[0]);
+  }
+
+  @Test
+  public void testReadOnWorkerOfAnotherTimeZone() throws IOException {
+    TimeZone defaultTimeZone = TimeZone.getDefault();
+    DateTimeZone defaultDateTimeZone = DateTimeZone.getDefault();
+    String otherTimeZone = defaultTimeZone.getRawOffset() == 0 ? "Asia/Seoul" : "GMT";
+    try {
+      // the timestamps are relative to the table time zone, not to the default time zone of a worker
+      TimeZone.setDefault(TimeZone.getTimeZone(otherTimeZone));
+      DateTimeZone.setDefault(DateTimeZone.forID(otherTimeZone));
+
+      int [] skipped = new int[1];
+      assertEquals(ROW_NUM, scan(null, skipped));
+    } finally {
+      TimeZone.setDefault(defaultTimeZone);
+      DateTimeZone.setDefault(defaultDateTimeZone);
+    }
+  }
+
+  @Test
+  public void testTableTimeZone() throws IOException {
+    meta.putOption(StorageConstants.TIMEZONE, "Asia/Seoul");
+    Appender appender = TablespaceManager.getLocalFs().getAppender(null, null, meta, schema, path);
+    appender.init();
+    for (int i = 0; i < ROW_NUM; i++) {
+      appender.addTuple(createTuple(i));
+    }
+    appender.close();
+    FileStatus status = path.getFileSystem(conf).getFileStatus(path);
+    fragment = new FileFragment("table", path, 0, status.getLen());
+
+    int [] skipped = new int[1];
+    assertEquals(ROW_NUM, scan(null, skipped));
+  }
+
+  @Test
+  public void testFilter() throws IOException {
+    int [] skipped = new int[1];
+
+    // id >= 45000, which skips stripes and row groups
+    EvalNode filter = new BinaryEval(EvalType.GEQ, field(schema, "id"), new ConstEval(DatumFactory.createInt4(45000)));
+    assertEquals(5000, scan(filter, skipped));
+    assertTrue(skipped[0] > 0);
+
+    // day between, which are the days of ids from 20000 to 20999.
+    // The reader ignores date statistics written by old Hive versions, so nothing is skipped.
+    filter = new BetweenPredicateEval(false, false, field(schema, "day"),
+        new ConstEval(DatumFactory.createDate(DateTimeUtil.DAYS_FROM_JULIAN_TO_EPOCH + 1000)),
+        new ConstEval(DatumFactory.createDate(DateTimeUtil.DAYS_FROM_JULIAN_TO_EPOCH + 1099)));
+    assertEquals(1000, scan(filter, skipped));
+
+    // seq < 1000 * Integer.MAX_VALUE, which skips stripes and row groups
+    filter = new BinaryEval(EvalType.LTH, field(schema, "seq"), new ConstEval(DatumFactory.createInt8(1000L * Integer.MAX_VALUE)));
+    assertEquals(1000, scan(filter, skipped));
+    assertTrue(skipped[0] > 0);
+
+    // name = 'name_3', which cannot skip any row group. Every 700th of them is null in the first half.
+    filter = new BinaryEval(EvalType.EQUAL, field(schema, "name"), new ConstEval(DatumFactory.createText("name_3")));
+    assertEquals(ROW_NUM / 100 - (ROW_NUM / 2 + 700 - 203 - 1) / 700, scan(filter, skipped));
+    assertEquals(0, skipped[0]);
+
+    // name is null, which is false for the second half
+    filter = new IsNullEval(false, field(schema, "name"));
+    assertEquals((ROW_NUM / 2 + 6) / 7, scan(filter, skipped));
+    assertTrue(skipped[0] > 0);
+  }
+}
@@ -26,7 +26,13 @@ import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.catalog.TableMeta;
 import org.apache.tajo.common.TajoDataTypes;
 import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.datum.DatumFactory;
 import org.apache.tajo.datum.TimestampDatum;
+import org.apache.tajo.plan.expr.BinaryEval;
+import org.apache.tajo.plan.expr.ConstEval;
+import org.apache.tajo.plan.expr.EvalNode;
+import org.apache.tajo.plan.expr.EvalType;
+import org.apache.tajo.plan.expr.FieldEval;
 import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.storage.fragment.FileFragment;
 import org.apache.tajo.storage.fragment.Fragment;
@@ -41,6 +47,7 @@ import java.io.IOException;
 import java.net.URL;
 
 public class TestORCScanner {
+  private Schema schema;
   private ORCScanner orcScanner;
 
   public static Path getResourcePath(String path, String suffix) {
@@ -57,7 +64,7 @@ public class TestORCScanner {
 
   @Before
   public void setup() throws IOException {
-    Schema schema = new Schema();
+    schema = new Schema();
     schema.addColumn("userid", TajoDataTypes.Type.INT4);
     schema.addColumn("movieid", TajoDataTypes.Type.INT4);
     schema.addColumn("rating", TajoDataTypes.Type.INT2);
@@ -96,6 +103,37 @@ public class TestORCScanner {
     }
   }
 
+  @Test
+  public void testFilter() throws IOException {
+    // userid = 196
+    EvalNode filter = new BinaryEval(EvalType.EQUAL, new FieldEval(schema.getColumn("userid")),
+        new ConstEval(DatumFactory.createInt4(196)));
+    filter.bind(null, schema);
+    orcScanner.setFilter(filter);
+    assertTrue(orcScanner.isSelectable());
+
+    int count = 0;
+    Tuple tuple;
+    while ((tuple = orcScanner.next()) != null) {
+      assertEquals(196, tuple.getInt4(0));
+      count++;
+    }
+    assertTrue(count > 0);
+    assertEquals(0, orcScanner.getInputStats().getNumSkippedBlocks().intValue());
+  }
+
+  @Test
+  public void testFilterSkippingAll() throws IOException {
+    // userid > 100000, which is out of the userid range of the file
+    EvalNode filter = new BinaryEval(EvalType.GTH, new FieldEval(schema.getColumn("userid")),
+        new ConstEval(DatumFactory.createInt4(100000)));
+    filter.bind(null, schema);
+    orcScanner.setFilter(filter);
+
+    assertNull(orcScanner.next());
+    assertTrue(orcScanner.getInputStats().getNumSkippedBlocks() > 0);
+  }
+
   @After
   public void end() {
     try {
@@ -0,0 +1,173 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage.parquet;
+
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetOutputFormat;
+import org.apache.tajo.BuiltinStorages;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.plan.expr.*;
+import org.apache.tajo.storage.Appender;
+import org.apache.tajo.storage.Scanner;
+import org.apache.tajo.storage.TablespaceManager;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.util.CommonTestingUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class TestParquetScanner {
+  private static final String TEST_PATH = "target/test-data/TestParquetScanner";
+  private static final int ROW_NUM = 10000;
+
+  private TajoConf conf;
+  private Schema schema;
+  private FileFragment fragment;
+  private TableMeta meta;
+
+  @Before
+  public void setUp() throws IOException {
+    conf = new TajoConf();
+    Path testDir = CommonTestingUtil.getTestDir(TEST_PATH);
+    FileSystem fs = testDir.getFileSystem(conf);
+
+    schema = new Schema();
+    schema.addColumn("id", Type.INT4);
+    schema.addColumn("name", Type.TEXT);
+    schema.addColumn("score", Type.FLOAT8);
+
+    // small row groups, so that the file has many row groups ordered by id
+    meta = CatalogUtil.newTableMeta(BuiltinStorages.PARQUET);
+    meta.putOption(ParquetOutputFormat.BLOCK_SIZE, "4096");
+    Path path = new Path(testDir, "data.parquet");
+    Appender appender = TablespaceManager.getLocalFs().getAppender(null, null, meta, schema, path);
+    appender.init();
+    for (int i = 0; i < ROW_NUM; i++) {
+      VTuple tuple = new VTuple(3);
+      tuple.put(0, DatumFactory.createInt4(i));
+      tuple.put(1, i % 10 == 0 ? NullDatum.get() : DatumFactory.createText("name_" + (i % 100)));
+      tuple.put(2, DatumFactory.createFloat8(i * 0.5));
+      appender.addTuple(tuple);
+    }
+    appender.close();
+
+    FileStatus status = fs.getFileStatus(path);
+    fragment = new FileFragment("table", path, 0, status.getLen());
+  }
+
+  private int scan(EvalNode filter, int [] skipped) throws IOException {
+    Scanner scanner = TablespaceManager.getLocalFs().getScanner(meta, schema, fragment, schema);
+    scanner.init();
+    assertTrue(scanner.isSelectable());
+    if (filter != null) {
+      filter.bind(null, schema);
+      scanner.setFilter(filter);
+    }
+
+    int count = 0;
+    Tuple tuple;
+    while ((tuple = scanner.next()) != null) {
+      if (filter != null) {
+        assertTrue(filter.eval(tuple).isTrue());
+      }
+      count++;
+    }
+    scanner.close();
+    skipped[0] = scanner.getInputStats().getNumSkippedBlocks();
+    return count;
+  }
+
+  private static FieldEval field(Schema schema, String name) {
+    return new FieldEval(schema.getColumn(name));
+  }
+
+  @Test
+  public void testNoFilter() throws IOException {
+    int [] skipped = new int[1];
+    assertEquals(ROW_NUM, scan(null, skipped));
+    assertEquals(0, skipped[0]);
+  }
+
+  @Test
+  public void testRangeFilter() throws IOException {
+    int [] skipped = new int[1];
+
+    // id >= 9000
+    EvalNode filter = new BinaryEval(EvalType.GEQ, field(schema, "id"),
+        new ConstEval(DatumFactory.createInt4(9000)));
+    assertEquals(1000, scan(filter, skipped));
+    assertTrue(skipped[0] > 0);
+
+    // id between 100 and 199
+    filter = new BetweenPredicateEval(false, false, field(schema, "id"),
+        new ConstEval(DatumFactory.createInt4(100)), new ConstEval(DatumFactory.createInt4(199)));
+    assertEquals(100, scan(filter, skipped));
+    assertTrue(skipped[0] > 0);
+
+    // 5000.0 < score, where the constant is on the left side, and which is false for all rows
+    filter = new BinaryEval(EvalType.LTH, new ConstEval(DatumFactory.createFloat8(5000.0)), field(schema, "score"));
+    assertEquals(0, scan(filter, skipped));
+    assertTrue(skipped[0] > 0);
+  }
+
+  @Test
+  public void testUnsupportedFilter() throws IOException {
+    int [] skipped = new int[1];
+
+    // id >= 9000 and name like 'name_1%', where the like predicate is only evaluated for rows
+    EvalNode filter = new BinaryEval(EvalType.AND,
+        new BinaryEval(EvalType.GEQ, field(schema, "id"), new ConstEval(DatumFactory.createInt4(9000))),
+        new LikePredicateEval(false, field(schema, "name"), new ConstEval(DatumFactory.createText("name_1%")), false));
+    assertEquals(100, scan(filter, skipped));
+    assertTrue(skipped[0] > 0);
+
+    // NOT (id < 9000) OR name IS NULL, which cannot skip any row group
+    filter = new BinaryEval(EvalType.OR,
+        new NotEval(new BinaryEval(EvalType.LTH, field(schema, "id"), new ConstEval(DatumFactory.createInt4(9000)))),
+        new IsNullEval(false, field(schema, "name")));
+    assertEquals(1000 + 900, scan(filter, skipped));
+    assertEquals(0, skipped[0]);
+  }
+
+  @Test
+  public void testInFilter() throws IOException {
+    int [] skipped = new int[1];
+
+    // id in (3, 9999)
+    EvalNode filter = new InEval(field(schema, "id"),
+        new RowConstantEval(new Datum[] {
+            DatumFactory.createInt4(3), DatumFactory.createInt4(9999)}), false);
+    assertEquals(2, scan(filter, skipped));
+    assertTrue(skipped[0] > 0);
+  }
+}
@@ -71,6 +71,7 @@ public class TestDirectRawFile {
 
   private TajoConf tajoConf;
   private Path testDir;
+  private boolean isLocal;
 
   @Parameterized.Parameters
   public static Collection<Object[]> generateParameters() throws IOException {
@@ -82,6 +83,7 @@ public class TestDirectRawFile {
 
 
   public TestDirectRawFile(boolean isLocal) throws IOException {
+    this.isLocal = isLocal;
     FileSystem fs;
     if (isLocal) {
       fs = localFs;
@@ -264,6 +266,88 @@ public class TestDirectRawFile {
     reader.close();
   }
 
+  @Test
+  public void testSmallMappedWindows() throws IOException {
+    int rowNum = 1000;
+
+    OffHeapRowBlock rowBlock = createRowBlock(rowNum);
+    TableMeta meta = CatalogUtil.newTableMeta(BuiltinStorages.DRAW);
+    FileStatus outputFile = writeRowBlock(tajoConf, meta, rowBlock);
+    rowBlock.release();
+
+    // rows span windows, and some rows are larger than a window
+    for (int windowSize : new int[] {64, 100, 4096}) {
+      TajoConf conf = new TajoConf(tajoConf);
+      conf.setInt(DirectRawFileScanner.MMAP_WINDOW_SIZE, windowSize);
+
+      FileFragment fragment =
+          new FileFragment("testSmallMappedWindows", outputFile.getPath(), 0, outputFile.getLen());
+      DirectRawFileScanner reader = new DirectRawFileScanner(conf, schema, meta, fragment);
+      reader.init();
+
+      for (int pass = 0; pass < 2; pass++) {
+        int j = 0;
+        Tuple tuple;
+        while ((tuple = reader.next()) != null) {
+          validateTupleResult(j, tuple);
+          j++;
+        }
+        assertEquals(rowNum, j);
+        reader.reset();
+      }
+      reader.close();
+    }
+  }
+
+  @Test
+  public void testSeekAndFragmentRange() throws IOException {
+    int rowNum = 1000;
+
+    OffHeapRowBlock rowBlock = createRowBlock(rowNum);
+    TableMeta meta = CatalogUtil.newTableMeta(BuiltinStorages.DRAW);
+    FileStatus outputFile = writeRowBlock(tajoConf, meta, rowBlock);
+    rowBlock.release();
+
+    TajoConf conf = new TajoConf(tajoConf);
+    conf.setInt(DirectRawFileScanner.MMAP_WINDOW_SIZE, 4096);
+
+    FileFragment fragment =
+        new FileFragment("testSeekAndFragmentRange", outputFile.getPath(), 0, outputFile.getLen());
+    DirectRawFileScanner reader = new DirectRawFileScanner(conf, schema, meta, fragment);
+    reader.init();
+
+    long [] offsets = new long[rowNum + 1];
+    for (int i = 0; i < rowNum; i++) {
+      offsets[i] = reader.getNextOffset();
+      assertNotNull(reader.next());
+    }
+    offsets[rowNum] = reader.getNextOffset();
+    assertEquals(outputFile.getLen(), offsets[rowNum]);
+
+    // seek backward to the middle of the file, and also to a row in another window
+    for (int row : new int[] {700, 10, 999}) {
+      reader.seek(offsets[row]);
+      validateTupleResult(row, reader.next());
+    }
+    reader.close();
+
+    if (isLocal) {
+      // only the rows in the fragment are read from a memory-mapped file
+      fragment = new FileFragment("testSeekAndFragmentRange", outputFile.getPath(), offsets[100],
+          offsets[300] - offsets[100]);
+      reader = new DirectRawFileScanner(conf, schema, meta, fragment);
+      reader.init();
+      int j = 100;
+      Tuple tuple;
+      while ((tuple = reader.next()) != null) {
+        validateTupleResult(j, tuple);
+        j++;
+      }
+      assertEquals(300, j);
+      reader.close();
+    }
+  }
+
   public static OffHeapRowBlock createRowBlock(int rowNum) {
     long allocateStart = System.currentTimeMillis();
     OffHeapRowBlock rowBlock = new OffHeapRowBlock(schema, StorageUnit.MB * 8);
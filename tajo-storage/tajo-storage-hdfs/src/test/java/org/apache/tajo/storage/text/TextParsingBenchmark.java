@@ -0,0 +1,178 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage.text;
+
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.storage.Scanner;
+import org.apache.tajo.storage.StorageConstants;
+import org.apache.tajo.storage.TablespaceManager;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.unit.StorageUnit;
+import org.apache.tajo.util.Bytes;
+import org.apache.tajo.util.CommonTestingUtil;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * A micro benchmark which compares the default text parsing with the direct parsing of delimited text files.
+ * It scans a generated file with several projections, and prints the elapsed time and throughput of each.
+ *
+ * <pre>
+ *   java org.apache.tajo.storage.text.TextParsingBenchmark [rows] [iterations]
+ * </pre>
+ */
+public class TextParsingBenchmark {
+  private static final int WARMUP_ITERATIONS = 3;
+
+  private static final String [][] PROJECTIONS = new String[][] {
+      {"l_orderkey", "l_partkey", "l_suppkey", "l_linenumber", "l_quantity", "l_extendedprice", "l_discount",
+          "l_tax", "l_returnflag", "l_shipdate", "l_commitdate", "l_comment"},
+      {"l_orderkey", "l_extendedprice", "l_shipdate"},
+      {"l_comment"}
+  };
+
+  public static void main(String [] args) throws IOException {
+    int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+    int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+    Schema schema = new Schema();
+    schema.addColumn("l_orderkey", Type.INT8);
+    schema.addColumn("l_partkey", Type.INT4);
+    schema.addColumn("l_suppkey", Type.INT4);
+    schema.addColumn("l_linenumber", Type.INT2);
+    schema.addColumn("l_quantity", Type.FLOAT4);
+    schema.addColumn("l_extendedprice", Type.FLOAT8);
+    schema.addColumn("l_discount", Type.FLOAT8);
+    schema.addColumn("l_tax", Type.FLOAT8);
+    schema.addColumn("l_returnflag", Type.TEXT);
+    schema.addColumn("l_shipdate", Type.DATE);
+    schema.addColumn("l_commitdate", Type.TIMESTAMP);
+    schema.addColumn("l_comment", Type.TEXT);
+
+    FileFragment fragment = writeFile(rows);
+    System.out.println(String.format("%d rows, %d bytes", rows, fragment.getLength()));
+
+    TableMeta meta = CatalogUtil.newTableMeta("TEXT");
+    TableMeta directMeta = CatalogUtil.newTableMeta("TEXT");
+    directMeta.putOption(StorageConstants.TEXT_DIRECT_PARSE, "true");
+
+    for (String [] projection : PROJECTIONS) {
+      Schema target = new Schema();
+      for (String name : projection) {
+        target.addColumn(schema.getColumn(name));
+      }
+
+      for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+        scan(meta, schema, fragment, target);
+        scan(directMeta, schema, fragment, target);
+      }
+
+      long defaultNanos = 0;
+      long directNanos = 0;
+      for (int i = 0; i < iterations; i++) {
+        defaultNanos += scan(meta, schema, fragment, target);
+        directNanos += scan(directMeta, schema, fragment, target);
+      }
+
+      System.out.println(String.format("%d columns: default %.1f MB/s, direct %.1f MB/s (%.2fx)",
+          projection.length, throughput(fragment, defaultNanos / iterations),
+          throughput(fragment, directNanos / iterations), (double) defaultNanos / directNanos));
+    }
+  }
+
+  private static FileFragment writeFile(int rows) throws IOException {
+    Path path = new Path(CommonTestingUtil.getTestDir(), "lineitem.tbl");
+    FileSystem fs = FileSystem.getLocal(new TajoConf());
+
+    Random random = new Random(rows);
+    FSDataOutputStream out = fs.create(path, true);
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < rows; i++) {
+      sb.setLength(0);
+      sb.append(i / 4).append('|')
+          .append(random.nextInt(200000)).append('|')
+          .append(random.nextInt(10000)).append('|')
+          .append(i % 4 + 1).append('|')
+          .append(random.nextInt(50) + 1).append('|')
+          .append(random.nextInt(10000000) / 100.0).append('|')
+          .append(random.nextInt(10) / 100.0).append('|')
+          .append(random.nextInt(8) / 100.0).append('|')
+          .append(random.nextBoolean() ? 'N' : 'R').append('|')
+          .append(String.format("%04d-%02d-%02d", 1992 + random.nextInt(7), random.nextInt(12) + 1,
+              random.nextInt(28) + 1)).append('|')
+          .append(String.format("%04d-%02d-%02d %02d:%02d:%02d", 1992 + random.nextInt(7), random.nextInt(12) + 1,
+              random.nextInt(28) + 1, random.nextInt(24), random.nextInt(60), random.nextInt(60))).append('|')
+          .append("comment of the line item ").append(random.nextLong()).append('\n');
+      out.write(sb.toString().getBytes(Bytes.UTF8_CHARSET));
+    }
+    out.close();
+
+    return new FileFragment("lineitem", path, 0, fs.getFileStatus(path).getLen());
+  }
+
+  /**
+   * @return The elapsed nanoseconds of scanning all tuples
+   */
+  private static long scan(TableMeta meta, Schema schema, FileFragment fragment, Schema target) throws IOException {
+    long start = System.nanoTime();
+    Scanner scanner = TablespaceManager.getLocalFs().getScanner(meta, schema, fragment, target);
+    scanner.init();
+
+    long checksum = 0;
+    Tuple tuple;
+    while ((tuple = scanner.next()) != null) {
+      // read the fields by their types as evaluators do
+      for (int i = 0; i < tuple.size(); i++) {
+        if (tuple.isBlankOrNull(i)) {
+          continue;
+        }
+        switch (target.getColumn(i).getDataType().getType()) {
+        case INT2: checksum += tuple.getInt2(i); break;
+        case INT4: checksum += tuple.getInt4(i); break;
+        case INT8:
+        case TIMESTAMP: checksum += tuple.getInt8(i); break;
+        case DATE: checksum += tuple.getInt4(i); break;
+        case FLOAT4: checksum += tuple.getFloat4(i); break;
+        case FLOAT8: checksum += tuple.getFloat8(i); break;
+        default: checksum += tuple.getBytes(i).length; break;
+        }
+      }
+    }
+    scanner.close();
+    long elapsed = System.nanoTime() - start;
+
+    if (checksum == 42) {
+      System.out.println(checksum);
+    }
+    return elapsed;
+  }
+
+  private static double throughput(FileFragment fragment, long nanos) {
+    return fragment.getLength() / (double) StorageUnit.MB / (nanos / 1e9);
+  }
+}